@@ -0,0 +1,127 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package org.questdb;
+
+import io.questdb.cutlass.text.CsvBlockScanner;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Rnd;
+import io.questdb.std.SwarUtils;
+import io.questdb.std.Unsafe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares stage one of the CSV lexers, i.e. finding delimiters, quotes and line ends,
+ * done byte by byte against {@link CsvBlockScanner}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvBlockScannerBenchmark {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final long DELIMITER_MASK = SwarUtils.broadcast((byte) ',');
+    @Param({"4", "16", "64"})
+    public int avgFieldLength;
+    private long buf;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CsvBlockScannerBenchmark.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        buf = Unsafe.malloc(BUFFER_SIZE, MemoryTag.NATIVE_DEFAULT);
+        final Rnd rnd = new Rnd();
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            final int r = rnd.nextInt(avgFieldLength * 10);
+            final byte b;
+            if (r < 8) {
+                b = ',';
+            } else if (r == 8) {
+                b = '"';
+            } else if (r == 9) {
+                b = '\n';
+            } else {
+                b = (byte) ('a' + rnd.nextInt(26));
+            }
+            Unsafe.getUnsafe().putByte(buf + i, b);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf = Unsafe.free(buf, BUFFER_SIZE, MemoryTag.NATIVE_DEFAULT);
+    }
+
+    @Benchmark
+    public long testBlockScanner() {
+        long count = 0;
+        for (long p = buf, hi = buf + BUFFER_SIZE; p < hi; p += CsvBlockScanner.BLOCK_SIZE) {
+            long structural = CsvBlockScanner.structuralMask(p, DELIMITER_MASK);
+            final long nonAscii = CsvBlockScanner.nonAsciiMask(p);
+            count += nonAscii;
+            while (structural != 0) {
+                count += Long.numberOfTrailingZeros(structural);
+                structural &= structural - 1;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long testByteByByte() {
+        long count = 0;
+        for (long p = buf, hi = buf + BUFFER_SIZE; p < hi; p++) {
+            final byte b = Unsafe.getUnsafe().getByte(p);
+            if (b <= 0) {
+                count++;
+            }
+            switch (b) {
+                case ',':
+                case '"':
+                case '\n':
+                case '\r':
+                    count += p - buf;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return count;
+    }
+}
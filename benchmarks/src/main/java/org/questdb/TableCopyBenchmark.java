@@ -0,0 +1,135 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.*;
+import io.questdb.griffin.SqlCompilerImpl;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.LogFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares table-to-table copies that append source page frames to the writer column by column
+ * (plain CREATE TABLE AS SELECT and INSERT INTO SELECT) with the row-by-row path, which is forced
+ * by a filter on the source table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TableCopyBenchmark {
+
+    private static final CairoConfiguration configuration = new DefaultCairoConfiguration(System.getProperty("java.io.tmpdir"));
+    private static CairoEngine cairoEngine;
+    private static SqlCompilerImpl compiler;
+    private static SqlExecutionContext sqlExecutionContext;
+    @Param({"1000000", "10000000"})
+    public long size;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TableCopyBenchmark.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.haltInstance();
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        execute("drop table if exists dst");
+        execute("create table dst (l long, d double, s symbol, v varchar, str string, ts timestamp) timestamp(ts) partition by day bypass wal");
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        cairoEngine = new CairoEngine(configuration);
+        sqlExecutionContext = new SqlExecutionContextImpl(cairoEngine, 1)
+                .with(
+                        configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                        null,
+                        null,
+                        -1,
+                        null
+                );
+        compiler = new SqlCompilerImpl(cairoEngine);
+        execute("drop table if exists src");
+        execute(
+                "create table src as (" +
+                        "select x l, rnd_double() d, rnd_symbol(100, 4, 8, 0) s, rnd_varchar(4, 32, 1) v, rnd_str(4, 32, 1) str," +
+                        " timestamp_sequence(0, 100000) ts from long_sequence(" + size + ")" +
+                        ") timestamp(ts) partition by day bypass wal"
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        execute("drop table if exists dst");
+        execute("drop table if exists src");
+        compiler.close();
+        cairoEngine.close();
+    }
+
+    @Benchmark
+    public void testCreateTableAsSelect() {
+        execute("drop table dst");
+        execute("create table dst as (select * from src) timestamp(ts) partition by day bypass wal");
+    }
+
+    @Benchmark
+    public void testCreateTableAsSelectRowByRow() {
+        execute("drop table dst");
+        execute("create table dst as (select * from src where l > 0) timestamp(ts) partition by day bypass wal");
+    }
+
+    @Benchmark
+    public void testInsertIntoSelect() {
+        execute("insert into dst select * from src");
+    }
+
+    @Benchmark
+    public void testInsertIntoSelectRowByRow() {
+        execute("insert into dst select * from src where l > 0");
+    }
+
+    private static void execute(String sql) {
+        try {
+            compiler.compile(sql, sqlExecutionContext);
+        } catch (SqlException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -35,6 +35,7 @@ import io.questdb.log.LogFactory;
 import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 import io.questdb.std.datetime.microtime.TimestampFormatUtils;
+import io.questdb.std.datetime.microtime.Timestamps;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -53,24 +54,11 @@ public class TableReaderReloadBenchmark {
     private static CairoEngine cairoEngine;
     private static TableReader reader;
     private static TableWriter writer;
+    @Param({"10", "1000", "5000"})
+    public int partitionCount;
+    private long o3Timestamp;
 
     public static void main(String[] args) throws RunnerException {
-        try (CairoEngine engine = new CairoEngine(configuration)) {
-            cairoEngine = engine;
-            SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(engine, 1)
-                    .with(
-                            configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
-                            null,
-                            null,
-                            -1,
-                            null
-                    );
-            try (SqlCompilerImpl compiler = new SqlCompilerImpl(engine)) {
-                compiler.compile("create table if not exists test(f timestamp) timestamp (f) PARTITION BY DAY", sqlExecutionContext);
-            } catch (SqlException e) {
-                throw new ExceptionInInitializerError();
-            }
-        }
         Options opt = new OptionsBuilder()
                 .include(TableReaderReloadBenchmark.class.getSimpleName())
                 .warmupIterations(2)
@@ -85,7 +73,7 @@ public class TableReaderReloadBenchmark {
 
     @Setup(Level.Iteration)
     public void setup() throws NumericException {
-        TableToken tableToken = new TableToken("test", "test", 0, false, false, false);
+        TableToken tableToken = cairoEngine.verifyTableName("test");
         writer = new TableWriter(
                 configuration,
                 tableToken,
@@ -100,19 +88,15 @@ public class TableReaderReloadBenchmark {
                 cairoEngine
         );
         writer.truncate();
-        // create 10 partitions
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-01T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-02T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-03T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-04T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-05T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-06T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-07T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-08T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-09T00:00:00.000000Z"));
-        appendRow(TimestampFormatUtils.parseTimestamp("2012-03-10T00:00:00.000000Z"));
+        // create partitions, one per day, ending on the day of the appended rows
+        final long lastDay = Timestamps.floorDD(ts);
+        for (int i = partitionCount - 1; i > -1; i--) {
+            appendRow(Timestamps.addDays(lastDay, -i));
+        }
         writer.commit();
-        reader = new TableReader(configuration, tableToken);
+        // O3 rows go to the partition in the middle of the table
+        o3Timestamp = Timestamps.addDays(lastDay, -partitionCount / 2);
+        reader = new TableReader(configuration, tableToken, null, null, null, cairoEngine.getPartitionChangeLog(tableToken));
 
         // ensure reader opens all partitions and maps all data
         for (int i = 0; i < reader.getPartitionCount(); i++) {
@@ -120,6 +104,24 @@ public class TableReaderReloadBenchmark {
         }
     }
 
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        cairoEngine = new CairoEngine(configuration);
+        SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(cairoEngine, 1)
+                .with(
+                        configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                        null,
+                        null,
+                        -1,
+                        null
+                );
+        try (SqlCompilerImpl compiler = new SqlCompilerImpl(cairoEngine)) {
+            compiler.compile("create table if not exists test(f timestamp) timestamp (f) PARTITION BY DAY", sqlExecutionContext);
+        } catch (SqlException e) {
+            throw new ExceptionInInitializerError();
+        }
+    }
+
     @TearDown(Level.Iteration)
     public void tearDown() {
         System.out.println("writer size = " + Math.max(writer.size(), writer.size()));
@@ -133,6 +135,17 @@ public class TableReaderReloadBenchmark {
         writer.commit();
     }
 
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        cairoEngine.close();
+    }
+
+    @Benchmark
+    public void testBaselineO3() {
+        appendRow(o3Timestamp);
+        writer.commit();
+    }
+
     @Benchmark
     public void testReload() {
         appendRow(ts);
@@ -140,6 +153,13 @@ public class TableReaderReloadBenchmark {
         reader.reload();
     }
 
+    @Benchmark
+    public void testReloadO3() {
+        appendRow(o3Timestamp);
+        writer.commit();
+        reader.reload();
+    }
+
     private static void appendRow(long timestamp) {
         TableWriter.Row r = writer.newRow(timestamp);
         r.append();
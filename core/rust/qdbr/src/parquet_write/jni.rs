@@ -205,6 +205,32 @@ pub extern "system" fn Java_io_questdb_griffin_engine_table_parquet_PartitionUpd
     );
 }
 
+#[no_mangle]
+pub extern "system" fn Java_io_questdb_griffin_engine_table_parquet_PartitionUpdater_appendRowGroup(
+    env: JNIEnv,
+    _class: JClass,
+    parquet_updater: *mut ParquetUpdater,
+    col_count: jint,
+    col_names_ptr: *const u8,
+    col_names_len: jint,
+    col_data_ptr: *const i64,
+    col_data_len: jlong,
+    row_count: jlong,
+) {
+    update_partition(
+        env,
+        _class,
+        parquet_updater,
+        None,
+        col_count,
+        col_names_ptr,
+        col_names_len,
+        col_data_ptr,
+        col_data_len,
+        row_count,
+    );
+}
+
 #[no_mangle]
 pub extern "system" fn Java_io_questdb_griffin_engine_table_parquet_PartitionEncoder_encodePartition(
     mut env: JNIEnv,
@@ -531,6 +531,21 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_getFileSystemStatus
 
 #endif
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_openRODirect
+        (JNIEnv *e, jclass cl, jlong lpszName) {
+#ifdef __APPLE__
+    // there is no O_DIRECT on OSX, F_NOCACHE turns off data caching for the file instead
+    int fd = open((const char *) lpszName, O_RDONLY);
+    if (fd > -1 && fcntl(fd, F_NOCACHE, 1) == -1) {
+        close(fd);
+        return -1;
+    }
+    return fd;
+#else
+    return open((const char *) lpszName, O_RDONLY | O_DIRECT);
+#endif
+}
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_getFileLimit
         (JNIEnv *e, jclass cl) {
     return 0; // no-op
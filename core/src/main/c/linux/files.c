@@ -123,6 +123,11 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_copyDataToOffset
     return (jlong) copyData0((int) srcFd, (int) destFd, (off_t) srcOffset, (off_t) dstOffset, (int64_t) length);
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_openRODirect
+        (JNIEnv *e, jclass cl, jlong lpszName) {
+    return open((const char *) lpszName, O_RDONLY | O_DIRECT);
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_fadvise0
         (JNIEnv *e, jclass cls, jint fd, jlong offset, jlong len, jint advise) {
     return posix_fadvise((int) fd, (off_t) offset, (off_t) len, advise);
@@ -29,6 +29,7 @@
 #include <stdlib.h>
 #include <string.h>
 #include <sys/time.h>
+#include <sys/resource.h>
 #include <time.h>
 #include "../share/os.h"
 #include "jemalloc-cmake/include/jemalloc/jemalloc.h"
@@ -79,6 +80,24 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getRss
 
 #endif
 
+JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getMajorPageFaults0
+        (JNIEnv *e, jclass cl) {
+    struct rusage usage;
+    if (getrusage(RUSAGE_SELF, &usage) != 0) {
+        return 0L;
+    }
+    return (jlong) usage.ru_majflt;
+}
+
+JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getMinorPageFaults0
+        (JNIEnv *e, jclass cl) {
+    struct rusage usage;
+    if (getrusage(RUSAGE_SELF, &usage) != 0) {
+        return 0L;
+    }
+    return (jlong) usage.ru_minflt;
+}
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_currentTimeMicros
         (JNIEnv *e, jclass cl) {
     struct timeval tv;
@@ -137,7 +137,13 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_copyData
     return Java_io_questdb_std_Files_copyDataToOffset(e, cls, srcFd, destFd, fromOffset, 0, length);
 }
 
-HANDLE openUtf8(jlong lpszName, DWORD dwDesiredAccess, DWORD dwShareMode, DWORD dwCreationDisposition) {
+HANDLE openUtf8Flags(
+        jlong lpszName,
+        DWORD dwDesiredAccess,
+        DWORD dwShareMode,
+        DWORD dwCreationDisposition,
+        DWORD dwFlagsAndAttributes
+) {
     int len = MultiByteToWideChar(CP_UTF8, MB_ERR_INVALID_CHARS, (LPCCH) lpszName, -1, NULL, 0);
     if (len > 0) {
         wchar_t buf[len];
@@ -149,7 +155,7 @@ HANDLE openUtf8(jlong lpszName, DWORD dwDesiredAccess, DWORD dwShareMode, DWORD
                 dwShareMode,
                 NULL,
                 dwCreationDisposition,
-                FILE_ATTRIBUTE_NORMAL,
+                dwFlagsAndAttributes,
                 NULL
         );
 
@@ -162,6 +168,10 @@ HANDLE openUtf8(jlong lpszName, DWORD dwDesiredAccess, DWORD dwShareMode, DWORD
     return INVALID_HANDLE_VALUE;
 }
 
+HANDLE openUtf8(jlong lpszName, DWORD dwDesiredAccess, DWORD dwShareMode, DWORD dwCreationDisposition) {
+    return openUtf8Flags(lpszName, dwDesiredAccess, dwShareMode, dwCreationDisposition, FILE_ATTRIBUTE_NORMAL);
+}
+
 JNIEXPORT jlong JNICALL Java_io_questdb_std_Files_write
         (JNIEnv *e, jclass cl, jint fd, jlong address, jlong len, jlong offset) {
     DWORD count;
@@ -535,6 +545,16 @@ JNIEXPORT jint JNICALL Java_io_questdb_std_Files_openRO(JNIEnv *e, jclass cl, jl
     ));
 }
 
+JNIEXPORT jint JNICALL Java_io_questdb_std_Files_openRODirect(JNIEnv *e, jclass cl, jlong lpszName) {
+    return HANDLE_TO_FD(openUtf8Flags(
+            lpszName,
+            GENERIC_READ,
+            FILE_SHARE_READ | FILE_SHARE_WRITE | FILE_SHARE_DELETE,
+            OPEN_EXISTING,
+            FILE_ATTRIBUTE_NORMAL | FILE_FLAG_NO_BUFFERING
+    ));
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Files_close0
         (JNIEnv *e, jclass cl, jint fd) {
     jint r = CloseHandle(FD_TO_HANDLE(fd));
@@ -51,6 +51,23 @@ JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getRss
     }
 }
 
+JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getMajorPageFaults0
+        (JNIEnv *e, jclass cl) {
+    // Windows does not distinguish soft and hard faults in process counters
+    return (jlong) 0L;
+}
+
+JNIEXPORT jlong JNICALL Java_io_questdb_std_Os_getMinorPageFaults0
+        (JNIEnv *e, jclass cl) {
+    PROCESS_MEMORY_COUNTERS procInfo;
+    BOOL status = GetProcessMemoryInfo(GetCurrentProcess(), &procInfo, sizeof(procInfo));
+    if (status != 0) {
+        return (jlong) procInfo.PageFaultCount;
+    } else {
+        return (jlong) 0L;
+    }
+}
+
 JNIEXPORT jint JNICALL Java_io_questdb_std_Os_errno
         (JNIEnv *e, jclass cl) {
     return (jint) (intptr_t) TlsGetValue(dwTlsIndexLastError);
@@ -542,6 +542,9 @@ public class Bootstrap {
         if (cairoConfig.isReadOnlyInstance()) {
             log.advisoryW().$(" - THIS IS READ ONLY INSTANCE").$();
         }
+        if (cairoConfig.getWalReplicaSourceRoot() != null) {
+            log.advisoryW().$(" - THIS IS READ REPLICA OF [").$(cairoConfig.getWalReplicaSourceRoot()).I$();
+        }
         try (Path path = new Path()) {
             verifyFileSystem(path, cairoConfig.getRoot(), "db", true);
             verifyFileSystem(path, cairoConfig.getBackupRoot(), "backup", true);
@@ -26,9 +26,11 @@ package io.questdb;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.QueryAdmissionControl;
 import io.questdb.cutlass.text.CopyRequestTask;
 import io.questdb.cutlass.text.CopyTask;
 import io.questdb.mp.*;
+import io.questdb.std.NumaTopology;
 import io.questdb.tasks.*;
 
 import java.io.Closeable;
@@ -69,6 +71,8 @@ public interface MessageBus extends Closeable {
 
     MCSequence getLatestBySubSeq();
 
+    NumaTopology getNumaTopology();
+
     MPSequence getO3CopyPubSeq();
 
     RingQueue<O3CopyTask> getO3CopyQueue();
@@ -101,6 +105,8 @@ public interface MessageBus extends Closeable {
 
     int getPageFrameReduceShardCount();
 
+    QueryAdmissionControl getQueryAdmissionControl();
+
     MCSequence getPageFrameReduceSubSeq(int shard);
 
     MPSequence getQueryCacheEventPubSeq();
@@ -131,9 +137,17 @@ public interface MessageBus extends Closeable {
 
     MCSequence getVectorAggregateSubSeq();
 
+    MPSequence getWalSegmentCompressionPubSeq();
+
+    RingQueue<WalSegmentCompressionTask> getWalSegmentCompressionQueue();
+
+    MCSequence getWalSegmentCompressionSubSeq();
+
     MPSequence getWalTxnNotificationPubSequence();
 
     RingQueue<WalTxnNotificationTask> getWalTxnNotificationQueue();
 
     MCSequence getWalTxnNotificationSubSequence();
+
+    WorkerWakeup getWorkerWakeup();
 }
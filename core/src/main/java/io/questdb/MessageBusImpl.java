@@ -26,11 +26,13 @@ package io.questdb;
 
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.QueryAdmissionControl;
 import io.questdb.cutlass.text.CopyRequestTask;
 import io.questdb.cutlass.text.CopyTask;
 import io.questdb.mp.*;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
+import io.questdb.std.NumaTopology;
 import io.questdb.tasks.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
@@ -52,6 +54,7 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence latestByPubSeq;
     private final RingQueue<LatestByTask> latestByQueue;
     private final MCSequence latestBySubSeq;
+    private final NumaTopology numaTopology;
     private final MPSequence o3CopyPubSeq;
     private final RingQueue<O3CopyTask> o3CopyQueue;
     private final MCSequence o3CopySubSeq;
@@ -69,6 +72,7 @@ public class MessageBusImpl implements MessageBus {
     private final RingQueue<PageFrameReduceTask>[] pageFrameReduceQueue;
     private final int pageFrameReduceShardCount;
     private final MCSequence[] pageFrameReduceSubSeq;
+    private final QueryAdmissionControl queryAdmissionControl;
     private final MPSequence queryCacheEventPubSeq;
     private final MCSequence queryCacheEventSubSeq;
     private final MPSequence tableWriterEventPubSeq;
@@ -84,41 +88,47 @@ public class MessageBusImpl implements MessageBus {
     private final MPSequence vectorAggregatePubSeq;
     private final RingQueue<VectorAggregateTask> vectorAggregateQueue;
     private final MCSequence vectorAggregateSubSeq;
+    private final MPSequence walSegmentCompressionPubSeq;
+    private final RingQueue<WalSegmentCompressionTask> walSegmentCompressionQueue;
+    private final MCSequence walSegmentCompressionSubSeq;
     private final MPSequence walTxnNotificationPubSequence;
     private final RingQueue<WalTxnNotificationTask> walTxnNotificationQueue;
     private final MCSequence walTxnNotificationSubSequence;
+    private final WorkerWakeup workerWakeup;
 
     public MessageBusImpl(@NotNull CairoConfiguration configuration) {
         try {
             this.configuration = configuration;
+            // consumer sequences of the queues processed by worker pools wake up parked workers
+            this.workerWakeup = new WorkerWakeup();
             this.indexerQueue = new RingQueue<>(ColumnIndexerTask::new, configuration.getColumnIndexerQueueCapacity());
             this.indexerPubSeq = new MPSequence(indexerQueue.getCycle());
-            this.indexerSubSeq = new MCSequence(indexerQueue.getCycle());
+            this.indexerSubSeq = new MCSequence(indexerQueue.getCycle(), workerWakeup);
             indexerPubSeq.then(indexerSubSeq).then(indexerPubSeq);
 
             this.vectorAggregateQueue = new RingQueue<>(VectorAggregateTask::new, configuration.getVectorAggregateQueueCapacity());
             this.vectorAggregatePubSeq = new MPSequence(vectorAggregateQueue.getCycle());
-            this.vectorAggregateSubSeq = new MCSequence(vectorAggregateQueue.getCycle());
+            this.vectorAggregateSubSeq = new MCSequence(vectorAggregateQueue.getCycle(), workerWakeup);
             vectorAggregatePubSeq.then(vectorAggregateSubSeq).then(vectorAggregatePubSeq);
 
             this.columnTaskQueue = new RingQueue<>(ColumnTask::new, configuration.getO3CallbackQueueCapacity());
             this.columnTaskPubSeq = new MPSequence(this.columnTaskQueue.getCycle());
-            this.columnTaskSubSeq = new MCSequence(this.columnTaskQueue.getCycle());
+            this.columnTaskSubSeq = new MCSequence(this.columnTaskQueue.getCycle(), workerWakeup);
             columnTaskPubSeq.then(columnTaskSubSeq).then(columnTaskPubSeq);
 
             this.o3PartitionQueue = new RingQueue<>(O3PartitionTask::new, configuration.getO3PartitionQueueCapacity());
             this.o3PartitionPubSeq = new MPSequence(this.o3PartitionQueue.getCycle());
-            this.o3PartitionSubSeq = new MCSequence(this.o3PartitionQueue.getCycle());
+            this.o3PartitionSubSeq = new MCSequence(this.o3PartitionQueue.getCycle(), workerWakeup);
             o3PartitionPubSeq.then(o3PartitionSubSeq).then(o3PartitionPubSeq);
 
             this.o3OpenColumnQueue = new RingQueue<>(O3OpenColumnTask::new, configuration.getO3OpenColumnQueueCapacity());
             this.o3OpenColumnPubSeq = new MPSequence(this.o3OpenColumnQueue.getCycle());
-            this.o3OpenColumnSubSeq = new MCSequence(this.o3OpenColumnQueue.getCycle());
+            this.o3OpenColumnSubSeq = new MCSequence(this.o3OpenColumnQueue.getCycle(), workerWakeup);
             o3OpenColumnPubSeq.then(o3OpenColumnSubSeq).then(o3OpenColumnPubSeq);
 
             this.o3CopyQueue = new RingQueue<>(O3CopyTask::new, configuration.getO3CopyQueueCapacity());
             this.o3CopyPubSeq = new MPSequence(this.o3CopyQueue.getCycle());
-            this.o3CopySubSeq = new MCSequence(this.o3CopyQueue.getCycle());
+            this.o3CopySubSeq = new MCSequence(this.o3CopyQueue.getCycle(), workerWakeup);
             o3CopyPubSeq.then(o3CopySubSeq).then(o3CopyPubSeq);
 
             this.o3PurgeDiscoveryQueue = new RingQueue<>(O3PartitionPurgeTask::new, configuration.getO3PurgeDiscoveryQueueCapacity());
@@ -128,7 +138,7 @@ public class MessageBusImpl implements MessageBus {
 
             this.latestByQueue = new RingQueue<>(LatestByTask::new, configuration.getLatestByQueueCapacity());
             this.latestByPubSeq = new MPSequence(latestByQueue.getCycle());
-            this.latestBySubSeq = new MCSequence(latestByQueue.getCycle());
+            this.latestBySubSeq = new MCSequence(latestByQueue.getCycle(), workerWakeup);
             latestByPubSeq.then(latestBySubSeq).then(latestByPubSeq);
 
             this.tableWriterEventQueue = new RingQueue<>(
@@ -162,7 +172,7 @@ public class MessageBusImpl implements MessageBus {
                 );
                 final MPSequence reducePubSeq = new MPSequence(reduceQueueCapacity);
                 pageFrameReducePubSeq[i] = reducePubSeq;
-                final MCSequence reduceSubSeq = new MCSequence(reduceQueueCapacity);
+                final MCSequence reduceSubSeq = new MCSequence(reduceQueueCapacity, workerWakeup);
                 pageFrameReduceSubSeq[i] = reduceSubSeq;
                 final FanOut collectFanOut = new FanOut();
                 pageFrameCollectFanOut[i] = collectFanOut;
@@ -183,14 +193,22 @@ public class MessageBusImpl implements MessageBus {
 
             this.walTxnNotificationQueue = new RingQueue<>(WalTxnNotificationTask::new, configuration.getWalTxnNotificationQueueCapacity());
             this.walTxnNotificationPubSequence = new MPSequence(walTxnNotificationQueue.getCycle());
-            this.walTxnNotificationSubSequence = new MCSequence(walTxnNotificationQueue.getCycle());
+            this.walTxnNotificationSubSequence = new MCSequence(walTxnNotificationQueue.getCycle(), workerWakeup);
             walTxnNotificationPubSequence.then(walTxnNotificationSubSequence).then(walTxnNotificationPubSequence);
 
+            this.walSegmentCompressionQueue = new RingQueue<>(WalSegmentCompressionTask::new, configuration.getWalSegmentCompressionQueueCapacity());
+            this.walSegmentCompressionPubSeq = new MPSequence(walSegmentCompressionQueue.getCycle());
+            this.walSegmentCompressionSubSeq = new MCSequence(walSegmentCompressionQueue.getCycle(), workerWakeup);
+            walSegmentCompressionPubSeq.then(walSegmentCompressionSubSeq).then(walSegmentCompressionPubSeq);
+
             this.groupByMergeShardQueue = new RingQueue<>(GroupByMergeShardTask::new, configuration.getGroupByMergeShardQueueCapacity());
             this.groupByMergeShardPubSeq = new MPSequence(groupByMergeShardQueue.getCycle());
-            this.groupByMergeShardSubSeq = new MCSequence(groupByMergeShardQueue.getCycle());
+            this.groupByMergeShardSubSeq = new MCSequence(groupByMergeShardQueue.getCycle(), workerWakeup);
             groupByMergeShardPubSeq.then(groupByMergeShardSubSeq).then(groupByMergeShardPubSeq);
 
+            this.queryAdmissionControl = new QueryAdmissionControl(configuration.getSqlParallelLowPriorityQueryLimit());
+            this.numaTopology = configuration.isPageFrameNumaAware() ? NumaTopology.detect() : NumaTopology.SINGLE_NODE;
+
             this.queryCacheEventPubSeq = new MPSequence(configuration.getQueryCacheEventQueueCapacity());
             this.queryCacheEventSubSeq = new MCSequence(configuration.getQueryCacheEventQueueCapacity());
             queryCacheEventPubSeq.then(queryCacheEventSubSeq).then(queryCacheEventPubSeq);
@@ -215,6 +233,7 @@ public class MessageBusImpl implements MessageBus {
         textImportRequestSubSeq.clear();
         textImportSubSeq.clear();
         vectorAggregateSubSeq.clear();
+        walSegmentCompressionSubSeq.clear();
         walTxnNotificationSubSequence.clear();
         walTxnNotificationSubSequence.clear();
         for (int i = 0, n = pageFrameReduceSubSeq.length; i < n; i++) {
@@ -319,6 +338,11 @@ public class MessageBusImpl implements MessageBus {
         return latestBySubSeq;
     }
 
+    @Override
+    public NumaTopology getNumaTopology() {
+        return numaTopology;
+    }
+
     @Override
     public MPSequence getO3CopyPubSeq() {
         return o3CopyPubSeq;
@@ -404,6 +428,11 @@ public class MessageBusImpl implements MessageBus {
         return pageFrameReduceSubSeq[shard];
     }
 
+    @Override
+    public QueryAdmissionControl getQueryAdmissionControl() {
+        return queryAdmissionControl;
+    }
+
     @Override
     public MPSequence getQueryCacheEventPubSeq() {
         return queryCacheEventPubSeq;
@@ -474,6 +503,21 @@ public class MessageBusImpl implements MessageBus {
         return vectorAggregateSubSeq;
     }
 
+    @Override
+    public MPSequence getWalSegmentCompressionPubSeq() {
+        return walSegmentCompressionPubSeq;
+    }
+
+    @Override
+    public RingQueue<WalSegmentCompressionTask> getWalSegmentCompressionQueue() {
+        return walSegmentCompressionQueue;
+    }
+
+    @Override
+    public MCSequence getWalSegmentCompressionSubSeq() {
+        return walSegmentCompressionSubSeq;
+    }
+
     @Override
     public MPSequence getWalTxnNotificationPubSequence() {
         return walTxnNotificationPubSequence;
@@ -488,4 +532,9 @@ public class MessageBusImpl implements MessageBus {
     public MCSequence getWalTxnNotificationSubSequence() {
         return walTxnNotificationSubSequence;
     }
+
+    @Override
+    public WorkerWakeup getWorkerWakeup() {
+        return workerWakeup;
+    }
 }
@@ -75,6 +75,7 @@ import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.network.SelectFacade;
 import io.questdb.network.SelectFacadeImpl;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.CharSequenceObjHashMap;
 import io.questdb.std.Chars;
 import io.questdb.std.Files;
@@ -152,6 +153,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long cairoGroupByPresizeMaxSize;
     private final int cairoGroupByShardingThreshold;
     private final int cairoMaxCrashFiles;
+    private final boolean cairoPageFrameNumaAware;
     private final int cairoPageFrameReduceColumnListCapacity;
     private final int cairoPageFrameReduceQueueCapacity;
     private final int cairoPageFrameReduceRowIdListCapacity;
@@ -168,13 +170,21 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final String checkpointRoot;
     private final PropSqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration = new PropSqlExecutionCircuitBreakerConfiguration();
     private final int circuitBreakerThrottle;
+    private final int columnBufferCacheGhostCapacity;
+    private final int columnBufferCacheRecentPartitionCount;
+    private final long columnBufferCacheSize;
     private final int columnIndexerQueueCapacity;
+    private final boolean columnMmapHugePagesEnabled;
+    private final int columnMmapPopulatePartitionCount;
+    private final boolean columnMmapScanAdviceEnabled;
     private final int columnPurgeQueueCapacity;
     private final long columnPurgeRetryDelay;
     private final long columnPurgeRetryDelayLimit;
     private final double columnPurgeRetryDelayMultiplier;
     private final int columnPurgeTaskPoolCapacity;
     private final int commitMode;
+    private final long commitSyncInterval;
+    private final boolean commitSyncParallelEnabled;
     private final TimestampFormatCompiler compiler = new TimestampFormatCompiler();
     private final String confRoot;
     private final boolean configReloadEnabled;
@@ -191,6 +201,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final FilesFacade filesFacade;
     private final FactoryProviderFactory fpf;
     private final PropHttpContextConfiguration httpContextConfiguration;
+    private final int httpExportBatchRowCount;
+    private final long httpImportArrowMaxMessageSize;
     private final boolean httpFrozenClock;
     private final IODispatcherConfiguration httpIODispatcherConfiguration = new PropHttpIODispatcherConfiguration();
     private final PropHttpContextConfiguration httpMinContextConfiguration;
@@ -256,6 +268,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final DateLocale locale;
     private final Log log;
     private final boolean logLevelVerbose;
+    private final boolean logSqlQueryPageFaults;
     private final boolean logSqlQueryProgressExe;
     private final int maxFileNameLength;
     private final long maxHttpQueryResponseRowLimit;
@@ -271,6 +284,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean metricsEnabled;
     private final MicrosecondClock microsecondClock;
     private final int mkdirMode;
+    private final long ngramIndexBackfillRowLimit;
+    private final CharSequenceHashSet ngramIndexColumns;
+    private final int ngramIndexValueBlockSize;
     private final int o3CallbackQueueCapacity;
     private final int o3ColumnMemorySize;
     private final int o3CopyQueueCapacity;
@@ -286,6 +302,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean o3QuickSortEnabled;
     private final boolean o3partitionOverwriteControlEnabled;
     private final int parallelIndexThreshold;
+    private final int partitionChangeLogCapacity;
     private final boolean parallelIndexingEnabled;
     private final int partitionEncoderParqeutRowGroupSize;
     private final int partitionEncoderParquetCompressionCodec;
@@ -320,6 +337,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final WorkerPoolConfiguration sharedWorkerPoolConfiguration = new PropWorkerPoolConfiguration();
     private final long sharedWorkerSleepThreshold;
     private final long sharedWorkerSleepTimeout;
+    private final boolean sharedWorkerWakeupEnabled;
     private final long sharedWorkerYieldThreshold;
     private final String snapshotInstanceId;
     private final long spinLockTimeout;
@@ -336,6 +354,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final double sqlCountDistinctLoadFactor;
     private final long sqlCreateTableModelBatchSize;
     private final int sqlCreateTableModelPoolCapacity;
+    private final long sqlDirectIoScanBufferLimit;
+    private final int sqlDirectIoScanRecentPartitionCount;
+    private final long sqlDirectIoScanThreshold;
     private final int sqlDistinctTimestampKeyCapacity;
     private final double sqlDistinctTimestampLoadFactor;
     private final int sqlDoubleToStrCastScale;
@@ -365,6 +386,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlJoinMetadataPageSize;
     private final long sqlLatestByRowCount;
     private final int sqlLexerPoolCapacity;
+    private final CharSequenceHashSet sqlLowPriorityUsers;
     private final int sqlMapMaxPages;
     private final int sqlMapMaxResizes;
     private final int sqlMaxNegativeLimit;
@@ -377,8 +399,11 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean sqlParallelFilterEnabled;
     private final boolean sqlParallelFilterPreTouchEnabled;
     private final boolean sqlParallelGroupByEnabled;
+    private final int sqlParallelLowPriorityQueryLimit;
+    private final int sqlParallelLowPriorityQueueShare;
     private final int sqlParallelWorkStealingThreshold;
     private final int sqlQueryRegistryPoolSize;
+    private final boolean sqlReadYourWritesEnabled;
     private final int sqlRenameTableModelPoolCapacity;
     private final boolean sqlSampleByDefaultAlignment;
     private final int sqlSampleByIndexSearchPageSize;
@@ -403,6 +428,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int sqlWindowTreeKeyMaxPages;
     private final int sqlWindowTreeKeyPageSize;
     private final int sqlWithClauseModelPoolCapacity;
+    private final boolean symbolTableSharedCacheEnabled;
     private final int systemO3ColumnMemorySize;
     private final String systemTableNamePrefix;
     private final long systemWalWriterDataAppendPageSize;
@@ -427,6 +453,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final VolumeDefinitions volumeDefinitions = new VolumeDefinitions();
     private final boolean walApplyEnabled;
     private final int walApplyLookAheadTransactionCount;
+    private final int walApplyPartitionParallelism;
     private final WorkerPoolConfiguration walApplyPoolConfiguration = new PropWalApplyPoolConfiguration();
     private final long walApplySleepTimeout;
     private final long walApplyTableTimeQuota;
@@ -435,6 +462,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean walApplyWorkerHaltOnError;
     private final long walApplyWorkerNapThreshold;
     private final long walApplyWorkerSleepThreshold;
+    private final boolean walApplyWorkerWakeupEnabled;
     private final long walApplyWorkerYieldThreshold;
     private final boolean walEnabledDefault;
     private final long walMaxLagSize;
@@ -443,7 +471,15 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final long walPurgeInterval;
     private final int walPurgeWaitBeforeDelete;
     private final int walRecreateDistressedSequencerAttempts;
+    private final long walReplicaPollInterval;
+    private final String walReplicaSourceRoot;
+    private final boolean walSegmentCompressionEnabled;
+    private final long walSegmentCompressionMinLagTxnCount;
+    private final long walSegmentCompressionMinSize;
+    private final int walSegmentCompressionQueueCapacity;
     private final long walSegmentRolloverRowCount;
+    private final boolean walSequencerGroupCommitEnabled;
+    private final long walSequencerGroupCommitWindow;
     private final double walSquashUncommittedRowsMultiplier;
     private final boolean walSupported;
     private final int walTxnNotificationQueueCapacity;
@@ -519,6 +555,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private int lineTcpNetConnectionRcvBuf;
     private long lineTcpNetConnectionTimeout;
     private LineTcpTimestampAdapter lineTcpTimestampAdapter;
+    private int lineTcpShmRingCount;
+    private String lineTcpShmRingDir;
+    private long lineTcpShmRingSize;
     private int lineTcpWriterQueueCapacity;
     private int[] lineTcpWriterWorkerAffinity;
     private int lineTcpWriterWorkerCount;
@@ -635,6 +674,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     ) throws ServerConfigurationException, JsonException {
         this.log = log;
         this.logSqlQueryProgressExe = getBoolean(properties, env, PropertyKey.LOG_SQL_QUERY_PROGRESS_EXE, true);
+        this.logSqlQueryPageFaults = getBoolean(properties, env, PropertyKey.LOG_SQL_QUERY_PAGE_FAULTS, false);
         this.logLevelVerbose = getBoolean(properties, env, PropertyKey.LOG_LEVEL_VERBOSE, false);
 
         this.filesFacade = filesFacade;
@@ -663,9 +703,18 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.walPurgeWaitBeforeDelete = getInt(properties, env, PropertyKey.DEBUG_WAL_PURGE_WAIT_BEFORE_DELETE, 0);
         this.walTxnNotificationQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_WAL_TXN_NOTIFICATION_QUEUE_CAPACITY, 4096);
         this.walRecreateDistressedSequencerAttempts = getInt(properties, env, PropertyKey.CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS, 3);
+        final String walReplicaSourceRoot = getString(properties, env, PropertyKey.CAIRO_WAL_REPLICA_SOURCE_ROOT, null);
+        this.walReplicaSourceRoot = Chars.empty(walReplicaSourceRoot) ? null : walReplicaSourceRoot;
+        this.walReplicaPollInterval = getLong(properties, env, PropertyKey.CAIRO_WAL_REPLICA_POLL_INTERVAL, 100);
+        this.walSequencerGroupCommitEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SEQUENCER_GROUP_COMMIT_ENABLED, true);
+        this.walSequencerGroupCommitWindow = getLong(properties, env, PropertyKey.CAIRO_WAL_SEQUENCER_GROUP_COMMIT_WINDOW, 0);
         this.walSupported = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SUPPORTED, true);
         walApplyEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_ENABLED, true);
         this.walSegmentRolloverRowCount = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT, 200_000);
+        this.walSegmentCompressionEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED, false);
+        this.walSegmentCompressionMinLagTxnCount = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_LAG_TXN_COUNT, 100);
+        this.walSegmentCompressionMinSize = getLongSize(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_SIZE, 16 * Numbers.SIZE_1MB);
+        this.walSegmentCompressionQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_QUEUE_CAPACITY, 64);
         this.walSegmentRolloverSize = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_SIZE, 0);  // disabled by default.
         if ((this.walSegmentRolloverSize != 0) && (this.walSegmentRolloverSize < 1024)) {  // 1KiB segments minimum
             throw CairoException.critical(0).put("cairo.wal.segment.rollover.size must be 0 (disabled) or >= 1024 (1KiB)");
@@ -680,6 +729,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.walMaxSegmentFileDescriptorsCache = getInt(properties, env, PropertyKey.CAIRO_WAL_MAX_SEGMENT_FILE_DESCRIPTORS_CACHE, 30);
         this.walApplyTableTimeQuota = getLong(properties, env, PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 1000);
         this.walApplyLookAheadTransactionCount = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT, 20);
+        this.walApplyPartitionParallelism = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_PARTITION_PARALLELISM, 0);
         this.tableTypeConversionEnabled = getBoolean(properties, env, PropertyKey.TABLE_TYPE_CONVERSION_ENABLED, true);
         this.tempRenamePendingTablePrefix = getString(properties, env, PropertyKey.CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX, "temp_5822f658-31f6-11ee-be56-0242ac120002");
         this.sequencerCheckInterval = getLong(properties, env, PropertyKey.CAIRO_WAL_SEQUENCER_CHECK_INTERVAL, 10_000);
@@ -983,6 +1033,14 @@ public class PropServerConfiguration implements ServerConfiguration {
             final boolean httpHealthCheckAuthRequired = getBoolean(properties, env, PropertyKey.HTTP_HEALTH_CHECK_AUTHENTICATION_REQUIRED, true);
             this.httpHealthCheckAuthType = httpHealthCheckAuthRequired ? SecurityContext.AUTH_TYPE_CREDENTIALS : SecurityContext.AUTH_TYPE_NONE;
             this.maxHttpQueryResponseRowLimit = getLong(properties, env, PropertyKey.HTTP_SECURITY_MAX_RESPONSE_ROWS, Long.MAX_VALUE);
+            this.httpExportBatchRowCount = getInt(properties, env, PropertyKey.HTTP_EXPORT_BATCH_ROW_COUNT, 65536);
+            if (httpExportBatchRowCount < 1) {
+                throw new ServerConfigurationException(PropertyKey.HTTP_EXPORT_BATCH_ROW_COUNT.getPropertyPath() + " must be positive");
+            }
+            this.httpImportArrowMaxMessageSize = getLongSize(properties, env, PropertyKey.HTTP_IMPORT_ARROW_MAX_MESSAGE_SIZE, 128 * Numbers.SIZE_1MB);
+            if (httpImportArrowMaxMessageSize < 1) {
+                throw new ServerConfigurationException(PropertyKey.HTTP_IMPORT_ARROW_MAX_MESSAGE_SIZE.getPropertyPath() + " must be positive");
+            }
             this.interruptOnClosedConnection = getBoolean(properties, env, PropertyKey.HTTP_SECURITY_INTERRUPT_ON_CLOSED_CONNECTION, true);
             this.httpUsername = getString(properties, env, PropertyKey.HTTP_USER, "");
             this.httpPassword = getString(properties, env, PropertyKey.HTTP_PASSWORD, "");
@@ -1095,8 +1153,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.walApplyWorkerSleepThreshold = getLong(properties, env, PropertyKey.WAL_APPLY_WORKER_SLEEP_THRESHOLD, 10_000);
             this.walApplySleepTimeout = getLong(properties, env, PropertyKey.WAL_APPLY_WORKER_SLEEP_TIMEOUT, 10);
             this.walApplyWorkerYieldThreshold = getLong(properties, env, PropertyKey.WAL_APPLY_WORKER_YIELD_THRESHOLD, 1000);
+            this.walApplyWorkerWakeupEnabled = getBoolean(properties, env, PropertyKey.WAL_APPLY_WORKER_WAKEUP_ENABLED, false);
 
             this.commitMode = getCommitMode(properties, env, PropertyKey.CAIRO_COMMIT_MODE);
+            this.commitSyncInterval = getLong(properties, env, PropertyKey.CAIRO_COMMIT_SYNC_INTERVAL, 0);
+            this.commitSyncParallelEnabled = getBoolean(properties, env, PropertyKey.CAIRO_COMMIT_SYNC_PARALLEL_ENABLED, true);
             this.createAsSelectRetryCount = getInt(properties, env, PropertyKey.CAIRO_CREATE_AS_SELECT_RETRY_COUNT, 5);
             this.defaultSymbolCacheFlag = getBoolean(properties, env, PropertyKey.CAIRO_DEFAULT_SYMBOL_CACHE_FLAG, true);
             this.defaultSymbolCapacity = getInt(properties, env, PropertyKey.CAIRO_DEFAULT_SYMBOL_CAPACITY, 256);
@@ -1107,11 +1168,22 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.inactiveWriterTTL = getLong(properties, env, PropertyKey.CAIRO_INACTIVE_WRITER_TTL, 600_000);
             this.inactiveWalWriterTTL = getLong(properties, env, PropertyKey.CAIRO_WAL_INACTIVE_WRITER_TTL, 120_000);
             this.indexValueBlockSize = Numbers.ceilPow2(getIntSize(properties, env, PropertyKey.CAIRO_INDEX_VALUE_BLOCK_SIZE, 256));
+            this.ngramIndexColumns = getLowerCaseSet(properties, env, PropertyKey.CAIRO_NGRAM_INDEX_COLUMNS);
+            this.ngramIndexValueBlockSize = Numbers.ceilPow2(getIntSize(properties, env, PropertyKey.CAIRO_NGRAM_INDEX_VALUE_BLOCK_SIZE, 256));
+            this.ngramIndexBackfillRowLimit = getLong(properties, env, PropertyKey.CAIRO_NGRAM_INDEX_BACKFILL_ROW_LIMIT, 1_000_000);
             this.maxSwapFileCount = getInt(properties, env, PropertyKey.CAIRO_MAX_SWAP_FILE_COUNT, 30);
             this.parallelIndexThreshold = getInt(properties, env, PropertyKey.CAIRO_PARALLEL_INDEX_THRESHOLD, 100000);
+            this.partitionChangeLogCapacity = getInt(properties, env, PropertyKey.CAIRO_PARTITION_CHANGE_LOG_CAPACITY, 64);
+            this.columnBufferCacheSize = getLongSize(properties, env, PropertyKey.CAIRO_COLUMN_BUFFER_CACHE_SIZE, 0);
+            this.columnBufferCacheRecentPartitionCount = getInt(properties, env, PropertyKey.CAIRO_COLUMN_BUFFER_CACHE_RECENT_PARTITION_COUNT, 1);
+            this.columnBufferCacheGhostCapacity = getInt(properties, env, PropertyKey.CAIRO_COLUMN_BUFFER_CACHE_GHOST_CAPACITY, 4096);
+            this.columnMmapHugePagesEnabled = getBoolean(properties, env, PropertyKey.CAIRO_COLUMN_MMAP_HUGE_PAGES_ENABLED, false);
+            this.columnMmapPopulatePartitionCount = getInt(properties, env, PropertyKey.CAIRO_COLUMN_MMAP_POPULATE_PARTITION_COUNT, 0);
+            this.columnMmapScanAdviceEnabled = getBoolean(properties, env, PropertyKey.CAIRO_COLUMN_MMAP_SCAN_ADVICE_ENABLED, false);
             this.readerPoolMaxSegments = getInt(properties, env, PropertyKey.CAIRO_READER_POOL_MAX_SEGMENTS, 10);
             this.walWriterPoolMaxSegments = getInt(properties, env, PropertyKey.CAIRO_WAL_WRITER_POOL_MAX_SEGMENTS, 10);
             this.spinLockTimeout = getLong(properties, env, PropertyKey.CAIRO_SPIN_LOCK_TIMEOUT, 1_000);
+            this.symbolTableSharedCacheEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SYMBOL_TABLE_SHARED_CACHE_ENABLED, true);
             this.sqlCharacterStoreCapacity = getInt(properties, env, PropertyKey.CAIRO_CHARACTER_STORE_CAPACITY, 1024);
             this.sqlCharacterStoreSequencePoolCapacity = getInt(properties, env, PropertyKey.CAIRO_CHARACTER_STORE_SEQUENCE_POOL_CAPACITY, 64);
             this.sqlColumnPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_COLUMN_POOL_CAPACITY, 4096);
@@ -1196,6 +1268,9 @@ public class PropServerConfiguration implements ServerConfiguration {
             }
             this.sqlDistinctTimestampKeyCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_DISTINCT_TIMESTAMP_KEY_CAPACITY, 512);
             this.sqlDistinctTimestampLoadFactor = getDouble(properties, env, PropertyKey.CAIRO_SQL_DISTINCT_TIMESTAMP_LOAD_FACTOR, "0.5");
+            this.sqlDirectIoScanThreshold = getLongSize(properties, env, PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 0);
+            this.sqlDirectIoScanRecentPartitionCount = getInt(properties, env, PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_RECENT_PARTITION_COUNT, 1);
+            this.sqlDirectIoScanBufferLimit = getLongSize(properties, env, PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_BUFFER_LIMIT, 256 * Numbers.SIZE_1MB);
             this.sqlPageFrameMinRows = getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 100_000);
             this.sqlPageFrameMaxRows = getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 1_000_000);
 
@@ -1390,6 +1465,18 @@ public class PropServerConfiguration implements ServerConfiguration {
                 }
                 this.minIdleMsBeforeWriterRelease = getLong(properties, env, PropertyKey.LINE_TCP_MIN_IDLE_MS_BEFORE_WRITER_RELEASE, 500);
                 this.lineTcpDisconnectOnError = getBoolean(properties, env, PropertyKey.LINE_TCP_DISCONNECT_ON_ERROR, true);
+                final String shmRingDir = getString(properties, env, PropertyKey.LINE_TCP_SHM_RING_DIR, null);
+                if (!Chars.empty(shmRingDir)) {
+                    this.lineTcpShmRingDir = new File(shmRingDir).isAbsolute() ? shmRingDir : new File(root, shmRingDir).getAbsolutePath();
+                }
+                this.lineTcpShmRingCount = getInt(properties, env, PropertyKey.LINE_TCP_SHM_RING_COUNT, 4);
+                if (lineTcpShmRingCount < 1) {
+                    throw new ServerConfigurationException(PropertyKey.LINE_TCP_SHM_RING_COUNT.getPropertyPath() + " must be positive");
+                }
+                this.lineTcpShmRingSize = Numbers.ceilPow2(getLongSize(properties, env, PropertyKey.LINE_TCP_SHM_RING_SIZE, 4 * Numbers.SIZE_1MB));
+                if (lineTcpShmRingSize < lineTcpMsgBufferSize) {
+                    throw new ServerConfigurationException(PropertyKey.LINE_TCP_SHM_RING_SIZE.getPropertyPath() + " cannot be less than " + PropertyKey.LINE_TCP_MSG_BUFFER_SIZE.getPropertyPath());
+                }
                 final long heartbeatInterval = LineTcpReceiverConfigurationHelper.calcCommitInterval(
                         this.o3MinLagUs,
                         this.lineTcpCommitIntervalFraction,
@@ -1428,6 +1515,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sharedWorkerNapThreshold = getLong(properties, env, PropertyKey.SHARED_WORKER_NAP_THRESHOLD, 7_000);
             this.sharedWorkerSleepThreshold = getLong(properties, env, PropertyKey.SHARED_WORKER_SLEEP_THRESHOLD, 10_000);
             this.sharedWorkerSleepTimeout = getLong(properties, env, PropertyKey.SHARED_WORKER_SLEEP_TIMEOUT, 10);
+            this.sharedWorkerWakeupEnabled = getBoolean(properties, env, PropertyKey.SHARED_WORKER_WAKEUP_ENABLED, false);
 
             // Now all worker counts are known, so we can set select cache capacity props.
             if (pgEnabled) {
@@ -1455,6 +1543,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.cairoPageFrameReduceColumnListCapacity = Numbers.ceilPow2(getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_COLUMN_LIST_CAPACITY, 16));
             final int defaultReduceShardCount = Math.min(sharedWorkerCount, 4);
             this.cairoPageFrameReduceShardCount = getInt(properties, env, PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, defaultReduceShardCount);
+            this.cairoPageFrameNumaAware = getBoolean(properties, env, PropertyKey.CAIRO_PAGE_FRAME_NUMA_AWARE, false);
             this.sqlParallelFilterPreTouchEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_PRETOUCH_ENABLED, true);
             this.sqlCopyModelPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_COPY_MODEL_POOL_CAPACITY, 32);
 
@@ -1462,6 +1551,10 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.sqlParallelFilterEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, defaultParallelSqlEnabled);
             this.sqlParallelGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_GROUPBY_ENABLED, defaultParallelSqlEnabled);
             this.sqlParallelWorkStealingThreshold = getInt(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD, 16);
+            this.sqlReadYourWritesEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_READ_YOUR_WRITES_ENABLED, false);
+            this.sqlParallelLowPriorityQueryLimit = getInt(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUERY_LIMIT, 2);
+            this.sqlParallelLowPriorityQueueShare = getIntPercentage(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUEUE_SHARE, 25);
+            this.sqlLowPriorityUsers = getUsers(properties, env, PropertyKey.CAIRO_SQL_LOW_PRIORITY_USERS);
             this.sqlOrderBySortEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_ORDER_BY_SORT_ENABLED, true);
             this.sqlOrderByRadixSortThreshold = getInt(properties, env, PropertyKey.CAIRO_SQL_ORDER_BY_RADIX_SORT_THRESHOLD, 600);
             this.metricsEnabled = getBoolean(properties, env, PropertyKey.METRICS_ENABLED, false);
@@ -1674,6 +1767,34 @@ public class PropServerConfiguration implements ServerConfiguration {
         return compiler.compile(getString(properties, env, PropertyKey.CAIRO_SQL_BACKUP_DIR_DATETIME_FORMAT, "yyyy-MM-dd"));
     }
 
+    private CharSequenceHashSet getLowerCaseSet(Properties properties, @Nullable Map<String, String> env, ConfigPropertyKey key) {
+        final CharSequenceHashSet result = new CharSequenceHashSet();
+        final String value = getString(properties, env, key, null);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                item = item.trim();
+                if (!item.isEmpty()) {
+                    result.add(item.toLowerCase());
+                }
+            }
+        }
+        return result;
+    }
+
+    private CharSequenceHashSet getUsers(Properties properties, @Nullable Map<String, String> env, ConfigPropertyKey key) {
+        final CharSequenceHashSet result = new CharSequenceHashSet();
+        final String value = getString(properties, env, key, null);
+        if (value != null) {
+            for (String user : value.split(",")) {
+                user = user.trim();
+                if (!user.isEmpty()) {
+                    result.add(user);
+                }
+            }
+        }
+        return result;
+    }
+
     private boolean pathEquals(String p1, String p2) {
         try {
             if (p1 == null || p2 == null) {
@@ -2216,7 +2337,22 @@ public class PropServerConfiguration implements ServerConfiguration {
             return circuitBreakerConfiguration;
         }
 
+            @Override
+        public int getColumnBufferCacheGhostCapacity() {
+            return columnBufferCacheGhostCapacity;
+        }
+
+        @Override
+        public int getColumnBufferCacheRecentPartitionCount() {
+            return columnBufferCacheRecentPartitionCount;
+        }
+
         @Override
+        public long getColumnBufferCacheSize() {
+            return columnBufferCacheSize;
+        }
+
+    @Override
         public int getColumnCastModelPoolCapacity() {
             return sqlColumnCastModelPoolCapacity;
         }
@@ -2226,6 +2362,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return columnIndexerQueueCapacity;
         }
 
+        @Override
+        public int getColumnMmapPopulatePartitionCount() {
+            return columnMmapPopulatePartitionCount;
+        }
+
         @Override
         public int getColumnPurgeQueueCapacity() {
             return columnPurgeQueueCapacity;
@@ -2256,6 +2397,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return commitMode;
         }
 
+        @Override
+        public long getCommitSyncInterval() {
+            return commitSyncInterval;
+        }
+
         @Override
         public @NotNull CharSequence getConfRoot() {
             return confRoot;
@@ -2479,6 +2625,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return logLevelVerbose;
         }
 
+        @Override
+        public boolean getLogSqlQueryPageFaults() {
+            return logSqlQueryPageFaults;
+        }
+
         @Override
         public boolean getLogSqlQueryProgressExe() {
             return logSqlQueryProgressExe;
@@ -2534,6 +2685,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return mkdirMode;
         }
 
+        @Override
+        public long getNgramIndexBackfillRowLimit() {
+            return ngramIndexBackfillRowLimit;
+        }
+
+        @Override
+        public @NotNull CharSequenceHashSet getNgramIndexColumns() {
+            return ngramIndexColumns;
+        }
+
+        @Override
+        public int getNgramIndexValueBlockSize() {
+            return ngramIndexValueBlockSize;
+        }
+
         @Override
         public int getO3CallbackQueueCapacity() {
             return o3CallbackQueueCapacity;
@@ -2614,6 +2780,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return parallelIndexThreshold;
         }
 
+        @Override
+        public int getPartitionChangeLogCapacity() {
+            return partitionChangeLogCapacity;
+        }
+
         @Override
         public int getPartitionEncoderParquetCompressionCodec() {
             return partitionEncoderParquetCompressionCodec;
@@ -2774,6 +2945,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return cairoSqlCopyQueueCapacity;
         }
 
+        @Override
+        public long getSqlDirectIoScanBufferLimit() {
+            return sqlDirectIoScanBufferLimit;
+        }
+
+        @Override
+        public int getSqlDirectIoScanRecentPartitionCount() {
+            return sqlDirectIoScanRecentPartitionCount;
+        }
+
+        @Override
+        public long getSqlDirectIoScanThreshold() {
+            return sqlDirectIoScanThreshold;
+        }
+
         @Override
         public int getSqlDistinctTimestampKeyCapacity() {
             return sqlDistinctTimestampKeyCapacity;
@@ -2869,6 +3055,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlLexerPoolCapacity;
         }
 
+        @Override
+        public CharSequenceHashSet getSqlLowPriorityUsers() {
+            return sqlLowPriorityUsers;
+        }
+
         @Override
         public int getSqlMapMaxPages() {
             return sqlMapMaxPages;
@@ -2904,6 +3095,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlPageFrameMinRows;
         }
 
+        @Override
+        public int getSqlParallelLowPriorityQueryLimit() {
+            return sqlParallelLowPriorityQueryLimit;
+        }
+
+        @Override
+        public int getSqlParallelLowPriorityQueueShare() {
+            return sqlParallelLowPriorityQueueShare;
+        }
+
         @Override
         public int getSqlParallelWorkStealingThreshold() {
             return sqlParallelWorkStealingThreshold;
@@ -3068,6 +3269,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyLookAheadTransactionCount;
         }
 
+        @Override
+        public int getWalApplyPartitionParallelism() {
+            return walApplyPartitionParallelism;
+        }
+
         @Override
         public long getWalApplyTableTimeQuota() {
             return walApplyTableTimeQuota;
@@ -3123,6 +3329,31 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walRecreateDistressedSequencerAttempts;
         }
 
+        @Override
+        public long getWalReplicaPollInterval() {
+            return walReplicaPollInterval;
+        }
+
+        @Override
+        public @Nullable CharSequence getWalReplicaSourceRoot() {
+            return walReplicaSourceRoot;
+        }
+
+        @Override
+        public long getWalSegmentCompressionMinLagTxnCount() {
+            return walSegmentCompressionMinLagTxnCount;
+        }
+
+        @Override
+        public long getWalSegmentCompressionMinSize() {
+            return walSegmentCompressionMinSize;
+        }
+
+        @Override
+        public int getWalSegmentCompressionQueueCapacity() {
+            return walSegmentCompressionQueueCapacity;
+        }
+
         @Override
         public long getWalSegmentRolloverRowCount() {
             return walSegmentRolloverRowCount;
@@ -3133,6 +3364,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walSegmentRolloverSize;
         }
 
+        @Override
+        public long getWalSequencerGroupCommitWindow() {
+            return walSequencerGroupCommitWindow;
+        }
+
         @Override
         public int getWalTxnNotificationQueueCapacity() {
             return walTxnNotificationQueueCapacity;
@@ -3193,6 +3429,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return checkpointRecoveryEnabled;
         }
 
+        @Override
+        public boolean isColumnMmapHugePagesEnabled() {
+            return columnMmapHugePagesEnabled;
+        }
+
+        @Override
+        public boolean isColumnMmapScanAdviceEnabled() {
+            return columnMmapScanAdviceEnabled;
+        }
+
+        @Override
+        public boolean isCommitSyncParallelEnabled() {
+            return commitSyncParallelEnabled;
+        }
+
         @Override
         public boolean isDevModeEnabled() {
             return devModeEnabled;
@@ -3218,6 +3469,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return o3QuickSortEnabled;
         }
 
+        @Override
+        public boolean isPageFrameNumaAware() {
+            return cairoPageFrameNumaAware;
+        }
+
         @Override
         public boolean isParallelIndexingEnabled() {
             return parallelIndexingEnabled;
@@ -3258,6 +3514,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelGroupByEnabled;
         }
 
+        @Override
+        public boolean isSqlReadYourWritesEnabled() {
+            return sqlReadYourWritesEnabled;
+        }
+
+        @Override
+        public boolean isSymbolTableSharedCacheEnabled() {
+            return symbolTableSharedCacheEnabled;
+        }
+
         @Override
         public boolean isTableTypeConversionEnabled() {
             return tableTypeConversionEnabled;
@@ -3268,6 +3534,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyEnabled;
         }
 
+        @Override
+        public boolean isWalSegmentCompressionEnabled() {
+            return walSegmentCompressionEnabled;
+        }
+
+        @Override
+        public boolean isWalSequencerGroupCommitEnabled() {
+            return walSequencerGroupCommitEnabled;
+        }
+
         public boolean isWalSupported() {
             return walSupported;
         }
@@ -3682,6 +3958,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return factoryProvider;
         }
 
+        @Override
+        public int getExportBatchRowCount() {
+            return httpExportBatchRowCount;
+        }
+
+        @Override
+        public long getImportArrowMaxMessageSize() {
+            return httpImportArrowMaxMessageSize;
+        }
+
         @Override
         public FilesFacade getFilesFacade() {
             return FilesFacadeImpl.INSTANCE;
@@ -3926,6 +4212,21 @@ public class PropServerConfiguration implements ServerConfiguration {
             return NetworkFacadeImpl.INSTANCE;
         }
 
+        @Override
+        public int getShmRingCount() {
+            return lineTcpShmRingCount;
+        }
+
+        @Override
+        public String getShmRingDir() {
+            return lineTcpShmRingDir;
+        }
+
+        @Override
+        public long getShmRingSize() {
+            return lineTcpShmRingSize;
+        }
+
         @Override
         public long getSymbolCacheWaitUsBeforeReload() {
             return symbolCacheWaitUsBeforeReload;
@@ -4766,6 +5067,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public boolean isEnabled() {
             return walApplyWorkerCount > 0;
         }
+
+        @Override
+        public boolean isWakeupEnabled() {
+            return walApplyWorkerWakeupEnabled;
+        }
     }
 
     private class PropWorkerPoolConfiguration implements WorkerPoolConfiguration {
@@ -4808,6 +5114,11 @@ public class PropServerConfiguration implements ServerConfiguration {
         public boolean haltOnError() {
             return sharedWorkerHaltOnError;
         }
+
+        @Override
+        public boolean isWakeupEnabled() {
+            return sharedWorkerWakeupEnabled;
+        }
     }
 
     static {
@@ -44,6 +44,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_BACKUP_DIR_DATETIME_FORMAT("cairo.sql.backup.dir.datetime.format"),
     CAIRO_SQL_JIT_MODE("cairo.sql.jit.mode"),
     CAIRO_COMMIT_MODE("cairo.commit.mode"),
+    CAIRO_COMMIT_SYNC_INTERVAL("cairo.commit.sync.interval"),
+    CAIRO_COMMIT_SYNC_PARALLEL_ENABLED("cairo.commit.sync.parallel.enabled"),
     CAIRO_CREATE_AS_SELECT_RETRY_COUNT("cairo.create.as.select.retry.count"),
     CAIRO_DEFAULT_MAP_TYPE("cairo.default.map.type"),
     CAIRO_DEFAULT_SYMBOL_CACHE_FLAG("cairo.default.symbol.cache.flag"),
@@ -54,10 +56,21 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_INACTIVE_READER_TTL("cairo.inactive.reader.ttl"),
     CAIRO_INACTIVE_WRITER_TTL("cairo.inactive.writer.ttl"),
     CAIRO_INDEX_VALUE_BLOCK_SIZE("cairo.index.value.block.size"),
+    CAIRO_NGRAM_INDEX_COLUMNS("cairo.ngram.index.columns"),
+    CAIRO_NGRAM_INDEX_VALUE_BLOCK_SIZE("cairo.ngram.index.value.block.size"),
+    CAIRO_NGRAM_INDEX_BACKFILL_ROW_LIMIT("cairo.ngram.index.backfill.row.limit"),
     CAIRO_MAX_SWAP_FILE_COUNT("cairo.max.swap.file.count"),
     CAIRO_PARALLEL_INDEX_THRESHOLD("cairo.parallel.index.threshold"),
+    CAIRO_PARTITION_CHANGE_LOG_CAPACITY("cairo.partition.change.log.capacity"),
+    CAIRO_COLUMN_BUFFER_CACHE_GHOST_CAPACITY("cairo.column.buffer.cache.ghost.capacity"),
+    CAIRO_COLUMN_BUFFER_CACHE_RECENT_PARTITION_COUNT("cairo.column.buffer.cache.recent.partition.count"),
+    CAIRO_COLUMN_BUFFER_CACHE_SIZE("cairo.column.buffer.cache.size"),
+    CAIRO_COLUMN_MMAP_HUGE_PAGES_ENABLED("cairo.column.mmap.huge.pages.enabled"),
+    CAIRO_COLUMN_MMAP_POPULATE_PARTITION_COUNT("cairo.column.mmap.populate.partition.count"),
+    CAIRO_COLUMN_MMAP_SCAN_ADVICE_ENABLED("cairo.column.mmap.scan.advice.enabled"),
     CAIRO_READER_POOL_MAX_SEGMENTS("cairo.reader.pool.max.segments"),
     CAIRO_SPIN_LOCK_TIMEOUT("cairo.spin.lock.timeout"),
+    CAIRO_SYMBOL_TABLE_SHARED_CACHE_ENABLED("cairo.symbol.table.shared.cache.enabled"),
     CAIRO_CHARACTER_STORE_CAPACITY("cairo.character.store.capacity"),
     CAIRO_CHARACTER_STORE_SEQUENCE_POOL_CAPACITY("cairo.character.store.sequence.pool.capacity"),
     CAIRO_COLUMN_POOL_CAPACITY("cairo.column.pool.capacity"),
@@ -102,7 +115,11 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_SIZE("cairo.sql.parallel.groupby.presize.max.size"),
     CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_HEAP_SIZE("cairo.sql.parallel.groupby.presize.max.heap.size"),
     CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD("cairo.sql.parallel.work.stealing.threshold"),
+    CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUERY_LIMIT("cairo.sql.parallel.low.priority.query.limit"),
+    CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUEUE_SHARE("cairo.sql.parallel.low.priority.queue.share"),
+    CAIRO_SQL_LOW_PRIORITY_USERS("cairo.sql.low.priority.users"),
     CAIRO_PAGE_FRAME_SHARD_COUNT("cairo.page.frame.shard.count"),
+    CAIRO_PAGE_FRAME_NUMA_AWARE("cairo.page.frame.numa.aware"),
     CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY("cairo.page.frame.task.pool.capacity"),
     CAIRO_SQL_JOIN_METADATA_PAGE_SIZE("cairo.sql.join.metadata.page.size"),
     CAIRO_SQL_JOIN_METADATA_MAX_RESIZES("cairo.sql.join.metadata.max.resizes"),
@@ -141,6 +158,10 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_DATE_LOCALE("cairo.date.locale"),
     CAIRO_SQL_DISTINCT_TIMESTAMP_KEY_CAPACITY("cairo.sql.distinct.timestamp.key.capacity"),
     CAIRO_SQL_DISTINCT_TIMESTAMP_LOAD_FACTOR("cairo.sql.distinct.timestamp.load.factor"),
+    CAIRO_SQL_DIRECT_IO_SCAN_BUFFER_LIMIT("cairo.sql.direct.io.scan.buffer.limit"),
+    CAIRO_SQL_DIRECT_IO_SCAN_RECENT_PARTITION_COUNT("cairo.sql.direct.io.scan.recent.partition.count"),
+    CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD("cairo.sql.direct.io.scan.threshold"),
+    CAIRO_SQL_READ_YOUR_WRITES_ENABLED("cairo.sql.read.your.writes.enabled"),
     CAIRO_SQL_PAGE_FRAME_MIN_ROWS("cairo.sql.page.frame.min.rows"),
     CAIRO_SQL_PAGE_FRAME_MAX_ROWS("cairo.sql.page.frame.max.rows"),
     CAIRO_SQL_JIT_IR_MEMORY_PAGE_SIZE("cairo.sql.jit.ir.memory.page.size"),
@@ -296,6 +317,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     HTTP_JSON_QUERY_CONNECTION_CHECK_FREQUENCY("http.json.query.connection.check.frequency"),
     HTTP_JSON_QUERY_FLOAT_SCALE("http.json.query.float.scale"),
     HTTP_JSON_QUERY_DOUBLE_SCALE("http.json.query.double.scale"),
+    HTTP_EXPORT_BATCH_ROW_COUNT("http.export.batch.row.count"),
+    HTTP_IMPORT_ARROW_MAX_MESSAGE_SIZE("http.import.arrow.max.message.size"),
     HTTP_TEXT_ADAPTER_SET_CONFIG("http.text.adapter.set.config"),
     HTTP_QUERY_CACHE_ENABLED("http.query.cache.enabled"),
     HTTP_QUERY_CACHE_BLOCK_COUNT("http.query.cache.block.count"),
@@ -360,6 +383,9 @@ public enum PropertyKey implements ConfigPropertyKey {
     LINE_INTEGER_DEFAULT_COLUMN_TYPE("line.integer.default.column.type"),
     LINE_TCP_NET_IO_QUEUE_CAPACITY("line.tcp.net.io.queue.capacity"),
     LINE_TCP_IO_AGGRESSIVE_RECV("line.tcp.io.aggressive.recv"),
+    LINE_TCP_SHM_RING_COUNT("line.tcp.shm.ring.count"),
+    LINE_TCP_SHM_RING_DIR("line.tcp.shm.ring.dir"),
+    LINE_TCP_SHM_RING_SIZE("line.tcp.shm.ring.size"),
     LINE_HTTP_HEADER_MAX_SIZE("line.http.header.max.size"),
     METRICS_ENABLED("metrics.enabled"),
     NET_TEST_CONNECTION_BUFFER_SIZE("net.test.connection.buffer.size"),
@@ -419,6 +445,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     SHARED_WORKER_NAP_THRESHOLD("shared.worker.nap.threshold"),
     SHARED_WORKER_SLEEP_THRESHOLD("shared.worker.sleep.threshold"),
     SHARED_WORKER_SLEEP_TIMEOUT("shared.worker.sleep.timeout"),
+    SHARED_WORKER_WAKEUP_ENABLED("shared.worker.wakeup.enabled"),
     SHARED_WORKER_YIELD_THRESHOLD("shared.worker.yield.threshold"),
     TELEMETRY_ENABLED("telemetry.enabled"),
     TELEMETRY_DISABLE_COMPLETELY("telemetry.disable.completely"),
@@ -441,9 +468,17 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_WAL_PURGE_INTERVAL("cairo.wal.purge.interval"),
     CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT("cairo.wal.segment.rollover.row.count"),
     CAIRO_WAL_SEGMENT_ROLLOVER_SIZE("cairo.wal.segment.rollover.size"),
+    CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED("cairo.wal.segment.compression.enabled"),
+    CAIRO_WAL_SEGMENT_COMPRESSION_MIN_LAG_TXN_COUNT("cairo.wal.segment.compression.min.lag.txn.count"),
+    CAIRO_WAL_SEGMENT_COMPRESSION_MIN_SIZE("cairo.wal.segment.compression.min.size"),
+    CAIRO_WAL_SEGMENT_COMPRESSION_QUEUE_CAPACITY("cairo.wal.segment.compression.queue.capacity"),
     CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE("cairo.wal.writer.data.append.page.size"),
     CAIRO_WAL_WRITER_EVENT_APPEND_PAGE_SIZE("cairo.wal.writer.event.append.page.size"),
     CAIRO_WAL_SEQUENCER_CHECK_INTERVAL("cairo.wal.sequencer.check.interval"),
+    CAIRO_WAL_SEQUENCER_GROUP_COMMIT_ENABLED("cairo.wal.sequencer.group.commit.enabled"),
+    CAIRO_WAL_SEQUENCER_GROUP_COMMIT_WINDOW("cairo.wal.sequencer.group.commit.window"),
+    CAIRO_WAL_REPLICA_SOURCE_ROOT("cairo.wal.replica.source.root"),
+    CAIRO_WAL_REPLICA_POLL_INTERVAL("cairo.wal.replica.poll.interval"),
     CAIRO_SYSTEM_WAL_WRITER_DATA_APPEND_PAGE_SIZE("cairo.system.wal.writer.data.append.page.size"),
     CAIRO_SYSTEM_WAL_WRITER_EVENT_APPEND_PAGE_SIZE("cairo.system.wal.writer.event.append.page.size"),
     WAL_APPLY_WORKER_COUNT("wal.apply.worker.count"),
@@ -452,6 +487,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     WAL_APPLY_WORKER_NAP_THRESHOLD("wal.apply.worker.nap.threshold"),
     WAL_APPLY_WORKER_SLEEP_THRESHOLD("wal.apply.worker.sleep.threshold"),
     WAL_APPLY_WORKER_SLEEP_TIMEOUT("wal.apply.worker.sleep.timeout"),
+    WAL_APPLY_WORKER_WAKEUP_ENABLED("wal.apply.worker.wakeup.enabled"),
     WAL_APPLY_WORKER_YIELD_THRESHOLD("wal.apply.worker.yield.threshold"),
     CAIRO_WAL_TXN_NOTIFICATION_QUEUE_CAPACITY("cairo.wal.txn.notification.queue.capacity"),
     CAIRO_WAL_SUPPORTED("cairo.wal.supported"),
@@ -465,6 +501,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_WAL_MAX_SEGMENT_FILE_DESCRIPTORS_CACHE("cairo.wal.max.segment.file.descriptors.cache"),
     CAIRO_WAL_APPLY_TABLE_TIME_QUOTA("cairo.wal.apply.table.time.quota"),
     CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT("cairo.wal.apply.look.ahead.txn.count"),
+    CAIRO_WAL_APPLY_PARTITION_PARALLELISM("cairo.wal.apply.partition.parallelism"),
     CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX("cairo.wal.temp.pending.rename.table.prefix"),
     CAIRO_WAL_WRITER_POOL_MAX_SEGMENTS("cairo.wal.writer.pool.max.segments"),
     READ_ONLY_INSTANCE("readonly"),
@@ -486,6 +523,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     POSTHOG_ENABLED("posthog.enabled"),
     LOG_LEVEL_VERBOSE("log.level.verbose"),
     LOG_SQL_QUERY_PROGRESS_EXE("log.sql.query.progress.exe"),
+    LOG_SQL_QUERY_PAGE_FAULTS("log.sql.query.page.faults"),
     CAIRO_PARTITION_ENCODER_PARQUET_VERSION("cairo.partition.encoder.parquet.version"),
     CAIRO_PARTITION_ENCODER_PARQUET_STATISTICS_ENABLED("cairo.partition.encoder.parquet.statistics.enabled"),
     CAIRO_PARTITION_ENCODER_PARQUET_COMPRESSION_CODEC("cairo.partition.encoder.parquet.compression.codec"),
@@ -32,6 +32,8 @@ import io.questdb.cairo.security.ReadOnlySecurityContextFactory;
 import io.questdb.cairo.security.SecurityContextFactory;
 import io.questdb.cairo.wal.ApplyWal2TableJob;
 import io.questdb.cairo.wal.WalPurgeJob;
+import io.questdb.cairo.wal.WalReplicaJob;
+import io.questdb.cairo.wal.WalSegmentCompressionJob;
 import io.questdb.cutlass.Services;
 import io.questdb.cutlass.auth.AuthUtils;
 import io.questdb.cutlass.auth.DefaultLineAuthenticatorFactory;
@@ -160,7 +162,9 @@ public class ServerMain implements Closeable {
     }
 
     public static SecurityContextFactory getSecurityContextFactory(ServerConfiguration configuration) {
-        boolean readOnlyInstance = configuration.getCairoConfiguration().isReadOnlyInstance();
+        final CairoConfiguration cairoConfiguration = configuration.getCairoConfiguration();
+        // WAL replica applies transactions shipped from the primary, user writes are not allowed
+        boolean readOnlyInstance = cairoConfiguration.isReadOnlyInstance() || cairoConfiguration.getWalReplicaSourceRoot() != null;
         if (readOnlyInstance) {
             return ReadOnlySecurityContextFactory.INSTANCE;
         } else {
@@ -326,6 +330,7 @@ public class ServerMain implements Closeable {
             @Override
             protected void configureSharedPool(WorkerPool sharedPool) {
                 try {
+                    sharedPool.subscribe(engine.getMessageBus().getWorkerWakeup());
                     sharedPool.assign(engine.getEngineMaintenanceJob());
 
                     WorkerPoolUtils.setupQueryJobs(sharedPool, engine);
@@ -341,6 +346,21 @@ public class ServerMain implements Closeable {
                             sharedPool.assign(walPurgeJob);
                             sharedPool.freeOnExit(walPurgeJob);
 
+                            if (cairoConfig.isWalSegmentCompressionEnabled()) {
+                                for (int i = 0, n = sharedPool.getWorkerCount(); i < n; i++) {
+                                    // create job per worker
+                                    final WalSegmentCompressionJob walSegmentCompressionJob = new WalSegmentCompressionJob(engine);
+                                    sharedPool.assign(i, walSegmentCompressionJob);
+                                    sharedPool.freeOnExit(walSegmentCompressionJob);
+                                }
+                            }
+
+                            if (cairoConfig.getWalReplicaSourceRoot() != null) {
+                                final WalReplicaJob walReplicaJob = new WalReplicaJob(engine, walPurgeJob.getRunLock());
+                                sharedPool.assign(walReplicaJob);
+                                sharedPool.freeOnExit(walReplicaJob);
+                            }
+
                             // wal apply job in the shared pool when there is no dedicated pool
                             if (walApplyEnabled && !config.getWalApplyPoolConfiguration().isEnabled()) {
                                 setupWalApplyJob(sharedPool, engine, sharedPool.getWorkerCount());
@@ -381,6 +401,7 @@ public class ServerMain implements Closeable {
                     metrics,
                     WorkerPoolManager.Requester.WAL_APPLY
             );
+            walApplyWorkerPool.subscribe(engine.getMessageBus().getWorkerWakeup());
             setupWalApplyJob(walApplyWorkerPool, engine, workerPoolManager.getSharedWorkerCount());
         }
 
@@ -101,10 +101,33 @@ public interface CairoConfiguration {
     @NotNull
     SqlExecutionCircuitBreakerConfiguration getCircuitBreakerConfiguration();
 
+    /**
+     * Number of recently seen column file keys the column buffer cache remembers to admit
+     * historical column files on their second access.
+     */
+    int getColumnBufferCacheGhostCapacity();
+
+    /**
+     * Number of most recent partitions per table whose column files the column buffer cache admits
+     * on first access and protects from eviction by older partitions.
+     */
+    int getColumnBufferCacheRecentPartitionCount();
+
+    /**
+     * Size limit of the off-heap column buffer cache in bytes. Zero disables the cache.
+     */
+    long getColumnBufferCacheSize();
+
     int getColumnCastModelPoolCapacity();
 
     int getColumnIndexerQueueCapacity();
 
+    /**
+     * Number of most recent partitions whose column files table readers pre-fault into the page
+     * cache when mapping them. Zero disables pre-faulting.
+     */
+    int getColumnMmapPopulatePartitionCount();
+
     int getColumnPurgeQueueCapacity();
 
     long getColumnPurgeRetryDelay();
@@ -117,6 +140,16 @@ public interface CairoConfiguration {
 
     int getCommitMode();
 
+    /**
+     * Minimum interval in milliseconds between two synchronous flushes of table data to disk
+     * when {@link #getCommitMode()} is {@link CommitMode#SYNC}. Commits made within the interval
+     * only schedule the flush, and the data they added becomes durable with the next commit
+     * or writer tick that falls outside the interval, or when the writer is closed. Writers idle
+     * in the pool are flushed on the next idle check past the interval, see
+     * {@link #getIdleCheckInterval()}. 0 syncs every commit.
+     */
+    long getCommitSyncInterval();
+
     @NotNull
     CharSequence getConfRoot(); // same as root/../conf
 
@@ -221,6 +254,12 @@ public interface CairoConfiguration {
 
     boolean getLogLevelVerbose();
 
+    /**
+     * When enabled, the 'fin' query log message includes the number of minor and major page faults
+     * the process incurred while the query was running.
+     */
+    boolean getLogSqlQueryPageFaults();
+
     boolean getLogSqlQueryProgressExe();
 
     int getMaxCrashFiles();
@@ -256,6 +295,20 @@ public interface CairoConfiguration {
         return NanosecondClockImpl.INSTANCE;
     }
 
+    /**
+     * Maximum number of rows the table writer indexes per commit in partitions other than
+     * the last one when it catches up with n-gram indexes of existing data.
+     */
+    long getNgramIndexBackfillRowLimit();
+
+    /**
+     * VARCHAR and STRING columns maintaining n-gram index, as lower-case "table.column" entries.
+     */
+    @NotNull
+    CharSequenceHashSet getNgramIndexColumns();
+
+    int getNgramIndexValueBlockSize();
+
     int getO3CallbackQueueCapacity();
 
     int getO3ColumnMemorySize();
@@ -308,6 +361,12 @@ public interface CairoConfiguration {
 
     int getParallelIndexThreshold();
 
+    /**
+     * Number of most recent transactions per table for which the table writer keeps the list of changed
+     * partitions in memory. Table readers use the list to reload only changed partitions. Zero disables the log.
+     */
+    int getPartitionChangeLogCapacity();
+
     int getPartitionEncoderParquetCompressionCodec();
 
     int getPartitionEncoderParquetCompressionLevel();
@@ -398,6 +457,30 @@ public interface CairoConfiguration {
 
     int getSqlCopyQueueCapacity();
 
+    /**
+     * Returns maximum size of aligned buffers that a single table scan may hold for partitions
+     * read with direct I/O. Once the limit is reached, remaining column files are read through mappings.
+     *
+     * @return buffer limit in bytes
+     */
+    long getSqlDirectIoScanBufferLimit();
+
+    /**
+     * Returns number of most recent partitions that are always scanned through mappings, as these
+     * are likely to be hot and should remain in OS page cache.
+     *
+     * @return number of recent partitions
+     */
+    int getSqlDirectIoScanRecentPartitionCount();
+
+    /**
+     * Returns estimated table scan size, in bytes, at or above which forward table scans read cold
+     * partitions with direct I/O, leaving OS page cache untouched.
+     *
+     * @return scan size threshold in bytes, 0 disables direct I/O scans
+     */
+    long getSqlDirectIoScanThreshold();
+
     int getSqlDistinctTimestampKeyCapacity();
 
     double getSqlDistinctTimestampLoadFactor();
@@ -441,6 +524,12 @@ public interface CairoConfiguration {
 
     int getSqlLexerPoolCapacity();
 
+    /**
+     * Queries of these users run with {@link io.questdb.cairo.sql.QueryPriority#LOW} priority,
+     * unless priority is set explicitly.
+     */
+    CharSequenceHashSet getSqlLowPriorityUsers();
+
     int getSqlMapMaxPages();
 
     int getSqlMapMaxResizes();
@@ -455,6 +544,17 @@ public interface CairoConfiguration {
 
     int getSqlPageFrameMinRows();
 
+    /**
+     * Max number of low priority queries dispatching page frames to the worker pool at
+     * the same time. Zero or negative value means no limit.
+     */
+    int getSqlParallelLowPriorityQueryLimit();
+
+    /**
+     * Share of the reduce queue capacity, in percent, a single low priority query may occupy.
+     */
+    int getSqlParallelLowPriorityQueueShare();
+
     int getSqlParallelWorkStealingThreshold();
 
     int getSqlSmallMapKeyCapacity();
@@ -525,6 +625,15 @@ public interface CairoConfiguration {
 
     int getWalApplyLookAheadTransactionCount();
 
+    /**
+     * Maximum number of table partitions merged concurrently when WAL apply commits
+     * a batch of transactions spanning several partitions. The partitions are merged
+     * by the O3 worker pool and the apply thread, and become visible in a single table
+     * transaction. Zero or negative value means no limit other than the one imposed by
+     * memory pressure regulation.
+     */
+    int getWalApplyPartitionParallelism();
+
     long getWalApplyTableTimeQuota();
 
     long getWalDataAppendPageSize();
@@ -549,6 +658,46 @@ public interface CairoConfiguration {
 
     int getWalRecreateDistressedSequencerAttempts();
 
+    /**
+     * Interval in milliseconds between polls of the primary's transaction logs by a WAL replica.
+     *
+     * @return replica poll interval, in milliseconds
+     */
+    long getWalReplicaPollInterval();
+
+    /**
+     * Database root of the primary instance this instance follows as a read replica, e.g. a shared
+     * directory or a local stand-in of an object store. The replica copies WAL segments of new
+     * transactions from there and applies them to its own tables.
+     *
+     * @return primary database root, null when this instance is not a replica
+     */
+    @Nullable
+    CharSequence getWalReplicaSourceRoot();
+
+    /**
+     * A rolled WAL segment is compressed only when the apply job is at least this many transactions
+     * behind its last transaction, i.e. when the segment is expected to stay on disk for a while.
+     *
+     * @see #isWalSegmentCompressionEnabled()
+     */
+    long getWalSegmentCompressionMinLagTxnCount();
+
+    /**
+     * A rolled WAL segment is compressed only when its column files are at least this large in total.
+     *
+     * @see #isWalSegmentCompressionEnabled()
+     */
+    long getWalSegmentCompressionMinSize();
+
+    /**
+     * Capacity of the queue of rolled WAL segments waiting for the compression job. Segments rolled
+     * while the queue is full are left uncompressed.
+     *
+     * @see #isWalSegmentCompressionEnabled()
+     */
+    int getWalSegmentCompressionQueueCapacity();
+
     /**
      * If after a commit a WAL segment has more than this number of rows, roll the next transaction onto a new segment.
      * <p>
@@ -565,6 +714,15 @@ public interface CairoConfiguration {
      */
     long getWalSegmentRolloverSize();
 
+    /**
+     * Time in microseconds the committer flushing the WAL sequencer transaction log waits for
+     * concurrent committers to append their transactions, so that one flush covers all of them.
+     * Zero flushes straight away, coalescing only the commits that arrive while a flush is in progress.
+     *
+     * @return group commit window, in microseconds
+     */
+    long getWalSequencerGroupCommitWindow();
+
     int getWalTxnNotificationQueueCapacity();
 
     int getWalWriterPoolMaxSegments();
@@ -594,6 +752,23 @@ public interface CairoConfiguration {
      */
     boolean isCheckpointRecoveryEnabled();
 
+    /**
+     * When enabled, table readers advise the kernel to back column file mappings with transparent huge pages.
+     */
+    boolean isColumnMmapHugePagesEnabled();
+
+    /**
+     * When enabled, page frame cursors advise the kernel of the expected access pattern over column file
+     * mappings: sequential for table scans and random for index-driven row cursors.
+     */
+    boolean isColumnMmapScanAdviceEnabled();
+
+    /**
+     * When enabled, commits in {@link CommitMode#SYNC} mode flush column files in parallel
+     * on the column task queue rather than one by one on the committing thread.
+     */
+    boolean isCommitSyncParallelEnabled();
+
     boolean isDevModeEnabled();
 
     boolean isGroupByPresizeEnabled();
@@ -604,6 +779,12 @@ public interface CairoConfiguration {
 
     boolean isO3QuickSortEnabled();
 
+    /**
+     * When enabled, page frame reduce queue shards are assigned to NUMA nodes, tables are
+     * interleaved across the nodes and pinned workers prefer the shards of their own node.
+     */
+    boolean isPageFrameNumaAware();
+
     boolean isParallelIndexingEnabled();
 
     boolean getPartitionO3OverwriteControlEnabled();
@@ -620,10 +801,35 @@ public interface CairoConfiguration {
 
     boolean isSqlParallelGroupByEnabled();
 
+    /**
+     * When enabled, scans of WAL tables also return rows of committed transactions that
+     * are not yet applied to the table. Can be overridden per session via
+     * {@code SET read_your_writes}.
+     */
+    boolean isSqlReadYourWritesEnabled();
+
+    /**
+     * When enabled, table readers share cached symbol values process-wide instead of
+     * caching them per reader instance.
+     */
+    boolean isSymbolTableSharedCacheEnabled();
+
     boolean isTableTypeConversionEnabled();
 
     boolean isWalApplyEnabled();
 
+    /**
+     * When enabled, column files of the segments WAL writers roll while the apply job lags behind
+     * are compressed by the background compression job, and the apply job restores them before reading.
+     */
+    boolean isWalSegmentCompressionEnabled();
+
+    /**
+     * When enabled, concurrent WAL commits to the same table append to the sequencer transaction log
+     * without syncing it each, and a single flush makes a whole batch of them durable.
+     */
+    boolean isWalSequencerGroupCommitEnabled();
+
     boolean isWalSupported();
 
     boolean isWriterMixedIOEnabled();
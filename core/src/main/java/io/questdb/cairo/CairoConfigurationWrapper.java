@@ -27,6 +27,7 @@ package io.questdb.cairo;
 import io.questdb.*;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreakerConfiguration;
 import io.questdb.cutlass.text.TextConfiguration;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.CharSequenceObjHashMap;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.ObjObjHashMap;
@@ -125,6 +126,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getCircuitBreakerConfiguration();
     }
 
+    @Override
+    public int getColumnBufferCacheGhostCapacity() {
+        return getDelegate().getColumnBufferCacheGhostCapacity();
+    }
+
+    @Override
+    public int getColumnBufferCacheRecentPartitionCount() {
+        return getDelegate().getColumnBufferCacheRecentPartitionCount();
+    }
+
+    @Override
+    public long getColumnBufferCacheSize() {
+        return getDelegate().getColumnBufferCacheSize();
+    }
+
     @Override
     public int getColumnCastModelPoolCapacity() {
         return getDelegate().getColumnCastModelPoolCapacity();
@@ -135,6 +151,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getColumnIndexerQueueCapacity();
     }
 
+    @Override
+    public int getColumnMmapPopulatePartitionCount() {
+        return getDelegate().getColumnMmapPopulatePartitionCount();
+    }
+
     @Override
     public int getColumnPurgeQueueCapacity() {
         return getDelegate().getColumnPurgeQueueCapacity();
@@ -165,6 +186,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getCommitMode();
     }
 
+    @Override
+    public long getCommitSyncInterval() {
+        return getDelegate().getCommitSyncInterval();
+    }
+
     @Override
     public @NotNull CharSequence getConfRoot() {
         return getDelegate().getConfRoot();
@@ -385,6 +411,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getLogLevelVerbose();
     }
 
+    @Override
+    public boolean getLogSqlQueryPageFaults() {
+        return getDelegate().getLogSqlQueryPageFaults();
+    }
+
     @Override
     public boolean getLogSqlQueryProgressExe() {
         return getDelegate().getLogSqlQueryProgressExe();
@@ -445,6 +476,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getMkDirMode();
     }
 
+    @Override
+    public long getNgramIndexBackfillRowLimit() {
+        return getDelegate().getNgramIndexBackfillRowLimit();
+    }
+
+    @Override
+    public @NotNull CharSequenceHashSet getNgramIndexColumns() {
+        return getDelegate().getNgramIndexColumns();
+    }
+
+    @Override
+    public int getNgramIndexValueBlockSize() {
+        return getDelegate().getNgramIndexValueBlockSize();
+    }
+
     @Override
     public int getO3CallbackQueueCapacity() {
         return getDelegate().getO3CallbackQueueCapacity();
@@ -525,6 +571,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getParallelIndexThreshold();
     }
 
+    @Override
+    public int getPartitionChangeLogCapacity() {
+        return getDelegate().getPartitionChangeLogCapacity();
+    }
+
     @Override
     public int getPartitionEncoderParquetCompressionCodec() {
         return getDelegate().getPartitionEncoderParquetCompressionCodec();
@@ -680,6 +731,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlCopyQueueCapacity();
     }
 
+    @Override
+    public long getSqlDirectIoScanBufferLimit() {
+        return getDelegate().getSqlDirectIoScanBufferLimit();
+    }
+
+    @Override
+    public int getSqlDirectIoScanRecentPartitionCount() {
+        return getDelegate().getSqlDirectIoScanRecentPartitionCount();
+    }
+
+    @Override
+    public long getSqlDirectIoScanThreshold() {
+        return getDelegate().getSqlDirectIoScanThreshold();
+    }
+
     @Override
     public int getSqlDistinctTimestampKeyCapacity() {
         return getDelegate().getSqlDistinctTimestampKeyCapacity();
@@ -775,6 +841,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlLexerPoolCapacity();
     }
 
+    @Override
+    public CharSequenceHashSet getSqlLowPriorityUsers() {
+        return getDelegate().getSqlLowPriorityUsers();
+    }
+
     @Override
     public int getSqlMapMaxPages() {
         return getDelegate().getSqlMapMaxPages();
@@ -810,6 +881,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlPageFrameMinRows();
     }
 
+    @Override
+    public int getSqlParallelLowPriorityQueryLimit() {
+        return getDelegate().getSqlParallelLowPriorityQueryLimit();
+    }
+
+    @Override
+    public int getSqlParallelLowPriorityQueueShare() {
+        return getDelegate().getSqlParallelLowPriorityQueueShare();
+    }
+
     @Override
     public int getSqlParallelWorkStealingThreshold() {
         return getDelegate().getSqlParallelWorkStealingThreshold();
@@ -975,6 +1056,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalApplyLookAheadTransactionCount();
     }
 
+    @Override
+    public int getWalApplyPartitionParallelism() {
+        return getDelegate().getWalApplyPartitionParallelism();
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return getDelegate().getWalApplyTableTimeQuota();
@@ -1030,6 +1116,31 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalRecreateDistressedSequencerAttempts();
     }
 
+    @Override
+    public long getWalReplicaPollInterval() {
+        return getDelegate().getWalReplicaPollInterval();
+    }
+
+    @Override
+    public @Nullable CharSequence getWalReplicaSourceRoot() {
+        return getDelegate().getWalReplicaSourceRoot();
+    }
+
+    @Override
+    public long getWalSegmentCompressionMinLagTxnCount() {
+        return getDelegate().getWalSegmentCompressionMinLagTxnCount();
+    }
+
+    @Override
+    public long getWalSegmentCompressionMinSize() {
+        return getDelegate().getWalSegmentCompressionMinSize();
+    }
+
+    @Override
+    public int getWalSegmentCompressionQueueCapacity() {
+        return getDelegate().getWalSegmentCompressionQueueCapacity();
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return getDelegate().getWalSegmentRolloverRowCount();
@@ -1040,6 +1151,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalSegmentRolloverSize();
     }
 
+    @Override
+    public long getWalSequencerGroupCommitWindow() {
+        return getDelegate().getWalSequencerGroupCommitWindow();
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return getDelegate().getWalTxnNotificationQueueCapacity();
@@ -1100,6 +1216,21 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isCheckpointRecoveryEnabled();
     }
 
+    @Override
+    public boolean isColumnMmapHugePagesEnabled() {
+        return getDelegate().isColumnMmapHugePagesEnabled();
+    }
+
+    @Override
+    public boolean isColumnMmapScanAdviceEnabled() {
+        return getDelegate().isColumnMmapScanAdviceEnabled();
+    }
+
+    @Override
+    public boolean isCommitSyncParallelEnabled() {
+        return getDelegate().isCommitSyncParallelEnabled();
+    }
+
     @Override
     public boolean isDevModeEnabled() {
         return getDelegate().isDevModeEnabled();
@@ -1125,6 +1256,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isO3QuickSortEnabled();
     }
 
+    @Override
+    public boolean isPageFrameNumaAware() {
+        return getDelegate().isPageFrameNumaAware();
+    }
+
     @Override
     public boolean isParallelIndexingEnabled() {
         return getDelegate().isParallelIndexingEnabled();
@@ -1165,6 +1301,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlParallelGroupByEnabled();
     }
 
+    @Override
+    public boolean isSqlReadYourWritesEnabled() {
+        return getDelegate().isSqlReadYourWritesEnabled();
+    }
+
+    @Override
+    public boolean isSymbolTableSharedCacheEnabled() {
+        return getDelegate().isSymbolTableSharedCacheEnabled();
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return getDelegate().isTableTypeConversionEnabled();
@@ -1175,6 +1321,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isWalApplyEnabled();
     }
 
+    @Override
+    public boolean isWalSegmentCompressionEnabled() {
+        return getDelegate().isWalSegmentCompressionEnabled();
+    }
+
+    @Override
+    public boolean isWalSequencerGroupCommitEnabled() {
+        return getDelegate().isWalSequencerGroupCommitEnabled();
+    }
+
     public boolean isWalSupported() {
         return getDelegate().isWalSupported();
     }
@@ -114,6 +114,7 @@ public class CairoEngine implements Closeable, WriterSource {
     protected final CairoConfiguration configuration;
     private final AtomicLong asyncCommandCorrelationId = new AtomicLong();
     private final DatabaseCheckpointAgent checkpointAgent;
+    private final ColumnBufferCache columnBufferCache;
     private final CopyContext copyContext;
     private final ConcurrentHashMap<TableToken> createTableLock = new ConcurrentHashMap<>();
     private final EngineMaintenanceJob engineMaintenanceJob;
@@ -121,12 +122,14 @@ public class CairoEngine implements Closeable, WriterSource {
     private final MessageBusImpl messageBus;
     private final MetadataCache metadataCache;
     private final Metrics metrics;
+    private final ConcurrentHashMap<PartitionChangeLog> partitionChangeLogs = new ConcurrentHashMap<>();
     private final PartitionOverwriteControl partitionOverwriteControl = new PartitionOverwriteControl();
     private final QueryRegistry queryRegistry;
     private final ReaderPool readerPool;
     private final SqlExecutionContext rootExecutionContext;
     private final SequencerMetadataPool sequencerMetadataPool;
     private final SqlCompilerPool sqlCompilerPool;
+    private final SymbolTableCache symbolTableCache;
     private final TableFlagResolver tableFlagResolver;
     private final IDGenerator tableIdGenerator;
     private final TableMetadataPool tableMetadataPool;
@@ -162,7 +165,15 @@ public class CairoEngine implements Closeable, WriterSource {
             this.metrics = metrics;
             // Message bus and metrics must be initialized before the pools.
             this.writerPool = new WriterPool(configuration, this);
-            this.readerPool = new ReaderPool(configuration, messageBus, partitionOverwriteControl);
+            this.symbolTableCache = configuration.isSymbolTableSharedCacheEnabled() ? new SymbolTableCache() : null;
+            this.columnBufferCache = configuration.getColumnBufferCacheSize() > 0
+                    ? new ColumnBufferCache(
+                    configuration.getColumnBufferCacheSize(),
+                    configuration.getColumnBufferCacheRecentPartitionCount(),
+                    configuration.getColumnBufferCacheGhostCapacity()
+            )
+                    : null;
+            this.readerPool = new ReaderPool(configuration, messageBus, partitionOverwriteControl, this);
             this.sequencerMetadataPool = new SequencerMetadataPool(configuration, this);
             this.tableMetadataPool = new TableMetadataPool(configuration);
             this.walWriterPool = new WalWriterPool(configuration, this);
@@ -353,6 +364,9 @@ public class CairoEngine implements Closeable, WriterSource {
         boolean b5 = walWriterPool.releaseAll();
         boolean b6 = tableMetadataPool.releaseAll();
         partitionOverwriteControl.clear();
+        if (columnBufferCache != null) {
+            columnBufferCache.clear();
+        }
         return b1 & b2 & b3 & b4 & b5 & b6;
     }
 
@@ -372,6 +386,7 @@ public class CairoEngine implements Closeable, WriterSource {
         Misc.free(tableNameRegistry);
         Misc.free(checkpointAgent);
         Misc.free(metadataCache);
+        Misc.free(columnBufferCache);
     }
 
     @TestOnly
@@ -449,6 +464,7 @@ public class CairoEngine implements Closeable, WriterSource {
                 }
 
                 tableNameRegistry.dropTable(tableToken);
+                partitionChangeLogs.remove(tableToken.getDirName());
                 return;
             }
             throw CairoException.nonCritical().put("could not lock '").put(tableToken.getTableName()).put("' [reason='").put(lockedReason).put("']");
@@ -521,6 +537,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return checkpointAgent;
     }
 
+    public @Nullable ColumnBufferCache getColumnBufferCache() {
+        return columnBufferCache;
+    }
+
     public long getCommandCorrelationId() {
         return asyncCommandCorrelationId.incrementAndGet();
     }
@@ -576,6 +596,30 @@ public class CairoEngine implements Closeable, WriterSource {
         return metrics;
     }
 
+    /**
+     * Returns the log of partitions changed by recent transactions of the table, shared by its writer
+     * and readers, or null when the log is disabled.
+     */
+    public @Nullable PartitionChangeLog getPartitionChangeLog(TableToken tableToken) {
+        final int capacity = configuration.getPartitionChangeLogCapacity();
+        if (capacity < 1) {
+            return null;
+        }
+        final String dirName = tableToken.getDirName();
+        final int tableId = tableToken.getTableId();
+        while (true) {
+            final PartitionChangeLog log = partitionChangeLogs.computeIfAbsent(dirName, k -> new PartitionChangeLog(tableId, capacity));
+            if (log.getTableId() == tableId) {
+                return log;
+            }
+            // table directory was re-used by a new table
+            final PartitionChangeLog newLog = new PartitionChangeLog(tableId, capacity);
+            if (partitionChangeLogs.replace(dirName, log, newLog)) {
+                return newLog;
+            }
+        }
+    }
+
     public PartitionOverwriteControl getPartitionOverwriteControl() {
         return partitionOverwriteControl;
     }
@@ -681,6 +725,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return SqlCompilerFactoryImpl.INSTANCE;
     }
 
+    public @Nullable SymbolTableCache getSymbolTableCache() {
+        return symbolTableCache;
+    }
+
     public TableFlagResolver getTableFlagResolver() {
         return tableFlagResolver;
     }
@@ -727,6 +775,28 @@ public class CairoEngine implements Closeable, WriterSource {
         return validateDesiredMetadataVersion(tableToken, tableMetadataPool.get(tableToken), desiredVersion);
     }
 
+    /**
+     * Loads partition list, row counts and timestamp range of the table into the given snapshot
+     * without acquiring a {@link TableReader}. Table structure comes from the metadata cache and
+     * the rest from the table's <code>_txn</code> file.
+     *
+     * @param tableToken table token
+     * @param snapshot   reusable snapshot instance
+     * @return the snapshot, loaded with the latest committed table state
+     */
+    public TablePartitionSnapshot getTablePartitionSnapshot(TableToken tableToken, TablePartitionSnapshot snapshot) {
+        verifyTableToken(tableToken);
+        final CairoTable table;
+        try (MetadataCacheReader metadataRO = metadataCache.readLock()) {
+            table = metadataRO.getTable(tableToken);
+        }
+        if (table == null) {
+            throw CairoException.tableDoesNotExist(tableToken.getTableName());
+        }
+        snapshot.of(tableToken, table);
+        return snapshot;
+    }
+
     public TableSequencerAPI getTableSequencerAPI() {
         return tableSequencerAPI;
     }
@@ -973,6 +1043,35 @@ public class CairoEngine implements Closeable, WriterSource {
 
     public void notifyDropped(TableToken tableToken) {
         tableNameRegistry.dropTable(tableToken);
+        partitionChangeLogs.remove(tableToken.getDirName());
+    }
+
+    /**
+     * Publishes a rolled WAL segment to the queue of WalSegmentCompressionJob. The segment is left
+     * uncompressed when the queue is full.
+     *
+     * @param tableToken table token of the segment table
+     * @param walId      WAL id
+     * @param segmentId  segment id
+     * @param segmentTxn sequencer transaction of the last commit to the segment
+     * @return true if the message was successfully put on the queue and false otherwise.
+     */
+    public boolean notifyWalSegmentRolled(@NotNull TableToken tableToken, int walId, int segmentId, long segmentTxn) {
+        final Sequence pubSeq = messageBus.getWalSegmentCompressionPubSeq();
+        while (true) {
+            long cursor = pubSeq.next();
+            if (cursor > -1L) {
+                messageBus.getWalSegmentCompressionQueue().get(cursor).of(tableToken, walId, segmentId, segmentTxn);
+                pubSeq.done(cursor);
+                return true;
+            } else if (cursor == -1L) {
+                LOG.info().$("cannot publish WAL segment for compression, queue is full [table=").utf8(tableToken.getDirName())
+                        .$(", walId=").$(walId)
+                        .$(", segmentId=").$(segmentId)
+                        .I$();
+                return false;
+            }
+        }
     }
 
     /**
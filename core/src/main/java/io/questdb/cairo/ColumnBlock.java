@@ -0,0 +1,91 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.BinarySequence;
+import io.questdb.std.str.DirectUtf8Sequence;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Column-oriented block of rows to be appended to a table in one go, bypassing
+ * the row-by-row {@link TableWriter.Row} API. Column indexes are those of the
+ * target table's metadata.
+ * <p>
+ * Fixed-size columns are exposed as native memory laid out exactly as the
+ * writer stores them, nulls included, so that they can be copied verbatim.
+ * The designated timestamp column is also exposed this way, one 8-byte value
+ * per row. Var-size columns are accessed row by row. Symbol columns can either
+ * be accessed row by row or, when the block is dictionary-encoded, as keys into
+ * a block-local dictionary, which lets the writer resolve each distinct value
+ * only once per block.
+ */
+public interface ColumnBlock {
+    int NULL_KEY = -1;
+
+    /**
+     * @param columnIndex table column index of a BINARY column
+     * @param row         row index within the block
+     * @return binary value or null
+     */
+    @Nullable
+    BinarySequence getBin(int columnIndex, long row);
+
+    /**
+     * @param columnIndex table column index of a fixed-size column
+     * @return address of the first value, the block must hold {@link #getRowCount()} values
+     * of {@link ColumnType#sizeOf(int)} bytes each
+     */
+    long getFixedColumnAddress(int columnIndex);
+
+    long getRowCount();
+
+    int getSymbolDictionarySize(int columnIndex);
+
+    DirectUtf8Sequence getSymbolDictionaryValue(int columnIndex, int key);
+
+    /**
+     * @param columnIndex table column index of a dictionary-encoded column
+     * @param row         row index within the block
+     * @return dictionary key or {@link #NULL_KEY}
+     */
+    int getSymbolKey(int columnIndex, long row);
+
+    /**
+     * @param columnIndex table column index of a STRING, VARCHAR or SYMBOL column
+     * @param row         row index within the block
+     * @return UTF-8 value or null
+     */
+    @Nullable
+    DirectUtf8Sequence getUtf8(int columnIndex, long row);
+
+    /**
+     * @param columnIndex table column index
+     * @return false when the block has no data for the column, writer fills such columns with nulls
+     */
+    boolean hasColumn(int columnIndex);
+
+    boolean isDictionaryEncoded(int columnIndex);
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo;
+
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Engine-wide off-heap cache of column file contents. Column files are copied into memory
+ * allocated under {@link MemoryTag#NATIVE_COLUMN_BUFFER_CACHE}, so that the hot data stays
+ * resident when the OS page cache is flushed by large historical scans or backups.
+ * <p>
+ * Admission is scan resistant, following the 2Q policy. Files of the most recent partitions
+ * are admitted on first access and are evicted only to make room for other recent partition
+ * files. Files of older partitions are admitted on the second access while their key is still
+ * in the ghost queue of recently seen keys, so a one-off scan over history does not displace
+ * cached data. Resident entries are evicted in LRU order.
+ * <p>
+ * Entries are identified by the column file identity: table, truncate and partition table
+ * versions, partition timestamp and name txn, column and column name txn. Within the identity
+ * files are append-only, so an entry is a copy of a file prefix, and it is extended in place
+ * when a reader sees a longer file. Entries are reference counted by page frame cursors;
+ * referenced entries are never moved or freed.
+ */
+public class ColumnBufferCache implements QuietCloseable {
+    private final long capacity;
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final int ghostCapacity;
+    private final CharSequenceIntHashMap ghostKeys = new CharSequenceIntHashMap();
+    private final ObjList<String> ghostQueue = new ObjList<>();
+    private final StringSink keySink = new StringSink();
+    private final int recentPartitionCount;
+    private long evictionCount;
+    private int ghostQueueHead;
+    private long hitCount;
+    // most recently used entry
+    private Entry lruHead;
+    // least recently used entry
+    private Entry lruTail;
+    private long memUsed;
+    private long missCount;
+
+    public ColumnBufferCache(long capacity, int recentPartitionCount, int ghostCapacity) {
+        this.capacity = capacity;
+        this.recentPartitionCount = recentPartitionCount;
+        this.ghostCapacity = Math.max(ghostCapacity, 1);
+    }
+
+    /**
+     * Returns cached copy of the first size bytes of a column file, or null when the file is not
+     * admitted into the cache. The caller must release returned entry once it no longer accesses
+     * its memory.
+     *
+     * @param reader         table reader that has the partition open
+     * @param partitionIndex partition index
+     * @param columnIndex    reader column index
+     * @param aux            true for the aux vector file of var-size columns
+     * @param srcAddress     address of the mapped column file
+     * @param size           number of bytes visible to the reader
+     * @return leased entry or null
+     */
+    @Nullable
+    public synchronized Entry acquire(TableReader reader, int partitionIndex, int columnIndex, boolean aux, long srcAddress, long size) {
+        if (size < 1 || size > capacity) {
+            return null;
+        }
+
+        putKey(reader, partitionIndex, columnIndex, aux);
+        final boolean recent = partitionIndex >= reader.getPartitionCount() - recentPartitionCount;
+        final int index = entries.keyIndex(keySink);
+        if (index < 0) {
+            Entry entry = entries.valueAt(index);
+            if (entry.size >= size) {
+                hitCount++;
+                return lease(entry);
+            }
+
+            // the file has grown since it was cached
+            if (entry.refCount == 0 && makeRoom(size - entry.size, entry.recent || recent, entry)) {
+                entry.address = Unsafe.realloc(entry.address, entry.size, size, MemoryTag.NATIVE_COLUMN_BUFFER_CACHE);
+                Vect.memcpy(entry.address + entry.size, srcAddress + entry.size, size - entry.size);
+                memUsed += size - entry.size;
+                entry.size = size;
+                entry.recent |= recent;
+                hitCount++;
+                return lease(entry);
+            }
+
+            // cannot extend in place, the entry is replaced by a fresh copy
+            remove(entry);
+        } else if (!recent && !removeGhost(keySink)) {
+            addGhost(Chars.toString(keySink));
+            missCount++;
+            return null;
+        }
+
+        missCount++;
+        if (!makeRoom(size, recent, null)) {
+            return null;
+        }
+
+        final Entry entry = new Entry(Chars.toString(keySink), recent);
+        entry.address = Unsafe.malloc(size, MemoryTag.NATIVE_COLUMN_BUFFER_CACHE);
+        entry.size = size;
+        Vect.memcpy(entry.address, srcAddress, size);
+        memUsed += size;
+        entries.put(entry.key, entry);
+        return lease(entry);
+    }
+
+    /**
+     * Frees all entries that are not referenced.
+     */
+    public synchronized void clear() {
+        Entry entry = lruTail;
+        while (entry != null) {
+            final Entry prev = entry.prev;
+            if (entry.refCount == 0) {
+                remove(entry);
+            }
+            entry = prev;
+        }
+        ghostKeys.clear();
+        ghostQueue.clear();
+        ghostQueueHead = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @TestOnly
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMemUsed() {
+        return memUsed;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized void release(Entry entry) {
+        if (--entry.refCount == 0 && entry.detached) {
+            free(entry);
+        }
+    }
+
+    private void addGhost(String key) {
+        if (ghostQueue.size() < ghostCapacity) {
+            ghostQueue.add(key);
+        } else {
+            final String evicted = ghostQueue.getQuick(ghostQueueHead);
+            final int index = ghostKeys.keyIndex(evicted);
+            if (index < 0) {
+                final int count = ghostKeys.valueAt(index);
+                if (count > 1) {
+                    ghostKeys.putAt(index, evicted, count - 1);
+                } else {
+                    ghostKeys.removeAt(index);
+                }
+            }
+            ghostQueue.setQuick(ghostQueueHead, key);
+            ghostQueueHead = (ghostQueueHead + 1) % ghostCapacity;
+        }
+        ghostKeys.increment(key);
+    }
+
+    private void free(Entry entry) {
+        Unsafe.free(entry.address, entry.size, MemoryTag.NATIVE_COLUMN_BUFFER_CACHE);
+        memUsed -= entry.size;
+        entry.address = 0;
+        entry.size = 0;
+    }
+
+    private Entry lease(Entry entry) {
+        entry.refCount++;
+        unlink(entry);
+        entry.next = lruHead;
+        if (lruHead != null) {
+            lruHead.prev = entry;
+        }
+        lruHead = entry;
+        if (lruTail == null) {
+            lruTail = entry;
+        }
+        return entry;
+    }
+
+    /**
+     * Evicts unreferenced entries in LRU order until the requested number of bytes fits.
+     * Recent partition entries are evicted only on behalf of other recent partitions.
+     */
+    private boolean makeRoom(long size, boolean recent, @Nullable Entry keep) {
+        Entry entry = lruTail;
+        while (memUsed + size > capacity && entry != null) {
+            final Entry prev = entry.prev;
+            if (entry != keep && entry.refCount == 0 && (recent || !entry.recent)) {
+                remove(entry);
+                evictionCount++;
+            }
+            entry = prev;
+        }
+        return memUsed + size <= capacity;
+    }
+
+    private void putKey(TableReader reader, int partitionIndex, int columnIndex, boolean aux) {
+        final TxReader txReader = reader.getTxFile();
+        final TableToken tableToken = reader.getTableToken();
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final int writerIndex = reader.getMetadata().getWriterIndex(columnIndex);
+        final ColumnVersionReader columnVersionReader = reader.getColumnVersionReader();
+        long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, writerIndex);
+        if (columnNameTxn == -1) {
+            columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(writerIndex);
+        }
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('|').put(tableToken.getTableId())
+                .put('|').put(txReader.getTruncateVersion())
+                .put('|').put(txReader.getPartitionTableVersion())
+                .put('|').put(partitionTimestamp)
+                .put('|').put(txReader.getPartitionNameTxn(partitionIndex))
+                .put('|').put(writerIndex)
+                .put('|').put(columnNameTxn)
+                .put('|').put(aux ? 'i' : 'd');
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.key);
+        unlink(entry);
+        if (entry.refCount == 0) {
+            free(entry);
+        } else {
+            entry.detached = true;
+        }
+    }
+
+    private boolean removeGhost(CharSequence key) {
+        final int index = ghostKeys.keyIndex(key);
+        if (index < 0) {
+            ghostKeys.removeAt(index);
+            return true;
+        }
+        return false;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (lruHead == entry) {
+            lruHead = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else if (lruTail == entry) {
+            lruTail = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    public static class Entry {
+        private final String key;
+        private long address;
+        private boolean detached;
+        private Entry next;
+        private Entry prev;
+        private boolean recent;
+        private int refCount;
+        private long size;
+
+        private Entry(String key, boolean recent) {
+            this.key = key;
+            this.recent = recent;
+        }
+
+        public long getAddress() {
+            return address;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
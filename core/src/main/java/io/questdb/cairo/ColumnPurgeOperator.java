@@ -31,6 +31,7 @@ import io.questdb.std.*;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
 import io.questdb.tasks.ColumnPurgeTask;
 
 import java.io.Closeable;
@@ -42,6 +43,7 @@ public class ColumnPurgeOperator implements Closeable {
     private final LongList completedRowIds = new LongList();
     private final FilesFacade ff;
     private final MicrosecondClock microClock;
+    private final StringSink ngramIndexNameSink = new StringSink();
     private final Path path;
     private final int pathRootLen;
     private final TableWriter purgeLogWriter;
@@ -319,6 +321,20 @@ public class ColumnPurgeOperator implements Closeable {
                         allDone = false;
                         continue;
                     }
+
+                    // trigram index files, if the column has been indexed
+                    final CharSequence ngramIndexName = NgramIndexUtils.indexName(ngramIndexNameSink, columnName);
+                    path.trimTo(pathTrimToPartition);
+                    if (couldNotRemove(ff, BitmapIndexUtils.keyFileName(path, ngramIndexName, columnVersion))) {
+                        allDone = false;
+                        continue;
+                    }
+
+                    path.trimTo(pathTrimToPartition);
+                    if (couldNotRemove(ff, BitmapIndexUtils.valueFileName(path, ngramIndexName, columnVersion))) {
+                        allDone = false;
+                        continue;
+                    }
                 }
 
                 // Check if it's symbol, try remove .k and .v files in the partition
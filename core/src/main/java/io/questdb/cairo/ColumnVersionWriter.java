@@ -37,6 +37,7 @@ public class ColumnVersionWriter extends ColumnVersionReader {
     private final MemoryCMARW mem;
     private final boolean partitioned;
     private boolean hasChanges;
+    private PartitionChangeLog partitionChangeLog;
     private long size;
     private long version;
 
@@ -119,6 +120,7 @@ public class ColumnVersionWriter extends ColumnVersionReader {
         if (recordIndex >= 0) {
             cachedColumnVersionList.setQuick(recordIndex + COLUMN_TOP_OFFSET, 0);
             hasChanges = true;
+            onPartitionChanged(partitionTimestamp);
         }
     }
 
@@ -129,9 +131,14 @@ public class ColumnVersionWriter extends ColumnVersionReader {
             int len = to - from + BLOCK_SIZE;
             cachedColumnVersionList.removeIndexBlock(from, len);
             hasChanges = true;
+            onPartitionChanged(partitionTimestamp);
         }
     }
 
+    public void setPartitionChangeLog(PartitionChangeLog partitionChangeLog) {
+        this.partitionChangeLog = partitionChangeLog;
+    }
+
     public void truncate() {
         if (cachedColumnVersionList.size() > 0) {
 
@@ -166,6 +173,9 @@ public class ColumnVersionWriter extends ColumnVersionReader {
             }
 
             hasChanges = true;
+            if (partitionChangeLog != null) {
+                partitionChangeLog.markFullChange();
+            }
             commit();
         }
     }
@@ -220,6 +230,7 @@ public class ColumnVersionWriter extends ColumnVersionReader {
             cachedColumnVersionList.setQuick(index + COLUMN_TOP_OFFSET, columnTop);
         }
         hasChanges = true;
+        onPartitionChanged(timestamp);
     }
 
     public void upsertColumnTop(long partitionTimestamp, int columnIndex, long colTop) {
@@ -227,6 +238,7 @@ public class ColumnVersionWriter extends ColumnVersionReader {
         if (recordIndex > -1L) {
             cachedColumnVersionList.setQuick(recordIndex + COLUMN_TOP_OFFSET, colTop);
             hasChanges = true;
+            onPartitionChanged(partitionTimestamp);
         } else {
             // This is a 0 column top record we need to store it
             // to mark that the column is written in O3 even before the partition the column was originally added
@@ -298,6 +310,7 @@ public class ColumnVersionWriter extends ColumnVersionReader {
                     .put(" column version state, cannot update partition information");
         }
         hasChanges = true;
+        onPartitionChanged(dstTimestamp);
         return index;
     }
 
@@ -334,6 +347,17 @@ public class ColumnVersionWriter extends ColumnVersionReader {
         return (version & 1L) == 0L;
     }
 
+    private void onPartitionChanged(long partitionTimestamp) {
+        if (partitionChangeLog != null) {
+            if (partitionTimestamp == COL_TOP_DEFAULT_PARTITION) {
+                // default column versions apply to all partitions
+                partitionChangeLog.markFullChange();
+            } else {
+                partitionChangeLog.markPartitionChanged(partitionTimestamp);
+            }
+        }
+    }
+
     private void store(int entryCount, long offset) {
         for (int i = 0; i < entryCount; i++) {
             int x = i * BLOCK_SIZE;
@@ -38,6 +38,7 @@ import io.questdb.cutlass.text.TextConfiguration;
 import io.questdb.griffin.DefaultSqlExecutionCircuitBreakerConfiguration;
 import io.questdb.griffin.engine.table.parquet.ParquetCompression;
 import io.questdb.griffin.engine.table.parquet.ParquetVersion;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.Chars;
 import io.questdb.std.Files;
 import io.questdb.std.FilesFacade;
@@ -51,6 +52,7 @@ import io.questdb.std.datetime.DateLocale;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import io.questdb.std.datetime.millitime.DateFormatUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.LongSupplier;
 
@@ -63,6 +65,8 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
     private final long databaseIdLo;
     private final LongSupplier importIDSupplier = () -> getRandom().nextPositiveLong();
     private final CharSequence legacyCheckpointRoot;
+    private final CharSequenceHashSet lowPriorityUsers = new CharSequenceHashSet();
+    private final CharSequenceHashSet ngramIndexColumns = new CharSequenceHashSet();
     private final String root;
     private final DefaultTelemetryConfiguration telemetryConfiguration = new DefaultTelemetryConfiguration();
     private final TextConfiguration textConfiguration;
@@ -151,6 +155,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return circuitBreakerConfiguration;
     }
 
+    @Override
+    public int getColumnBufferCacheGhostCapacity() {
+        return 4096;
+    }
+
+    @Override
+    public int getColumnBufferCacheRecentPartitionCount() {
+        return 1;
+    }
+
+    @Override
+    public long getColumnBufferCacheSize() {
+        return 0;
+    }
+
     @Override
     public int getColumnCastModelPoolCapacity() {
         return 32;
@@ -161,6 +180,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1024;
     }
 
+    @Override
+    public int getColumnMmapPopulatePartitionCount() {
+        return 0;
+    }
+
     @Override
     public int getColumnPurgeQueueCapacity() {
         return 64;
@@ -191,6 +215,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return CommitMode.NOSYNC;
     }
 
+    @Override
+    public long getCommitSyncInterval() {
+        return 0;
+    }
+
     @Override
     public @NotNull CharSequence getConfRoot() {
         return confRoot;
@@ -411,6 +440,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean getLogSqlQueryPageFaults() {
+        return false;
+    }
+
     @Override
     public boolean getLogSqlQueryProgressExe() {
         return true;
@@ -461,6 +495,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 509;
     }
 
+    @Override
+    public long getNgramIndexBackfillRowLimit() {
+        return 1_000_000;
+    }
+
+    @Override
+    public @NotNull CharSequenceHashSet getNgramIndexColumns() {
+        return ngramIndexColumns;
+    }
+
+    @Override
+    public int getNgramIndexValueBlockSize() {
+        return 256;
+    }
+
     @Override
     public int getO3CallbackQueueCapacity() {
         return 1024;
@@ -542,6 +591,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 100000;
     }
 
+    @Override
+    public int getPartitionChangeLogCapacity() {
+        return 64;
+    }
+
     @Override
     public int getPartitionEncoderParquetCompressionCodec() {
         return ParquetCompression.COMPRESSION_UNCOMPRESSED;
@@ -699,6 +753,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 32;
     }
 
+    @Override
+    public long getSqlDirectIoScanBufferLimit() {
+        return 256 * Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public int getSqlDirectIoScanRecentPartitionCount() {
+        return 1;
+    }
+
+    @Override
+    public long getSqlDirectIoScanThreshold() {
+        return 0;
+    }
+
     @Override
     public int getSqlDistinctTimestampKeyCapacity() {
         return 256;
@@ -794,6 +863,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 2048;
     }
 
+    @Override
+    public CharSequenceHashSet getSqlLowPriorityUsers() {
+        return lowPriorityUsers;
+    }
+
     @Override
     public int getSqlMapMaxPages() {
         return 1024;
@@ -829,6 +903,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 1_000;
     }
 
+    @Override
+    public int getSqlParallelLowPriorityQueryLimit() {
+        return 2;
+    }
+
+    @Override
+    public int getSqlParallelLowPriorityQueueShare() {
+        return 25;
+    }
+
     @Override
     public int getSqlParallelWorkStealingThreshold() {
         return 16;
@@ -994,6 +1078,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 20;
     }
 
+    @Override
+    public int getWalApplyPartitionParallelism() {
+        return 0;
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return 1000L;
@@ -1044,6 +1133,31 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 3;
     }
 
+    @Override
+    public long getWalReplicaPollInterval() {
+        return 100;
+    }
+
+    @Override
+    public @Nullable CharSequence getWalReplicaSourceRoot() {
+        return null;
+    }
+
+    @Override
+    public long getWalSegmentCompressionMinLagTxnCount() {
+        return 100;
+    }
+
+    @Override
+    public long getWalSegmentCompressionMinSize() {
+        return 16 * Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public int getWalSegmentCompressionQueueCapacity() {
+        return 64;
+    }
+
     @Override
     public long getWalSegmentRolloverRowCount() {
         return 200000;
@@ -1054,6 +1168,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 0;  // watermark level disabled.
     }
 
+    @Override
+    public long getWalSequencerGroupCommitWindow() {
+        return 0;
+    }
+
     @Override
     public int getWalTxnNotificationQueueCapacity() {
         return 4096;
@@ -1118,6 +1237,21 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isColumnMmapHugePagesEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isColumnMmapScanAdviceEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isCommitSyncParallelEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isDevModeEnabled() {
         return false;
@@ -1143,6 +1277,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return false;
     }
 
+    @Override
+    public boolean isPageFrameNumaAware() {
+        return false;
+    }
+
     @Override
     public boolean isParallelIndexingEnabled() {
         return true;
@@ -1183,6 +1322,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlReadYourWritesEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSymbolTableSharedCacheEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return true;
@@ -1193,6 +1342,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isWalSegmentCompressionEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isWalSequencerGroupCommitEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.IntList;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8String;
+
+/**
+ * Trigram index over VARCHAR and STRING columns. The index is a partition-level bitmap index,
+ * maintained by {@link BitmapIndexWriter}, where keys are hashed trigrams of the column value
+ * and values are row ids. VARCHAR trigrams are taken over UTF-8 bytes, STRING trigrams over
+ * UTF-16 chars, and in both cases ASCII letters are folded to lower case.
+ * <p>
+ * A value that contains a substring contains all of its trigrams, so intersecting row lists of
+ * substring keys yields a superset of the rows matching LIKE '%substring%'. The candidate rows
+ * still have to be checked against the filter because of hash collisions.
+ * <p>
+ * Max value stored in the key file is the last indexed row. The index covers rows up to and
+ * including the max value, rows after it have to be scanned.
+ */
+public final class NgramIndexUtils {
+    public static final int KEY_BITS = 12;
+    public static final int KEY_COUNT = 1 << KEY_BITS;
+    public static final int MAX_NEEDLE_KEYS = 8;
+    public static final int NGRAM_SIZE = 3;
+    private static final String INDEX_NAME_SUFFIX = ".ng";
+
+    private NgramIndexUtils() {
+    }
+
+    /**
+     * Adds distinct keys of the literal trigrams to the list. When the search is case-insensitive,
+     * trigrams with non-ASCII characters are skipped since the index folds case of ASCII letters only.
+     * Keys are thinned out evenly when there are more than {@link #MAX_NEEDLE_KEYS} of them.
+     *
+     * @param literal         substring every matching value must contain
+     * @param varchar         true for VARCHAR columns, false for STRING columns
+     * @param caseInsensitive true for ILIKE
+     * @param keys            list to add keys to
+     */
+    public static void collectNeedleKeys(CharSequence literal, boolean varchar, boolean caseInsensitive, IntList keys) {
+        if (varchar) {
+            final Utf8String utf8 = new Utf8String(literal);
+            for (int i = 0, n = utf8.size() - NGRAM_SIZE + 1; i < n; i++) {
+                final int c0 = utf8.byteAt(i) & 0xff;
+                final int c1 = utf8.byteAt(i + 1) & 0xff;
+                final int c2 = utf8.byteAt(i + 2) & 0xff;
+                addNeedleKey(c0, c1, c2, caseInsensitive, keys);
+            }
+        } else {
+            for (int i = 0, n = literal.length() - NGRAM_SIZE + 1; i < n; i++) {
+                addNeedleKey(literal.charAt(i), literal.charAt(i + 1), literal.charAt(i + 2), caseInsensitive, keys);
+            }
+        }
+
+        final int count = keys.size();
+        if (count > MAX_NEEDLE_KEYS) {
+            // keep keys spread across the literal, the first and the last key included
+            for (int i = 0; i < MAX_NEEDLE_KEYS; i++) {
+                keys.setQuick(i, keys.getQuick((int) ((long) i * (count - 1) / (MAX_NEEDLE_KEYS - 1))));
+            }
+            keys.setPos(MAX_NEEDLE_KEYS);
+        }
+    }
+
+    public static CharSequence indexName(StringSink sink, CharSequence columnName) {
+        sink.clear();
+        sink.put(columnName).put(INDEX_NAME_SUFFIX);
+        return sink;
+    }
+
+    public static boolean isIndexed(CairoConfiguration configuration, StringSink sink, CharSequence tableName, CharSequence columnName) {
+        if (configuration.getNgramIndexColumns().size() == 0) {
+            return false;
+        }
+        sink.clear();
+        for (int i = 0, n = tableName.length(); i < n; i++) {
+            sink.put(Character.toLowerCase(tableName.charAt(i)));
+        }
+        sink.put('.');
+        for (int i = 0, n = columnName.length(); i < n; i++) {
+            sink.put(Character.toLowerCase(columnName.charAt(i)));
+        }
+        return configuration.getNgramIndexColumns().contains(sink);
+    }
+
+    public static int key(int c0, int c1, int c2) {
+        final int h = ((fold(c0) * 31) + fold(c1)) * 31 + fold(c2);
+        return (h * 0x9E3779B1) >>> (32 - KEY_BITS);
+    }
+
+    /**
+     * Collects distinct keys of the value trigrams.
+     */
+    public static void valueKeys(Utf8Sequence value, long[] seen, IntList keys) {
+        keys.clear();
+        for (int i = 0, n = value.size() - NGRAM_SIZE + 1; i < n; i++) {
+            addValueKey(key(value.byteAt(i) & 0xff, value.byteAt(i + 1) & 0xff, value.byteAt(i + 2) & 0xff), seen, keys);
+        }
+        clearSeen(seen, keys);
+    }
+
+    /**
+     * Collects distinct keys of the value trigrams.
+     */
+    public static void valueKeys(CharSequence value, long[] seen, IntList keys) {
+        keys.clear();
+        for (int i = 0, n = value.length() - NGRAM_SIZE + 1; i < n; i++) {
+            addValueKey(key(value.charAt(i), value.charAt(i + 1), value.charAt(i + 2)), seen, keys);
+        }
+        clearSeen(seen, keys);
+    }
+
+    private static void addNeedleKey(int c0, int c1, int c2, boolean caseInsensitive, IntList keys) {
+        if (caseInsensitive && (c0 > 0x7f || c1 > 0x7f || c2 > 0x7f)) {
+            return;
+        }
+        final int key = key(c0, c1, c2);
+        if (keys.indexOf(key, 0, keys.size()) < 0) {
+            keys.add(key);
+        }
+    }
+
+    private static void addValueKey(int key, long[] seen, IntList keys) {
+        final int word = key >>> 6;
+        final long bit = 1L << key;
+        if ((seen[word] & bit) == 0) {
+            seen[word] |= bit;
+            keys.add(key);
+        }
+    }
+
+    private static void clearSeen(long[] seen, IntList keys) {
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            seen[keys.getQuick(i) >>> 6] = 0;
+        }
+    }
+
+    private static int fold(int c) {
+        return c >= 'A' && c <= 'Z' ? c + 32 : c;
+    }
+}
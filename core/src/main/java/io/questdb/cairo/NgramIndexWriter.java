@@ -0,0 +1,297 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.IntList;
+import io.questdb.std.LongIntHashMap;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+
+/**
+ * Maintains trigram indexes of a single VARCHAR or STRING column across table partitions,
+ * see {@link NgramIndexUtils} for the index layout. Index of a partition is brought up to date
+ * incrementally: rows after the last indexed row are read from the column files and appended to
+ * the index, after which the index declares them as covered.
+ * <p>
+ * Covered row counts of partitions are cached, so that unchanged partitions are skipped without
+ * opening index files. Index of the most recently updated partition, which usually is the last one,
+ * is kept open between updates.
+ */
+public class NgramIndexWriter implements QuietCloseable {
+    private static final int CACHE_COLUMN_NAME_TXN = 1;
+    private static final int CACHE_COVERED_ROWS = 2;
+    private static final int CACHE_ENTRY_SIZE = 3;
+    private static final int CACHE_PARTITION_NAME_TXN = 0;
+    private static final Log LOG = LogFactory.getLog(NgramIndexWriter.class);
+    private final MemoryCMR auxMem = Vm.getCMRInstance();
+    private final LongList cache = new LongList();
+    private final LongIntHashMap cacheIndex = new LongIntHashMap();
+    private final StringSink columnName = new StringSink();
+    private final CairoConfiguration configuration;
+    private final MemoryCMR dataMem = Vm.getCMRInstance();
+    private final FilesFacade ff;
+    private final BitmapIndexWriter indexWriter;
+    private final IntList keys = new IntList();
+    private final StringSink nameSink = new StringSink();
+    private final Path path = new Path();
+    private final long[] seen = new long[NgramIndexUtils.KEY_COUNT / Long.SIZE];
+    private long openColumnNameTxn = -2;
+    private long openPartitionNameTxn = -2;
+    private long openPartitionTimestamp = Long.MIN_VALUE;
+
+    public NgramIndexWriter(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.ff = configuration.getFilesFacade();
+        this.indexWriter = new BitmapIndexWriter(configuration);
+    }
+
+    public void clear() {
+        closeIndex();
+        cache.clear();
+        cacheIndex.clear();
+    }
+
+    @Override
+    public void close() {
+        closeIndex();
+        Misc.free(auxMem);
+        Misc.free(dataMem);
+        Misc.free(path);
+    }
+
+    /**
+     * Removes index files of a partition, used when partition rows are removed in place.
+     */
+    public void removeIndex(TableToken tableToken, int partitionBy, long partitionTimestamp, long partitionNameTxn, CharSequence columnName, long columnNameTxn) {
+        clear();
+        setPartitionPath(tableToken, partitionBy, partitionTimestamp, partitionNameTxn);
+        final int plen = path.size();
+        final CharSequence indexName = NgramIndexUtils.indexName(nameSink, columnName);
+        ff.removeQuiet(BitmapIndexUtils.keyFileName(path, indexName, columnNameTxn));
+        ff.removeQuiet(BitmapIndexUtils.valueFileName(path.trimTo(plen), indexName, columnNameTxn));
+        path.trimTo(plen);
+    }
+
+    /**
+     * Indexes rows of all partitions that are not covered by the partition indexes yet. Rows of the last
+     * partition are always indexed in full, rows of other partitions are indexed up to the given row budget,
+     * remaining rows are picked up by subsequent updates.
+     *
+     * @return remaining row budget
+     */
+    public long update(
+            TableToken tableToken,
+            int partitionBy,
+            TxReader txReader,
+            ColumnVersionReader columnVersionReader,
+            int columnIndex,
+            CharSequence columnName,
+            int columnType,
+            long rowBudget
+    ) {
+        if (!Chars.equals(columnName, this.columnName)) {
+            // column has been renamed or a different column has been added under the same index
+            clear();
+            this.columnName.clear();
+            this.columnName.put(columnName);
+        }
+
+        final int partitionCount = txReader.getPartitionCount();
+        if (partitionCount == 0) {
+            return rowBudget;
+        }
+
+        final int lastPartitionIndex = partitionCount - 1;
+        updatePartition(tableToken, partitionBy, txReader, columnVersionReader, lastPartitionIndex, txReader.getTransientRowCount(), columnIndex, columnType, Long.MAX_VALUE);
+        for (int i = 0; i < lastPartitionIndex && rowBudget > 0; i++) {
+            rowBudget -= updatePartition(tableToken, partitionBy, txReader, columnVersionReader, i, txReader.getPartitionSize(i), columnIndex, columnType, rowBudget);
+        }
+        return rowBudget;
+    }
+
+    private void addKeys(long row) {
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            indexWriter.add(keys.getQuick(i), row);
+        }
+    }
+
+    private void closeIndex() {
+        Misc.free(indexWriter);
+        openPartitionTimestamp = Long.MIN_VALUE;
+        openPartitionNameTxn = -2;
+        openColumnNameTxn = -2;
+    }
+
+    private long indexRows(int columnType, long columnTop, long rowLo, long rowHi) {
+        // rows above column top are nulls, they have no trigrams
+        final long fileRowLo = Math.max(rowLo, columnTop) - columnTop;
+        final long fileRowHi = rowHi - columnTop;
+        if (fileRowLo < fileRowHi) {
+            final int plen = path.size();
+            try {
+                final ColumnTypeDriver driver = ColumnType.getDriver(columnType);
+                auxMem.of(ff, TableUtils.iFile(path.trimTo(plen), columnName, openColumnNameTxn), ff.getMapPageSize(), driver.getAuxVectorSize(fileRowHi), MemoryTag.MMAP_INDEX_WRITER);
+                final long dataSize = driver.getDataVectorSizeAt(auxMem.addressOf(0), fileRowHi - 1);
+                dataMem.of(ff, TableUtils.dFile(path.trimTo(plen), columnName, openColumnNameTxn), ff.getMapPageSize(), dataSize, MemoryTag.MMAP_INDEX_WRITER);
+
+                if (ColumnType.isVarchar(columnType)) {
+                    for (long row = fileRowLo; row < fileRowHi; row++) {
+                        final Utf8Sequence value = VarcharTypeDriver.getSplitValue(auxMem, dataMem, row, 1);
+                        if (value != null) {
+                            NgramIndexUtils.valueKeys(value, seen, keys);
+                            addKeys(row + columnTop);
+                        }
+                    }
+                } else {
+                    for (long row = fileRowLo; row < fileRowHi; row++) {
+                        final CharSequence value = dataMem.getStrA(auxMem.getLong(row << 3));
+                        if (value != null) {
+                            NgramIndexUtils.valueKeys(value, seen, keys);
+                            addKeys(row + columnTop);
+                        }
+                    }
+                }
+            } finally {
+                path.trimTo(plen);
+                Misc.free(auxMem);
+                Misc.free(dataMem);
+            }
+        }
+        // rows must be in the index files before they are declared covered
+        Unsafe.getUnsafe().storeFence();
+        indexWriter.setMaxValue(rowHi - 1);
+        indexWriter.commit();
+        return rowHi - rowLo;
+    }
+
+    private long openIndex(TableToken tableToken, int partitionBy, long partitionTimestamp, long partitionNameTxn, long columnNameTxn, long rowCount) {
+        setPartitionPath(tableToken, partitionBy, partitionTimestamp, partitionNameTxn);
+        if (openPartitionTimestamp != partitionTimestamp
+                || openPartitionNameTxn != partitionNameTxn
+                || openColumnNameTxn != columnNameTxn
+                || !indexWriter.isOpen()) {
+            closeIndex();
+            final int plen = path.size();
+            final CharSequence indexName = NgramIndexUtils.indexName(nameSink, columnName);
+            final boolean exists = ff.exists(BitmapIndexUtils.keyFileName(path, indexName, columnNameTxn));
+            path.trimTo(plen);
+            indexWriter.of(path, indexName, columnNameTxn, exists ? 0 : configuration.getNgramIndexValueBlockSize());
+            openPartitionTimestamp = partitionTimestamp;
+            openPartitionNameTxn = partitionNameTxn;
+            openColumnNameTxn = columnNameTxn;
+        }
+
+        final long coveredRows = indexWriter.getMaxValue() + 1;
+        if (coveredRows > rowCount) {
+            // uncommitted rows have been indexed before rollback, the index has to follow
+            if (rowCount == 0) {
+                indexWriter.truncate();
+            } else {
+                indexWriter.rollbackValues(rowCount - 1);
+            }
+            return rowCount;
+        }
+        return coveredRows;
+    }
+
+    private void setPartitionPath(TableToken tableToken, int partitionBy, long partitionTimestamp, long partitionNameTxn) {
+        TableUtils.setPathTable(path, configuration, tableToken);
+        TableUtils.setPathForPartition(path, partitionBy, partitionTimestamp, partitionNameTxn);
+    }
+
+    private long updatePartition(
+            TableToken tableToken,
+            int partitionBy,
+            TxReader txReader,
+            ColumnVersionReader columnVersionReader,
+            int partitionIndex,
+            long rowCount,
+            int columnIndex,
+            int columnType,
+            long rowLimit
+    ) {
+        if (txReader.isPartitionParquet(partitionIndex)) {
+            return 0;
+        }
+
+        final long partitionTimestamp = txReader.getPartitionTimestampByIndex(partitionIndex);
+        final long columnTop = columnVersionReader.getColumnTop(partitionTimestamp, columnIndex);
+        if (columnTop < 0 || columnTop >= rowCount) {
+            // column does not exist in the partition or has no values yet
+            return 0;
+        }
+
+        final long partitionNameTxn = txReader.getPartitionNameTxn(partitionIndex);
+        final long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, columnIndex);
+        int cacheOffset = cacheIndex.get(partitionTimestamp);
+        if (cacheOffset > -1
+                && cache.getQuick(cacheOffset + CACHE_PARTITION_NAME_TXN) == partitionNameTxn
+                && cache.getQuick(cacheOffset + CACHE_COLUMN_NAME_TXN) == columnNameTxn
+                && cache.getQuick(cacheOffset + CACHE_COVERED_ROWS) == rowCount) {
+            return 0;
+        }
+
+        if (cacheOffset < 0) {
+            cacheOffset = cache.size();
+            cache.setPos(cacheOffset + CACHE_ENTRY_SIZE);
+            cacheIndex.put(partitionTimestamp, cacheOffset);
+        }
+        // invalidate the entry until the partition index is updated
+        cache.setQuick(cacheOffset + CACHE_COVERED_ROWS, -1);
+
+        try {
+            final long coveredRows = openIndex(tableToken, partitionBy, partitionTimestamp, partitionNameTxn, columnNameTxn, rowCount);
+            final long rowHi = rowCount - coveredRows > rowLimit ? coveredRows + rowLimit : rowCount;
+            final long indexedRows = coveredRows < rowHi ? indexRows(columnType, columnTop, coveredRows, rowHi) : 0;
+            cache.setQuick(cacheOffset + CACHE_PARTITION_NAME_TXN, partitionNameTxn);
+            cache.setQuick(cacheOffset + CACHE_COLUMN_NAME_TXN, columnNameTxn);
+            cache.setQuick(cacheOffset + CACHE_COVERED_ROWS, rowHi);
+            return indexedRows;
+        } catch (CairoException e) {
+            // the index is optional, queries fall back to scanning rows that are not covered
+            LOG.error().$("could not update ngram index [table=").utf8(tableToken.getTableName())
+                    .$(", column=").utf8(columnName)
+                    .$(", partition=").$ts(partitionTimestamp)
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+            closeIndex();
+            return 0;
+        }
+    }
+}
@@ -484,6 +484,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
                     ff.madvise(dstVarAddr, dstDataSize, Files.POSIX_MADV_RANDOM);
                 }
             }
+            tableWriter.addO3RewrittenBytes(dstAuxSize + dstDataSize);
 
             if (mergeType != O3_BLOCK_NONE) {
                 partCount++;
@@ -2394,6 +2395,7 @@ public class O3OpenColumnJob extends AbstractQueueConsumerJob<O3OpenColumnTask>
             if (!mixedIOFlag) {
                 ff.madvise(dstFixAddr, dstFixSize, Files.POSIX_MADV_RANDOM);
             }
+            tableWriter.addO3RewrittenBytes(dstFixSize);
 
             // when prefix is "data" we need to reduce it by "srcDataTop"
             if (prefixType == O3_BLOCK_DATA) {
@@ -41,6 +41,8 @@ import io.questdb.mp.AbstractQueueConsumerJob;
 import io.questdb.mp.Sequence;
 import io.questdb.std.*;
 import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8SplitString;
+import io.questdb.std.str.Utf8s;
 import io.questdb.tasks.O3OpenColumnTask;
 import io.questdb.tasks.O3PartitionTask;
 
@@ -1205,6 +1207,156 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
         }
     }
 
+    // Checks whether the deduplicated merge reproduces the existing partition rows, i.e. every
+    // O3 row replaces an existing row holding the same values in all columns.
+    private static boolean isDedupMergeNoop(
+            long timestampMergeIndexAddr,
+            long timestampMergeIndexCount,
+            long srcTimestampAddr,
+            long mergeDataLo,
+            long mergeDataHi,
+            long partitionTimestamp,
+            long srcNameTxn,
+            ReadOnlyObjList<? extends MemoryCR> oooColumns,
+            TableWriter tableWriter,
+            Path tableRootPath
+    ) {
+        boolean hasO3Rows = false;
+        for (long k = 0; k < timestampMergeIndexCount; k++) {
+            final long entryAddr = timestampMergeIndexAddr + k * TIMESTAMP_MERGE_ENTRY_BYTES;
+            final long row = Unsafe.getUnsafe().getLong(entryAddr + Long.BYTES);
+            if (row < 0) {
+                // existing row, must stay in place
+                if ((row & ~(1L << 63)) != mergeDataLo + k) {
+                    return false;
+                }
+            } else {
+                if (Unsafe.getUnsafe().getLong(entryAddr) != Unsafe.getUnsafe().getLong(srcTimestampAddr + (mergeDataLo + k) * Long.BYTES)) {
+                    return false;
+                }
+                hasO3Rows = true;
+            }
+        }
+        if (!hasO3Rows) {
+            return true;
+        }
+
+        final TableRecordMetadata metadata = tableWriter.getMetadata();
+        final int tableRootPathLen = tableRootPath.size();
+        final FilesFacade ff = tableWriter.getFilesFacade();
+        final int mapMemTag = MemoryTag.MMAP_O3;
+        Utf8SplitString srcView = null;
+        Utf8SplitString o3View = null;
+
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType < 0 || i == metadata.getTimestampIndex()) {
+                continue;
+            }
+            final long columnTop = tableWriter.getColumnTop(partitionTimestamp, i, mergeDataHi + 1);
+            if (columnTop > mergeDataLo) {
+                // existing values are nulls implied by column top, leave them to the merge
+                return false;
+            }
+
+            final CharSequence columnName = metadata.getColumnName(i);
+            final long columnNameTxn = tableWriter.getColumnNameTxn(partitionTimestamp, i);
+            final long rows = mergeDataHi + 1 - columnTop;
+            TableUtils.setSinkForPartition(tableRootPath.trimTo(tableRootPathLen).slash(), tableWriter.getPartitionBy(), partitionTimestamp, srcNameTxn);
+
+            if (!ColumnType.isVarSize(columnType)) {
+                final int columnSize = ColumnType.sizeOf(columnType);
+                final long fixMapSize = rows * columnSize;
+                final long fd = TableUtils.openRO(ff, TableUtils.dFile(tableRootPath, columnName, columnNameTxn), LOG);
+                long fixMappedAddress = 0;
+                try {
+                    fixMappedAddress = TableUtils.mapAppendColumnBuffer(ff, fd, 0, fixMapSize, false, mapMemTag);
+                    final long srcAddr = Math.abs(fixMappedAddress) - columnTop * columnSize;
+                    final long o3Addr = oooColumns.get(getPrimaryColumnIndex(i)).addressOf(0);
+                    for (long k = 0; k < timestampMergeIndexCount; k++) {
+                        final long row = Unsafe.getUnsafe().getLong(timestampMergeIndexAddr + k * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+                        if (row > -1 && !Vect.memeq(srcAddr + (mergeDataLo + k) * columnSize, o3Addr + row * columnSize, columnSize)) {
+                            return false;
+                        }
+                    }
+                } finally {
+                    if (fixMappedAddress != 0) {
+                        TableUtils.mapAppendColumnBufferRelease(ff, fixMappedAddress, 0, fixMapSize, mapMemTag);
+                    }
+                    ff.close(fd);
+                }
+            } else {
+                final ColumnTypeDriver driver = ColumnType.getDriver(columnType);
+                final long auxMapSize = driver.getAuxVectorSize(rows);
+                final long auxFd = TableUtils.openRO(ff, TableUtils.iFile(tableRootPath, columnName, columnNameTxn), LOG);
+                long auxMappedAddress = 0;
+                long varFd = -1;
+                long varMappedAddress = 0;
+                long varMapSize = 0;
+                try {
+                    auxMappedAddress = TableUtils.mapAppendColumnBuffer(ff, auxFd, 0, auxMapSize, false, mapMemTag);
+                    varMapSize = driver.getDataVectorSizeAt(auxMappedAddress, rows - 1);
+                    if (varMapSize > 0) {
+                        TableUtils.setSinkForPartition(tableRootPath.trimTo(tableRootPathLen).slash(), tableWriter.getPartitionBy(), partitionTimestamp, srcNameTxn);
+                        varFd = TableUtils.openRO(ff, TableUtils.dFile(tableRootPath, columnName, columnNameTxn), LOG);
+                        varMappedAddress = TableUtils.mapAppendColumnBuffer(ff, varFd, 0, varMapSize, false, mapMemTag);
+                    }
+
+                    final long srcAuxAddr = auxMappedAddress - columnTop * driver.auxRowsToBytes(1);
+                    final long o3VarAddr = oooColumns.get(getPrimaryColumnIndex(i)).addressOf(0);
+                    final long o3AuxAddr = oooColumns.get(getSecondaryColumnIndex(i)).addressOf(0);
+                    if (ColumnType.isVarchar(columnType)) {
+                        if (srcView == null) {
+                            srcView = new Utf8SplitString();
+                            o3View = new Utf8SplitString();
+                        }
+                        for (long k = 0; k < timestampMergeIndexCount; k++) {
+                            final long row = Unsafe.getUnsafe().getLong(timestampMergeIndexAddr + k * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+                            if (row > -1 && !Utf8s.equals(
+                                    VarcharTypeDriver.getSplitValue(srcAuxAddr, Long.MAX_VALUE, varMappedAddress, Long.MAX_VALUE, mergeDataLo + k, srcView),
+                                    VarcharTypeDriver.getSplitValue(o3AuxAddr, Long.MAX_VALUE, o3VarAddr, Long.MAX_VALUE, row, o3View)
+                            )) {
+                                return false;
+                            }
+                        }
+                    } else {
+                        for (long k = 0; k < timestampMergeIndexCount; k++) {
+                            final long row = Unsafe.getUnsafe().getLong(timestampMergeIndexAddr + k * TIMESTAMP_MERGE_ENTRY_BYTES + Long.BYTES);
+                            if (row > -1) {
+                                final long srcValueAddr = varMappedAddress + driver.getDataVectorOffset(srcAuxAddr, mergeDataLo + k);
+                                final long o3ValueAddr = o3VarAddr + driver.getDataVectorOffset(o3AuxAddr, row);
+                                final long srcValueSize = getVarValueSize(columnType, srcValueAddr);
+                                if (srcValueSize != getVarValueSize(columnType, o3ValueAddr) || !Vect.memeq(srcValueAddr, o3ValueAddr, srcValueSize)) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    if (varMappedAddress != 0) {
+                        TableUtils.mapAppendColumnBufferRelease(ff, varMappedAddress, 0, varMapSize, mapMemTag);
+                    }
+                    if (varFd > -1) {
+                        ff.close(varFd);
+                    }
+                    if (auxMappedAddress != 0) {
+                        TableUtils.mapAppendColumnBufferRelease(ff, auxMappedAddress, 0, auxMapSize, mapMemTag);
+                    }
+                    ff.close(auxFd);
+                }
+            }
+        }
+        return true;
+    }
+
+    // size of a STRING or BINARY value including its length header
+    private static long getVarValueSize(int columnType, long valueAddr) {
+        if (ColumnType.isString(columnType)) {
+            return Integer.BYTES + 2L * Math.max(0, Unsafe.getUnsafe().getInt(valueAddr));
+        }
+        return Long.BYTES + Math.max(0, Unsafe.getUnsafe().getLong(valueAddr));
+    }
+
     private static void mergeRowGroup(
             PartitionDescriptor partitionDescriptor,
             PartitionUpdater partitionUpdater,
@@ -1671,18 +1823,16 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
     ) {
         // Number of rows to insert from the O3 segment into this partition.
         final long srcOooBatchRowSize = srcOooHi - srcOooLo + 1;
-
-        tableWriter.addPhysicallyWrittenRows(
-                isOpenColumnModeForAppend(openColumnMode)
-                        ? srcOooBatchRowSize
-                        : o3SplitPartitionSize == 0 ? srcDataNewPartitionSize : o3SplitPartitionSize
-        );
+        final long physicallyWrittenRows = isOpenColumnModeForAppend(openColumnMode)
+                ? srcOooBatchRowSize
+                : o3SplitPartitionSize == 0 ? srcDataNewPartitionSize : o3SplitPartitionSize;
 
         LOG.debug().$("partition [ts=").$ts(oooTimestampLo).I$();
 
         final long timestampMergeIndexAddr;
         final long timestampMergeIndexSize;
         final TableRecordMetadata metadata = tableWriter.getMetadata();
+        boolean mergeIsNoop = false;
         if (mergeType == O3_BLOCK_MERGE) {
             long mergeRowCount = mergeOOOHi - mergeOOOLo + 1 + mergeDataHi - mergeDataLo + 1;
             long tempIndexSize = mergeRowCount * TIMESTAMP_MERGE_ENTRY_BYTES;
@@ -1725,7 +1875,26 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
                     timestampMergeIndexSize = dedupRows * TIMESTAMP_MERGE_ENTRY_BYTES;
                     timestampMergeIndexAddr = Unsafe.realloc(tempIndexAddr, tempIndexSize, timestampMergeIndexSize, MemoryTag.NATIVE_O3);
                     final long duplicateCount = mergeRowCount - dedupRows;
-                    if (duplicateCount > 0) {
+                    final long mergeO3RowCount = mergeOOOHi - mergeOOOLo + 1;
+                    // When all O3 rows of the partition are in the merge range and the merge does not
+                    // grow the partition, the rows may be a resent batch that matches existing data
+                    mergeIsNoop = duplicateCount == mergeO3RowCount
+                            && prefixType != O3_BLOCK_O3
+                            && suffixType != O3_BLOCK_O3
+                            && isDedupMergeNoop(
+                            timestampMergeIndexAddr,
+                            dedupRows,
+                            srcTimestampAddr,
+                            mergeDataLo,
+                            mergeDataHi,
+                            oldPartitionTimestamp,
+                            srcNameTxn,
+                            oooColumns,
+                            tableWriter,
+                            tempTablePath
+                    );
+                    tableWriter.addDedupRows(mergeO3RowCount, Math.min(duplicateCount, mergeO3RowCount), mergeIsNoop);
+                    if (duplicateCount > 0 && !mergeIsNoop) {
                         // we could be de-duping a split partition
                         // in which case only its size will be affected
                         if (o3SplitPartitionSize > 0) {
@@ -1767,6 +1936,27 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
             timestampMergeIndexSize = 0;
         }
 
+        if (mergeIsNoop) {
+            skipDedupMerge(
+                    pathToTable,
+                    partitionTimestamp,
+                    oldPartitionTimestamp,
+                    txn,
+                    openColumnMode,
+                    oooTimestampMin,
+                    srcTimestampFd,
+                    srcTimestampAddr,
+                    srcTimestampSize,
+                    timestampMergeIndexAddr,
+                    timestampMergeIndexSize,
+                    srcDataOldPartitionSize,
+                    partitionUpdateSinkAddr,
+                    tableWriter
+            );
+            return;
+        }
+        tableWriter.addPhysicallyWrittenRows(physicallyWrittenRows);
+
         final int columnCount = metadata.getColumnCount();
         columnCounter.set(compressColumnCount(metadata));
         int columnsInFlight = columnCount;
@@ -1947,6 +2137,55 @@ public class O3PartitionJob extends AbstractQueueConsumerJob<O3PartitionTask> {
         }
     }
 
+    // Completes the partition task without rewriting the partition, its size stays the same.
+    private static void skipDedupMerge(
+            Path pathToTable,
+            long partitionTimestamp,
+            long oldPartitionTimestamp,
+            long txn,
+            int openColumnMode,
+            long oooTimestampMin,
+            long srcTimestampFd,
+            long srcTimestampAddr,
+            long srcTimestampSize,
+            long timestampMergeIndexAddr,
+            long timestampMergeIndexSize,
+            long srcDataOldPartitionSize,
+            long partitionUpdateSinkAddr,
+            TableWriter tableWriter
+    ) {
+        LOG.info().$("dedup merge skipped, all rows are duplicates [table=").utf8(tableWriter.getTableToken().getTableName())
+                .$(", partition=").$ts(oldPartitionTimestamp)
+                .$(", rows=").$(srcDataOldPartitionSize)
+                .I$();
+        final FilesFacade ff = tableWriter.getFilesFacade();
+        try {
+            if (openColumnMode == OPEN_LAST_PARTITION_FOR_MERGE || openColumnMode == OPEN_MID_PARTITION_FOR_MERGE) {
+                // remove the empty directory created for the partition copy
+                final Path path = Path.getThreadLocal2(pathToTable);
+                TableUtils.setPathForPartition(path, tableWriter.getPartitionBy(), partitionTimestamp, txn);
+                ff.rmdir(path.slash());
+            }
+            O3Utils.unmap(ff, srcTimestampAddr, srcTimestampSize);
+            O3Utils.close(ff, srcTimestampFd);
+        } finally {
+            O3CopyJob.o3NotifyPartitionUpdate(
+                    tableWriter,
+                    partitionUpdateSinkAddr,
+                    oooTimestampMin,
+                    oldPartitionTimestamp,
+                    srcDataOldPartitionSize,
+                    srcDataOldPartitionSize,
+                    0,
+                    false
+            );
+            if (timestampMergeIndexAddr != 0) {
+                Unsafe.free(timestampMergeIndexAddr, timestampMergeIndexSize, MemoryTag.NATIVE_O3);
+            }
+            tableWriter.o3CountDownDoneLatch();
+        }
+    }
+
     @Override
     protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
         processPartition(queue.get(cursor), cursor, subSeq);
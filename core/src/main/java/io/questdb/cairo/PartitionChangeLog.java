@@ -0,0 +1,108 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+
+/**
+ * In-memory log of partitions changed by the most recent transactions of a table. The table writer
+ * records partitions whose row count, name txn or column versions change and publishes them with each
+ * committed txn. Table readers use the log to reconcile only the changed partitions on reload rather
+ * than re-validating every open partition.
+ * <p>
+ * The log does not list partitions appended at the end of the partition table, readers add those
+ * by comparing partition counts. Transactions that insert or remove partitions in the middle of the
+ * partition table are published as "full", so that readers fall back to full reconciliation. Readers
+ * also fall back when any txn in the range they reload is missing from the log, e.g. when it was
+ * committed by a different writer instance or evicted from the ring.
+ * <p>
+ * Marking and publishing is done by the writer thread only, collecting is thread-safe.
+ */
+public class PartitionChangeLog {
+    private final int capacity;
+    private final boolean[] fullChanges;
+    private final ObjList<LongList> partitions;
+    private final LongList pendingPartitions = new LongList();
+    private final int tableId;
+    private final long[] txns;
+    private boolean pendingFullChange;
+
+    public PartitionChangeLog(int tableId, int capacity) {
+        this.tableId = tableId;
+        this.capacity = capacity;
+        this.txns = new long[capacity];
+        this.fullChanges = new boolean[capacity];
+        this.partitions = new ObjList<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            txns[i] = -1;
+            partitions.add(new LongList());
+        }
+    }
+
+    /**
+     * Collects timestamps of partitions changed by transactions in (fromTxn, toTxn] range.
+     *
+     * @return false when the log does not cover the whole range or any of the transactions
+     * changed the partition table structurally, sink content is undefined in that case
+     */
+    public synchronized boolean collect(long fromTxn, long toTxn, LongList sink) {
+        if (fromTxn < 0 || toTxn - fromTxn > capacity) {
+            return false;
+        }
+        for (long txn = fromTxn + 1; txn <= toTxn; txn++) {
+            final int slot = (int) (txn % capacity);
+            if (txns[slot] != txn || fullChanges[slot]) {
+                return false;
+            }
+            sink.add(partitions.getQuick(slot));
+        }
+        return true;
+    }
+
+    public int getTableId() {
+        return tableId;
+    }
+
+    public void markFullChange() {
+        pendingFullChange = true;
+    }
+
+    public void markPartitionChanged(long partitionTimestamp) {
+        pendingPartitions.add(partitionTimestamp);
+    }
+
+    public synchronized void publish(long txn) {
+        final int slot = (int) (txn % capacity);
+        txns[slot] = txn;
+        fullChanges[slot] = pendingFullChange;
+        final LongList slotPartitions = partitions.getQuick(slot);
+        slotPartitions.clear();
+        slotPartitions.add(pendingPartitions);
+        pendingPartitions.clear();
+        pendingFullChange = false;
+    }
+}
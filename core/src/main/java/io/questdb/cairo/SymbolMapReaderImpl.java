@@ -36,6 +36,7 @@ import io.questdb.std.*;
 import io.questdb.std.str.DirectString;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 import java.io.Closeable;
@@ -57,6 +58,8 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     private int maxHash;
     private long maxOffset;
     private boolean nullValue;
+    private SymbolTableCache sharedCache;
+    private SymbolTableCache.Values sharedValues;
     private int symbolCapacity;
     private int symbolCount;
 
@@ -72,6 +75,7 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         Misc.free(indexReader);
         Misc.free(charMem);
         this.cache.clear();
+        releaseSharedValues();
         long fd = this.offsetMem.getFd();
         Misc.free(offsetMem);
         Misc.free(path);
@@ -143,6 +147,24 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     }
 
     public void of(CairoConfiguration configuration, Path path, CharSequence columnName, long columnNameTxn, int symbolCount) {
+        of(configuration, path, columnName, columnNameTxn, symbolCount, null, null, 0);
+    }
+
+    /**
+     * Opens symbol map and, when shared cache is provided, resolves cached values through
+     * the cache entry shared by all readers of the same column version.
+     */
+    public void of(
+            CairoConfiguration configuration,
+            Path path,
+            CharSequence columnName,
+            long columnNameTxn,
+            int symbolCount,
+            @Nullable SymbolTableCache sharedCache,
+            @Nullable TableToken tableToken,
+            long truncateVersion
+    ) {
+        releaseSharedValues();
         FilesFacade ff = configuration.getFilesFacade();
         this.configuration = configuration;
         this.path.of(path);
@@ -191,7 +213,12 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             // we use 4 cells to compensate for occasionally unlucky hash distribution
             this.maxHash = Math.max(Numbers.ceilPow2(symbolCapacity / 2) - 1, 1);
             if (cached) {
-                this.cache.setPos(symbolCapacity);
+                if (sharedCache != null && tableToken != null) {
+                    this.sharedValues = sharedCache.acquire(tableToken, columnName, columnNameTxn, truncateVersion);
+                    this.sharedCache = sharedCache;
+                } else {
+                    this.cache.setPos(symbolCapacity);
+                }
             }
             this.cache.clear();
             LOG.debug().$("open [columnName=").$(path.trimTo(plen).concat(columnName).$()).$(", fd=").$(this.offsetMem.getFd()).$(", capacity=").$(symbolCapacity).$(']').$();
@@ -215,6 +242,9 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
             this.charMem.extend(this.offsetMem.getLong(maxOffset));
         } else if (symbolCount < this.symbolCount) {
             cache.remove(symbolCount + 1, this.symbolCount);
+            if (sharedValues != null) {
+                sharedValues.truncate(symbolCount);
+            }
             this.symbolCount = symbolCount;
         }
         // Refresh index reader to avoid memory remapping on keyOf() calls.
@@ -244,7 +274,7 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
     }
 
     private CharSequence cachedValue(int key) {
-        final String symbol = cache.getQuiet(key);
+        final String symbol = sharedValues != null ? sharedValues.get(key) : cache.getQuiet(key);
         return symbol != null ? symbol : fetchAndCache(key);
     }
 
@@ -252,10 +282,22 @@ public class SymbolMapReaderImpl implements Closeable, SymbolMapReader {
         final CharSequence cs = uncachedValue(key);
         assert cs != null;
         final String symbol = Chars.toString(cs);
-        cache.extendAndSet(key, symbol);
+        if (sharedValues != null) {
+            sharedValues.put(key, symbol);
+        } else {
+            cache.extendAndSet(key, symbol);
+        }
         return symbol;
     }
 
+    private void releaseSharedValues() {
+        if (sharedValues != null) {
+            sharedCache.release(sharedValues);
+            sharedValues = null;
+            sharedCache = null;
+        }
+    }
+
     private CharSequence uncachedValue(int key) {
         return charMem.getStrA(offsetMem.getLong(SymbolMapWriter.keyToOffset(key)));
     }
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.Numbers;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide cache of symbol values shared by table readers. Readers of the same symbol column
+ * version acquire the same {@link Values} instance and fill it lazily as they resolve keys, so
+ * symbol values are materialized on heap once regardless of the number of pooled readers, and
+ * a reader that refreshes or reopens finds values resolved by other readers.
+ * <p>
+ * Entries are identified by table, column name, column name txn and table truncate version.
+ * Symbol files are append-only within this identity, so a key always maps to the same value.
+ * Entries are reference counted and evicted when the last reader releases them.
+ */
+public class SymbolTableCache {
+    private static final int MIN_CAPACITY = 64;
+    private final CharSequenceObjHashMap<Values> entries = new CharSequenceObjHashMap<>();
+    private final StringSink keySink = new StringSink();
+
+    public synchronized Values acquire(TableToken tableToken, CharSequence columnName, long columnNameTxn, long truncateVersion) {
+        keySink.clear();
+        keySink.put(tableToken.getDirName()).put('|').put(tableToken.getTableId())
+                .put('|').put(columnName)
+                .put('|').put(columnNameTxn)
+                .put('|').put(truncateVersion);
+        final int index = entries.keyIndex(keySink);
+        Values values;
+        if (index < 0) {
+            values = entries.valueAt(index);
+        } else {
+            final String key = Chars.toString(keySink);
+            values = new Values(key);
+            entries.putAt(index, key, values);
+        }
+        values.refCount++;
+        return values;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @TestOnly
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized void release(Values values) {
+        if (--values.refCount == 0) {
+            entries.remove(values.key);
+        }
+    }
+
+    /**
+     * Symbol values of a column version. Methods are safe to call concurrently: slots are written
+     * with immutable strings, so a racing reader either sees the value or null, in which case it
+     * reads the value from the symbol files. A write racing with growth of the array may be lost,
+     * which only means that the value is read from the files again.
+     */
+    public static class Values {
+        private final String key;
+        private int refCount;
+        private volatile String[] values = new String[MIN_CAPACITY];
+
+        private Values(String key) {
+            this.key = key;
+        }
+
+        public String get(int symbolKey) {
+            final String[] values = this.values;
+            return symbolKey < values.length ? values[symbolKey] : null;
+        }
+
+        public void put(int symbolKey, String value) {
+            String[] values = this.values;
+            if (symbolKey >= values.length) {
+                values = grow(symbolKey);
+            }
+            values[symbolKey] = value;
+        }
+
+        /**
+         * Forgets values of keys at and above the given symbol count.
+         */
+        public void truncate(int symbolCount) {
+            final String[] values = this.values;
+            if (symbolCount < values.length) {
+                Arrays.fill(values, symbolCount, values.length, null);
+            }
+        }
+
+        private synchronized String[] grow(int symbolKey) {
+            String[] values = this.values;
+            if (symbolKey >= values.length) {
+                values = Arrays.copyOf(values, Numbers.ceilPow2(symbolKey + 1));
+                this.values = values;
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reader-visible view of a table's partition list and row counts, assembled from
+ * {@link MetadataCache} and the table's <code>_txn</code> file only. Unlike
+ * {@link TableReader}, it does not open column files or use reader pool slots, so
+ * catalogue queries can describe many tables cheaply.
+ * <p>
+ * Instances are reusable; use {@link CairoEngine#getTablePartitionSnapshot(TableToken, TablePartitionSnapshot)}
+ * to (re)load a snapshot for a table. Data is consistent as of the transaction
+ * returned by {@link #getTxn()} and is not refreshed until the snapshot is loaded again.
+ */
+public class TablePartitionSnapshot implements QuietCloseable {
+    private final CairoConfiguration configuration;
+    private final Path path = new Path();
+    private final TxReader txReader;
+    private int partitionBy = PartitionBy.NONE;
+    private TableToken tableToken;
+    private CharSequence timestampColumnName;
+
+    public TablePartitionSnapshot(CairoConfiguration configuration) {
+        this.configuration = configuration;
+        this.txReader = new TxReader(configuration.getFilesFacade());
+    }
+
+    public void clear() {
+        txReader.clear();
+        tableToken = null;
+        timestampColumnName = null;
+        partitionBy = PartitionBy.NONE;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(txReader);
+        Misc.free(path);
+    }
+
+    public long getLastPartitionTimestamp() {
+        return txReader.getLastPartitionTimestamp();
+    }
+
+    public long getMaxTimestamp() {
+        return txReader.getMaxTimestamp();
+    }
+
+    public long getMinTimestamp() {
+        return txReader.getMinTimestamp();
+    }
+
+    public int getPartitionBy() {
+        return partitionBy;
+    }
+
+    public int getPartitionCount() {
+        return txReader.getPartitionCount();
+    }
+
+    public long getPartitionNameTxn(int partitionIndex) {
+        return txReader.getPartitionNameTxn(partitionIndex);
+    }
+
+    public long getPartitionParquetFileSize(int partitionIndex) {
+        return txReader.getPartitionParquetFileSize(partitionIndex);
+    }
+
+    public long getPartitionRowCount(int partitionIndex) {
+        return txReader.getPartitionSize(partitionIndex);
+    }
+
+    public long getPartitionTimestamp(int partitionIndex) {
+        return txReader.getPartitionTimestampByIndex(partitionIndex);
+    }
+
+    public long getRowCount() {
+        return txReader.getRowCount();
+    }
+
+    public TableToken getTableToken() {
+        return tableToken;
+    }
+
+    /**
+     * @return designated timestamp column name or null when the table has no designated timestamp
+     */
+    public CharSequence getTimestampColumnName() {
+        return timestampColumnName;
+    }
+
+    public long getTxn() {
+        return txReader.getTxn();
+    }
+
+    public boolean isPartitionParquet(int partitionIndex) {
+        return txReader.isPartitionParquet(partitionIndex);
+    }
+
+    public boolean isPartitionReadOnly(int partitionIndex) {
+        return txReader.isPartitionReadOnly(partitionIndex);
+    }
+
+    void of(@NotNull TableToken tableToken, @NotNull CairoTable table) {
+        clear();
+        this.tableToken = tableToken;
+        this.partitionBy = table.getPartitionBy();
+        this.timestampColumnName = table.getTimestampIndex() > -1 ? table.getTimestampName() : null;
+        try {
+            path.of(configuration.getRoot()).concat(tableToken);
+            TableUtils.setTxReaderPath(txReader, path, partitionBy);
+            TableUtils.safeReadTxn(txReader, configuration.getMillisecondClock(), configuration.getSpinLockTimeout());
+        } catch (Throwable th) {
+            clear();
+            throw th;
+        }
+    }
+}
@@ -54,8 +54,11 @@ public class TableReader implements Closeable, SymbolTableSource {
     private static final int PARTITIONS_SLOT_OFFSET_SIZE = 1;
     private static final int PARTITIONS_SLOT_SIZE = 4;
     private static final int PARTITIONS_SLOT_SIZE_MSB = Numbers.msb(PARTITIONS_SLOT_SIZE);
+    private final LongList changedPartitions = new LongList();
     private final MillisecondClock clock;
     private final ColumnVersionReader columnVersionReader;
+    private final boolean columnMmapHugePages;
+    private final int columnMmapPopulatePartitionCount;
     private final CairoConfiguration configuration;
     private final int dbRootSize;
     private final FilesFacade ff;
@@ -64,10 +67,12 @@ public class TableReader implements Closeable, SymbolTableSource {
     private final TableReaderMetadata metadata;
     private final LongList openPartitionInfo;
     private final int partitionBy;
+    private final PartitionChangeLog partitionChangeLog;
     private final PartitionOverwriteControl partitionOverwriteControl;
     private final Path path;
     private final int rootLen;
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
+    private final SymbolTableCache symbolTableCache;
     private final MemoryMR todoMem = Vm.getCMRInstance();
     private final TxReader txFile;
     private final TxnScoreboard txnScoreboard;
@@ -78,6 +83,8 @@ public class TableReader implements Closeable, SymbolTableSource {
     private ObjList<MemoryCMR> columns;
     private int openPartitionCount;
     private int partitionCount;
+    // txn the open partition state was last reconciled to, -1 when unknown
+    private long reconciledTxn = -1;
     private long rowCount;
     private TableToken tableToken;
     private long tempMem8b = Unsafe.malloc(8, MemoryTag.NATIVE_TABLE_READER);
@@ -96,10 +103,25 @@ public class TableReader implements Closeable, SymbolTableSource {
             TableToken tableToken,
             @Nullable MessageBus messageBus,
             @Nullable PartitionOverwriteControl partitionOverwriteControl
+    ) {
+        this(configuration, tableToken, messageBus, partitionOverwriteControl, null, null);
+    }
+
+    public TableReader(
+            CairoConfiguration configuration,
+            TableToken tableToken,
+            @Nullable MessageBus messageBus,
+            @Nullable PartitionOverwriteControl partitionOverwriteControl,
+            @Nullable SymbolTableCache symbolTableCache,
+            @Nullable PartitionChangeLog partitionChangeLog
     ) {
         this.configuration = configuration;
+        this.symbolTableCache = symbolTableCache;
+        this.partitionChangeLog = partitionChangeLog;
         this.clock = configuration.getMillisecondClock();
         this.maxOpenPartitions = configuration.getInactiveReaderMaxOpenPartitions();
+        this.columnMmapHugePages = configuration.isColumnMmapHugePagesEnabled();
+        this.columnMmapPopulatePartitionCount = configuration.getColumnMmapPopulatePartitionCount();
         this.ff = configuration.getFilesFacade();
         this.tableToken = tableToken;
         this.messageBus = messageBus;
@@ -154,6 +176,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             }
             columnTops = new LongList(capacity / 2);
             columnTops.setPos(capacity / 2);
+            reconciledTxn = txn;
 
             this.partitionOverwriteControl = partitionOverwriteControl;
             if (partitionOverwriteControl != null) {
@@ -169,6 +192,26 @@ public class TableReader implements Closeable, SymbolTableSource {
         return 2 + base + index * 2;
     }
 
+    /**
+     * Advises the kernel of the expected access pattern over the column files of an open partition.
+     * The advice is applied to the whole mapping and stays in effect until the next call.
+     *
+     * @param partitionIndex index of the open partition
+     * @param columnIndexes  reader column indexes
+     * @param advice         one of the Files.POSIX_MADV_* constants
+     */
+    public void adviseColumns(int partitionIndex, IntList columnIndexes, int advice) {
+        if (advice < 0) {
+            return;
+        }
+        final int base = getColumnBase(partitionIndex);
+        for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+            final int primaryIndex = getPrimaryColumnIndex(base, columnIndexes.getQuick(i));
+            adviseMemory(columns.getQuick(primaryIndex), advice);
+            adviseMemory(columns.getQuick(primaryIndex + 1), advice);
+        }
+    }
+
     @TestOnly
     public int calculateOpenPartitionCount() {
         int openPartitionCount = 0;
@@ -407,6 +450,31 @@ public class TableReader implements Closeable, SymbolTableSource {
         return getSymbolMapReader(columnIndex).newSymbolTableView();
     }
 
+    /**
+     * Opens column file of an open partition for reading bypassing OS page cache,
+     * see {@link Files#openRODirect(io.questdb.std.str.LPSZ)}.
+     *
+     * @param partitionIndex partition index
+     * @param columnIndex    column index
+     * @param aux            true to open aux vector file of var-size column
+     * @return file descriptor or -1 on error
+     */
+    public long openColumnDirect(int partitionIndex, int columnIndex, boolean aux) {
+        final long partitionTimestamp = txFile.getPartitionTimestampByIndex(partitionIndex);
+        final long columnNameTxn = columnVersionReader.getColumnNameTxn(partitionTimestamp, metadata.getWriterIndex(columnIndex));
+        final CharSequence columnName = metadata.getColumnName(columnIndex);
+        try {
+            pathGenPartitioned(partitionIndex);
+            return ff.openRODirect(
+                    aux
+                            ? TableUtils.iFile(path, columnName, columnNameTxn)
+                            : TableUtils.dFile(path, columnName, columnNameTxn)
+            );
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     /**
      * Opens given partition for reading.
      *
@@ -444,27 +512,10 @@ public class TableReader implements Closeable, SymbolTableSource {
                 partitionIndex++;
             } else {
                 // Refresh partition
-                final long newPartitionSize = txFile.getPartitionSize(txPartitionIndex);
-                final long txPartitionNameTxn = txFile.getPartitionNameTxn(partitionIndex);
-                final long openPartitionSize = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE);
-                final long openPartitionNameTxn = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN);
-                final long openPartitionColumnVersion = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION);
-
                 if (!forceTruncate) {
-                    if (openPartitionNameTxn == txPartitionNameTxn && openPartitionColumnVersion == columnVersionReader.getMaxPartitionVersion(txPartTs)) {
-                        if (openPartitionSize != newPartitionSize) {
-                            if (openPartitionSize > -1L) {
-                                reloadGrowPartition(partitionIndex, newPartitionSize, txPartitionNameTxn);
-                                openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, newPartitionSize);
-                                LOG.debug().$("updated partition size [partition=").$(openPartitionTimestamp).I$();
-                            }
-                            changed = true;
-                        }
-                    } else {
-                        prepareForLazyOpen(partitionIndex);
-                        changed = true;
-                    }
-                } else if (openPartitionSize > -1L && newPartitionSize > -1L) { // Don't force re-open if not yet opened
+                    changed |= reconcilePartition(partitionIndex, txPartitionIndex);
+                } else if (openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE) > -1L && txFile.getPartitionSize(txPartitionIndex) > -1L) {
+                    // Don't force re-open if not yet opened
                     prepareForLazyOpen(partitionIndex);
                 }
                 txPartitionIndex++;
@@ -502,6 +553,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             // partition reload will apply truncate if necessary
             // applyTruncate for non-partitioned tables only
             reconcileOpenPartitions(txPartitionVersion, txColumnVersion, txTruncateVersion);
+            reconciledTxn = txn;
 
             // Save transaction details which impact the reloading. Do not rely on txReader, it can be reloaded outside this method.
             txPartitionVersion = txFile.getPartitionTableVersion();
@@ -512,6 +564,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             // assert DebugUtils.reconcileColumnTops(PARTITIONS_SLOT_SIZE, openPartitionInfo, columnVersionReader, this);
             return true;
         } catch (Throwable e) {
+            reconciledTxn = -1;
             releaseTxn();
             throw e;
         }
@@ -545,6 +598,30 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private void adviseMemory(@Nullable MemoryCMR mem, int advice) {
+        if (mem != null) {
+            final long size = mem.size();
+            if (size > 0) {
+                ff.madvise(mem.getPageAddress(0), size, advice);
+            }
+        }
+    }
+
+    private void adviseNewMapping(int partitionIndex, MemoryCMR mem) {
+        final long size = mem.size();
+        if (size > 0) {
+            final long address = mem.getPageAddress(0);
+            // both advice values are Linux-only and are -1 elsewhere
+            if (columnMmapHugePages && Files.MADV_HUGEPAGE > -1) {
+                ff.madvise(address, size, Files.MADV_HUGEPAGE);
+            }
+            if (Files.POSIX_MADV_WILLNEED > -1 && partitionIndex >= partitionCount - columnMmapPopulatePartitionCount) {
+                // start read-ahead of recent partitions right away rather than fault them in page by page
+                ff.madvise(address, size, Files.POSIX_MADV_WILLNEED);
+            }
+        }
+    }
+
     private boolean acquireTxn() {
         if (!txnAcquired) {
             try {
@@ -837,13 +914,14 @@ public class TableReader implements Closeable, SymbolTableSource {
         // symbol column index is the index of symbol column in dense array of symbol columns, e.g.
         // if table has only one symbol columns, the symbolColumnIndex is 0 regardless of column position
         // in the metadata.
-        return new SymbolMapReaderImpl(
-                configuration,
-                path,
+        final SymbolMapReaderImpl reader = new SymbolMapReaderImpl();
+        openSymbolMapReader(
+                reader,
                 metadata.getColumnName(columnIndex),
                 columnVersionReader.getDefaultColumnNameTxn(metadata.getWriterIndex(columnIndex)),
                 txFile.getSymbolValueCount(symbolColumnIndex)
         );
+        return reader;
     }
 
     private TableReaderMetadata openMetaFile() {
@@ -859,6 +937,7 @@ public class TableReader implements Closeable, SymbolTableSource {
 
     @NotNull
     private MemoryCMR openOrCreateMemory(
+            int partitionIndex,
             Path path,
             ObjList<MemoryCMR> columns,
             int primaryIndex,
@@ -871,6 +950,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             mem = Vm.getCMRInstance(ff, path.$(), columnSize, MemoryTag.MMAP_TABLE_READER);
             columns.setQuick(primaryIndex, mem);
         }
+        adviseNewMapping(partitionIndex, mem);
         return mem;
     }
 
@@ -951,6 +1031,10 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private void openSymbolMapReader(SymbolMapReaderImpl reader, CharSequence columnName, long columnNameTxn, int symbolCount) {
+        reader.of(configuration, path, columnName, columnNameTxn, symbolCount, symbolTableCache, tableToken, txFile.getTruncateVersion());
+    }
+
     private void openSymbolMaps() {
         final int columnCount = metadata.getColumnCount();
         // ensure symbolMapReaders has capacity for columnCount entries
@@ -1011,6 +1095,39 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    // Reconciles only the partitions the writer reported as changed since the last reconciled txn
+    // and appends new partitions. Returns false when the change log does not cover all the
+    // transactions or some of them inserted or removed partitions, in which case all open
+    // partitions have to be reconciled.
+    private boolean reconcileChangedPartitions() {
+        if (partitionChangeLog == null || partitionCount == 0) {
+            return false;
+        }
+        final int txPartitionCount = txFile.getPartitionCount();
+        final int lastPartitionIndex = partitionCount - 1;
+        if (lastPartitionIndex >= txPartitionCount
+                || openPartitionInfo.getQuick(lastPartitionIndex * PARTITIONS_SLOT_SIZE) != txFile.getPartitionTimestampByIndex(lastPartitionIndex)) {
+            return false;
+        }
+        changedPartitions.clear();
+        if (!partitionChangeLog.collect(reconciledTxn, txn, changedPartitions)) {
+            return false;
+        }
+        for (int i = 0, n = changedPartitions.size(); i < n; i++) {
+            final int partitionIndex = txFile.findAttachedPartitionIndexByLoTimestamp(changedPartitions.getQuick(i));
+            if (partitionIndex > -1 && partitionIndex < lastPartitionIndex) {
+                reconcilePartition(partitionIndex, partitionIndex);
+            }
+        }
+        // size of the last partition is not logged
+        reconcilePartition(lastPartitionIndex, lastPartitionIndex);
+        for (int partitionIndex = lastPartitionIndex + 1; partitionIndex < txPartitionCount; partitionIndex++) {
+            insertPartition(partitionIndex, txFile.getPartitionTimestampByIndex(partitionIndex));
+        }
+        reloadSymbolMapCounts();
+        return true;
+    }
+
     private void reconcileOpenPartitions(long prevPartitionVersion, long prevColumnVersion, long prevTruncateVersion) {
         // Reconcile partition full or partial will only update row count of last partition and append new partitions
         boolean truncateHappened = txFile.getTruncateVersion() != prevTruncateVersion;
@@ -1047,9 +1164,36 @@ public class TableReader implements Closeable, SymbolTableSource {
             }
             return;
         }
+        if (!truncateHappened && reconcileChangedPartitions()) {
+            return;
+        }
         reconcileOpenPartitionsFrom(0, truncateHappened);
     }
 
+    private boolean reconcilePartition(int partitionIndex, int txPartitionIndex) {
+        final int offset = partitionIndex * PARTITIONS_SLOT_SIZE;
+        final long openPartitionTimestamp = openPartitionInfo.getQuick(offset);
+        final long newPartitionSize = txFile.getPartitionSize(txPartitionIndex);
+        final long txPartitionNameTxn = txFile.getPartitionNameTxn(partitionIndex);
+        final long openPartitionSize = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE);
+        final long openPartitionNameTxn = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN);
+        final long openPartitionColumnVersion = openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION);
+
+        if (openPartitionNameTxn == txPartitionNameTxn && openPartitionColumnVersion == columnVersionReader.getMaxPartitionVersion(openPartitionTimestamp)) {
+            if (openPartitionSize != newPartitionSize) {
+                if (openPartitionSize > -1L) {
+                    reloadGrowPartition(partitionIndex, newPartitionSize, txPartitionNameTxn);
+                    openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, newPartitionSize);
+                    LOG.debug().$("updated partition size [partition=").$(openPartitionTimestamp).I$();
+                }
+                return true;
+            }
+            return false;
+        }
+        prepareForLazyOpen(partitionIndex);
+        return true;
+    }
+
     private boolean releaseTxn() {
         if (txnAcquired) {
             long readerCount = txnScoreboard.releaseTxn(txn);
@@ -1067,7 +1211,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                     final int writerColumnIndex = metadata.getWriterIndex(columnIndex);
                     final long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(writerColumnIndex);
                     int symbolCount = txFile.getSymbolValueCount(metadata.getDenseSymbolIndex(columnIndex));
-                    ((SymbolMapReaderImpl) symbolMapReader).of(configuration, path, metadata.getColumnName(columnIndex), columnNameTxn, symbolCount);
+                    openSymbolMapReader((SymbolMapReaderImpl) symbolMapReader, metadata.getColumnName(columnIndex), columnNameTxn, symbolCount);
                 }
             }
         }
@@ -1113,17 +1257,18 @@ public class TableReader implements Closeable, SymbolTableSource {
                     long auxSize = columnTypeDriver.getAuxVectorSize(columnRowCount);
                     TableUtils.iFile(path.trimTo(plen), name, columnTxn);
                     MemoryCMR auxMem = columns.getQuick(secondaryIndex);
-                    auxMem = openOrCreateMemory(path, columns, secondaryIndex, auxMem, auxSize);
+                    auxMem = openOrCreateMemory(partitionIndex, path, columns, secondaryIndex, auxMem, auxSize);
                     long dataSize = columnTypeDriver.getDataVectorSizeAt(auxMem.addressOf(0), columnRowCount - 1);
                     if (dataSize < columnTypeDriver.getDataVectorMinEntrySize() || dataSize >= (1L << 40)) {
                         LOG.critical().$("Invalid var len column size [column=").$(name).$(", size=").$(dataSize).$(", path=").$(path).I$();
                         throw CairoException.critical(0).put("Invalid column size [column=").put(path).put(", size=").put(dataSize).put(']');
                     }
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
-                    openOrCreateMemory(path, columns, primaryIndex, dataMem, dataSize);
+                    openOrCreateMemory(partitionIndex, path, columns, primaryIndex, dataMem, dataSize);
                 } else {
                     TableUtils.dFile(path.trimTo(plen), name, columnTxn);
                     openOrCreateMemory(
+                            partitionIndex,
                             path,
                             columns,
                             primaryIndex,
@@ -1286,12 +1431,14 @@ public class TableReader implements Closeable, SymbolTableSource {
             final long columnNameTxn = columnVersionReader.getDefaultColumnNameTxn(writerColumnIndex);
             String columnName = metadata.getColumnName(columnIndex);
             if (!(reader instanceof SymbolMapReaderImpl)) {
-                reader = new SymbolMapReaderImpl(configuration, path, columnName, columnNameTxn, 0);
+                final SymbolMapReaderImpl symbolMapReader = new SymbolMapReaderImpl();
+                openSymbolMapReader(symbolMapReader, columnName, columnNameTxn, 0);
+                reader = symbolMapReader;
             } else {
                 SymbolMapReaderImpl symbolMapReader = (SymbolMapReaderImpl) reader;
                 // Fully reopen the symbol map reader only when necessary
                 if (symbolMapReader.needsReopen(columnNameTxn)) {
-                    ((SymbolMapReaderImpl) reader).of(configuration, path, columnName, columnNameTxn, 0);
+                    openSymbolMapReader(symbolMapReader, columnName, columnNameTxn, 0);
                 }
             }
         } else {
@@ -30,7 +30,11 @@ import io.questdb.cairo.frm.Frame;
 import io.questdb.cairo.frm.FrameAlgebra;
 import io.questdb.cairo.frm.file.FrameFactory;
 import io.questdb.cairo.sql.AsyncWriterCommand;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.cairo.sql.TableMetadata;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
 import io.questdb.cairo.vm.NullMapWriter;
@@ -53,6 +57,7 @@ import io.questdb.cairo.wal.O3JobParallelismRegulator;
 import io.questdb.cairo.wal.SymbolMapDiff;
 import io.questdb.cairo.wal.SymbolMapDiffCursor;
 import io.questdb.cairo.wal.SymbolMapDiffEntry;
+import io.questdb.cairo.wal.WalSegmentCompressionUtils;
 import io.questdb.cairo.wal.WalTxnDetails;
 import io.questdb.cairo.wal.WriterRowUtils;
 import io.questdb.cairo.wal.seq.TableSequencer;
@@ -110,6 +115,7 @@ import io.questdb.std.str.DirectUtf8Sequence;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.Sinkable;
+import io.questdb.std.str.StringSink;
 import io.questdb.std.str.Utf8Sequence;
 import io.questdb.std.str.Utf8String;
 import io.questdb.std.str.Utf8StringSink;
@@ -187,6 +193,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final long dataAppendPageSize;
     private final DdlListener ddlListener;
     private final MemoryMAR ddlMem;
+    private final AtomicLong dedupDuplicateRowsSinceLastCommit = new AtomicLong();
+    private final AtomicLong dedupRowsSinceLastCommit = new AtomicLong();
+    private final AtomicLong dedupSkippedMergesSinceLastCommit = new AtomicLong();
     private final ObjList<ColumnIndexer> denseIndexers = new ObjList<>();
     private final ObjList<MapWriter> denseSymbolMapWriters;
     private final int detachedMkDirMode;
@@ -209,6 +218,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final Metrics metrics;
     private final boolean mixedIOFlag;
     private final int mkDirMode;
+    private final StringSink ngramIndexSink = new StringSink();
+    private final ObjList<NgramIndexWriter> ngramIndexWriters = new ObjList<>();
     private final ObjList<Runnable> nullSetters;
     private final ObjectPool<O3Basket> o3BasketPool = new ObjectPool<>(O3Basket::new, 64);
     private final ObjectPool<O3MutableAtomicInteger> o3ColumnCounters = new ObjectPool<>(O3MutableAtomicInteger::new, 64);
@@ -219,8 +230,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final long[] o3LastTimestampSpreads;
     private final AtomicLong o3PartitionUpdRemaining = new AtomicLong();
     private final boolean o3QuickSortEnabled;
+    private final AtomicLong o3RewrittenBytesSinceLastCommit = new AtomicLong();
     private final Path other;
     private final MessageBus ownMessageBus;
+    private final IntList pageFrameSymbolKeys = new IntList();
     private final boolean parallelIndexerEnabled;
     private final int partitionBy;
     private final DateFormat partitionDirFmt;
@@ -259,6 +272,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private long avgRecordSize;
     private boolean avoidIndexOnCommit = false;
     private int columnCount;
+    // true when commits made within the sync interval haven't been flushed synchronously yet
+    private boolean commitSyncPending;
     private long committedMasterRef;
     private ConvertOperatorImpl convertOperatorImpl;
     private DedupColumnCommitAddresses dedupColumnCommitAddresses;
@@ -266,6 +281,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private boolean distressed = false;
     private DropIndexOperator dropIndexOperator;
     private int indexCount;
+    private long lastCommitSyncTimestamp;
     private int lastErrno;
     private boolean lastOpenPartitionIsReadOnly;
     private long lastOpenPartitionTs = Long.MIN_VALUE;
@@ -283,8 +299,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private long o3EffectiveLag = 0L;
     private boolean o3InError = false;
     private long o3MasterRef = -1L;
+    private int o3MaxInflightPartitionsSinceLastCommit;
     private ObjList<MemoryCARW> o3MemColumns1;
     private ObjList<MemoryCARW> o3MemColumns2;
+    private int o3MergedPartitionsSinceLastCommit;
     private ObjList<Runnable> o3NullSetters1;
     private ObjList<Runnable> o3NullSetters2;
     private PagedDirectLongList o3PartitionUpdateSink;
@@ -298,12 +316,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private PurgingOperator purgingOperator;
     private boolean removeDirOnCancelRow = true;
     private int rowAction = ROW_ACTION_OPEN_PARTITION;
+    private long squashedTxnCountSinceLastCommit;
     private TableToken tableToken;
     private final ColumnTaskHandler cthAppendWalColumnToLastPartition = this::cthAppendWalColumnToLastPartition;
     private final ColumnTaskHandler cthO3SortColumnRef = this::cthO3SortColumn;
     private final ColumnTaskHandler cthMergeWalColumnWithLag = this::cthMergeWalColumnWithLag;
     private final ColumnTaskHandler cthO3MoveUncommittedRef = this::cthO3MoveUncommitted;
     private final ColumnTaskHandler cthO3ShiftColumnInLagToTopRef = this::cthO3ShiftColumnInLagToTop;
+    private final ColumnTaskHandler cthSyncColumnRef = this::cthSyncColumn;
     private long tempMem16b = Unsafe.malloc(16, MemoryTag.NATIVE_TABLE_WRITER);
     private LongConsumer timestampSetter;
     private long todoTxn;
@@ -369,6 +389,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             this.txnScoreboard = new TxnScoreboard(ff, configuration.getTxnScoreboardEntryCount()).ofRW(path.trimTo(pathSize));
             path.trimTo(pathSize);
             this.columnVersionWriter = openColumnVersionFile(configuration, path, pathSize, partitionBy != PartitionBy.NONE);
+            if (cairoEngine != null) {
+                final PartitionChangeLog partitionChangeLog = cairoEngine.getPartitionChangeLog(tableToken);
+                txWriter.setPartitionChangeLog(partitionChangeLog);
+                columnVersionWriter.setPartitionChangeLog(partitionChangeLog);
+            }
             this.o3ColumnOverrides = metadata.isWalEnabled() ? new ObjList<>() : null;
 
             if (metadata.isWalEnabled()) {
@@ -699,11 +724,106 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         LOG.info().$("ADDED index to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$("]' to ").$substr(pathRootSize, path).$();
     }
 
+    /**
+     * Records O3 rows merged into an existing partition of a deduplicated table.
+     *
+     * @param rows          number of O3 rows in the merge
+     * @param duplicateRows number of those rows that replaced existing rows
+     * @param mergeSkipped  true when the rows matched the existing ones and the partition was not rewritten
+     */
+    public void addDedupRows(long rows, long duplicateRows, boolean mergeSkipped) {
+        dedupRowsSinceLastCommit.addAndGet(rows);
+        dedupDuplicateRowsSinceLastCommit.addAndGet(duplicateRows);
+        if (mergeSkipped) {
+            dedupSkippedMergesSinceLastCommit.incrementAndGet();
+        }
+        metrics.tableWriter().addDedupRows(rows, duplicateRows, mergeSkipped);
+    }
+
+    public void addO3RewrittenBytes(long bytes) {
+        o3RewrittenBytesSinceLastCommit.addAndGet(bytes);
+    }
+
     public void addPhysicallyWrittenRows(long rows) {
         physicallyWrittenRowsSinceLastCommit.addAndGet(rows);
         metrics.tableWriter().addPhysicallyWrittenRows(rows);
     }
 
+    @Override
+    public boolean appendPageFrame(PageFrameMemory frameMemory, long rowCount, SymbolTableSource symbolTableSource) {
+        if (rowCount == 0) {
+            return true;
+        }
+        if (
+                frameMemory.getFrameFormat() != PageFrame.NATIVE_FORMAT
+                        || frameMemory.getColumnCount() != columnCount
+                        || rowAction == ROW_ACTION_O3
+                        || (masterRef & 1) != 0
+                        || hasO3()
+        ) {
+            return false;
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        if (timestampIndex < 0) {
+            appendPageFrameRows(frameMemory, 0, rowCount, symbolTableSource);
+            txWriter.append(rowCount);
+            return true;
+        }
+
+        // the frame is appended only when it's in order with the table, otherwise
+        // rows have to go through the O3 path
+        final long timestampAddr = frameMemory.getPageAddress(timestampIndex);
+        if (timestampAddr == 0) {
+            return false;
+        }
+        long prevTimestamp = Math.max(txWriter.getMaxTimestamp(), Timestamps.O3_MIN_TS);
+        for (long i = 0; i < rowCount; i++) {
+            final long timestamp = Unsafe.getUnsafe().getLong(timestampAddr + (i << 3));
+            if (timestamp < prevTimestamp) {
+                return false;
+            }
+            prevTimestamp = timestamp;
+        }
+
+        final boolean partitioned = PartitionBy.isPartitioned(partitionBy);
+        long lo = 0;
+        while (lo < rowCount) {
+            final long timestampLo = Unsafe.getUnsafe().getLong(timestampAddr + (lo << 3));
+            if (rowAction == ROW_ACTION_OPEN_PARTITION) {
+                if (txWriter.getMaxTimestamp() == Long.MIN_VALUE) {
+                    txWriter.setMinTimestamp(timestampLo);
+                    initLastPartition(txWriter.getPartitionTimestampByTimestamp(timestampLo));
+                }
+                rowAction = ROW_ACTION_SWITCH_PARTITION;
+            }
+
+            long hi = rowCount;
+            if (partitioned) {
+                if (timestampLo > partitionTimestampHi) {
+                    switchPartition(txWriter.getPartitionTimestampByTimestamp(timestampLo));
+                }
+                // rows of the frame that belong to the current partition
+                for (long i = lo + 1; i < rowCount; i++) {
+                    if (Unsafe.getUnsafe().getLong(timestampAddr + (i << 3)) > partitionTimestampHi) {
+                        hi = i;
+                        break;
+                    }
+                }
+            }
+
+            if (lastOpenPartitionIsReadOnly) {
+                noOpRowCount += hi - lo;
+            } else {
+                appendPageFrameRows(frameMemory, lo, hi, symbolTableSource);
+                txWriter.updateMaxTimestamp(Unsafe.getUnsafe().getLong(timestampAddr + ((hi - 1) << 3)));
+                txWriter.append(hi - lo);
+            }
+            lo = hi;
+        }
+        return true;
+    }
+
     public long apply(AbstractOperation operation, long seqTxn) {
         try {
             setSeqTxn(seqTxn);
@@ -1078,9 +1198,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     public void commitSeqTxn() {
         if (txWriter.inTransaction()) {
             metrics.tableWriter().incrementCommits();
-            syncColumns();
+            txWriter.commit(syncColumns(), denseSymbolMapWriters);
+        } else {
+            txWriter.commit(denseSymbolMapWriters);
         }
-        txWriter.commit(denseSymbolMapWriters);
     }
 
     public long commitWalTransaction(
@@ -1102,6 +1223,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
 
         physicallyWrittenRowsSinceLastCommit.set(0);
+        o3RewrittenBytesSinceLastCommit.set(0);
+        o3MergedPartitionsSinceLastCommit = 0;
+        o3MaxInflightPartitionsSinceLastCommit = 0;
+        resetDedupStats();
+        squashedTxnCountSinceLastCommit = 0;
         txWriter.beginPartitionSizeUpdate();
         long commitToTimestamp = walTxnDetails.getCommitToTimestamp(seqTxn);
 
@@ -1146,15 +1272,19 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             updateIndexes();
             columnVersionWriter.commit();
+            // All transactions accumulated in LAG since the last visible one are merged into
+            // the partitions by this single commit.
+            squashedTxnCountSinceLastCommit = seqTxn - txWriter.getSeqTxn();
             txWriter.setSeqTxn(seqTxn);
             txWriter.setLagTxnCount(0);
             txWriter.setLagOrdered(true);
 
-            syncColumns();
+            final int commitMode = syncColumns();
             txWriter.setColumnVersion(columnVersionWriter.getVersion());
-            txWriter.commit(denseSymbolMapWriters);
+            txWriter.commit(commitMode, denseSymbolMapWriters);
 
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.maxTimestamp, configuration.getO3LastPartitionMaxSplits());
+            updateNgramIndexes();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             committedMasterRef = masterRef;
@@ -1701,6 +1831,18 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return dataAppendPageSize;
     }
 
+    public long getDedupDuplicateRowsSinceLastCommit() {
+        return dedupDuplicateRowsSinceLastCommit.get();
+    }
+
+    public long getDedupRowsSinceLastCommit() {
+        return dedupRowsSinceLastCommit.get();
+    }
+
+    public long getDedupSkippedMergesSinceLastCommit() {
+        return dedupSkippedMergesSinceLastCommit.get();
+    }
+
     public DedupColumnCommitAddresses getDedupCommitAddresses() {
         return dedupColumnCommitAddresses;
     }
@@ -1742,6 +1884,26 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return txWriter.getMetadataVersion();
     }
 
+    /**
+     * Largest number of partitions merged concurrently by the O3 commits made since the
+     * last call to commit or {@link #commitWalTransaction(Path, boolean, long, long, long, long, SymbolMapDiffCursor, long, O3JobParallelismRegulator)}.
+     */
+    public int getO3MaxInflightPartitionsSinceLastCommit() {
+        return o3MaxInflightPartitionsSinceLastCommit;
+    }
+
+    /**
+     * Number of partitions written by the O3 commits made since the last call to commit or
+     * {@link #commitWalTransaction(Path, boolean, long, long, long, long, SymbolMapDiffCursor, long, O3JobParallelismRegulator)}.
+     */
+    public int getO3MergedPartitionsSinceLastCommit() {
+        return o3MergedPartitionsSinceLastCommit;
+    }
+
+    public long getO3RewrittenBytesSinceLastCommit() {
+        return o3RewrittenBytesSinceLastCommit.get();
+    }
+
     public long getO3RowCount() {
         return hasO3() ? getO3RowCount0() : 0L;
     }
@@ -1800,6 +1962,16 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return txWriter.getSeqTxn();
     }
 
+    /**
+     * Returns number of WAL transactions made visible by the last call to
+     * {@link #commitWalTransaction(Path, boolean, long, long, long, long, SymbolMapDiffCursor, long, O3JobParallelismRegulator)}
+     * which merged transaction LAG into the table partitions. Zero when the call only copied
+     * the transaction to LAG.
+     */
+    public long getSquashedTxnCountSinceLastCommit() {
+        return squashedTxnCountSinceLastCommit;
+    }
+
     public MemoryMA getStorageColumn(int index) {
         return columns.getQuick(index);
     }
@@ -1888,6 +2060,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return txWriter != null && (txWriter.inTransaction() || hasO3() || (columnVersionWriter != null && columnVersionWriter.hasChanges()));
     }
 
+    /**
+     * Returns true when, in SYNC commit mode with a sync interval, the last commits have
+     * only been scheduled to be flushed to disk.
+     */
+    public boolean isCommitSyncPending() {
+        return commitSyncPending;
+    }
+
     public boolean isDeduplicationEnabled() {
         int tsIndex = metadata.timestampIndex;
         return tsIndex > -1 && metadata.isDedupKey(tsIndex);
@@ -2064,7 +2244,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             boolean forceFullCommit = commitToTimestamp == WalTxnDetails.FORCE_FULL_COMMIT;
             final long maxLagRows = getWalMaxLagRows();
             final long walLagMaxTimestampBefore = txWriter.getLagMaxTimestamp();
-            mmapWalColumns(walPath, walSegmentId, timestampIndex, rowLo, rowHi);
+            mmapWalColumnsRestoreCompressed(walPath, walSegmentId, timestampIndex, rowLo, rowHi);
             final long newMinLagTimestamp = Math.min(o3TimestampMin, txWriter.getLagMinTimestamp());
             long initialPartitionTimestampHi = partitionTimestampHi;
             long commitMaxTimestamp, commitMinTimestamp;
@@ -2340,6 +2520,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
         closeActivePartition(false);
         scheduleRemoveAllPartitions();
+        truncateNgramIndexes(false);
 
         columnVersionWriter.truncate();
         txWriter.removeAllPartitions();
@@ -2666,6 +2847,18 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return false;
     }
 
+    /**
+     * Flushes commits made within the sync interval once the interval has elapsed since the
+     * last synchronous flush. Called on writer tick and by the writer pool for idle writers,
+     * so that the commits of a table that stopped receiving data do not stay unsynced.
+     */
+    public void syncPendingCommits() {
+        if (commitSyncPending && !distressed
+                && configuration.getMillisecondClock().getTicks() - lastCommitSyncTimestamp >= configuration.getCommitSyncInterval()) {
+            syncPendingCommits0();
+        }
+    }
+
     /**
      * Processes writer command queue to execute writer async commands such as replication and table alters.
      * Does not accept structure changes, e.g. equivalent to tick(false)
@@ -2687,6 +2880,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         // Some alter table trigger commit() which trigger tick()
         // If already inside the tick(), do not re-enter it.
         processCommandQueue(contextAllowsAnyStructureChanges);
+        syncPendingCommits();
     }
 
     @Override
@@ -3009,6 +3203,92 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return index;
     }
 
+    private void appendPageFrameNulls(int columnIndex, long rowCount) {
+        // column top in the source frame
+        final Runnable nullSetter = nullSetters.getQuick(columnIndex);
+        for (long r = 0; r < rowCount; r++) {
+            nullSetter.run();
+        }
+    }
+
+    private void appendPageFrameRows(PageFrameMemory frameMemory, long lo, long hi, SymbolTableSource symbolTableSource) {
+        final long rowCount = hi - lo;
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType < 0) {
+                continue;
+            }
+
+            final MemoryMA dataMem = getPrimaryColumn(i);
+            final long pageAddress = frameMemory.getPageAddress(i);
+            if (ColumnType.isVarSize(columnType)) {
+                final long auxPageAddress = frameMemory.getAuxPageAddress(i);
+                if (auxPageAddress == 0) {
+                    appendPageFrameNulls(i, rowCount);
+                    continue;
+                }
+                final ColumnTypeDriver driver = ColumnType.getDriver(columnType);
+                final long srcDataLo = driver.getDataVectorOffset(auxPageAddress, lo);
+                final long srcDataSize = driver.getDataVectorSizeAt(auxPageAddress, hi - 1) - srcDataLo;
+                // aux entries of the source point at the source data vector, so they
+                // are shifted to point at the appended region of our data vector
+                final long shift = srcDataLo - dataMem.getAppendOffset();
+                if (srcDataSize > 0) {
+                    dataMem.putBlockOfBytes(pageAddress + srcDataLo, srcDataSize);
+                }
+
+                final MemoryMA auxMem = getSecondaryColumn(i);
+                if (ColumnType.isVarchar(columnType)) {
+                    // the data offset is stored in the upper 48 bits of the second aux word
+                    for (long r = lo; r < hi; r++) {
+                        final long auxEntry = auxPageAddress + (r << 4);
+                        auxMem.putLong(Unsafe.getUnsafe().getLong(auxEntry));
+                        auxMem.putLong(Unsafe.getUnsafe().getLong(auxEntry + Long.BYTES) - (shift << 16));
+                    }
+                } else {
+                    // our aux vector already holds the start offset of the first row
+                    for (long r = lo + 1; r <= hi; r++) {
+                        auxMem.putLong(Unsafe.getUnsafe().getLong(auxPageAddress + (r << 3)) - shift);
+                    }
+                }
+            } else if (pageAddress == 0) {
+                appendPageFrameNulls(i, rowCount);
+            } else if (ColumnType.isSymbol(columnType)) {
+                appendPageFrameSymbols(i, pageAddress, lo, hi, symbolTableSource.getSymbolTable(i));
+            } else {
+                final int shl = ColumnType.pow2SizeOf(columnType);
+                dataMem.putBlockOfBytes(pageAddress + (lo << shl), rowCount << shl);
+            }
+        }
+    }
+
+    private void appendPageFrameSymbols(int columnIndex, long pageAddress, long lo, long hi, SymbolTable symbolTable) {
+        final MemoryMA dataMem = getPrimaryColumn(columnIndex);
+        final MapWriter symbolMapWriter = symbolMapWriters.getQuick(columnIndex);
+        // cache source to table key mapping only when it's cheaper than looking up each row
+        final boolean cacheKeys = symbolTable instanceof StaticSymbolTable
+                && ((StaticSymbolTable) symbolTable).getSymbolCount() <= hi - lo;
+        if (cacheKeys) {
+            pageFrameSymbolKeys.setAll(((StaticSymbolTable) symbolTable).getSymbolCount(), SymbolTable.VALUE_NOT_FOUND);
+        }
+        for (long r = lo; r < hi; r++) {
+            final int srcKey = Unsafe.getUnsafe().getInt(pageAddress + (r << 2));
+            int key;
+            if (srcKey < 0) {
+                key = symbolMapWriter.put(null);
+            } else if (cacheKeys) {
+                key = pageFrameSymbolKeys.getQuick(srcKey);
+                if (key == SymbolTable.VALUE_NOT_FOUND) {
+                    key = symbolMapWriter.put(symbolTable.valueOf(srcKey));
+                    pageFrameSymbolKeys.setQuick(srcKey, key);
+                }
+            } else {
+                key = symbolMapWriter.put(symbolTable.valueOf(srcKey));
+            }
+            dataMem.putInt(key);
+        }
+    }
+
     private long applyFromWalLagToLastPartition(long commitToTimestamp, boolean allowPartial) {
         long lagMinTimestamp = txWriter.getLagMinTimestamp();
         if (!isDeduplicationEnabled()
@@ -3633,6 +3913,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private long commit(long o3MaxLag) {
         checkDistressed();
         physicallyWrittenRowsSinceLastCommit.set(0);
+        o3RewrittenBytesSinceLastCommit.set(0);
+        o3MergedPartitionsSinceLastCommit = 0;
+        o3MaxInflightPartitionsSinceLastCommit = 0;
+        resetDedupStats();
 
         if (o3InError) {
             rollback();
@@ -3676,13 +3960,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             final long rowsAdded = txWriter.getRowCount() - committedRowCount;
 
             updateIndexes();
-            syncColumns();
+            final int commitMode = syncColumns();
             columnVersionWriter.commit();
             txWriter.setColumnVersion(columnVersionWriter.getVersion());
-            txWriter.commit(denseSymbolMapWriters);
+            txWriter.commit(commitMode, denseSymbolMapWriters);
 
             // Check if partitions are split into too many pieces and merge few of them back.
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.getMaxTimestamp(), configuration.getO3LastPartitionMaxSplits());
+            updateNgramIndexes();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
@@ -4650,6 +4935,30 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void cthSyncColumn(int columnIndex, int columnType, long timestampColumnIndex, long long0, long long1, long long2, long long3, long long4) {
+        if (o3ErrorCount.get() > 0) {
+            return;
+        }
+        try {
+            getPrimaryColumn(columnIndex).sync(false);
+            final MemoryMA auxMem = getSecondaryColumn(columnIndex);
+            if (auxMem != null) {
+                auxMem.sync(false);
+            }
+        } catch (Throwable th) {
+            handleColumnTaskException(
+                    "could not sync column",
+                    columnIndex,
+                    columnType,
+                    IGNORE,
+                    IGNORE,
+                    IGNORE,
+                    IGNORE,
+                    th
+            );
+        }
+    }
+
     private long deduplicateSortedIndex(long longIndexLength, long indexSrcAddr, long indexDstAddr, long tempIndexAddr, long lagRows) {
         LOG.info().$("WAL dedup sorted commit index [table=").$(tableToken).$(", totalRows=").$(longIndexLength).$(", lagRows=").$(lagRows).I$();
         int dedupKeyIndex = 0;
@@ -4803,9 +5112,18 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private void doClose(boolean truncate) {
         // destroy() may have already closed everything
         boolean tx = inTransaction();
+        if (commitSyncPending && !distressed) {
+            // complete the flush of commits made within the sync interval
+            try {
+                syncPendingCommits0();
+            } catch (Throwable th) {
+                LOG.error().$("could not sync table on close [table=").utf8(tableToken.getTableName()).$(", e=").$(th).I$();
+            }
+        }
         freeSymbolMapWriters();
         Misc.freeObjList(indexers);
         denseIndexers.clear();
+        Misc.freeObjListAndClear(ngramIndexWriters);
         Misc.free(txWriter);
         Misc.free(metaMem);
         Misc.free(ddlMem);
@@ -5042,6 +5360,14 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
 
         metrics.tableWriter().incrementO3Commits();
+        final long dedupRows = dedupRowsSinceLastCommit.get();
+        if (dedupRows > 0) {
+            LOG.info().$("dedup [table=").utf8(tableToken.getTableName())
+                    .$(", rows=").$(dedupRows)
+                    .$(", duplicates=").$(dedupDuplicateRowsSinceLastCommit.get())
+                    .$(", skippedMerges=").$(dedupSkippedMergesSinceLastCommit.get())
+                    .I$();
+        }
     }
 
     private Utf8Sequence formatPartitionForTimestamp(long partitionTimestamp, long nameTxn) {
@@ -5129,6 +5455,15 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return convertOperatorImpl;
     }
 
+    private NgramIndexWriter getNgramIndexWriter(int columnIndex) {
+        NgramIndexWriter writer = ngramIndexWriters.getQuiet(columnIndex);
+        if (writer == null) {
+            writer = new NgramIndexWriter(configuration);
+            ngramIndexWriters.extendAndSet(columnIndex, writer);
+        }
+        return writer;
+    }
+
     private long getO3RowCount0() {
         return (masterRef - o3MasterRef + 1) / 2;
     }
@@ -5338,6 +5673,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return false;
     }
 
+    private boolean isNgramIndexed(int columnIndex) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        return (ColumnType.isVarchar(columnType) || ColumnType.isString(columnType))
+                && NgramIndexUtils.isIndexed(configuration, ngramIndexSink, tableToken.getTableName(), metadata.getColumnName(columnIndex));
+    }
+
     private void lock() {
         try {
             path.trimTo(pathSize);
@@ -5472,6 +5813,19 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void mmapWalColumnsRestoreCompressed(@Transient Path walPath, long walSegmentId, int timestampIndex, long rowLo, long rowHi) {
+        final int walPathLen = walPath.size();
+        try {
+            mmapWalColumns(walPath, walSegmentId, timestampIndex, rowLo, rowHi);
+        } catch (CairoException e) {
+            // column files of a lagging segment may have been compressed by the WAL writer, restore and retry
+            if (!e.errnoReadPathDoesNotExist() || !WalSegmentCompressionUtils.restoreSegment(configuration, walPath.trimTo(walPathLen))) {
+                throw e;
+            }
+            mmapWalColumns(walPath, walSegmentId, timestampIndex, rowLo, rowHi);
+        }
+    }
+
     private Row newRowO3(long timestamp) {
         LOG.info().$("switched to o3 [table=").utf8(tableToken.getTableName()).I$();
         txWriter.beginPartitionSizeUpdate();
@@ -6359,6 +6713,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             while (srcOoo < srcOooMax) {
                 inflightPartitions++;
                 regulator.updateInflightPartitions(inflightPartitions);
+                o3MaxInflightPartitionsSinceLastCommit = Math.max(o3MaxInflightPartitionsSinceLastCommit, inflightPartitions);
                 try {
                     final long srcOooLo = srcOoo;
                     final long o3Timestamp = getTimestampIndexValue(sortedTimestampsAddr, srcOoo);
@@ -6597,6 +6952,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     inflightPartitions = 0;
                 }
             } // end while(srcOoo < srcOooMax)
+            o3MergedPartitionsSinceLastCommit += pCount;
 
             // at this point we should know the last partition row count
             this.partitionTimestampHi = Math.max(this.partitionTimestampHi, txWriter.getNextPartitionTimestamp(o3TimestampMax) - 1);
@@ -7455,6 +7811,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         processPartitionRemoveCandidates();
     }
 
+    private void resetDedupStats() {
+        dedupRowsSinceLastCommit.set(0);
+        dedupDuplicateRowsSinceLastCommit.set(0);
+        dedupSkippedMergesSinceLastCommit.set(0);
+    }
+
     private void resizePartitionUpdateSink() {
         if (o3PartitionUpdateSink == null) {
             o3PartitionUpdateSink = new PagedDirectLongList(MemoryTag.NATIVE_O3);
@@ -7895,28 +8257,57 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         setAppendPosition(0, false);
     }
 
-    private void syncColumns() {
-        final int commitMode = configuration.getCommitMode();
-        if (commitMode != CommitMode.NOSYNC) {
-            final boolean async = commitMode == CommitMode.ASYNC;
-            syncColumns0(async);
-            for (int i = 0, n = denseIndexers.size(); i < n; i++) {
-                denseIndexers.getQuick(i).sync(async);
-            }
-            for (int i = 0, n = denseSymbolMapWriters.size(); i < n; i++) {
-                denseSymbolMapWriters.getQuick(i).sync(async);
+    /**
+     * Flushes column files according to the commit mode and returns the mode the commit
+     * was actually flushed with, so that _txn is flushed the same way. In SYNC mode with
+     * a sync interval, commits made within the interval only schedule the flush.
+     */
+    private int syncColumns() {
+        int commitMode = configuration.getCommitMode();
+        final long syncInterval = configuration.getCommitSyncInterval();
+        if (commitMode == CommitMode.SYNC && syncInterval > 0) {
+            final long now = configuration.getMillisecondClock().getTicks();
+            if (now - lastCommitSyncTimestamp < syncInterval) {
+                commitMode = CommitMode.ASYNC;
+                commitSyncPending = true;
+            } else {
+                lastCommitSyncTimestamp = now;
+                commitSyncPending = false;
             }
         }
+        if (commitMode != CommitMode.NOSYNC) {
+            syncColumns0(commitMode == CommitMode.ASYNC);
+        }
+        return commitMode;
     }
 
     private void syncColumns0(boolean async) {
-        for (int i = 0; i < columnCount; i++) {
-            columns.getQuick(i * 2).sync(async);
-            final MemoryMA m2 = columns.getQuick(i * 2 + 1);
-            if (m2 != null) {
-                m2.sync(async);
+        if (!async && columnCount > 1 && configuration.isCommitSyncParallelEnabled()) {
+            // column files are flushed independently of each other, so they are flushed
+            // concurrently and the commit proceeds once all of them are done
+            dispatchColumnTasks(IGNORE, IGNORE, IGNORE, IGNORE, IGNORE, cthSyncColumnRef);
+        } else {
+            for (int i = 0; i < columnCount; i++) {
+                columns.getQuick(i * 2).sync(async);
+                final MemoryMA m2 = columns.getQuick(i * 2 + 1);
+                if (m2 != null) {
+                    m2.sync(async);
+                }
             }
         }
+        for (int i = 0, n = denseIndexers.size(); i < n; i++) {
+            denseIndexers.getQuick(i).sync(async);
+        }
+        for (int i = 0, n = denseSymbolMapWriters.size(); i < n; i++) {
+            denseSymbolMapWriters.getQuick(i).sync(async);
+        }
+    }
+
+    private void syncPendingCommits0() {
+        commitSyncPending = false;
+        lastCommitSyncTimestamp = configuration.getMillisecondClock().getTicks();
+        syncColumns0(false);
+        txWriter.sync();
     }
 
     private void throwDistressException(CairoException cause) {
@@ -7956,9 +8347,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             releaseIndexerWriters();
             // Schedule removal of all partitions
             scheduleRemoveAllPartitions();
+            truncateNgramIndexes(false);
             rowAction = ROW_ACTION_OPEN_PARTITION;
         } else {
             // truncate columns, we cannot remove them
+            truncateNgramIndexes(true);
             truncateColumns();
         }
 
@@ -7994,6 +8387,26 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void truncateNgramIndexes(boolean inPlace) {
+        for (int i = 0; i < columnCount; i++) {
+            if (isNgramIndexed(i)) {
+                final NgramIndexWriter writer = getNgramIndexWriter(i);
+                if (inPlace) {
+                    writer.removeIndex(
+                            tableToken,
+                            partitionBy,
+                            TxReader.DEFAULT_PARTITION_TIMESTAMP,
+                            txWriter.getPartitionNameTxn(0),
+                            metadata.getColumnName(i),
+                            columnVersionWriter.getColumnNameTxn(TxReader.DEFAULT_PARTITION_TIMESTAMP, i)
+                    );
+                } else {
+                    writer.clear();
+                }
+            }
+        }
+    }
+
     private void updateIndexes() {
         if (indexCount == 0 || avoidIndexOnCommit) {
             avoidIndexOnCommit = false;
@@ -8112,6 +8525,30 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void updateNgramIndexes() {
+        if (configuration.getNgramIndexColumns().size() == 0) {
+            return;
+        }
+        long rowBudget = configuration.getNgramIndexBackfillRowLimit();
+        for (int i = 0; i < columnCount; i++) {
+            if (isNgramIndexed(i)) {
+                rowBudget = getNgramIndexWriter(i).update(
+                        tableToken,
+                        partitionBy,
+                        txWriter,
+                        columnVersionWriter,
+                        i,
+                        metadata.getColumnName(i),
+                        metadata.getColumnType(i),
+                        rowBudget
+                );
+            } else if (i < ngramIndexWriters.size()) {
+                // column has been dropped or its type changed, release index files
+                ngramIndexWriters.setQuick(i, Misc.free(ngramIndexWriters.getQuick(i)));
+            }
+        }
+    }
+
     private void updateMaxTimestamp(long timestamp) {
         txWriter.updateMaxTimestamp(timestamp);
         this.timestampSetter.accept(timestamp);
@@ -24,6 +24,8 @@
 
 package io.questdb.cairo;
 
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.cairo.sql.TableRecordMetadata;
 import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.griffin.engine.ops.UpdateOperation;
@@ -80,6 +82,27 @@ public interface TableWriterAPI extends Closeable {
             boolean isSequential
     );
 
+    /**
+     * Appends a block of rows supplied column by column, i.e. as contiguous native memory ranges
+     * per column, instead of going through {@link #newRow(long)} for each row. Columns of the frame
+     * must match the table metadata one to one by index and type. Fixed-size columns are copied as-is,
+     * var-size columns have their aux vectors rebased onto the table's data vectors and symbol keys
+     * are re-mapped via the source symbol tables.
+     * <p>
+     * The block is appended only when it can be copied without falling back to the row-by-row path,
+     * e.g. when timestamps of the block are in order and not older than the table's max timestamp.
+     * Otherwise, the method returns false without changing the writer state, and it's up to the caller
+     * to append the rows one by one.
+     *
+     * @param frameMemory       page frame memory of the source, in native format
+     * @param rowCount          number of rows in the frame
+     * @param symbolTableSource symbol tables of the source, used to re-map symbol keys
+     * @return true when the rows were appended, false when the caller must fall back to {@link #newRow(long)}
+     */
+    default boolean appendPageFrame(PageFrameMemory frameMemory, long rowCount, SymbolTableSource symbolTableSource) {
+        return false;
+    }
+
     long apply(AlterOperation alterOp, boolean contextAllowsAnyStructureChanges) throws AlterTableContextException;
 
     long apply(UpdateOperation operation);
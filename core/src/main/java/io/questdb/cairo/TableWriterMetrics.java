@@ -32,6 +32,10 @@ public class TableWriterMetrics {
     // Includes all types of commits (in-order and o3)
     private final Counter commitCounter;
     private final Counter committedRowCounter;
+    // For duplicate ratio, `dedupDuplicateRowCounter / dedupRowCounter`.
+    private final Counter dedupDuplicateRowCounter;
+    private final Counter dedupRowCounter;
+    private final Counter dedupSkippedMergeCounter;
     private final Counter o3CommitCounter;
     // For write amplification metric, `physicallyWrittenRowCounter / committedRowCounter`.
     private final Counter physicallyWrittenRowCounter;
@@ -43,12 +47,23 @@ public class TableWriterMetrics {
         this.committedRowCounter = metricsRegistry.newCounter("committed_rows");
         this.rollbackCounter = metricsRegistry.newCounter("rollbacks");
         this.physicallyWrittenRowCounter = metricsRegistry.newCounter("physically_written_rows");
+        this.dedupRowCounter = metricsRegistry.newCounter("dedup_rows");
+        this.dedupDuplicateRowCounter = metricsRegistry.newCounter("dedup_duplicate_rows");
+        this.dedupSkippedMergeCounter = metricsRegistry.newCounter("dedup_skipped_merges");
     }
 
     public void addCommittedRows(long rows) {
         committedRowCounter.add(rows);
     }
 
+    public void addDedupRows(long rows, long duplicateRows, boolean mergeSkipped) {
+        dedupRowCounter.add(rows);
+        dedupDuplicateRowCounter.add(duplicateRows);
+        if (mergeSkipped) {
+            dedupSkippedMergeCounter.inc();
+        }
+    }
+
     public void addPhysicallyWrittenRows(long rows) {
         physicallyWrittenRowCounter.add(rows);
     }
@@ -61,6 +76,18 @@ public class TableWriterMetrics {
         return committedRowCounter.getValue();
     }
 
+    public long getDedupDuplicateRows() {
+        return dedupDuplicateRowCounter.getValue();
+    }
+
+    public long getDedupRows() {
+        return dedupRowCounter.getValue();
+    }
+
+    public long getDedupSkippedMerges() {
+        return dedupSkippedMergeCounter.getValue();
+    }
+
     public long getO3CommitCount() {
         return o3CommitCounter.getValue();
     }
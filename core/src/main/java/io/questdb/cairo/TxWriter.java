@@ -34,11 +34,13 @@ import java.io.Closeable;
 import static io.questdb.cairo.TableUtils.*;
 
 public final class TxWriter extends TxReader implements Closeable, Mutable, SymbolValueCountCollector {
+    private final LongList committedPartitions = new LongList();
     private final CairoConfiguration configuration;
     private long baseVersion;
     private TableWriter.ExtensionListener extensionListener;
     private int lastRecordBaseOffset = -1;
     private long lastRecordStructureVersion = -1;
+    private PartitionChangeLog partitionChangeLog;
     private long prevMaxTimestamp;
     private long prevMinTimestamp;
     private int prevRecordBaseOffset = -2;
@@ -61,6 +63,10 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         transientRowCount++;
     }
 
+    public void append(long rowCount) {
+        transientRowCount += rowCount;
+    }
+
     public void beginPartitionSizeUpdate() {
         if (maxTimestamp != Long.MIN_VALUE) {
             // Last partition size is usually not stored in attached partitions list
@@ -155,6 +161,10 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
     }
 
     public void commit(ObjList<? extends SymbolCountProvider> symbolCountProviders) {
+        commit(configuration.getCommitMode(), symbolCountProviders);
+    }
+
+    public void commit(int commitMode, ObjList<? extends SymbolCountProvider> symbolCountProviders) {
         if (prevRecordStructureVersion == recordStructureVersion && prevRecordBaseOffset > 0) {
             // Optimisation for the case where commit appends rows to the last partition only
             // In this case all to be changed is TX_OFFSET_MAX_TIMESTAMP_64 and TX_OFFSET_TRANSIENT_ROW_COUNT_64
@@ -180,13 +190,16 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
 
             prevRecordBaseOffset = lastRecordBaseOffset;
             lastRecordBaseOffset = writeBaseOffset;
-            int commitMode = configuration.getCommitMode();
             if (commitMode != CommitMode.NOSYNC) {
                 txMemBase.sync(commitMode == CommitMode.ASYNC);
             }
+            if (partitionChangeLog != null) {
+                // only the last partition size changed, readers always reconcile the last partition
+                partitionChangeLog.publish(txn);
+            }
         } else {
             // Slow path, record structure changed
-            commitFullRecord(configuration.getCommitMode(), symbolCountProviders);
+            commitFullRecord(commitMode, symbolCountProviders);
         }
     }
 
@@ -363,6 +376,10 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         }
     }
 
+    public void setPartitionChangeLog(PartitionChangeLog partitionChangeLog) {
+        this.partitionChangeLog = partitionChangeLog;
+    }
+
     public void setPartitionParquetFormat(long timestamp, long fileLength) {
         int indexRaw = findAttachedPartitionRawIndex(timestamp);
         if (indexRaw < 0) {
@@ -420,6 +437,12 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         }
     }
 
+    public void sync() {
+        if (txMemBase != null) {
+            txMemBase.sync(false);
+        }
+    }
+
     public void truncate(long columnVersion, ObjList<? extends SymbolCountProvider> symbolCountProviders) {
         removeAllPartitions();
         if (!PartitionBy.isPartitioned(partitionBy)) {
@@ -443,6 +466,10 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         );
         storeSymbolCounts(symbolCountProviders);
         finishABHeader(writeBaseOffset, symbolColumnCount * Long.BYTES, 0, CommitMode.NOSYNC);
+        if (partitionChangeLog != null) {
+            partitionChangeLog.markFullChange();
+            publishPartitionChanges();
+        }
     }
 
     public boolean unsafeLoadAll() {
@@ -454,6 +481,8 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
             this.prevTransientRowCount = this.transientRowCount;
             this.prevMaxTimestamp = maxTimestamp;
             this.prevMinTimestamp = minTimestamp;
+            committedPartitions.clear();
+            committedPartitions.add(attachedPartitions);
             return true;
         }
         return false;
@@ -560,6 +589,10 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         lastRecordStructureVersion = recordStructureVersion;
         prevRecordBaseOffset = lastRecordBaseOffset;
         lastRecordBaseOffset = writeBaseOffset;
+
+        if (partitionChangeLog != null) {
+            publishPartitionChanges();
+        }
     }
 
     private void finishABHeader(int areaOffset, int bytesSymbols, int bytesPartitions, int commitMode) {
@@ -617,6 +650,34 @@ public final class TxWriter extends TxReader implements Closeable, Mutable, Symb
         throw CairoException.critical(ff.errno()).put("Cannot append. File does not exist: ").put(path);
     }
 
+    private void publishPartitionChanges() {
+        // compare partition table to the one committed by the previous txn
+        final int committedSize = committedPartitions.size();
+        final int size = attachedPartitions.size();
+        int i = 0;
+        for (; i < committedSize && i < size; i += LONGS_PER_TX_ATTACHED_PARTITION) {
+            final long partitionTimestamp = attachedPartitions.getQuick(i + PARTITION_TS_OFFSET);
+            if (committedPartitions.getQuick(i + PARTITION_TS_OFFSET) != partitionTimestamp) {
+                // partition is inserted or removed in the middle of the partition table
+                partitionChangeLog.markFullChange();
+                break;
+            }
+            if (committedPartitions.getQuick(i + PARTITION_MASKED_SIZE_OFFSET) != attachedPartitions.getQuick(i + PARTITION_MASKED_SIZE_OFFSET)
+                    || committedPartitions.getQuick(i + PARTITION_NAME_TX_OFFSET) != attachedPartitions.getQuick(i + PARTITION_NAME_TX_OFFSET)
+                    || committedPartitions.getQuick(i + PARTITION_PARQUET_FILE_SIZE_OFFSET) != attachedPartitions.getQuick(i + PARTITION_PARQUET_FILE_SIZE_OFFSET)) {
+                partitionChangeLog.markPartitionChanged(partitionTimestamp);
+            }
+        }
+        if (i < committedSize) {
+            // trailing partitions are removed
+            partitionChangeLog.markFullChange();
+        }
+        // partitions appended at the end are not logged, readers add them by partition count
+        partitionChangeLog.publish(txn);
+        committedPartitions.clear();
+        committedPartitions.add(attachedPartitions);
+    }
+
     private void putInt(long offset, int value) {
         assert offset + Integer.BYTES <= writeAreaSize;
         txMemBase.putInt(writeBaseOffset + offset, value);
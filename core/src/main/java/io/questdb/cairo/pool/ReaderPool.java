@@ -27,20 +27,37 @@ package io.questdb.cairo.pool;
 import io.questdb.MessageBus;
 import io.questdb.cairo.PartitionOverwriteControl;
 import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.PartitionChangeLog;
+import io.questdb.cairo.SymbolTableCache;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.TableToken;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
 
+    private final CairoEngine engine;
     private final MessageBus messageBus;
     private final PartitionOverwriteControl partitionOverwriteControl;
+    private final SymbolTableCache symbolTableCache;
     private ReaderListener readerListener;
 
-    public ReaderPool(CairoConfiguration configuration, MessageBus messageBus, PartitionOverwriteControl partitionOverwriteControl) {
+    public ReaderPool(
+            CairoConfiguration configuration,
+            MessageBus messageBus,
+            PartitionOverwriteControl partitionOverwriteControl,
+            @Nullable CairoEngine engine
+    ) {
         super(configuration, configuration.getReaderPoolMaxSegments(), configuration.getInactiveReaderTTL());
         this.messageBus = messageBus;
         this.partitionOverwriteControl = partitionOverwriteControl;
+        this.engine = engine;
+        this.symbolTableCache = engine != null ? engine.getSymbolTableCache() : null;
+    }
+
+    public ReaderPool(CairoConfiguration configuration, MessageBus messageBus, PartitionOverwriteControl partitionOverwriteControl) {
+        this(configuration, messageBus, partitionOverwriteControl, null);
     }
 
     public ReaderPool(CairoConfiguration configuration, MessageBus messageBus) {
@@ -59,7 +76,17 @@ public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
 
     @Override
     protected R newTenant(TableToken tableToken, Entry<R> entry, int index) {
-        return new R(this, entry, index, tableToken, messageBus, readerListener, partitionOverwriteControl);
+        return new R(
+                this,
+                entry,
+                index,
+                tableToken,
+                messageBus,
+                readerListener,
+                partitionOverwriteControl,
+                symbolTableCache,
+                engine != null ? engine.getPartitionChangeLog(tableToken) : null
+        );
     }
 
     @TestOnly
@@ -81,9 +108,11 @@ public class ReaderPool extends AbstractMultiTenantPool<ReaderPool.R> {
                 TableToken tableToken,
                 MessageBus messageBus,
                 ReaderListener readerListener,
-                PartitionOverwriteControl partitionOverwriteControl
+                PartitionOverwriteControl partitionOverwriteControl,
+                SymbolTableCache symbolTableCache,
+                PartitionChangeLog partitionChangeLog
         ) {
-            super(pool.getConfiguration(), tableToken, messageBus, partitionOverwriteControl);
+            super(pool.getConfiguration(), tableToken, messageBus, partitionOverwriteControl, symbolTableCache, partitionChangeLog);
             this.pool = pool;
             this.entry = entry;
             this.index = index;
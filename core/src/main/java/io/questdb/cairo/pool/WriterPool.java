@@ -624,6 +624,19 @@ public class WriterPool extends AbstractPool {
                     iterator.remove();
                     removed = true;
                 }
+            } else if (e.owner == UNALLOCATED && e.writer != null && e.writer.isCommitSyncPending()) {
+                // idle writer has commits made within the sync interval, flush them once the interval elapses
+                if (Unsafe.cas(e, ENTRY_OWNER, UNALLOCATED, -thread - 3)) {
+                    try {
+                        e.writer.syncPendingCommits();
+                    } catch (Throwable th) {
+                        LOG.error().$("could not sync idle writer [table=`").utf8(e.writer.getTableToken().getDirName())
+                                .$("`, e=").$(th)
+                                .I$();
+                    } finally {
+                        Unsafe.cas(e, ENTRY_OWNER, -thread - 3, UNALLOCATED);
+                    }
+                }
             } else if (e.lockFd != -1 && deadline == Long.MAX_VALUE) {
                 // do not release locks unless pool is shutting down, which is
                 // indicated via deadline to be Long.MAX_VALUE
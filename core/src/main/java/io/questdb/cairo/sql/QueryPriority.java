@@ -0,0 +1,80 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql;
+
+import io.questdb.std.Chars;
+
+/**
+ * Priority classes of queries sharing the worker pool. Priority affects how page frame
+ * reduce tasks of a query are dispatched to the workers:
+ * <ul>
+ *     <li>{@link #LOW} - heavy analytical queries; they may occupy only a share of the
+ *     reduce queue and the number of such queries dispatching to the workers at the same
+ *     time is capped, the rest reduce on their own thread until admitted</li>
+ *     <li>{@link #NORMAL} - default priority</li>
+ *     <li>{@link #HIGH} - interactive queries; they dispatch to the least loaded reduce queue shard</li>
+ * </ul>
+ */
+public final class QueryPriority {
+    public static final int HIGH = 2;
+    public static final int LOW = 0;
+    public static final int NORMAL = 1;
+    public static final int UNSET = -1;
+
+    private QueryPriority() {
+    }
+
+    public static String nameOf(int priority) {
+        switch (priority) {
+            case LOW:
+                return "low";
+            case NORMAL:
+                return "normal";
+            case HIGH:
+                return "high";
+            default:
+                return "unset";
+        }
+    }
+
+    /**
+     * @param name priority name, case-insensitive
+     * @return priority value or {@link #UNSET} if the name is not recognised
+     */
+    public static int of(CharSequence name) {
+        if (name != null) {
+            if (Chars.equalsIgnoreCase(name, "low")) {
+                return LOW;
+            }
+            if (Chars.equalsIgnoreCase(name, "normal")) {
+                return NORMAL;
+            }
+            if (Chars.equalsIgnoreCase(name, "high")) {
+                return HIGH;
+            }
+        }
+        return UNSET;
+    }
+}
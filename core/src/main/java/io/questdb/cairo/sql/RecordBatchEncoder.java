@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.sql;
+
+import io.questdb.std.Mutable;
+import io.questdb.std.QuietCloseable;
+
+/**
+ * Encodes query results into a columnar binary format, one batch of records at a time.
+ * <p>
+ * Encoded bytes are exposed to the caller as a sequence of contiguous native memory regions.
+ * The caller is expected to drain pending bytes, via {@link #getPendingLo()}, {@link #getPendingHi()}
+ * and {@link #skipPendingBytes(long)}, before appending the next batch. This way the memory footprint
+ * of the encoder is bounded by the batch size rather than by the size of the result set.
+ */
+public interface RecordBatchEncoder extends Mutable, QuietCloseable {
+
+    void appendRecord(Record record);
+
+    /**
+     * Encodes records appended since the previous flush. The encoded batch becomes available
+     * as pending bytes.
+     */
+    void flushBatch();
+
+    /**
+     * Writes out stream trailer, if the format has any. Must be called once, after the last batch was flushed.
+     */
+    void finish();
+
+    int getBatchRowCount();
+
+    long getPendingHi();
+
+    long getPendingLo();
+
+    boolean hasPendingBytes();
+
+    boolean isBatchFull();
+
+    /**
+     * Prepares the encoder for the given result set. Stream header, if any, becomes available as pending bytes.
+     */
+    void of(RecordMetadata metadata);
+
+    void skipPendingBytes(long len);
+}
@@ -50,32 +50,47 @@ public class PageFrameReduceJob implements Job, Closeable {
     private SqlExecutionCircuitBreakerWrapper circuitBreaker;
     private PageFrameMemoryRecord record;
 
-    // Each thread should be assigned own instance of this job, making the code effectively
-    // single threaded. Such assignment is necessary for threads to have their own shard walk sequence.
+    /**
+     * Each thread should be assigned own instance of this job, making the code effectively
+     * single threaded. Such assignment is necessary for threads to have their own shard walk sequence.
+     *
+     * @param numaNode NUMA node the worker thread is pinned to or -1 when the worker is not pinned.
+     *                 Shards that belong to the node are walked ahead of the remote ones,
+     *                 see {@link PageFrameSequence#nodeShard(int, int, int, Rnd)}.
+     */
     public PageFrameReduceJob(
             MessageBus bus,
             Rnd rnd,
-            @NotNull SqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration) {
+            @NotNull SqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration,
+            int numaNode
+    ) {
         this.messageBus = bus;
         this.shardCount = messageBus.getPageFrameReduceShardCount();
         this.shards = new int[shardCount];
-        // fill shards[] with shard indexes
-        for (int i = 0; i < shardCount; i++) {
-            shards[i] = i;
+        final int nodeCount = messageBus.getNumaTopology().getNodeCount();
+        // fill shards[] with shard indexes, node-local shards go first
+        int localShardCount = 0;
+        if (numaNode > -1 && nodeCount > 1) {
+            for (int i = 0; i < shardCount; i++) {
+                if (i % nodeCount == numaNode) {
+                    shards[localShardCount++] = i;
+                }
+            }
+            for (int i = 0, k = localShardCount; i < shardCount; i++) {
+                if (i % nodeCount != numaNode) {
+                    shards[k++] = i;
+                }
+            }
+        } else {
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = i;
+            }
         }
 
         // shuffle shard indexes such that each job has its own
         // pass order over the shared queues
-        int currentIndex = shardCount;
-        int randomIndex;
-        while (currentIndex != 0) {
-            randomIndex = (int) Math.floor(rnd.nextDouble() * currentIndex);
-            currentIndex--;
-
-            final int tmp = shards[currentIndex];
-            shards[currentIndex] = shards[randomIndex];
-            shards[randomIndex] = tmp;
-        }
+        shuffle(rnd, shards, 0, localShardCount);
+        shuffle(rnd, shards, localShardCount, shardCount);
 
         this.record = new PageFrameMemoryRecord();
         this.circuitBreaker = new SqlExecutionCircuitBreakerWrapper(circuitBreakerConfiguration);
@@ -248,4 +263,17 @@ public class PageFrameReduceJob implements Job, Closeable {
             frameSequence.cancel(cbState);
         }
     }
+
+    private static void shuffle(Rnd rnd, int[] shards, int lo, int hi) {
+        int currentIndex = hi - lo;
+        int randomIndex;
+        while (currentIndex != 0) {
+            randomIndex = (int) Math.floor(rnd.nextDouble() * currentIndex);
+            currentIndex--;
+
+            final int tmp = shards[lo + currentIndex];
+            shards[lo + currentIndex] = shards[lo + randomIndex];
+            shards[lo + randomIndex] = tmp;
+        }
+    }
 }
@@ -27,10 +27,12 @@ package io.questdb.cairo.sql.async;
 import io.questdb.MessageBus;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
 import io.questdb.cairo.sql.PageFrame;
 import io.questdb.cairo.sql.PageFrameAddressCache;
 import io.questdb.cairo.sql.PageFrameCursor;
 import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreakerWrapper;
@@ -60,12 +62,14 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private static final AtomicLong ID_SEQ = new AtomicLong();
     private static final long LOCAL_TASK_CURSOR = Long.MAX_VALUE;
     private static final Log LOG = LogFactory.getLog(PageFrameSequence.class);
+    private final QueryAdmissionControl admissionControl;
     private final T atom;
     private final AtomicInteger cancelReason = new AtomicInteger(SqlExecutionCircuitBreaker.STATE_OK);
     private final MillisecondClock clock;
     private final PageFrameAddressCache frameAddressCache;
     private final LongList frameRowCounts = new LongList();
     private final PageFrameReduceTaskFactory localTaskFactory;
+    private final int lowPriorityQueueShare;
     private final MessageBus messageBus;
     private final AtomicInteger reduceFinishedCounter = new AtomicInteger(0);
     private final AtomicInteger reduceStartedCounter = new AtomicInteger(0);
@@ -74,6 +78,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private final AtomicBoolean valid = new AtomicBoolean(true);
     private final WorkStealingStrategy workStealingStrategy;
     public volatile boolean done;
+    // true when low priority query holds an admission slot
+    private boolean admitted;
     private SqlExecutionCircuitBreakerWrapper circuitBreaker;
     private long circuitBreakerFd;
     private SCSequence collectSubSeq;
@@ -85,6 +91,9 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private PageFrameMemoryRecord localRecord;
     // Local reduce task used when there is no slots in the queue to dispatch tasks.
     private PageFrameReduceTask localTask;
+    // max number of dispatched, but not yet collected frames
+    private int maxInFlightFrameCount;
+    private int priority;
     private boolean readyToDispatch;
     private RingQueue<PageFrameReduceTask> reduceQueue;
     private int shard;
@@ -110,12 +119,26 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         this.workStealingStrategy = WorkStealingStrategyFactory.getInstance(configuration, sharedWorkerCount);
         this.taskType = taskType;
         this.circuitBreaker = new SqlExecutionCircuitBreakerWrapper(configuration.getCircuitBreakerConfiguration());
+        this.admissionControl = messageBus.getQueryAdmissionControl();
+        this.lowPriorityQueueShare = configuration.getSqlParallelLowPriorityQueueShare();
     }
 
     /**
      * Waits for frame sequence completion, fetches remaining pieces of the
      * frame sequence from the queues. This method is not thread safe.
      */
+    /**
+     * Picks a random reduce queue shard that belongs to the given NUMA node. Shards are
+     * assigned to nodes round-robin, i.e. shard belongs to the node {@code shard % nodeCount}.
+     */
+    public static int nodeShard(int node, int shardCount, int nodeCount, Rnd rnd) {
+        if (node < 0 || node >= shardCount) {
+            return rnd.nextInt(shardCount);
+        }
+        final int nodeShardCount = (shardCount - node + nodeCount - 1) / nodeCount;
+        return node + nodeCount * rnd.nextInt(nodeShardCount);
+    }
+
     public void await() {
         LOG.debug()
                 .$("awaiting completion [shard=").$(shard)
@@ -206,6 +229,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         if (localTask != null) {
             localTask.resetCapacities();
         }
+        releaseAdmission();
     }
 
     @Override
@@ -274,6 +298,10 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return reducer;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
     public int getShard() {
         return shard;
     }
@@ -393,8 +421,12 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             reduceFinishedCounter.set(0);
             reduceStartedCounter.set(0);
             workStealingStrategy.of(reduceStartedCounter);
-            shard = rnd.nextInt(messageBus.getPageFrameReduceShardCount());
+            priority = executionContext.getQueryPriority();
+            shard = selectShard(base, rnd);
             reduceQueue = messageBus.getPageFrameReduceQueue(shard);
+            maxInFlightFrameCount = priority == QueryPriority.LOW
+                    ? Math.max(1, (int) ((long) reduceQueue.getCycle() * lowPriorityQueueShare / 100))
+                    : Integer.MAX_VALUE;
 
             // It is essential to init the atom after we prepared sequence for dispatch.
             // If atom is to fail, we will be releasing whatever we prepared.
@@ -424,6 +456,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         // prepare to resend the same sequence as it might be required by toTop()
         assert !done;
         done = true;
+        releaseAdmission();
     }
 
     /**
@@ -484,6 +517,19 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
      *
      * @return true if at least one task was dispatched or reduced; false otherwise
      */
+    private boolean canDispatch(int collectedFrameCount) {
+        if (dispatchStartFrameIndex - collectedFrameCount >= maxInFlightFrameCount) {
+            return false;
+        }
+        if (priority != QueryPriority.LOW) {
+            return true;
+        }
+        if (!admitted) {
+            admitted = admissionControl.tryAdmit();
+        }
+        return admitted;
+    }
+
     private boolean dispatch() {
         boolean idle = true;
         boolean dispatched = false;
@@ -503,7 +549,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             // tasks from the queue.
 
             while (true) {
-                cursor = reducePubSeq.next();
+                // behave as if the queue is full when the query is not allowed to dispatch more
+                cursor = canDispatch(collectedFrameCount) ? reducePubSeq.next() : -1;
                 if (cursor > -1) {
                     reduceQueue.get(cursor).of(this, i);
                     LOG.debug()
@@ -514,6 +561,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
                             .$(", cursor=").$(cursor)
                             .I$();
                     reducePubSeq.done(cursor);
+                    // publisher's barrier is the collect fan-out, so reduce workers are signalled explicitly
+                    reduceSubSeq.getWaitStrategy().signal();
                     dispatchStartFrameIndex = i + 1;
                     dispatched = true;
                     break;
@@ -572,6 +621,46 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         circuitBreaker.init(executionContextCircuitBreaker);
     }
 
+    private int leastLoadedShard(Rnd rnd) {
+        final int shardCount = messageBus.getPageFrameReduceShardCount();
+        // start at random shard, so that ties are spread evenly
+        final int start = rnd.nextInt(shardCount);
+        int bestShard = start;
+        long bestBacklog = Long.MAX_VALUE;
+        for (int i = 0; i < shardCount; i++) {
+            final int s = (start + i) % shardCount;
+            final long backlog = messageBus.getPageFrameReducePubSeq(s).current() - messageBus.getPageFrameReduceSubSeq(s).current();
+            if (backlog < bestBacklog) {
+                bestBacklog = backlog;
+                bestShard = s;
+            }
+        }
+        return bestShard;
+    }
+
+    private void releaseAdmission() {
+        if (admitted) {
+            admissionControl.release();
+            admitted = false;
+        }
+    }
+
+    private int selectShard(RecordCursorFactory base, Rnd rnd) {
+        if (priority == QueryPriority.HIGH) {
+            return leastLoadedShard(rnd);
+        }
+        final int shardCount = messageBus.getPageFrameReduceShardCount();
+        final int nodeCount = messageBus.getNumaTopology().getNodeCount();
+        final TableToken tableToken = base.getTableToken();
+        if (nodeCount > 1 && tableToken != null) {
+            // Tables are interleaved across NUMA nodes, so that frames of the same table are
+            // reduced by workers pinned to the same node. This way the pages faulted in by
+            // the scan are allocated on that node and stay local for subsequent queries.
+            return nodeShard(tableToken.getTableId() % nodeCount, shardCount, nodeCount, rnd);
+        }
+        return rnd.nextInt(shardCount);
+    }
+
     private boolean stealWork(
             RingQueue<PageFrameReduceTask> queue,
             MCSequence reduceSubSeq,
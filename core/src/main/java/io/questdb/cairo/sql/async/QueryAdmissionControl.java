@@ -0,0 +1,84 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.sql.async;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of low priority queries that dispatch page frame reduce tasks to
+ * the worker pool at the same time. Queries that are not admitted reduce page frames
+ * on their own thread and retry admission on every dispatch attempt, so they wait for
+ * a slot without blocking the owner thread.
+ */
+public class QueryAdmissionControl {
+    private final AtomicInteger admittedCount = new AtomicInteger();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final int limit;
+
+    /**
+     * @param limit max number of concurrently admitted queries, zero or negative value disables the limit
+     */
+    public QueryAdmissionControl(int limit) {
+        this.limit = limit;
+    }
+
+    public int getAdmittedCount() {
+        return admittedCount.get();
+    }
+
+    /**
+     * @return number of admission attempts that were turned down since the start
+     */
+    public long getDeferredCount() {
+        return deferredCount.get();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void release() {
+        final int count = admittedCount.decrementAndGet();
+        assert count >= 0;
+    }
+
+    public boolean tryAdmit() {
+        if (limit < 1) {
+            admittedCount.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            final int count = admittedCount.get();
+            if (count >= limit) {
+                deferredCount.incrementAndGet();
+                return false;
+            }
+            if (admittedCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -473,6 +473,8 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                         final long latency = microClock.getTicks() - start;
                         long physicalRowCount = writer.getPhysicallyWrittenRowsSinceLastCommit();
                         metrics.addApplyRowsWritten(rowCount, physicalRowCount, latency);
+                        metrics.addApplyCommit(writer.getSquashedTxnCountSinceLastCommit(), writer.getO3RewrittenBytesSinceLastCommit());
+                        metrics.addApplyPartitionMerge(writer.getO3MergedPartitionsSinceLastCommit(), writer.getO3MaxInflightPartitionsSinceLastCommit());
                         walTelemetryFacade.store(WAL_TXN_DATA_APPLIED, writer.getTableToken(), walId, seqTxn, rowsAdded, physicalRowCount, latency);
                         return rowCount;
                     } else {
@@ -31,10 +31,23 @@ import io.questdb.metrics.MetricsRegistry;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class WalMetrics {
+    private final Counter applyMergedPartitionsCounter;
+    private final Counter applyO3RewrittenBytesCounter;
+    private final Counter applyParallelPartitionMergesCounter;
     private final Counter applyPhysicallyWrittenRowsCounter;
     private final LongGauge applyRowsWriteRateGauge;
     private final Counter applyRowsWrittenCounter;
+    private final Counter applySquashedTransactionsCounter;
+    private final Counter commitTimeCounter;
+    private final Counter commitsCounter;
+    private final Counter compressedSegmentsCounter;
+    private final Counter compressionSavedBytesCounter;
+    private final LongGauge replicaLagMicrosGauge;
+    private final LongGauge replicaLagTransactionsGauge;
+    private final Counter replicaShippedTransactionsCounter;
     private final Counter rowsWrittenCounter;
+    private final Counter sequencerGroupCommitTransactionsCounter;
+    private final Counter sequencerGroupCommitsCounter;
     private final AtomicLong totalRowsWritten = new AtomicLong();
     private final AtomicLong totalRowsWrittenTotalTime = new AtomicLong();
 
@@ -42,7 +55,20 @@ public class WalMetrics {
         this.applyPhysicallyWrittenRowsCounter = metricsRegistry.newCounter("wal_apply_physically_written_rows");
         this.applyRowsWrittenCounter = metricsRegistry.newCounter("wal_apply_written_rows");
         this.applyRowsWriteRateGauge = metricsRegistry.newLongGauge("wal_apply_rows_per_second");
+        this.applySquashedTransactionsCounter = metricsRegistry.newCounter("wal_apply_squashed_transactions");
+        this.applyO3RewrittenBytesCounter = metricsRegistry.newCounter("wal_apply_o3_rewritten_bytes");
+        this.applyMergedPartitionsCounter = metricsRegistry.newCounter("wal_apply_merged_partitions");
+        this.applyParallelPartitionMergesCounter = metricsRegistry.newCounter("wal_apply_parallel_partition_merges");
         this.rowsWrittenCounter = metricsRegistry.newCounter("wal_written_rows");
+        this.commitsCounter = metricsRegistry.newCounter("wal_commits");
+        this.commitTimeCounter = metricsRegistry.newCounter("wal_commit_time_micros");
+        this.compressedSegmentsCounter = metricsRegistry.newCounter("wal_compressed_segments");
+        this.compressionSavedBytesCounter = metricsRegistry.newCounter("wal_compression_saved_bytes");
+        this.sequencerGroupCommitsCounter = metricsRegistry.newCounter("wal_seq_group_commits");
+        this.sequencerGroupCommitTransactionsCounter = metricsRegistry.newCounter("wal_seq_group_commit_transactions");
+        this.replicaShippedTransactionsCounter = metricsRegistry.newCounter("wal_replica_shipped_transactions");
+        this.replicaLagTransactionsGauge = metricsRegistry.newLongGauge("wal_replica_lag_transactions");
+        this.replicaLagMicrosGauge = metricsRegistry.newLongGauge("wal_replica_lag_micros");
     }
 
     public void addApplyRowsWritten(long rows, long physicallyWrittenRows, long timeMicros) {
@@ -54,7 +80,134 @@ public class WalMetrics {
         applyRowsWriteRateGauge.setValue(rowsAppendRate);
     }
 
+    /**
+     * Records a WAL apply commit that merged one or more transactions into the table partitions.
+     *
+     * @param squashedTxnCount number of WAL transactions made visible by the commit, only commits
+     *                         merging more than one transaction are counted as squashed
+     * @param rewrittenBytes   number of bytes written to partition files rewritten by the O3 merge
+     */
+    public void addApplyCommit(long squashedTxnCount, long rewrittenBytes) {
+        if (squashedTxnCount > 1) {
+            applySquashedTransactionsCounter.add(squashedTxnCount);
+        }
+        if (rewrittenBytes > 0) {
+            applyO3RewrittenBytesCounter.add(rewrittenBytes);
+        }
+    }
+
+    /**
+     * Records partitions written by a WAL apply commit.
+     *
+     * @param mergedPartitions      number of partitions the commit wrote to
+     * @param maxInflightPartitions largest number of those partitions merged concurrently, commits
+     *                              merging more than one partition at a time are counted as parallel
+     */
+    public void addApplyPartitionMerge(long mergedPartitions, long maxInflightPartitions) {
+        if (mergedPartitions > 0) {
+            applyMergedPartitionsCounter.add(mergedPartitions);
+        }
+        if (maxInflightPartitions > 1) {
+            applyParallelPartitionMergesCounter.inc();
+        }
+    }
+
+    /**
+     * Records a data commit of a WAL writer, from the segment sync to the transaction becoming durable
+     * in the table sequencer. Average commit latency is the ratio of the time and commit counters.
+     */
+    public void addCommit(long timeMicros) {
+        commitsCounter.inc();
+        commitTimeCounter.add(timeMicros);
+    }
+
+    public void addReplicaShippedTransactions(long count) {
+        replicaShippedTransactionsCounter.add(count);
+    }
+
     public void addRowsWritten(long rows) {
         rowsWrittenCounter.add(rows);
     }
+
+    /**
+     * Records a rolled WAL segment compressed by the segment compression job.
+     *
+     * @param savedBytes disk space saved by the compression
+     */
+    public void addSegmentCompressed(long savedBytes) {
+        compressedSegmentsCounter.inc();
+        compressionSavedBytesCounter.add(savedBytes);
+    }
+
+    /**
+     * Records a flush of a table sequencer transaction log made on behalf of a batch of concurrent
+     * commits. Average batch size is the ratio of the transaction and flush counters.
+     *
+     * @param txnCount number of transactions made durable by the flush
+     */
+    public void addSequencerGroupCommit(long txnCount) {
+        sequencerGroupCommitsCounter.inc();
+        sequencerGroupCommitTransactionsCounter.add(txnCount);
+    }
+
+    public long getApplyMergedPartitions() {
+        return applyMergedPartitionsCounter.getValue();
+    }
+
+    public long getApplyO3RewrittenBytes() {
+        return applyO3RewrittenBytesCounter.getValue();
+    }
+
+    public long getApplyParallelPartitionMerges() {
+        return applyParallelPartitionMergesCounter.getValue();
+    }
+
+    public long getApplySquashedTransactions() {
+        return applySquashedTransactionsCounter.getValue();
+    }
+
+    public long getCommitCount() {
+        return commitsCounter.getValue();
+    }
+
+    public long getCommitTimeMicros() {
+        return commitTimeCounter.getValue();
+    }
+
+    public long getCompressedSegments() {
+        return compressedSegmentsCounter.getValue();
+    }
+
+    public long getCompressionSavedBytes() {
+        return compressionSavedBytesCounter.getValue();
+    }
+
+    public long getReplicaLagMicros() {
+        return replicaLagMicrosGauge.getValue();
+    }
+
+    public long getReplicaLagTransactions() {
+        return replicaLagTransactionsGauge.getValue();
+    }
+
+    public long getReplicaShippedTransactions() {
+        return replicaShippedTransactionsCounter.getValue();
+    }
+
+    public long getSequencerGroupCommitTransactions() {
+        return sequencerGroupCommitTransactionsCounter.getValue();
+    }
+
+    public long getSequencerGroupCommits() {
+        return sequencerGroupCommitsCounter.getValue();
+    }
+
+    /**
+     * Publishes replica lag of the most lagging table, both as the number of primary transactions
+     * not yet applied by the replica and as the age of the oldest such transaction.
+     */
+    public void setReplicaLag(long transactions, long micros) {
+        replicaLagTransactionsGauge.setValue(transactions);
+        replicaLagMicrosGauge.setValue(micros);
+    }
 }
@@ -48,6 +48,7 @@ public class WalReader implements Closeable {
     private static final Log LOG = LogFactory.getLog(WalReader.class);
     private final int columnCount;
     private final ObjList<MemoryCMR> columns;
+    private final CairoConfiguration configuration;
     private final WalDataCursor dataCursor = new WalDataCursor();
     private final WalEventCursor eventCursor;
     private final WalEventReader events;
@@ -64,6 +65,7 @@ public class WalReader implements Closeable {
         this.tableName = tableToken.getTableName();
         this.walName = Chars.toString(walName);
         this.rowCount = rowCount;
+        this.configuration = configuration;
 
         ff = configuration.getFilesFacade();
         path = new Path();
@@ -134,8 +136,9 @@ public class WalReader implements Closeable {
     }
 
     public CharSequence getSymbolValue(int col, int key) {
-        IntObjHashMap<CharSequence> symbolMap = symbolMaps.getQuick(col);
-        return symbolMap.get(key);
+        // segments with null-only values of a new symbol column have no symbol map
+        IntObjHashMap<CharSequence> symbolMap = symbolMaps.getQuiet(col);
+        return symbolMap != null ? symbolMap.get(key) : null;
     }
 
     public String getTableName() {
@@ -153,7 +156,16 @@ public class WalReader implements Closeable {
     public long openSegment() {
         try {
             if (ff.exists(path.$())) {
-                openSegmentColumns();
+                final int segmentPathLen = path.size();
+                try {
+                    openSegmentColumns();
+                } catch (CairoException e) {
+                    // column files of a lagging segment may have been compressed by the WAL writer
+                    if (!e.errnoReadPathDoesNotExist() || !WalSegmentCompressionUtils.restoreSegment(configuration, path.trimTo(segmentPathLen))) {
+                        throw e;
+                    }
+                    openSegmentColumns();
+                }
                 return rowCount;
             }
             LOG.error().$("open segment failed, segment does not exist on the disk. [path=").$(path).I$();
@@ -0,0 +1,503 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.BinaryAlterSerializer;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypeDriver;
+import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.TxReader;
+import io.questdb.cairo.wal.seq.TableMetadataChange;
+import io.questdb.cairo.wal.seq.SequencerMetadata;
+import io.questdb.cairo.wal.seq.TableMetadataChangeLog;
+import io.questdb.cairo.wal.seq.TableSequencerAPI;
+import io.questdb.cairo.wal.seq.TableTransactionLog;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.engine.ops.AlterOperation;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SimpleWaitingLock;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.CharSequenceLongHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.wal.WalUtils.*;
+
+/**
+ * Makes this instance a read replica of another instance, the primary, whose database root is
+ * reachable as a directory, e.g. a shared mount or a local folder synchronised from an object store.
+ * <p>
+ * The replica is seeded from a checkpoint of the primary. For every local WAL table the job reads
+ * the primary's table transaction log, copies WAL segments referenced by the new transactions and
+ * registers the transactions with the local sequencer, keeping transaction numbers identical to
+ * the primary. Structure changes are replayed from the primary's metadata change log. The local
+ * {@link ApplyWal2TableJob} then applies the transactions to the replica's own partitions, exactly
+ * as it does for locally written WAL transactions.
+ * <p>
+ * Segment files are copied incrementally. For every file the job remembers how many bytes are
+ * already copied and ships only the bytes committed by the next transaction, as derived from the
+ * segment's event index and metadata. File length on the primary is not a reliable indicator,
+ * WAL writers extend files by whole pages ahead of the data.
+ * <p>
+ * Replica lag of the most lagging table is published via {@link WalMetrics}.
+ */
+public class WalReplicaJob extends SynchronizedJob implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(WalReplicaJob.class);
+    private final BinaryAlterSerializer alterSerializer = new BinaryAlterSerializer();
+    private final MicrosecondClock clock;
+    private final CairoConfiguration configuration;
+    // segment that is being copied, keyed by table dir and WAL
+    private final CharSequenceLongHashMap copiedSegments = new CharSequenceLongHashMap();
+    // bytes of segment files already copied from the primary, keyed by table dir, WAL, segment and file name
+    private final CharSequenceLongHashMap copiedSizes = new CharSequenceLongHashMap();
+    private final ObjHashSet<TableToken> droppedOnPrimary = new ObjHashSet<>();
+    private final CairoEngine engine;
+    private final WalEventReader eventReader;
+    private final FilesFacade ff;
+    private final StringSink fileKey = new StringSink();
+    private final StringSink fileName = new StringSink();
+    private final Path localPath = new Path();
+    private final WalMetrics metrics;
+    private final MillisecondClock millisecondClock;
+    private final int mkDirMode;
+    private final long pollInterval;
+    private final SequencerMetadata segmentMetadata;
+    private final Path seqPath = new Path();
+    private final Path sourcePath = new Path();
+    private final CharSequence sourceRoot;
+    private final long spinLockTimeout;
+    private final ObjHashSet<TableToken> tableTokenBucket = new ObjHashSet<>();
+    private final TxReader txReader;
+    private final SimpleWaitingLock walPurgeRunLock;
+    private long lastRun;
+    private long maxLagMicros;
+    private long maxLagTxns;
+
+    public WalReplicaJob(CairoEngine engine, @Nullable SimpleWaitingLock walPurgeRunLock) {
+        this.engine = engine;
+        this.configuration = engine.getConfiguration();
+        this.sourceRoot = configuration.getWalReplicaSourceRoot();
+        assert sourceRoot != null;
+        this.walPurgeRunLock = walPurgeRunLock;
+        this.ff = configuration.getFilesFacade();
+        this.clock = configuration.getMicrosecondClock();
+        this.millisecondClock = configuration.getMillisecondClock();
+        this.spinLockTimeout = configuration.getSpinLockTimeout();
+        this.pollInterval = configuration.getWalReplicaPollInterval() * 1000;
+        this.mkDirMode = configuration.getMkDirMode();
+        this.metrics = engine.getMetrics().walMetrics();
+        this.txReader = new TxReader(ff);
+        this.eventReader = new WalEventReader(ff);
+        this.segmentMetadata = new SequencerMetadata(ff, true);
+        this.lastRun = clock.getTicks() - pollInterval;
+    }
+
+    @Override
+    public void close() {
+        Misc.free(txReader);
+        Misc.free(eventReader);
+        Misc.free(segmentMetadata);
+        Misc.free(localPath);
+        Misc.free(seqPath);
+        Misc.free(sourcePath);
+    }
+
+    /**
+     * Ships new transactions of all WAL tables from the primary, regardless of the poll interval.
+     *
+     * @return true when at least one transaction was shipped
+     */
+    public boolean poll() {
+        // WAL purge must not delete copied segments before their transactions are registered
+        if (walPurgeRunLock != null && !walPurgeRunLock.tryLock()) {
+            return false;
+        }
+        try {
+            boolean shipped = false;
+            maxLagTxns = 0;
+            maxLagMicros = 0;
+            engine.getTableTokens(tableTokenBucket, false);
+            for (int i = 0, n = tableTokenBucket.size(); i < n; i++) {
+                final TableToken tableToken = tableTokenBucket.get(i);
+                if (!tableToken.isWal() || tableToken.isSystem() || droppedOnPrimary.contains(tableToken)) {
+                    continue;
+                }
+                try {
+                    shipped |= followTable(tableToken);
+                } catch (CairoException e) {
+                    LOG.error().$("could not follow primary table [table=").utf8(tableToken.getDirName())
+                            .$(", msg=").$(e.getFlyweightMessage())
+                            .$(", errno=").$(e.getErrno())
+                            .I$();
+                }
+            }
+            metrics.setReplicaLag(maxLagTxns, maxLagMicros);
+            return shipped;
+        } finally {
+            if (walPurgeRunLock != null) {
+                walPurgeRunLock.unlock();
+            }
+        }
+    }
+
+    private void copySegment(TableToken tableToken, int walId, int segmentId, long segmentTxn) {
+        sourcePath.of(sourceRoot).concat(tableToken.getDirName()).concat(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        localPath.of(configuration.getRoot()).concat(tableToken.getDirName()).concat(WAL_NAME_BASE).put(walId).slash().put(segmentId).slash();
+        if (!ff.exists(localPath.$()) && ff.mkdirs(localPath, mkDirMode) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not create replica WAL segment directory [path=").put(localPath).put(']');
+        }
+        localPath.trimTo(localPath.size() - 1);
+
+        fileKey.clear();
+        fileKey.put(tableToken.getDirName()).put(Files.SEPARATOR).put(WAL_NAME_BASE).put(walId);
+        forgetPreviousSegment(segmentId);
+        fileKey.put(Files.SEPARATOR).put(segmentId).put(Files.SEPARATOR);
+
+        final int sourceLen = sourcePath.size();
+        final int localLen = localPath.size();
+        try {
+            // segment metadata is small and is rewritten in place on structure changes
+            copySegmentFileRange(TableUtils.META_FILE_NAME, 0, -1, sourceLen, localLen);
+
+            // event index has an entry for the end of every committed transaction
+            final long eventIndexSize = (segmentTxn + 2) << 3;
+            copySegmentFile(EVENT_INDEX_FILE_NAME, eventIndexSize, eventIndexSize, sourceLen, localLen);
+            final long eventSize = readEventSize(segmentTxn, sourceLen);
+            // The event file header holds the max txn of the segment and the file always ends with the
+            // length of the next record, both are overwritten by later transactions and are copied again.
+            copySegmentFileRange(EVENT_FILE_NAME, 0, WALE_HEADER_SIZE, sourceLen, localLen);
+            copySegmentFile(EVENT_FILE_NAME, eventSize + Integer.BYTES, eventSize, sourceLen, localLen);
+
+            final long rowCount = readSegmentRowCount(segmentTxn, localLen);
+            if (rowCount > 0) {
+                copySegmentColumns(rowCount, sourceLen, localLen);
+            }
+        } finally {
+            sourcePath.trimTo(sourceLen);
+            localPath.trimTo(localLen);
+        }
+    }
+
+    private void copySegmentColumns(long rowCount, int sourceLen, int localLen) {
+        segmentMetadata.open(localPath, localLen, null);
+        try {
+            for (int i = 0, n = segmentMetadata.getColumnCount(); i < n; i++) {
+                final int columnType = segmentMetadata.getColumnType(i);
+                if (columnType < 0) {
+                    continue;
+                }
+                final CharSequence columnName = segmentMetadata.getColumnName(i);
+                if (ColumnType.isVarSize(columnType)) {
+                    final ColumnTypeDriver driver = ColumnType.getDriver(columnType);
+                    final long auxSize = driver.getAuxVectorSize(rowCount);
+                    fileName.clear();
+                    fileName.put(columnName).put(".i");
+                    copySegmentFile(fileName, auxSize, auxSize, sourceLen, localLen);
+                    final long dataSize = readVarDataSize(driver, auxSize, rowCount, localLen);
+                    fileName.clear();
+                    fileName.put(columnName).put(".d");
+                    copySegmentFile(fileName, dataSize, dataSize, sourceLen, localLen);
+                } else {
+                    long dataSize = rowCount << ColumnType.pow2SizeOf(columnType);
+                    if (i == segmentMetadata.getTimestampIndex()) {
+                        // designated timestamp is stored along with the row id in WAL
+                        dataSize <<= 1;
+                    }
+                    fileName.clear();
+                    fileName.put(columnName).put(".d");
+                    copySegmentFile(fileName, dataSize, dataSize, sourceLen, localLen);
+                }
+            }
+        } finally {
+            segmentMetadata.clear();
+        }
+    }
+
+    /**
+     * Copies the segment file up to the given size, starting from the size copied by previous calls.
+     *
+     * @param name          file name within the segment directory
+     * @param size          size of the file committed on the primary
+     * @param finalisedSize size of the prefix that is not going to change on the primary anymore
+     */
+    private void copySegmentFile(CharSequence name, long size, long finalisedSize, int sourceLen, int localLen) {
+        final int keyLen = fileKey.length();
+        fileKey.put(name);
+        try {
+            final int keyIndex = copiedSizes.keyIndex(fileKey);
+            final long copiedSize = keyIndex < 0 ? copiedSizes.valueAt(keyIndex) : 0;
+            if (size > copiedSize) {
+                copySegmentFileRange(name, copiedSize, size, sourceLen, localLen);
+            }
+            if (finalisedSize > copiedSize) {
+                copiedSizes.putAt(keyIndex, fileKey, finalisedSize);
+            }
+        } finally {
+            fileKey.clear(keyLen);
+        }
+    }
+
+    private void copySegmentFileRange(CharSequence name, long lo, long hi, int sourceLen, int localLen) {
+        final LPSZ source = sourcePath.trimTo(sourceLen).concat(name).$();
+        final long sourceFd = TableUtils.openRO(ff, source, LOG);
+        try {
+            if (hi < 0) {
+                hi = ff.length(sourceFd);
+            }
+            final LPSZ local = localPath.trimTo(localLen).concat(name).$();
+            final long localFd = TableUtils.openRW(ff, local, LOG, configuration.getWriterFileOpenOpts());
+            try {
+                // Segment files are written in place rather than truncated, so that WAL readers
+                // of the apply job can keep their mappings of the earlier content.
+                final long len = hi - lo;
+                if (len > 0 && ff.copyData(sourceFd, localFd, lo, lo, len) != len) {
+                    throw CairoException.critical(ff.errno()).put("could not copy WAL segment file [from=").put(source)
+                            .put(", to=").put(local)
+                            .put(", offset=").put(lo)
+                            .put(", size=").put(len)
+                            .put(']');
+                }
+            } finally {
+                ff.close(localFd);
+            }
+        } finally {
+            ff.close(sourceFd);
+            sourcePath.trimTo(sourceLen);
+            localPath.trimTo(localLen);
+        }
+    }
+
+    private boolean followTable(TableToken tableToken) {
+        seqPath.of(sourceRoot).concat(tableToken.getDirName()).concat(SEQ_DIR);
+        final int seqPathLen = seqPath.size();
+        final boolean knownToPrimary = ff.exists(seqPath.concat(TXNLOG_FILE_NAME).$());
+        seqPath.trimTo(seqPathLen);
+        if (!knownToPrimary) {
+            return false;
+        }
+
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final long localTxn = sequencerAPI.lastTxn(tableToken);
+        final long appliedTxn = Math.min(readAppliedTxn(tableToken), localTxn);
+        long shippedCount = 0;
+        long oldestUnappliedTimestamp = Long.MAX_VALUE;
+        long primaryTxn = localTxn;
+
+        try (TransactionLogCursor cursor = TableTransactionLog.getCursorRO(ff, seqPath, Math.max(appliedTxn, 0))) {
+            while (cursor.hasNext()) {
+                final long txn = cursor.getTxn();
+                if (txn > localTxn) {
+                    if (!shipTransaction(tableToken, cursor)) {
+                        break;
+                    }
+                    shippedCount++;
+                }
+                if (oldestUnappliedTimestamp == Long.MAX_VALUE) {
+                    oldestUnappliedTimestamp = cursor.getCommitTimestamp();
+                }
+                primaryTxn = txn;
+            }
+        }
+
+        if (shippedCount > 0) {
+            metrics.addReplicaShippedTransactions(shippedCount);
+            LOG.info().$("shipped transactions from primary [table=").utf8(tableToken.getDirName())
+                    .$(", fromTxn=").$(localTxn + 1)
+                    .$(", toTxn=").$(localTxn + shippedCount)
+                    .I$();
+        }
+
+        if (primaryTxn > appliedTxn) {
+            maxLagTxns = Math.max(maxLagTxns, primaryTxn - appliedTxn);
+            maxLagMicros = Math.max(maxLagMicros, clock.getTicks() - oldestUnappliedTimestamp);
+        }
+        return shippedCount > 0;
+    }
+
+    private void forgetPreviousSegment(int segmentId) {
+        // fileKey holds the WAL directory of the table, WALs move to the next segment and never go back
+        final int keyIndex = copiedSegments.keyIndex(fileKey);
+        if (keyIndex < 0) {
+            final long previousSegmentId = copiedSegments.valueAt(keyIndex);
+            if (previousSegmentId == segmentId) {
+                return;
+            }
+            final int walLen = fileKey.length();
+            fileKey.put(Files.SEPARATOR).put(previousSegmentId).put(Files.SEPARATOR);
+            final ObjList<CharSequence> keys = copiedSizes.keys();
+            for (int i = keys.size() - 1; i > -1; i--) {
+                if (Chars.startsWith(keys.getQuick(i), fileKey)) {
+                    copiedSizes.remove(keys.getQuick(i));
+                }
+            }
+            fileKey.clear(walLen);
+        }
+        copiedSegments.putAt(keyIndex, fileKey, segmentId);
+    }
+
+    private long readAppliedTxn(TableToken tableToken) {
+        final LPSZ txnPath = localPath.of(configuration.getRoot()).concat(tableToken).concat(TableUtils.TXN_FILE_NAME).$();
+        if (!ff.exists(txnPath)) {
+            return -1;
+        }
+        try (TxReader reader = txReader.ofRO(txnPath, PartitionBy.NONE)) {
+            TableUtils.safeReadTxn(reader, millisecondClock, spinLockTimeout);
+            return reader.getSeqTxn();
+        }
+    }
+
+    private long readEventSize(long segmentTxn, int sourceLen) {
+        final LPSZ eventIndex = sourcePath.trimTo(sourceLen).concat(EVENT_INDEX_FILE_NAME).$();
+        final long fd = TableUtils.openRO(ff, eventIndex, LOG);
+        try {
+            final long size = ff.readNonNegativeLong(fd, (segmentTxn + 1) << 3);
+            if (size < WALE_HEADER_SIZE + Integer.BYTES) {
+                throw CairoException.critical(ff.errno()).put("primary WAL segment does not have txn [path=").put(eventIndex)
+                        .put(", segmentTxn=").put(segmentTxn)
+                        .put(']');
+            }
+            return size;
+        } finally {
+            ff.close(fd);
+            sourcePath.trimTo(sourceLen);
+        }
+    }
+
+    private long readSegmentRowCount(long segmentTxn, int localLen) {
+        // this also checks that the copied event file has the transaction
+        try {
+            final WalEventCursor eventCursor = eventReader.of(localPath.trimTo(localLen), WAL_FORMAT_VERSION, segmentTxn);
+            if (!eventCursor.hasNext() || eventCursor.getTxn() != segmentTxn) {
+                throw CairoException.critical(0).put("copied WAL segment does not have txn [path=").put(localPath)
+                        .put(", segmentTxn=").put(segmentTxn)
+                        .put(']');
+            }
+            return eventCursor.getType() == WalTxnType.DATA ? eventCursor.getDataInfo().getEndRowID() : 0;
+        } finally {
+            eventReader.close();
+            localPath.trimTo(localLen);
+        }
+    }
+
+    private long readVarDataSize(ColumnTypeDriver driver, long auxSize, long rowCount, int localLen) {
+        final LPSZ aux = localPath.trimTo(localLen).concat(fileName).$();
+        final long fd = TableUtils.openRO(ff, aux, LOG);
+        try {
+            final long addr = TableUtils.mapRO(ff, fd, auxSize, MemoryTag.MMAP_TABLE_WAL_READER);
+            try {
+                return driver.getDataVectorSizeAt(addr, rowCount - 1);
+            } finally {
+                ff.munmap(addr, auxSize, MemoryTag.MMAP_TABLE_WAL_READER);
+            }
+        } finally {
+            ff.close(fd);
+            localPath.trimTo(localLen);
+        }
+    }
+
+    private boolean shipTransaction(TableToken tableToken, TransactionLogCursor cursor) {
+        final TableSequencerAPI sequencerAPI = engine.getTableSequencerAPI();
+        final int walId = cursor.getWalId();
+        final long txn;
+        if (walId > 0) {
+            final int segmentId = cursor.getSegmentId();
+            copySegment(tableToken, walId, segmentId, cursor.getSegmentTxn());
+            if (cursor.getVersion() == WAL_SEQUENCER_FORMAT_VERSION_V1) {
+                // V1 logs do not store timestamp ranges, the transaction is then applied without O3 lag
+                txn = sequencerAPI.nextTxn(tableToken, walId, cursor.getStructureVersion(), segmentId, cursor.getSegmentTxn(), 0, 0, 0);
+            } else {
+                txn = sequencerAPI.nextTxn(
+                        tableToken,
+                        walId,
+                        cursor.getStructureVersion(),
+                        segmentId,
+                        cursor.getSegmentTxn(),
+                        cursor.getTxnMinTimestamp(),
+                        cursor.getTxnMaxTimestamp(),
+                        cursor.getTxnRowCount()
+                );
+            }
+        } else if (walId == METADATA_WALID) {
+            final long structureVersion = cursor.getStructureVersion();
+            try (
+                    TableMetadataChangeLog changeLog = TableTransactionLog.getTableMetadataChangeLogRO(
+                            ff,
+                            seqPath,
+                            structureVersion - 1,
+                            structureVersion,
+                            alterSerializer
+                    )
+            ) {
+                if (!changeLog.hasNext()) {
+                    throw CairoException.critical(0).put("structure change is missing in primary transaction log [structureVersion=")
+                            .put(structureVersion).put(']');
+                }
+                final TableMetadataChange change = changeLog.next();
+                txn = sequencerAPI.nextStructureTxn(tableToken, structureVersion - 1, (AlterOperation) change);
+            }
+        } else {
+            // The table is dropped on the primary. The replica keeps serving the last state of the table.
+            LOG.info().$("table is dropped on primary, stopped following [table=").utf8(tableToken.getDirName()).I$();
+            droppedOnPrimary.add(tableToken);
+            return false;
+        }
+
+        if (txn != cursor.getTxn()) {
+            throw CairoException.critical(0).put("replica transaction log diverged from primary [table=").put(tableToken.getDirName())
+                    .put(", primaryTxn=").put(cursor.getTxn())
+                    .put(", replicaTxn=").put(txn)
+                    .put(']');
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long now = clock.getTicks();
+        if (lastRun + pollInterval > now) {
+            return false;
+        }
+        lastRun = now;
+        return poll();
+    }
+}
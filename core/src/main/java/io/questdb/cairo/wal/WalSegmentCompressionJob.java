@@ -0,0 +1,127 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.wal.seq.SequencerMetadata;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.AbstractQueueConsumerJob;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.Path;
+import io.questdb.tasks.WalSegmentCompressionTask;
+
+/**
+ * Compresses column files of the WAL segments rolled by WAL writers while the apply job lags behind,
+ * see {@link WalSegmentCompressionUtils}. Compression runs on the shared worker pool rather than on
+ * the segment roll path of the writers. The job holds the segment lock while compressing, so that
+ * the segment cannot be purged underneath it, and skips segments the apply job has caught up with.
+ */
+public class WalSegmentCompressionJob extends AbstractQueueConsumerJob<WalSegmentCompressionTask> implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(WalSegmentCompressionJob.class);
+    private final CairoConfiguration configuration;
+    private final CairoEngine engine;
+    private final FilesFacade ff;
+    private final Path lockPath = new Path();
+    private final SequencerMetadata metadata;
+    private final Path path = new Path();
+
+    public WalSegmentCompressionJob(CairoEngine engine) {
+        super(engine.getMessageBus().getWalSegmentCompressionQueue(), engine.getMessageBus().getWalSegmentCompressionSubSeq());
+        this.engine = engine;
+        this.configuration = engine.getConfiguration();
+        this.ff = configuration.getFilesFacade();
+        this.metadata = new SequencerMetadata(ff, true);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(metadata);
+        Misc.free(lockPath);
+        Misc.free(path);
+    }
+
+    private void compressSegment(TableToken tableToken, int walId, int segmentId) {
+        path.of(configuration.getRoot()).concat(tableToken).concat(WalUtils.WAL_NAME_BASE).put(walId).slash().put(segmentId);
+        final int segmentPathLen = path.size();
+        if (!ff.exists(path.$())) {
+            // already applied and purged
+            return;
+        }
+        lockPath.of(path);
+        TableUtils.lockName(lockPath);
+        final long lockFd = TableUtils.lock(ff, lockPath.$(), false);
+        if (lockFd == -1) {
+            // segment is being purged
+            return;
+        }
+        try {
+            if (!ff.exists(path.trimTo(segmentPathLen).$())) {
+                // purged before the lock was taken, do not leave the lock file behind
+                ff.removeQuiet(lockPath.$());
+                return;
+            }
+            metadata.open(path, segmentPathLen, tableToken);
+            try {
+                final long savedBytes = WalSegmentCompressionUtils.compressSegment(configuration, path.trimTo(segmentPathLen), metadata);
+                if (savedBytes > 0) {
+                    engine.getMetrics().walMetrics().addSegmentCompressed(savedBytes);
+                }
+            } finally {
+                metadata.clear();
+            }
+        } catch (CairoException e) {
+            // the segment stays uncompressed, it is still consistent
+            LOG.error().$("could not compress WAL segment [path=").$(path.trimTo(segmentPathLen))
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+        } finally {
+            ff.close(lockFd);
+        }
+    }
+
+    @Override
+    protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
+        final WalSegmentCompressionTask task = queue.get(cursor);
+        final TableToken tableToken = task.getTableToken();
+        final int walId = task.getWalId();
+        final int segmentId = task.getSegmentId();
+        final long segmentTxn = task.getSegmentTxn();
+        subSeq.done(cursor);
+
+        if (!engine.isTableDropped(tableToken)
+                && engine.getTableSequencerAPI().getTxnTracker(tableToken).getWriterTxn() < segmentTxn) {
+            compressSegment(tableToken, walId, segmentId);
+        }
+        return true;
+    }
+}
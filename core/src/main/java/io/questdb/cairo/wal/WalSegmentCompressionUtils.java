@@ -0,0 +1,410 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.wal;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.CommitMode;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.TableRecordMetadata;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.ObjList;
+import io.questdb.std.Os;
+import io.questdb.std.Transient;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Zip;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8s;
+
+import static io.questdb.cairo.TableUtils.dFile;
+import static io.questdb.cairo.TableUtils.iFile;
+
+/**
+ * Compresses column files of closed WAL segments that are expected to wait long for the apply job,
+ * and restores them when the segment is read.
+ * <p>
+ * Each column file is deflated into a file with {@link #COMPRESSED_FILE_SUFFIX} suffix, prefixed with
+ * the original file length. Originals are removed under the segment compression lock. Readers open the
+ * column files as usual and call {@link #restoreSegment(CairoConfiguration, Path)} only when a column file
+ * turns out to be missing, so uncompressed segments are read without any overhead.
+ * <p>
+ * Files are deflated with {@link Zip}, the only compression codec the native library exposes to Java.
+ * LZ4 and zstd are linked into it as Parquet page codecs only.
+ */
+public class WalSegmentCompressionUtils {
+    public static final String COMPRESSED_FILE_SUFFIX = ".z";
+    public static final String COMPRESSION_LOCK_FILE_NAME = "_compress.lock";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final Log LOG = LogFactory.getLog(WalSegmentCompressionUtils.class);
+    private static final int MAX_INPUT_CHUNK = 1 << 30;
+    private static final int MEMORY_TAG = MemoryTag.MMAP_TABLE_WAL_READER;
+    private static final String TMP_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Compresses column files of a closed WAL segment. Must be called by the owner of the segment lock,
+     * after the WAL writer has rolled the segment, see {@link WalSegmentCompressionJob}.
+     *
+     * @param configuration configuration, segments with column files smaller than
+     *                      {@link CairoConfiguration#getWalSegmentCompressionMinSize()} in total are not compressed
+     * @param segmentPath   path to the segment directory, left unchanged
+     * @param metadata      metadata of the segment columns
+     * @return number of disk bytes saved, 0 when the segment was left uncompressed
+     */
+    public static long compressSegment(CairoConfiguration configuration, @Transient Path segmentPath, TableRecordMetadata metadata) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int commitMode = configuration.getCommitMode();
+        final int segmentPathLen = segmentPath.size();
+        try (Path dstPath = new Path()) {
+            long totalSize = 0;
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                final int columnType = metadata.getColumnType(i);
+                if (columnType > 0) {
+                    totalSize += Math.max(0, ff.length(dFile(segmentPath.trimTo(segmentPathLen), metadata.getColumnName(i))));
+                    if (ColumnType.isVarSize(columnType)) {
+                        totalSize += Math.max(0, ff.length(iFile(segmentPath.trimTo(segmentPathLen), metadata.getColumnName(i))));
+                    }
+                }
+            }
+            if (totalSize == 0 || totalSize < configuration.getWalSegmentCompressionMinSize()) {
+                return 0;
+            }
+
+            long compressedSize = 0;
+            final long zStream = Zip.deflateInit();
+            if (zStream < 0) {
+                throw CairoException.nonCritical().put("could not initialise deflate stream [ret=").put(zStream).put(']');
+            }
+            final long buf = Unsafe.malloc(BUFFER_SIZE, MemoryTag.NATIVE_TABLE_WAL_WRITER);
+            try {
+                for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                    final int columnType = metadata.getColumnType(i);
+                    if (columnType > 0) {
+                        final CharSequence columnName = metadata.getColumnName(i);
+                        compressedSize += compressFile(ff, dFile(segmentPath.trimTo(segmentPathLen), columnName), dstPath, zStream, buf, commitMode);
+                        if (ColumnType.isVarSize(columnType)) {
+                            compressedSize += compressFile(ff, iFile(segmentPath.trimTo(segmentPathLen), columnName), dstPath, zStream, buf, commitMode);
+                        }
+                    }
+                }
+            } finally {
+                Unsafe.free(buf, BUFFER_SIZE, MemoryTag.NATIVE_TABLE_WAL_WRITER);
+                Zip.deflateEnd(zStream);
+            }
+
+            final long lockFd = TableUtils.lock(ff, segmentPath.trimTo(segmentPathLen).concat(COMPRESSION_LOCK_FILE_NAME).$(), false);
+            if (lockFd == -1) {
+                // the segment is being restored, keep it uncompressed
+                removeCompressedFiles(ff, segmentPath.trimTo(segmentPathLen), metadata, dstPath);
+                return 0;
+            }
+            long savedSize = 0;
+            try {
+                for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                    final int columnType = metadata.getColumnType(i);
+                    if (columnType > 0) {
+                        final CharSequence columnName = metadata.getColumnName(i);
+                        savedSize += removeOriginal(ff, dFile(segmentPath.trimTo(segmentPathLen), columnName), dstPath);
+                        if (ColumnType.isVarSize(columnType)) {
+                            savedSize += removeOriginal(ff, iFile(segmentPath.trimTo(segmentPathLen), columnName), dstPath);
+                        }
+                    }
+                }
+            } finally {
+                ff.close(lockFd);
+            }
+            savedSize -= compressedSize;
+            LOG.info().$("compressed WAL segment [path=").$(segmentPath.trimTo(segmentPathLen))
+                    .$(", size=").$(totalSize)
+                    .$(", saved=").$(savedSize)
+                    .I$();
+            return savedSize;
+        } finally {
+            segmentPath.trimTo(segmentPathLen);
+        }
+    }
+
+    /**
+     * Restores compressed column files of a WAL segment, waiting for a concurrent compression of the
+     * segment to finish.
+     *
+     * @param configuration configuration
+     * @param segmentPath   path to the segment directory, left unchanged
+     * @return true when at least one column file was restored
+     */
+    public static boolean restoreSegment(CairoConfiguration configuration, @Transient Path segmentPath) {
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int segmentPathLen = segmentPath.size();
+        if (!ff.exists(segmentPath.concat(COMPRESSION_LOCK_FILE_NAME).$())) {
+            segmentPath.trimTo(segmentPathLen);
+            return false;
+        }
+
+        final MillisecondClock clock = configuration.getMillisecondClock();
+        final long deadline = clock.getTicks() + configuration.getSpinLockTimeout();
+        long lockFd;
+        while ((lockFd = TableUtils.lock(ff, segmentPath.$(), false)) == -1) {
+            // compressing WAL writer holds the lock while removing the originals
+            if (clock.getTicks() > deadline) {
+                segmentPath.trimTo(segmentPathLen);
+                throw CairoException.critical(ff.errno()).put("could not lock compressed WAL segment [path=").put(segmentPath).put(']');
+            }
+            Os.pause();
+        }
+        try (Path srcPath = new Path(); Path dstPath = new Path()) {
+            final ObjList<String> compressedFiles = new ObjList<>();
+            final StringSink nameSink = new StringSink();
+            final long p = ff.findFirst(segmentPath.trimTo(segmentPathLen).$());
+            if (p > 0) {
+                try {
+                    do {
+                        if (ff.findType(p) == Files.DT_FILE) {
+                            nameSink.clear();
+                            Utf8s.utf8ToUtf16Z(ff.findName(p), nameSink);
+                            if (Chars.endsWith(nameSink, COMPRESSED_FILE_SUFFIX)) {
+                                compressedFiles.add(nameSink.toString());
+                            }
+                        }
+                    } while (ff.findNext(p) > 0);
+                } finally {
+                    ff.findClose(p);
+                }
+            }
+            if (compressedFiles.size() == 0) {
+                return false;
+            }
+
+            final long zStream = Zip.inflateInit(true);
+            if (zStream < 0) {
+                throw CairoException.nonCritical().put("could not initialise inflate stream [ret=").put(zStream).put(']');
+            }
+            final long buf = Unsafe.malloc(BUFFER_SIZE, MemoryTag.NATIVE_TABLE_WAL_WRITER);
+            try {
+                for (int i = 0, n = compressedFiles.size(); i < n; i++) {
+                    final String compressedFile = compressedFiles.getQuick(i);
+                    final int nameLen = compressedFile.length() - COMPRESSED_FILE_SUFFIX.length();
+                    srcPath.of(segmentPath).concat(compressedFile);
+                    dstPath.of(segmentPath).concat(compressedFile, 0, nameLen);
+                    if (!ff.exists(dstPath.$())) {
+                        dstPath.put(TMP_FILE_SUFFIX);
+                        decompressFile(ff, srcPath.$(), dstPath.$(), zStream, buf);
+                        srcPath.of(segmentPath).concat(compressedFile, 0, nameLen);
+                        if (ff.rename(dstPath.$(), srcPath.$()) != Files.FILES_RENAME_OK) {
+                            throw CairoException.critical(ff.errno()).put("could not rename restored WAL column file [from=")
+                                    .put(dstPath).put(", to=").put(srcPath).put(']');
+                        }
+                        srcPath.put(COMPRESSED_FILE_SUFFIX);
+                    }
+                    ff.removeQuiet(srcPath.$());
+                }
+            } finally {
+                Unsafe.free(buf, BUFFER_SIZE, MemoryTag.NATIVE_TABLE_WAL_WRITER);
+                Zip.inflateEnd(zStream);
+            }
+            LOG.info().$("restored compressed WAL segment [path=").$(segmentPath.trimTo(segmentPathLen))
+                    .$(", files=").$(compressedFiles.size())
+                    .I$();
+            return true;
+        } finally {
+            ff.close(lockFd);
+            segmentPath.trimTo(segmentPathLen);
+        }
+    }
+
+    private static long compressFile(FilesFacade ff, LPSZ src, Path dstPath, long zStream, long buf, int commitMode) {
+        final long srcFd = TableUtils.openRO(ff, src, LOG);
+        long srcAddr = 0;
+        long srcSize = 0;
+        long dstFd = -1;
+        try {
+            srcSize = ff.length(srcFd);
+            if (srcSize <= 0) {
+                return 0;
+            }
+            srcAddr = TableUtils.mapRO(ff, srcFd, srcSize, MEMORY_TAG);
+
+            dstPath.of(src).put(COMPRESSED_FILE_SUFFIX).put(TMP_FILE_SUFFIX);
+            ff.removeQuiet(dstPath.$());
+            dstFd = TableUtils.openRW(ff, dstPath.$(), LOG, CairoConfiguration.O_NONE);
+
+            Unsafe.getUnsafe().putLong(buf, srcSize);
+            long dstOffset = writeFully(ff, dstFd, buf, HEADER_SIZE, 0);
+
+            Zip.deflateReset(zStream);
+            long srcOffset = 0;
+            do {
+                final int chunk = (int) Math.min(srcSize - srcOffset, MAX_INPUT_CHUNK);
+                final boolean last = srcOffset + chunk == srcSize;
+                Zip.setInput(zStream, srcAddr + srcOffset, chunk);
+                int ret;
+                do {
+                    ret = Zip.deflate(zStream, buf, BUFFER_SIZE, last);
+                    final int len = BUFFER_SIZE - Zip.availOut(zStream);
+                    if (ret < 0 && (ret != Zip.Z_BUF_ERROR || len != 0)) {
+                        throw CairoException.critical(0).put("could not compress WAL column file [ret=").put(ret)
+                                .put(", file=").put(src).put(']');
+                    }
+                    dstOffset += writeFully(ff, dstFd, buf, len, dstOffset);
+                } while (Zip.availIn(zStream) > 0 || (last && ret != Zip.Z_STREAM_END));
+                srcOffset += chunk;
+            } while (srcOffset < srcSize);
+
+            if (dstOffset >= srcSize) {
+                // not worth it, keep the original
+                ff.close(dstFd);
+                dstFd = -1;
+                ff.removeQuiet(dstPath.$());
+                return 0;
+            }
+            if (commitMode != CommitMode.NOSYNC) {
+                ff.fsync(dstFd);
+            }
+            ff.close(dstFd);
+            dstFd = -1;
+
+            final int len = dstPath.size();
+            final Path compressedPath = Path.getThreadLocal2(dstPath).trimTo(len - TMP_FILE_SUFFIX.length());
+            if (ff.rename(dstPath.$(), compressedPath.$()) != Files.FILES_RENAME_OK) {
+                throw CairoException.critical(ff.errno()).put("could not rename compressed WAL column file [from=")
+                        .put(dstPath).put(", to=").put(compressedPath).put(']');
+            }
+            return dstOffset;
+        } finally {
+            if (dstFd != -1) {
+                ff.close(dstFd);
+                ff.removeQuiet(dstPath.$());
+            }
+            if (srcAddr != 0) {
+                ff.munmap(srcAddr, srcSize, MEMORY_TAG);
+            }
+            ff.close(srcFd);
+        }
+    }
+
+    private static void decompressFile(FilesFacade ff, LPSZ src, LPSZ dst, long zStream, long buf) {
+        final long srcFd = TableUtils.openRO(ff, src, LOG);
+        long srcAddr = 0;
+        long srcSize = 0;
+        long dstFd = -1;
+        try {
+            srcSize = ff.length(srcFd);
+            if (srcSize < HEADER_SIZE) {
+                throw CairoException.critical(0).put("compressed WAL column file is too short [file=").put(src).put(']');
+            }
+            srcAddr = TableUtils.mapRO(ff, srcFd, srcSize, MEMORY_TAG);
+            final long dstSize = Unsafe.getUnsafe().getLong(srcAddr);
+
+            ff.removeQuiet(dst);
+            dstFd = TableUtils.openRW(ff, dst, LOG, CairoConfiguration.O_NONE);
+
+            Zip.inflateReset(zStream);
+            long srcOffset = HEADER_SIZE;
+            long dstOffset = 0;
+            while (srcOffset < srcSize) {
+                final int chunk = (int) Math.min(srcSize - srcOffset, MAX_INPUT_CHUNK);
+                Zip.setInput(zStream, srcAddr + srcOffset, chunk);
+                int len;
+                do {
+                    len = Zip.inflate(zStream, buf, BUFFER_SIZE, false);
+                    if (len < 0) {
+                        if (len != Zip.Z_BUF_ERROR) {
+                            throw CairoException.critical(0).put("could not decompress WAL column file [ret=").put(len)
+                                    .put(", file=").put(src).put(']');
+                        }
+                        len = 0;
+                    }
+                    dstOffset += writeFully(ff, dstFd, buf, len, dstOffset);
+                } while (Zip.availIn(zStream) > 0 || len == BUFFER_SIZE);
+                srcOffset += chunk;
+            }
+            if (dstOffset != dstSize) {
+                throw CairoException.critical(0).put("compressed WAL column file is corrupt [file=").put(src)
+                        .put(", expectedSize=").put(dstSize)
+                        .put(", actualSize=").put(dstOffset)
+                        .put(']');
+            }
+        } catch (Throwable th) {
+            if (dstFd != -1) {
+                ff.close(dstFd);
+                dstFd = -1;
+                ff.removeQuiet(dst);
+            }
+            throw th;
+        } finally {
+            if (dstFd != -1) {
+                ff.close(dstFd);
+            }
+            if (srcAddr != 0) {
+                ff.munmap(srcAddr, srcSize, MEMORY_TAG);
+            }
+            ff.close(srcFd);
+        }
+    }
+
+    private static void removeCompressedFiles(FilesFacade ff, Path segmentPath, TableRecordMetadata metadata, Path compressedPath) {
+        final int segmentPathLen = segmentPath.size();
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (columnType > 0) {
+                final CharSequence columnName = metadata.getColumnName(i);
+                ff.removeQuiet(compressedPath.of(dFile(segmentPath.trimTo(segmentPathLen), columnName)).put(COMPRESSED_FILE_SUFFIX).$());
+                if (ColumnType.isVarSize(columnType)) {
+                    ff.removeQuiet(compressedPath.of(iFile(segmentPath.trimTo(segmentPathLen), columnName)).put(COMPRESSED_FILE_SUFFIX).$());
+                }
+            }
+        }
+        segmentPath.trimTo(segmentPathLen);
+    }
+
+    private static long removeOriginal(FilesFacade ff, LPSZ original, Path compressedPath) {
+        if (ff.exists(compressedPath.of(original).put(COMPRESSED_FILE_SUFFIX).$())) {
+            final long size = ff.length(original);
+            if (ff.removeQuiet(original)) {
+                return size;
+            }
+        }
+        return 0;
+    }
+
+    private static long writeFully(FilesFacade ff, long fd, long buf, long len, long offset) {
+        if (len > 0 && ff.write(fd, buf, len, offset) != len) {
+            throw CairoException.critical(ff.errno()).put("could not write compressed WAL column file [fd=").put(fd)
+                    .put(", offset=").put(offset)
+                    .put(", len=").put(len)
+                    .put(']');
+        }
+        return len;
+    }
+}
@@ -61,6 +61,7 @@ public class WalWriter implements TableWriterAPI {
     private static final Runnable NOOP = () -> {
     };
     private final AlterOperation alterOp = new AlterOperation();
+    private final IntList blockSymbolKeys = new IntList();
     private final ObjList<MemoryMA> columns;
     private final CairoConfiguration configuration;
     private final DdlListener ddlListener;
@@ -84,6 +85,7 @@ public class WalWriter implements TableWriterAPI {
     private final BoolList symbolMapNullFlags = new BoolList();
     private final ObjList<SymbolMapReader> symbolMapReaders = new ObjList<>();
     private final ObjList<CharSequenceIntHashMap> symbolMaps = new ObjList<>();
+    private final StringSink symbolUtf16Sink = new StringSink();
     private final int timestampIndex;
     private final ObjList<Utf8StringIntHashMap> utf8SymbolMaps = new ObjList<>();
     private final Uuid uuid = new Uuid();
@@ -203,6 +205,82 @@ public class WalWriter implements TableWriterAPI {
         );
     }
 
+    /**
+     * Appends all rows of the block to the current segment as a part of the current
+     * transaction. Fixed-size columns are copied as whole blocks and dictionary-encoded
+     * symbols are resolved once per distinct value rather than once per row. Table
+     * columns the block does not have are filled with nulls.
+     * <p>
+     * Timestamps are validated before any column is written, invalid block leaves
+     * the writer usable. Failure to write the block distresses the writer.
+     *
+     * @param block column block, column indexes must match writer metadata
+     */
+    public void appendColumnBlock(ColumnBlock block) {
+        checkDistressed();
+        final long rowCount = block.getRowCount();
+        if (rowCount < 1) {
+            return;
+        }
+        if (timestampIndex == -1 || !block.hasColumn(timestampIndex)) {
+            throw CairoException.nonCritical().put("designated timestamp column is missing from the column block");
+        }
+
+        final long timestampAddr = block.getFixedColumnAddress(timestampIndex);
+        long minTimestamp = txnMinTimestamp;
+        long maxTimestamp = txnMaxTimestamp;
+        boolean outOfOrder = txnOutOfOrder;
+        for (long r = 0; r < rowCount; r++) {
+            final long timestamp = Unsafe.getUnsafe().getLong(timestampAddr + (r << 3));
+            if (timestamp < Timestamps.O3_MIN_TS) {
+                throw CairoException.nonCritical().put("timestamp before 1970-01-01 is not allowed");
+            }
+            if (timestamp > maxTimestamp) {
+                maxTimestamp = timestamp;
+            } else {
+                outOfOrder |= (maxTimestamp != timestamp);
+            }
+            if (timestamp < minTimestamp) {
+                minTimestamp = timestamp;
+            }
+        }
+
+        try {
+            if (rollSegmentOnNextRow) {
+                rollSegment();
+                rollSegmentOnNextRow = false;
+            }
+
+            for (int i = 0; i < columnCount; i++) {
+                final int columnType = metadata.getColumnType(i);
+                if (columnType > 0) {
+                    if (i == timestampIndex) {
+                        final MemoryMA timestampMem = getDataColumn(i);
+                        for (long r = 0; r < rowCount; r++) {
+                            timestampMem.putLong128(Unsafe.getUnsafe().getLong(timestampAddr + (r << 3)), segmentRowCount + r);
+                        }
+                    } else if (block.hasColumn(i)) {
+                        appendBlockColumn(block, i, columnType, rowCount);
+                    } else {
+                        final Runnable nullSetter = nullSetters.getQuick(i);
+                        for (long r = 0; r < rowCount; r++) {
+                            nullSetter.run();
+                        }
+                    }
+                    rowValueIsNotNull.setQuick(i, segmentRowCount + rowCount - 1);
+                }
+            }
+
+            txnMinTimestamp = minTimestamp;
+            txnMaxTimestamp = maxTimestamp;
+            txnOutOfOrder = outOfOrder;
+            segmentRowCount += rowCount;
+        } catch (Throwable e) {
+            distressed = true;
+            throw e;
+        }
+    }
+
     @Override
     public long apply(AlterOperation alterOp, boolean contextAllowsAnyStructureChanges) throws AlterTableContextException {
         try {
@@ -264,6 +342,7 @@ public class WalWriter implements TableWriterAPI {
         try {
             if (inTransaction()) {
                 isCommittingData = true;
+                final long commitStartMicros = configuration.getMicrosecondClock().getTicks();
                 final long rowsToCommit = getUncommittedRowCount();
                 lastSegmentTxn = events.appendData(currentTxnStartRowNum, segmentRowCount, txnMinTimestamp, txnMaxTimestamp, txnOutOfOrder);
                 // flush disk before getting next txn
@@ -280,6 +359,7 @@ public class WalWriter implements TableWriterAPI {
                 resetDataTxnProperties();
                 mayRollSegmentOnNextRow();
                 metrics.walMetrics().addRowsWritten(rowsToCommit);
+                metrics.walMetrics().addCommit(configuration.getMicrosecondClock().getTicks() - commitStartMicros);
                 return seqTxn;
             }
         } catch (CairoException ex) {
@@ -747,6 +827,78 @@ public class WalWriter implements TableWriterAPI {
         apply(alterOp, true);
     }
 
+    private void appendBlockColumn(ColumnBlock block, int columnIndex, int columnType, long rowCount) {
+        final MemoryMA dataMem = getDataColumn(columnIndex);
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.SYMBOL:
+                appendBlockSymbols(block, columnIndex, dataMem, rowCount);
+                break;
+            case ColumnType.STRING: {
+                final MemoryMA auxMem = getAuxColumn(columnIndex);
+                for (long r = 0; r < rowCount; r++) {
+                    final DirectUtf8Sequence value = block.getUtf8(columnIndex, r);
+                    auxMem.putLong(value != null ? dataMem.putStrUtf8(value) : dataMem.putNullStr());
+                }
+                break;
+            }
+            case ColumnType.VARCHAR: {
+                final MemoryMA auxMem = getAuxColumn(columnIndex);
+                for (long r = 0; r < rowCount; r++) {
+                    VarcharTypeDriver.appendValue(auxMem, dataMem, block.getUtf8(columnIndex, r));
+                }
+                break;
+            }
+            case ColumnType.BINARY: {
+                final MemoryMA auxMem = getAuxColumn(columnIndex);
+                for (long r = 0; r < rowCount; r++) {
+                    auxMem.putLong(dataMem.putBin(block.getBin(columnIndex, r)));
+                }
+                break;
+            }
+            default:
+                if (ColumnType.isVarSize(columnType)) {
+                    throw CairoException.nonCritical().put("column type is not supported by column block append [column=")
+                            .put(metadata.getColumnName(columnIndex))
+                            .put(", type=").put(ColumnType.nameOf(columnType))
+                            .put(']');
+                }
+                dataMem.putBlockOfBytes(block.getFixedColumnAddress(columnIndex), rowCount * ColumnType.sizeOf(columnType));
+                break;
+        }
+    }
+
+    private void appendBlockSymbols(ColumnBlock block, int columnIndex, MemoryMA dataMem, long rowCount) {
+        final SymbolMapReader symbolMapReader = symbolMapReaders.getQuick(columnIndex);
+        if (symbolMapReader == null) {
+            throw CairoException.nonCritical().put("symbol table is not available for column block append [table=").put(tableToken.getTableName())
+                    .put(", column=").put(metadata.getColumnName(columnIndex))
+                    .put(']');
+        }
+        if (block.isDictionaryEncoded(columnIndex)) {
+            // dictionary entries are resolved lazily, once per block, so that
+            // unused entries do not end up in the table's symbol map
+            blockSymbolKeys.setAll(block.getSymbolDictionarySize(columnIndex), SymbolTable.VALUE_NOT_FOUND);
+            for (long r = 0; r < rowCount; r++) {
+                final int blockKey = block.getSymbolKey(columnIndex, r);
+                int key;
+                if (blockKey != ColumnBlock.NULL_KEY) {
+                    key = blockSymbolKeys.getQuick(blockKey);
+                    if (key == SymbolTable.VALUE_NOT_FOUND) {
+                        key = resolveSymbolUtf8(columnIndex, block.getSymbolDictionaryValue(columnIndex, blockKey), symbolMapReader);
+                        blockSymbolKeys.setQuick(blockKey, key);
+                    }
+                } else {
+                    key = resolveSymbol(columnIndex, null, symbolMapReader);
+                }
+                dataMem.putInt(key);
+            }
+        } else {
+            for (long r = 0; r < rowCount; r++) {
+                dataMem.putInt(resolveSymbolUtf8(columnIndex, block.getUtf8(columnIndex, r), symbolMapReader));
+            }
+        }
+    }
+
     private void applyMetadataChangeLog(long structureVersionHi) {
         try (TableMetadataChangeLog log = sequencer.getMetadataChangeLog(tableToken, getColumnStructureVersion())) {
             long structVer = getColumnStructureVersion();
@@ -1276,6 +1428,7 @@ public class WalWriter implements TableWriterAPI {
         final long oldSegmentLockFd = segmentLockFd;
         segmentLockFd = -1;
         final long oldSegmentRows = segmentRowCount;
+        boolean opened = false;
         try {
             currentTxnStartRowNum = 0;
             rowValueIsNotNull.fill(0, columnCount, -1);
@@ -1320,9 +1473,14 @@ public class WalWriter implements TableWriterAPI {
             }
             lastSegmentTxn = 0;
             LOG.info().$("opened WAL segment [path=").$substr(pathRootSize, path).$('\'').I$();
+            opened = true;
         } finally {
             if (oldSegmentLockFd > -1) {
                 releaseSegmentLock(oldSegmentId, oldSegmentLockFd, oldSegmentRows);
+                // compression job locks the segment, hence it is handed over after the lock is released
+                if (opened && oldSegmentRows > 0 && configuration.isWalSegmentCompressionEnabled()) {
+                    requestSegmentCompression(oldSegmentId);
+                }
             }
             path.trimTo(pathSize);
         }
@@ -1423,6 +1581,14 @@ public class WalWriter implements TableWriterAPI {
         }
     }
 
+    private void requestSegmentCompression(int segmentId) {
+        // only segments waiting long for the apply job are worth the CPU cost
+        final long applyLag = lastSeqTxn - sequencer.getTxnTracker(tableToken).getWriterTxn();
+        if (lastSeqTxn != NO_TXN && applyLag >= configuration.getWalSegmentCompressionMinLagTxnCount()) {
+            sequencer.notifySegmentRolled(tableToken, lastSeqTxn, walId, segmentId);
+        }
+    }
+
     private void resetDataTxnProperties() {
         currentTxnStartRowNum = segmentRowCount;
         txnMinTimestamp = Long.MAX_VALUE;
@@ -1453,6 +1619,46 @@ public class WalWriter implements TableWriterAPI {
         }
     }
 
+    private int resolveSymbol(int columnIndex, CharSequence utf16Value, SymbolMapReader symbolMapReader) {
+        int key;
+        if (utf16Value != null) {
+            final CharSequenceIntHashMap utf16Map = symbolMaps.getQuick(columnIndex);
+            final int index = utf16Map.keyIndex(utf16Value);
+            if (index > -1) {
+                key = symbolMapReader.keyOf(utf16Value);
+                if (key == SymbolTable.VALUE_NOT_FOUND) {
+                    // Add it to in-memory symbol map
+                    // Locally added symbols must have a continuous range of keys
+                    final int initialSymCount = initialSymbolCounts.get(columnIndex);
+                    key = initialSymCount + localSymbolIds.postIncrement(columnIndex);
+                }
+                // Chars.toString used as value is a parser buffer memory slice or mapped memory of symbolMapReader
+                utf16Map.putAt(index, Chars.toString(utf16Value), key);
+            } else {
+                key = utf16Map.valueAt(index);
+            }
+        } else {
+            key = SymbolTable.VALUE_IS_NULL;
+            symbolMapNullFlags.set(columnIndex, true);
+        }
+        return key;
+    }
+
+    private int resolveSymbolUtf8(int columnIndex, DirectUtf8Sequence utf8Value, SymbolMapReader symbolMapReader) {
+        if (utf8Value == null) {
+            return resolveSymbol(columnIndex, null, symbolMapReader);
+        }
+        final Utf8StringIntHashMap utf8Map = utf8SymbolMaps.getQuick(columnIndex);
+        final int index = utf8Map.keyIndex(utf8Value);
+        if (index < 0) {
+            return utf8Map.valueAt(index);
+        }
+        // slow path, symbol is not in utf8 cache
+        final int key = resolveSymbol(columnIndex, Utf8s.directUtf8ToUtf16(utf8Value, symbolUtf16Sink), symbolMapReader);
+        utf8Map.putAt(index, Utf8String.newInstance(utf8Value), key);
+        return key;
+    }
+
     private void rollLastWalEventRecord(int newSegmentId, long uncommittedRows) {
         if (isCommittingData) {
             // Sometimes we only want to add a column without committing the data in the current wal segments in ILP.
@@ -2104,7 +2310,6 @@ public class WalWriter implements TableWriterAPI {
     }
 
     private class RowImpl implements TableWriter.Row {
-        private final StringSink tempSink = new StringSink();
         private final Utf8StringSink tempUtf8Sink = new Utf8StringSink();
         private long timestamp;
 
@@ -2301,19 +2506,8 @@ public class WalWriter implements TableWriterAPI {
             // otherwise it will write nothing.
             final SymbolMapReader symbolMapReader = symbolMapReaders.getQuick(columnIndex);
             if (symbolMapReader != null) {
-                Utf8StringIntHashMap utf8Map = utf8SymbolMaps.getQuick(columnIndex);
-                int index = utf8Map.keyIndex(value);
-                if (index < 0) {
-                    getPrimaryColumn(columnIndex).putInt(utf8Map.valueAt(index));
-                    setRowValueNotNull(columnIndex);
-                } else {
-                    // slow path, symbol is not in utf8 cache
-                    utf8Map.putAt(
-                            index,
-                            Utf8String.newInstance(value),
-                            putSymUtf8Slow(columnIndex, value, symbolMapReader)
-                    );
-                }
+                getPrimaryColumn(columnIndex).putInt(resolveSymbolUtf8(columnIndex, value, symbolMapReader));
+                setRowValueNotNull(columnIndex);
             } else {
                 throw new UnsupportedOperationException();
             }
@@ -2368,44 +2562,9 @@ public class WalWriter implements TableWriterAPI {
             return columns.getQuick(getAuxColumnOffset(columnIndex));
         }
 
-        private int putSym0(int columnIndex, CharSequence utf16Value, SymbolMapReader symbolMapReader) {
-            int key;
-            if (utf16Value != null) {
-                final CharSequenceIntHashMap utf16Map = symbolMaps.getQuick(columnIndex);
-                final int index = utf16Map.keyIndex(utf16Value);
-                if (index > -1) {
-                    key = symbolMapReader.keyOf(utf16Value);
-                    if (key == SymbolTable.VALUE_NOT_FOUND) {
-                        // Add it to in-memory symbol map
-                        // Locally added symbols must have a continuous range of keys
-                        final int initialSymCount = initialSymbolCounts.get(columnIndex);
-                        key = initialSymCount + localSymbolIds.postIncrement(columnIndex);
-                    }
-                    // Chars.toString used as value is a parser buffer memory slice or mapped memory of symbolMapReader
-                    utf16Map.putAt(index, Chars.toString(utf16Value), key);
-                } else {
-                    key = utf16Map.valueAt(index);
-                }
-            } else {
-                key = SymbolTable.VALUE_IS_NULL;
-                symbolMapNullFlags.set(columnIndex, true);
-            }
-
-            getPrimaryColumn(columnIndex).putInt(key);
+        private void putSym0(int columnIndex, CharSequence utf16Value, SymbolMapReader symbolMapReader) {
+            getPrimaryColumn(columnIndex).putInt(resolveSymbol(columnIndex, utf16Value, symbolMapReader));
             setRowValueNotNull(columnIndex);
-            return key;
-        }
-
-        private int putSymUtf8Slow(
-                int columnIndex,
-                DirectUtf8Sequence utf8Value,
-                SymbolMapReader symbolMapReader
-        ) {
-            return putSym0(
-                    columnIndex,
-                    Utf8s.directUtf8ToUtf16(utf8Value, tempSink),
-                    symbolMapReader
-            );
         }
 
         private void setTimestamp(long value) {
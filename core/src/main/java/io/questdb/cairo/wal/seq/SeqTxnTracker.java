@@ -38,6 +38,8 @@ public class SeqTxnTracker implements O3JobParallelismRegulator {
     private static final long SEQ_TXN_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "seqTxn");
     private static final long SUSPENDED_STATE_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "suspendedState");
     private static final long WRITER_TXN_OFFSET = Unsafe.getFieldOffset(SeqTxnTracker.class, "writerTxn");
+    // configured cap on partitions merged concurrently, applied on top of memory pressure regulation
+    private final int maxPartitionParallelism;
     private volatile String errorMessage = "";
     private volatile ErrorTag errorTag = ErrorTag.NONE;
     private int maxRecordedInflightPartitions = 1;
@@ -53,6 +55,14 @@ public class SeqTxnTracker implements O3JobParallelismRegulator {
     private long walBackoffUntil = -1;
     private volatile long writerTxn = -1;
 
+    public SeqTxnTracker() {
+        this(0);
+    }
+
+    public SeqTxnTracker(int maxPartitionParallelism) {
+        this.maxPartitionParallelism = maxPartitionParallelism > 0 ? maxPartitionParallelism : Integer.MAX_VALUE;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
@@ -62,7 +72,7 @@ public class SeqTxnTracker implements O3JobParallelismRegulator {
     }
 
     public int getMaxO3MergeParallelism() {
-        return Math.max(1, memoryPressureRegulationValue);
+        return Math.max(1, Math.min(maxPartitionParallelism, memoryPressureRegulationValue));
     }
 
     public int getMemoryPressureLevel() {
@@ -62,7 +62,7 @@ public class TableSequencerAPI implements QuietCloseable {
         this.engine = engine;
         this.inactiveTtlUs = configuration.getInactiveWalWriterTTL() * 1000;
         this.recreateDistressedSequencerAttempts = configuration.getWalRecreateDistressedSequencerAttempts();
-        this.createTxnTracker = dir -> new SeqTxnTracker();
+        this.createTxnTracker = dir -> new SeqTxnTracker(configuration.getWalApplyPartitionParallelism());
     }
 
     public void applyRename(TableToken tableToken) {
@@ -288,6 +288,10 @@ public class TableSequencerAPI implements QuietCloseable {
             } finally {
                 tableSequencer.unlockWrite();
             }
+            if (txn != TableSequencer.NO_TXN) {
+                // flushed outside the write lock, so that concurrent committers share the flush
+                tableSequencer.syncTxn(txn);
+            }
             return txn;
         }
     }
@@ -306,6 +310,10 @@ public class TableSequencerAPI implements QuietCloseable {
         engine.getWalListener().segmentClosed(tableToken, txn, walId, segmentId);
     }
 
+    public void notifySegmentRolled(TableToken tableToken, long txn, int walId, int segmentId) {
+        engine.notifyWalSegmentRolled(tableToken, walId, segmentId, txn);
+    }
+
     @TestOnly
     public void openSequencer(TableToken tableToken) {
         try (TableSequencerImpl sequencer = openSequencerLocked(tableToken, SequencerLockType.WRITE)) {
@@ -33,6 +33,7 @@ import io.questdb.cairo.MetadataCacheWriter;
 import io.questdb.cairo.TableStructure;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.wal.WalDirectoryPolicy;
+import io.questdb.cairo.wal.WalMetrics;
 import io.questdb.cairo.wal.WalUtils;
 import io.questdb.griffin.engine.ops.AlterOperation;
 import io.questdb.log.Log;
@@ -46,7 +47,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static io.questdb.cairo.wal.WalUtils.SEQ_DIR;
 import static io.questdb.cairo.wal.WalUtils.WAL_INDEX_FILE_NAME;
@@ -55,6 +58,9 @@ public class TableSequencerImpl implements TableSequencer {
     private static final Log LOG = LogFactory.getLog(TableSequencerImpl.class);
     private final static BinaryAlterSerializer alterCommandWalFormatter = new BinaryAlterSerializer();
     private final CairoEngine engine;
+    private final boolean groupCommitEnabled;
+    private final ReentrantLock groupCommitLock = new ReentrantLock();
+    private final long groupCommitWindowNanos;
     private final SequencerMetadata metadata;
     private final SequencerMetadataService metadataSvc;
     private final MicrosecondClock microClock;
@@ -66,9 +72,11 @@ public class TableSequencerImpl implements TableSequencer {
     private final TableTransactionLog tableTransactionLog;
     private final WalDirectoryPolicy walDirectoryPolicy;
     private final IDGenerator walIdGenerator;
+    private final WalMetrics walMetrics;
     volatile long releaseTime = Long.MAX_VALUE;
     private volatile boolean closed = false;
     private boolean distressed = false;
+    private volatile long syncedTxn = -1;
     private TableToken tableToken;
 
     TableSequencerImpl(
@@ -81,6 +89,9 @@ public class TableSequencerImpl implements TableSequencer {
         this.seqTxnTracker = txnTracker;
         final CairoConfiguration configuration = engine.getConfiguration();
         this.walDirectoryPolicy = engine.getWalDirectoryPolicy();
+        this.walMetrics = engine.getMetrics().walMetrics();
+        this.groupCommitEnabled = configuration.isWalSequencerGroupCommitEnabled();
+        this.groupCommitWindowNanos = configuration.getWalSequencerGroupCommitWindow() * 1000;
         final FilesFacade ff = configuration.getFilesFacade();
         try {
             path = new Path();
@@ -120,6 +131,7 @@ public class TableSequencerImpl implements TableSequencer {
             walIdGenerator.open(path);
             metadata.open(path, rootLen, tableToken);
             tableTransactionLog.open(path);
+            syncedTxn = tableTransactionLog.lastTxn();
         } catch (CairoException ex) {
             closeLocked();
             if (ex.isTableDropped()) {
@@ -181,7 +193,7 @@ public class TableSequencerImpl implements TableSequencer {
         checkDropped();
         final long timestamp = microClock.getTicks();
         final long txn = tableTransactionLog.addEntry(getStructureVersion(), WalUtils.DROP_TABLE_WALID,
-                0, 0, timestamp, 0, 0, 0);
+                0, 0, timestamp, 0, 0, 0, true);
         metadata.dropTable();
 
         try (MetadataCacheWriter metadataRW = engine.getMetadataCache().writeLock()) {
@@ -386,7 +398,10 @@ public class TableSequencerImpl implements TableSequencer {
             throw th;
         }
 
-        notifyTxnCommitted(txn);
+        if (!groupCommitEnabled) {
+            // with group commit the apply job is notified once the transaction is durable, see syncTxn()
+            notifyTxnCommitted(txn);
+        }
         engine.getWalListener().dataTxnCommitted(tableToken, txn, timestamp, walId, segmentId, segmentTxn);
         return txn;
     }
@@ -399,6 +414,7 @@ public class TableSequencerImpl implements TableSequencer {
     @Override
     public TableToken reload() {
         tableTransactionLog.reload(path);
+        syncedTxn = tableTransactionLog.lastTxn();
         if (tableTransactionLog.isDropped()) {
             return null;
         }
@@ -457,6 +473,10 @@ public class TableSequencerImpl implements TableSequencer {
         if (closed) {
             return false;
         }
+        if (groupCommitEnabled && syncedTxn < tableTransactionLog.lastTxn()) {
+            // committers waiting for a group flush find the sequencer closed, flush on their behalf
+            tableTransactionLog.syncTxnLog();
+        }
         closed = true;
         Misc.free(metadata);
         Misc.free(tableTransactionLog);
@@ -486,7 +506,7 @@ public class TableSequencerImpl implements TableSequencer {
     ) {
         return tableTransactionLog.addEntry(
                 getStructureVersion(), walId, segmentId, segmentTxn, timestamp,
-                txnMinTimestamp, txnMaxTimestamp, txnRowCount);
+                txnMinTimestamp, txnMaxTimestamp, txnRowCount, !groupCommitEnabled);
     }
 
     private void notifyTxnCommitted(long txn) {
@@ -495,6 +515,47 @@ public class TableSequencerImpl implements TableSequencer {
         }
     }
 
+    /**
+     * Makes the transaction log durable up to the given data transaction and notifies the apply job.
+     * Must be called without holding the sequencer lock. Concurrent committers are coalesced: the first
+     * one to take the group commit lock flushes the log for all transactions appended so far and the
+     * others find their transaction already durable, so there is one flush per batch rather than one per
+     * commit.
+     *
+     * @param txn transaction returned by {@link #nextTxn(long, int, int, int, long, long, long)}
+     */
+    void syncTxn(long txn) {
+        if (!groupCommitEnabled) {
+            return;
+        }
+        if (syncedTxn < txn) {
+            groupCommitLock.lock();
+            try {
+                if (syncedTxn < txn) {
+                    if (groupCommitWindowNanos > 0) {
+                        // let concurrent committers append to the batch
+                        LockSupport.parkNanos(groupCommitWindowNanos);
+                    }
+                    // read lock excludes appends, the log file can be remapped while appending
+                    schemaLock.readLock().lock();
+                    try {
+                        if (!closed) {
+                            final long lastTxn = tableTransactionLog.lastTxn();
+                            tableTransactionLog.syncTxnLog();
+                            walMetrics.addSequencerGroupCommit(lastTxn - syncedTxn);
+                            syncedTxn = lastTxn;
+                        }
+                    } finally {
+                        schemaLock.readLock().unlock();
+                    }
+                }
+            } finally {
+                groupCommitLock.unlock();
+            }
+        }
+        notifyTxnCommitted(txn);
+    }
+
     void readLock() {
         schemaLock.readLock().lock();
     }
@@ -87,6 +87,71 @@ public class TableTransactionLog implements Closeable {
         txnLogFile.sync();
     }
 
+    /**
+     * Opens a read-only cursor over the transaction log located at the given sequencer path. The log
+     * files are never opened for writing, which allows following the log of a table owned by
+     * another instance.
+     *
+     * @param ff    files facade
+     * @param path  path to the sequencer directory of the table
+     * @param txnLo the cursor iterates transactions following this one
+     * @return transaction log cursor, must be closed after use
+     */
+    public static TransactionLogCursor getCursorRO(FilesFacade ff, @Transient Path path, long txnLo) {
+        final int pathLen = path.size();
+        final long logFileFd = TableUtils.openRO(ff, path.concat(TXNLOG_FILE_NAME).$(), LOG);
+        final int formatVersion;
+        final int partTransactionCount;
+        try {
+            formatVersion = ff.readNonNegativeInt(logFileFd, 0);
+            partTransactionCount = ff.readNonNegativeInt(logFileFd, TableTransactionLogFile.SEQ_PART_SIZE_32);
+        } finally {
+            path.trimTo(pathLen);
+            ff.close(logFileFd);
+        }
+
+        switch (formatVersion) {
+            case WAL_SEQUENCER_FORMAT_VERSION_V1:
+                try (TableTransactionLogV1 logFile = new TableTransactionLogV1(ff)) {
+                    return logFile.getCursor(txnLo, path);
+                }
+            case WAL_SEQUENCER_FORMAT_VERSION_V2:
+                if (partTransactionCount < 1) {
+                    throw CairoException.critical(0).put("invalid sequencer file part size [size=").put(partTransactionCount)
+                            .put(", path=").put(path).put(']');
+                }
+                try (TableTransactionLogV2 logFile = new TableTransactionLogV2(ff, partTransactionCount, 0)) {
+                    return logFile.getCursor(txnLo, path);
+                }
+            default:
+                throw CairoException.critical(0).put("unsupported transaction log version [version=").put(formatVersion)
+                        .put(", path=").put(path).put(']');
+        }
+    }
+
+    /**
+     * Read-only counterpart of {@link #getCursorRO(FilesFacade, Path, long)} for the structure changes
+     * stored in the transaction log.
+     *
+     * @param ff                 files facade
+     * @param path               path to the sequencer directory of the table
+     * @param structureVersionLo the log iterates structure changes following this version
+     * @param structureVersionHi last structure version to include
+     * @param serializer         structure change serializer
+     * @return structure change log, must be closed after use
+     */
+    public static TableMetadataChangeLog getTableMetadataChangeLogRO(
+            FilesFacade ff,
+            @Transient Path path,
+            long structureVersionLo,
+            long structureVersionHi,
+            MemorySerializer serializer
+    ) {
+        final TableMetadataChangeLogImpl changeLog = (TableMetadataChangeLogImpl) getTableMetadataChangeLog();
+        changeLog.of(ff, structureVersionLo, serializer, path, structureVersionHi);
+        return changeLog;
+    }
+
     public static long readMaxStructureVersion(FilesFacade ff, Path path) {
         int pathLen = path.size();
         long logFileFd = TableUtils.openRW(ff, path.concat(TXNLOG_FILE_NAME).$(), LOG, CairoConfiguration.O_NONE);
@@ -169,8 +234,12 @@ public class TableTransactionLog implements Closeable {
         return instance;
     }
 
-    long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount) {
-        return lastTxn = txnLogFile.addEntry(structureVersion, walId, segmentId, segmentTxn, timestamp, txnMinTimestamp, txnMaxTimestamp, txnRowCount);
+    long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount, boolean sync) {
+        final long txn = txnLogFile.addEntry(structureVersion, walId, segmentId, segmentTxn, timestamp, txnMinTimestamp, txnMaxTimestamp, txnRowCount);
+        if (sync) {
+            txnLogFile.sync();
+        }
+        return lastTxn = txn;
     }
 
     void beginMetadataChangeEntry(long newStructureVersion, MemorySerializer serializer, Object instance, long timestamp) {
@@ -230,6 +299,10 @@ public class TableTransactionLog implements Closeable {
         return lastTxn;
     }
 
+    void syncTxnLog() {
+        txnLogFile.sync();
+    }
+
     public void open(Path path) {
         if (this.rootPath.size() == 0) {
             assert txnLogFile == null;
@@ -92,7 +92,7 @@ public interface TableTransactionLogFile extends Closeable {
      * @param txnMinTimestamp minimum timestamp in the transaction
      * @param txnMaxTimestamp maximum timestamp in the transaction
      * @param txnRowCount     number of rows in the transaction
-     * @return committed transaction id
+     * @return committed transaction id, the entry is not synced to the disk, see {@link #sync()}
      */
     long addEntry(long structureVersion, int walId, int segmentId, int segmentTxn, long timestamp, long txnMinTimestamp, long txnMaxTimestamp, long txnRowCount);
 
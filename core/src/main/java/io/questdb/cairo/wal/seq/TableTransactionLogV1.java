@@ -87,7 +87,6 @@ public class TableTransactionLogV1 implements TableTransactionLogFile {
         Unsafe.getUnsafe().storeFence();
         long maxTxn = this.maxTxn.incrementAndGet();
         txnMem.putLong(MAX_TXN_OFFSET_64, maxTxn);
-        txnMem.sync(false);
         // Transactions are 1 based here
         return maxTxn;
     }
@@ -33,11 +33,13 @@ import io.questdb.cutlass.line.LineChannel;
 import io.questdb.cutlass.line.LineSenderException;
 import io.questdb.cutlass.line.LineTcpSender;
 import io.questdb.cutlass.line.http.LineHttpSender;
+import io.questdb.cutlass.line.shm.ShmLineChannel;
 import io.questdb.cutlass.line.tcp.DelegatingTlsChannel;
 import io.questdb.cutlass.line.tcp.PlainTcpLineChannel;
 import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.std.Chars;
+import io.questdb.std.FilesFacadeImpl;
 import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 import io.questdb.std.str.StringSink;
@@ -75,7 +77,8 @@ import java.util.concurrent.TimeUnit;
  * a mechanism for passing Sender instances among thread. An object pool could have this role.
  * <br>
  * This client supports both HTTP and TCP protocols. In most cases you should prefer HTTP protocol as it provides
- * stronger transactional guarantees and better feedback in case of errors.
+ * stronger transactional guarantees and better feedback in case of errors. Clients running on the same host as the
+ * server can also use shared memory transport, which bypasses the network stack.
  * <p>
  * Error-handling: Most errors throw an instance of {@link LineSenderException}.
  */
@@ -120,7 +123,14 @@ public interface Sender extends Closeable {
      * @return Builder object to create a new Sender instance.
      */
     static LineSenderBuilder builder(Transport transport) {
-        return new LineSenderBuilder(transport == Transport.HTTP ? LineSenderBuilder.PROTOCOL_HTTP : LineSenderBuilder.PROTOCOL_TCP);
+        switch (transport) {
+            case HTTP:
+                return new LineSenderBuilder(LineSenderBuilder.PROTOCOL_HTTP);
+            case SHM:
+                return new LineSenderBuilder(LineSenderBuilder.PROTOCOL_SHM);
+            default:
+                return new LineSenderBuilder(LineSenderBuilder.PROTOCOL_TCP);
+        }
     }
 
     /**
@@ -136,6 +146,11 @@ public interface Sender extends Closeable {
      * <b>Example 2</b><br>
      * This example creates a Sender instance that connects to a QuestDB server over TCP transport.
      * <code>tcp::addr=localhost:9009;</code>
+     * <br>
+     * <b>Example 3</b><br>
+     * This example creates a Sender instance that writes to shared memory rings of a QuestDB server running on the
+     * same host. The address is the ring directory configured on the server via <code>line.tcp.shm.ring.dir</code>.
+     * <code>shm::addr=/dev/shm/questdb;</code>
      * <p>
      * Refer to <a href="https://questdb.io/docs/reference/clients/overview/">QuestDB documentation</a> for a full list
      * of configuration options.
@@ -363,7 +378,16 @@ public interface Sender extends Closeable {
          * and for use-cases where HTTP transport is not suitable, when communicating with a QuestDB server over a high-latency
          * network
          */
-        TCP
+        TCP,
+
+        /**
+         * Use shared memory transport to communicate with a QuestDB server running on the same host.
+         * <p>
+         * The Sender writes line protocol into a memory-mapped ring file, which the server drains without going
+         * through the network stack. The server address is the ring directory configured on the server via the
+         * <code>line.tcp.shm.ring.dir</code> property. Delivery guarantees are the same as for TCP transport.
+         */
+        SHM
     }
 
     /**
@@ -413,6 +437,7 @@ public interface Sender extends Closeable {
         private static final int DEFAULT_MAXIMUM_BUFFER_CAPACITY = 100 * 1024 * 1024;
         private static final long DEFAULT_MAX_RETRY_NANOS = TimeUnit.SECONDS.toNanos(10); // keep sync with the contract of the configuration method
         private static final long DEFAULT_MIN_REQUEST_THROUGHPUT = 100 * 1024; // 100KB/s, keep in sync with the contract of the configuration method
+        private static final long DEFAULT_SHM_SEND_TIMEOUT_MILLIS = 30_000;
         private static final int DEFAULT_TCP_PORT = 9009;
         private static final int MIN_BUFFER_SIZE = 512 + 1; // challenge size + 1;
         // The PARAMETER_NOT_SET_EXPLICITLY constant is used to detect if a parameter was set explicitly in configuration parameters
@@ -421,6 +446,7 @@ public interface Sender extends Closeable {
         // because this still indicates a user error and silently ignoring it could lead to hard-to-debug issues.
         private static final int PARAMETER_NOT_SET_EXPLICITLY = -1;
         private static final int PROTOCOL_HTTP = 1;
+        private static final int PROTOCOL_SHM = 2;
         private static final int PROTOCOL_TCP = 0;
         private int autoFlushIntervalMillis = PARAMETER_NOT_SET_EXPLICITLY;
         private int autoFlushRows = PARAMETER_NOT_SET_EXPLICITLY;
@@ -487,6 +513,11 @@ public interface Sender extends Closeable {
             if (Chars.isBlank(address)) {
                 throw new LineSenderException("address cannot be empty nor null");
             }
+            if (protocol == PROTOCOL_SHM) {
+                // shared memory address is a directory, it can contain a colon on Windows
+                this.host = address.toString();
+                return this;
+            }
             int portIndex = Chars.indexOf(address, ':');
             if (portIndex + 1 == address.length()) {
                 throw new LineSenderException("invalid address, use IPv4 address or a domain name [address=").put(address).put("]");
@@ -658,6 +689,15 @@ public interface Sender extends Closeable {
                 }
                 return new LineHttpSender(host, port, httpClientConfiguration, tlsConfig, actualAutoFlushRows, httpToken, username, password, actualMaxRetriesNanos, actualMinRequestThroughput, actualAutoFlushIntervalMillis);
             }
+            if (protocol == PROTOCOL_SHM) {
+                final LineChannel channel = new ShmLineChannel(FilesFacadeImpl.INSTANCE, host, DEFAULT_SHM_SEND_TIMEOUT_MILLIS);
+                try {
+                    return new LineTcpSender(channel, bufferCapacity);
+                } catch (Throwable t) {
+                    channel.close();
+                    throw rethrow(t);
+                }
+            }
             assert protocol == PROTOCOL_TCP;
             LineChannel channel = new PlainTcpLineChannel(nf, host, port, bufferCapacity * 2);
             LineTcpSender sender;
@@ -989,7 +1029,7 @@ public interface Sender extends Closeable {
             if (maximumBufferCapacity == PARAMETER_NOT_SET_EXPLICITLY) {
                 maximumBufferCapacity = protocol == PROTOCOL_HTTP ? DEFAULT_MAXIMUM_BUFFER_CAPACITY : bufferCapacity;
             }
-            if (port == PARAMETER_NOT_SET_EXPLICITLY) {
+            if (port == PARAMETER_NOT_SET_EXPLICITLY && protocol != PROTOCOL_SHM) {
                 port = protocol == PROTOCOL_HTTP ? DEFAULT_HTTP_PORT : DEFAULT_TCP_PORT;
             }
             if (tlsValidationMode == null) {
@@ -1047,8 +1087,10 @@ public interface Sender extends Closeable {
             } else if (Chars.equals("tcps", sink)) {
                 tcp();
                 tlsEnabled = true;
+            } else if (Chars.equals("shm", sink)) {
+                shm();
             } else {
-                throw new LineSenderException("invalid schema [schema=").put(sink).put(", supported-schemas=[http, https, tcp, tcps]]");
+                throw new LineSenderException("invalid schema [schema=").put(sink).put(", supported-schemas=[http, https, tcp, tcps, shm]]");
             }
 
             String tcpToken = null;
@@ -1068,7 +1110,7 @@ public interface Sender extends Closeable {
                 if (Chars.equals("addr", sink)) {
                     pos = getValue(configurationString, pos, sink, "address");
                     address(sink);
-                    if (port == PARAMETER_NOT_SET_EXPLICITLY) {
+                    if (port == PARAMETER_NOT_SET_EXPLICITLY && protocol != PROTOCOL_SHM) {
                         port(protocol == PROTOCOL_TCP ? DEFAULT_TCP_PORT : DEFAULT_HTTP_PORT);
                     }
                 } else if (Chars.equals("user", sink)) {
@@ -1126,7 +1168,7 @@ public interface Sender extends Closeable {
                     } else if (protocol == PROTOCOL_HTTP) {
                         httpToken(sink.toString());
                     } else {
-                        throw new AssertionError();
+                        throw new LineSenderException("token is not supported for shared memory transport");
                     }
                 } else if (Chars.equals("retry_timeout", sink)) {
                     pos = getValue(configurationString, pos, sink, "retry_timeout");
@@ -1140,7 +1182,7 @@ public interface Sender extends Closeable {
                     pos = getValue(configurationString, pos, sink, "init_buf_size");
                     int initBufSize = parseIntValue(sink, "init_buf_size");
                     if (autoFlushBytesSet) {
-                        assert protocol == PROTOCOL_TCP;
+                        assert protocol != PROTOCOL_HTTP;
                         if (initBufSize != bufferCapacity) {
                             throw new LineSenderException("TCP transport requires init_buf_size and auto_flush_bytes to be set to the same value [init_buf_size=").put(initBufSize).put(", auto_flush_bytes=").put(bufferCapacity).put(']');
                         }
@@ -1173,8 +1215,8 @@ public interface Sender extends Closeable {
                     }
                     autoFlushIntervalMillis(autoFlushInterval);
                 } else if (Chars.equals("auto_flush_bytes", sink)) {
-                    if (protocol != PROTOCOL_TCP) {
-                        throw new LineSenderException("auto_flush_bytes is only supported for TCP transport");
+                    if (protocol == PROTOCOL_HTTP) {
+                        throw new LineSenderException("auto_flush_bytes is only supported for TCP and shared memory transports");
                     }
                     pos = getValue(configurationString, pos, sink, "auto_flush_bytes");
                     if (Chars.equalsIgnoreCase("off", sink)) {
@@ -1228,12 +1270,14 @@ public interface Sender extends Closeable {
                 } else if (password != null) {
                     throw new LineSenderException("HTTP password is configured, but username is missing");
                 }
-            } else {
+            } else if (protocol == PROTOCOL_TCP) {
                 if (user != null) {
                     enableAuth(user).authToken(tcpToken);
                 } else if (tcpToken != null) {
                     throw new LineSenderException("TCP token is configured, but user is missing");
                 }
+            } else if (user != null || password != null) {
+                throw new LineSenderException("authentication is not supported for shared memory transport");
             }
             return this;
         }
@@ -1254,6 +1298,14 @@ public interface Sender extends Closeable {
             return this;
         }
 
+        private void shm() {
+            if (protocol != PARAMETER_NOT_SET_EXPLICITLY) {
+                throw new LineSenderException("protocol was already configured ")
+                        .put("[protocol=").put(protocol).put("]");
+            }
+            protocol = PROTOCOL_SHM;
+        }
+
         private void tcp() {
             if (protocol != PARAMETER_NOT_SET_EXPLICITLY) {
                 throw new LineSenderException("protocol was already configured ")
@@ -1319,6 +1371,31 @@ public interface Sender extends Closeable {
                 if (autoFlushIntervalMillis != PARAMETER_NOT_SET_EXPLICITLY) {
                     throw new LineSenderException("auto flush interval is not supported for TCP protocol");
                 }
+            } else if (protocol == PROTOCOL_SHM) {
+                if (tlsEnabled) {
+                    throw new LineSenderException("TLS is not supported for shared memory transport");
+                }
+                if (port != PARAMETER_NOT_SET_EXPLICITLY) {
+                    throw new LineSenderException("port is not supported for shared memory transport");
+                }
+                if (keyId != null || username != null || password != null || httpToken != null) {
+                    throw new LineSenderException("authentication is not supported for shared memory transport");
+                }
+                if (autoFlushRows != PARAMETER_NOT_SET_EXPLICITLY) {
+                    throw new LineSenderException("auto flush rows is not supported for shared memory transport");
+                }
+                if (retryTimeoutMillis != PARAMETER_NOT_SET_EXPLICITLY
+                        || httpTimeout != PARAMETER_NOT_SET_EXPLICITLY
+                        || minRequestThroughput != PARAMETER_NOT_SET_EXPLICITLY
+                        || autoFlushIntervalMillis != PARAMETER_NOT_SET_EXPLICITLY) {
+                    throw new LineSenderException("HTTP options are not supported for shared memory transport");
+                }
+                if (maximumBufferCapacity != bufferCapacity) {
+                    throw new LineSenderException("maximum buffer capacity must be the same as initial buffer capacity for shared memory transport")
+                            .put("[maximumBufferCapacity=").put(maximumBufferCapacity)
+                            .put(", initialBufferCapacity=").put(bufferCapacity)
+                            .put("]");
+                }
             } else {
                 throw new LineSenderException("unsupported protocol ")
                         .put("[protocol=").put(protocol).put("]");
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+/**
+ * Identifiers and table slots of the Apache Arrow IPC flatbuffer schema (Schema.fbs, Message.fbs)
+ * shared by the stream writer and reader.
+ */
+final class ArrowConstants {
+    static final int BUFFER_STRUCT_SIZE = 16;
+    static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    static final int DICTIONARY_BATCH_DATA = 1;
+    static final int DICTIONARY_BATCH_ID = 0;
+    static final int DICTIONARY_BATCH_IS_DELTA = 2;
+    static final int DICTIONARY_ENCODING_ID = 0;
+    static final int DICTIONARY_ENCODING_INDEX_TYPE = 1;
+    static final short DATE_UNIT_DAY = 0;
+    static final short DATE_UNIT_MILLISECOND = 1;
+    static final int FIELD_CHILDREN = 5;
+    static final int FIELD_DICTIONARY = 4;
+    static final int FIELD_NAME = 0;
+    static final int FIELD_NODE_STRUCT_SIZE = 16;
+    static final int FIELD_NULLABLE = 1;
+    static final int FIELD_TYPE = 3;
+    static final int FIELD_TYPE_TYPE = 2;
+    static final int FIXED_SIZE_BINARY_BYTE_WIDTH = 0;
+    static final int FLOATING_POINT_PRECISION = 0;
+    static final short FLOATING_POINT_DOUBLE = 2;
+    static final short FLOATING_POINT_SINGLE = 1;
+    static final int INT_BIT_WIDTH = 0;
+    static final int INT_IS_SIGNED = 1;
+    static final byte KIND_BINARY = 4;
+    static final byte KIND_BOOL = 6;
+    static final byte KIND_DATE = 8;
+    static final byte KIND_FIXED_SIZE_BINARY = 15;
+    static final byte KIND_FLOATING_POINT = 3;
+    static final byte KIND_INT = 2;
+    static final byte KIND_LARGE_BINARY = 19;
+    static final byte KIND_LARGE_UTF8 = 20;
+    static final byte KIND_TIMESTAMP = 10;
+    static final byte KIND_UTF8 = 5;
+    static final int MESSAGE_BODY_LENGTH = 3;
+    static final int MESSAGE_HEADER = 2;
+    static final byte MESSAGE_HEADER_DICTIONARY_BATCH = 2;
+    static final byte MESSAGE_HEADER_RECORD_BATCH = 3;
+    static final byte MESSAGE_HEADER_SCHEMA = 1;
+    static final int MESSAGE_HEADER_TYPE = 1;
+    static final int MESSAGE_VERSION = 0;
+    static final short METADATA_VERSION_V4 = 3;
+    static final short METADATA_VERSION_V5 = 4;
+    static final int RECORD_BATCH_BUFFERS = 2;
+    static final int RECORD_BATCH_COMPRESSION = 3;
+    static final int RECORD_BATCH_LENGTH = 0;
+    static final int RECORD_BATCH_NODES = 1;
+    static final int SCHEMA_FIELDS = 1;
+    static final int TIMESTAMP_UNIT = 0;
+    static final short TIMESTAMP_UNIT_MICROSECOND = 2;
+    static final short TIMESTAMP_UNIT_MILLISECOND = 1;
+    static final short TIMESTAMP_UNIT_NANOSECOND = 3;
+    static final short TIMESTAMP_UNIT_SECOND = 0;
+
+    private ArrowConstants() {
+    }
+}
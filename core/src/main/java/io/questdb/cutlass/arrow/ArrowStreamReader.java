@@ -0,0 +1,917 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnBlock;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.cairo.wal.WalWriter;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.DirectBinarySequence;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.DirectUtf8Sequence;
+import io.questdb.std.str.DirectUtf8Sink;
+import io.questdb.std.str.DirectUtf8String;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cutlass.arrow.ArrowConstants.*;
+
+/**
+ * Decodes Apache Arrow IPC stream and appends its record batches to a WAL writer column by
+ * column, see {@link WalWriter#appendColumnBlock(ColumnBlock)}. The stream may arrive in chunks
+ * of arbitrary size, incomplete messages are buffered up to the configured maximum message size.
+ * <p>
+ * Arrow fields are matched to table columns by name, table columns absent from the schema are
+ * filled with nulls. Fixed-width buffers that already match QuestDB layout and have no nulls are
+ * appended straight from the message body. Other fixed-width buffers are converted, applying
+ * null sentinels and time unit scaling, into per-field scratch memory. Dictionary-encoded strings
+ * are handed to the writer as dictionary keys, so each distinct symbol is resolved once per batch.
+ * <p>
+ * 16-byte fixed size binary values are read as a pair of little-endian longs, low half first,
+ * which is the layout produced by {@link ArrowStreamWriter}. Compressed record batches and nested
+ * types are not supported.
+ */
+public class ArrowStreamReader implements ColumnBlock, Mutable, QuietCloseable {
+    private static final long DAY_MICROS = Timestamps.DAY_MICROS;
+    private static final long DAY_MILLIS = DAY_MICROS / 1000;
+    private final ObjList<ArrowDictionary> dictionaries = new ObjList<>();
+    private final FlatBufferReader fb = new FlatBufferReader();
+    private final ObjList<ArrowField> fields = new ObjList<>();
+    private final ObjList<ArrowField> fieldsByColumn = new ObjList<>();
+    private final long maxMessageSize;
+    private final int memoryTag;
+    private final DirectUtf8String nameFlyweight = new DirectUtf8String();
+    private final StringSink nameSink = new StringSink();
+    private long buf;
+    private long bufCapacity;
+    private long bufSize;
+    private RecordMetadata metadata;
+    private long rowCount;
+    private boolean schemaReceived;
+    private boolean streamEnded;
+    private long totalRowCount;
+    private WalWriter writer;
+
+    public ArrowStreamReader(long maxMessageSize, int memoryTag) {
+        assert maxMessageSize > 0;
+        this.maxMessageSize = maxMessageSize;
+        this.memoryTag = memoryTag;
+    }
+
+    @Override
+    public void clear() {
+        Misc.freeObjListAndClear(fields);
+        Misc.freeObjListAndClear(dictionaries);
+        fieldsByColumn.clear();
+        bufSize = 0;
+        metadata = null;
+        writer = null;
+        rowCount = 0;
+        totalRowCount = 0;
+        schemaReceived = false;
+        streamEnded = false;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        if (buf != 0) {
+            buf = Unsafe.free(buf, bufCapacity, memoryTag);
+            bufCapacity = 0;
+        }
+    }
+
+    @Override
+    public @Nullable BinarySequence getBin(int columnIndex, long row) {
+        final ArrowField field = fieldsByColumn.getQuick(columnIndex);
+        if (field.isNull(row)) {
+            return null;
+        }
+        final long lo = field.offsetAt(row);
+        return field.bin.of(field.dataAddr + lo, field.offsetAt(row + 1) - lo);
+    }
+
+    @Override
+    public long getFixedColumnAddress(int columnIndex) {
+        return fieldsByColumn.getQuick(columnIndex).fixedAddr;
+    }
+
+    public long getIngestedRowCount() {
+        return totalRowCount;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getSymbolDictionarySize(int columnIndex) {
+        return fieldsByColumn.getQuick(columnIndex).dictionary.size();
+    }
+
+    @Override
+    public DirectUtf8Sequence getSymbolDictionaryValue(int columnIndex, int key) {
+        return fieldsByColumn.getQuick(columnIndex).dictionary.valueAt(key);
+    }
+
+    @Override
+    public int getSymbolKey(int columnIndex, long row) {
+        final ArrowField field = fieldsByColumn.getQuick(columnIndex);
+        return field.isNull(row) ? NULL_KEY : (int) field.indexAt(row);
+    }
+
+    @Override
+    public @Nullable DirectUtf8Sequence getUtf8(int columnIndex, long row) {
+        final ArrowField field = fieldsByColumn.getQuick(columnIndex);
+        if (field.isNull(row)) {
+            return null;
+        }
+        if (field.dictionary != null) {
+            return field.dictionary.valueAt((int) field.indexAt(row));
+        }
+        return field.utf8.of(field.dataAddr + field.offsetAt(row), field.dataAddr + field.offsetAt(row + 1));
+    }
+
+    @Override
+    public boolean hasColumn(int columnIndex) {
+        return fieldsByColumn.getQuiet(columnIndex) != null;
+    }
+
+    @Override
+    public boolean isDictionaryEncoded(int columnIndex) {
+        return fieldsByColumn.getQuick(columnIndex).dictionary != null;
+    }
+
+    public void of(WalWriter writer) {
+        clear();
+        this.writer = writer;
+        this.metadata = writer.getMetadata();
+    }
+
+    /**
+     * Consumes next chunk of the stream. Record batches that are complete are appended to
+     * the writer before the method returns.
+     */
+    public void onChunk(long lo, long hi) {
+        if (bufSize == 0) {
+            final long p = consume(lo, hi);
+            if (p < hi) {
+                append(p, hi);
+            }
+        } else {
+            append(lo, hi);
+            final long p = consume(buf, buf + bufSize);
+            bufSize -= p - buf;
+            if (bufSize > 0) {
+                Vect.memmove(buf, p, bufSize);
+            }
+        }
+    }
+
+    /**
+     * Verifies that the stream did not end mid-message. The end-of-stream marker itself is optional.
+     */
+    public void onStreamEnd() {
+        if (bufSize > 0) {
+            throw CairoException.nonCritical().put("truncated arrow stream [pendingBytes=").put(bufSize).put(']');
+        }
+        if (!schemaReceived) {
+            throw CairoException.nonCritical().put("arrow stream does not contain schema");
+        }
+    }
+
+    private static CairoException batchError(CharSequence message) {
+        return CairoException.nonCritical().put("invalid arrow record batch: ").put(message);
+    }
+
+    private static long scaleToMicros(ArrowField field, long value) {
+        if (field.kind == KIND_DATE) {
+            return field.unit == DATE_UNIT_DAY ? value * DAY_MICROS : value * 1000;
+        }
+        switch (field.unit) {
+            case TIMESTAMP_UNIT_SECOND:
+                return value * Timestamps.SECOND_MICROS;
+            case TIMESTAMP_UNIT_MILLISECOND:
+                return value * 1000;
+            case TIMESTAMP_UNIT_NANOSECOND:
+                return value / 1000;
+            default:
+                return value;
+        }
+    }
+
+    private static long scaleToMillis(ArrowField field, long value) {
+        if (field.kind == KIND_DATE) {
+            return field.unit == DATE_UNIT_DAY ? value * DAY_MILLIS : value;
+        }
+        switch (field.unit) {
+            case TIMESTAMP_UNIT_SECOND:
+                return value * 1000;
+            case TIMESTAMP_UNIT_MICROSECOND:
+                return value / 1000;
+            case TIMESTAMP_UNIT_NANOSECOND:
+                return value / 1_000_000;
+            default:
+                return value;
+        }
+    }
+
+    private void append(long lo, long hi) {
+        final long len = hi - lo;
+        if (bufSize + len > bufCapacity) {
+            final long newCapacity = Math.max(bufSize + len, Math.min(bufCapacity * 2, maxMessageSize));
+            buf = Unsafe.realloc(buf, bufCapacity, newCapacity, memoryTag);
+            bufCapacity = newCapacity;
+        }
+        Vect.memcpy(buf + bufSize, lo, len);
+        bufSize += len;
+    }
+
+    private void appendRecordBatch(long batch, long body, long bodyLength) {
+        rowCount = fb.getLong(batch, RECORD_BATCH_LENGTH, 0);
+        if (rowCount < 0) {
+            throw batchError("negative length");
+        }
+        if (fb.getTable(batch, RECORD_BATCH_COMPRESSION) != 0) {
+            throw CairoException.nonCritical().put("compressed arrow record batches are not supported");
+        }
+        final long nodes = fb.getVector(batch, RECORD_BATCH_NODES, FIELD_NODE_STRUCT_SIZE);
+        final long buffers = fb.getVector(batch, RECORD_BATCH_BUFFERS, BUFFER_STRUCT_SIZE);
+        final int fieldCount = fields.size();
+        if (fb.getVectorLength(nodes) != fieldCount) {
+            throw batchError("field count does not match schema");
+        }
+        final int bufferCount = fb.getVectorLength(buffers);
+        int bufferIndex = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            final ArrowField field = fields.getQuick(i);
+            final long node = fb.getVectorElement(nodes, FIELD_NODE_STRUCT_SIZE, i);
+            if (Unsafe.getUnsafe().getLong(node) != rowCount) {
+                throw batchError("field length does not match batch length");
+            }
+            final int fieldBufferCount = field.getBufferCount();
+            if (bufferIndex + fieldBufferCount > bufferCount) {
+                throw batchError("buffer count does not match schema");
+            }
+            field.load(
+                    Unsafe.getUnsafe().getLong(node + 8),
+                    buffers + 4 + (long) bufferIndex * BUFFER_STRUCT_SIZE,
+                    body,
+                    bodyLength,
+                    rowCount
+            );
+            bufferIndex += fieldBufferCount;
+            prepareField(field);
+        }
+        if (bufferIndex != bufferCount) {
+            throw batchError("buffer count does not match schema");
+        }
+        if (rowCount > 0) {
+            writer.appendColumnBlock(this);
+            totalRowCount += rowCount;
+        }
+    }
+
+    private void applyDictionaryBatch(long dictionaryBatch, long body, long bodyLength) {
+        final long id = fb.getLong(dictionaryBatch, DICTIONARY_BATCH_ID, 0);
+        final long batch = fb.getTable(dictionaryBatch, DICTIONARY_BATCH_DATA);
+        final boolean isDelta = fb.getBool(dictionaryBatch, DICTIONARY_BATCH_IS_DELTA, false);
+        ArrowField valueField = null;
+        for (int i = 0, n = fields.size(); i < n; i++) {
+            final ArrowField field = fields.getQuick(i);
+            if (field.dictionaryId == id) {
+                valueField = field;
+                break;
+            }
+        }
+        if (valueField == null || batch == 0) {
+            throw CairoException.nonCritical().put("invalid arrow dictionary batch [id=").put(id).put(']');
+        }
+        if (fb.getTable(batch, RECORD_BATCH_COMPRESSION) != 0) {
+            throw CairoException.nonCritical().put("compressed arrow record batches are not supported");
+        }
+        final long length = fb.getLong(batch, RECORD_BATCH_LENGTH, 0);
+        final long nodes = fb.getVector(batch, RECORD_BATCH_NODES, FIELD_NODE_STRUCT_SIZE);
+        final long buffers = fb.getVector(batch, RECORD_BATCH_BUFFERS, BUFFER_STRUCT_SIZE);
+        if (length < 0 || length > Integer.MAX_VALUE || fb.getVectorLength(nodes) != 1 || fb.getVectorLength(buffers) != 3) {
+            throw batchError("dictionary batch does not match schema");
+        }
+        final long node = fb.getVectorElement(nodes, FIELD_NODE_STRUCT_SIZE, 0);
+        if (Unsafe.getUnsafe().getLong(node) != length) {
+            throw batchError("field length does not match batch length");
+        }
+
+        // load dictionary values via a transient field, which validates the buffers
+        final ArrowField values = new ArrowField(-1, ColumnType.VARCHAR, memoryTag);
+        values.kind = valueField.kind;
+        values.load(Unsafe.getUnsafe().getLong(node + 8), buffers + 4, body, bodyLength, length);
+        prepareVarField(values);
+
+        ArrowDictionary dictionary = valueField.dictionary;
+        if (dictionary == null) {
+            dictionary = new ArrowDictionary();
+            dictionaries.add(dictionary);
+            for (int i = 0, n = fields.size(); i < n; i++) {
+                final ArrowField field = fields.getQuick(i);
+                if (field.dictionaryId == id) {
+                    field.dictionary = dictionary;
+                }
+            }
+        } else if (!isDelta) {
+            dictionary.clear();
+        }
+        for (long r = 0; r < length; r++) {
+            if (values.isNull(r)) {
+                dictionary.addNull();
+            } else {
+                dictionary.add(values.dataAddr + values.offsetAt(r), values.dataAddr + values.offsetAt(r + 1));
+            }
+        }
+    }
+
+    /**
+     * @return address of the first byte that was not consumed, i.e. start of incomplete message
+     */
+    private long consume(long lo, long hi) {
+        while (lo < hi) {
+            if (streamEnded) {
+                throw CairoException.nonCritical().put("unexpected data after arrow end-of-stream marker");
+            }
+            if (hi - lo < 8) {
+                return lo;
+            }
+            final int prefixSize;
+            final int metadataSize;
+            final int first = Unsafe.getUnsafe().getInt(lo);
+            if (first == CONTINUATION_MARKER) {
+                prefixSize = 8;
+                metadataSize = Unsafe.getUnsafe().getInt(lo + 4);
+            } else {
+                // pre-0.15 stream format without continuation marker
+                prefixSize = 4;
+                metadataSize = first;
+            }
+            if (metadataSize == 0) {
+                streamEnded = true;
+                lo += prefixSize;
+                continue;
+            }
+            if (metadataSize < 0 || prefixSize + (long) metadataSize > maxMessageSize) {
+                throw messageTooLarge(prefixSize + (long) metadataSize);
+            }
+            final long metadataLo = lo + prefixSize;
+            final long metadataHi = metadataLo + metadataSize;
+            if (metadataHi > hi) {
+                return lo;
+            }
+            fb.of(metadataLo, metadataHi);
+            final long message = fb.root();
+            final long bodyLength = fb.getLong(message, MESSAGE_BODY_LENGTH, 0);
+            if (bodyLength < 0 || bodyLength > maxMessageSize - prefixSize - metadataSize) {
+                throw messageTooLarge(prefixSize + metadataSize + bodyLength);
+            }
+            if (metadataHi + bodyLength > hi) {
+                return lo;
+            }
+            processMessage(message, metadataHi, bodyLength);
+            lo = metadataHi + bodyLength;
+        }
+        return lo;
+    }
+
+    private CairoException messageTooLarge(long size) {
+        return CairoException.nonCritical().put("arrow message is too large [size=").put(size)
+                .put(", max=").put(maxMessageSize)
+                .put(']');
+    }
+
+    private void parseSchema(long schema) {
+        final long fieldVector = fb.getVector(schema, SCHEMA_FIELDS, 4);
+        final int fieldCount = fb.getVectorLength(fieldVector);
+        fieldsByColumn.setAll(metadata.getColumnCount(), null);
+        for (int i = 0; i < fieldCount; i++) {
+            final long f = fb.getVectorTable(fieldVector, i);
+            final DirectUtf8String name = fb.getString(f, FIELD_NAME, nameFlyweight);
+            if (name == null) {
+                throw CairoException.nonCritical().put("arrow field name is missing [index=").put(i).put(']');
+            }
+            nameSink.clear();
+            if (!Utf8s.utf8ToUtf16(name, nameSink)) {
+                throw CairoException.nonCritical().put("arrow field name is not valid UTF-8 [index=").put(i).put(']');
+            }
+            final int columnIndex = metadata.getColumnIndexQuiet(nameSink);
+            if (columnIndex < 0) {
+                throw CairoException.nonCritical().put("column does not exist [column=").put(nameSink).put(']');
+            }
+            if (fieldsByColumn.getQuick(columnIndex) != null) {
+                throw CairoException.nonCritical().put("duplicate arrow field [column=").put(nameSink).put(']');
+            }
+            if (fb.getVectorLength(fb.getVector(f, FIELD_CHILDREN, 4)) > 0) {
+                throw CairoException.nonCritical().put("nested arrow types are not supported [column=").put(nameSink).put(']');
+            }
+
+            final ArrowField field = new ArrowField(columnIndex, metadata.getColumnType(columnIndex), memoryTag);
+            fields.add(field);
+            fieldsByColumn.setQuick(columnIndex, field);
+            field.kind = fb.getByte(f, FIELD_TYPE_TYPE, (byte) 0);
+            final long type = fb.getTable(f, FIELD_TYPE);
+            switch (field.kind) {
+                case KIND_INT:
+                    field.bitWidth = fb.getInt(type, INT_BIT_WIDTH, 0);
+                    field.signed = fb.getBool(type, INT_IS_SIGNED, false);
+                    break;
+                case KIND_FLOATING_POINT:
+                    field.unit = fb.getShort(type, FLOATING_POINT_PRECISION, (short) 0);
+                    break;
+                case KIND_DATE:
+                    field.unit = fb.getShort(type, TIMESTAMP_UNIT, DATE_UNIT_MILLISECOND);
+                    break;
+                case KIND_TIMESTAMP:
+                    field.unit = fb.getShort(type, TIMESTAMP_UNIT, (short) 0);
+                    break;
+                case KIND_FIXED_SIZE_BINARY:
+                    field.bitWidth = fb.getInt(type, FIXED_SIZE_BINARY_BYTE_WIDTH, 0) * 8;
+                    break;
+                default:
+                    break;
+            }
+            final long dictionary = fb.getTable(f, FIELD_DICTIONARY);
+            if (dictionary != 0) {
+                field.dictionaryId = fb.getLong(dictionary, DICTIONARY_ENCODING_ID, 0);
+                final long indexType = fb.getTable(dictionary, DICTIONARY_ENCODING_INDEX_TYPE);
+                // index type defaults to signed 32-bit integer
+                field.indexBitWidth = indexType != 0 ? fb.getInt(indexType, INT_BIT_WIDTH, 32) : 32;
+            }
+            if (!field.isCompatible()) {
+                throw CairoException.nonCritical().put("arrow type is not compatible with column type [column=").put(nameSink)
+                        .put(", arrowType=").put(field.kind)
+                        .put(", columnType=").put(ColumnType.nameOf(field.columnType))
+                        .put(']');
+            }
+        }
+
+        final int timestampIndex = metadata.getTimestampIndex();
+        if (timestampIndex > -1 && fieldsByColumn.getQuick(timestampIndex) == null) {
+            throw CairoException.nonCritical().put("designated timestamp column is missing from arrow schema [column=")
+                    .put(metadata.getColumnName(timestampIndex))
+                    .put(']');
+        }
+        schemaReceived = true;
+    }
+
+    private void prepareField(ArrowField field) {
+        if (field.dictionary != null || field.dictionaryId != -1) {
+            if (field.dictionary == null) {
+                throw batchError("dictionary batch is missing");
+            }
+            final int size = field.dictionary.size();
+            for (long r = 0; r < rowCount; r++) {
+                if (!field.isNull(r)) {
+                    final long key = field.indexAt(r);
+                    if (key < 0 || key >= size) {
+                        throw batchError("dictionary index is out of range");
+                    }
+                }
+            }
+            return;
+        }
+
+        final int tag = ColumnType.tagOf(field.columnType);
+        switch (field.kind) {
+            case KIND_UTF8:
+            case KIND_LARGE_UTF8:
+            case KIND_BINARY:
+            case KIND_LARGE_BINARY:
+                prepareVarField(field);
+                return;
+            case KIND_BOOL: {
+                final long dst = field.scratchFor(rowCount);
+                for (long r = 0; r < rowCount; r++) {
+                    final boolean value = !field.isNull(r) && (Unsafe.getUnsafe().getByte(field.valuesAddr + (r >>> 3)) & (1 << (r & 7))) != 0;
+                    Unsafe.getUnsafe().putByte(dst + r, (byte) (value ? 1 : 0));
+                }
+                return;
+            }
+            default:
+                break;
+        }
+
+        final int columnSize = ColumnType.sizeOf(field.columnType);
+        if (field.nullCount == 0 && field.isZeroCopy(tag, columnSize)) {
+            field.fixedAddr = field.valuesAddr;
+            return;
+        }
+
+        final long dst = field.scratchFor(rowCount * columnSize);
+        switch (tag) {
+            case ColumnType.BYTE:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putByte(dst + r, field.isNull(r) ? 0 : (byte) field.intAt(r));
+                }
+                break;
+            case ColumnType.SHORT:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putShort(dst + (r << 1), field.isNull(r) ? 0 : (short) field.intAt(r));
+                }
+                break;
+            case ColumnType.INT:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putInt(dst + (r << 2), field.isNull(r) ? Numbers.INT_NULL : (int) field.intAt(r));
+                }
+                break;
+            case ColumnType.LONG:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putLong(dst + (r << 3), field.isNull(r) ? Numbers.LONG_NULL : field.intAt(r));
+                }
+                break;
+            case ColumnType.FLOAT:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putFloat(dst + (r << 2), field.isNull(r) ? Float.NaN : Unsafe.getUnsafe().getFloat(field.valuesAddr + (r << 2)));
+                }
+                break;
+            case ColumnType.DOUBLE:
+                for (long r = 0; r < rowCount; r++) {
+                    final double value;
+                    if (field.isNull(r)) {
+                        value = Double.NaN;
+                    } else if (field.unit == FLOATING_POINT_SINGLE) {
+                        value = Unsafe.getUnsafe().getFloat(field.valuesAddr + (r << 2));
+                    } else {
+                        value = Unsafe.getUnsafe().getDouble(field.valuesAddr + (r << 3));
+                    }
+                    Unsafe.getUnsafe().putDouble(dst + (r << 3), value);
+                }
+                break;
+            case ColumnType.DATE:
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putLong(dst + (r << 3), field.isNull(r) ? Numbers.LONG_NULL : scaleToMillis(field, field.temporalAt(r)));
+                }
+                break;
+            case ColumnType.TIMESTAMP:
+                if (field.columnIndex == metadata.getTimestampIndex() && field.nullCount > 0) {
+                    throw CairoException.nonCritical().put("designated timestamp column cannot contain nulls [column=")
+                            .put(metadata.getColumnName(field.columnIndex))
+                            .put(']');
+                }
+                for (long r = 0; r < rowCount; r++) {
+                    Unsafe.getUnsafe().putLong(dst + (r << 3), field.isNull(r) ? Numbers.LONG_NULL : scaleToMicros(field, field.temporalAt(r)));
+                }
+                break;
+            default:
+                // UUID and LONG128
+                for (long r = 0; r < rowCount; r++) {
+                    final long p = dst + (r << 4);
+                    if (field.isNull(r)) {
+                        Unsafe.getUnsafe().putLong(p, Numbers.LONG_NULL);
+                        Unsafe.getUnsafe().putLong(p + 8, Numbers.LONG_NULL);
+                    } else {
+                        Vect.memcpy(p, field.valuesAddr + (r << 4), 16);
+                    }
+                }
+                break;
+        }
+    }
+
+    private void prepareVarField(ArrowField field) {
+        // offsets must be monotonic and within the data buffer, otherwise
+        // getUtf8() and getBin() would read outside the message body
+        long prev = field.offsetAt(0);
+        if (prev < 0) {
+            throw batchError("invalid offsets");
+        }
+        for (long r = 1; r <= field.rowCount; r++) {
+            final long offset = field.offsetAt(r);
+            if (offset < prev) {
+                throw batchError("invalid offsets");
+            }
+            prev = offset;
+        }
+        if (prev > field.dataSize) {
+            throw batchError("offsets exceed data buffer");
+        }
+    }
+
+    private void processMessage(long message, long body, long bodyLength) {
+        final short version = fb.getShort(message, MESSAGE_VERSION, (short) 0);
+        if (version != METADATA_VERSION_V4 && version != METADATA_VERSION_V5) {
+            throw CairoException.nonCritical().put("unsupported arrow metadata version [version=").put(version).put(']');
+        }
+        final byte headerType = fb.getByte(message, MESSAGE_HEADER_TYPE, (byte) 0);
+        final long header = fb.getTable(message, MESSAGE_HEADER);
+        if (header == 0) {
+            throw CairoException.nonCritical().put("arrow message header is missing");
+        }
+        if (headerType == MESSAGE_HEADER_SCHEMA) {
+            if (schemaReceived) {
+                throw CairoException.nonCritical().put("arrow stream contains more than one schema");
+            }
+            parseSchema(header);
+            return;
+        }
+        if (!schemaReceived) {
+            throw CairoException.nonCritical().put("arrow stream must start with schema");
+        }
+        switch (headerType) {
+            case MESSAGE_HEADER_DICTIONARY_BATCH:
+                applyDictionaryBatch(header, body, bodyLength);
+                break;
+            case MESSAGE_HEADER_RECORD_BATCH:
+                appendRecordBatch(header, body, bodyLength);
+                break;
+            default:
+                throw CairoException.nonCritical().put("unsupported arrow message type [type=").put(headerType).put(']');
+        }
+    }
+
+    private static class ArrowDictionary implements QuietCloseable {
+        // lo and hi offsets of each value in the values sink, lo is -1 for null values
+        private final LongList bounds = new LongList();
+        private final DirectUtf8String value = new DirectUtf8String();
+        private final DirectUtf8Sink values = new DirectUtf8Sink(4096);
+
+        @Override
+        public void close() {
+            Misc.free(values);
+        }
+
+        private void add(long lo, long hi) {
+            bounds.add(values.size());
+            values.putNonAscii(lo, hi);
+            bounds.add(values.size());
+        }
+
+        private void addNull() {
+            bounds.add(-1);
+            bounds.add(-1);
+        }
+
+        private void clear() {
+            bounds.clear();
+            values.clear();
+        }
+
+        private int size() {
+            return bounds.size() >>> 1;
+        }
+
+        private DirectUtf8Sequence valueAt(int key) {
+            final long lo = bounds.getQuick(2 * key);
+            if (lo == -1) {
+                return null;
+            }
+            return value.of(values.ptr() + lo, values.ptr() + bounds.getQuick(2 * key + 1));
+        }
+    }
+
+    private static class ArrowField implements QuietCloseable {
+        private final DirectBinarySequence bin = new DirectBinarySequence();
+        private final int columnIndex;
+        private final int columnType;
+        private final int memoryTag;
+        private final DirectUtf8String utf8 = new DirectUtf8String();
+        private int bitWidth;
+        private long dataAddr;
+        private long dataSize;
+        private ArrowDictionary dictionary;
+        private long dictionaryId = -1;
+        private long fixedAddr;
+        private int indexBitWidth;
+        private byte kind;
+        private long nullCount;
+        private long rowCount;
+        private MemoryCARW scratch;
+        private boolean signed;
+        private short unit;
+        private long validityAddr;
+        private long valuesAddr;
+
+        private ArrowField(int columnIndex, int columnType, int memoryTag) {
+            this.columnIndex = columnIndex;
+            this.columnType = columnType;
+            this.memoryTag = memoryTag;
+        }
+
+        @Override
+        public void close() {
+            scratch = Misc.free(scratch);
+        }
+
+        private static long buffer(long buffers, int index, long body, long bodyLength, long minSize) {
+            final long p = buffers + (long) index * BUFFER_STRUCT_SIZE;
+            final long offset = Unsafe.getUnsafe().getLong(p);
+            final long length = Unsafe.getUnsafe().getLong(p + 8);
+            if (offset < 0 || length < minSize || offset > bodyLength - length) {
+                throw batchError("buffer is out of bounds");
+            }
+            return body + offset;
+        }
+
+        private static long bufferLength(long buffers, int index) {
+            return Unsafe.getUnsafe().getLong(buffers + (long) index * BUFFER_STRUCT_SIZE + 8);
+        }
+
+        private int getBufferCount() {
+            if (dictionaryId != -1) {
+                return 2;
+            }
+            switch (kind) {
+                case KIND_UTF8:
+                case KIND_LARGE_UTF8:
+                case KIND_BINARY:
+                case KIND_LARGE_BINARY:
+                    return 3;
+                default:
+                    return 2;
+            }
+        }
+
+        private long indexAt(long row) {
+            return readInt(valuesAddr, indexBitWidth, true, row);
+        }
+
+        private long intAt(long row) {
+            return readInt(valuesAddr, bitWidth, signed, row);
+        }
+
+        private boolean isCompatible() {
+            final int tag = ColumnType.tagOf(columnType);
+            if (dictionaryId != -1) {
+                return (kind == KIND_UTF8 || kind == KIND_LARGE_UTF8)
+                        && (tag == ColumnType.SYMBOL || tag == ColumnType.STRING || tag == ColumnType.VARCHAR)
+                        && (indexBitWidth == 8 || indexBitWidth == 16 || indexBitWidth == 32 || indexBitWidth == 64);
+            }
+            switch (tag) {
+                case ColumnType.BOOLEAN:
+                    return kind == KIND_BOOL;
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.INT:
+                case ColumnType.LONG: {
+                    if (kind != KIND_INT || (bitWidth != 8 && bitWidth != 16 && bitWidth != 32 && bitWidth != 64)) {
+                        return false;
+                    }
+                    // widening only, unsigned values need an extra bit
+                    final int columnBits = ColumnType.sizeOf(columnType) * 8;
+                    return signed ? bitWidth <= columnBits : bitWidth < columnBits;
+                }
+                case ColumnType.FLOAT:
+                    return kind == KIND_FLOATING_POINT && unit == FLOATING_POINT_SINGLE;
+                case ColumnType.DOUBLE:
+                    return kind == KIND_FLOATING_POINT && (unit == FLOATING_POINT_SINGLE || unit == FLOATING_POINT_DOUBLE);
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                    return (kind == KIND_DATE && (unit == DATE_UNIT_DAY || unit == DATE_UNIT_MILLISECOND))
+                            || (kind == KIND_TIMESTAMP && unit >= TIMESTAMP_UNIT_SECOND && unit <= TIMESTAMP_UNIT_NANOSECOND);
+                case ColumnType.UUID:
+                case ColumnType.LONG128:
+                    return kind == KIND_FIXED_SIZE_BINARY && bitWidth == 128;
+                case ColumnType.STRING:
+                case ColumnType.VARCHAR:
+                case ColumnType.SYMBOL:
+                    return kind == KIND_UTF8 || kind == KIND_LARGE_UTF8;
+                case ColumnType.BINARY:
+                    return kind == KIND_BINARY || kind == KIND_LARGE_BINARY;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean isNull(long row) {
+            return validityAddr != 0 && (Unsafe.getUnsafe().getByte(validityAddr + (row >>> 3)) & (1 << (row & 7))) == 0;
+        }
+
+        private boolean isZeroCopy(int tag, int columnSize) {
+            switch (kind) {
+                case KIND_INT:
+                    return bitWidth == columnSize * 8;
+                case KIND_FLOATING_POINT:
+                    return (tag == ColumnType.FLOAT) == (unit == FLOATING_POINT_SINGLE);
+                case KIND_DATE:
+                    return tag == ColumnType.DATE && unit == DATE_UNIT_MILLISECOND;
+                case KIND_TIMESTAMP:
+                    return (tag == ColumnType.TIMESTAMP && unit == TIMESTAMP_UNIT_MICROSECOND)
+                            || (tag == ColumnType.DATE && unit == TIMESTAMP_UNIT_MILLISECOND);
+                default:
+                    return kind == KIND_FIXED_SIZE_BINARY;
+            }
+        }
+
+        private void load(long nullCount, long buffers, long body, long bodyLength, long rowCount) {
+            this.rowCount = rowCount;
+            this.nullCount = nullCount;
+            this.validityAddr = nullCount > 0 ? buffer(buffers, 0, body, bodyLength, (rowCount + 7) >>> 3) : 0;
+            this.fixedAddr = 0;
+            if (dictionaryId != -1) {
+                valuesAddr = buffer(buffers, 1, body, bodyLength, rowCount * (indexBitWidth >>> 3));
+                return;
+            }
+            switch (kind) {
+                case KIND_UTF8:
+                case KIND_BINARY:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, (rowCount + 1) * Integer.BYTES);
+                    dataAddr = buffer(buffers, 2, body, bodyLength, 0);
+                    dataSize = bufferLength(buffers, 2);
+                    break;
+                case KIND_LARGE_UTF8:
+                case KIND_LARGE_BINARY:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, (rowCount + 1) * Long.BYTES);
+                    dataAddr = buffer(buffers, 2, body, bodyLength, 0);
+                    dataSize = bufferLength(buffers, 2);
+                    break;
+                case KIND_BOOL:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, (rowCount + 7) >>> 3);
+                    break;
+                case KIND_FLOATING_POINT:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, rowCount * (unit == FLOATING_POINT_SINGLE ? Float.BYTES : Double.BYTES));
+                    break;
+                case KIND_DATE:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, rowCount * (unit == DATE_UNIT_DAY ? Integer.BYTES : Long.BYTES));
+                    break;
+                case KIND_TIMESTAMP:
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, rowCount * Long.BYTES);
+                    break;
+                default:
+                    // integers and fixed size binary
+                    valuesAddr = buffer(buffers, 1, body, bodyLength, rowCount * (bitWidth >>> 3));
+                    break;
+            }
+        }
+
+        private long offsetAt(long row) {
+            return kind == KIND_UTF8 || kind == KIND_BINARY
+                    ? Unsafe.getUnsafe().getInt(valuesAddr + (row << 2))
+                    : Unsafe.getUnsafe().getLong(valuesAddr + (row << 3));
+        }
+
+        private long readInt(long addr, int bitWidth, boolean signed, long row) {
+            switch (bitWidth) {
+                case 8: {
+                    final byte value = Unsafe.getUnsafe().getByte(addr + row);
+                    return signed ? value : value & 0xffL;
+                }
+                case 16: {
+                    final short value = Unsafe.getUnsafe().getShort(addr + (row << 1));
+                    return signed ? value : value & 0xffffL;
+                }
+                case 32: {
+                    final int value = Unsafe.getUnsafe().getInt(addr + (row << 2));
+                    return signed ? value : value & 0xffffffffL;
+                }
+                default:
+                    return Unsafe.getUnsafe().getLong(addr + (row << 3));
+            }
+        }
+
+        private long scratchFor(long size) {
+            if (scratch == null) {
+                scratch = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, memoryTag);
+            }
+            scratch.truncate();
+            fixedAddr = scratch.appendAddressFor(Math.max(size, 1));
+            return fixedAddr;
+        }
+
+        private long temporalAt(long row) {
+            return kind == KIND_DATE && unit == DATE_UNIT_DAY
+                    ? Unsafe.getUnsafe().getInt(valuesAddr + (row << 2))
+                    : Unsafe.getUnsafe().getLong(valuesAddr + (row << 3));
+        }
+    }
+}
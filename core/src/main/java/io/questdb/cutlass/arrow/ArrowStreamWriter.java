@@ -0,0 +1,560 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.GeoHashes;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatchEncoder;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Interval;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Uuid;
+import io.questdb.std.str.DirectUtf8Sink;
+import io.questdb.std.str.Utf8Sequence;
+
+import static io.questdb.cutlass.arrow.ArrowConstants.*;
+
+/**
+ * Encodes records as Apache Arrow IPC stream: schema message, followed by one record batch
+ * message per flushed batch, followed by end-of-stream marker.
+ * <p>
+ * QuestDB null sentinels are translated into Arrow validity bitmaps. Types that do not have a direct
+ * Arrow counterpart, such as LONG256, IPv4 and geohashes, are sent as UTF-8 strings using the same
+ * text representation as CSV export.
+ */
+public class ArrowStreamWriter implements RecordBatchEncoder {
+    private final int batchRowCount;
+    private final LongList bodyBuffers = new LongList();
+    private final FlatBufferBuilder builder = new FlatBufferBuilder();
+    private final ObjList<ArrowColumn> columns = new ObjList<>();
+    private final int memoryTag;
+    private final IntList offsets = new IntList();
+    private final MemoryCARW out;
+    private long readOffset;
+    private int rowCount;
+
+    public ArrowStreamWriter(int batchRowCount, int memoryTag) {
+        assert batchRowCount > 0;
+        this.batchRowCount = batchRowCount;
+        this.memoryTag = memoryTag;
+        this.out = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, memoryTag);
+    }
+
+    @Override
+    public void appendRecord(Record record) {
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            columns.getQuick(i).append(record, i, rowCount);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public void clear() {
+        Misc.freeObjListAndClear(columns);
+        builder.clear();
+        out.truncate();
+        readOffset = 0;
+        rowCount = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        builder.close();
+        out.close();
+    }
+
+    @Override
+    public void finish() {
+        prepareOut();
+        out.putInt(CONTINUATION_MARKER);
+        out.putInt(0);
+    }
+
+    @Override
+    public void flushBatch() {
+        if (rowCount == 0) {
+            return;
+        }
+        final int columnCount = columns.size();
+
+        // body layout: per column validity bitmap, followed by either values or offsets and data
+        bodyBuffers.clear();
+        long bodyLength = 0;
+        for (int i = 0; i < columnCount; i++) {
+            final ArrowColumn column = columns.getQuick(i);
+            bodyLength = addBodyBuffer(column.validity.addressOf(0), (rowCount + 7) >>> 3, bodyLength);
+            if (column.data != null) {
+                bodyLength = addBodyBuffer(column.values.addressOf(0), column.values.getAppendOffset(), bodyLength);
+                bodyLength = addBodyBuffer(column.data.ptr(), column.data.size(), bodyLength);
+            } else {
+                final long valuesSize = column.kind == KIND_BOOL ? (rowCount + 7) >>> 3 : column.values.getAppendOffset();
+                bodyLength = addBodyBuffer(column.values.addressOf(0), valuesSize, bodyLength);
+            }
+        }
+
+        builder.clear();
+        final int bufferCount = bodyBuffers.size() / 3;
+        builder.startVector(2 * Long.BYTES, bufferCount, Long.BYTES);
+        for (int i = bufferCount - 1; i > -1; i--) {
+            builder.addStructOfLongs(bodyBuffers.getQuick(3 * i + 2), bodyBuffers.getQuick(3 * i + 1));
+        }
+        final int buffersOffset = builder.endVector(bufferCount);
+
+        builder.startVector(2 * Long.BYTES, columnCount, Long.BYTES);
+        for (int i = columnCount - 1; i > -1; i--) {
+            builder.addStructOfLongs(rowCount, columns.getQuick(i).nullCount);
+        }
+        final int nodesOffset = builder.endVector(columnCount);
+
+        builder.startTable(4);
+        builder.addFieldLong(0, rowCount);
+        builder.addFieldOffset(1, nodesOffset);
+        builder.addFieldOffset(2, buffersOffset);
+        final int recordBatchOffset = builder.endTable();
+
+        writeMessage(MESSAGE_HEADER_RECORD_BATCH, recordBatchOffset, bodyLength);
+        for (int i = 0; i < bufferCount; i++) {
+            final long size = bodyBuffers.getQuick(3 * i + 1);
+            if (size > 0) {
+                out.putBlockOfBytes(bodyBuffers.getQuick(3 * i), size);
+            }
+            padOut(size);
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            columns.getQuick(i).clear();
+        }
+        rowCount = 0;
+    }
+
+    @Override
+    public int getBatchRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public long getPendingHi() {
+        return out.addressOf(out.getAppendOffset());
+    }
+
+    @Override
+    public long getPendingLo() {
+        return out.addressOf(readOffset);
+    }
+
+    @Override
+    public boolean hasPendingBytes() {
+        return readOffset < out.getAppendOffset();
+    }
+
+    @Override
+    public boolean isBatchFull() {
+        return rowCount >= batchRowCount;
+    }
+
+    @Override
+    public void of(RecordMetadata metadata) {
+        clear();
+        final int columnCount = metadata.getColumnCount();
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(new ArrowColumn(metadata.getColumnType(i), memoryTag));
+        }
+
+        builder.clear();
+        offsets.clear();
+        for (int i = 0; i < columnCount; i++) {
+            final int nameOffset = builder.createString(metadata.getColumnName(i));
+            final int typeOffset = createType(columns.getQuick(i));
+            builder.startVector(Integer.BYTES, 0, Integer.BYTES);
+            final int childrenOffset = builder.endVector(0);
+            builder.startTable(7);
+            builder.addFieldOffset(FIELD_NAME, nameOffset);
+            builder.addFieldBool(FIELD_NULLABLE, true);
+            builder.addFieldByte(FIELD_TYPE_TYPE, columns.getQuick(i).kind);
+            builder.addFieldOffset(FIELD_TYPE, typeOffset);
+            builder.addFieldOffset(FIELD_CHILDREN, childrenOffset);
+            offsets.add(builder.endTable());
+        }
+        builder.startVector(Integer.BYTES, columnCount, Integer.BYTES);
+        for (int i = columnCount - 1; i > -1; i--) {
+            builder.addOffset(offsets.getQuick(i));
+        }
+        final int fieldsOffset = builder.endVector(columnCount);
+
+        builder.startTable(4);
+        // endianness: little
+        builder.addFieldShort(0, (short) 0);
+        builder.addFieldOffset(1, fieldsOffset);
+        final int schemaOffset = builder.endTable();
+        writeMessage(MESSAGE_HEADER_SCHEMA, schemaOffset, 0);
+    }
+
+    @Override
+    public void skipPendingBytes(long len) {
+        readOffset += len;
+        assert readOffset <= out.getAppendOffset();
+    }
+
+    private static byte toArrowKind(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                return KIND_BOOL;
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+                return KIND_INT;
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return KIND_FLOATING_POINT;
+            case ColumnType.DATE:
+                return KIND_DATE;
+            case ColumnType.TIMESTAMP:
+                return KIND_TIMESTAMP;
+            case ColumnType.BINARY:
+                return KIND_BINARY;
+            case ColumnType.UUID:
+            case ColumnType.LONG128:
+                return KIND_FIXED_SIZE_BINARY;
+            case ColumnType.CHAR:
+            case ColumnType.STRING:
+            case ColumnType.SYMBOL:
+            case ColumnType.VARCHAR:
+            case ColumnType.LONG256:
+            case ColumnType.GEOBYTE:
+            case ColumnType.GEOSHORT:
+            case ColumnType.GEOINT:
+            case ColumnType.GEOLONG:
+            case ColumnType.IPv4:
+            case ColumnType.INTERVAL:
+            case ColumnType.NULL:
+                return KIND_UTF8;
+            default:
+                throw CairoException.nonCritical().put("unsupported column type for Arrow export [type=")
+                        .put(ColumnType.nameOf(columnType)).put(']');
+        }
+    }
+
+    private long addBodyBuffer(long address, long size, long bodyOffset) {
+        bodyBuffers.add(address);
+        bodyBuffers.add(size);
+        bodyBuffers.add(bodyOffset);
+        return bodyOffset + ((size + 7) & ~7L);
+    }
+
+    private int createType(ArrowColumn column) {
+        switch (column.kind) {
+            case KIND_INT:
+                builder.startTable(2);
+                builder.addFieldInt(0, column.valueSize * Byte.SIZE);
+                builder.addFieldBool(1, true);
+                return builder.endTable();
+            case KIND_FLOATING_POINT:
+                builder.startTable(1);
+                builder.addFieldShort(0, column.valueSize == Double.BYTES ? FLOATING_POINT_DOUBLE : FLOATING_POINT_SINGLE);
+                return builder.endTable();
+            case KIND_DATE:
+                builder.startTable(1);
+                builder.addFieldShort(0, DATE_UNIT_MILLISECOND);
+                return builder.endTable();
+            case KIND_TIMESTAMP:
+                final int timezoneOffset = builder.createString("UTC");
+                builder.startTable(2);
+                builder.addFieldShort(0, TIMESTAMP_UNIT_MICROSECOND);
+                builder.addFieldOffset(1, timezoneOffset);
+                return builder.endTable();
+            case KIND_FIXED_SIZE_BINARY:
+                builder.startTable(1);
+                builder.addFieldInt(0, column.valueSize);
+                return builder.endTable();
+            default:
+                // Utf8, Binary and Bool types do not have attributes
+                builder.startTable(0);
+                return builder.endTable();
+        }
+    }
+
+    private void padOut(long size) {
+        for (long i = size; (i & 7) != 0; i++) {
+            out.putByte((byte) 0);
+        }
+    }
+
+    private void prepareOut() {
+        if (readOffset == out.getAppendOffset()) {
+            out.jumpTo(0);
+            readOffset = 0;
+        }
+    }
+
+    private void writeMessage(byte headerType, int headerOffset, long bodyLength) {
+        builder.startTable(5);
+        builder.addFieldShort(0, METADATA_VERSION_V5);
+        builder.addFieldByte(1, headerType);
+        builder.addFieldOffset(2, headerOffset);
+        builder.addFieldLong(3, bodyLength);
+        builder.finish(builder.endTable());
+
+        prepareOut();
+        final int size = builder.getBufferSize();
+        // metadata is padded to keep the message body 8-byte aligned
+        final int paddedSize = ((size + 2 * Integer.BYTES + 7) & ~7) - 2 * Integer.BYTES;
+        out.putInt(CONTINUATION_MARKER);
+        out.putInt(paddedSize);
+        out.putBlockOfBytes(builder.getBufferAddress(), size);
+        for (int i = size; i < paddedSize; i++) {
+            out.putByte((byte) 0);
+        }
+    }
+
+    private static class ArrowColumn implements QuietCloseable {
+        private final int columnType;
+        private final byte kind;
+        private final MemoryCARW validity;
+        private final int valueSize;
+        private final MemoryCARW values;
+        private DirectUtf8Sink data;
+        private int nullCount;
+
+        private ArrowColumn(int columnType, int memoryTag) {
+            this.columnType = columnType;
+            this.kind = toArrowKind(columnType);
+            this.validity = Vm.getCARWInstance(4096, Integer.MAX_VALUE, memoryTag);
+            this.values = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, memoryTag);
+            if (kind == KIND_UTF8 || kind == KIND_BINARY) {
+                data = new DirectUtf8Sink(64 * 1024);
+                valueSize = Integer.BYTES;
+                values.putInt(0);
+            } else if (kind == KIND_FIXED_SIZE_BINARY) {
+                valueSize = 2 * Long.BYTES;
+            } else if (kind == KIND_BOOL) {
+                valueSize = 0;
+            } else {
+                valueSize = ColumnType.sizeOf(columnType);
+            }
+        }
+
+        @Override
+        public void close() {
+            Misc.free(validity);
+            Misc.free(values);
+            data = Misc.free(data);
+        }
+
+        private void append(Record record, int col, int row) {
+            if ((row & 7) == 0) {
+                validity.putByte((byte) 0);
+                if (kind == KIND_BOOL) {
+                    values.putByte((byte) 0);
+                }
+            }
+            boolean valid = true;
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.BOOLEAN:
+                    if (record.getBool(col)) {
+                        setBit(values, row);
+                    }
+                    break;
+                case ColumnType.BYTE:
+                    values.putByte(record.getByte(col));
+                    break;
+                case ColumnType.SHORT:
+                    values.putShort(record.getShort(col));
+                    break;
+                case ColumnType.INT: {
+                    final int value = record.getInt(col);
+                    valid = value != Numbers.INT_NULL;
+                    values.putInt(value);
+                    break;
+                }
+                case ColumnType.LONG: {
+                    final long value = record.getLong(col);
+                    valid = value != Numbers.LONG_NULL;
+                    values.putLong(value);
+                    break;
+                }
+                case ColumnType.DATE: {
+                    final long value = record.getDate(col);
+                    valid = value != Numbers.LONG_NULL;
+                    values.putLong(value);
+                    break;
+                }
+                case ColumnType.TIMESTAMP: {
+                    final long value = record.getTimestamp(col);
+                    valid = value != Numbers.LONG_NULL;
+                    values.putLong(value);
+                    break;
+                }
+                case ColumnType.FLOAT: {
+                    final float value = record.getFloat(col);
+                    valid = !Float.isNaN(value);
+                    values.putFloat(value);
+                    break;
+                }
+                case ColumnType.DOUBLE: {
+                    final double value = record.getDouble(col);
+                    valid = !Double.isNaN(value);
+                    values.putDouble(value);
+                    break;
+                }
+                case ColumnType.UUID:
+                case ColumnType.LONG128: {
+                    final long lo = record.getLong128Lo(col);
+                    final long hi = record.getLong128Hi(col);
+                    valid = !Uuid.isNull(lo, hi);
+                    values.putLong128(lo, hi);
+                    break;
+                }
+                case ColumnType.BINARY: {
+                    final BinarySequence value = record.getBin(col);
+                    if (value != null) {
+                        for (long i = 0, n = value.length(); i < n; i++) {
+                            data.putAny(value.byteAt(i));
+                        }
+                    } else {
+                        valid = false;
+                    }
+                    break;
+                }
+                case ColumnType.CHAR: {
+                    final char value = record.getChar(col);
+                    if (value != 0) {
+                        data.put(value);
+                    } else {
+                        valid = false;
+                    }
+                    break;
+                }
+                case ColumnType.STRING: {
+                    final CharSequence value = record.getStrA(col);
+                    valid = value != null;
+                    data.put(value);
+                    break;
+                }
+                case ColumnType.SYMBOL: {
+                    final CharSequence value = record.getSymA(col);
+                    valid = value != null;
+                    data.put(value);
+                    break;
+                }
+                case ColumnType.VARCHAR: {
+                    final Utf8Sequence value = record.getVarcharA(col);
+                    valid = value != null;
+                    data.put(value);
+                    break;
+                }
+                case ColumnType.LONG256: {
+                    final int size = data.size();
+                    record.getLong256(col, data);
+                    valid = data.size() > size;
+                    break;
+                }
+                case ColumnType.GEOBYTE:
+                    valid = putGeoHash(record.getGeoByte(col));
+                    break;
+                case ColumnType.GEOSHORT:
+                    valid = putGeoHash(record.getGeoShort(col));
+                    break;
+                case ColumnType.GEOINT:
+                    valid = putGeoHash(record.getGeoInt(col));
+                    break;
+                case ColumnType.GEOLONG:
+                    valid = putGeoHash(record.getGeoLong(col));
+                    break;
+                case ColumnType.IPv4: {
+                    final int value = record.getIPv4(col);
+                    if (value != Numbers.IPv4_NULL) {
+                        Numbers.intToIPv4Sink(data, value);
+                    } else {
+                        valid = false;
+                    }
+                    break;
+                }
+                case ColumnType.INTERVAL: {
+                    final Interval value = record.getInterval(col);
+                    if (!Interval.NULL.equals(value)) {
+                        data.put(value);
+                    } else {
+                        valid = false;
+                    }
+                    break;
+                }
+                default:
+                    // NULL
+                    valid = false;
+                    break;
+            }
+            if (data != null) {
+                values.putInt(data.size());
+            }
+            if (valid) {
+                setBit(validity, row);
+            } else {
+                nullCount++;
+            }
+        }
+
+        private void clear() {
+            validity.jumpTo(0);
+            values.jumpTo(0);
+            if (data != null) {
+                data.clear();
+                values.putInt(0);
+            }
+            nullCount = 0;
+        }
+
+        private boolean putGeoHash(long value) {
+            if (value == GeoHashes.NULL) {
+                return false;
+            }
+            final int bitFlags = GeoHashes.getBitFlags(columnType);
+            if (bitFlags < 0) {
+                GeoHashes.appendCharsUnsafe(value, -bitFlags, data);
+            } else {
+                GeoHashes.appendBinaryStringUnsafe(value, bitFlags, data);
+            }
+            return true;
+        }
+
+        private void setBit(MemoryCARW mem, int row) {
+            final long address = mem.addressOf(row >>> 3);
+            Unsafe.getUnsafe().putByte(address, (byte) (Unsafe.getUnsafe().getByte(address) | (1 << (row & 7))));
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Utf8StringSink;
+
+/**
+ * Minimal FlatBuffers encoder, sufficient to produce Arrow IPC message metadata.
+ * <p>
+ * Same as the reference implementation, the buffer is filled back to front, which means
+ * that strings, vectors and child tables must be created before the table that refers to them.
+ * Offsets returned by this builder are measured from the end of the buffer.
+ */
+public class FlatBufferBuilder implements Mutable, QuietCloseable {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final Utf8StringSink utf8Sink = new Utf8StringSink();
+    private final IntList vtable = new IntList();
+    private long capacity;
+    // data occupies [ptr + head, ptr + capacity)
+    private long head;
+    private int minAlign = 1;
+    private int objectStart;
+    private long ptr;
+
+    public FlatBufferBuilder() {
+        capacity = INITIAL_CAPACITY;
+        ptr = Unsafe.malloc(capacity, MemoryTag.NATIVE_DEFAULT);
+        head = capacity;
+    }
+
+    public void addBool(boolean value) {
+        prep(Byte.BYTES, 0);
+        putByte((byte) (value ? 1 : 0));
+    }
+
+    public void addByte(byte value) {
+        prep(Byte.BYTES, 0);
+        putByte(value);
+    }
+
+    public void addFieldBool(int field, boolean value) {
+        addBool(value);
+        slot(field);
+    }
+
+    public void addFieldByte(int field, byte value) {
+        addByte(value);
+        slot(field);
+    }
+
+    public void addFieldInt(int field, int value) {
+        addInt(value);
+        slot(field);
+    }
+
+    public void addFieldLong(int field, long value) {
+        addLong(value);
+        slot(field);
+    }
+
+    public void addFieldOffset(int field, int offset) {
+        addOffset(offset);
+        slot(field);
+    }
+
+    public void addFieldShort(int field, short value) {
+        addShort(value);
+        slot(field);
+    }
+
+    public void addInt(int value) {
+        prep(Integer.BYTES, 0);
+        putInt(value);
+    }
+
+    public void addLong(long value) {
+        prep(Long.BYTES, 0);
+        putLong(value);
+    }
+
+    public void addOffset(int offset) {
+        prep(Integer.BYTES, 0);
+        assert offset <= offset();
+        putInt(offset() - offset + Integer.BYTES);
+    }
+
+    public void addShort(short value) {
+        prep(Short.BYTES, 0);
+        putShort(value);
+    }
+
+    /**
+     * Adds struct of two longs to the vector being built. Vectors are built back to front,
+     * so the structs have to be added in the reverse order.
+     */
+    public void addStructOfLongs(long first, long second) {
+        prep(Long.BYTES, 2 * Long.BYTES);
+        putLong(second);
+        putLong(first);
+    }
+
+    @Override
+    public void clear() {
+        head = capacity;
+        minAlign = 1;
+        vtable.clear();
+    }
+
+    @Override
+    public void close() {
+        if (ptr != 0) {
+            ptr = Unsafe.free(ptr, capacity, MemoryTag.NATIVE_DEFAULT);
+            capacity = 0;
+            head = 0;
+        }
+    }
+
+    public int createString(CharSequence value) {
+        utf8Sink.clear();
+        utf8Sink.put(value);
+        final int size = utf8Sink.size();
+        prep(Integer.BYTES, size + 1);
+        putByte((byte) 0);
+        head -= size;
+        for (int i = 0; i < size; i++) {
+            Unsafe.getUnsafe().putByte(ptr + head + i, utf8Sink.byteAt(i));
+        }
+        return endVector(size);
+    }
+
+    public int endTable() {
+        // placeholder for the vtable offset, patched below
+        addInt(0);
+        final int objectOffset = offset();
+        int fieldCount = vtable.size();
+        while (fieldCount > 0 && vtable.getQuick(fieldCount - 1) == 0) {
+            fieldCount--;
+        }
+        for (int i = fieldCount - 1; i > -1; i--) {
+            final int fieldOffset = vtable.getQuick(i);
+            addShort((short) (fieldOffset != 0 ? objectOffset - fieldOffset : 0));
+        }
+        addShort((short) (objectOffset - objectStart));
+        addShort((short) ((fieldCount + 2) * Short.BYTES));
+        Unsafe.getUnsafe().putInt(ptr + capacity - objectOffset, offset() - objectOffset);
+        vtable.clear();
+        return objectOffset;
+    }
+
+    public int endVector(int elementCount) {
+        putInt(elementCount);
+        return offset();
+    }
+
+    public void finish(int rootTable) {
+        prep(minAlign, Integer.BYTES);
+        addOffset(rootTable);
+    }
+
+    public long getBufferAddress() {
+        return ptr + head;
+    }
+
+    public int getBufferSize() {
+        return (int) (capacity - head);
+    }
+
+    public void startTable(int fieldCount) {
+        assert vtable.size() == 0 : "nested tables are not supported";
+        vtable.setAll(fieldCount, 0);
+        objectStart = offset();
+    }
+
+    public void startVector(int elementSize, int elementCount, int alignment) {
+        final int size = elementSize * elementCount;
+        prep(Integer.BYTES, size);
+        prep(alignment, size);
+    }
+
+    private void ensureCapacity(long required) {
+        if (head < required) {
+            final long used = capacity - head;
+            final long newCapacity = Numbers.ceilPow2(used + required);
+            final long newPtr = Unsafe.malloc(newCapacity, MemoryTag.NATIVE_DEFAULT);
+            Vect.memcpy(newPtr + newCapacity - used, ptr + head, used);
+            Unsafe.free(ptr, capacity, MemoryTag.NATIVE_DEFAULT);
+            ptr = newPtr;
+            head = newCapacity - used;
+            capacity = newCapacity;
+        }
+    }
+
+    private int offset() {
+        return (int) (capacity - head);
+    }
+
+    // aligns the buffer so that value of the given size is aligned after additionalBytes are written
+    private void prep(int size, int additionalBytes) {
+        if (size > minAlign) {
+            minAlign = size;
+        }
+        final int alignSize = (~(offset() + additionalBytes) + 1) & (size - 1);
+        ensureCapacity(alignSize + size + additionalBytes);
+        for (int i = 0; i < alignSize; i++) {
+            putByte((byte) 0);
+        }
+    }
+
+    private void putByte(byte value) {
+        Unsafe.getUnsafe().putByte(ptr + --head, value);
+    }
+
+    private void putInt(int value) {
+        head -= Integer.BYTES;
+        Unsafe.getUnsafe().putInt(ptr + head, value);
+    }
+
+    private void putLong(long value) {
+        head -= Long.BYTES;
+        Unsafe.getUnsafe().putLong(ptr + head, value);
+    }
+
+    private void putShort(short value) {
+        head -= Short.BYTES;
+        Unsafe.getUnsafe().putShort(ptr + head, value);
+    }
+
+    private void slot(int field) {
+        vtable.setQuick(field, offset());
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.DirectUtf8String;
+
+/**
+ * Bounds-checked flyweight over a flatbuffer in native memory. Tables, vectors and strings are
+ * addressed by their absolute native address; absent fields resolve to the supplied defaults.
+ * Any offset pointing outside the buffer fails with non-critical {@link CairoException}, which
+ * makes the reader safe to use on untrusted input.
+ */
+public class FlatBufferReader {
+    private long hi;
+    private long lo;
+
+    public boolean getBool(long table, int slot, boolean defaultValue) {
+        final long p = field(table, slot);
+        return p != 0 ? Unsafe.getUnsafe().getByte(check(p, 1)) != 0 : defaultValue;
+    }
+
+    public byte getByte(long table, int slot, byte defaultValue) {
+        final long p = field(table, slot);
+        return p != 0 ? Unsafe.getUnsafe().getByte(check(p, 1)) : defaultValue;
+    }
+
+    public int getInt(long table, int slot, int defaultValue) {
+        final long p = field(table, slot);
+        return p != 0 ? Unsafe.getUnsafe().getInt(check(p, 4)) : defaultValue;
+    }
+
+    public long getLong(long table, int slot, long defaultValue) {
+        final long p = field(table, slot);
+        return p != 0 ? Unsafe.getUnsafe().getLong(check(p, 8)) : defaultValue;
+    }
+
+    public short getShort(long table, int slot, short defaultValue) {
+        final long p = field(table, slot);
+        return p != 0 ? Unsafe.getUnsafe().getShort(check(p, 2)) : defaultValue;
+    }
+
+    /**
+     * @return the supplied flyweight pointing at the string bytes or null when the field is absent
+     */
+    public DirectUtf8String getString(long table, int slot, DirectUtf8String sink) {
+        final long v = getVector(table, slot, 1);
+        if (v == 0) {
+            return null;
+        }
+        final long len = getVectorLength(v);
+        return sink.of(v + 4, v + 4 + len);
+    }
+
+    /**
+     * @return address of the nested table or 0 when the field is absent
+     */
+    public long getTable(long table, int slot) {
+        final long p = field(table, slot);
+        return p != 0 ? indirect(p) : 0;
+    }
+
+    /**
+     * @return address of the vector length prefix or 0 when the field is absent,
+     * elements start 4 bytes after it
+     */
+    public long getVector(long table, int slot, int elementSize) {
+        final long p = field(table, slot);
+        if (p == 0) {
+            return 0;
+        }
+        final long v = indirect(p);
+        final long len = getVectorLength(v);
+        check(v + 4, len * elementSize);
+        return v;
+    }
+
+    public long getVectorElement(long vector, int elementSize, int index) {
+        return vector + 4 + (long) index * elementSize;
+    }
+
+    /**
+     * @return address of the table at the given index of the vector of tables
+     */
+    public long getVectorTable(long vector, int index) {
+        return indirect(getVectorElement(vector, 4, index));
+    }
+
+    public int getVectorLength(long vector) {
+        if (vector == 0) {
+            return 0;
+        }
+        final int len = Unsafe.getUnsafe().getInt(check(vector, 4));
+        if (len < 0) {
+            throw malformed();
+        }
+        return len;
+    }
+
+    public FlatBufferReader of(long lo, long hi) {
+        this.lo = lo;
+        this.hi = hi;
+        return this;
+    }
+
+    /**
+     * @return address of the root table
+     */
+    public long root() {
+        return indirect(lo);
+    }
+
+    private static CairoException malformed() {
+        return CairoException.nonCritical().put("malformed flatbuffer");
+    }
+
+    private long check(long p, long size) {
+        if (p < lo || size < 0 || p + size > hi) {
+            throw malformed();
+        }
+        return p;
+    }
+
+    private long field(long table, int slot) {
+        final long vtable = table - Unsafe.getUnsafe().getInt(check(table, 4));
+        final int vtableSize = Unsafe.getUnsafe().getShort(check(vtable, 2)) & 0xffff;
+        final int entry = 4 + 2 * slot;
+        if (entry + 2 > vtableSize) {
+            return 0;
+        }
+        final int fieldOffset = Unsafe.getUnsafe().getShort(check(vtable + entry, 2)) & 0xffff;
+        return fieldOffset != 0 ? table + fieldOffset : 0;
+    }
+
+    private long indirect(long p) {
+        final long target = p + (Unsafe.getUnsafe().getInt(check(p, 4)) & 0xffffffffL);
+        check(target, 4);
+        return target;
+    }
+}
@@ -231,6 +231,16 @@ public class DefaultHttpServerConfiguration implements HttpServerConfiguration {
             return DefaultFactoryProvider.INSTANCE;
         }
 
+        @Override
+        public int getExportBatchRowCount() {
+            return 65536;
+        }
+
+        @Override
+        public long getImportArrowMaxMessageSize() {
+            return 128 * Numbers.SIZE_1MB;
+        }
+
         @Override
         public FilesFacade getFilesFacade() {
             return FilesFacadeImpl.INSTANCE;
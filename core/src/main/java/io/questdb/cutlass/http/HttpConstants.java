@@ -27,9 +27,11 @@ package io.questdb.cutlass.http;
 import io.questdb.std.str.Utf8String;
 
 public final class HttpConstants {
+    public static final String CONTENT_TYPE_ARROW_STREAM = "application/vnd.apache.arrow.stream";
     public static final String CONTENT_TYPE_CSV = "text/csv; charset=utf-8";
     public static final String CONTENT_TYPE_HTML = "text/html; charset=utf-8";
     public static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    public static final String CONTENT_TYPE_PARQUET = "application/vnd.apache.parquet";
     public static final String CONTENT_TYPE_TEXT = "text/plain; charset=utf-8";
 
     public static final char COOKIE_VALUE_SEPARATOR = '=';
@@ -62,6 +64,7 @@ public final class HttpConstants {
     public static final Utf8String URL_PARAM_O3_MAX_LAG = new Utf8String("o3MaxLag");
     public static final Utf8String URL_PARAM_OVERWRITE = new Utf8String("overwrite");
     public static final Utf8String URL_PARAM_PARTITION_BY = new Utf8String("partitionBy");
+    public static final Utf8String URL_PARAM_PRIORITY = new Utf8String("priority");
     public static final Utf8String URL_PARAM_QUERY = new Utf8String("query");
     public static final Utf8String URL_PARAM_QUOTE_LARGE_NUM = new Utf8String("quoteLargeNum");
     public static final Utf8String URL_PARAM_SKIP_LEV = new Utf8String("skipLev");
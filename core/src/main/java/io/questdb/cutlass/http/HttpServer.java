@@ -231,6 +231,24 @@ public class HttpServer implements Closeable {
             }
         });
 
+        if (!httpServerConfiguration.getHttpContextConfiguration().readOnlySecurityContext()) {
+            server.bind(new HttpRequestProcessorFactory() {
+                @Override
+                public String getUrl() {
+                    return "/imp/arrow";
+                }
+
+                @Override
+                public HttpRequestProcessor newInstance() {
+                    return new ArrowIngestProcessor(
+                            cairoEngine,
+                            httpServerConfiguration.getHttpContextConfiguration().getSendBufferSize(),
+                            httpServerConfiguration.getJsonQueryProcessorConfiguration()
+                    );
+                }
+            });
+        }
+
         server.bind(new HttpRequestProcessorFactory() {
             @Override
             public String getUrl() {
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cutlass.http.HttpChunkedResponse;
+import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.cutlass.http.HttpException;
+import io.questdb.cutlass.http.HttpMultipartContentListener;
+import io.questdb.cutlass.http.HttpRequestHeader;
+import io.questdb.cutlass.http.HttpRequestProcessor;
+import io.questdb.cutlass.http.LocalValue;
+import io.questdb.network.PeerDisconnectedException;
+import io.questdb.network.PeerIsSlowToReadException;
+import io.questdb.network.QueryPausedException;
+import io.questdb.network.ServerDisconnectException;
+import io.questdb.std.str.DirectUtf8Sequence;
+import io.questdb.std.str.Utf8s;
+
+import static io.questdb.cutlass.http.HttpConstants.CONTENT_TYPE_JSON;
+import static io.questdb.cutlass.http.HttpConstants.URL_PARAM_NAME;
+import static io.questdb.cutlass.http.processors.ArrowIngestProcessorState.Status.INVALID;
+import static io.questdb.cutlass.http.processors.ArrowIngestProcessorState.Status.METHOD_NOT_SUPPORTED;
+
+/**
+ * Appends Apache Arrow IPC stream sent as POST body to an existing WAL table, e.g.
+ * <pre>
+ * curl -X POST --data-binary @trades.arrows "http://localhost:9000/imp/arrow?name=trades"
+ * </pre>
+ * Record batches bypass row-wise parsing, they are appended to the table column by column.
+ * The whole stream is committed as a single transaction once the request is complete, any
+ * error rolls back all batches of the request.
+ */
+public class ArrowIngestProcessor implements HttpRequestProcessor, HttpMultipartContentListener {
+    private static final LocalValue<ArrowIngestProcessorState> LV = new LocalValue<>();
+    private final JsonQueryProcessorConfiguration configuration;
+    private final CairoEngine engine;
+    private final int maxResponseContentLength;
+    private ArrowIngestProcessorState state;
+
+    public ArrowIngestProcessor(CairoEngine engine, int maxResponseContentLength, JsonQueryProcessorConfiguration configuration) {
+        this.engine = engine;
+        this.maxResponseContentLength = maxResponseContentLength;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void onChunk(long lo, long hi) {
+        state.onChunk(lo, hi);
+    }
+
+    @Override
+    public void onConnectionClosed(HttpConnectionContext context) {
+        state = LV.get(context);
+        if (state != null) {
+            state.onDisconnected();
+        }
+    }
+
+    @Override
+    public void onHeadersReady(HttpConnectionContext context) {
+        state = LV.get(context);
+        if (state == null) {
+            state = new ArrowIngestProcessorState(engine, maxResponseContentLength, configuration.getImportArrowMaxMessageSize());
+            LV.set(context, state);
+        } else {
+            state.clear();
+        }
+
+        final HttpRequestHeader requestHeader = context.getRequestHeader();
+        if (!Utf8s.equalsNcAscii("POST", requestHeader.getMethod())) {
+            state.reject(METHOD_NOT_SUPPORTED, "Not Found", context.getFd());
+            return;
+        }
+
+        final DirectUtf8Sequence tableName = requestHeader.getUrlParam(URL_PARAM_NAME);
+        if (tableName == null || tableName.size() == 0) {
+            state.reject(INVALID, "table name is missing, expected 'name' URL parameter", context.getFd());
+            return;
+        }
+
+        state.of(context.getFd(), tableName, context.getSecurityContext());
+    }
+
+    @Override
+    public void onPartBegin(HttpRequestHeader partHeader) {
+    }
+
+    @Override
+    public void onPartEnd() {
+    }
+
+    @Override
+    public void onRequestComplete(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        state.commit();
+        state.setSendStatus(SendStatus.HEADER);
+        if (state.isOk()) {
+            context.simpleResponse().sendStatusNoContent(204);
+        } else {
+            sendErrorHeader(context);
+            state.setSendStatus(SendStatus.CONTENT);
+            sendErrorContent(context);
+        }
+    }
+
+    @Override
+    public void resumeRecv(HttpConnectionContext context) {
+        state = LV.get(context);
+    }
+
+    @Override
+    public void resumeSend(
+            HttpConnectionContext context
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException, QueryPausedException {
+        state = LV.get(context);
+        assert state != null;
+
+        switch (state.getSendStatus()) {
+            case HEADER:
+                context.resumeResponseSend();
+                if (!state.isOk()) {
+                    state.setSendStatus(SendStatus.CONTENT);
+                    sendErrorContent(context);
+                }
+                break;
+
+            case CONTENT:
+                context.resumeResponseSend();
+                break;
+
+            default:
+                throw HttpException.instance("unexpected send status: " + state.getSendStatus());
+        }
+    }
+
+    private void sendErrorContent(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final HttpChunkedResponse response = context.getChunkedResponse();
+        state.formatError(response);
+        response.sendChunk(true);
+    }
+
+    private void sendErrorHeader(HttpConnectionContext context) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final HttpChunkedResponse response = context.getChunkedResponse();
+        response.status(state.getHttpResponseCode(), CONTENT_TYPE_JSON);
+        response.sendHeader();
+    }
+}
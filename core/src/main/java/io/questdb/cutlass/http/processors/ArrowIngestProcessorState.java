@@ -0,0 +1,195 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.http.processors;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.wal.WalWriter;
+import io.questdb.cutlass.arrow.ArrowStreamReader;
+import io.questdb.cutlass.http.ConnectionAware;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8Sink;
+
+public class ArrowIngestProcessorState implements QuietCloseable, ConnectionAware {
+    private static final Log LOG = LogFactory.getLog(ArrowIngestProcessorState.class);
+    private final CairoEngine engine;
+    private final StringSink error = new StringSink();
+    private final int maxResponseErrorMessageLength;
+    private final ArrowStreamReader reader;
+    private final StringSink tableName = new StringSink();
+    private Status currentStatus = Status.OK;
+    private long fd = -1;
+    private SendStatus sendStatus = SendStatus.NONE;
+    private WalWriter writer;
+
+    public ArrowIngestProcessorState(CairoEngine engine, int maxResponseContentLength, long maxMessageSize) {
+        this.engine = engine;
+        // Response is measured in bytes some error messages can have non-ascii characters
+        // approximate 1.5 bytes per character
+        this.maxResponseErrorMessageLength = (int) ((maxResponseContentLength - 100) / 1.5);
+        this.reader = new ArrowStreamReader(maxMessageSize, MemoryTag.NATIVE_HTTP_CONN);
+    }
+
+    public void clear() {
+        reader.clear();
+        // returning uncommitted writer to the pool rolls it back
+        writer = Misc.free(writer);
+        error.clear();
+        tableName.clear();
+        currentStatus = Status.OK;
+        sendStatus = SendStatus.NONE;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(reader);
+    }
+
+    public void commit() {
+        if (!isOk()) {
+            return;
+        }
+        try {
+            reader.onStreamEnd();
+            writer.commit();
+            currentStatus = Status.COMMITTED;
+            LOG.info().$("arrow ingest committed [fd=").$(fd)
+                    .$(", table=").$(tableName)
+                    .$(", rows=").$(reader.getIngestedRowCount())
+                    .I$();
+        } catch (CairoException e) {
+            fail(e.isAuthorizationError() ? Status.SECURITY_ERROR : Status.INVALID, e.getFlyweightMessage());
+        } catch (Throwable th) {
+            fail(Status.INTERNAL_ERROR, th.getClass().getCanonicalName());
+        } finally {
+            writer = Misc.free(writer);
+        }
+    }
+
+    public void formatError(Utf8Sink sink) {
+        sink.putAscii("{\"code\":\"").putAscii(currentStatus.codeStr);
+        sink.putAscii("\",\"message\":\"");
+        sink.escapeJsonStr(error, 0, Math.min(error.length(), maxResponseErrorMessageLength));
+        sink.putAscii("\",\"rows\":").put(reader.getIngestedRowCount()).putAscii('}');
+    }
+
+    public int getHttpResponseCode() {
+        return currentStatus.responseCode;
+    }
+
+    public SendStatus getSendStatus() {
+        return sendStatus;
+    }
+
+    public boolean isOk() {
+        return currentStatus == Status.OK || currentStatus == Status.COMMITTED;
+    }
+
+    public void of(long fd, Utf8Sequence tableName, SecurityContext securityContext) {
+        this.fd = fd;
+        this.tableName.put(tableName);
+        try {
+            final TableToken tableToken = engine.getTableTokenIfExists(this.tableName);
+            if (tableToken == null) {
+                fail(Status.INVALID, "table does not exist");
+                return;
+            }
+            if (!tableToken.isWal()) {
+                fail(Status.INVALID, "arrow ingest requires WAL table");
+                return;
+            }
+            securityContext.authorizeInsert(tableToken);
+            writer = engine.getWalWriter(tableToken);
+            reader.of(writer);
+        } catch (CairoException e) {
+            fail(e.isAuthorizationError() ? Status.SECURITY_ERROR : Status.INVALID, e.getFlyweightMessage());
+        }
+    }
+
+    public void onChunk(long lo, long hi) {
+        if (currentStatus != Status.OK) {
+            return;
+        }
+        try {
+            reader.onChunk(lo, hi);
+        } catch (CairoException e) {
+            fail(Status.INVALID, e.getFlyweightMessage());
+            writer = Misc.free(writer);
+        } catch (Throwable th) {
+            fail(Status.INTERNAL_ERROR, th.getClass().getCanonicalName());
+            writer = Misc.free(writer);
+        }
+    }
+
+    @Override
+    public void onDisconnected() {
+        clear();
+    }
+
+    public void reject(Status status, CharSequence errorText, long fd) {
+        this.fd = fd;
+        fail(status, errorText);
+    }
+
+    public void setSendStatus(SendStatus sendStatus) {
+        this.sendStatus = sendStatus;
+    }
+
+    private void fail(Status status, CharSequence errorText) {
+        currentStatus = status;
+        error.put(errorText);
+        LOG.error().$("arrow ingest failed [fd=").$(fd)
+                .$(", table=").$(tableName)
+                .$(", error=").$(error)
+                .I$();
+    }
+
+    public enum Status {
+        OK(null, 204),
+        COMMITTED(null, 204),
+        INVALID("invalid", 400),
+        METHOD_NOT_SUPPORTED("invalid", 404),
+        SECURITY_ERROR("unauthorised", 403),
+        INTERNAL_ERROR("internal error", 500);
+
+        private final String codeStr;
+        private final int responseCode;
+
+        Status(String codeStr, int responseCode) {
+            this.codeStr = codeStr;
+            this.responseCode = responseCode;
+        }
+    }
+}
@@ -163,6 +163,7 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
             // do not set random for new request to avoid copying random from previous request into next one
             // the only time we need to copy random from state is when we resume request execution
             sqlExecutionContext.with(context.getSecurityContext(), null, null, context.getFd(), circuitBreaker.of(context.getFd()));
+            sqlExecutionContext.setQueryPriority(state.getQueryPriority());
             sqlExecutionContext.initNow();
             if (state.getStatementTimeout() > 0L) {
                 circuitBreaker.setTimeout(state.getStatementTimeout());
@@ -36,6 +36,18 @@ public interface JsonQueryProcessorConfiguration {
 
     int getDoubleScale();
 
+    /**
+     * Number of rows encoded per record batch (Arrow) or row group (Parquet) when
+     * query results are exported in a columnar format.
+     */
+    int getExportBatchRowCount();
+
+    /**
+     * Largest Arrow IPC message, metadata and body together, accepted by the Arrow
+     * ingest endpoint. Record batches must fit in memory whole before they are appended.
+     */
+    long getImportArrowMaxMessageSize();
+
     FactoryProvider getFactoryProvider();
 
     FilesFacade getFilesFacade();
@@ -29,6 +29,7 @@ import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.DataUnavailableException;
 import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.sql.OperationFuture;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
@@ -111,6 +112,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private boolean pausedQuery = false;
     private boolean queryCacheable = false;
     private boolean queryJitCompiled = false;
+    private int queryPriority = QueryPriority.UNSET;
     private int queryState = QUERY_SETUP_FIRST_RECORD;
     private int queryTimestampIndex;
     private short queryType;
@@ -217,6 +219,7 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         quoteLargeNum = Utf8s.equalsNcAscii("true", request.getUrlParam(URL_PARAM_QUOTE_LARGE_NUM))
                 || Utf8s.equalsNcAscii("con", request.getUrlParam(URL_PARAM_SRC));
         apiVersion = parseApiVersion(request);
+        queryPriority = parseQueryPriority(request);
     }
 
     public LogRecord critical() {
@@ -259,6 +262,10 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         return containsSecret ? HIDDEN : query;
     }
 
+    public int getQueryPriority() {
+        return queryPriority;
+    }
+
     public short getQueryType() {
         return queryType;
     }
@@ -333,6 +340,12 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         }
     }
 
+    private static int parseQueryPriority(HttpRequestHeader header) {
+        final DirectUtf8Sequence priorityStr = header.getUrlParam(URL_PARAM_PRIORITY);
+        // unknown priority falls back to the one of the principal
+        return priorityStr != null ? QueryPriority.of(priorityStr.asAsciiCharSequence()) : QueryPriority.UNSET;
+    }
+
     private static void putBooleanValue(HttpChunkedResponse response, Record rec, int col) {
         response.put(rec.getBool(col));
     }
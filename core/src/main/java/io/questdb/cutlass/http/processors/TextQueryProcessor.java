@@ -29,12 +29,15 @@ import io.questdb.TelemetryOrigin;
 import io.questdb.cairo.*;
 import io.questdb.cairo.sql.NetworkSqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatchEncoder;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.http.*;
 import io.questdb.griffin.CompiledQuery;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.table.parquet.ParquetStreamWriter;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
@@ -296,6 +299,22 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
                 .$(", totalBytesSent=").$(context.getTotalBytesSent()).I$();
     }
 
+    private static void sendPendingBytes(
+            HttpChunkedResponse response,
+            RecordBatchEncoder encoder
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        while (encoder.hasPendingBytes()) {
+            final long lo = encoder.getPendingLo();
+            final long len = encoder.getPendingHi() - lo;
+            final int written = response.writeBytes(lo, (int) Math.min(len, Integer.MAX_VALUE));
+            encoder.skipPendingBytes(written);
+            if (written < len) {
+                // response buffer is full
+                response.sendChunk(false);
+            }
+        }
+    }
+
     private LogRecord critical(TextQueryProcessorState state) {
         return LOG.critical().$('[').$(state.getFd()).$("] ");
     }
@@ -319,6 +338,11 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         }
 
         final HttpChunkedResponse response = context.getChunkedResponse();
+        if (state.format != TextQueryProcessorState.FORMAT_CSV) {
+            doResumeSendColumnar(response, state);
+            readyForNextRequest(context);
+            return;
+        }
         final int columnCount = state.metadata.getColumnCount();
 
         OUT:
@@ -427,10 +451,92 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         readyForNextRequest(context);
     }
 
+    private void doResumeSendColumnar(
+            HttpChunkedResponse response,
+            TextQueryProcessorState state
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException {
+        OUT:
+        while (true) {
+            try {
+                switch (state.queryState) {
+                    case JsonQueryProcessorState.QUERY_SETUP_FIRST_RECORD:
+                        // encoder is set up before the header is sent, so that unsupported
+                        // result sets are reported to the client as an error
+                        state.encoder = getEncoder(state);
+                        state.encoder.of(state.metadata);
+                        state.hasNext = state.cursor.hasNext();
+                        header(response, state, 200);
+                        state.queryState = JsonQueryProcessorState.QUERY_METADATA;
+                        // fall through
+                    case JsonQueryProcessorState.QUERY_METADATA:
+                        sendPendingBytes(response, state.encoder);
+                        state.queryState = JsonQueryProcessorState.QUERY_RECORD_START;
+                        // fall through
+                    case JsonQueryProcessorState.QUERY_RECORD_START:
+                        final Record record = state.cursor.getRecord();
+                        while (!state.encoder.isBatchFull()) {
+                            if (state.hasNext || state.cursor.hasNext()) {
+                                state.hasNext = false;
+                                state.count++;
+                                if (state.count > state.stop) {
+                                    if (state.countRows) {
+                                        continue;
+                                    }
+                                    state.cursorExhausted = true;
+                                    break;
+                                }
+                                if (state.count > state.skip) {
+                                    state.encoder.appendRecord(record);
+                                }
+                            } else {
+                                state.cursorExhausted = true;
+                                break;
+                            }
+                        }
+                        state.encoder.flushBatch();
+                        state.queryState = JsonQueryProcessorState.QUERY_RECORD;
+                        // fall through
+                    case JsonQueryProcessorState.QUERY_RECORD:
+                        sendPendingBytes(response, state.encoder);
+                        if (!state.cursorExhausted) {
+                            state.queryState = JsonQueryProcessorState.QUERY_RECORD_START;
+                            break;
+                        }
+                        // close cursor before returning complete response
+                        state.cursor = Misc.free(state.cursor);
+                        state.encoder.finish();
+                        state.queryState = JsonQueryProcessorState.QUERY_SUFFIX;
+                        // fall through
+                    case JsonQueryProcessorState.QUERY_SUFFIX:
+                        sendPendingBytes(response, state.encoder);
+                        sendDone(response, state);
+                        break OUT;
+                    default:
+                        break OUT;
+                }
+            } catch (DataUnavailableException e) {
+                throw QueryPausedException.instance(e.getEvent(), sqlExecutionContext.getCircuitBreaker());
+            }
+        }
+    }
+
     private LogRecord error(TextQueryProcessorState state) {
         return LOG.error().$('[').$(state.getFd()).$("] ");
     }
 
+    private RecordBatchEncoder getEncoder(TextQueryProcessorState state) {
+        if (state.format == TextQueryProcessorState.FORMAT_ARROW) {
+            if (state.arrowWriter == null) {
+                state.arrowWriter = new ArrowStreamWriter(configuration.getExportBatchRowCount(), MemoryTag.NATIVE_HTTP_CONN);
+            }
+            return state.arrowWriter;
+        }
+        if (state.parquetWriter == null) {
+            state.parquetWriter = new ParquetStreamWriter(engine.getConfiguration(), configuration.getExportBatchRowCount(), MemoryTag.NATIVE_HTTP_CONN);
+        }
+        return state.parquetWriter;
+    }
+
     private LogRecord info(TextQueryProcessorState state) {
         return LOG.info().$('[').$(state.getFd()).$("] ");
     }
@@ -546,6 +652,19 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             state.delimiter = (char) delimiter.byteAt(0);
         }
 
+        final DirectUtf8Sequence format = request.getUrlParam(URL_PARAM_FMT);
+        if (format == null || Utf8s.equalsNcAscii("csv", format)) {
+            state.format = TextQueryProcessorState.FORMAT_CSV;
+        } else if (Utf8s.equalsNcAscii("parquet", format)) {
+            state.format = TextQueryProcessorState.FORMAT_PARQUET;
+        } else if (Utf8s.equalsNcAscii("arrow", format)) {
+            state.format = TextQueryProcessorState.FORMAT_ARROW;
+        } else {
+            info(state).$("unsupported export format [fmt=").$(format).I$();
+            sendException(response, 0, "unsupported export format, expected one of: csv, parquet, arrow", 400, state);
+            return false;
+        }
+
         state.skip = skip;
         state.count = 0L;
         state.stop = stop;
@@ -696,11 +815,27 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             TextQueryProcessorState state,
             int statusCode
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
-        response.status(statusCode, CONTENT_TYPE_CSV);
+        final String contentType;
+        final String extension;
+        switch (state.format) {
+            case TextQueryProcessorState.FORMAT_PARQUET:
+                contentType = CONTENT_TYPE_PARQUET;
+                extension = ".parquet";
+                break;
+            case TextQueryProcessorState.FORMAT_ARROW:
+                contentType = CONTENT_TYPE_ARROW_STREAM;
+                extension = ".arrow";
+                break;
+            default:
+                contentType = CONTENT_TYPE_CSV;
+                extension = ".csv";
+                break;
+        }
+        response.status(statusCode, contentType);
         if (state.fileName != null && !state.fileName.isEmpty()) {
-            response.headers().putAscii("Content-Disposition: attachment; filename=\"").put(state.fileName).putAscii(".csv\"").putEOL();
+            response.headers().putAscii("Content-Disposition: attachment; filename=\"").put(state.fileName).putAscii(extension).putAscii('"').putEOL();
         } else {
-            response.headers().putAscii("Content-Disposition: attachment; filename=\"questdb-query-").put(clock.getTicks()).putAscii(".csv\"").putEOL();
+            response.headers().putAscii("Content-Disposition: attachment; filename=\"questdb-query-").put(clock.getTicks()).putAscii(extension).putAscii('"').putEOL();
         }
         response.headers().setKeepAlive(configuration.getKeepAliveHeader());
         response.sendHeader();
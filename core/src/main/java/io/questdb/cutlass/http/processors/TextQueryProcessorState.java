@@ -25,10 +25,13 @@
 package io.questdb.cutlass.http.processors;
 
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatchEncoder;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.griffin.engine.table.parquet.ParquetStreamWriter;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.Rnd;
@@ -37,17 +40,25 @@ import io.questdb.std.str.StringSink;
 import java.io.Closeable;
 
 public class TextQueryProcessorState implements Mutable, Closeable {
+    static final byte FORMAT_ARROW = 2;
+    static final byte FORMAT_CSV = 0;
+    static final byte FORMAT_PARQUET = 1;
     final StringSink query = new StringSink();
     private final HttpConnectionContext httpConnectionContext;
+    ArrowStreamWriter arrowWriter;
     boolean hasNext;
     int columnIndex;
     long count;
     boolean countRows = false;
     RecordCursor cursor;
+    boolean cursorExhausted;
     char delimiter = ',';
+    RecordBatchEncoder encoder;
     String fileName;
+    byte format = FORMAT_CSV;
     RecordMetadata metadata;
     boolean noMeta = false;
+    ParquetStreamWriter parquetWriter;
     boolean pausedQuery = false;
     int queryState;
     Record record;
@@ -88,12 +99,22 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         noMeta = false;
         countRows = false;
         pausedQuery = false;
+        cursorExhausted = false;
+        format = FORMAT_CSV;
+        if (encoder != null) {
+            // releases batch buffers and temporary files, the encoder itself is reused
+            encoder.clear();
+            encoder = null;
+        }
     }
 
     @Override
     public void close() {
         cursor = Misc.free(cursor);
         recordCursorFactory = Misc.free(recordCursorFactory);
+        encoder = null;
+        arrowWriter = Misc.free(arrowWriter);
+        parquetWriter = Misc.free(parquetWriter);
     }
 
     public long getFd() {
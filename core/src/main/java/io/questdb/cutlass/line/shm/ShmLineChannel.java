@@ -0,0 +1,131 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.shm;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.line.LineChannel;
+import io.questdb.cutlass.line.LineSenderException;
+import io.questdb.std.*;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.datetime.millitime.MillisecondClockImpl;
+import io.questdb.std.str.Path;
+
+/**
+ * Line protocol channel for clients co-located with the database. Instead of a socket, the channel
+ * writes into the first free shared memory ring in the ring directory configured on the server
+ * via <code>line.tcp.shm.ring.dir</code>.
+ */
+public final class ShmLineChannel implements LineChannel {
+    private final MillisecondClock clock;
+    private final ShmLineRing ring;
+    private final long sendTimeoutMillis;
+
+    public ShmLineChannel(FilesFacade ff, CharSequence ringDir, long sendTimeoutMillis) {
+        this.clock = MillisecondClockImpl.INSTANCE;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.ring = claimRing(ff, ringDir);
+        try {
+            // the previous producer of this ring may have died mid-line, terminate
+            // the partial line, so that the server discards it as a malformed one
+            final long eol = Unsafe.malloc(1, MemoryTag.NATIVE_ILP_RSS);
+            try {
+                Unsafe.getUnsafe().putByte(eol, (byte) '\n');
+                send(eol, 1);
+            } finally {
+                Unsafe.free(eol, 1, MemoryTag.NATIVE_ILP_RSS);
+            }
+        } catch (Throwable th) {
+            ring.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void close() {
+        // closing the file releases the lock
+        ring.close();
+    }
+
+    @Override
+    public int errno() {
+        return 0;
+    }
+
+    @Override
+    public int receive(long ptr, int len) {
+        throw new LineSenderException("authentication is not supported by shared memory transport");
+    }
+
+    @Override
+    public void send(long ptr, int len) {
+        long deadline = Long.MIN_VALUE;
+        while (len > 0) {
+            final long n = ring.write(ptr, len);
+            if (n > 0) {
+                ptr += n;
+                len -= (int) n;
+                deadline = Long.MIN_VALUE;
+                continue;
+            }
+            // ring is full, wait for the server to drain it
+            final long now = clock.getTicks();
+            if (deadline == Long.MIN_VALUE) {
+                deadline = now + sendTimeoutMillis;
+            } else if (now > deadline) {
+                throw new LineSenderException("timed out waiting for the server to drain shared memory ring [timeout=")
+                        .put(sendTimeoutMillis).put("ms]");
+            }
+            Os.pause();
+        }
+    }
+
+    private static ShmLineRing claimRing(FilesFacade ff, CharSequence ringDir) {
+        try (Path path = new Path()) {
+            int ringIndex = 0;
+            while (true) {
+                final ShmLineRing ring;
+                try {
+                    ring = ShmLineRing.open(ff, ShmLineRing.ringPath(path, ringDir, ringIndex).$());
+                } catch (CairoException e) {
+                    throw new LineSenderException(e.getFlyweightMessage()).errno(e.getErrno());
+                }
+                if (ring == null) {
+                    break;
+                }
+                if (ring.tryLock()) {
+                    return ring;
+                }
+                ring.close();
+                ringIndex++;
+            }
+            if (ringIndex == 0) {
+                throw new LineSenderException("could not find shared memory rings, is the server running? [dir=").put(ringDir).put(']');
+            }
+            throw new LineSenderException("all shared memory rings are in use [dir=").put(ringDir)
+                    .put(", count=").put(ringIndex)
+                    .put(']');
+        }
+    }
+}
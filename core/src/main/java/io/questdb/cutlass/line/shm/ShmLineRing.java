@@ -0,0 +1,261 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.shm;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.std.*;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+
+/**
+ * Single-producer, single-consumer byte ring backed by a memory-mapped file. The file is shared
+ * between the database process, which consumes line protocol text from it, and a co-located
+ * client process, which produces it.
+ * <p>
+ * The layout is a one page header followed by the data area. Producer and consumer positions
+ * live on separate cache lines of the header. Both positions grow monotonically, the offset in
+ * the data area is the position masked by the capacity, which is a power of 2. The producer
+ * publishes a position only after the bytes are copied, the consumer releases space only after
+ * the bytes are copied out, hence the ring does not need any other synchronisation.
+ * <p>
+ * A ring may have a single producer. Producers take an exclusive lock on the ring file to claim
+ * the ring, which is released by the OS when the producer process dies.
+ * <p>
+ * The producer is not trusted. The consumer keeps its own copy of the consumer position and
+ * validates the producer position against it and the capacity before reading.
+ */
+public final class ShmLineRing implements QuietCloseable {
+    public static final long DATA_OFFSET = 4096;
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long CONSUMER_POS_OFFSET = 128;
+    private static final long MAGIC = 0x3152_504C_4942_4451L; // "QDBILPR1"
+    private static final long MAGIC_OFFSET = 0;
+    private static final long PRODUCER_POS_OFFSET = 64;
+    private static final String RING_FILE_PREFIX = "ilp-";
+    private static final String RING_FILE_SUFFIX = ".ring";
+    private final long address;
+    private final long capacity;
+    private final long fd;
+    private final FilesFacade ff;
+    private final long mask;
+    private final long mapSize;
+    private long consumerPosition;
+
+    private ShmLineRing(FilesFacade ff, long fd, long address, long mapSize) {
+        this.ff = ff;
+        this.fd = fd;
+        this.address = address;
+        this.mapSize = mapSize;
+        this.capacity = mapSize - DATA_OFFSET;
+        this.mask = capacity - 1;
+        this.consumerPosition = getConsumerPosition();
+    }
+
+    /**
+     * Creates the ring file or re-attaches to an existing one. Unconsumed data of an existing ring
+     * is preserved as long as the ring has the requested capacity. Otherwise, the file is replaced;
+     * the producers that still map the old file keep writing into the unlinked copy and will not
+     * crash.
+     *
+     * @param ff       files facade
+     * @param path     path of the ring file
+     * @param capacity capacity of the data area, must be a power of 2
+     * @return mapped ring
+     */
+    public static ShmLineRing create(FilesFacade ff, LPSZ path, long capacity) {
+        assert Numbers.ceilPow2(capacity) == capacity;
+        final long mapSize = DATA_OFFSET + capacity;
+        if (ff.exists(path) && ff.length(path) != mapSize) {
+            ff.removeQuiet(path);
+        }
+        final long fd = ff.openRW(path, CairoConfiguration.O_NONE);
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open line protocol ring [path=").put(path).put(']');
+        }
+        try {
+            if (ff.length(fd) != mapSize && !ff.allocate(fd, mapSize)) {
+                throw CairoException.critical(ff.errno()).put("could not allocate line protocol ring [path=").put(path)
+                        .put(", size=").put(mapSize)
+                        .put(']');
+            }
+            final long address = map(ff, fd, mapSize, path);
+            if (Unsafe.getUnsafe().getLongVolatile(null, address + MAGIC_OFFSET) != MAGIC
+                    || Unsafe.getUnsafe().getLong(address + CAPACITY_OFFSET) != capacity) {
+                Vect.memset(address, DATA_OFFSET, 0);
+                Unsafe.getUnsafe().putLong(address + CAPACITY_OFFSET, capacity);
+                Unsafe.getUnsafe().putOrderedLong(null, address + MAGIC_OFFSET, MAGIC);
+            }
+            return new ShmLineRing(ff, fd, address, mapSize);
+        } catch (Throwable th) {
+            ff.close(fd);
+            throw th;
+        }
+    }
+
+    /**
+     * Opens a ring created by the database.
+     *
+     * @param ff   files facade
+     * @param path path of the ring file
+     * @return mapped ring or null when the file does not exist
+     */
+    public static ShmLineRing open(FilesFacade ff, LPSZ path) {
+        if (!ff.exists(path)) {
+            return null;
+        }
+        final long fd = ff.openRW(path, CairoConfiguration.O_NONE);
+        if (fd < 0) {
+            throw CairoException.critical(ff.errno()).put("could not open line protocol ring [path=").put(path).put(']');
+        }
+        try {
+            final long mapSize = ff.length(fd);
+            final long capacity = mapSize - DATA_OFFSET;
+            if (capacity <= 0 || Numbers.ceilPow2(capacity) != capacity) {
+                throw CairoException.critical(0).put("invalid line protocol ring size [path=").put(path)
+                        .put(", size=").put(mapSize)
+                        .put(']');
+            }
+            final long address = map(ff, fd, mapSize, path);
+            if (Unsafe.getUnsafe().getLongVolatile(null, address + MAGIC_OFFSET) != MAGIC
+                    || Unsafe.getUnsafe().getLong(address + CAPACITY_OFFSET) != capacity) {
+                ff.munmap(address, mapSize, MemoryTag.MMAP_DEFAULT);
+                throw CairoException.critical(0).put("line protocol ring is not initialized [path=").put(path).put(']');
+            }
+            return new ShmLineRing(ff, fd, address, mapSize);
+        } catch (Throwable th) {
+            ff.close(fd);
+            throw th;
+        }
+    }
+
+    public static Path ringPath(Path path, CharSequence ringDir, int ringIndex) {
+        return path.of(ringDir).concat(RING_FILE_PREFIX).put(ringIndex).put(RING_FILE_SUFFIX);
+    }
+
+    @Override
+    public void close() {
+        ff.munmap(address, mapSize, MemoryTag.MMAP_DEFAULT);
+        ff.close(fd);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return number of bytes published by the producer and not yet consumed
+     */
+    public long getPending() {
+        return getProducerPosition() - getConsumerPosition();
+    }
+
+    /**
+     * Copies published bytes out of the ring and releases their space to the producer. Consumer side only.
+     *
+     * @param lo  destination address
+     * @param len destination capacity
+     * @return number of bytes copied or -1 when the producer position is invalid; unconsumed
+     * data is discarded in that case and the consumer resumes from the producer position
+     */
+    public long read(long lo, long len) {
+        final long producerPos = getProducerPosition();
+        final long available = producerPos - consumerPosition;
+        if (available < 0 || available > capacity) {
+            consumerPosition = producerPos;
+            Unsafe.getUnsafe().putOrderedLong(null, address + CONSUMER_POS_OFFSET, producerPos);
+            return -1;
+        }
+        final long n = Math.min(len, available);
+        if (n > 0) {
+            copy(consumerPosition, lo, n, false);
+            consumerPosition += n;
+            Unsafe.getUnsafe().putOrderedLong(null, address + CONSUMER_POS_OFFSET, consumerPosition);
+        }
+        return n;
+    }
+
+    /**
+     * Takes an exclusive, process-wide claim on the ring. Producer side only.
+     *
+     * @return true when this instance is the only producer of the ring
+     */
+    public boolean tryLock() {
+        return ff.lock(fd) == 0;
+    }
+
+    /**
+     * Copies as many bytes as there is free space for into the ring and publishes them to the
+     * consumer. Producer side only.
+     *
+     * @param lo  source address
+     * @param len number of bytes to write
+     * @return number of bytes written, 0 when the ring is full
+     */
+    public long write(long lo, long len) {
+        final long producerPos = Unsafe.getUnsafe().getLong(address + PRODUCER_POS_OFFSET);
+        final long n = Math.min(len, capacity - (producerPos - getConsumerPosition()));
+        if (n > 0) {
+            copy(producerPos, lo, n, true);
+            Unsafe.getUnsafe().putOrderedLong(null, address + PRODUCER_POS_OFFSET, producerPos + n);
+        }
+        return n;
+    }
+
+    private static long map(FilesFacade ff, long fd, long mapSize, LPSZ path) {
+        final long address = ff.mmap(fd, mapSize, 0, Files.MAP_RW, MemoryTag.MMAP_DEFAULT);
+        if (address == -1) {
+            throw CairoException.critical(ff.errno()).put("could not mmap line protocol ring [path=").put(path)
+                    .put(", size=").put(mapSize)
+                    .put(']');
+        }
+        return address;
+    }
+
+    private void copy(long ringPos, long ptr, long len, boolean toRing) {
+        final long offset = ringPos & mask;
+        final long first = Math.min(len, capacity - offset);
+        final long ringLo = address + DATA_OFFSET;
+        if (toRing) {
+            Vect.memcpy(ringLo + offset, ptr, first);
+            if (first < len) {
+                Vect.memcpy(ringLo, ptr + first, len - first);
+            }
+        } else {
+            Vect.memcpy(ptr, ringLo + offset, first);
+            if (first < len) {
+                Vect.memcpy(ptr + first, ringLo, len - first);
+            }
+        }
+    }
+
+    private long getConsumerPosition() {
+        return Unsafe.getUnsafe().getLongVolatile(null, address + CONSUMER_POS_OFFSET);
+    }
+
+    private long getProducerPosition() {
+        return Unsafe.getUnsafe().getLongVolatile(null, address + PRODUCER_POS_OFFSET);
+    }
+}
@@ -36,6 +36,7 @@ import io.questdb.network.NetworkFacade;
 import io.questdb.network.NetworkFacadeImpl;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.Numbers;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import io.questdb.std.datetime.millitime.MillisecondClock;
@@ -168,6 +169,21 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
         return NetworkFacadeImpl.INSTANCE;
     }
 
+    @Override
+    public int getShmRingCount() {
+        return 4;
+    }
+
+    @Override
+    public String getShmRingDir() {
+        return null;
+    }
+
+    @Override
+    public long getShmRingSize() {
+        return 4 * Numbers.SIZE_1MB;
+    }
+
     @Override
     public long getSymbolCacheWaitUsBeforeReload() {
         return 500_000;
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.security.SecurityContextFactory;
+import io.questdb.cutlass.line.shm.ShmLineRing;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+
+/**
+ * Line protocol context that receives measurements from a shared memory ring rather than
+ * from a socket. Parsing, table resolution and hand-off to the writers are inherited from
+ * {@link LineTcpConnectionContext}, so rows take exactly the same path as TCP ones.
+ * <p>
+ * There is no peer to disconnect, hence malformed lines are always skipped. When a line is
+ * too long to fit in the receive buffer, it is dropped up to the next line end. The same happens
+ * when the producer publishes an invalid ring position.
+ */
+class LineShmConnectionContext extends LineTcpConnectionContext {
+    private static final Log LOG = LogFactory.getLog(LineShmConnectionContext.class);
+    private final Metrics metrics;
+    private final int ringIndex;
+    private ShmLineRing ring;
+    private boolean skipToLineEnd;
+
+    LineShmConnectionContext(
+            LineTcpReceiverConfiguration configuration,
+            LineTcpMeasurementScheduler scheduler,
+            Metrics metrics,
+            ShmLineRing ring,
+            int ringIndex
+    ) {
+        super(configuration, scheduler, metrics, false);
+        try {
+            this.ring = ring;
+            this.metrics = metrics;
+            this.ringIndex = ringIndex;
+            final int bufferSize = configuration.getNetMsgBufferSize();
+            recvBufStart = Unsafe.malloc(bufferSize, MemoryTag.NATIVE_ILP_RSS);
+            recvBufEnd = recvBufStart + bufferSize;
+            recvBufPos = recvBufStart;
+            resetParser();
+            securityContext = configuration.getFactoryProvider().getSecurityContextFactory().getInstance(
+                    null,
+                    SecurityContext.AUTH_TYPE_NONE,
+                    SecurityContextFactory.ILP
+            );
+            securityContext.authorizeLineTcp();
+        } catch (Throwable t) {
+            close();
+            throw t;
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        ring = Misc.free(ring);
+    }
+
+    /**
+     * Drains the ring into the receive buffer and parses complete measurements.
+     *
+     * @param netIoJob I/O job of the worker thread this ring is assigned to
+     * @param millis   current time used for WAL commit and idle table maintenance
+     * @return true when any data was processed or writers queue is full and the call should be repeated
+     */
+    boolean handleIO(NetworkIOJob netIoJob, long millis) {
+        final boolean busy = read();
+        try {
+            final IOContextResult result = parseMeasurements(netIoJob);
+            if (result == IOContextResult.NEEDS_DISCONNECT) {
+                // measurement does not fit in the buffer or could not be processed,
+                // drop it and resume from the next line
+                LOG.error().$("dropping line protocol data [ring=").$(ringIndex)
+                        .$(", bytes=").$(recvBufPos - recvBufStartOfMeasurement)
+                        .I$();
+                recvBufPos = recvBufStart;
+                resetParser();
+                skipToLineEnd = true;
+            }
+            doMaintenance(millis);
+            return busy || result == IOContextResult.QUEUE_FULL;
+        } finally {
+            netIoJob.releaseWalTableDetails();
+        }
+    }
+
+    @Override
+    protected boolean read() {
+        final long len = ring.read(recvBufPos, recvBufEnd - recvBufPos);
+        if (len == 0) {
+            return false;
+        }
+        if (len < 0) {
+            LOG.error().$("invalid producer position, dropping line protocol data [ring=").$(ringIndex).I$();
+            recvBufPos = recvBufStart;
+            resetParser();
+            skipToLineEnd = true;
+            return true;
+        }
+        metrics.line().totalIlpTcpBytesGauge().add(len);
+        if (skipToLineEnd) {
+            final long hi = recvBufPos + len;
+            long p = recvBufPos;
+            while (p < hi && Unsafe.getUnsafe().getByte(p) != '\n') {
+                p++;
+            }
+            if (p < hi) {
+                skipToLineEnd = false;
+                p++;
+                Vect.memmove(recvBufPos, p, hi - p);
+                recvBufPos += hi - p;
+            }
+            return true;
+        }
+        recvBufPos += len;
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.cutlass.line.tcp;
+
+import io.questdb.mp.Job;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Drains shared memory rings assigned to an I/O worker. The job runs on the same worker thread
+ * as the worker's {@link NetworkIOJob}, which it uses to resolve table details, so that
+ * shared memory and TCP traffic for the same table are handled identically.
+ */
+class LineShmIOJob implements Job, QuietCloseable {
+    private final ObjList<LineShmConnectionContext> contexts = new ObjList<>();
+    private final MillisecondClock millisecondClock;
+    private final NetworkIOJob netIoJob;
+
+    LineShmIOJob(NetworkIOJob netIoJob, MillisecondClock millisecondClock) {
+        this.netIoJob = netIoJob;
+        this.millisecondClock = millisecondClock;
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjListAndClear(contexts);
+    }
+
+    @Override
+    public boolean run(int workerId, @NotNull RunStatus runStatus) {
+        assert netIoJob.getWorkerId() == workerId;
+        boolean busy = false;
+        final long millis = millisecondClock.getTicks();
+        for (int i = 0, n = contexts.size(); i < n; i++) {
+            busy |= contexts.getQuick(i).handleIO(netIoJob, millis);
+        }
+        return busy;
+    }
+
+    void addContext(LineShmConnectionContext context) {
+        contexts.add(context);
+    }
+}
@@ -74,6 +74,15 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
     private long nextCommitTime;
 
     public LineTcpConnectionContext(LineTcpReceiverConfiguration configuration, LineTcpMeasurementScheduler scheduler, Metrics metrics) {
+        this(configuration, scheduler, metrics, configuration.getDisconnectOnError());
+    }
+
+    protected LineTcpConnectionContext(
+            LineTcpReceiverConfiguration configuration,
+            LineTcpMeasurementScheduler scheduler,
+            Metrics metrics,
+            boolean disconnectOnError
+    ) {
         super(
                 configuration.getFactoryProvider().getLineSocketFactory(),
                 configuration.getNetworkFacade(),
@@ -83,7 +92,7 @@ public class LineTcpConnectionContext extends IOContext<LineTcpConnectionContext
         try {
             this.configuration = configuration;
             nf = configuration.getNetworkFacade();
-            disconnectOnError = configuration.getDisconnectOnError();
+            this.disconnectOnError = disconnectOnError;
             this.scheduler = scheduler;
             this.metrics = metrics;
             this.milliClock = configuration.getMillisecondClock();
@@ -541,6 +541,10 @@ public class LineTcpMeasurementScheduler implements Closeable {
         return new LineTcpNetworkIOJob(configuration, this, dispatcher, workerId);
     }
 
+    NetworkIOJob getNetworkIOJob(int workerId) {
+        return netIoJobs[workerId];
+    }
+
     long getNextPublisherEventSequence(int writerWorkerId) {
         assert isOpen();
         long seq;
@@ -26,19 +26,29 @@ package io.questdb.cutlass.line.tcp;
 
 import io.questdb.Metrics;
 import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cutlass.auth.DefaultLineAuthenticatorFactory;
+import io.questdb.cutlass.line.shm.ShmLineRing;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
 import io.questdb.mp.WorkerPool;
 import io.questdb.network.IOContextFactoryImpl;
 import io.questdb.network.IODispatcher;
 import io.questdb.network.IODispatchers;
+import io.questdb.std.FilesFacade;
 import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
 import io.questdb.std.ObjectFactory;
+import io.questdb.std.str.Path;
 
 import java.io.Closeable;
 
 
 public class LineTcpReceiver implements Closeable {
+    private static final Log LOG = LogFactory.getLog(LineTcpReceiver.class);
     private final IODispatcher<LineTcpConnectionContext> dispatcher;
     private final Metrics metrics;
+    private final ObjList<LineShmIOJob> shmJobs = new ObjList<>();
     private LineTcpMeasurementScheduler scheduler;
 
     public LineTcpReceiver(
@@ -66,6 +76,10 @@ public class LineTcpReceiver implements Closeable {
                 // therefore we need each thread to clean their thread locals individually
                 ioWorkerPool.assignThreadLocalCleaner(i, contextFactory::freeThreadLocal);
             }
+
+            if (configuration.getShmRingDir() != null) {
+                openShmRings(configuration, engine.getConfiguration().getMkDirMode(), ioWorkerPool);
+            }
         } catch (Throwable t) {
             close();
             throw t;
@@ -74,7 +88,41 @@ public class LineTcpReceiver implements Closeable {
 
     @Override
     public void close() {
+        Misc.freeObjListAndClear(shmJobs);
         Misc.free(scheduler);
         Misc.free(dispatcher);
     }
+
+    private void openShmRings(LineTcpReceiverConfiguration configuration, int mkDirMode, WorkerPool ioWorkerPool) {
+        final String ringDir = configuration.getShmRingDir();
+        // ring producers do not authenticate, rings would bypass line protocol authentication
+        if (configuration.getAuthDB() != null
+                || configuration.getFactoryProvider().getLineAuthenticatorFactory() != DefaultLineAuthenticatorFactory.INSTANCE) {
+            throw CairoException.nonCritical().put("line protocol shared memory rings cannot be used with line protocol authentication [dir=")
+                    .put(ringDir)
+                    .put(']');
+        }
+        final FilesFacade ff = configuration.getFilesFacade();
+        final int workerCount = ioWorkerPool.getWorkerCount();
+        try (Path path = new Path()) {
+            path.of(ringDir).slash();
+            if (!ff.exists(path.$()) && ff.mkdirs(path, mkDirMode) != 0) {
+                throw CairoException.critical(ff.errno()).put("could not create line protocol ring directory [path=").put(path).put(']');
+            }
+            for (int i = 0; i < workerCount; i++) {
+                shmJobs.add(new LineShmIOJob(scheduler.getNetworkIOJob(i), configuration.getMillisecondClock()));
+            }
+            for (int i = 0, n = configuration.getShmRingCount(); i < n; i++) {
+                final ShmLineRing ring = ShmLineRing.create(ff, ShmLineRing.ringPath(path, ringDir, i).$(), configuration.getShmRingSize());
+                shmJobs.getQuick(i % workerCount).addContext(new LineShmConnectionContext(configuration, scheduler, metrics, ring, i));
+            }
+            for (int i = 0; i < workerCount; i++) {
+                ioWorkerPool.assign(i, shmJobs.getQuick(i));
+            }
+        }
+        LOG.info().$("line protocol shared memory rings are open [dir=").$(ringDir)
+                .$(", count=").$(configuration.getShmRingCount())
+                .$(", size=").$(configuration.getShmRingSize())
+                .I$();
+    }
 }
@@ -85,6 +85,23 @@ public interface LineTcpReceiverConfiguration {
 
     NetworkFacade getNetworkFacade();
 
+    int getShmRingCount();
+
+    /**
+     * Directory to create shared memory rings in. Co-located producers write line protocol
+     * text into these rings instead of connecting over TCP.
+     *
+     * @return ring directory or null when shared memory ingestion is disabled
+     */
+    String getShmRingDir();
+
+    /**
+     * Capacity of a single shared memory ring in bytes, a power of 2.
+     *
+     * @return ring capacity
+     */
+    long getShmRingSize();
+
     long getSymbolCacheWaitUsBeforeReload();
 
     LineTcpTimestampAdapter getTimestampAdapter();
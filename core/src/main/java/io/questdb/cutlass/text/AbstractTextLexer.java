@@ -34,10 +34,6 @@ import java.io.Closeable;
 
 public abstract class AbstractTextLexer implements Closeable, Mutable {
     private final static Log LOG = LogFactory.getLog(AbstractTextLexer.class);
-    private static final long MASK_CR = SwarUtils.broadcast((byte) '\r');
-    private static final long MASK_NEW_LINE = SwarUtils.broadcast((byte) '\n');
-    private static final long MASK_QUOTE = SwarUtils.broadcast((byte) '"');
-    private static final long NON_ASCII_MASK_FULL = SwarUtils.broadcast((byte) 0x80);
 
     private final ObjectPool<DirectUtf8String> csPool;
     private final ObjList<DirectUtf8String> fields = new ObjList<>();
@@ -129,6 +125,7 @@ public abstract class AbstractTextLexer implements Closeable, Mutable {
         this.inQuote = false;
         this.delayedOutQuote = false;
         this.lineCount = 0;
+        this.lastLineStart = 0;
         this.lineRollBufCur = lineRollBufPtr;
         this.useLineRollBuf = false;
         this.rollBufferUnusable = false;
@@ -290,37 +287,53 @@ public abstract class AbstractTextLexer implements Closeable, Mutable {
         stashFieldSlow(fieldIndex++);
     }
 
+    // equivalent of feeding the given run of non-structural bytes through checkState() and doSwitch()
+    private void onPlainBytes(long lo, long p, int len, boolean nonAscii) {
+        this.ascii &= !nonAscii;
+        if (!rollBufferUnusable && !useLineRollBuf && !delayedOutQuote) {
+            this.fieldHi += len;
+            checkEol(lo);
+        } else {
+            for (long hi = p + len; p < hi; ) {
+                final byte b = Unsafe.getUnsafe().getByte(p++);
+                if (checkStateSlow(p, b)) {
+                    checkEol(lo);
+                }
+            }
+        }
+    }
+
     private void parse0(long lo, long hi) {
         long ptr = lo;
 
         try {
-            while (ptr < hi) {
-                if (!eol && !rollBufferUnusable && !useLineRollBuf && !delayedOutQuote && ptr < hi - 7) {
-                    long word = Unsafe.getUnsafe().getLong(ptr);
-                    long zeroBytesWord = SwarUtils.markZeroBytes(word ^ MASK_NEW_LINE)
-                            | SwarUtils.markZeroBytes(word ^ MASK_CR)
-                            | SwarUtils.markZeroBytes(word ^ MASK_QUOTE)
-                            | SwarUtils.markZeroBytes(word ^ getDelimiterMask());
-                    if (zeroBytesWord == 0) {
-                        ptr += 7;
-                        this.fieldHi += 7;
-                        this.ascii &= (word & NON_ASCII_MASK_FULL) == 0;
-                        continue;
-                    } else {
-                        int firstIndex = SwarUtils.indexOfFirstMarkedByte(zeroBytesWord);
-                        if (firstIndex > 0) {
-                            // The firstIndex returns the byte count we have to "trust"
-                            // the assumption is that these bytes will become a part of the existing fields
-                            // These bytes come on LOW bits of the "word". To check that these bytes are
-                            // positive, we need to isolate them. We do that by masking out the entire
-                            // word, save for the bytes we intend to keep.
-                            this.ascii &= ((word & (0xffffffffffffffffL >>> (64 - firstIndex * 8))) & NON_ASCII_MASK_FULL) == 0;
-                            ptr += firstIndex;
-                        }
-                        this.fieldHi += firstIndex;
+            final long delimiterMask = getDelimiterMask();
+            while (ptr <= hi - CsvBlockScanner.BLOCK_SIZE) {
+                // stage one: classify the whole block, stage two: walk structural bytes
+                // and consume runs of plain bytes in between in bulk
+                final long nonAscii = CsvBlockScanner.nonAsciiMask(ptr);
+                long structural = CsvBlockScanner.structuralMask(ptr, delimiterMask);
+                int plainLo = 0;
+                while (structural != 0) {
+                    final int index = Long.numberOfTrailingZeros(structural);
+                    if (index > plainLo) {
+                        onPlainBytes(lo, ptr + plainLo, index - plainLo, (nonAscii & (-1L << plainLo) & ~(-1L << index)) != 0);
+                    }
+                    final long next = ptr + index + 1;
+                    final byte b = Unsafe.getUnsafe().getByte(next - 1);
+                    if (checkState(next, b)) {
+                        doSwitch(lo, next, b);
                     }
+                    plainLo = index + 1;
+                    structural &= structural - 1;
                 }
+                if (plainLo < CsvBlockScanner.BLOCK_SIZE) {
+                    onPlainBytes(lo, ptr + plainLo, CsvBlockScanner.BLOCK_SIZE - plainLo, (nonAscii >>> plainLo) != 0);
+                }
+                ptr += CsvBlockScanner.BLOCK_SIZE;
+            }
 
+            while (ptr < hi) {
                 final byte b = Unsafe.getUnsafe().getByte(ptr++);
                 this.ascii &= b > 0;
 
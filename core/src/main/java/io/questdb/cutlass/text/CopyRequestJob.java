@@ -190,6 +190,21 @@ public class CopyRequestJob extends SynchronizedJob implements Closeable {
         }
     }
 
+    // compressed input cannot be split into chunks and read at random offsets, so it
+    // is decompressed in a single stream by the serial importer
+    private boolean isCompressed() {
+        path.of(engine.getConfiguration().getSqlCopyInputRoot()).concat(task.getFileName());
+        final int compression = TextInputCompression.detect(engine.getConfiguration().getFilesFacade(), path.$());
+        if (compression != TextInputCompression.NONE) {
+            LOG.info()
+                    .$("compressed input, using serial import [importId=").$hexPadded(task.getCopyID())
+                    .$(", compression=").$(TextInputCompression.nameOf(compression))
+                    .I$();
+            return true;
+        }
+        return false;
+    }
+
     private boolean useParallelImport() {
         TableToken tableToken = engine.getTableTokenIfExists(task.getTableName());
         if (engine.getTableStatus(path, tableToken) != TableUtils.TABLE_EXISTS) {
@@ -225,7 +240,7 @@ public class CopyRequestJob extends SynchronizedJob implements Closeable {
         if (cursor > -1) {
             task = requestQueue.get(cursor);
             try {
-                if (useParallelImport()) {
+                if (useParallelImport() && !isCompressed()) {
                     parallelImporter.setStatusReporter(updateStatusRef);
                     parallelImporter.of(
                             task.getTableName(),
@@ -246,6 +261,7 @@ public class CopyRequestJob extends SynchronizedJob implements Closeable {
                             task.getTableName(),
                             task.getFileName(),
                             task.getCopyID(),
+                            task.getPartitionBy() > -1 ? task.getPartitionBy() : PartitionBy.NONE,
                             task.getDelimiter(),
                             task.getTimestampColumnName(),
                             task.getTimestampFormat(),
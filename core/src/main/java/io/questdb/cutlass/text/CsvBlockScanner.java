@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.text;
+
+import io.questdb.std.SwarUtils;
+import io.questdb.std.Unsafe;
+
+/**
+ * Stage one of the CSV lexers, in the spirit of simdjson. Input is classified in blocks of
+ * {@link #BLOCK_SIZE} bytes, eight bytes at a time, producing 64-bit masks with one bit per
+ * input byte. Lexers then walk the set bits of the structural mask and advance over runs of
+ * plain bytes in bulk instead of looking at every byte.
+ * <p>
+ * Quote parity is deliberately left to the lexer state machine: a quote is only an opening
+ * quote at the start of a field, which a prefix-XOR over the quote mask cannot express.
+ */
+public final class CsvBlockScanner {
+    public static final int BLOCK_SIZE = 64;
+    private static final long MASK_CR = SwarUtils.broadcast((byte) '\r');
+    private static final long MASK_NEW_LINE = SwarUtils.broadcast((byte) '\n');
+    private static final long MASK_QUOTE = SwarUtils.broadcast((byte) '"');
+
+    private CsvBlockScanner() {
+    }
+
+    /**
+     * Returns mask of bytes that are not positive when read as signed bytes, i.e. non-ASCII
+     * bytes and zero bytes, in the block starting at the given address.
+     */
+    public static long nonAsciiMask(long lo) {
+        long mask = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += Long.BYTES) {
+            final long word = Unsafe.getUnsafe().getLong(lo + i);
+            mask |= SwarUtils.movemask(word | SwarUtils.markZeroBytesExact(word)) << i;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns mask of column delimiters, quotes, CR and LF bytes in the block starting
+     * at the given address. The delimiter is provided as a broadcast mask.
+     */
+    public static long structuralMask(long lo, long delimiterMask) {
+        long mask = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += Long.BYTES) {
+            final long word = Unsafe.getUnsafe().getLong(lo + i);
+            final long marks = SwarUtils.markZeroBytesExact(word ^ MASK_NEW_LINE)
+                    | SwarUtils.markZeroBytesExact(word ^ MASK_CR)
+                    | SwarUtils.markZeroBytesExact(word ^ MASK_QUOTE)
+                    | SwarUtils.markZeroBytesExact(word ^ delimiterMask);
+            mask |= SwarUtils.movemask(marks) << i;
+        }
+        return mask;
+    }
+}
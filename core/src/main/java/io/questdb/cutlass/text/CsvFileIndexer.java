@@ -59,9 +59,6 @@ public class CsvFileIndexer implements Closeable, Mutable {
     public static final long INDEX_ENTRY_SIZE = 2 * Long.BYTES;
     public static final CharSequence INDEX_FILE_NAME = "index.m";
     private static final Log LOG = LogFactory.getLog(CsvFileIndexer.class);
-    private static final long MASK_CR = SwarUtils.broadcast((byte) '\r');
-    private static final long MASK_NEW_LINE = SwarUtils.broadcast((byte) '\n');
-    private static final long MASK_QUOTE = SwarUtils.broadcast((byte) '"');
     // A guess at how long could a timestamp string be, including long day, month name, etc.
     // since we're only interested in timestamp field/col there's no point buffering whole line
     // we'll copy field part to buffer only if current field is designated timestamp
@@ -453,6 +450,37 @@ public class CsvFileIndexer implements Closeable, Mutable {
         return getPartitionIndexDir(partitionKey).slash().put(index);
     }
 
+    private void onByte(long lo, long ptr, byte b) {
+        if (rollBufferUnusable) {
+            eol(ptr, b);
+            return;
+        }
+
+        if (useFieldRollBuf) {
+            putToRollBuf(b);
+            if (rollBufferUnusable) {
+                return;
+            }
+        }
+
+        this.fieldHi++;
+
+        if (delayedOutQuote && b != '"') {
+            inQuote = delayedOutQuote = false;
+        }
+
+        if (b == columnDelimiter) {
+            onColumnDelimiter(lo, ptr);
+        } else if (b == '"') {
+            checkEol(lo);
+            onQuote();
+        } else if (b == '\n' || b == '\r') {
+            onLineEnd(ptr, lo);
+        } else {
+            checkEol(lo);
+        }
+    }
+
     private void onColumnDelimiter(long lo, long ptr) {
         checkEol(lo);
 
@@ -477,6 +505,19 @@ public class CsvFileIndexer implements Closeable, Mutable {
         triggerLine(ptr);
     }
 
+    // equivalent of feeding the given run of non-structural bytes through onByte()
+    private void onPlainBytes(long lo, long p, int len) {
+        if (!rollBufferUnusable && !useFieldRollBuf && !delayedOutQuote) {
+            this.fieldHi += len;
+            checkEol(lo);
+        } else {
+            for (long hi = p + len; p < hi; ) {
+                final byte b = Unsafe.getUnsafe().getByte(p++);
+                onByte(lo, p, b);
+            }
+        }
+    }
+
     private void onQuote() {
         if (inQuote) {
             delayedOutQuote = !delayedOutQuote;
@@ -491,53 +532,28 @@ public class CsvFileIndexer implements Closeable, Mutable {
         this.fieldHi = useFieldRollBuf ? fieldRollBufCur : (this.fieldLo = lo);
         long ptr = lo;
 
-        while (ptr < hi) {
-            if (!rollBufferUnusable && !useFieldRollBuf && !delayedOutQuote && ptr < hi - 7) {
-                long word = Unsafe.getUnsafe().getLong(ptr);
-                long zeroBytesWord = SwarUtils.markZeroBytes(word ^ MASK_NEW_LINE)
-                        | SwarUtils.markZeroBytes(word ^ MASK_CR)
-                        | SwarUtils.markZeroBytes(word ^ MASK_QUOTE)
-                        | SwarUtils.markZeroBytes(word ^ columnDelimiterMask);
-                if (zeroBytesWord == 0) {
-                    ptr += 7;
-                    this.fieldHi += 7;
-                    continue;
-                } else {
-                    int firstIndex = SwarUtils.indexOfFirstMarkedByte(zeroBytesWord);
-                    ptr += firstIndex;
-                    this.fieldHi += firstIndex;
-                }
-            }
-
-            final byte b = Unsafe.getUnsafe().getByte(ptr++);
-            if (rollBufferUnusable) {
-                eol(ptr, b);
-                continue;
-            }
-
-            if (useFieldRollBuf) {
-                putToRollBuf(b);
-                if (rollBufferUnusable) {
-                    continue;
+        while (ptr <= hi - CsvBlockScanner.BLOCK_SIZE) {
+            long structural = CsvBlockScanner.structuralMask(ptr, columnDelimiterMask);
+            int plainLo = 0;
+            while (structural != 0) {
+                final int index = Long.numberOfTrailingZeros(structural);
+                if (index > plainLo) {
+                    onPlainBytes(lo, ptr + plainLo, index - plainLo);
                 }
+                final long next = ptr + index + 1;
+                onByte(lo, next, Unsafe.getUnsafe().getByte(next - 1));
+                plainLo = index + 1;
+                structural &= structural - 1;
             }
-
-            this.fieldHi++;
-
-            if (delayedOutQuote && b != '"') {
-                inQuote = delayedOutQuote = false;
+            if (plainLo < CsvBlockScanner.BLOCK_SIZE) {
+                onPlainBytes(lo, ptr + plainLo, CsvBlockScanner.BLOCK_SIZE - plainLo);
             }
+            ptr += CsvBlockScanner.BLOCK_SIZE;
+        }
 
-            if (b == columnDelimiter) {
-                onColumnDelimiter(lo, ptr);
-            } else if (b == '"') {
-                checkEol(lo);
-                onQuote();
-            } else if (b == '\n' || b == '\r') {
-                onLineEnd(ptr, lo);
-            } else {
-                checkEol(lo);
-            }
+        while (ptr < hi) {
+            final byte b = Unsafe.getUnsafe().getByte(ptr++);
+            onByte(lo, ptr, b);
         }
 
         if (useFieldRollBuf) {
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.text;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+
+import java.io.Closeable;
+
+/**
+ * Streams decompressed content of a gzip file, see RFC 1952. Files made of multiple
+ * gzip members, e.g. concatenated archives or output of parallel compressors,
+ * are decompressed member after member. Header, trailer and the CRC check are handled
+ * here, the deflate stream itself is inflated by zlib.
+ */
+public class GzipFileReader implements Closeable {
+    private static final int FLG_FCOMMENT = 16;
+    private static final int FLG_FEXTRA = 4;
+    private static final int FLG_FHCRC = 2;
+    private static final int FLG_FNAME = 8;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int HEADER_LEN = 10;
+    private static final Log LOG = LogFactory.getLog(GzipFileReader.class);
+    private static final int METHOD_DEFLATE = 8;
+    private static final int STATE_BODY = 1;
+    private static final int STATE_EOF = 3;
+    private static final int STATE_HEADER = 0;
+    private static final int STATE_TRAILER = 2;
+    private static final int TRAILER_LEN = 8;
+    private final FilesFacade ff;
+    private final int inBufSize;
+    private int crc;
+    private long fd = -1;
+    private long fileOffset;
+    private long inBuf;
+    private long inHi;
+    private long inLo;
+    private long isize;
+    private int memberCount;
+    private int state;
+    private long z;
+
+    public GzipFileReader(FilesFacade ff, int inBufSize) {
+        this.ff = ff;
+        this.inBufSize = inBufSize;
+        this.inBuf = Unsafe.malloc(inBufSize, MemoryTag.NATIVE_IMPORT);
+        this.z = Zip.inflateInit(true);
+        if (z < 0) {
+            close();
+            throw CairoException.critical(0).put("could not initialize inflater [ret=").put(z).put(']');
+        }
+    }
+
+    @Override
+    public void close() {
+        inBuf = Unsafe.free(inBuf, inBufSize, MemoryTag.NATIVE_IMPORT);
+        if (z > 0) {
+            Zip.inflateEnd(z);
+            z = 0;
+        }
+    }
+
+    public GzipFileReader of(long fd) {
+        this.fd = fd;
+        this.fileOffset = 0;
+        this.inLo = this.inHi = inBuf;
+        this.memberCount = 0;
+        this.state = STATE_HEADER;
+        return this;
+    }
+
+    /**
+     * Fills the buffer with decompressed bytes.
+     *
+     * @return number of bytes written to the buffer, less than len only at the end of input
+     * @throws TextException on malformed input
+     */
+    public int read(long buf, int len) {
+        int n = 0;
+        while (n < len) {
+            switch (state) {
+                case STATE_HEADER:
+                    readHeader();
+                    break;
+                case STATE_BODY:
+                    n += inflate(buf + n, len - n);
+                    break;
+                case STATE_TRAILER:
+                    readTrailer();
+                    break;
+                default:
+                    return n;
+            }
+        }
+        return n;
+    }
+
+    private boolean ensure(int len) {
+        if (inHi - inLo >= len) {
+            return true;
+        }
+        if (len > inBufSize) {
+            throw TextException.$("gzip header is too long [len=").put(len).put(']');
+        }
+        final long remaining = inHi - inLo;
+        if (remaining > 0 && inLo > inBuf) {
+            Vect.memmove(inBuf, inLo, remaining);
+        }
+        inLo = inBuf;
+        inHi = inBuf + remaining;
+        while (inHi - inLo < len) {
+            final long n = ff.read(fd, inHi, inBuf + inBufSize - inHi, fileOffset);
+            if (n < 0) {
+                throw TextException.$("could not read file [offset=").put(fileOffset).put(", errno=").put(ff.errno()).put(']');
+            }
+            if (n == 0) {
+                return false;
+            }
+            fileOffset += n;
+            inHi += n;
+        }
+        return true;
+    }
+
+    private void ensureHeader(int len) {
+        if (!ensure(len)) {
+            throw TextException.$("truncated gzip header [offset=").put(fileOffset).put(']');
+        }
+    }
+
+    private int inflate(long buf, int len) {
+        if (Zip.availIn(z) == 0) {
+            final long n = ff.read(fd, inBuf, inBufSize, fileOffset);
+            if (n < 1) {
+                throw TextException.$("truncated gzip stream [offset=").put(fileOffset).put(']');
+            }
+            fileOffset += n;
+            inLo = inBuf;
+            inHi = inBuf + n;
+            Zip.setInput(z, inBuf, (int) n);
+        }
+
+        // Z_FINISH makes zlib report Z_BUF_ERROR rather than Z_OK until the end of the
+        // deflate stream, so that a non-negative result tells us the member is complete
+        final int ret = Zip.inflate(z, buf, len, true);
+        if (ret < 0 && ret != Zip.Z_BUF_ERROR) {
+            throw TextException.$("could not inflate gzip stream [ret=").put(ret).put(", offset=").put(fileOffset).put(']');
+        }
+        final int n = len - Zip.availOut(z);
+        if (n > 0) {
+            crc = Zip.crc32(crc, buf, n);
+            isize += n;
+        }
+        if (ret > -1) {
+            inLo = inHi - Zip.availIn(z);
+            state = STATE_TRAILER;
+        }
+        return n;
+    }
+
+    private void readHeader() {
+        if (!ensure(1)) {
+            state = STATE_EOF;
+            return;
+        }
+        if (!ensure(2) || (Unsafe.getUnsafe().getShort(inLo) & 0xffff) != GZIP_MAGIC) {
+            if (memberCount == 0) {
+                throw TextException.$("not a gzip file");
+            }
+            LOG.advisory().$("ignoring trailing garbage after gzip stream [offset=").$(fileOffset - (inHi - inLo)).I$();
+            state = STATE_EOF;
+            return;
+        }
+        ensureHeader(HEADER_LEN);
+        final int method = Unsafe.getUnsafe().getByte(inLo + 2);
+        if (method != METHOD_DEFLATE) {
+            throw TextException.$("unsupported gzip compression method [method=").put(method).put(']');
+        }
+        final int flags = Unsafe.getUnsafe().getByte(inLo + 3);
+        int p = HEADER_LEN;
+        if ((flags & FLG_FEXTRA) != 0) {
+            ensureHeader(p + 2);
+            p += 2 + (Unsafe.getUnsafe().getShort(inLo + p) & 0xffff);
+            ensureHeader(p);
+        }
+        if ((flags & FLG_FNAME) != 0) {
+            p = skipZeroTerminated(p);
+        }
+        if ((flags & FLG_FCOMMENT) != 0) {
+            p = skipZeroTerminated(p);
+        }
+        if ((flags & FLG_FHCRC) != 0) {
+            p += 2;
+            ensureHeader(p);
+        }
+        inLo += p;
+
+        Zip.inflateReset(z);
+        Zip.setInput(z, inLo, (int) (inHi - inLo));
+        crc = 0;
+        isize = 0;
+        memberCount++;
+        state = STATE_BODY;
+    }
+
+    private void readTrailer() {
+        if (!ensure(TRAILER_LEN)) {
+            throw TextException.$("truncated gzip trailer [offset=").put(fileOffset).put(']');
+        }
+        final int expectedCrc = Unsafe.getUnsafe().getInt(inLo);
+        final int expectedSize = Unsafe.getUnsafe().getInt(inLo + 4);
+        if (expectedCrc != crc || expectedSize != (int) isize) {
+            throw TextException.$("gzip checksum mismatch [member=").put(memberCount).put(']');
+        }
+        inLo += TRAILER_LEN;
+        state = STATE_HEADER;
+    }
+
+    private int skipZeroTerminated(int p) {
+        do {
+            ensureHeader(p + 1);
+        } while (Unsafe.getUnsafe().getByte(inLo + p++) != 0);
+        return p;
+    }
+}
@@ -644,6 +644,12 @@ public class ParallelCsvFileImporter implements Closeable, Mutable {
                     throw TextImportException.instance(CopyTask.PHASE_SETUP, "ignored empty input file [file='").put(inputFilePath).put(']');
                 }
 
+                final int compression = TextInputCompression.detect(ff, fd);
+                if (compression != TextInputCompression.NONE) {
+                    throw TextImportException.instance(CopyTask.PHASE_SETUP, "compressed input cannot be imported in parallel [file='")
+                            .put(inputFilePath).put("', compression=").put(TextInputCompression.nameOf(compression)).put(']');
+                }
+
                 try {
                     parseStructure(fd, securityContext);
                     phaseBoundaryCheck(length);
@@ -46,8 +46,10 @@ public final class SerialCsvFileImporter implements Closeable {
     private ExecutionCircuitBreaker circuitBreaker;
     private byte columnDelimiter;
     private boolean forceHeader;
+    private GzipFileReader gzipReader;
     private long importId;
     private Path inputFilePath;
+    private int partitionBy;
     private ParallelCsvFileImporter.PhaseStatusReporter statusReporter;
     private String tableName;
     private TextLoader textLoader;
@@ -72,12 +74,14 @@ public final class SerialCsvFileImporter implements Closeable {
     public void close() {
         inputFilePath = Misc.free(inputFilePath);
         textLoader = Misc.free(textLoader);
+        gzipReader = Misc.free(gzipReader);
     }
 
     public void of(
             @NotNull String tableName,
             @NotNull String inputFileName,
             long importId,
+            int partitionBy,
             byte columnDelimiter,
             @Nullable String timestampColumn,
             @Nullable String timestampFormat,
@@ -93,6 +97,7 @@ public final class SerialCsvFileImporter implements Closeable {
         this.circuitBreaker = circuitBreaker;
         this.atomicity = atomicity;
         this.importId = importId;
+        this.partitionBy = partitionBy;
         inputFilePath.of(inputRoot).concat(inputFileName);
     }
 
@@ -111,8 +116,21 @@ public final class SerialCsvFileImporter implements Closeable {
         long fd = -1;
         try {
             fd = TableUtils.openRO(ff, inputFilePath.$(), LOG);
-            long fileLen = ff.length(fd);
-            long n = ff.read(fd, buf, sqlCopyBufferSize, 0);
+            final long fileLen = ff.length(fd);
+            final int compression = TextInputCompression.detect(ff, fd);
+            if (compression == TextInputCompression.ZSTD) {
+                // zstd is linked into the native library only as a Parquet page codec, there is no
+                // streaming decoder exposed to Java, hence such files are rejected rather than misread
+                throw TextImportException.instance(CopyTask.NO_PHASE, "zstd compressed input is not supported by COPY, decompress the file or use gzip");
+            }
+            if (compression == TextInputCompression.GZIP) {
+                if (gzipReader == null) {
+                    gzipReader = new GzipFileReader(ff, sqlCopyBufferSize);
+                }
+                gzipReader.of(fd);
+                LOG.info().$("decompressing input [importId=").$hexPadded(importId).$(", compression=").$(TextInputCompression.nameOf(compression)).I$();
+            }
+            long n = read(compression, fd, fileLen, buf, sqlCopyBufferSize, 0);
             if (n > 0) {
                 if (columnDelimiter > 0) {
                     textLoader.configureColumnDelimiter(columnDelimiter);
@@ -121,16 +139,16 @@ public final class SerialCsvFileImporter implements Closeable {
                 textLoader.setSkipLinesWithExtraValues(false);
                 textLoader.parse(buf, buf + n, securityContext);
                 textLoader.setState(TextLoader.LOAD_DATA);
-                int read;
-                while (n < fileLen) {
+                long read;
+                while (true) {
                     if (circuitBreaker.checkIfTripped()) {
                         TextImportException ex = TextImportException.instance(CopyTask.NO_PHASE, "import was cancelled");
                         ex.setCancelled(true);
                         throw ex;
                     }
-                    read = (int) ff.read(fd, buf, sqlCopyBufferSize, n);
+                    read = read(compression, fd, fileLen, buf, sqlCopyBufferSize, n);
                     if (read < 1) {
-                        throw TextImportException.instance(CopyTask.NO_PHASE, "could not read file [errno=").put(ff.errno()).put(']');
+                        break;
                     }
                     textLoader.parse(buf, buf + read, securityContext);
                     n += read;
@@ -176,6 +194,21 @@ public final class SerialCsvFileImporter implements Closeable {
         return configuration.getMillisecondClock().getTicks();
     }
 
+    // reads next chunk of the input, decompressing it if needed; returns 0 at the end of input
+    private long read(int compression, long fd, long fileLen, long buf, int bufSize, long offset) throws TextImportException {
+        if (compression == TextInputCompression.GZIP) {
+            return gzipReader.read(buf, bufSize);
+        }
+        if (offset >= fileLen) {
+            return 0;
+        }
+        final long n = ff.read(fd, buf, bufSize, offset);
+        if (n < 1) {
+            throw TextImportException.instance(CopyTask.NO_PHASE, "could not read file [errno=").put(ff.errno()).put(']');
+        }
+        return n;
+    }
+
     private void setupTextLoaderFromModel() {
         textLoader.clear();
         textLoader.setState(TextLoader.ANALYZE_STRUCTURE);
@@ -183,7 +216,7 @@ public final class SerialCsvFileImporter implements Closeable {
                 new Utf8String(tableName),
                 false,
                 atomicity != -1 ? atomicity : Atomicity.SKIP_ROW,
-                PartitionBy.NONE,
+                partitionBy,
                 timestampColumn != null ? new Utf8String(timestampColumn) : null,
                 timestampFormat != null ? new Utf8String(timestampFormat) : null
         );
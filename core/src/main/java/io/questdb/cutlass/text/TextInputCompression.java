@@ -0,0 +1,89 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.text;
+
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+/**
+ * Detects compression of COPY input files by their magic bytes, file extension is not consulted.
+ * Compressed input cannot be read at arbitrary offsets, so it is always imported by the serial
+ * importer, even when the parallel import is requested.
+ */
+public final class TextInputCompression {
+    public static final int GZIP = 1;
+    public static final int NONE = 0;
+    public static final int ZSTD = 2;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int ZSTD_MAGIC = 0xfd2fb528;
+
+    private TextInputCompression() {
+    }
+
+    public static int detect(FilesFacade ff, long fd) {
+        final long buf = Unsafe.malloc(Integer.BYTES, MemoryTag.NATIVE_IMPORT);
+        try {
+            final long n = ff.read(fd, buf, Integer.BYTES, 0);
+            if (n >= 2 && (Unsafe.getUnsafe().getShort(buf) & 0xffff) == GZIP_MAGIC) {
+                return GZIP;
+            }
+            if (n == Integer.BYTES && Unsafe.getUnsafe().getInt(buf) == ZSTD_MAGIC) {
+                return ZSTD;
+            }
+            return NONE;
+        } finally {
+            Unsafe.free(buf, Integer.BYTES, MemoryTag.NATIVE_IMPORT);
+        }
+    }
+
+    /**
+     * Returns {@link #NONE} when the file cannot be opened, leaving it up to the importer to report the error.
+     */
+    public static int detect(FilesFacade ff, LPSZ path) {
+        final long fd = ff.openRO(path);
+        if (fd < 0) {
+            return NONE;
+        }
+        try {
+            return detect(ff, fd);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    public static String nameOf(int compression) {
+        switch (compression) {
+            case GZIP:
+                return "gzip";
+            case ZSTD:
+                return "zstd";
+            default:
+                return "none";
+        }
+    }
+}
@@ -44,6 +44,7 @@ import io.questdb.griffin.engine.groupby.vect.GroupByRecordCursorFactory;
 import io.questdb.griffin.engine.groupby.vect.*;
 import io.questdb.griffin.engine.join.*;
 import io.questdb.griffin.engine.orderby.*;
+import io.questdb.griffin.engine.functions.regex.Utf8Regex;
 import io.questdb.griffin.engine.table.*;
 import io.questdb.griffin.engine.union.*;
 import io.questdb.griffin.engine.window.CachedWindowRecordCursorFactory;
@@ -61,6 +62,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 
 import static io.questdb.cairo.ColumnType.getGeoHashBits;
@@ -147,6 +149,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     // this list is used to generate record sinks
     private final ListColumnFilter listColumnFilterA = new ListColumnFilter();
     private final ListColumnFilter listColumnFilterB = new ListColumnFilter();
+    private final StringSink ngramIndexSink = new StringSink();
     private final LongList prefixes = new LongList();
     private final RecordComparatorCompiler recordComparatorCompiler;
     private final IntList recordFunctionPositions = new IntList();
@@ -1064,6 +1067,46 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         );
     }
 
+    /**
+     * Returns LIKE, ILIKE or regex predicate over a trigram indexed column that is one of
+     * the top-level conjuncts of the filter, or null when there is no such predicate.
+     */
+    private @Nullable ExpressionNode findNgramIndexPredicate(
+            @Nullable ExpressionNode node,
+            TableRecordMetadata metadata,
+            RecordMetadata myMeta,
+            IntList columnIndexes
+    ) {
+        if (node == null) {
+            return null;
+        }
+
+        if (node.type == OPERATION && isAndKeyword(node.token)) {
+            final ExpressionNode predicate = findNgramIndexPredicate(node.lhs, metadata, myMeta, columnIndexes);
+            return predicate != null ? predicate : findNgramIndexPredicate(node.rhs, metadata, myMeta, columnIndexes);
+        }
+
+        if (node.paramCount != 2
+                || node.lhs == null
+                || node.rhs == null
+                || node.lhs.type != LITERAL
+                || node.rhs.type != CONSTANT
+                || !(isLikeKeyword(node.token) || Chars.equalsLowerCaseAscii(node.token, "ilike") || Chars.equals(node.token, '~'))) {
+            return null;
+        }
+
+        final int columnIndex = myMeta.getColumnIndexQuiet(node.lhs.token);
+        if (columnIndex < 0) {
+            return null;
+        }
+        final int columnType = myMeta.getColumnType(columnIndex);
+        if (!ColumnType.isVarchar(columnType) && !ColumnType.isString(columnType)) {
+            return null;
+        }
+        final CharSequence columnName = metadata.getColumnName(columnIndexes.getQuick(columnIndex));
+        return NgramIndexUtils.isIndexed(configuration, ngramIndexSink, metadata.getTableToken().getTableName(), columnName) ? node : null;
+    }
+
     private ObjList<Function> generateCastFunctions(
             RecordMetadata castToMetadata,
             RecordMetadata castFromMetadata,
@@ -2748,6 +2791,69 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private @Nullable RecordCursorFactory generateNgramIndexScan(
+            IntrinsicModel intrinsicModel,
+            TableRecordMetadata metadata,
+            RecordMetadata myMeta,
+            PartitionFrameCursorFactory dfcFactory,
+            IntList columnIndexes,
+            IntList columnSizeShifts,
+            boolean supportsRandomAccess,
+            SqlExecutionContext executionContext
+    ) throws SqlException {
+        if (configuration.getNgramIndexColumns().size() == 0) {
+            return null;
+        }
+
+        final ExpressionNode predicate = findNgramIndexPredicate(intrinsicModel.filter, metadata, myMeta, columnIndexes);
+        if (predicate == null || !Chars.isQuoted(predicate.rhs.token)) {
+            return null;
+        }
+
+        // the literal every matching value has to contain is the one the regex engine uses as prefilter
+        final CharSequence token = predicate.rhs.token;
+        final String pattern = Chars.toString(token, 1, token.length() - 1, '\'');
+        final boolean regex = Chars.equals(predicate.token, '~');
+        final boolean caseInsensitive = !regex && !isLikeKeyword(predicate.token);
+        final Utf8Regex compiled = regex
+                ? Utf8Regex.compile(pattern)
+                : Utf8Regex.compileLike(caseInsensitive ? pattern.toLowerCase() : pattern, false);
+        final byte[] requiredLiteral = compiled != null ? compiled.getRequiredLiteral() : null;
+        if (requiredLiteral == null || requiredLiteral.length < NgramIndexUtils.NGRAM_SIZE) {
+            return null;
+        }
+
+        final String literal = new String(requiredLiteral, StandardCharsets.UTF_8);
+        final int columnIndex = myMeta.getColumnIndexQuiet(predicate.lhs.token);
+        final IntList keys = new IntList();
+        NgramIndexUtils.collectNeedleKeys(literal, ColumnType.isVarchar(myMeta.getColumnType(columnIndex)), caseInsensitive, keys);
+        if (keys.size() == 0) {
+            return null;
+        }
+
+        final Function filter = compileFilter(intrinsicModel, myMeta, executionContext);
+        assert filter != null;
+        return new PageFrameRecordCursorFactory(
+                configuration,
+                myMeta,
+                dfcFactory,
+                new NgramIndexFilteredRowCursorFactory(
+                        configuration,
+                        columnIndex,
+                        columnIndexes.getQuick(columnIndex),
+                        literal,
+                        keys,
+                        filter
+                ),
+                false,
+                filter,
+                false,
+                columnIndexes,
+                columnSizeShifts,
+                supportsRandomAccess
+        );
+    }
+
     private RecordCursorFactory generateNoSelect(
             QueryModel model,
             SqlExecutionContext executionContext
@@ -2944,6 +3050,64 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     }
 
     @NotNull
+    private RecordCursorFactory generateReadYourWritesQuery(
+            QueryModel model,
+            SqlExecutionContext executionContext,
+            boolean supportsRandomAccess,
+            TableReader reader
+    ) throws SqlException {
+        // table query consumes the where clause, keep a copy to filter WAL rows
+        final ExpressionNode filterExpr = ExpressionNode.deepClone(expressionNodePool, model.getWhereClause());
+        final TableReaderMetadata readerMetadata = reader.getMetadata();
+        final RecordCursorFactory factory = generateTableQuery0(
+                model,
+                executionContext,
+                model.getLatestBy(),
+                supportsRandomAccess,
+                reader,
+                readerMetadata,
+                true
+        );
+        Function filter = null;
+        try {
+            // symbol keys of WAL segments are not comparable with the table's ones,
+            // so symbols are exposed as strings in the same way as set operations do
+            final RecordMetadata baseMetadata = factory.getMetadata();
+            final GenericRecordMetadata metadata = new GenericRecordMetadata();
+            final IntList dedupKeyColumns = new IntList();
+            for (int i = 0, n = baseMetadata.getColumnCount(); i < n; i++) {
+                final int type = baseMetadata.getColumnType(i);
+                metadata.add(new TableColumnMetadata(
+                        baseMetadata.getColumnName(i),
+                        ColumnType.isSymbol(type) ? ColumnType.STRING : type,
+                        baseMetadata.getMetadata(i)
+                ));
+                final int readerColumnIndex = readerMetadata.getColumnIndexQuiet(baseMetadata.getColumnName(i));
+                if (readerColumnIndex > -1 && readerMetadata.isDedupKey(readerColumnIndex)) {
+                    dedupKeyColumns.add(i);
+                }
+            }
+            metadata.setTimestampIndex(baseMetadata.getTimestampIndex());
+
+            if (filterExpr != null) {
+                filter = compileBooleanFilter(filterExpr, metadata, executionContext);
+            }
+            return new ReadYourWritesRecordCursorFactory(
+                    configuration,
+                    asm,
+                    metadata,
+                    factory,
+                    filter,
+                    reader.getTableToken(),
+                    dedupKeyColumns
+            );
+        } catch (Throwable th) {
+            Misc.free(filter);
+            Misc.free(factory);
+            throw th;
+        }
+    }
+
     private RecordCursorFactory generateSampleBy(
             QueryModel model,
             SqlExecutionContext executionContext,
@@ -3628,7 +3792,9 @@ public class SqlCodeGenerator implements Mutable, Closeable {
 
                 final GenericRecordMetadata distinctColumnMetadata = new GenericRecordMetadata();
                 distinctColumnMetadata.add(readerMetadata.getColumnMetadata(columnIndex));
-                if (ColumnType.isSymbol(columnType)) {
+                // read-your-writes scans support neither symbol tables nor page frames
+                final boolean readYourWrites = executionContext.isReadYourWritesEnabled() && engine.isWalTable(tableToken);
+                if (ColumnType.isSymbol(columnType) && !readYourWrites) {
                     final RecordCursorFactory factory = generateSubQuery(model.getNestedModel(), executionContext);
                     try {
                         return new DistinctSymbolRecordCursorFactory(engine.getConfiguration(), factory);
@@ -3636,7 +3802,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                         Misc.free(factory);
                         throw t;
                     }
-                } else if (columnType == ColumnType.INT) {
+                } else if (columnType == ColumnType.INT && !readYourWrites) {
                     final RecordCursorFactory factory = generateSubQuery(model.getNestedModel(), executionContext);
                     if (factory.supportsPageFrameCursor()) {
                         try {
@@ -4882,13 +5048,23 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             try (TableMetadata metadata = executionContext.getMetadataForWrite(tableToken, model.getMetadataVersion())) {
                 // it is not enough to rely on execution context to be different for WAL APPLY;
                 // in WAL APPLY we also must supply reader, outside of WAL APPLY reader is null
-                return generateTableQuery0(model, executionContext, latestBy, supportsRandomAccess, null, metadata);
+                return generateTableQuery0(model, executionContext, latestBy, supportsRandomAccess, null, metadata, false);
             }
         } else {
             // this is server side execution of the update. It executes against the reader metadata, which by now
             // has to be fully up-to-date due to WAL apply execution order.
             try (TableReader reader = executionContext.getReader(tableToken, model.getMetadataVersion())) {
-                return generateTableQuery0(model, executionContext, latestBy, supportsRandomAccess, reader, reader.getMetadata());
+                if (
+                        executionContext.isReadYourWritesEnabled()
+                                && !model.isUpdate()
+                                && !executionContext.isWalApplication()
+                                && latestBy.size() == 0
+                                && engine.isWalTable(tableToken)
+                                && getTimestampIndex(model, reader.getMetadata()) == reader.getMetadata().getTimestampIndex()
+                ) {
+                    return generateReadYourWritesQuery(model, executionContext, supportsRandomAccess, reader);
+                }
+                return generateTableQuery0(model, executionContext, latestBy, supportsRandomAccess, reader, reader.getMetadata(), false);
             }
         }
     }
@@ -4899,7 +5075,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             ObjList<ExpressionNode> latestBy,
             boolean supportsRandomAccess,
             @Transient @Nullable TableReader reader,
-            @Transient TableRecordMetadata metadata
+            @Transient TableRecordMetadata metadata,
+            boolean readYourWrites
     ) throws SqlException {
         // create metadata based on top-down columns that are required
 
@@ -4925,7 +5102,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 executionContext.pushTimestampRequiredFlag(true);
             }
 
-            boolean contextTimestampRequired = executionContext.isTimestampRequired();
+            // read-your-writes merges WAL rows with table rows in timestamp order
+            boolean contextTimestampRequired = executionContext.isTimestampRequired() || readYourWrites;
             // some "sample by" queries don't select any cols but needs timestamp col selected
             // for example "select count() from x sample by 1h" implicitly needs timestamp column selected
             if (topDownColumnCount > 0 || contextTimestampRequired || model.isUpdate()) {
@@ -4963,6 +5141,25 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                     columnIndexes.add(readerTimestampIndex);
                     columnSizeShifts.add((Numbers.msb(ColumnType.TIMESTAMP)));
                 }
+
+                // read-your-writes needs dedup keys to replace table rows with WAL rows
+                if (readYourWrites) {
+                    for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                        if (metadata.isDedupKey(i) && !columnIndexes.contains(i)) {
+                            int type = metadata.getColumnType(i);
+                            myMeta.add(new TableColumnMetadata(
+                                    metadata.getColumnName(i),
+                                    type,
+                                    metadata.isColumnIndexed(i),
+                                    metadata.getIndexValueBlockCapacity(i),
+                                    metadata.isSymbolTableStatic(i),
+                                    metadata.getMetadata(i)
+                            ));
+                            columnIndexes.add(i);
+                            columnSizeShifts.add(Numbers.msb(ColumnType.sizeOf(type)));
+                        }
+                    }
+                }
             }
         } finally {
             if (requiresTimestamp) {
@@ -5396,6 +5593,22 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 }
             }
 
+            if (!orderDescendingByDesignatedTimestampOnly) {
+                final RecordCursorFactory ngramIndexScan = generateNgramIndexScan(
+                        intrinsicModel,
+                        metadata,
+                        myMeta,
+                        dfcFactory,
+                        columnIndexes,
+                        columnSizeShifts,
+                        supportsRandomAccess,
+                        executionContext
+                );
+                if (ngramIndexScan != null) {
+                    return ngramIndexScan;
+                }
+            }
+
             RowCursorFactory rowFactory;
             if (orderDescendingByDesignatedTimestampOnly) {
                 rowFactory = new BwdPageFrameRowCursorFactory();
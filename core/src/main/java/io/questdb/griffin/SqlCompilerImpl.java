@@ -58,6 +58,13 @@ import io.questdb.cairo.VacuumColumnVersions;
 import io.questdb.cairo.security.AllowAllSecurityContext;
 import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameAddressCache;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryPool;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
@@ -122,6 +129,7 @@ import org.jetbrains.annotations.TestOnly;
 import java.io.Closeable;
 
 import static io.questdb.cairo.TableUtils.COLUMN_NAME_TXN_NONE;
+import static io.questdb.cairo.sql.PartitionFrameCursorFactory.ORDER_ASC;
 import static io.questdb.griffin.SqlKeywords.*;
 
 public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallback {
@@ -162,6 +170,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
     private final int maxRecompileAttempts;
     private final MemoryMARW mem = Vm.getMARWInstance();
     private final MessageBus messageBus;
+    private final PageFrameAddressCache pageFrameAddressCache;
+    private final PageFrameMemoryPool pageFrameMemoryPool = new PageFrameMemoryPool();
+    private final PageFrameMemoryRecord pageFrameMemoryRecord = new PageFrameMemoryRecord();
     private final SqlParser parser;
     private final TimestampValueRecord partitionFunctionRec = new TimestampValueRecord();
     private final QueryBuilder queryBuilder;
@@ -194,6 +205,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             this.configuration = engine.getConfiguration();
             this.ff = configuration.getFilesFacade();
             this.messageBus = engine.getMessageBus();
+            this.pageFrameAddressCache = new PageFrameAddressCache(configuration);
             this.sqlNodePool = new ObjectPool<>(ExpressionNode.FACTORY, configuration.getSqlExpressionPoolCapacity());
             this.queryColumnPool = new ObjectPool<>(QueryColumn.FACTORY, configuration.getSqlColumnPoolCapacity());
             this.queryModelPool = new ObjectPool<>(QueryModel.FACTORY, configuration.getSqlModelPoolCapacity());
@@ -287,6 +299,8 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         Misc.free(renamePath);
         Misc.free(codeGenerator);
         Misc.free(mem);
+        Misc.free(pageFrameMemoryPool);
+        Misc.free(pageFrameMemoryRecord);
         Misc.freeObjList(tableWriters);
     }
 
@@ -464,6 +478,25 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 || (from == ColumnType.IPv4 && to == ColumnType.VARCHAR);
     }
 
+    private static boolean isPageFrameCopySupported(RecordCursorFactory factory, RecordMetadata writerMetadata) {
+        // page frames are always read in ascending order, backward scans keep their order only through the record cursor
+        if (!factory.supportsPageFrameCursor() || factory.getScanDirection() != RecordCursorFactory.SCAN_DIRECTION_FORWARD) {
+            return false;
+        }
+        final RecordMetadata metadata = factory.getMetadata();
+        final int columnCount = writerMetadata.getColumnCount();
+        if (metadata.getColumnCount() != columnCount) {
+            return false;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            final int columnType = writerMetadata.getColumnType(i);
+            if (columnType < 0 || columnType != metadata.getColumnType(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private int addColumnWithType(AlterOperationBuilder addColumn, CharSequence columnName, int columnNamePosition) throws SqlException {
         CharSequence tok;
         tok = expectToken(lexer, "column type");
@@ -1708,6 +1741,49 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         compiledQuery.ofSet();
     }
 
+    // SET query_priority { = | TO } { low | normal | high | default }
+    // SET direct_io_scan { = | TO } { on | off | default }
+    // SET read_your_writes { = | TO } { on | off | default }
+    // other session parameters are accepted and ignored
+    private void compileSetStatement(SqlExecutionContext executionContext) throws SqlException {
+        CharSequence tok = SqlUtil.fetchNext(lexer);
+        if (tok != null && Chars.equalsLowerCaseAscii(tok, "query_priority")) {
+            tok = expectSetValue("query priority");
+            int priority = QueryPriority.UNSET;
+            if (!Chars.equalsLowerCaseAscii(tok, "default")) {
+                priority = QueryPriority.of(tok);
+                if (priority == QueryPriority.UNSET) {
+                    throw SqlException.$(lexer.lastTokenPosition(), "invalid query priority, expected 'low', 'normal', 'high' or 'default'");
+                }
+            }
+            executionContext.setQueryPriority(priority);
+        } else if (tok != null && Chars.equalsLowerCaseAscii(tok, "direct_io_scan")) {
+            tok = expectSetValue("direct I/O scan mode");
+            if (Chars.equalsLowerCaseAscii(tok, "on")) {
+                // any non-empty scan qualifies
+                executionContext.setDirectIoScanThreshold(1);
+            } else if (Chars.equalsLowerCaseAscii(tok, "off")) {
+                executionContext.setDirectIoScanThreshold(0);
+            } else if (Chars.equalsLowerCaseAscii(tok, "default")) {
+                executionContext.setDirectIoScanThreshold(-1);
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "invalid direct I/O scan mode, expected 'on', 'off' or 'default'");
+            }
+        } else if (tok != null && Chars.equalsLowerCaseAscii(tok, "read_your_writes")) {
+            tok = expectSetValue("read-your-writes mode");
+            if (Chars.equalsLowerCaseAscii(tok, "on")) {
+                executionContext.setReadYourWrites(1);
+            } else if (Chars.equalsLowerCaseAscii(tok, "off")) {
+                executionContext.setReadYourWrites(0);
+            } else if (Chars.equalsLowerCaseAscii(tok, "default")) {
+                executionContext.setReadYourWrites(-1);
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "invalid read-your-writes mode, expected 'on', 'off' or 'default'");
+            }
+        }
+        compiledQuery.ofSet();
+    }
+
     private void compileUsingModel(SqlExecutionContext executionContext, long beginNanos) throws SqlException {
         // This method will not populate sql cache directly;
         // factories are assumed to be non-reentrant and once
@@ -1994,7 +2070,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             SecurityContext securityContext,
             TableToken tableToken,
             boolean isWalEnabled,
-            RecordCursor cursor,
+            RecordCursorFactory factory,
+            SqlExecutionContext executionContext,
+            @Nullable RecordCursor cursor,
             RecordMetadata cursorMetadata,
             long batchSize,
             long o3MaxLag,
@@ -2024,21 +2102,54 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
 
             RecordMetadata writerMetadata = writerAPI.getMetadata();
             entityColumnFilter.of(writerMetadata.getColumnCount());
-            this.insertCount = copyTableData(
-                    cursor,
+            final RecordToRowCopier copier = RecordToRowCopierUtils.generateCopier(
+                    asm,
                     cursorMetadata,
-                    writerAPI,
                     writerMetadata,
-                    RecordToRowCopierUtils.generateCopier(
-                            asm,
-                            cursorMetadata,
-                            writerMetadata,
-                            entityColumnFilter
-                    ),
-                    batchSize,
-                    o3MaxLag,
-                    circuitBreaker
+                    entityColumnFilter
             );
+            if (cursor == null) {
+                // the record cursor is not open, the data is copied from page frames
+                try {
+                    if (isPageFrameCopySupported(factory, writerMetadata)) {
+                        this.insertCount = copyTablePageFrames(
+                                factory,
+                                executionContext,
+                                writerAPI,
+                                copier,
+                                batchSize,
+                                o3MaxLag,
+                                circuitBreaker
+                        );
+                    } else {
+                        try (RecordCursor recordCursor = factory.getCursor(executionContext)) {
+                            this.insertCount = copyTableData(
+                                    recordCursor,
+                                    cursorMetadata,
+                                    writerAPI,
+                                    writerMetadata,
+                                    copier,
+                                    batchSize,
+                                    o3MaxLag,
+                                    circuitBreaker
+                            );
+                        }
+                    }
+                } catch (SqlException e) {
+                    throw CairoException.nonCritical().position(e.getPosition()).put(e.getFlyweightMessage());
+                }
+            } else {
+                this.insertCount = copyTableData(
+                        cursor,
+                        cursorMetadata,
+                        writerAPI,
+                        writerMetadata,
+                        copier,
+                        batchSize,
+                        o3MaxLag,
+                        circuitBreaker
+                );
+            }
         } catch (CairoException e) {
             // Close writer, the table will be removed
             writerAPI = Misc.free(writerAPI);
@@ -2053,6 +2164,61 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         }
     }
 
+    /**
+     * Copies page frames of the factory to the writer as column blocks, falling back to
+     * row-by-row copy for the frames the writer can't append as a whole, e.g. out-of-order ones.
+     * Returns number of copied rows.
+     */
+    private long copyTablePageFrames(
+            RecordCursorFactory factory,
+            SqlExecutionContext executionContext,
+            TableWriterAPI writer,
+            RecordToRowCopier copier,
+            long batchSize,
+            long o3MaxLag,
+            SqlExecutionCircuitBreaker circuitBreaker
+    ) throws SqlException {
+        final int timestampIndex = writer.getMetadata().getTimestampIndex();
+        long deadline = batchSize;
+        long rowCount = 0;
+        try (PageFrameCursor frameCursor = factory.getPageFrameCursor(executionContext, ORDER_ASC)) {
+            pageFrameAddressCache.of(factory.getMetadata());
+            pageFrameMemoryPool.of(pageFrameAddressCache);
+            pageFrameMemoryRecord.of(frameCursor);
+            int frameIndex = 0;
+            PageFrame frame;
+            while ((frame = frameCursor.next()) != null) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                pageFrameAddressCache.add(frameIndex, frame);
+                final long frameRowCount = pageFrameAddressCache.getFrameSize(frameIndex);
+                final PageFrameMemory frameMemory = pageFrameMemoryPool.navigateTo(frameIndex++);
+                if (!writer.appendPageFrame(frameMemory, frameRowCount, frameCursor)) {
+                    pageFrameMemoryRecord.init(frameMemory);
+                    for (long r = 0; r < frameRowCount; r++) {
+                        circuitBreaker.statefulThrowExceptionIfTripped();
+                        pageFrameMemoryRecord.setRowIndex(r);
+                        TableWriter.Row row = timestampIndex > -1
+                                ? writer.newRow(pageFrameMemoryRecord.getTimestamp(timestampIndex))
+                                : writer.newRow();
+                        copier.copy(pageFrameMemoryRecord, row);
+                        row.append();
+                    }
+                }
+                rowCount += frameRowCount;
+                if (batchSize != -1 && rowCount >= deadline) {
+                    writer.ic(o3MaxLag);
+                    deadline = rowCount + batchSize;
+                }
+            }
+        } finally {
+            Misc.free(pageFrameMemoryRecord);
+            Misc.free(pageFrameMemoryPool);
+            pageFrameAddressCache.clear();
+        }
+        writer.commit();
+        return rowCount;
+    }
+
     private void copyTableReaderMetadataToCreateTableModel(SqlExecutionContext executionContext, CreateTableModel model) throws SqlException {
         ExpressionNode likeTableName = model.getLikeTableName();
         CharSequence likeTableNameToken = likeTableName.token;
@@ -2187,66 +2353,73 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             int position
     ) throws SqlException {
         executionContext.setUseSimpleCircuitBreaker(true);
-        try (
-                final RecordCursorFactory factory = generate(model.getQueryModel(), executionContext);
-                final RecordCursor cursor = factory.getCursor(executionContext)
-        ) {
+        try (final RecordCursorFactory factory = generate(model.getQueryModel(), executionContext)) {
             typeCast.clear();
             final RecordMetadata metadata = factory.getMetadata();
             validateTableModelAndCreateTypeCast(model, metadata, typeCast);
-            boolean keepLock = !model.isWalEnabled();
-
-            final TableToken tableToken;
-
-            if (volumeAlias == null) {
-                tableToken = engine.createTable(
-                        executionContext.getSecurityContext(),
-                        mem,
-                        path,
-                        false,
-                        tableStructureAdapter.of(model, metadata, typeCast),
-                        keepLock
-                );
-            } else {
-                tableToken = engine.createTableInVolume(
-                        executionContext.getSecurityContext(),
-                        mem,
-                        path,
-                        false,
-                        tableStructureAdapter.of(model, metadata, typeCast),
-                        keepLock
-                );
-            }
-
-            SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
-            try {
-                copyTableDataAndUnlock(
-                        executionContext.getSecurityContext(),
-                        tableToken,
-                        model.isWalEnabled(),
-                        cursor,
-                        metadata,
-                        model.getBatchSize(),
-                        model.getBatchO3MaxLag(),
-                        circuitBreaker
-                );
-            } catch (CairoException e) {
-                e.position(position);
-                LogRecord record = LOG.error()
-                        .$("could not create table as select [model=`").$(model)
-                        .$("`, message=[")
-                        .$(e.getFlyweightMessage());
-                if (!e.isCancellation()) {
-                    record.$(", errno=").$(e.getErrno());
+            // When the table gets the same column types as the query, its data is copied from page frames.
+            // Page frame and record cursors of a factory can't be open at the same time, so the record
+            // cursor is not opened in that case.
+            final boolean copyPageFrames = typeCast.size() == 0
+                    && factory.supportsPageFrameCursor()
+                    && factory.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD;
+            try (RecordCursor cursor = copyPageFrames ? null : factory.getCursor(executionContext)) {
+                boolean keepLock = !model.isWalEnabled();
+
+                final TableToken tableToken;
+
+                if (volumeAlias == null) {
+                    tableToken = engine.createTable(
+                            executionContext.getSecurityContext(),
+                            mem,
+                            path,
+                            false,
+                            tableStructureAdapter.of(model, metadata, typeCast),
+                            keepLock
+                    );
                 } else {
-                    record.$(']'); // we are closing bracket for the underlying message
+                    tableToken = engine.createTableInVolume(
+                            executionContext.getSecurityContext(),
+                            mem,
+                            path,
+                            false,
+                            tableStructureAdapter.of(model, metadata, typeCast),
+                            keepLock
+                    );
                 }
-                record.I$();
-                engine.drop(path, tableToken);
-                engine.unlockTableName(tableToken);
-                throw e;
+
+                SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
+                try {
+                    copyTableDataAndUnlock(
+                            executionContext.getSecurityContext(),
+                            tableToken,
+                            model.isWalEnabled(),
+                            factory,
+                            executionContext,
+                            cursor,
+                            metadata,
+                            model.getBatchSize(),
+                            model.getBatchO3MaxLag(),
+                            circuitBreaker
+                    );
+                } catch (CairoException e) {
+                    e.position(position);
+                    LogRecord record = LOG.error()
+                            .$("could not create table as select [model=`").$(model)
+                            .$("`, message=[")
+                            .$(e.getFlyweightMessage());
+                    if (!e.isCancellation()) {
+                        record.$(", errno=").$(e.getErrno());
+                    } else {
+                        record.$(']'); // we are closing bracket for the underlying message
+                    }
+                    record.I$();
+                    engine.drop(path, tableToken);
+                    engine.unlockTableName(tableToken);
+                    throw e;
+                }
+                return tableToken;
             }
-            return tableToken;
         } finally {
             executionContext.setUseSimpleCircuitBreaker(false);
         }
@@ -2301,6 +2474,14 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         throw SqlException.position(0).put("underlying cursor is extremely volatile");
     }
 
+    private CharSequence expectSetValue(CharSequence expected) throws SqlException {
+        CharSequence tok = expectToken(lexer, "'=' or 'to'");
+        if (!Chars.equals(tok, '=') && !SqlKeywords.isToKeyword(tok)) {
+            throw SqlException.$(lexer.lastTokenPosition(), "'=' or 'to' expected");
+        }
+        return GenericLexer.unquote(expectToken(lexer, expected));
+    }
+
     private int filterPartitions(
             Function function,
             int functionPosition,
@@ -2662,31 +2843,49 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
 
             SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
 
-            try (RecordCursor cursor = factory.getCursor(executionContext)) {
+            if (columnSetSize == 0 && isPageFrameCopySupported(factory, writer.getMetadata())) {
                 try {
-                    if (writerTimestampIndex == -1) {
-                        insertCount = copyUnordered(cursor, writer, copier, circuitBreaker);
-                    } else {
-                        if (model.getBatchSize() != -1) {
-                            insertCount = copyOrderedBatched(
-                                    writer,
-                                    factory.getMetadata(),
-                                    cursor,
-                                    copier,
-                                    timestampIndexFound,
-                                    model.getBatchSize(),
-                                    model.getO3MaxLag(),
-                                    circuitBreaker
-                            );
-                        } else {
-                            insertCount = copyOrdered(writer, factory.getMetadata(), cursor, copier, timestampIndexFound, circuitBreaker);
-                        }
-                    }
+                    insertCount = copyTablePageFrames(
+                            factory,
+                            executionContext,
+                            writer,
+                            copier,
+                            model.getBatchSize(),
+                            model.getO3MaxLag(),
+                            circuitBreaker
+                    );
                 } catch (Throwable e) {
                     // rollback data when system error occurs
                     writer.rollback();
                     throw e;
                 }
+            } else {
+                try (RecordCursor cursor = factory.getCursor(executionContext)) {
+                    try {
+                        if (writerTimestampIndex == -1) {
+                            insertCount = copyUnordered(cursor, writer, copier, circuitBreaker);
+                        } else {
+                            if (model.getBatchSize() != -1) {
+                                insertCount = copyOrderedBatched(
+                                        writer,
+                                        factory.getMetadata(),
+                                        cursor,
+                                        copier,
+                                        timestampIndexFound,
+                                        model.getBatchSize(),
+                                        model.getO3MaxLag(),
+                                        circuitBreaker
+                                );
+                            } else {
+                                insertCount = copyOrdered(writer, factory.getMetadata(), cursor, copier, timestampIndexFound, circuitBreaker);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        // rollback data when system error occurs
+                        writer.rollback();
+                        throw e;
+                    }
+                }
             }
         } finally {
             executionContext.setUseSimpleCircuitBreaker(false);
@@ -3202,6 +3401,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         // For each 'this::method' reference java compiles a class
         // We need to minimize repetition of this syntax as each site generates garbage
         final KeywordBasedExecutor compileSet = this::compileSet;
+        final KeywordBasedExecutor compileSetStatement = this::compileSetStatement;
         final KeywordBasedExecutor compileBegin = this::compileBegin;
         final KeywordBasedExecutor compileCommit = this::compileCommit;
         final KeywordBasedExecutor compileRollback = this::compileRollback;
@@ -3219,7 +3419,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         keywordBasedExecutors.put("truncate", truncateTables);
         keywordBasedExecutors.put("alter", alterTable);
         keywordBasedExecutors.put("reindex", reindexTable);
-        keywordBasedExecutors.put("set", compileSet);
+        keywordBasedExecutors.put("set", compileSetStatement);
         keywordBasedExecutors.put("begin", compileBegin);
         keywordBasedExecutors.put("commit", compileCommit);
         keywordBasedExecutors.put("rollback", compileRollback);
@@ -27,6 +27,7 @@ package io.questdb.griffin;
 import io.questdb.MessageBus;
 import io.questdb.cairo.*;
 import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.TableMetadata;
 import io.questdb.cairo.sql.VirtualRecord;
@@ -88,6 +89,14 @@ public interface SqlExecutionContext extends Closeable {
 
     boolean getCloneSymbolTables();
 
+    /**
+     * @return estimated table scan size in bytes at or above which forward table scans read cold
+     * partitions with direct I/O, 0 when direct I/O scans are disabled
+     */
+    default long getDirectIoScanThreshold() {
+        return getCairoEngine().getConfiguration().getSqlDirectIoScanThreshold();
+    }
+
     int getJitMode();
 
     default @NotNull MessageBus getMessageBus() {
@@ -116,6 +125,13 @@ public interface SqlExecutionContext extends Closeable {
 
     QueryFutureUpdateListener getQueryFutureUpdateListener();
 
+    /**
+     * @return one of {@link QueryPriority} values except {@link QueryPriority#UNSET}
+     */
+    default int getQueryPriority() {
+        return QueryPriority.NORMAL;
+    }
+
     Rnd getRandom();
 
     default TableReader getReader(TableToken tableName, long version) {
@@ -173,6 +189,14 @@ public interface SqlExecutionContext extends Closeable {
 
     boolean isParallelFilterEnabled();
 
+    /**
+     * @return true when scans of WAL tables should also return rows of committed,
+     * but not yet applied, WAL transactions
+     */
+    default boolean isReadYourWritesEnabled() {
+        return getCairoEngine().getConfiguration().isSqlReadYourWritesEnabled();
+    }
+
     boolean isTimestampRequired();
 
     default boolean isUninterruptible() {
@@ -193,14 +217,34 @@ public interface SqlExecutionContext extends Closeable {
 
     void setColumnPreTouchEnabled(boolean columnPreTouchEnabled);
 
+    /**
+     * Overrides direct I/O scan threshold of the configuration, see {@link #getDirectIoScanThreshold()}.
+     *
+     * @param threshold scan size threshold in bytes, 0 to disable direct I/O scans or -1 to
+     *                  restore configured threshold
+     */
+    default void setDirectIoScanThreshold(long threshold) {
+    }
+
     void setJitMode(int jitMode);
 
     void setNowAndFixClock(long now);
 
     void setParallelFilterEnabled(boolean parallelFilterEnabled);
 
+    default void setQueryPriority(int priority) {
+    }
+
     void setRandom(Rnd rnd);
 
+    /**
+     * Overrides read-your-writes mode of the configuration, see {@link #isReadYourWritesEnabled()}.
+     *
+     * @param mode 1 to enable, 0 to disable or -1 to restore configured mode
+     */
+    default void setReadYourWrites(int mode) {
+    }
+
     void setUseSimpleCircuitBreaker(boolean value);
 
     default void storeTelemetry(short event, short origin) {
@@ -29,11 +29,13 @@ import io.questdb.cairo.*;
 import io.questdb.cairo.security.DenyAllSecurityContext;
 import io.questdb.cairo.sql.AtomicBooleanCircuitBreaker;
 import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.VirtualRecord;
 import io.questdb.griffin.engine.functions.rnd.SharedRandom;
 import io.questdb.griffin.engine.window.WindowContext;
 import io.questdb.griffin.engine.window.WindowContextImpl;
+import io.questdb.std.CharSequenceHashSet;
 import io.questdb.std.IntStack;
 import io.questdb.std.Rnd;
 import io.questdb.std.Transient;
@@ -61,11 +63,17 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
     private boolean cloneSymbolTables = false;
     private boolean columnPreTouchEnabled = true;
     private boolean containsSecret;
+    // explicitly set direct I/O scan threshold, -1 means the configured one
+    private long directIoScanThreshold = -1;
     private int jitMode;
     private long now;
     private final MicrosecondClock nowClock = () -> now;
     private boolean parallelFilterEnabled;
+    // explicitly set priority, when unset priority is derived from the principal
+    private int queryPriority = QueryPriority.UNSET;
     private Rnd random;
+    // explicitly set read-your-writes mode, -1 means the configured one
+    private int readYourWrites = -1;
     private long requestFd = -1;
     private SecurityContext securityContext;
     private boolean useSimpleCircuitBreaker;
@@ -169,6 +177,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return cloneSymbolTables;
     }
 
+    @Override
+    public long getDirectIoScanThreshold() {
+        return directIoScanThreshold != -1 ? directIoScanThreshold : cairoConfiguration.getSqlDirectIoScanThreshold();
+    }
+
     @Override
     public int getJitMode() {
         return jitMode;
@@ -189,6 +202,18 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return QueryFutureUpdateListener.EMPTY;
     }
 
+    @Override
+    public int getQueryPriority() {
+        if (queryPriority != QueryPriority.UNSET) {
+            return queryPriority;
+        }
+        final CharSequenceHashSet lowPriorityUsers = cairoConfiguration.getSqlLowPriorityUsers();
+        if (lowPriorityUsers.size() > 0 && lowPriorityUsers.contains(securityContext.getPrincipal())) {
+            return QueryPriority.LOW;
+        }
+        return QueryPriority.NORMAL;
+    }
+
     @Override
     public Rnd getRandom() {
         return random != null ? random : SharedRandom.getRandom(cairoConfiguration);
@@ -243,6 +268,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         return parallelFilterEnabled;
     }
 
+    @Override
+    public boolean isReadYourWritesEnabled() {
+        return readYourWrites != -1 ? readYourWrites == 1 : cairoConfiguration.isSqlReadYourWritesEnabled();
+    }
+
     @Override
     public boolean isTimestampRequired() {
         return timestampRequiredStack.notEmpty() && timestampRequiredStack.peek() == 1;
@@ -284,6 +314,11 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         this.columnPreTouchEnabled = columnPreTouchEnabled;
     }
 
+    @Override
+    public void setDirectIoScanThreshold(long threshold) {
+        this.directIoScanThreshold = threshold;
+    }
+
     @Override
     public void setJitMode(int jitMode) {
         this.jitMode = jitMode;
@@ -300,11 +335,21 @@ public class SqlExecutionContextImpl implements SqlExecutionContext {
         this.parallelFilterEnabled = parallelFilterEnabled;
     }
 
+    @Override
+    public void setQueryPriority(int priority) {
+        this.queryPriority = priority;
+    }
+
     @Override
     public void setRandom(Rnd rnd) {
         this.random = rnd;
     }
 
+    @Override
+    public void setReadYourWrites(int mode) {
+        this.readYourWrites = mode;
+    }
+
     @Override
     public void setUseSimpleCircuitBreaker(boolean value) {
         this.useSimpleCircuitBreaker = value;
@@ -46,6 +46,7 @@ import io.questdb.log.LogRecord;
 import io.questdb.mp.SCSequence;
 import io.questdb.std.Chars;
 import io.questdb.std.FlyweightMessageContainer;
+import io.questdb.std.Os;
 
 // Factory that adds query to registry on getCursor() and removes on cursor close().
 public class QueryProgress extends AbstractRecordCursorFactory {
@@ -55,6 +56,8 @@ public class QueryProgress extends AbstractRecordCursorFactory {
     private final boolean jit;
     private final QueryRegistry registry;
     private final String sqlText;
+    private long beginMajorFaults = -1;
+    private long beginMinorFaults = -1;
     private long beginNanos;
     private SqlExecutionContext executionContext;
     private boolean failed = false;
@@ -70,14 +73,33 @@ public class QueryProgress extends AbstractRecordCursorFactory {
     }
 
     public static void logEnd(long sqlId, CharSequence sqlText, SqlExecutionContext executionContext, long beginNanos, boolean jit) {
-        LOG.infoW()
+        logEnd(sqlId, sqlText, executionContext, beginNanos, jit, -1, -1);
+    }
+
+    public static void logEnd(
+            long sqlId,
+            CharSequence sqlText,
+            SqlExecutionContext executionContext,
+            long beginNanos,
+            boolean jit,
+            long beginMinorFaults,
+            long beginMajorFaults
+    ) {
+        final long queryTime = executionContext.getCairoEngine().getConfiguration().getNanosecondClock().getTicks() - beginNanos;
+        final LogRecord log = LOG.infoW()
                 .$("fin [id=").$(sqlId)
                 .$(", sql=`").utf8(sqlText).$('`')
                 .$(", principal=").$(executionContext.getSecurityContext().getPrincipal())
                 .$(", cache=").$(executionContext.isCacheHit())
                 .$(", jit=").$(jit)
-                .$(", time=").$(executionContext.getCairoEngine().getConfiguration().getNanosecondClock().getTicks() - beginNanos)
-                .I$();
+                .$(", time=").$(queryTime);
+        if (beginMinorFaults > -1) {
+            // process-wide counters, concurrent queries contribute to the delta too;
+            // begin values are -1 when the native library does not provide the counters
+            log.$(", minflt=").$(Os.getMinorPageFaults() - beginMinorFaults)
+                    .$(", majflt=").$(Os.getMajorPageFaults() - beginMajorFaults);
+        }
+        log.I$();
     }
 
     public static void logError(
@@ -188,6 +210,13 @@ public class QueryProgress extends AbstractRecordCursorFactory {
             this.executionContext = executionContext;
             sqlId = registry.register(sqlText, executionContext);
             beginNanos = executionContext.getCairoEngine().getConfiguration().getNanosecondClock().getTicks();
+            if (executionContext.getCairoEngine().getConfiguration().getLogSqlQueryPageFaults()) {
+                beginMinorFaults = Os.getMinorPageFaults();
+                beginMajorFaults = Os.getMajorPageFaults();
+            } else {
+                beginMinorFaults = -1;
+                beginMajorFaults = -1;
+            }
             logStart(sqlId, sqlText, executionContext, jit);
             try {
                 final RecordCursor baseCursor = base.getCursor(executionContext);
@@ -291,7 +320,7 @@ public class QueryProgress extends AbstractRecordCursorFactory {
                 isOpen = false;
                 base.close();
                 if (!failed) {
-                    logEnd(sqlId, sqlText, executionContext, beginNanos, jit);
+                    logEnd(sqlId, sqlText, executionContext, beginNanos, jit, beginMinorFaults, beginMajorFaults);
                 }
             }
         }
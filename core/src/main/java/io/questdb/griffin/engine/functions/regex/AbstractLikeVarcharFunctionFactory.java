@@ -27,10 +27,12 @@ package io.questdb.griffin.engine.functions.regex;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BinaryFunction;
 import io.questdb.griffin.engine.functions.BooleanFunction;
 import io.questdb.griffin.engine.functions.NegatableBooleanFunction;
 import io.questdb.griffin.engine.functions.UnaryFunction;
@@ -42,6 +44,7 @@ import io.questdb.std.str.Utf8Sequence;
 import io.questdb.std.str.Utf8String;
 import io.questdb.std.str.Utf8s;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static io.questdb.griffin.engine.functions.regex.AbstractLikeStrFunctionFactory.countChar;
@@ -130,17 +133,19 @@ public abstract class AbstractLikeVarcharFunctionFactory implements FunctionFact
                     flags |= Pattern.CASE_INSENSITIVE;
                     p = p.toLowerCase();
                 }
-                return new AbstractLikeStrFunctionFactory.ConstLikeStrFunction(
-                        value,
-                        Pattern.compile(p, flags).matcher("")
-                );
+                final Pattern regexPattern = Pattern.compile(p, flags);
+                final Utf8Regex regex = Utf8Regex.compileLike(likeSeq, isCaseInsensitive());
+                if (regex != null) {
+                    return new ConstLikeVarcharFunction(value, regexPattern, regex);
+                }
+                return new AbstractLikeStrFunctionFactory.ConstLikeStrFunction(value, regexPattern.matcher(""));
             }
             return BooleanConstant.FALSE;
         }
 
         if (pattern.isRuntimeConstant()) {
             // bind variable
-            return new AbstractLikeStrFunctionFactory.BindLikeStrFunction(value, pattern, isCaseInsensitive());
+            return new BindLikeVarcharFunction(value, pattern, isCaseInsensitive());
         }
 
         throw SqlException.$(argPositions.getQuick(1), "use constant or bind variable");
@@ -148,6 +153,84 @@ public abstract class AbstractLikeVarcharFunctionFactory implements FunctionFact
 
     protected abstract boolean isCaseInsensitive();
 
+    private static class BindLikeVarcharFunction extends BooleanFunction implements BinaryFunction {
+        private final boolean caseInsensitive;
+        private final Function pattern;
+        private final Function value;
+        private String lastPattern = null;
+        private Matcher matcher;
+        private Utf8Regex regex;
+
+        public BindLikeVarcharFunction(Function value, Function pattern, boolean caseInsensitive) {
+            this.value = value;
+            this.pattern = pattern;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            if (regex != null) {
+                Utf8Sequence us = value.getVarcharA(rec);
+                return us != null && regex.matches(us);
+            }
+            if (matcher != null) {
+                CharSequence cs = value.getStrA(rec);
+                return cs != null && matcher.reset(cs).matches();
+            }
+            return false;
+        }
+
+        @Override
+        public Function getLeft() {
+            return value;
+        }
+
+        @Override
+        public Function getRight() {
+            return pattern;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            BinaryFunction.super.init(symbolTableSource, executionContext);
+            // this is bind variable, we can use it as constant
+            final CharSequence patternValue = pattern.getStrA(null);
+            if (patternValue != null && patternValue.length() > 0) {
+                String p = escapeSpecialChars(patternValue, lastPattern);
+                if (p != null) {
+                    int flags = Pattern.DOTALL;
+                    if (caseInsensitive) {
+                        flags |= Pattern.CASE_INSENSITIVE;
+                        p = p.toLowerCase();
+                    }
+                    regex = Utf8Regex.compileLike(patternValue, caseInsensitive);
+                    matcher = regex == null ? Pattern.compile(p, flags).matcher("") : null;
+                    lastPattern = p;
+                }
+            } else {
+                lastPattern = null;
+                matcher = null;
+                regex = null;
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(value);
+            // impl is regex
+            sink.val(" ~ ");
+            sink.val(pattern);
+            if (!caseInsensitive) {
+                sink.val(" [case-sensitive]");
+            }
+        }
+    }
+
     /**
      * Optimized variant of {@link ConstContainsVarcharFunction} with SWAR-based contains implementation.
      * Works only for patterns up to 8 bytes in size.
@@ -387,6 +470,40 @@ public abstract class AbstractLikeVarcharFunctionFactory implements FunctionFact
         }
     }
 
+    private static class ConstLikeVarcharFunction extends BooleanFunction implements UnaryFunction {
+        private final Pattern pattern; // only used in toPlan
+        private final Utf8Regex regex;
+        private final Function value;
+
+        public ConstLikeVarcharFunction(Function value, Pattern pattern, Utf8Regex regex) {
+            this.value = value;
+            this.pattern = pattern;
+            this.regex = regex;
+        }
+
+        @Override
+        public Function getArg() {
+            return value;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            Utf8Sequence us = value.getVarcharA(rec);
+            return us != null && regex.matches(us);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(value);
+            // impl is regex
+            sink.val(" ~ ");
+            sink.val(pattern.toString());
+            if ((pattern.flags() & Pattern.CASE_INSENSITIVE) != 0) {
+                sink.val(" [case-sensitive]");
+            }
+        }
+    }
+
     private static class ConstStartsWithVarcharFunction extends StartsWithVarcharFunctionFactory.ConstFunc {
         ConstStartsWithVarcharFunction(Function value, CharSequence startsWith) {
             super(value, startsWith);
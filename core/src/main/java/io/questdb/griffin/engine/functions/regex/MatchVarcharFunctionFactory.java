@@ -24,13 +24,150 @@
 
 package io.questdb.griffin.engine.functions.regex;
 
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.griffin.engine.functions.constants.BooleanConstant;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Utf8Sequence;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.regex.Matcher;
+
 /**
- * This is tactical implementation of regex match over varchar column.
- * It exploits the ability of a varchar column to return a CharSequence view of the sequence.
+ * Regex match over varchar column. Supported patterns are matched directly on UTF-8 bytes
+ * with {@link Utf8Regex}, the rest fall back to java.util.regex over a CharSequence view
+ * of the sequence.
  */
 public class MatchVarcharFunctionFactory extends MatchStrFunctionFactory {
     @Override
     public String getSignature() {
         return "~(ØS)";
     }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        final Function value = args.getQuick(0);
+        final Function pattern = args.getQuick(1);
+        final int patternPosition = argPositions.getQuick(1);
+        if (pattern.isConstant()) {
+            // java.util.regex validates the pattern and reports syntax errors
+            Matcher matcher = RegexUtils.createMatcher(pattern, patternPosition);
+            if (matcher == null) {
+                return BooleanConstant.FALSE;
+            }
+            final Utf8Regex regex = Utf8Regex.compile(matcher.pattern().pattern());
+            if (regex != null) {
+                return new MatchVarcharConstPatternFunction(value, regex);
+            }
+            return new MatchStrConstPatternFunction(value, matcher);
+        } else if (pattern.isRuntimeConstant()) {
+            return new MatchVarcharRuntimeConstPatternFunction(value, pattern, patternPosition);
+        }
+        throw SqlException.$(patternPosition, "not implemented: dynamic pattern would be very slow to execute");
+    }
+
+    private static class MatchVarcharConstPatternFunction extends BooleanFunction implements UnaryFunction {
+        private final Utf8Regex regex;
+        private final Function value;
+
+        public MatchVarcharConstPatternFunction(Function value, @NotNull Utf8Regex regex) {
+            this.value = value;
+            this.regex = regex;
+        }
+
+        @Override
+        public Function getArg() {
+            return value;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            Utf8Sequence us = value.getVarcharA(rec);
+            return us != null && regex.matches(us);
+        }
+
+        @Override
+        public boolean isConstant() {
+            return UnaryFunction.super.isConstant();
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(value).val(" ~ ").val(regex.getPattern());
+        }
+    }
+
+    private static class MatchVarcharRuntimeConstPatternFunction extends BooleanFunction implements UnaryFunction {
+        private final Function pattern;
+        private final int patternPosition;
+        private final Function value;
+        private Matcher matcher;
+        private Utf8Regex regex;
+
+        public MatchVarcharRuntimeConstPatternFunction(Function value, Function pattern, int patternPosition) {
+            this.value = value;
+            this.pattern = pattern;
+            this.patternPosition = patternPosition;
+        }
+
+        @Override
+        public Function getArg() {
+            return value;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            if (regex != null) {
+                Utf8Sequence us = value.getVarcharA(rec);
+                return us != null && regex.matches(us);
+            }
+            if (matcher != null) {
+                CharSequence cs = value.getStrA(rec);
+                return cs != null && matcher.reset(cs).find();
+            }
+            return false;
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            UnaryFunction.super.init(symbolTableSource, executionContext);
+            pattern.init(symbolTableSource, executionContext);
+            matcher = RegexUtils.createMatcher(pattern, patternPosition);
+            regex = matcher != null ? Utf8Regex.compile(matcher.pattern().pattern()) : null;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean isRuntimeConstant() {
+            return false;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return false;
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(value).val(" ~ ").val(pattern.toString());
+        }
+    }
 }
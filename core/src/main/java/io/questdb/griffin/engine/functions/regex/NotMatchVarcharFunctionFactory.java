@@ -24,13 +24,72 @@
 
 package io.questdb.griffin.engine.functions.regex;
 
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.functions.BooleanFunction;
+import io.questdb.griffin.engine.functions.UnaryFunction;
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Utf8Sequence;
+
 /**
- * This is tactical implementation of regex not match over varchar column.
- * It exploits the ability of a varchar column to return a CharSequence view of the sequence.
+ * Regex not match over varchar column. Supported patterns are matched directly on UTF-8 bytes
+ * with {@link Utf8Regex}, the rest fall back to java.util.regex over a CharSequence view
+ * of the sequence.
  */
 public class NotMatchVarcharFunctionFactory extends NotMatchStrFunctionFactory {
     @Override
     public String getSignature() {
         return "!~(Øs)";
     }
+
+    @Override
+    public Function newInstance(
+            int position,
+            ObjList<Function> args,
+            IntList argPositions,
+            CairoConfiguration configuration,
+            SqlExecutionContext sqlExecutionContext
+    ) throws SqlException {
+        // java.util.regex validates the pattern and reports syntax errors
+        final Function func = super.newInstance(position, args, argPositions, configuration, sqlExecutionContext);
+        final CharSequence pattern = args.getQuick(1).getStrA(null);
+        if (pattern != null) {
+            final Utf8Regex regex = Utf8Regex.compile(pattern);
+            if (regex != null) {
+                return new NoMatchVarcharFunction(args.getQuick(0), regex);
+            }
+        }
+        return func;
+    }
+
+    private static class NoMatchVarcharFunction extends BooleanFunction implements UnaryFunction {
+        private final Function arg;
+        private final Utf8Regex regex;
+
+        public NoMatchVarcharFunction(Function arg, Utf8Regex regex) {
+            this.arg = arg;
+            this.regex = regex;
+        }
+
+        @Override
+        public Function getArg() {
+            return arg;
+        }
+
+        @Override
+        public boolean getBool(Record rec) {
+            Utf8Sequence us = arg.getVarcharA(rec);
+            return us == null || !regex.matches(us);
+        }
+
+        @Override
+        public void toPlan(PlanSink sink) {
+            sink.val(arg).val(" !~ ").val(regex.getPattern());
+        }
+    }
 }
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.sql.Function;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.SymbolTableSource;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
@@ -141,7 +142,7 @@ public class RegexpReplaceVarcharFunctionFactory extends RegexpReplaceStrFunctio
         }
 
         final int maxLength = configuration.getStrFunctionMaxBufferLength();
-        return new RegexpReplaceStrFunction(value, pattern, patternPos, replacement, maxLength, position);
+        return new PrefilterFunc(value, pattern, patternPos, replacement, maxLength, position);
     }
 
     private static class DirectAsciiStringView implements CharSequence, DirectUtf8Sequence {
@@ -209,6 +210,67 @@ public class RegexpReplaceVarcharFunctionFactory extends RegexpReplaceStrFunctio
         }
     }
 
+    /**
+     * Skips java.util.regex for ASCII values that contain no match according to {@link Utf8Regex}
+     * and returns them as is. Values that may contain a match, as well as patterns not supported
+     * by {@link Utf8Regex}, go through the regular replace path.
+     */
+    private static class PrefilterFunc extends RegexpReplaceStrFunction {
+        private final Function pattern;
+        private final Function replacement;
+        private final Function value;
+        private Utf8Regex regex;
+
+        public PrefilterFunc(
+                Function value,
+                Function pattern,
+                int patternPos,
+                Function replacement,
+                int maxLength,
+                int functionPos
+        ) {
+            super(value, pattern, patternPos, replacement, maxLength, functionPos);
+            this.value = value;
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public CharSequence getStrA(Record rec) {
+            if (regex != null) {
+                final Utf8Sequence us = value.getVarcharA(rec);
+                if (us == null) {
+                    return null;
+                }
+                if (us.isAscii() && !regex.matches(us)) {
+                    return us.asAsciiCharSequence();
+                }
+            }
+            return super.getStrA(rec);
+        }
+
+        @Override
+        public CharSequence getStrB(Record rec) {
+            if (regex != null) {
+                final Utf8Sequence us = value.getVarcharB(rec);
+                if (us == null) {
+                    return null;
+                }
+                if (us.isAscii() && !regex.matches(us)) {
+                    return us.asAsciiCharSequence();
+                }
+            }
+            return super.getStrB(rec);
+        }
+
+        @Override
+        public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) throws SqlException {
+            super.init(symbolTableSource, executionContext);
+            final CharSequence patternStr = pattern.getStrA(null);
+            regex = patternStr != null && replacement.getStrA(null) != null ? Utf8Regex.compile(patternStr) : null;
+        }
+    }
+
     /**
      * Optimization for single group replacements. Avoids litter generated by
      * {@link Matcher#appendReplacement(StringBuilder, String)} by returning a substring of
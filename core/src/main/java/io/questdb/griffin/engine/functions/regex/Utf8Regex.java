@@ -0,0 +1,1240 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.functions.regex;
+
+import io.questdb.std.CharSequenceIntHashMap;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.SwarUtils;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Regular expression matcher that works on UTF-8 bytes. The pattern is compiled to a DFA over
+ * byte equivalence classes, so matching neither decodes the input to UTF-16 nor allocates.
+ * Compiled instances are immutable and can be shared between threads, e.g. async filter workers.
+ * <p>
+ * Before running the DFA, the input is searched for the longest literal that every match must
+ * contain using SWAR. When the literal is also the pattern prefix, the DFA starts at the first
+ * literal occurrence instead of the input start.
+ * <p>
+ * Only a subset of {@link java.util.regex.Pattern} syntax is supported: literals, escapes,
+ * character classes, dot, groups, alternation, greedy and lazy quantifiers, and anchors at the
+ * pattern start and end. Compile methods return null for anything else, as well as for patterns
+ * that blow up into too many DFA states, so that callers can fall back to java.util.regex.
+ */
+public final class Utf8Regex {
+    private static final int MAX_CODE_POINT = 0x10FFFF;
+    private static final int MAX_DFA_STATES = 1024;
+    private static final int MAX_NFA_STATES = 16 * 1024;
+    private static final int MAX_REPEAT = 100;
+    private static final int NFA_FAIL = 3;
+    private static final int NFA_MATCH = 2;
+    private static final int NFA_RANGE = 0;
+    private static final int NFA_SPLIT = 1;
+    private static final int NODE_ANY_BYTES = 4;
+    private static final int NODE_ALT = 1;
+    private static final int NODE_CHARS = 0;
+    private static final int NODE_CONCAT = 2;
+    private static final int NODE_REPEAT = 3;
+    private final boolean[] accepting;
+    private final int acceptState;
+    private final int[] byteClasses;
+    private final int classCount;
+    private final byte[] literal;
+    private final boolean literalIsPrefix;
+    private final boolean literalOnly;
+    private final long literalWord;
+    private final String pattern;
+    private final int startState;
+    private final int[] transitions;
+
+    private Utf8Regex(
+            String pattern,
+            int[] byteClasses,
+            int classCount,
+            int[] transitions,
+            boolean[] accepting,
+            int startState,
+            boolean absorbingAccept,
+            byte[] literal,
+            boolean literalIsPrefix,
+            boolean literalOnly
+    ) {
+        this.pattern = pattern;
+        this.byteClasses = byteClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.startState = startState;
+        // state offsets below or equal to the accept state terminate matching early,
+        // when accept state is not absorbing only the dead state does
+        this.acceptState = absorbingAccept ? classCount : 0;
+        this.literal = literal;
+        this.literalIsPrefix = literalIsPrefix;
+        this.literalOnly = literalOnly;
+        this.literalWord = literal != null ? SwarUtils.broadcast(literal[0]) : 0;
+    }
+
+    /**
+     * Compiles regular expression with {@link java.util.regex.Matcher#find()} semantics.
+     *
+     * @return compiled regex or null when the pattern is not supported
+     */
+    @Nullable
+    public static Utf8Regex compile(CharSequence regex) {
+        final Parser parser = new Parser(regex, false, false);
+        final Node node = parser.parseRegex();
+        if (node == null) {
+            return null;
+        }
+        return build(regex.toString(), node, parser.anchoredStart, parser.anchoredEnd);
+    }
+
+    /**
+     * Compiles SQL LIKE pattern, i.e. '%' matches any sequence, '_' matches single character
+     * and the whole input has to match. Case-insensitive patterns are lower-cased and ASCII
+     * letters match regardless of their case, same as LIKE patterns translated to java.util.regex.
+     *
+     * @return compiled pattern or null when the pattern is not supported
+     */
+    @Nullable
+    public static Utf8Regex compileLike(CharSequence like, boolean caseInsensitive) {
+        final CharSequence p = caseInsensitive ? like.toString().toLowerCase() : like;
+        final Node node = new Parser(p, true, caseInsensitive).parseLike();
+        if (node == null) {
+            return null;
+        }
+        return build(like.toString(), node, true, true);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return UTF-8 bytes every match must contain, or null when there is no such literal
+     */
+    @Nullable
+    public byte[] getRequiredLiteral() {
+        return literal;
+    }
+
+    /**
+     * @return true if the input matches; for regular expressions this means that
+     * a match was found somewhere in the input, for LIKE patterns the whole input has to match
+     */
+    public boolean matches(Utf8Sequence us) {
+        final int size = us.size();
+        int lo = 0;
+        if (literal != null) {
+            final int index = indexOfLiteral(us, size);
+            if (index == -1) {
+                return false;
+            }
+            if (literalOnly) {
+                return true;
+            }
+            if (literalIsPrefix) {
+                lo = index;
+            }
+        }
+        final long ptr = us.ptr();
+        return ptr != -1 ? matchesDirect(ptr, lo, size) : matchesSequence(us, lo, size);
+    }
+
+    private static Utf8Regex build(String pattern, Node node, boolean anchoredStart, boolean anchoredEnd) {
+        final Nfa nfa = new Nfa();
+        final int match = nfa.add(NFA_MATCH, 0, 0, -1, -1);
+        int start = nfa.compile(node, match);
+        if (start == -1) {
+            return null;
+        }
+        if (!anchoredStart) {
+            // search semantics: try to match at every input position
+            final int loop = nfa.add(NFA_SPLIT, 0, 0, -1, start);
+            nfa.out.setQuick(loop, nfa.add(NFA_RANGE, 0, 255, loop, -1));
+            start = loop;
+        }
+        if (nfa.size() > MAX_NFA_STATES) {
+            return null;
+        }
+
+        // byte equivalence classes: bytes that are never distinguished by the NFA share a class
+        final boolean[] boundaries = new boolean[257];
+        boundaries[0] = true;
+        for (int i = 0, n = nfa.size(); i < n; i++) {
+            if (nfa.type.getQuick(i) == NFA_RANGE) {
+                boundaries[nfa.lo.getQuick(i)] = true;
+                boundaries[nfa.hi.getQuick(i) + 1] = true;
+            }
+        }
+        final int[] byteClasses = new int[256];
+        final IntList classBytes = new IntList();
+        int classCount = -1;
+        for (int b = 0; b < 256; b++) {
+            if (boundaries[b]) {
+                classCount++;
+                classBytes.add(b);
+            }
+            byteClasses[b] = classCount;
+        }
+        classCount++;
+
+        // subset construction, state 0 is dead and state 1 is accepting (used in search mode only)
+        final boolean absorbingAccept = !anchoredEnd;
+        final ObjList<IntList> dfaStates = new ObjList<>();
+        final CharSequenceIntHashMap stateIndex = new CharSequenceIntHashMap();
+        final StringSink key = new StringSink();
+        final IntList transitions = new IntList();
+        final IntList accepting = new IntList();
+        final Closure closure = new Closure(nfa);
+
+        dfaStates.add(new IntList());
+        accepting.add(0);
+        dfaStates.add(null);
+        accepting.add(1);
+        for (int c = 0; c < 2 * classCount; c++) {
+            transitions.add(c < classCount ? 0 : 1);
+        }
+
+        final IntList startSet = closure.of(start);
+        final int startState = addDfaState(startSet, absorbingAccept, match, dfaStates, stateIndex, key, transitions, accepting, classCount);
+        for (int d = 2; d < dfaStates.size(); d++) {
+            final IntList set = dfaStates.getQuick(d);
+            for (int c = 0; c < classCount; c++) {
+                final int b = classBytes.getQuick(c);
+                closure.clear();
+                for (int i = 0, n = set.size(); i < n; i++) {
+                    final int s = set.getQuick(i);
+                    if (nfa.type.getQuick(s) == NFA_RANGE && nfa.lo.getQuick(s) <= b && b <= nfa.hi.getQuick(s)) {
+                        closure.add(nfa.out.getQuick(s));
+                    }
+                }
+                final int next = addDfaState(closure.get(), absorbingAccept, match, dfaStates, stateIndex, key, transitions, accepting, classCount);
+                if (next == -1) {
+                    return null;
+                }
+                transitions.setQuick(d * classCount + c, next * classCount);
+            }
+        }
+
+        final int[] transitionArray = new int[transitions.size()];
+        for (int i = 0, n = transitions.size(); i < n; i++) {
+            transitionArray[i] = transitions.getQuick(i);
+        }
+        // the accepting state is absorbing, so its row holds its own offset
+        for (int c = 0; c < classCount; c++) {
+            transitionArray[classCount + c] = classCount;
+        }
+        final boolean[] acceptingArray = new boolean[accepting.size()];
+        for (int i = 0, n = accepting.size(); i < n; i++) {
+            acceptingArray[i] = accepting.getQuick(i) == 1;
+        }
+
+        // literal prefilter
+        final Node concat = node.type == NODE_CONCAT ? node : null;
+        final ObjList<Node> items = concat != null ? concat.children : null;
+        int bestLo = 0, bestHi = 0;
+        if (items != null) {
+            int runLo = 0;
+            for (int i = 0, n = items.size(); i <= n; i++) {
+                if (i == n || !items.getQuick(i).isSingleChar()) {
+                    if (i - runLo > bestHi - bestLo) {
+                        bestLo = runLo;
+                        bestHi = i;
+                    }
+                    runLo = i + 1;
+                }
+            }
+        } else if (node.isSingleChar()) {
+            bestHi = 1;
+        }
+        byte[] literal = null;
+        boolean literalIsPrefix = false;
+        boolean literalOnly = false;
+        if (bestHi > bestLo) {
+            final IntList bytes = new IntList();
+            for (int i = bestLo; i < bestHi; i++) {
+                final Node item = items != null ? items.getQuick(i) : node;
+                utf8Encode((int) (item.ranges.getQuick(0) >>> 32), bytes);
+            }
+            literal = new byte[bytes.size()];
+            for (int i = 0, n = bytes.size(); i < n; i++) {
+                literal[i] = (byte) bytes.getQuick(i);
+            }
+            literalIsPrefix = bestLo == 0 && !anchoredStart;
+            literalOnly = literalIsPrefix && !anchoredEnd && bestHi == (items != null ? items.size() : 1);
+        }
+
+        return new Utf8Regex(
+                pattern,
+                byteClasses,
+                classCount,
+                transitionArray,
+                acceptingArray,
+                startState * classCount,
+                absorbingAccept,
+                literal,
+                literalIsPrefix,
+                literalOnly
+        );
+    }
+
+    private static int addDfaState(
+            IntList set,
+            boolean absorbingAccept,
+            int match,
+            ObjList<IntList> dfaStates,
+            CharSequenceIntHashMap stateIndex,
+            StringSink key,
+            IntList transitions,
+            IntList accepting,
+            int classCount
+    ) {
+        if (set.size() == 0) {
+            return 0;
+        }
+        final boolean isAccepting = set.contains(match);
+        if (isAccepting && absorbingAccept) {
+            return 1;
+        }
+        key.clear();
+        for (int i = 0, n = set.size(); i < n; i++) {
+            key.put(set.getQuick(i)).put(',');
+        }
+        final int index = stateIndex.keyIndex(key);
+        if (index < 0) {
+            return stateIndex.valueAt(index);
+        }
+        final int state = dfaStates.size();
+        if (state == MAX_DFA_STATES) {
+            return -1;
+        }
+        stateIndex.putAt(index, key, state);
+        final IntList copy = new IntList(set.size());
+        copy.addAll(set);
+        dfaStates.add(copy);
+        accepting.add(isAccepting ? 1 : 0);
+        for (int c = 0; c < classCount; c++) {
+            transitions.add(0);
+        }
+        return state;
+    }
+
+    private static void utf8Encode(int cp, IntList bytes) {
+        if (cp < 0x80) {
+            bytes.add(cp);
+        } else if (cp < 0x800) {
+            bytes.add(0xC0 | (cp >> 6));
+            bytes.add(0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            bytes.add(0xE0 | (cp >> 12));
+            bytes.add(0x80 | ((cp >> 6) & 0x3F));
+            bytes.add(0x80 | (cp & 0x3F));
+        } else {
+            bytes.add(0xF0 | (cp >> 18));
+            bytes.add(0x80 | ((cp >> 12) & 0x3F));
+            bytes.add(0x80 | ((cp >> 6) & 0x3F));
+            bytes.add(0x80 | (cp & 0x3F));
+        }
+    }
+
+    private int indexOfLiteral(Utf8Sequence us, int size) {
+        final int n = literal.length;
+        final int last = size - n;
+        if (last < 0) {
+            return -1;
+        }
+        int i = 0;
+        for (; i + Long.BYTES <= size && i <= last; i += Long.BYTES) {
+            long marks = SwarUtils.markZeroBytesExact(us.longAt(i) ^ literalWord);
+            while (marks != 0) {
+                final int pos = i + SwarUtils.indexOfFirstMarkedByte(marks);
+                if (pos > last) {
+                    return -1;
+                }
+                if (literalAt(us, pos)) {
+                    return pos;
+                }
+                marks &= marks - 1;
+            }
+        }
+        for (; i <= last; i++) {
+            if (us.byteAt(i) == literal[0] && literalAt(us, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean literalAt(Utf8Sequence us, int pos) {
+        for (int j = 1, n = literal.length; j < n; j++) {
+            if (us.byteAt(pos + j) != literal[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesDirect(long ptr, int lo, int hi) {
+        final int[] transitions = this.transitions;
+        final int[] byteClasses = this.byteClasses;
+        final int acceptState = this.acceptState;
+        int state = startState;
+        for (int i = lo; i < hi; i++) {
+            state = transitions[state + byteClasses[Unsafe.getUnsafe().getByte(ptr + i) & 0xff]];
+            if (state <= acceptState) {
+                return state != 0;
+            }
+        }
+        return accepting[state / classCount];
+    }
+
+    private boolean matchesSequence(Utf8Sequence us, int lo, int hi) {
+        final int[] transitions = this.transitions;
+        final int[] byteClasses = this.byteClasses;
+        final int acceptState = this.acceptState;
+        int state = startState;
+        for (int i = lo; i < hi; i++) {
+            state = transitions[state + byteClasses[us.byteAt(i) & 0xff]];
+            if (state <= acceptState) {
+                return state != 0;
+            }
+        }
+        return accepting[state / classCount];
+    }
+
+    /**
+     * Epsilon closure over NFA states. Only range and match states are kept in the
+     * resulting set since they are the only ones that define DFA state identity.
+     */
+    private static class Closure {
+        private final IntList marks = new IntList();
+        private final Nfa nfa;
+        private final IntList result = new IntList();
+        private final IntList stack = new IntList();
+        private int generation = 1;
+
+        private Closure(Nfa nfa) {
+            this.nfa = nfa;
+            marks.setAll(nfa.size(), 0);
+        }
+
+        void add(int state) {
+            stack.add(state);
+            while (stack.size() > 0) {
+                final int s = stack.getLast();
+                stack.removeIndex(stack.size() - 1);
+                if (marks.getQuick(s) == generation) {
+                    continue;
+                }
+                marks.setQuick(s, generation);
+                switch (nfa.type.getQuick(s)) {
+                    case NFA_SPLIT:
+                        if (nfa.out1.getQuick(s) != -1) {
+                            stack.add(nfa.out1.getQuick(s));
+                        }
+                        stack.add(nfa.out.getQuick(s));
+                        break;
+                    case NFA_RANGE:
+                    case NFA_MATCH:
+                        result.add(s);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        void clear() {
+            result.clear();
+            generation++;
+        }
+
+        IntList get() {
+            // insertion sort, closures are small
+            for (int i = 1, n = result.size(); i < n; i++) {
+                final int v = result.getQuick(i);
+                int j = i - 1;
+                while (j > -1 && result.getQuick(j) > v) {
+                    result.setQuick(j + 1, result.getQuick(j));
+                    j--;
+                }
+                result.setQuick(j + 1, v);
+            }
+            return result;
+        }
+
+        IntList of(int state) {
+            clear();
+            add(state);
+            return get();
+        }
+    }
+
+    private static class Nfa {
+        private final IntList hi = new IntList();
+        private final IntList lo = new IntList();
+        private final IntList out = new IntList();
+        private final IntList out1 = new IntList();
+        private final IntList type = new IntList();
+
+        int add(int type, int lo, int hi, int out, int out1) {
+            this.type.add(type);
+            this.lo.add(lo);
+            this.hi.add(hi);
+            this.out.add(out);
+            this.out1.add(out1);
+            return this.type.size() - 1;
+        }
+
+        /**
+         * Compiles the node in front of the given continuation state.
+         *
+         * @return start state of the node or -1 when the NFA gets too large
+         */
+        int compile(Node node, int next) {
+            if (size() > MAX_NFA_STATES || next == -1) {
+                return -1;
+            }
+            switch (node.type) {
+                case NODE_CHARS:
+                    return compileChars(node.ranges, next);
+                case NODE_CONCAT: {
+                    int s = next;
+                    for (int i = node.children.size() - 1; i > -1 && s != -1; i--) {
+                        s = compile(node.children.getQuick(i), s);
+                    }
+                    return s;
+                }
+                case NODE_ALT: {
+                    int s = compile(node.children.getQuick(0), next);
+                    for (int i = 1, n = node.children.size(); i < n && s != -1; i++) {
+                        final int alt = compile(node.children.getQuick(i), next);
+                        s = alt == -1 ? -1 : add(NFA_SPLIT, 0, 0, s, alt);
+                    }
+                    return s;
+                }
+                case NODE_REPEAT: {
+                    final Node child = node.children.getQuick(0);
+                    int s = next;
+                    if (node.max == -1) {
+                        final int loop = add(NFA_SPLIT, 0, 0, -1, next);
+                        final int body = compile(child, loop);
+                        if (body == -1) {
+                            return -1;
+                        }
+                        out.setQuick(loop, body);
+                        s = loop;
+                    } else {
+                        for (int i = node.min; i < node.max && s != -1; i++) {
+                            final int body = compile(child, s);
+                            s = body == -1 ? -1 : add(NFA_SPLIT, 0, 0, body, next);
+                        }
+                    }
+                    for (int i = 0; i < node.min && s != -1; i++) {
+                        s = compile(child, s);
+                    }
+                    return s;
+                }
+                case NODE_ANY_BYTES: {
+                    final int loop = add(NFA_SPLIT, 0, 0, -1, next);
+                    out.setQuick(loop, add(NFA_RANGE, 0, 255, loop, -1));
+                    return loop;
+                }
+                default:
+                    return -1;
+            }
+        }
+
+        int size() {
+            return type.size();
+        }
+
+        private int compileChars(LongList ranges, int next) {
+            // code point ranges are translated to alternations of UTF-8 byte range sequences
+            final IntList stack = new IntList();
+            int start = -1;
+            for (int r = 0, rn = ranges.size(); r < rn; r++) {
+                final long range = ranges.getQuick(r);
+                stack.add((int) (range >>> 32));
+                stack.add((int) range);
+                while (stack.size() > 0) {
+                    final int e = stack.getLast();
+                    final int s = stack.getQuick(stack.size() - 2);
+                    stack.setPos(stack.size() - 2);
+                    if (splitRange(s, e, stack)) {
+                        continue;
+                    }
+                    final IntList sb = new IntList(4);
+                    final IntList eb = new IntList(4);
+                    utf8Encode(s, sb);
+                    utf8Encode(e, eb);
+                    int seq = next;
+                    for (int i = sb.size() - 1; i > -1; i--) {
+                        seq = add(NFA_RANGE, sb.getQuick(i), eb.getQuick(i), seq, -1);
+                    }
+                    start = start == -1 ? seq : add(NFA_SPLIT, 0, 0, start, seq);
+                }
+            }
+            return start == -1 ? add(NFA_FAIL, 0, 0, -1, -1) : start;
+        }
+
+        /**
+         * Splits code point range into sub-ranges whose UTF-8 encodings differ only in
+         * a byte range per position, see utf8-ranges in Rust's regex crate.
+         *
+         * @return true if the range was split and the parts were pushed to the stack
+         */
+        private static boolean splitRange(int s, int e, IntList stack) {
+            if (s <= 0xDFFF && e >= 0xD800) {
+                // surrogates are not encodable
+                if (s < 0xD800) {
+                    stack.add(s);
+                    stack.add(0xD7FF);
+                }
+                if (e > 0xDFFF) {
+                    stack.add(0xE000);
+                    stack.add(e);
+                }
+                return true;
+            }
+            for (int max : new int[]{0x7F, 0x7FF, 0xFFFF}) {
+                if (s <= max && max < e) {
+                    stack.add(s);
+                    stack.add(max);
+                    stack.add(max + 1);
+                    stack.add(e);
+                    return true;
+                }
+            }
+            if (e <= 0x7F) {
+                return false;
+            }
+            for (int i = 1; i < 4; i++) {
+                final int m = (1 << (6 * i)) - 1;
+                if ((s & ~m) != (e & ~m)) {
+                    if ((s & m) != 0) {
+                        stack.add(s);
+                        stack.add(s | m);
+                        stack.add((s | m) + 1);
+                        stack.add(e);
+                        return true;
+                    }
+                    if ((e & m) != m) {
+                        stack.add(s);
+                        stack.add((e & ~m) - 1);
+                        stack.add(e & ~m);
+                        stack.add(e);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Node {
+        private final ObjList<Node> children;
+        private final int max;
+        private final int min;
+        private final LongList ranges;
+        private final int type;
+
+        private Node(int type, LongList ranges, ObjList<Node> children, int min, int max) {
+            this.type = type;
+            this.ranges = ranges;
+            this.children = children;
+            this.min = min;
+            this.max = max;
+        }
+
+        static Node chars(LongList ranges) {
+            return new Node(NODE_CHARS, ranges, null, 0, 0);
+        }
+
+        static Node list(int type, ObjList<Node> children) {
+            return children.size() == 1 ? children.getQuick(0) : new Node(type, null, children, 0, 0);
+        }
+
+        static Node repeat(Node child, int min, int max) {
+            final ObjList<Node> children = new ObjList<>();
+            children.add(child);
+            return new Node(NODE_REPEAT, null, children, min, max);
+        }
+
+        boolean isSingleChar() {
+            if (type != NODE_CHARS || ranges.size() != 1) {
+                return false;
+            }
+            final long range = ranges.getQuick(0);
+            return (int) (range >>> 32) == (int) range;
+        }
+    }
+
+    private static class Parser {
+        private final boolean caseInsensitive;
+        private final boolean dotAll;
+        private final CharSequence pattern;
+        private boolean anchoredEnd;
+        private boolean anchoredStart;
+        private int hi;
+        private int pos;
+
+        private Parser(CharSequence pattern, boolean dotAll, boolean caseInsensitive) {
+            this.pattern = pattern;
+            this.dotAll = dotAll;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        private static void addRange(LongList ranges, int lo, int hi) {
+            ranges.add(((long) lo << 32) | hi);
+        }
+
+        private static LongList negate(LongList ranges) {
+            normalize(ranges);
+            final LongList result = new LongList();
+            int next = 0;
+            for (int i = 0, n = ranges.size(); i < n; i++) {
+                final long range = ranges.getQuick(i);
+                final int lo = (int) (range >>> 32);
+                if (lo > next) {
+                    addRange(result, next, lo - 1);
+                }
+                next = (int) range + 1;
+            }
+            if (next <= MAX_CODE_POINT) {
+                addRange(result, next, MAX_CODE_POINT);
+            }
+            return result;
+        }
+
+        private static void normalize(LongList ranges) {
+            ranges.sort();
+            int k = -1;
+            for (int i = 0, n = ranges.size(); i < n; i++) {
+                final long range = ranges.getQuick(i);
+                final int lo = (int) (range >>> 32);
+                final int hi = (int) range;
+                if (k > -1 && lo <= (int) ranges.getQuick(k) + 1) {
+                    final long prev = ranges.getQuick(k);
+                    ranges.setQuick(k, (prev & 0xFFFFFFFF00000000L) | Math.max((int) prev, hi));
+                } else {
+                    ranges.setQuick(++k, range);
+                }
+            }
+            ranges.setPos(k + 1);
+        }
+
+        private Node chars(LongList ranges) {
+            if (caseInsensitive) {
+                // ASCII-only case folding, same as Pattern.CASE_INSENSITIVE without UNICODE_CASE
+                for (int i = 0, n = ranges.size(); i < n; i++) {
+                    final long range = ranges.getQuick(i);
+                    final int lo = (int) (range >>> 32);
+                    final int hi = (int) range;
+                    foldCase(ranges, lo, hi, 'a', 'z', 'A' - 'a');
+                    foldCase(ranges, lo, hi, 'A', 'Z', 'a' - 'A');
+                }
+            }
+            normalize(ranges);
+            return Node.chars(ranges);
+        }
+
+        private Node dot() {
+            final LongList ranges = new LongList();
+            if (dotAll) {
+                addRange(ranges, 0, MAX_CODE_POINT);
+            } else {
+                // line terminators: LF, CR, NEL, LS and PS
+                addRange(ranges, 0, '\n' - 1);
+                addRange(ranges, '\n' + 1, '\r' - 1);
+                addRange(ranges, '\r' + 1, 0x84);
+                addRange(ranges, 0x86, 0x2027);
+                addRange(ranges, 0x202A, MAX_CODE_POINT);
+            }
+            return Node.chars(ranges);
+        }
+
+        private void foldCase(LongList ranges, int lo, int hi, int letterLo, int letterHi, int shift) {
+            final int l = Math.max(lo, letterLo);
+            final int h = Math.min(hi, letterHi);
+            if (l <= h) {
+                addRange(ranges, l + shift, h + shift);
+            }
+        }
+
+        private int hexDigits(int n) {
+            int value = 0;
+            for (int i = 0; i < n; i++) {
+                if (pos >= hi) {
+                    return -1;
+                }
+                final int digit = Character.digit(pattern.charAt(pos++), 16);
+                if (digit == -1) {
+                    return -1;
+                }
+                value = (value << 4) | digit;
+            }
+            return value;
+        }
+
+        private Node lineTerminator() {
+            // optional final line terminator that "$" is allowed to match in front of
+            final ObjList<Node> alts = new ObjList<>();
+            final ObjList<Node> crlf = new ObjList<>();
+            crlf.add(single('\r'));
+            crlf.add(single('\n'));
+            alts.add(Node.list(NODE_CONCAT, crlf));
+            final LongList ranges = new LongList();
+            addRange(ranges, '\n', '\n');
+            addRange(ranges, '\r', '\r');
+            addRange(ranges, 0x85, 0x85);
+            addRange(ranges, 0x2028, 0x2029);
+            alts.add(Node.chars(ranges));
+            return Node.repeat(Node.list(NODE_ALT, alts), 0, 1);
+        }
+
+        private int nextCodePoint() {
+            final int cp = Character.codePointAt(pattern, pos);
+            pos += Character.charCount(cp);
+            return cp;
+        }
+
+        private Node parseAlternation() {
+            final ObjList<Node> alts = parseAlternatives();
+            return alts != null ? Node.list(NODE_ALT, alts) : null;
+        }
+
+        private ObjList<Node> parseAlternatives() {
+            final ObjList<Node> alts = new ObjList<>();
+            while (true) {
+                final Node seq = parseSequence();
+                if (seq == null) {
+                    return null;
+                }
+                alts.add(seq);
+                if (pos < hi && pattern.charAt(pos) == '|') {
+                    pos++;
+                    continue;
+                }
+                return alts;
+            }
+        }
+
+        private Node parseAtom() {
+            final char c = pattern.charAt(pos);
+            switch (c) {
+                case '(': {
+                    pos++;
+                    if (pos < hi && pattern.charAt(pos) == '?') {
+                        if (pos + 1 < hi && pattern.charAt(pos + 1) == ':') {
+                            pos += 2;
+                        } else {
+                            // lookarounds, named groups and inline flags
+                            return null;
+                        }
+                    }
+                    final Node group = parseAlternation();
+                    if (group == null || pos >= hi || pattern.charAt(pos) != ')') {
+                        return null;
+                    }
+                    pos++;
+                    return group;
+                }
+                case '[':
+                    pos++;
+                    return parseClass();
+                case '.':
+                    pos++;
+                    return dot();
+                case '\\': {
+                    pos++;
+                    final LongList ranges = new LongList();
+                    return parseEscape(ranges) ? chars(ranges) : null;
+                }
+                case ')':
+                case '|':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case '^':
+                case '$':
+                    return null;
+                default:
+                    return single(nextCodePoint());
+            }
+        }
+
+        private Node parseClass() {
+            final LongList ranges = new LongList();
+            boolean negated = false;
+            if (pos < hi && pattern.charAt(pos) == '^') {
+                negated = true;
+                pos++;
+            }
+            if (pos < hi && pattern.charAt(pos) == ']') {
+                return null;
+            }
+            while (pos < hi) {
+                final char c = pattern.charAt(pos);
+                if (c == ']') {
+                    pos++;
+                    return chars(negated ? negate(ranges) : ranges);
+                }
+                if (c == '[' || (c == '&' && pos + 1 < hi && pattern.charAt(pos + 1) == '&')) {
+                    // nested classes and intersections
+                    return null;
+                }
+                final int lo = parseClassChar(ranges);
+                if (lo == -2) {
+                    return null;
+                }
+                if (lo == -1) {
+                    // predefined class, e.g. \d
+                    continue;
+                }
+                if (pos + 1 < hi && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    final int rangeHi = parseClassChar(ranges);
+                    if (rangeHi < lo) {
+                        return null;
+                    }
+                    addRange(ranges, lo, rangeHi);
+                } else {
+                    addRange(ranges, lo, lo);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return code point, -1 when predefined class was added to the ranges or -2 when unsupported
+         */
+        private int parseClassChar(LongList ranges) {
+            if (pattern.charAt(pos) == '\\') {
+                pos++;
+                final int size = ranges.size();
+                if (!parseEscape(ranges)) {
+                    return -2;
+                }
+                if (ranges.size() - size == 1) {
+                    final long range = ranges.getQuick(size);
+                    final int lo = (int) (range >>> 32);
+                    if (lo == (int) range && !isClassEscape(pattern.charAt(pos - 1))) {
+                        ranges.setPos(size);
+                        return lo;
+                    }
+                }
+                return -1;
+            }
+            return nextCodePoint();
+        }
+
+        private static boolean isClassEscape(char c) {
+            switch (c) {
+                case 'd':
+                case 'D':
+                case 's':
+                case 'S':
+                case 'w':
+                case 'W':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Parses escape sequence following the backslash and adds its code points to the ranges.
+         *
+         * @return false for unsupported escapes
+         */
+        private boolean parseEscape(LongList ranges) {
+            if (pos >= hi) {
+                return false;
+            }
+            final char c = pattern.charAt(pos++);
+            switch (c) {
+                case 't':
+                    addRange(ranges, '\t', '\t');
+                    return true;
+                case 'n':
+                    addRange(ranges, '\n', '\n');
+                    return true;
+                case 'r':
+                    addRange(ranges, '\r', '\r');
+                    return true;
+                case 'f':
+                    addRange(ranges, '\f', '\f');
+                    return true;
+                case 'a':
+                    addRange(ranges, 0x07, 0x07);
+                    return true;
+                case 'e':
+                    addRange(ranges, 0x1B, 0x1B);
+                    return true;
+                case 'x': {
+                    int cp;
+                    if (pos < hi && pattern.charAt(pos) == '{') {
+                        final int end = indexOf('}', pos);
+                        if (end == -1 || end == pos + 1 || end - pos > 7) {
+                            return false;
+                        }
+                        pos++;
+                        cp = hexDigits(end - pos);
+                        pos = end + 1;
+                    } else {
+                        cp = hexDigits(2);
+                    }
+                    if (cp < 0 || cp > MAX_CODE_POINT) {
+                        return false;
+                    }
+                    addRange(ranges, cp, cp);
+                    return true;
+                }
+                case 'u': {
+                    final int cp = hexDigits(4);
+                    if (cp < 0 || Character.isSurrogate((char) cp)) {
+                        return false;
+                    }
+                    addRange(ranges, cp, cp);
+                    return true;
+                }
+                case 'd':
+                    addRange(ranges, '0', '9');
+                    return true;
+                case 'D':
+                    ranges.add(negate(digits()));
+                    return true;
+                case 's':
+                    ranges.add(spaces());
+                    return true;
+                case 'S':
+                    ranges.add(negate(spaces()));
+                    return true;
+                case 'w':
+                    ranges.add(wordChars());
+                    return true;
+                case 'W':
+                    ranges.add(negate(wordChars()));
+                    return true;
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        // back references, boundaries, unicode classes, quotes and such
+                        return false;
+                    }
+                    addRange(ranges, c, c);
+                    return true;
+            }
+        }
+
+        private LongList digits() {
+            final LongList ranges = new LongList();
+            addRange(ranges, '0', '9');
+            return ranges;
+        }
+
+        private int indexOf(char c, int from) {
+            for (int i = from; i < hi; i++) {
+                if (pattern.charAt(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Node parseLike() {
+            pos = 0;
+            hi = pattern.length();
+            final ObjList<Node> items = new ObjList<>();
+            while (pos < hi) {
+                final char c = pattern.charAt(pos);
+                if (c == '%') {
+                    pos++;
+                    // consecutive wildcards are same as one
+                    if (items.size() == 0 || items.getLast().type != NODE_ANY_BYTES) {
+                        items.add(new Node(NODE_ANY_BYTES, null, null, 0, 0));
+                    }
+                } else if (c == '_') {
+                    pos++;
+                    items.add(dot());
+                } else if (c == '\\') {
+                    pos++;
+                    if (pos >= hi) {
+                        // let the regex-based implementation report the error
+                        return null;
+                    }
+                    items.add(single(nextCodePoint()));
+                } else {
+                    items.add(single(nextCodePoint()));
+                }
+            }
+            if (items.size() == 0) {
+                return null;
+            }
+            return Node.list(NODE_CONCAT, items);
+        }
+
+        private Node parseRegex() {
+            pos = 0;
+            hi = pattern.length();
+            if (hi > 0 && pattern.charAt(0) == '^') {
+                anchoredStart = true;
+                pos++;
+            }
+            if (hi > pos && pattern.charAt(hi - 1) == '$') {
+                int backslashes = 0;
+                for (int i = hi - 2; i >= pos && pattern.charAt(i) == '\\'; i--) {
+                    backslashes++;
+                }
+                if ((backslashes & 1) == 0) {
+                    anchoredEnd = true;
+                    hi--;
+                }
+            }
+            final ObjList<Node> alts = parseAlternatives();
+            if (alts == null || pos != hi) {
+                return null;
+            }
+            if (alts.size() > 1 && (anchoredStart || anchoredEnd)) {
+                // java.util.regex binds a leading ^ to the first branch and a trailing $ to the last one,
+                // e.g. '^a|b' matches 'xb', while the automaton would anchor the whole alternation
+                return null;
+            }
+            final Node node = Node.list(NODE_ALT, alts);
+            if (anchoredEnd) {
+                final ObjList<Node> items = new ObjList<>();
+                if (node.type == NODE_CONCAT) {
+                    // keep the concatenation flat for the literal prefilter
+                    items.addAll(node.children);
+                } else {
+                    items.add(node);
+                }
+                items.add(lineTerminator());
+                return Node.list(NODE_CONCAT, items);
+            }
+            return node;
+        }
+
+        private Node parseSequence() {
+            final ObjList<Node> items = new ObjList<>();
+            while (pos < hi) {
+                final char c = pattern.charAt(pos);
+                if (c == '|' || c == ')') {
+                    break;
+                }
+                Node atom = parseAtom();
+                if (atom == null) {
+                    return null;
+                }
+                // quantifiers
+                while (pos < hi) {
+                    final char q = pattern.charAt(pos);
+                    int min;
+                    int max;
+                    if (q == '*') {
+                        min = 0;
+                        max = -1;
+                        pos++;
+                    } else if (q == '+') {
+                        min = 1;
+                        max = -1;
+                        pos++;
+                    } else if (q == '?') {
+                        min = 0;
+                        max = 1;
+                        pos++;
+                    } else if (q == '{') {
+                        final int end = indexOf('}', pos);
+                        if (end == -1) {
+                            return null;
+                        }
+                        final int comma = indexOf(',', pos);
+                        try {
+                            if (comma == -1 || comma > end) {
+                                min = max = Integer.parseInt(pattern.subSequence(pos + 1, end).toString());
+                            } else {
+                                min = Integer.parseInt(pattern.subSequence(pos + 1, comma).toString());
+                                max = comma + 1 == end ? -1 : Integer.parseInt(pattern.subSequence(comma + 1, end).toString());
+                            }
+                        } catch (NumberFormatException e) {
+                            return null;
+                        }
+                        if (min < 0 || min > MAX_REPEAT || max > MAX_REPEAT || (max != -1 && max < min)) {
+                            return null;
+                        }
+                        pos = end + 1;
+                    } else {
+                        break;
+                    }
+                    if (pos < hi) {
+                        if (pattern.charAt(pos) == '+') {
+                            // possessive quantifiers change what matches
+                            return null;
+                        }
+                        if (pattern.charAt(pos) == '?') {
+                            // lazy quantifiers match the same inputs
+                            pos++;
+                        }
+                    }
+                    atom = Node.repeat(atom, min, max);
+                }
+                items.add(atom);
+            }
+            if (items.size() == 0) {
+                return new Node(NODE_CONCAT, null, new ObjList<>(), 0, 0);
+            }
+            return Node.list(NODE_CONCAT, items);
+        }
+
+        private Node single(int cp) {
+            final LongList ranges = new LongList();
+            addRange(ranges, cp, cp);
+            return chars(ranges);
+        }
+
+        private LongList spaces() {
+            final LongList ranges = new LongList();
+            addRange(ranges, '\t', '\r');
+            addRange(ranges, ' ', ' ');
+            return ranges;
+        }
+
+        private LongList wordChars() {
+            final LongList ranges = new LongList();
+            addRange(ranges, '0', '9');
+            addRange(ranges, 'A', 'Z');
+            addRange(ranges, '_', '_');
+            addRange(ranges, 'a', 'z');
+            return ranges;
+        }
+    }
+}
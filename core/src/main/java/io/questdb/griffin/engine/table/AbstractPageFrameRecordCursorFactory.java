@@ -91,6 +91,13 @@ abstract class AbstractPageFrameRecordCursorFactory extends AbstractRecordCursor
         Misc.free(partitionFrameCursorFactory);
     }
 
+    /**
+     * Returns madvise() advice for column mappings scanned by forward page frame cursors, -1 for none.
+     */
+    protected int getScanAdvice() {
+        return -1;
+    }
+
     protected PageFrameCursor initPageFrameCursor(SqlExecutionContext executionContext) throws SqlException {
         final int order = partitionFrameCursorFactory.getOrder();
         PartitionFrameCursor partitionFrameCursor = partitionFrameCursorFactory.getCursor(executionContext, ORDER_ANY);
@@ -101,7 +108,10 @@ abstract class AbstractPageFrameRecordCursorFactory extends AbstractRecordCursor
                         columnSizeShifts,
                         1, // used for single-threaded exec plans
                         pageFrameMinRows,
-                        pageFrameMaxRows
+                        pageFrameMaxRows,
+                        getScanAdvice(),
+                        executionContext.getCairoEngine().getColumnBufferCache(),
+                        null
                 );
             } else {
                 pageFrameCursor = new BwdTableReaderPageFrameCursor(
@@ -109,7 +119,8 @@ abstract class AbstractPageFrameRecordCursorFactory extends AbstractRecordCursor
                         columnSizeShifts,
                         1, // used for single-threaded exec plans
                         pageFrameMinRows,
-                        pageFrameMaxRows
+                        pageFrameMaxRows,
+                        executionContext.getCairoEngine().getColumnBufferCache()
                 );
             }
         }
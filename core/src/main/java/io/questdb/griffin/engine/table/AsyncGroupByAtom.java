@@ -617,6 +617,11 @@ public class AsyncGroupByAtom implements StatefulAtom, Closeable, Reopenable, Pl
             this.map = MapFactory.createUnorderedMap(configuration, keyTypes, valueTypes);
             this.shards = new ObjList<>(shardCount);
             this.owner = owner;
+            if (!owner && configuration.isPageFrameNumaAware()) {
+                // Per-worker maps are reopened lazily, so the memory gets allocated and first
+                // touched by the worker thread and ends up on the worker's NUMA node.
+                map.close();
+            }
         }
 
         @Override
@@ -25,6 +25,7 @@
 package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.ColumnBufferCache;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypeDriver;
 import io.questdb.cairo.TableReader;
@@ -35,6 +36,8 @@ import io.questdb.std.*;
 import org.jetbrains.annotations.Nullable;
 
 public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
+    @Nullable
+    private final PageFrameColumnBufferCache columnBufferCache;
     private final int columnCount;
     private final IntList columnIndexes;
     private final LongList columnPageAddress = new LongList();
@@ -64,6 +67,17 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
             int workerCount,
             int pageFrameMinRows,
             int pageFrameMaxRows
+    ) {
+        this(columnIndexes, columnSizeShifts, workerCount, pageFrameMinRows, pageFrameMaxRows, null);
+    }
+
+    public BwdTableReaderPageFrameCursor(
+            IntList columnIndexes,
+            IntList columnSizeShifts,
+            int workerCount,
+            int pageFrameMinRows,
+            int pageFrameMaxRows,
+            @Nullable ColumnBufferCache columnBufferCache
     ) {
         this.columnIndexes = columnIndexes;
         this.columnSizeShifts = columnSizeShifts;
@@ -71,6 +85,7 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
         this.workerCount = workerCount;
         this.pageFrameMinRows = pageFrameMinRows;
         this.pageFrameMaxRows = pageFrameMaxRows;
+        this.columnBufferCache = columnBufferCache != null ? new PageFrameColumnBufferCache(columnBufferCache) : null;
     }
 
     @Override
@@ -81,6 +96,7 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
     @Override
     public void close() {
         partitionFrameCursor = Misc.free(partitionFrameCursor);
+        Misc.free(columnBufferCache);
     }
 
     @Override
@@ -126,6 +142,9 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
     public PageFrameCursor of(PartitionFrameCursor partitionFrameCursor) {
         this.partitionFrameCursor = partitionFrameCursor;
         reader = partitionFrameCursor.getTableReader();
+        if (columnBufferCache != null) {
+            columnBufferCache.of(reader, columnCount);
+        }
         toTop();
         return this;
     }
@@ -143,6 +162,9 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
     @Override
     public void toTop() {
         partitionFrameCursor.toTop();
+        if (columnBufferCache != null) {
+            columnBufferCache.toTop();
+        }
         pages.setAll(columnCount, 0);
         topsRemaining.setAll(columnCount, 0);
         columnPageAddress.setAll(2 * columnCount, 0);
@@ -182,7 +204,7 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
                 if (sh > -1) {
                     // this assumes reader uses single page to map the whole column
                     // non-negative sh means fixed length column
-                    final long address = colMem.getPageAddress(0);
+                    final long address = getPageAddress(i, columnIndex, false, colMem);
                     final long addressSize = partitionHiAdjusted << sh;
                     final long offset = partitionLoAdjusted << sh;
                     columnPageAddress.setQuick(2 * i, address + offset);
@@ -191,13 +213,13 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
                     final int columnType = reader.getMetadata().getColumnType(columnIndex);
                     final ColumnTypeDriver columnTypeDriver = ColumnType.getDriver(columnType);
                     final MemoryR auxCol = reader.getColumn(readerColIndex + 1);
-                    final long auxAddress = auxCol.getPageAddress(0);
+                    final long auxAddress = getPageAddress(i, columnIndex, true, auxCol);
                     final long auxOffsetLo = columnTypeDriver.getAuxVectorOffset(partitionLoAdjusted);
                     final long auxOffsetHi = columnTypeDriver.getAuxVectorOffset(partitionHiAdjusted);
 
                     final long dataSize = columnTypeDriver.getDataVectorSizeAt(auxAddress, partitionHiAdjusted - 1);
                     // some var-size columns may not have data memory (fully inlined)
-                    final long dataAddress = dataSize > 0 ? colMem.getPageAddress(0) : 0;
+                    final long dataAddress = dataSize > 0 ? getPageAddress(i, columnIndex, false, colMem) : 0;
 
                     columnPageAddress.setQuick(2 * i, dataAddress);
                     columnPageAddress.setQuick(2 * i + 1, auxAddress + auxOffsetLo);
@@ -235,6 +257,13 @@ public class BwdTableReaderPageFrameCursor implements PageFrameCursor {
         return frame;
     }
 
+    private long getPageAddress(int i, int columnIndex, boolean aux, MemoryR mem) {
+        if (columnBufferCache != null) {
+            return columnBufferCache.getPageAddress(reenterPartitionIndex, i, columnIndex, aux, mem);
+        }
+        return mem.getPageAddress(0);
+    }
+
     private class TableReaderPageFrame implements PageFrame {
         private long partitionHi;
         private int partitionIndex;
@@ -25,6 +25,8 @@
 package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnBufferCache;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypeDriver;
 import io.questdb.cairo.TableReader;
@@ -35,11 +37,15 @@ import io.questdb.std.*;
 import org.jetbrains.annotations.Nullable;
 
 public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
+    @Nullable
+    private final PageFrameColumnBufferCache columnBufferCache;
     private final int columnCount;
     private final IntList columnIndexes;
     private final LongList columnPageAddress = new LongList();
     private final LongList columnPageNextAddress = new LongList();
     private final IntList columnSizeShifts;
+    @Nullable
+    private final PageFrameDirectReader directReader;
     // Holds PageFrame#*_FORMAT per each partition.
     private final ByteList formats = new ByteList();
     private final TableReaderPageFrame frame = new TableReaderPageFrame();
@@ -48,9 +54,12 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     private final LongList pageRowsRemaining = new LongList();
     private final LongList pageSizes = new LongList();
     private final IntList pages = new IntList();
+    // madvise() advice applied to column mappings of each scanned partition, -1 means none
+    private final int scanAdvice;
     private final LongList topsRemaining = new LongList();
     private final int workerCount;
     private long currentPageFrameRowLimit;
+    private boolean directIoScan;
     private PartitionFrameCursor partitionFrameCursor;
     private TableReader reader;
     private boolean reenterPartitionFrame = false;
@@ -64,6 +73,19 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
             int workerCount,
             int pageFrameMinRows,
             int pageFrameMaxRows
+    ) {
+        this(columnIndexes, columnSizeShifts, workerCount, pageFrameMinRows, pageFrameMaxRows, -1, null, null);
+    }
+
+    public FwdTableReaderPageFrameCursor(
+            IntList columnIndexes,
+            IntList columnSizeShifts,
+            int workerCount,
+            int pageFrameMinRows,
+            int pageFrameMaxRows,
+            int scanAdvice,
+            @Nullable ColumnBufferCache columnBufferCache,
+            @Nullable CairoConfiguration directIoConfiguration
     ) {
         this.columnIndexes = columnIndexes;
         this.columnSizeShifts = columnSizeShifts;
@@ -71,6 +93,9 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         this.workerCount = workerCount;
         this.pageFrameMinRows = pageFrameMinRows;
         this.pageFrameMaxRows = pageFrameMaxRows;
+        this.scanAdvice = scanAdvice;
+        this.columnBufferCache = columnBufferCache != null ? new PageFrameColumnBufferCache(columnBufferCache) : null;
+        this.directReader = directIoConfiguration != null ? new PageFrameDirectReader(directIoConfiguration) : null;
     }
 
     @Override
@@ -81,6 +106,8 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     @Override
     public void close() {
         partitionFrameCursor = Misc.free(partitionFrameCursor);
+        Misc.free(columnBufferCache);
+        Misc.free(directReader);
     }
 
     @Override
@@ -111,8 +138,12 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         PartitionFrame partitionFrame = partitionFrameCursor.next();
         if (partitionFrame != null) {
             reenterPartitionIndex = partitionFrame.getPartitionIndex();
+            reader.adviseColumns(reenterPartitionIndex, columnIndexes, scanAdvice);
             final long lo = partitionFrame.getRowLo();
             final long hi = partitionFrame.getRowHi();
+            if (directIoScan) {
+                directReader.nextPartitionFrame(reenterPartitionIndex, lo, hi, columnIndexes, columnSizeShifts);
+            }
             currentPageFrameRowLimit = Math.min(
                     pageFrameMaxRows,
                     Math.max(pageFrameMinRows, (hi - lo) / workerCount)
@@ -124,8 +155,32 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
 
     @Override
     public PageFrameCursor of(PartitionFrameCursor partitionFrameCursor) {
+        return of(partitionFrameCursor, 0);
+    }
+
+    /**
+     * Opens the cursor over given partition frames. Cold partitions are read with direct I/O
+     * when the estimated scan size is at or above the threshold and the cursor was created
+     * with direct I/O configuration.
+     *
+     * @param partitionFrameCursor  partition frames to scan
+     * @param directIoScanThreshold scan size threshold in bytes, 0 disables direct I/O
+     * @return this cursor
+     */
+    public PageFrameCursor of(PartitionFrameCursor partitionFrameCursor, long directIoScanThreshold) {
         reader = partitionFrameCursor.getTableReader();
         this.partitionFrameCursor = partitionFrameCursor;
+        if (columnBufferCache != null) {
+            columnBufferCache.of(reader, columnCount);
+        }
+        directIoScan = directReader != null
+                && directIoScanThreshold > 0
+                && estimateScanSize() >= directIoScanThreshold;
+        if (directIoScan) {
+            directReader.of(reader, columnCount);
+        } else {
+            Misc.free(directReader);
+        }
         toTop();
         return this;
     }
@@ -143,6 +198,12 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     @Override
     public void toTop() {
         partitionFrameCursor.toTop();
+        if (columnBufferCache != null) {
+            columnBufferCache.toTop();
+        }
+        if (directIoScan) {
+            directReader.toTop();
+        }
         pages.setAll(columnCount, 0);
         topsRemaining.setAll(columnCount, 0);
         columnPageAddress.setAll(2 * columnCount, 0);
@@ -182,7 +243,7 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                 if (sh > -1) {
                     // this assumes reader uses single page to map the whole column
                     // non-negative sh means fixed length column
-                    final long address = colMem.getPageAddress(0);
+                    final long address = getPageAddress(i, columnIndex, false, colMem);
                     final long addressSize = partitionHiAdjusted << sh;
                     final long offset = partitionLoAdjusted << sh;
                     columnPageAddress.setQuick(2 * i, address + offset);
@@ -191,13 +252,13 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                     final int columnType = reader.getMetadata().getColumnType(columnIndex);
                     final ColumnTypeDriver columnTypeDriver = ColumnType.getDriver(columnType);
                     final MemoryR auxCol = reader.getColumn(readerColIndex + 1);
-                    final long auxAddress = auxCol.getPageAddress(0);
+                    final long auxAddress = getPageAddress(i, columnIndex, true, auxCol);
                     final long auxOffsetLo = columnTypeDriver.getAuxVectorOffset(partitionLoAdjusted);
                     final long auxOffsetHi = columnTypeDriver.getAuxVectorOffset(partitionHiAdjusted);
 
                     final long dataSize = columnTypeDriver.getDataVectorSizeAt(auxAddress, partitionHiAdjusted - 1);
                     // some var-size columns may not have data memory (fully inlined)
-                    final long dataAddress = dataSize > 0 ? colMem.getPageAddress(0) : 0;
+                    final long dataAddress = dataSize > 0 ? getPageAddress(i, columnIndex, false, colMem) : 0;
 
                     columnPageAddress.setQuick(2 * i, dataAddress);
                     columnPageAddress.setQuick(2 * i + 1, auxAddress + auxOffsetLo);
@@ -235,6 +296,38 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         return frame;
     }
 
+    private long estimateScanSize() {
+        long rowCount = partitionFrameCursor.size();
+        if (rowCount < 0) {
+            rowCount = reader.size();
+        }
+        long rowSize = 0;
+        for (int i = 0; i < columnCount; i++) {
+            final int sh = columnSizeShifts.getQuick(i);
+            if (sh > -1) {
+                rowSize += 1L << sh;
+            } else {
+                // size of var-size values is unknown upfront, so count their aux vector entries only
+                final int columnType = reader.getMetadata().getColumnType(columnIndexes.getQuick(i));
+                rowSize += ColumnType.getDriver(columnType).auxRowsToBytes(1);
+            }
+        }
+        return rowCount * rowSize;
+    }
+
+    private long getPageAddress(int i, int columnIndex, boolean aux, MemoryR mem) {
+        if (directIoScan) {
+            final long address = directReader.getPageAddress(i, aux);
+            if (address != 0) {
+                return address;
+            }
+        }
+        if (columnBufferCache != null) {
+            return columnBufferCache.getPageAddress(reenterPartitionIndex, i, columnIndex, aux, mem);
+        }
+        return mem.getPageAddress(0);
+    }
+
     private class TableReaderPageFrame implements PageFrame {
         private long partitionHi;
         private int partitionIndex;
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.BitmapIndexUtils;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ConcurrentBitmapIndexFwdReader;
+import io.questdb.cairo.NgramIndexUtils;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+class NgramIndexFilteredRowCursor implements RowCursor, QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(NgramIndexFilteredRowCursor.class);
+    private final CairoConfiguration configuration;
+    private final Function filter;
+    private final LongList heads = new LongList();
+    private final ConcurrentBitmapIndexFwdReader indexReader = new ConcurrentBitmapIndexFwdReader();
+    private final ObjList<RowCursor> keyCursors = new ObjList<>();
+    private final IntList keys;
+    private final StringSink nameSink = new StringSink();
+    private final Path path = new Path();
+    private final int readerColumnIndex;
+    private final PageFrameMemoryRecord record = new PageFrameMemoryRecord();
+    // highest row covered by the index of the open partition, inclusive
+    private long indexMaxValue;
+    private boolean indexed;
+    private long lastIndexedRow;
+    private int openPartitionIndex = -1;
+    private PageFrameCursor pageFrameCursor;
+    private long rowIndex;
+    private long scanHi;
+    private long scanRow;
+
+    NgramIndexFilteredRowCursor(CairoConfiguration configuration, int readerColumnIndex, IntList keys, Function filter) {
+        this.configuration = configuration;
+        this.readerColumnIndex = readerColumnIndex;
+        this.keys = keys;
+        this.filter = filter;
+        for (int i = 0, n = keys.size(); i < n; i++) {
+            keyCursors.add(null);
+        }
+        heads.setPos(keys.size());
+    }
+
+    @Override
+    public void close() {
+        Misc.free(indexReader);
+        Misc.free(path);
+        openPartitionIndex = -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            final long row;
+            if (indexed) {
+                row = nextIndexedRow();
+                if (row < 0) {
+                    indexed = false;
+                    continue;
+                }
+            } else if (scanRow < scanHi) {
+                row = scanRow++;
+            } else {
+                return false;
+            }
+
+            record.setRowIndex(row);
+            if (filter.getBool(record)) {
+                rowIndex = row;
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public long next() {
+        return rowIndex;
+    }
+
+    public NgramIndexFilteredRowCursor of(PageFrame pageFrame, PageFrameMemory pageFrameMemory) {
+        final long partitionLo = pageFrame.getPartitionLo();
+        final long partitionHi = pageFrame.getPartitionHi();
+        record.init(pageFrameMemory);
+        record.setRowIndex(0);
+
+        long indexHi = partitionLo;
+        if (pageFrame.getFormat() == PageFrame.NATIVE_FORMAT && openIndex(pageFrame.getPartitionIndex())) {
+            indexHi = Math.max(partitionLo, Math.min(partitionHi, indexMaxValue + 1));
+        }
+
+        indexed = indexHi > partitionLo;
+        if (indexed) {
+            for (int i = 0, n = keys.size(); i < n; i++) {
+                keyCursors.setQuick(i, indexReader.initCursor(keyCursors.getQuick(i), keys.getQuick(i), partitionLo, indexHi - 1));
+                heads.setQuick(i, -1);
+            }
+            lastIndexedRow = -1;
+        }
+        // rows after the index coverage are scanned
+        scanRow = indexHi - partitionLo;
+        scanHi = partitionHi - partitionLo;
+        return this;
+    }
+
+    private long nextIndexedRow() {
+        // leapfrog intersection of key row lists, heads hold the last row taken from every list
+        final int n = keyCursors.size();
+        long candidate = lastIndexedRow + 1;
+        int matched = 0;
+        int i = 0;
+        while (matched < n) {
+            long head = heads.getQuick(i);
+            if (head < candidate) {
+                final RowCursor keyCursor = keyCursors.getQuick(i);
+                do {
+                    if (!keyCursor.hasNext()) {
+                        return -1;
+                    }
+                    head = keyCursor.next();
+                } while (head < candidate);
+                heads.setQuick(i, head);
+            }
+
+            if (head == candidate) {
+                matched++;
+            } else {
+                candidate = head;
+                matched = 1;
+            }
+
+            if (++i == n) {
+                i = 0;
+            }
+        }
+        lastIndexedRow = candidate;
+        return candidate;
+    }
+
+    private boolean openIndex(int partitionIndex) {
+        if (partitionIndex == openPartitionIndex) {
+            return indexReader.isOpen();
+        }
+
+        indexReader.close();
+        openPartitionIndex = partitionIndex;
+        final TableReader reader = pageFrameCursor.getTableReader();
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final int writerIndex = reader.getMetadata().getWriterIndex(readerColumnIndex);
+        final long columnNameTxn = reader.getColumnVersionReader().getColumnNameTxn(partitionTimestamp, writerIndex);
+        final CharSequence indexName = NgramIndexUtils.indexName(nameSink, reader.getMetadata().getColumnName(readerColumnIndex));
+
+        TableUtils.setPathTable(path, configuration, reader.getTableToken());
+        TableUtils.setPathForPartition(path, reader.getPartitionedBy(), partitionTimestamp, reader.getTxFile().getPartitionNameTxn(partitionIndex));
+        final int plen = path.size();
+        final FilesFacade ff = configuration.getFilesFacade();
+        try {
+            if (!ff.exists(BitmapIndexUtils.keyFileName(path, indexName, columnNameTxn))) {
+                return false;
+            }
+            // coverage is read ahead of the index header, rows it declares are guaranteed to be in the snapshot
+            indexMaxValue = readMaxValue(ff);
+            indexReader.of(configuration, path.trimTo(plen), indexName, columnNameTxn, 0);
+            return true;
+        } catch (CairoException e) {
+            LOG.error().$("could not open ngram index, scanning partition [path=").$(path)
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+            indexReader.close();
+            return false;
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    private long readMaxValue(FilesFacade ff) {
+        final long fd = TableUtils.openRO(ff, path.$(), LOG);
+        try {
+            return ff.readNonNegativeLong(fd, BitmapIndexUtils.KEY_RESERVED_OFFSET_MAX_VALUE);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    Function getFilter() {
+        return filter;
+    }
+
+    void prepare(PageFrameCursor pageFrameCursor) {
+        this.pageFrameCursor = pageFrameCursor;
+        record.of(pageFrameCursor);
+        indexReader.close();
+        openPartitionIndex = -1;
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.sql.RowCursorFactory;
+import io.questdb.griffin.PlanSink;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+
+/**
+ * Row cursor factory for filters that require a VARCHAR or STRING column to contain a literal,
+ * such as LIKE '%literal%'. Candidate rows are taken from the trigram index of the column,
+ * rows that are not covered by the index are scanned. The filter is applied to every candidate row.
+ */
+public class NgramIndexFilteredRowCursorFactory implements RowCursorFactory, QuietCloseable {
+    private final int columnIndex;
+    private final NgramIndexFilteredRowCursor cursor;
+    private final CharSequence literal;
+
+    public NgramIndexFilteredRowCursorFactory(
+            CairoConfiguration configuration,
+            int columnIndex,
+            int readerColumnIndex,
+            CharSequence literal,
+            IntList keys,
+            Function filter
+    ) {
+        this.columnIndex = columnIndex;
+        this.literal = literal;
+        this.cursor = new NgramIndexFilteredRowCursor(configuration, readerColumnIndex, keys, filter);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(cursor);
+    }
+
+    @Override
+    public RowCursor getCursor(PageFrame pageFrame, PageFrameMemory pageFrameMemory) {
+        return cursor.of(pageFrame, pageFrameMemory);
+    }
+
+    @Override
+    public boolean isEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean isUsingIndex() {
+        return true;
+    }
+
+    @Override
+    public void prepareCursor(PageFrameCursor pageFrameCursor) {
+        cursor.prepare(pageFrameCursor);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Ngram index scan").meta("on").putBaseColumnName(columnIndex);
+        sink.attr("literal").val(literal);
+        sink.attr("filter").val(cursor.getFilter());
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnBufferCache;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.LongList;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+
+/**
+ * Resolves column addresses of table reader page frames against the engine's {@link ColumnBufferCache},
+ * so that page frame consumers, such as PageFrameMemoryPool, transparently read cached copies of column
+ * files instead of the mapped files. Cache entries are leased until the owning page frame cursor is
+ * reopened or closed.
+ */
+class PageFrameColumnBufferCache implements QuietCloseable {
+    // base address per column, data and aux vector, resolved for the current partition
+    private final LongList addresses = new LongList();
+    private final ColumnBufferCache cache;
+    private final ObjList<ColumnBufferCache.Entry> leases = new ObjList<>();
+    private int partitionIndex = -1;
+    private TableReader reader;
+
+    PageFrameColumnBufferCache(ColumnBufferCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0, n = leases.size(); i < n; i++) {
+            cache.release(leases.getQuick(i));
+        }
+        leases.clear();
+        partitionIndex = -1;
+        reader = null;
+    }
+
+    /**
+     * Returns base address of the column file, either of its cached copy or of its mapping.
+     *
+     * @param partitionIndex partition index
+     * @param i              index of the column in the page frame
+     * @param columnIndex    reader column index
+     * @param aux            true for the aux vector of var-size columns
+     * @param mem            column memory mapped by the table reader
+     * @return base address of the column file
+     */
+    long getPageAddress(int partitionIndex, int i, int columnIndex, boolean aux, MemoryR mem) {
+        if (this.partitionIndex != partitionIndex) {
+            addresses.setAll(addresses.size(), 0);
+            this.partitionIndex = partitionIndex;
+        }
+        final int slot = 2 * i + (aux ? 1 : 0);
+        long address = addresses.getQuick(slot);
+        if (address == 0) {
+            address = mem.getPageAddress(0);
+            final ColumnBufferCache.Entry entry = cache.acquire(reader, partitionIndex, columnIndex, aux, address, mem.size());
+            if (entry != null) {
+                leases.add(entry);
+                address = entry.getAddress();
+            }
+            addresses.setQuick(slot, address);
+        }
+        return address;
+    }
+
+    void of(TableReader reader, int columnCount) {
+        close();
+        this.reader = reader;
+        addresses.setAll(2 * columnCount, 0);
+    }
+
+    void toTop() {
+        partitionIndex = -1;
+    }
+}
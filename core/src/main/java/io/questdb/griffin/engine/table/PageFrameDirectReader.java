@@ -0,0 +1,193 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypeDriver;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.vm.NullMemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.*;
+
+/**
+ * Reads column files of cold partitions scanned by {@link FwdTableReaderPageFrameCursor} with direct I/O
+ * into aligned buffers, so that large historical scans leave OS page cache to real-time queries. Only
+ * the rows of each partition frame are read. Page frame consumers may access any frame until the owning
+ * cursor is reopened or closed, hence buffers are held until then and are reused when the cursor is
+ * rewound. Column files are read through their mappings when the partition is one of the most recent
+ * ones, the buffer limit is reached or the file can't be read with direct I/O.
+ */
+class PageFrameDirectReader implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(PageFrameDirectReader.class);
+    private final long bufferLimit;
+    // allocated address and size pairs
+    private final LongList buffers = new LongList();
+    private final FilesFacade ff;
+    // base address per column, data and aux vector, per partition frame;
+    // zero address means that the column file is read through its mapping
+    private final LongList frameAddresses = new LongList();
+    private final int recentPartitionCount;
+    private long bufferSize;
+    private int columnCount;
+    private int frameCount;
+    private int frameIndex = -1;
+    private TableReader reader;
+
+    PageFrameDirectReader(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.bufferLimit = configuration.getSqlDirectIoScanBufferLimit();
+        this.recentPartitionCount = configuration.getSqlDirectIoScanRecentPartitionCount();
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0, n = buffers.size(); i < n; i += 2) {
+            Unsafe.free(buffers.getQuick(i), buffers.getQuick(i + 1), MemoryTag.NATIVE_DIRECT_IO_SCAN);
+        }
+        buffers.clear();
+        frameAddresses.clear();
+        bufferSize = 0;
+        frameCount = 0;
+        frameIndex = -1;
+        reader = null;
+    }
+
+    /**
+     * Returns base address of the column file in the aligned buffer of the current partition frame.
+     *
+     * @param i   index of the column in the page frame
+     * @param aux true for the aux vector of var-size columns
+     * @return base address of the column file or 0 when the file is to be read through its mapping
+     */
+    long getPageAddress(int i, boolean aux) {
+        return frameAddresses.getQuick(2 * (frameIndex * columnCount + i) + (aux ? 1 : 0));
+    }
+
+    /**
+     * Moves to the next partition frame, reading its rows with direct I/O unless the frame
+     * has been read before the cursor was rewound.
+     */
+    void nextPartitionFrame(int partitionIndex, long rowLo, long rowHi, IntList columnIndexes, IntList columnSizeShifts) {
+        if (++frameIndex < frameCount) {
+            return;
+        }
+        final int offset = frameAddresses.size();
+        for (int i = 0; i < columnCount; i++) {
+            frameAddresses.add(0, 0);
+        }
+        frameCount++;
+
+        if (partitionIndex >= reader.getPartitionCount() - recentPartitionCount) {
+            return;
+        }
+
+        final int base = reader.getColumnBase(partitionIndex);
+        for (int i = 0; i < columnCount; i++) {
+            final int columnIndex = columnIndexes.getQuick(i);
+            if (reader.getColumn(TableReader.getPrimaryColumnIndex(base, columnIndex)) instanceof NullMemoryCMR) {
+                continue;
+            }
+            final long top = reader.getColumnTop(base, columnIndex);
+            final long lo = Math.max(rowLo - top, 0);
+            final long hi = rowHi - top;
+            if (hi <= 0) {
+                continue;
+            }
+
+            final int sh = columnSizeShifts.getQuick(i);
+            if (sh > -1) {
+                frameAddresses.setQuick(offset + 2 * i, read(partitionIndex, columnIndex, false, lo << sh, hi << sh));
+            } else {
+                final ColumnTypeDriver columnTypeDriver = ColumnType.getDriver(reader.getMetadata().getColumnType(columnIndex));
+                final long auxAddress = read(
+                        partitionIndex,
+                        columnIndex,
+                        true,
+                        columnTypeDriver.getAuxVectorOffset(lo),
+                        columnTypeDriver.getAuxVectorSize(hi)
+                );
+                if (auxAddress != 0) {
+                    frameAddresses.setQuick(offset + 2 * i + 1, auxAddress);
+                    final long dataHi = columnTypeDriver.getDataVectorSizeAt(auxAddress, hi - 1);
+                    if (dataHi > 0) {
+                        final long dataLo = columnTypeDriver.getDataVectorOffset(auxAddress, lo);
+                        frameAddresses.setQuick(offset + 2 * i, read(partitionIndex, columnIndex, false, dataLo, dataHi));
+                    }
+                }
+            }
+        }
+    }
+
+    void of(TableReader reader, int columnCount) {
+        close();
+        this.reader = reader;
+        this.columnCount = columnCount;
+    }
+
+    void toTop() {
+        frameIndex = -1;
+    }
+
+    private long read(int partitionIndex, int columnIndex, boolean aux, long lo, long hi) {
+        // direct I/O requires buffer address, file offset and length to be aligned
+        final long alignedLo = Files.floorPageSize(lo);
+        final long len = Files.ceilPageSize(hi) - alignedLo;
+        final long allocSize = len + Files.PAGE_SIZE;
+        if (bufferSize + allocSize > bufferLimit) {
+            return 0;
+        }
+
+        final long fd = reader.openColumnDirect(partitionIndex, columnIndex, aux);
+        if (fd == -1) {
+            LOG.debug().$("could not open column for direct I/O [table=").$(reader.getTableToken())
+                    .$(", column=").$(reader.getMetadata().getColumnName(columnIndex))
+                    .$(", errno=").$(ff.errno())
+                    .I$();
+            return 0;
+        }
+        try {
+            final long address = Unsafe.malloc(allocSize, MemoryTag.NATIVE_DIRECT_IO_SCAN);
+            final long alignedAddress = Files.ceilPageSize(address);
+            // the file may end before the aligned length, so short reads are fine as long as they cover the rows
+            if (ff.read(fd, alignedAddress, len, alignedLo) < hi - alignedLo) {
+                Unsafe.free(address, allocSize, MemoryTag.NATIVE_DIRECT_IO_SCAN);
+                LOG.debug().$("could not read column with direct I/O [table=").$(reader.getTableToken())
+                        .$(", column=").$(reader.getMetadata().getColumnName(columnIndex))
+                        .$(", errno=").$(ff.errno())
+                        .I$();
+                return 0;
+            }
+            buffers.add(address, allocSize);
+            bufferSize += allocSize;
+            // column file offsets are relative to the start of the file
+            return alignedAddress - alignedLo;
+        } finally {
+            ff.close(fd);
+        }
+    }
+}
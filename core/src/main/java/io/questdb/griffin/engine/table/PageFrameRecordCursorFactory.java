@@ -30,6 +30,7 @@ import io.questdb.cairo.sql.*;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Files;
 import io.questdb.std.IntList;
 import io.questdb.std.Misc;
 import io.questdb.std.str.CharSink;
@@ -164,10 +165,19 @@ public class PageFrameRecordCursorFactory extends AbstractPageFrameRecordCursorF
     protected void _close() {
         super._close();
         Misc.free(filter);
+        Misc.freeIfCloseable(rowCursorFactory);
         Misc.free(fwdPageFrameCursor);
         Misc.free(bwdPageFrameCursor);
     }
 
+    @Override
+    protected int getScanAdvice() {
+        if (!configuration.isColumnMmapScanAdviceEnabled()) {
+            return -1;
+        }
+        return rowCursorFactory.isUsingIndex() ? Files.POSIX_MADV_RANDOM : Files.POSIX_MADV_SEQUENTIAL;
+    }
+
     protected PageFrameCursor initBwdPageFrameCursor(
             PartitionFrameCursor partitionFrameCursor,
             SqlExecutionContext executionContext
@@ -178,7 +188,8 @@ public class PageFrameRecordCursorFactory extends AbstractPageFrameRecordCursorF
                     columnSizeShifts,
                     executionContext.getSharedWorkerCount(),
                     pageFrameMinRows,
-                    pageFrameMaxRows
+                    pageFrameMaxRows,
+                    executionContext.getCairoEngine().getColumnBufferCache()
             );
         }
         return bwdPageFrameCursor.of(partitionFrameCursor);
@@ -194,10 +205,13 @@ public class PageFrameRecordCursorFactory extends AbstractPageFrameRecordCursorF
                     columnSizeShifts,
                     executionContext.getSharedWorkerCount(),
                     pageFrameMinRows,
-                    pageFrameMaxRows
+                    pageFrameMaxRows,
+                    getScanAdvice(),
+                    executionContext.getCairoEngine().getColumnBufferCache(),
+                    configuration
             );
         }
-        return fwdPageFrameCursor.of(partitionFrameCursor);
+        return fwdPageFrameCursor.of(partitionFrameCursor, executionContext.getDirectIoScanThreshold());
     }
 
     @Override
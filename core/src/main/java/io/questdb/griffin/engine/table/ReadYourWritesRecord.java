@@ -0,0 +1,341 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.GeoHashes;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.sql.Record;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Long256;
+import io.questdb.std.Long256Impl;
+import io.questdb.std.Numbers;
+import io.questdb.std.str.CharSink;
+import io.questdb.std.str.Utf8Sequence;
+
+/**
+ * Record of a read-your-writes scan. Points either at a table row, in which case symbol
+ * columns are read as strings, or at a WAL row, in which case columns are re-mapped to the
+ * WAL segment layout and columns missing in the segment read as nulls.
+ */
+class ReadYourWritesRecord implements Record {
+    // original, i.e. not widened, column types
+    private final IntList columnTypes;
+    private Record baseRecord;
+    private boolean useBase = true;
+    private IntList walColumns;
+    private Record walRecord;
+
+    ReadYourWritesRecord(IntList columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    @Override
+    public BinarySequence getBin(int col) {
+        if (useBase) {
+            return baseRecord.getBin(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getBin(walCol) : null;
+    }
+
+    @Override
+    public long getBinLen(int col) {
+        if (useBase) {
+            return baseRecord.getBinLen(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getBinLen(walCol) : TableUtils.NULL_LEN;
+    }
+
+    @Override
+    public boolean getBool(int col) {
+        if (useBase) {
+            return baseRecord.getBool(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 && walRecord.getBool(walCol);
+    }
+
+    @Override
+    public byte getByte(int col) {
+        if (useBase) {
+            return baseRecord.getByte(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getByte(walCol) : 0;
+    }
+
+    @Override
+    public char getChar(int col) {
+        if (useBase) {
+            return baseRecord.getChar(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getChar(walCol) : 0;
+    }
+
+    @Override
+    public long getDate(int col) {
+        if (useBase) {
+            return baseRecord.getDate(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getLong(walCol) : Numbers.LONG_NULL;
+    }
+
+    @Override
+    public double getDouble(int col) {
+        if (useBase) {
+            return baseRecord.getDouble(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getDouble(walCol) : Double.NaN;
+    }
+
+    @Override
+    public float getFloat(int col) {
+        if (useBase) {
+            return baseRecord.getFloat(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getFloat(walCol) : Float.NaN;
+    }
+
+    @Override
+    public byte getGeoByte(int col) {
+        if (useBase) {
+            return baseRecord.getGeoByte(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getGeoByte(walCol) : GeoHashes.BYTE_NULL;
+    }
+
+    @Override
+    public int getGeoInt(int col) {
+        if (useBase) {
+            return baseRecord.getGeoInt(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getGeoInt(walCol) : GeoHashes.INT_NULL;
+    }
+
+    @Override
+    public long getGeoLong(int col) {
+        if (useBase) {
+            return baseRecord.getGeoLong(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getGeoLong(walCol) : GeoHashes.NULL;
+    }
+
+    @Override
+    public short getGeoShort(int col) {
+        if (useBase) {
+            return baseRecord.getGeoShort(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getGeoShort(walCol) : GeoHashes.SHORT_NULL;
+    }
+
+    @Override
+    public int getIPv4(int col) {
+        if (useBase) {
+            return baseRecord.getIPv4(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getIPv4(walCol) : Numbers.IPv4_NULL;
+    }
+
+    @Override
+    public int getInt(int col) {
+        if (useBase) {
+            return baseRecord.getInt(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getInt(walCol) : Numbers.INT_NULL;
+    }
+
+    @Override
+    public long getLong(int col) {
+        if (useBase) {
+            return baseRecord.getLong(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        if (walCol != -1) {
+            // designated timestamp is stored along with row index in WAL segments
+            return columnTypes.getQuick(col) == ColumnType.TIMESTAMP ? walRecord.getTimestamp(walCol) : walRecord.getLong(walCol);
+        }
+        return Numbers.LONG_NULL;
+    }
+
+    @Override
+    public long getLong128Hi(int col) {
+        if (useBase) {
+            return baseRecord.getLong128Hi(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getLong128Hi(walCol) : Numbers.LONG_NULL;
+    }
+
+    @Override
+    public long getLong128Lo(int col) {
+        if (useBase) {
+            return baseRecord.getLong128Lo(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getLong128Lo(walCol) : Numbers.LONG_NULL;
+    }
+
+    @Override
+    public void getLong256(int col, CharSink<?> sink) {
+        if (useBase) {
+            baseRecord.getLong256(col, sink);
+            return;
+        }
+        final int walCol = walColumns.getQuick(col);
+        if (walCol != -1) {
+            walRecord.getLong256(walCol, sink);
+        }
+    }
+
+    @Override
+    public Long256 getLong256A(int col) {
+        if (useBase) {
+            return baseRecord.getLong256A(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getLong256A(walCol) : Long256Impl.NULL_LONG256;
+    }
+
+    @Override
+    public Long256 getLong256B(int col) {
+        if (useBase) {
+            return baseRecord.getLong256B(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getLong256B(walCol) : Long256Impl.NULL_LONG256;
+    }
+
+    @Override
+    public short getShort(int col) {
+        if (useBase) {
+            return baseRecord.getShort(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getShort(walCol) : 0;
+    }
+
+    @Override
+    public CharSequence getStrA(int col) {
+        final boolean symbol = ColumnType.isSymbol(columnTypes.getQuick(col));
+        if (useBase) {
+            return symbol ? baseRecord.getSymA(col) : baseRecord.getStrA(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        if (walCol != -1) {
+            return symbol ? walRecord.getSymA(walCol) : walRecord.getStrA(walCol);
+        }
+        return null;
+    }
+
+    @Override
+    public CharSequence getStrB(int col) {
+        final boolean symbol = ColumnType.isSymbol(columnTypes.getQuick(col));
+        if (useBase) {
+            return symbol ? baseRecord.getSymB(col) : baseRecord.getStrB(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        if (walCol != -1) {
+            return symbol ? walRecord.getSymB(walCol) : walRecord.getStrB(walCol);
+        }
+        return null;
+    }
+
+    @Override
+    public int getStrLen(int col) {
+        if (ColumnType.isSymbol(columnTypes.getQuick(col))) {
+            return TableUtils.lengthOf(getStrA(col));
+        }
+        if (useBase) {
+            return baseRecord.getStrLen(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getStrLen(walCol) : TableUtils.NULL_LEN;
+    }
+
+    @Override
+    public long getTimestamp(int col) {
+        if (useBase) {
+            return baseRecord.getTimestamp(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getTimestamp(walCol) : Numbers.LONG_NULL;
+    }
+
+    @Override
+    public Utf8Sequence getVarcharA(int col) {
+        if (useBase) {
+            return baseRecord.getVarcharA(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getVarcharA(walCol) : null;
+    }
+
+    @Override
+    public Utf8Sequence getVarcharB(int col) {
+        if (useBase) {
+            return baseRecord.getVarcharB(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getVarcharB(walCol) : null;
+    }
+
+    @Override
+    public int getVarcharSize(int col) {
+        if (useBase) {
+            return baseRecord.getVarcharSize(col);
+        }
+        final int walCol = walColumns.getQuick(col);
+        return walCol != -1 ? walRecord.getVarcharSize(walCol) : TableUtils.NULL_LEN;
+    }
+
+    void ofBase(Record baseRecord) {
+        this.baseRecord = baseRecord;
+        this.useBase = true;
+    }
+
+    void ofWal(Record walRecord, IntList walColumns) {
+        this.walRecord = walRecord;
+        this.walColumns = walColumns;
+        this.useBase = false;
+    }
+
+    void useBase() {
+        this.useBase = true;
+    }
+}
@@ -0,0 +1,562 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.ArrayColumnTypes;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.RecordSinkFactory;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.map.Map;
+import io.questdb.cairo.map.MapFactory;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.wal.WalDataRecord;
+import io.questdb.cairo.wal.WalEventCursor;
+import io.questdb.cairo.wal.WalEventReader;
+import io.questdb.cairo.wal.WalReader;
+import io.questdb.cairo.wal.seq.TransactionLogCursor;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.BytecodeAssembler;
+import io.questdb.std.Chars;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.LongIntHashMap;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rows;
+import io.questdb.std.Transient;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.wal.WalTxnType.DATA;
+import static io.questdb.cairo.wal.WalTxnType.TRUNCATE;
+import static io.questdb.cairo.wal.WalUtils.WAL_FORMAT_VERSION;
+import static io.questdb.cairo.wal.WalUtils.WAL_NAME_BASE;
+
+/**
+ * Table scan that also returns rows of committed, but not yet applied, WAL transactions.
+ * <p>
+ * WAL transactions following the last applied sequencer transaction of the table are read
+ * up to the first structure change. Their rows are deduplicated on the table's dedup keys,
+ * replacing table rows with the same keys, filtered with the table query's filter and merged
+ * with table rows in the scan's timestamp order. Pending SQL transactions, e.g. UPDATEs, are
+ * not reflected until they are applied. Symbol columns are exposed as strings.
+ */
+public class ReadYourWritesRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final ReadYourWritesRecordCursor cursor;
+    private final Function filter;
+    private final TableToken tableToken;
+
+    public ReadYourWritesRecordCursorFactory(
+            CairoConfiguration configuration,
+            @Transient @NotNull BytecodeAssembler asm,
+            RecordMetadata metadata,
+            RecordCursorFactory base,
+            @Nullable Function filter,
+            TableToken tableToken,
+            @Transient IntList dedupKeyColumns
+    ) {
+        super(metadata);
+        this.base = base;
+        this.filter = filter;
+        this.tableToken = tableToken;
+        try {
+            final RecordMetadata baseMetadata = base.getMetadata();
+            final IntList columnTypes = new IntList(baseMetadata.getColumnCount());
+            for (int i = 0, n = baseMetadata.getColumnCount(); i < n; i++) {
+                columnTypes.add(baseMetadata.getColumnType(i));
+            }
+
+            Map keyMap = null;
+            RecordSink keySink = null;
+            if (dedupKeyColumns.size() > 0) {
+                final ListColumnFilter columnFilter = new ListColumnFilter(dedupKeyColumns.size());
+                final ArrayColumnTypes keyTypes = new ArrayColumnTypes();
+                for (int i = 0, n = dedupKeyColumns.size(); i < n; i++) {
+                    final int columnIndex = dedupKeyColumns.getQuick(i);
+                    columnFilter.add(columnIndex + 1);
+                    keyTypes.add(metadata.getColumnType(columnIndex));
+                }
+                keySink = RecordSinkFactory.getInstance(asm, metadata, columnFilter);
+                keyMap = MapFactory.createOrderedMap(configuration, keyTypes, new ArrayColumnTypes().add(ColumnType.LONG));
+            }
+            cursor = new ReadYourWritesRecordCursor(configuration, metadata, columnTypes, keyMap, keySink);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        try {
+            cursor.of(base, filter, tableToken, executionContext);
+            return cursor;
+        } catch (Throwable th) {
+            cursor.close();
+            throw th;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return false;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Read Your Writes");
+        if (filter != null) {
+            sink.attr("filter").val(filter);
+        }
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    public boolean usesIndex() {
+        return base.usesIndex();
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(base);
+        Misc.free(filter);
+        Misc.free(cursor);
+    }
+
+    private static class ReadYourWritesRecordCursor implements RecordCursor {
+        // WAL apply may keep moving the table forward while the cursor is being opened
+        private static final int MAX_SNAPSHOT_ATTEMPTS = 100;
+        private final IntList columnTypes;
+        private final CairoConfiguration configuration;
+        private final WalEventReader eventReader;
+        // null when the table has no dedup keys
+        private final Map keyMap;
+        private final RecordSink keySink;
+        private final RecordMetadata metadata;
+        private final ReadYourWritesRecord record;
+        private final LongIntHashMap segmentIndexes = new LongIntHashMap();
+        private final LongList segmentRowCounts = new LongList();
+        // encoded WAL id and segment id
+        private final LongList segments = new LongList();
+        private final int timestampIndex;
+        // segment index, lo and hi row triplets in commit order
+        private final LongList txnRows = new LongList();
+        private final ObjList<IntList> walColumns = new ObjList<>();
+        private final StringSink walNameSink = new StringSink();
+        private final ObjList<WalReader> walReaders = new ObjList<>();
+        private final ObjList<WalDataRecord> walRecords = new ObjList<>();
+        // row id and timestamp pairs sorted by timestamp
+        private final DirectLongList walRows;
+        private RecordCursor baseCursor;
+        private boolean baseDone;
+        private boolean baseReady;
+        private Record baseRecord;
+        private boolean baseTruncated;
+        private SqlExecutionCircuitBreaker circuitBreaker;
+        private boolean isOpen;
+        private int scanDirection;
+        private long walRowCount;
+        private long walRowIndex;
+
+        private ReadYourWritesRecordCursor(
+                CairoConfiguration configuration,
+                RecordMetadata metadata,
+                IntList columnTypes,
+                @Nullable Map keyMap,
+                @Nullable RecordSink keySink
+        ) {
+            this.configuration = configuration;
+            this.metadata = metadata;
+            this.columnTypes = columnTypes;
+            this.keyMap = keyMap;
+            this.keySink = keySink;
+            this.timestampIndex = metadata.getTimestampIndex();
+            this.record = new ReadYourWritesRecord(columnTypes);
+            this.eventReader = new WalEventReader(configuration.getFilesFacade());
+            this.walRows = new DirectLongList(16, MemoryTag.NATIVE_LONG_LIST);
+            this.isOpen = true;
+        }
+
+        @Override
+        public void close() {
+            if (isOpen) {
+                isOpen = false;
+                baseCursor = Misc.free(baseCursor);
+                clearWal();
+                Misc.free(eventReader);
+                Misc.free(keyMap);
+                Misc.free(walRows);
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return record;
+        }
+
+        @Override
+        public Record getRecordB() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!baseReady && !baseDone) {
+                nextBaseRow();
+            }
+            if (walRowIndex < walRowCount) {
+                final long index = scanDirection == SCAN_DIRECTION_BACKWARD ? walRowCount - walRowIndex - 1 : walRowIndex;
+                final long walTimestamp = walRows.get(2 * index + 1);
+                if (!baseReady || isWalRowFirst(walTimestamp, baseRecord.getTimestamp(timestampIndex))) {
+                    final long rowId = walRows.get(2 * index);
+                    jumpToWalRow(Rows.toPartitionIndex(rowId), Rows.toLocalRowID(rowId));
+                    walRowIndex++;
+                    return true;
+                }
+            }
+            if (baseReady) {
+                baseReady = false;
+                record.ofBase(baseRecord);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long size() {
+            return -1;
+        }
+
+        @Override
+        public void toTop() {
+            baseCursor.toTop();
+            baseReady = false;
+            baseDone = baseTruncated;
+            walRowIndex = 0;
+        }
+
+        private static int getWalColumnIndex(WalReader walReader, CharSequence columnName, int columnType) {
+            for (int i = 0, n = walReader.getColumnCount(); i < n; i++) {
+                // dropped columns have negative type
+                if (walReader.getColumnType(i) == columnType && Chars.equalsIgnoreCase(walReader.getColumnName(i), columnName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void clearWal() {
+            Misc.freeObjListAndClear(walReaders);
+            segmentIndexes.clear();
+            segments.clear();
+            segmentRowCounts.clear();
+            txnRows.clear();
+            walRows.clear();
+            if (keyMap != null) {
+                keyMap.clear();
+            }
+            walRowCount = 0;
+            walRowIndex = 0;
+            baseTruncated = false;
+        }
+
+        private void collectWalRows(@Nullable Function filter) {
+            if (keyMap != null) {
+                // the last row wins, same as dedup does on WAL apply
+                for (int i = 0, n = txnRows.size(); i < n; i += 3) {
+                    final int segmentIndex = (int) txnRows.getQuick(i);
+                    for (long row = txnRows.getQuick(i + 1), hi = txnRows.getQuick(i + 2); row < hi; row++) {
+                        circuitBreaker.statefulThrowExceptionIfTripped();
+                        final long rowId = jumpToWalRow(segmentIndex, row);
+                        final MapKey key = keyMap.withKey();
+                        key.put(record, keySink);
+                        key.createValue().putLong(0, rowId);
+                    }
+                }
+            }
+
+            for (int i = 0, n = txnRows.size(); i < n; i += 3) {
+                final int segmentIndex = (int) txnRows.getQuick(i);
+                for (long row = txnRows.getQuick(i + 1), hi = txnRows.getQuick(i + 2); row < hi; row++) {
+                    circuitBreaker.statefulThrowExceptionIfTripped();
+                    final long rowId = jumpToWalRow(segmentIndex, row);
+                    if (keyMap != null) {
+                        final MapKey key = keyMap.withKey();
+                        key.put(record, keySink);
+                        if (key.findValue().getLong(0) != rowId) {
+                            // replaced by a later row
+                            continue;
+                        }
+                    }
+                    if (filter == null || filter.getBool(record)) {
+                        walRows.add(rowId);
+                        walRows.add(record.getTimestamp(timestampIndex));
+                    }
+                }
+            }
+
+            // pairs are sorted as 128-bit values, i.e. by timestamp and then by row id
+            final long pairCount = walRows.size() / 2;
+            if (pairCount > 1) {
+                Vect.sort128BitAscInPlace(walRows.getAddress(), pairCount);
+            }
+        }
+
+        private int getSegmentIndex(int walId, int segmentId, long rowCount) {
+            final long segment = Numbers.encodeLowHighInts(segmentId, walId);
+            final int keyIndex = segmentIndexes.keyIndex(segment);
+            if (keyIndex > -1) {
+                final int segmentIndex = segments.size();
+                segmentIndexes.putAt(keyIndex, segment, segmentIndex);
+                segments.add(segment);
+                segmentRowCounts.add(rowCount);
+                return segmentIndex;
+            }
+            final int segmentIndex = segmentIndexes.valueAt(keyIndex);
+            segmentRowCounts.setQuick(segmentIndex, Math.max(rowCount, segmentRowCounts.getQuick(segmentIndex)));
+            return segmentIndex;
+        }
+
+        private boolean isReplaced() {
+            record.ofBase(baseRecord);
+            final MapKey key = keyMap.withKey();
+            key.put(record, keySink);
+            return key.findValue() != null;
+        }
+
+        private boolean isWalRowFirst(long walTimestamp, long baseTimestamp) {
+            switch (scanDirection) {
+                case SCAN_DIRECTION_FORWARD:
+                    return walTimestamp < baseTimestamp;
+                case SCAN_DIRECTION_BACKWARD:
+                    return walTimestamp > baseTimestamp;
+                default:
+                    // unordered scan, WAL rows follow table rows
+                    return false;
+            }
+        }
+
+        private long jumpToWalRow(int segmentIndex, long row) {
+            final WalDataRecord walRecord = walRecords.getQuick(segmentIndex);
+            walRecord.jumpTo(row);
+            record.ofWal(walRecord, walColumns.getQuick(segmentIndex));
+            return Rows.toRowID(segmentIndex, row);
+        }
+
+        private void nextBaseRow() {
+            while (baseCursor.hasNext()) {
+                if (keyMap == null || !isReplaced()) {
+                    baseReady = true;
+                    return;
+                }
+            }
+            baseDone = true;
+        }
+
+        private void openBase(RecordCursor baseCursor) {
+            this.baseCursor = baseCursor;
+            baseRecord = baseCursor.getRecord();
+            record.ofBase(baseRecord);
+            baseReady = false;
+            baseDone = baseTruncated;
+            walRowCount = walRows.size() / 2;
+            walRowIndex = 0;
+        }
+
+        private void openWalReaders(TableToken tableToken) {
+            for (int i = 0, n = segments.size(); i < n; i++) {
+                final long segment = segments.getQuick(i);
+                walNameSink.clear();
+                walNameSink.put(WAL_NAME_BASE).put(Numbers.decodeHighInt(segment));
+                final WalReader walReader = new WalReader(
+                        configuration,
+                        tableToken,
+                        walNameSink,
+                        Numbers.decodeLowInt(segment),
+                        segmentRowCounts.getQuick(i)
+                );
+                walReaders.add(walReader);
+                walReader.openSegment();
+
+                WalDataRecord walRecord = walRecords.getQuiet(i);
+                if (walRecord == null) {
+                    walRecord = new WalDataRecord();
+                    walRecords.extendAndSet(i, walRecord);
+                }
+                walRecord.of(walReader);
+
+                IntList columns = walColumns.getQuiet(i);
+                if (columns == null) {
+                    columns = new IntList();
+                    walColumns.extendAndSet(i, columns);
+                }
+                columns.clear();
+                for (int c = 0, m = metadata.getColumnCount(); c < m; c++) {
+                    columns.add(getWalColumnIndex(walReader, metadata.getColumnName(c), columnTypes.getQuick(c)));
+                }
+            }
+        }
+
+        private void readWalTransactions(CairoEngine engine, TableToken tableToken, long seqTxn) {
+            final Path path = Path.PATH.get();
+            try (TransactionLogCursor txnCursor = engine.getTableSequencerAPI().getCursor(tableToken, seqTxn)) {
+                while (txnCursor.hasNext()) {
+                    final int walId = txnCursor.getWalId();
+                    if (walId < 1) {
+                        // structure change or table drop, the following rows are visible once applied
+                        break;
+                    }
+                    final int segmentId = txnCursor.getSegmentId();
+                    path.of(configuration.getRoot()).concat(tableToken).slash().putAscii(WAL_NAME_BASE).put(walId).slash().put(segmentId);
+                    final WalEventCursor eventCursor = eventReader.of(path, WAL_FORMAT_VERSION, txnCursor.getSegmentTxn());
+                    switch (eventCursor.getType()) {
+                        case DATA:
+                            final WalEventCursor.DataInfo dataInfo = eventCursor.getDataInfo();
+                            txnRows.add(getSegmentIndex(walId, segmentId, dataInfo.getEndRowID()));
+                            txnRows.add(dataInfo.getStartRowID());
+                            txnRows.add(dataInfo.getEndRowID());
+                            break;
+                        case TRUNCATE:
+                            baseTruncated = true;
+                            txnRows.clear();
+                            break;
+                        default:
+                            // SQL transactions are not reflected until applied
+                            break;
+                    }
+                }
+            } finally {
+                Misc.free(eventReader);
+            }
+        }
+
+        void of(
+                RecordCursorFactory base,
+                @Nullable Function filter,
+                TableToken tableToken,
+                SqlExecutionContext executionContext
+        ) throws SqlException {
+            if (!isOpen) {
+                isOpen = true;
+                walRows.reopen();
+                if (keyMap != null) {
+                    keyMap.reopen();
+                }
+            }
+            clearWal();
+            circuitBreaker = executionContext.getCircuitBreaker();
+            scanDirection = base.getScanDirection();
+
+            if (!executionContext.isReadYourWritesEnabled()) {
+                // the mode was switched off after the query had been compiled
+                openBase(base.getCursor(executionContext));
+                return;
+            }
+
+            if (filter != null) {
+                filter.init(this, executionContext);
+            }
+            final CairoEngine engine = executionContext.getCairoEngine();
+            for (int attempt = 0; attempt < MAX_SNAPSHOT_ATTEMPTS; attempt++) {
+                try (TableReader reader = engine.getReader(tableToken)) {
+                    final long seqTxn = reader.getTxFile().getSeqTxn();
+                    final RecordCursor baseCursor = base.getCursor(executionContext);
+                    try {
+                        // the base cursor is at seqTxn only when WAL apply
+                        // did not move the table while the cursor was opened
+                        reader.reload();
+                        if (reader.getTxFile().getSeqTxn() == seqTxn) {
+                            try {
+                                readWalTransactions(engine, tableToken, seqTxn);
+                                openWalReaders(tableToken);
+                                collectWalRows(filter);
+                                openBase(baseCursor);
+                                return;
+                            } catch (CairoException e) {
+                                // segment files may be purged once the transactions are applied
+                                reader.reload();
+                                if (reader.getTxFile().getSeqTxn() == seqTxn) {
+                                    throw e;
+                                }
+                            }
+                        }
+                    } catch (Throwable th) {
+                        Misc.free(baseCursor);
+                        throw th;
+                    }
+                    Misc.free(baseCursor);
+                    clearWal();
+                }
+            }
+            throw CairoException.nonCritical()
+                    .put("could not read consistent snapshot of table and WAL transactions [table=")
+                    .put(tableToken.getTableName())
+                    .put(']');
+        }
+    }
+}
@@ -53,6 +53,7 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
     private CairoConfiguration cairoConfig;
     private SqlExecutionContext executionContext;
     private FilesFacade ff;
+    private TablePartitionSnapshot partitionSnapshot;
 
     public ShowPartitionsRecordCursorFactory(TableToken tableToken) {
         super(METADATA);
@@ -81,6 +82,7 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
     protected void _close() {
         Misc.free(path);
         Misc.free(cursor);
+        partitionSnapshot = Misc.free(partitionSnapshot);
         executionContext = null;
         cairoConfig = null;
         ff = null;
@@ -143,7 +145,6 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
         private int partitionIndex = -1;
         private long partitionSize = -1L;
         private int rootLen;
-        private TableReader tableReader;
         private CharSequence tsColName;
 
         @Override
@@ -154,7 +155,9 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
             detachedPartitions.clear();
             partitionName.clear();
             partitionRecord.close();
-            tableReader = Misc.free(tableReader);
+            if (partitionSnapshot != null) {
+                partitionSnapshot.clear();
+            }
             partitionSizeSink.clear();
         }
 
@@ -184,21 +187,23 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
         }
 
         private ShowPartitionsRecordCursor initialize() {
-            if (tableReader != null) {//
+            if (partitionSnapshot == null) {
+                partitionSnapshot = new TablePartitionSnapshot(cairoConfig);
+            } else if (partitionSnapshot.getTableToken() != null) {
                 // this call is idempotent
                 return this;
             }
             tsColName = null;
-            tableReader = executionContext.getReader(tableToken);
-            partitionBy = tableReader.getPartitionedBy();
+            // partition list and row counts come from _txn, there is no need to open column files
+            executionContext.getCairoEngine().getTablePartitionSnapshot(tableToken, partitionSnapshot);
+            partitionBy = partitionSnapshot.getPartitionBy();
             if (PartitionBy.isPartitioned(partitionBy)) {
-                TableReaderMetadata meta = tableReader.getMetadata();
-                tsColName = meta.getColumnName(meta.getTimestampIndex());
+                tsColName = partitionSnapshot.getTimestampColumnName();
             }
             path.of(cairoConfig.getRoot()).concat(tableToken).$();
             rootLen = path.size();
             scanDetachedAndAttachablePartitions();
-            limit = tableReader.getTxFile().getPartitionCount() +
+            limit = partitionSnapshot.getPartitionCount() +
                     attachablePartitions.size() +
                     detachedPartitions.size();
             toTop();
@@ -221,20 +226,19 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
             CharSequence dynamicTsColName = tsColName;
             path.trimTo(rootLen).$();
 
-            TxReader tableTxReader = tableReader.getTxFile();
-            int partitionCount = tableTxReader.getPartitionCount();
+            int partitionCount = partitionSnapshot.getPartitionCount();
             if (partitionIndex < partitionCount) {
                 // we are within the partition table
-                isReadOnly = tableTxReader.isPartitionReadOnly(partitionIndex);
-                isParquet = tableTxReader.isPartitionParquet(partitionIndex);
+                isReadOnly = partitionSnapshot.isPartitionReadOnly(partitionIndex);
+                isParquet = partitionSnapshot.isPartitionParquet(partitionIndex);
                 if (isParquet) {
-                    parquetFileSize = tableTxReader.getPartitionParquetFileSize(partitionIndex);
+                    parquetFileSize = partitionSnapshot.getPartitionParquetFileSize(partitionIndex);
                 }
-                long timestamp = tableTxReader.getPartitionTimestampByIndex(partitionIndex);
-                isActive = timestamp == tableTxReader.getLastPartitionTimestamp();
+                long timestamp = partitionSnapshot.getPartitionTimestamp(partitionIndex);
+                isActive = timestamp == partitionSnapshot.getLastPartitionTimestamp();
                 PartitionBy.setSinkForPartition(partitionName, partitionBy, timestamp);
-                TableUtils.setPathForPartition(path, partitionBy, timestamp, tableTxReader.getPartitionNameTxn(partitionIndex));
-                numRows = tableTxReader.getPartitionSize(partitionIndex);
+                TableUtils.setPathForPartition(path, partitionBy, timestamp, partitionSnapshot.getPartitionNameTxn(partitionIndex));
+                numRows = partitionSnapshot.getPartitionRowCount(partitionIndex);
             } else {
                 // partition table is over, we will iterate over detached and attachable partitions
                 isDetached = true;
@@ -307,7 +311,7 @@ public class ShowPartitionsRecordCursorFactory extends AbstractRecordCursorFacto
             partitionSizeSink.clear();
             SizePrettyFunctionFactory.toSizePretty(partitionSizeSink, partitionSize);
             if (PartitionBy.isPartitioned(partitionBy) && numRows > 0L) {
-                if (partitionIndex >= partitionCount || !tableTxReader.isPartitionParquet(partitionIndex)) {
+                if (partitionIndex >= partitionCount || !partitionSnapshot.isPartitionParquet(partitionIndex)) {
                     TableUtils.dFile(path.slash(), dynamicTsColName, TableUtils.COLUMN_NAME_TXN_NONE);
                     long fd = -1;
                     try {
@@ -31,6 +31,7 @@ import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.std.Files;
+import io.questdb.std.Misc;
 import io.questdb.std.ObjHashSet;
 import io.questdb.std.str.Path;
 import org.jetbrains.annotations.NotNull;
@@ -50,7 +51,7 @@ public class TableStorageRecordCursorFactory extends AbstractRecordCursorFactory
     private final Path path = new Path();
     private CairoConfiguration configuration;
     private SqlExecutionContext executionContext;
-    private TxReader reader;
+    private TablePartitionSnapshot partitionSnapshot;
 
 
     public TableStorageRecordCursorFactory() {
@@ -63,14 +64,16 @@ public class TableStorageRecordCursorFactory extends AbstractRecordCursorFactory
         executionContext = null;
         configuration = null;
         path.close();
-        reader.close();
+        partitionSnapshot = Misc.free(partitionSnapshot);
     }
 
     @Override
     public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
         this.executionContext = executionContext;
         this.configuration = executionContext.getCairoEngine().getConfiguration();
-        reader = new TxReader(configuration.getFilesFacade());
+        if (partitionSnapshot == null) {
+            partitionSnapshot = new TablePartitionSnapshot(configuration);
+        }
         return cursor.initialize();
     }
 
@@ -202,20 +205,16 @@ public class TableStorageRecordCursorFactory extends AbstractRecordCursorFactory
                 walEnabled = token.isWal();
                 tableName = token.getTableName();
 
-                // Metadata
-                TableMetadata tm = executionContext.getMetadataForRead(token);
-                partitionBy = tm.getPartitionBy();
-                tm.close();
+                // Metadata cache and _txn
+                executionContext.getCairoEngine().getTablePartitionSnapshot(token, partitionSnapshot);
+                partitionBy = partitionSnapshot.getPartitionBy();
+                rowCount = partitionSnapshot.getRowCount();
+                partitionCount = partitionSnapshot.getPartitionCount();
+                partitionSnapshot.clear();
 
                 // Path
                 TableUtils.setPathTable(path, configuration, token);
                 diskSize = Files.getDirSize(path);
-
-                // TxReader
-                TableUtils.setTxReaderPath(reader, path, partitionBy); // modifies path
-                rowCount = reader.unsafeLoadRowCount();
-                partitionCount = reader.getPartitionCount();
-                reader.close();
             }
 
             private void reset() {
@@ -223,7 +222,9 @@ public class TableStorageRecordCursorFactory extends AbstractRecordCursorFactory
                 partitionCount = -1;
                 diskSize = -1;
                 path.close();
-                reader.close();
+                if (partitionSnapshot != null) {
+                    partitionSnapshot.clear();
+                }
             }
         }
     }
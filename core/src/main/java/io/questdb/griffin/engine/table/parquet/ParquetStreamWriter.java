@@ -0,0 +1,404 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.StringTypeDriver;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.VarcharTypeDriver;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordBatchEncoder;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Interval;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Os;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes records as a Parquet file, one row group per flushed batch.
+ * <p>
+ * Row groups are encoded natively into a temporary file under the SQL copy work root. The file
+ * is only ever appended to: the first batch creates it, subsequent batches are appended as new row groups,
+ * and each append writes out an updated footer. This makes bytes below the current file length immutable,
+ * so they are exposed as pending bytes as soon as a batch is flushed, while the memory footprint stays
+ * bounded by the batch size.
+ * <p>
+ * SYMBOL columns are written as STRING, since the export does not carry symbol tables.
+ */
+public class ParquetStreamWriter implements RecordBatchEncoder {
+    private static final AtomicLong FILE_ID = new AtomicLong();
+    private static final Log LOG = LogFactory.getLog(ParquetStreamWriter.class);
+    private static final long READ_BUFFER_SIZE = 64 * 1024;
+    private final int batchRowCount;
+    private final ObjList<ParquetColumn> columns = new ObjList<>();
+    private final CairoConfiguration configuration;
+    private final PartitionDescriptor descriptor = new PartitionDescriptor();
+    private final FilesFacade ff;
+    private final int memoryTag;
+    private final Path path = new Path();
+    private final PartitionUpdater updater;
+    private long fd = -1;
+    private long fileOffset;
+    private long readBuf;
+    private long readHi;
+    private long readLo;
+    private RecordMetadata metadata;
+    private int rowCount;
+    private int rowGroupCount;
+
+    public ParquetStreamWriter(CairoConfiguration configuration, int batchRowCount, int memoryTag) {
+        assert batchRowCount > 0;
+        this.configuration = configuration;
+        this.batchRowCount = batchRowCount;
+        this.memoryTag = memoryTag;
+        this.ff = configuration.getFilesFacade();
+        this.updater = new PartitionUpdater(ff);
+    }
+
+    @Override
+    public void appendRecord(Record record) {
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            columns.getQuick(i).append(record, i);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public void clear() {
+        Misc.freeObjListAndClear(columns);
+        descriptor.clear();
+        if (fd != -1) {
+            ff.close(fd);
+            fd = -1;
+        }
+        if (path.size() > 0) {
+            ff.removeQuiet(path.$());
+            path.trimTo(0);
+        }
+        readBuf = Unsafe.free(readBuf, READ_BUFFER_SIZE, memoryTag);
+        readLo = readHi = 0;
+        fileOffset = 0;
+        metadata = null;
+        rowCount = 0;
+        rowGroupCount = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+        Misc.free(updater);
+        Misc.free(descriptor);
+        Misc.free(path);
+    }
+
+    @Override
+    public void finish() {
+        if (rowGroupCount == 0) {
+            // empty result set still has to produce a valid file
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public void flushBatch() {
+        if (rowCount > 0) {
+            writeRowGroup();
+        }
+    }
+
+    @Override
+    public int getBatchRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public long getPendingHi() {
+        return readHi;
+    }
+
+    @Override
+    public long getPendingLo() {
+        return readLo;
+    }
+
+    @Override
+    public boolean hasPendingBytes() {
+        if (readLo < readHi) {
+            return true;
+        }
+        if (fd == -1) {
+            return false;
+        }
+        final long fileSize = ff.length(fd);
+        if (fileOffset < fileSize) {
+            final long len = Math.min(READ_BUFFER_SIZE, fileSize - fileOffset);
+            if (ff.read(fd, readBuf, len, fileOffset) != len) {
+                throw CairoException.critical(ff.errno()).put("could not read parquet export file [path=").put(path).put(']');
+            }
+            fileOffset += len;
+            readLo = readBuf;
+            readHi = readBuf + len;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isBatchFull() {
+        return rowCount >= batchRowCount;
+    }
+
+    @Override
+    public void of(RecordMetadata metadata) {
+        clear();
+        final CharSequence workRoot = configuration.getSqlCopyInputWorkRoot();
+        if (workRoot == null) {
+            throw CairoException.nonCritical().put("parquet export requires SQL copy work root to be configured [property=cairo.sql.copy.work.root]");
+        }
+        final int columnCount = metadata.getColumnCount();
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(new ParquetColumn(metadata.getColumnType(i), memoryTag));
+        }
+        this.metadata = metadata;
+        path.of(workRoot).slash();
+        if (ff.mkdirs(path, configuration.getMkDirMode()) != 0) {
+            throw CairoException.critical(ff.errno()).put("could not create parquet export work dir [path=").put(path).put(']');
+        }
+        path.concat("export_").put(Os.getPid()).put('_').put(FILE_ID.incrementAndGet()).put(".parquet");
+        readBuf = Unsafe.malloc(READ_BUFFER_SIZE, memoryTag);
+    }
+
+    @Override
+    public void skipPendingBytes(long len) {
+        readLo += len;
+        assert readLo <= readHi;
+    }
+
+    private void writeRowGroup() {
+        descriptor.of("export", rowCount, -1);
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final ParquetColumn column = columns.getQuick(i);
+            descriptor.addColumn(
+                    metadata.getColumnName(i),
+                    column.columnType,
+                    i,
+                    0,
+                    column.primary.addressOf(0),
+                    column.primary.getAppendOffset(),
+                    column.secondary != null ? column.secondary.addressOf(0) : 0,
+                    column.secondary != null ? column.secondary.getAppendOffset() : 0,
+                    0,
+                    0
+            );
+        }
+
+        final long compressionCodec = ParquetCompression.packCompressionCodecLevel(
+                configuration.getPartitionEncoderParquetCompressionCodec(),
+                configuration.getPartitionEncoderParquetCompressionLevel()
+        );
+        if (rowGroupCount == 0) {
+            PartitionEncoder.encodeWithOptions(
+                    descriptor,
+                    path,
+                    compressionCodec,
+                    configuration.isPartitionEncoderParquetStatisticsEnabled(),
+                    // each batch is a row group on its own
+                    batchRowCount,
+                    configuration.getPartitionEncoderParquetDataPageSize(),
+                    configuration.getPartitionEncoderParquetVersion()
+            );
+            fd = TableUtils.openRO(ff, path.$(), LOG);
+        } else {
+            // updater writes out the footer when closed, so the file is valid after every row group
+            try {
+                updater.of(
+                        path.$(),
+                        configuration.getWriterFileOpenOpts(),
+                        ff.length(fd),
+                        -1,
+                        compressionCodec,
+                        configuration.isPartitionEncoderParquetStatisticsEnabled(),
+                        batchRowCount,
+                        configuration.getPartitionEncoderParquetDataPageSize()
+                );
+                updater.appendRowGroup(descriptor);
+            } finally {
+                updater.close();
+            }
+        }
+        rowGroupCount++;
+
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            columns.getQuick(i).clear();
+        }
+        rowCount = 0;
+    }
+
+    private static class ParquetColumn implements QuietCloseable {
+        private final int columnType;
+        private final MemoryCARW primary;
+        private final int sourceType;
+        private MemoryCARW secondary;
+        private StringSink sink;
+
+        private ParquetColumn(int sourceType, int memoryTag) {
+            this.sourceType = sourceType;
+            switch (ColumnType.tagOf(sourceType)) {
+                case ColumnType.SYMBOL:
+                case ColumnType.INTERVAL:
+                case ColumnType.NULL:
+                    columnType = ColumnType.STRING;
+                    sink = new StringSink();
+                    break;
+                case ColumnType.RECORD:
+                    throw CairoException.nonCritical().put("unsupported column type for parquet export [type=")
+                            .put(ColumnType.nameOf(sourceType)).put(']');
+                default:
+                    columnType = sourceType;
+                    break;
+            }
+            primary = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, memoryTag);
+            if (ColumnType.isVarSize(columnType)) {
+                secondary = Vm.getCARWInstance(64 * 1024, Integer.MAX_VALUE, memoryTag);
+            }
+            clear();
+        }
+
+        @Override
+        public void close() {
+            Misc.free(primary);
+            secondary = Misc.free(secondary);
+        }
+
+        private void append(Record record, int col) {
+            switch (ColumnType.tagOf(sourceType)) {
+                case ColumnType.BOOLEAN:
+                    primary.putBool(record.getBool(col));
+                    break;
+                case ColumnType.BYTE:
+                    primary.putByte(record.getByte(col));
+                    break;
+                case ColumnType.SHORT:
+                    primary.putShort(record.getShort(col));
+                    break;
+                case ColumnType.CHAR:
+                    primary.putChar(record.getChar(col));
+                    break;
+                case ColumnType.INT:
+                    primary.putInt(record.getInt(col));
+                    break;
+                case ColumnType.IPv4:
+                    primary.putInt(record.getIPv4(col));
+                    break;
+                case ColumnType.LONG:
+                    primary.putLong(record.getLong(col));
+                    break;
+                case ColumnType.DATE:
+                    primary.putLong(record.getDate(col));
+                    break;
+                case ColumnType.TIMESTAMP:
+                    primary.putLong(record.getTimestamp(col));
+                    break;
+                case ColumnType.FLOAT:
+                    primary.putFloat(record.getFloat(col));
+                    break;
+                case ColumnType.DOUBLE:
+                    primary.putDouble(record.getDouble(col));
+                    break;
+                case ColumnType.GEOBYTE:
+                    primary.putByte(record.getGeoByte(col));
+                    break;
+                case ColumnType.GEOSHORT:
+                    primary.putShort(record.getGeoShort(col));
+                    break;
+                case ColumnType.GEOINT:
+                    primary.putInt(record.getGeoInt(col));
+                    break;
+                case ColumnType.GEOLONG:
+                    primary.putLong(record.getGeoLong(col));
+                    break;
+                case ColumnType.UUID:
+                case ColumnType.LONG128:
+                    primary.putLong128(record.getLong128Lo(col), record.getLong128Hi(col));
+                    break;
+                case ColumnType.LONG256:
+                    primary.putLong256(record.getLong256A(col));
+                    break;
+                case ColumnType.STRING:
+                    StringTypeDriver.appendValue(secondary, primary, record.getStrA(col));
+                    break;
+                case ColumnType.SYMBOL:
+                    StringTypeDriver.appendValue(secondary, primary, record.getSymA(col));
+                    break;
+                case ColumnType.VARCHAR:
+                    VarcharTypeDriver.appendValue(secondary, primary, record.getVarcharA(col));
+                    break;
+                case ColumnType.BINARY:
+                    secondary.putLong(primary.putBin(record.getBin(col)));
+                    break;
+                case ColumnType.INTERVAL: {
+                    final Interval interval = record.getInterval(col);
+                    if (Interval.NULL.equals(interval)) {
+                        StringTypeDriver.INSTANCE.appendNull(secondary, primary);
+                    } else {
+                        sink.clear();
+                        sink.put(interval);
+                        StringTypeDriver.appendValue(secondary, primary, sink);
+                    }
+                    break;
+                }
+                default:
+                    // NULL
+                    StringTypeDriver.INSTANCE.appendNull(secondary, primary);
+                    break;
+            }
+        }
+
+        private void clear() {
+            primary.jumpTo(0);
+            if (secondary != null) {
+                secondary.jumpTo(0);
+                if (ColumnType.isString(columnType) || ColumnType.isBinary(columnType)) {
+                    // string and binary aux vectors have N+1 entries
+                    secondary.putLong(0);
+                }
+            }
+        }
+    }
+}
@@ -40,6 +40,30 @@ public class PartitionUpdater implements QuietCloseable {
         this.ff = ff;
     }
 
+    public void appendRowGroup(PartitionDescriptor descriptor) {
+        final int columnCount = descriptor.getColumnCount();
+        final long rowCount = descriptor.getPartitionRowCount();
+        try {
+            assert ptr != 0;
+            appendRowGroup(
+                    ptr,
+                    columnCount,
+                    descriptor.getColumnNamesPtr(),
+                    descriptor.getColumnNamesLen(),
+                    descriptor.getColumnDataPtr(),
+                    descriptor.getColumnDataLen(),
+                    rowCount
+            );
+        } catch (Throwable th) {
+            throw CairoException.critical(0).put("Could not append rowGroup: [table=").put(descriptor.getTableName())
+                    .put(", exception=").put(th.getClass().getSimpleName())
+                    .put(", msg=").put(th.getMessage())
+                    .put(']');
+        } finally {
+            descriptor.clear();
+        }
+    }
+
     @Override
     public void close() {
         destroy();
@@ -99,6 +123,16 @@ public class PartitionUpdater implements QuietCloseable {
         }
     }
 
+    private static native void appendRowGroup(
+            long impl,
+            int columnCount,
+            long columnNamesPtr,
+            int columnNamesSize,
+            long columnDataPtr,
+            long columnDataSize,
+            long rowCount
+    );
+
     private static native long create(
             int fd,
             long fileSize,
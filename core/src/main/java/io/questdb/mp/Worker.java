@@ -33,12 +33,14 @@ import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class Worker extends Thread {
     public static final MicrosecondClock CLOCK_MICROS = MicrosecondClockImpl.INSTANCE;
     public static final int NO_THREAD_AFFINITY = -1;
+    private static final long NAP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
     private final int affinity;
     private final String criticalErrorLine;
     private final SOCountDownLatch haltLatch;
@@ -50,9 +52,11 @@ public class Worker extends Thread {
     private final Metrics metrics;
     private final long napThreshold;
     private final OnHaltAction onHaltAction;
+    private final WorkerParkingLot parkingLot;
     private final String poolName;
     private final Job.RunStatus runStatus = () -> lifecycle.get() == Lifecycle.HALTED;
     private final long sleepMs;
+    private final long sleepNanos;
     private final long sleepThreshold;
     private final int workerId;
     private final long yieldThreshold;
@@ -69,6 +73,7 @@ public class Worker extends Thread {
             long napThreshold,
             long sleepThreshold,
             long sleepMs,
+            @Nullable WorkerParkingLot parkingLot,
             Metrics metrics,
             @Nullable Log log
     ) {
@@ -86,6 +91,8 @@ public class Worker extends Thread {
         this.napThreshold = napThreshold;
         this.sleepThreshold = sleepThreshold;
         this.sleepMs = sleepMs;
+        this.sleepNanos = TimeUnit.MILLISECONDS.toNanos(sleepMs);
+        this.parkingLot = parkingLot;
         this.metrics = metrics;
         this.log = log;
     }
@@ -144,6 +151,8 @@ public class Worker extends Thread {
                 long ticker = 0L;
                 while (lifecycle.get() == Lifecycle.RUNNING) {
                     boolean runAsap = false;
+                    // read before polling the jobs, so that tasks published while jobs run do not get missed
+                    final long parkingEpoch = parkingLot != null ? parkingLot.getEpoch() : 0L;
                     for (int i = 0, n = jobs.size(); i < n; i++) {
                         jobStartMicros.set(CLOCK_MICROS.getTicks());
                         Unsafe.getUnsafe().loadFence();
@@ -176,9 +185,17 @@ public class Worker extends Thread {
                         ticker = sleepThreshold + 1L; // overflow
                     }
                     if (ticker > sleepThreshold) {
-                        Os.sleep(sleepMs);
+                        if (parkingLot != null) {
+                            parkingLot.park(workerId, parkingEpoch, sleepNanos);
+                        } else {
+                            Os.sleep(sleepMs);
+                        }
                     } else if (ticker > napThreshold) {
-                        Os.sleep(1);
+                        if (parkingLot != null) {
+                            parkingLot.park(workerId, parkingEpoch, NAP_NANOS);
+                        } else {
+                            Os.sleep(1);
+                        }
                     } else if (ticker > yieldThreshold) {
                         Os.pause();
                     }
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.mp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Place where idle workers of a single pool park instead of sleeping. Parked workers
+ * are woken up by {@link WorkerWakeup} as soon as a task is published to one of the
+ * queues the pool consumes, or when park timeout elapses, whichever comes first.
+ * <p>
+ * Wake-ups are not lost: worker reads the epoch before it polls its jobs and parks
+ * only when no signal arrived since then.
+ */
+public final class WorkerParkingLot {
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicInteger parkedCount = new AtomicInteger();
+    private final AtomicReferenceArray<Thread> parkedWorkers;
+    private final AtomicLong wakeupCount = new AtomicLong();
+
+    public WorkerParkingLot(int workerCount) {
+        this.parkedWorkers = new AtomicReferenceArray<>(workerCount);
+    }
+
+    public long getEpoch() {
+        return epoch.get();
+    }
+
+    public int getParkedCount() {
+        return parkedCount.get();
+    }
+
+    public long getWakeupCount() {
+        return wakeupCount.get();
+    }
+
+    /**
+     * Parks calling worker unless there was a signal since the epoch was read.
+     *
+     * @param workerId     id of the calling worker
+     * @param epoch        value of {@link #getEpoch()} read before the worker polled its jobs
+     * @param timeoutNanos max time to park for
+     */
+    public void park(int workerId, long epoch, long timeoutNanos) {
+        parkedWorkers.set(workerId, Thread.currentThread());
+        parkedCount.incrementAndGet();
+        try {
+            if (this.epoch.get() == epoch) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            parkedWorkers.set(workerId, null);
+            parkedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wakes up at most one parked worker. The call is cheap when no workers are parked.
+     */
+    public void wakeOne() {
+        epoch.incrementAndGet();
+        if (parkedCount.get() > 0) {
+            for (int i = 0, n = parkedWorkers.length(); i < n; i++) {
+                final Thread thread = parkedWorkers.get(i);
+                if (thread != null && parkedWorkers.compareAndSet(i, thread, null)) {
+                    LockSupport.unpark(thread);
+                    wakeupCount.incrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.questdb.Metrics;
 import io.questdb.log.Log;
 import io.questdb.metrics.WorkerMetrics;
 import io.questdb.std.Misc;
+import io.questdb.std.NumaTopology;
 import io.questdb.std.ObjHashSet;
 import io.questdb.std.ObjList;
 import io.questdb.std.str.Path;
@@ -46,6 +47,7 @@ public class WorkerPool implements Closeable {
     private final SOCountDownLatch halted;
     private final Metrics metrics;
     private final long napThreshold;
+    private final WorkerParkingLot parkingLot;
     private final String poolName;
     private final AtomicBoolean running = new AtomicBoolean();
     private final long sleepMs;
@@ -57,6 +59,7 @@ public class WorkerPool implements Closeable {
     private final ObjList<ObjHashSet<Job>> workerJobs;
     private final ObjList<Worker> workers = new ObjList<>();
     private final long yieldThreshold;
+    private WorkerWakeup wakeup;
 
     public WorkerPool(WorkerPoolConfiguration configuration) {
         this(configuration, DISABLED);
@@ -79,6 +82,7 @@ public class WorkerPool implements Closeable {
         this.sleepThreshold = configuration.getSleepThreshold();
         this.sleepMs = configuration.getSleepTimeout();
         this.metrics = metrics;
+        this.parkingLot = configuration.isWakeupEnabled() ? new WorkerParkingLot(workerCount) : null;
 
         assert this.workerAffinity.length == workerCount;
 
@@ -126,6 +130,11 @@ public class WorkerPool implements Closeable {
         freeOnExit.add(closeable);
     }
 
+    @Nullable
+    public WorkerParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
     public String getPoolName() {
         return poolName;
     }
@@ -134,6 +143,13 @@ public class WorkerPool implements Closeable {
         return workerCount;
     }
 
+    /**
+     * @return NUMA node of the CPU the worker is pinned to or -1 when the worker has no affinity
+     */
+    public int getWorkerNode(int workerId, NumaTopology topology) {
+        return topology.getNode(workerAffinity[workerId]);
+    }
+
     public void halt() {
         if (closed.compareAndSet(false, true)) {
             if (running.compareAndSet(true, false)) {
@@ -143,6 +159,7 @@ public class WorkerPool implements Closeable {
                 }
                 halted.await();
             }
+            unsubscribeWakeup();
             workers.clear(); // Worker is not closable
             Misc.freeObjListAndClear(freeOnExit);
         }
@@ -157,6 +174,7 @@ public class WorkerPool implements Closeable {
             }
             halted.await();
         }
+        unsubscribeWakeup();
         workers.clear();
     }
 
@@ -172,6 +190,10 @@ public class WorkerPool implements Closeable {
             // some other thread local cleaners are liable to access thread local Path instances
             setupPathCleaner();
 
+            if (wakeup != null) {
+                wakeup.subscribe(parkingLot);
+            }
+
             for (int i = 0; i < workerCount; i++) {
                 final int index = i;
                 Worker worker = new Worker(
@@ -186,6 +208,7 @@ public class WorkerPool implements Closeable {
                         napThreshold,
                         sleepThreshold,
                         sleepMs,
+                        parkingLot,
                         metrics,
                         log
                 );
@@ -200,6 +223,20 @@ public class WorkerPool implements Closeable {
         }
     }
 
+    /**
+     * Lets parked workers of this pool be woken up by the given wake-up, typically
+     * the one of the message bus whose queues the pool jobs consume. Does nothing
+     * unless wake-up is enabled in pool configuration.
+     *
+     * @param wakeup wake-up signalled by queue publishers
+     */
+    public void subscribe(WorkerWakeup wakeup) {
+        assert !running.get() && !closed.get();
+        if (parkingLot != null) {
+            this.wakeup = wakeup;
+        }
+    }
+
     public void updateWorkerMetrics(long now) {
         WorkerMetrics workerMetrics = metrics.workerMetrics();
         long min = workerMetrics.getMinElapsedMicros();
@@ -222,4 +259,10 @@ public class WorkerPool implements Closeable {
             threadLocalCleaners.getQuick(i).add(Path.THREAD_LOCAL_CLEANER);
         }
     }
+
+    private void unsubscribeWakeup() {
+        if (wakeup != null) {
+            wakeup.unsubscribe(parkingLot);
+        }
+    }
 }
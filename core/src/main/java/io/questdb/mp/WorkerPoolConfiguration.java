@@ -62,4 +62,12 @@ public interface WorkerPoolConfiguration {
     default boolean isEnabled() {
         return true;
     }
+
+    /**
+     * When enabled, idle workers park instead of sleeping and get woken up
+     * as soon as a task is published to a queue consumed by the pool.
+     */
+    default boolean isWakeupEnabled() {
+        return false;
+    }
 }
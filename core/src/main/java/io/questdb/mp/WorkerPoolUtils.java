@@ -60,7 +60,8 @@ public class WorkerPoolUtils {
                 final PageFrameReduceJob pageFrameReduceJob = new PageFrameReduceJob(
                         messageBus,
                         new Rnd(microsecondClock.getTicks(), nanosecondClock.getTicks()),
-                        configuration.getCircuitBreakerConfiguration()
+                        configuration.getCircuitBreakerConfiguration(),
+                        workerPool.getWorkerNode(i, messageBus.getNumaTopology())
                 );
                 workerPool.assign(i, pageFrameReduceJob);
                 workerPool.freeOnExit(pageFrameReduceJob);
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.mp;
+
+import io.questdb.std.Os;
+
+import java.util.Arrays;
+
+/**
+ * Wait strategy that wakes up parked workers of the subscribed pools when tasks are
+ * published to a queue. It is set on the consumer sequences of the queues processed
+ * by worker pools, so that {@link Sequence#done(long)} on the publisher side signals
+ * it. Publishers that do not signal their consumers via the barrier chain, such as
+ * page frame reduce dispatch, call {@link #signal()} directly.
+ * <p>
+ * Signalling is cheap when no pools are subscribed, so the wake-up is opt-in
+ * per pool, see {@link WorkerPoolConfiguration#isWakeupEnabled()}.
+ */
+public class WorkerWakeup extends AbstractWaitStrategy {
+    private static final WorkerParkingLot[] NO_LOTS = new WorkerParkingLot[0];
+    private volatile WorkerParkingLot[] lots = NO_LOTS;
+
+    @Override
+    public boolean acceptSignal() {
+        return true;
+    }
+
+    @Override
+    public void await() {
+        Os.pause();
+    }
+
+    public boolean isSubscribed(WorkerParkingLot lot) {
+        final WorkerParkingLot[] lots = this.lots;
+        for (int i = 0, n = lots.length; i < n; i++) {
+            if (lots[i] == lot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void signal() {
+        final WorkerParkingLot[] lots = this.lots;
+        for (int i = 0, n = lots.length; i < n; i++) {
+            lots[i].wakeOne();
+        }
+    }
+
+    public synchronized void subscribe(WorkerParkingLot lot) {
+        if (!isSubscribed(lot)) {
+            final WorkerParkingLot[] lots = Arrays.copyOf(this.lots, this.lots.length + 1);
+            lots[lots.length - 1] = lot;
+            this.lots = lots;
+        }
+    }
+
+    public synchronized void unsubscribe(WorkerParkingLot lot) {
+        final WorkerParkingLot[] lots = this.lots;
+        for (int i = 0, n = lots.length; i < n; i++) {
+            if (lots[i] == lot) {
+                final WorkerParkingLot[] copy = new WorkerParkingLot[n - 1];
+                System.arraycopy(lots, 0, copy, 0, i);
+                System.arraycopy(lots, i + 1, copy, i, n - i - 1);
+                this.lots = copy;
+                return;
+            }
+        }
+    }
+}
@@ -46,6 +46,8 @@ public final class Files {
     public static final int FILES_RENAME_ERR_EXDEV = 1;
     public static final int FILES_RENAME_ERR_OTHER = 2;
     public static final int FILES_RENAME_OK = 0;
+    // Linux-only advice, glibc and musl pass it through posix_madvise() to madvise() as is
+    public static final int MADV_HUGEPAGE;
     public static final int MAP_RO = 1;
     public static final int MAP_RW = 2;
     public static final int NFS_MAGIC = 0x6969;
@@ -57,6 +59,7 @@ public final class Files {
     // wasted disk read ops.
     public static final int POSIX_MADV_RANDOM;
     public static final int POSIX_MADV_SEQUENTIAL;
+    public static final int POSIX_MADV_WILLNEED;
     public static final char SEPARATOR;
     public static final Charset UTF_8;
     public static final int WINDOWS_ERROR_FILE_EXISTS = 0x50;
@@ -64,6 +67,8 @@ public final class Files {
     private static final int VIRTIO_FS_MAGIC = 0x6a656a63;
     private static final AtomicInteger fdCounter = new AtomicInteger();
     private static final LongHashSet openFds = new LongHashSet();
+    // cleared when the native library has been built without direct I/O support
+    private static volatile boolean directIoSupported = true;
     // To be set in tests to check every call for using OPEN file descriptor
     public static boolean PARANOIA_FD_MODE = false;
     public static boolean VIRTIO_FS_DETECTED = false;
@@ -410,6 +415,28 @@ public final class Files {
         return createUniqueFd(openRO(lpsz.ptr()));
     }
 
+    /**
+     * Opens file for reading bypassing OS page cache, i.e. with O_DIRECT on Linux and FreeBSD,
+     * F_NOCACHE on OSX and FILE_FLAG_NO_BUFFERING on Windows. Reads from such file must use
+     * buffer address, file offset and length aligned to {@link #PAGE_SIZE}.
+     * <p>
+     * Native libraries built before direct I/O support was added don't have the method,
+     * in which case -1 is returned and callers read the file through the OS page cache.
+     *
+     * @param lpsz file path
+     * @return file descriptor or -1 on error
+     */
+    public static long openRODirect(LPSZ lpsz) {
+        if (directIoSupported) {
+            try {
+                return createUniqueFd(openRODirect(lpsz.ptr()));
+            } catch (UnsatisfiedLinkError e) {
+                directIoSupported = false;
+            }
+        }
+        return -1;
+    }
+
     public static long openRW(LPSZ lpsz) {
         return createUniqueFd(openRW(lpsz.ptr()));
     }
@@ -706,6 +733,8 @@ public final class Files {
 
     private native static int openRO(long lpszName);
 
+    private native static int openRODirect(long lpszName);
+
     private native static int openRW(long lpszName);
 
     private native static int openRWOpts(long lpszName, long opts);
@@ -746,11 +775,16 @@ public final class Files {
             POSIX_FADV_SEQUENTIAL = getPosixFadvSequential();
             POSIX_MADV_RANDOM = getPosixMadvRandom();
             POSIX_MADV_SEQUENTIAL = getPosixMadvSequential();
+            // values are part of the stable Linux kernel ABI
+            POSIX_MADV_WILLNEED = 3;
+            MADV_HUGEPAGE = 14;
         } else {
             POSIX_FADV_SEQUENTIAL = -1;
             POSIX_FADV_RANDOM = -1;
             POSIX_MADV_SEQUENTIAL = -1;
             POSIX_MADV_RANDOM = -1;
+            POSIX_MADV_WILLNEED = -1;
+            MADV_HUGEPAGE = -1;
         }
     }
 }
@@ -134,6 +134,8 @@ public interface FilesFacade {
 
     long openRO(LPSZ name);
 
+    long openRODirect(LPSZ name);
+
     long openRW(LPSZ name, long opts);
 
     long read(long fd, long buf, long size, long offset);
@@ -369,6 +369,11 @@ public class FilesFacadeImpl implements FilesFacade {
         return Files.openRO(name);
     }
 
+    @Override
+    public long openRODirect(LPSZ name) {
+        return Files.openRODirect(name);
+    }
+
     @Override
     public long openRW(LPSZ name, long opts) {
         return Files.openRW(name, opts);
@@ -90,7 +90,9 @@ public final class MemoryTag {
     public static final int NATIVE_TABLE_WAL_WRITER = NATIVE_INDEX_READER + 1;
     public static final int NATIVE_METADATA_READER = NATIVE_TABLE_WAL_WRITER + 1;
     public static final int NATIVE_BIT_SET = NATIVE_METADATA_READER + 1;
-    public static final int SIZE = NATIVE_BIT_SET + 1;
+    public static final int NATIVE_COLUMN_BUFFER_CACHE = NATIVE_BIT_SET + 1;
+    public static final int NATIVE_DIRECT_IO_SCAN = NATIVE_COLUMN_BUFFER_CACHE + 1;
+    public static final int SIZE = NATIVE_DIRECT_IO_SCAN + 1;
 
     private static final ObjList<String> tagNameMap = new ObjList<>(SIZE);
 
@@ -162,5 +164,7 @@ public final class MemoryTag {
         tagNameMap.extendAndSet(NATIVE_TABLE_WAL_WRITER, "NATIVE_TABLE_WAL_WRITER");
         tagNameMap.extendAndSet(NATIVE_METADATA_READER, "NATIVE_METADATA_READER");
         tagNameMap.extendAndSet(NATIVE_BIT_SET, "NATIVE_BIT_SET");
+        tagNameMap.extendAndSet(NATIVE_COLUMN_BUFFER_CACHE, "NATIVE_COLUMN_BUFFER_CACHE");
+        tagNameMap.extendAndSet(NATIVE_DIRECT_IO_SCAN, "NATIVE_DIRECT_IO_SCAN");
     }
 }
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.std;
+
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+
+/**
+ * Maps CPUs to NUMA nodes. On Linux the topology is read from sysfs, all other
+ * platforms, as well as single socket hosts, are treated as a single node.
+ */
+public final class NumaTopology {
+    public static final NumaTopology SINGLE_NODE = new NumaTopology(new IntList(), 1);
+    private static final Log LOG = LogFactory.getLog(NumaTopology.class);
+    private static final String NODE_CPU_LIST_PATH = "/sys/devices/system/node/node%d/cpulist";
+    private final IntList cpuNodes;
+    private final int nodeCount;
+
+    private NumaTopology(IntList cpuNodes, int nodeCount) {
+        this.cpuNodes = cpuNodes;
+        this.nodeCount = nodeCount;
+    }
+
+    public static NumaTopology detect() {
+        if (Os.type != Os.LINUX) {
+            return SINGLE_NODE;
+        }
+        final ObjList<CharSequence> cpuLists = new ObjList<>();
+        try {
+            while (true) {
+                final String cpuList = new String(
+                        Files.readAllBytes(Paths.get(String.format(NODE_CPU_LIST_PATH, cpuLists.size()))),
+                        StandardCharsets.US_ASCII
+                );
+                cpuLists.add(cpuList.trim());
+            }
+        } catch (NoSuchFileException ignore) {
+            // no more nodes
+        } catch (IOException e) {
+            LOG.error().$("could not read NUMA topology, assuming single node [error=").$(e.getMessage()).I$();
+            return SINGLE_NODE;
+        }
+        try {
+            final NumaTopology topology = of(cpuLists);
+            LOG.info().$("NUMA topology [nodes=").$(topology.getNodeCount()).I$();
+            return topology;
+        } catch (NumericException e) {
+            LOG.error().$("could not parse NUMA topology, assuming single node").$();
+            return SINGLE_NODE;
+        }
+    }
+
+    /**
+     * Builds topology from per-node CPU lists in the Linux "cpulist" format, e.g. "0-3,8-11".
+     * List index is the node number.
+     */
+    public static NumaTopology of(@NotNull ObjList<CharSequence> cpuLists) throws NumericException {
+        if (cpuLists.size() < 2) {
+            return SINGLE_NODE;
+        }
+        final IntList cpuNodes = new IntList();
+        for (int node = 0, n = cpuLists.size(); node < n; node++) {
+            final CharSequence cpuList = cpuLists.getQuick(node);
+            int lo = 0;
+            final int hi = cpuList.length();
+            while (lo < hi) {
+                int comma = Chars.indexOf(cpuList, lo, hi, ',');
+                if (comma == -1) {
+                    comma = hi;
+                }
+                final int dash = Chars.indexOf(cpuList, lo, comma, '-');
+                final int first = Numbers.parseInt(cpuList, lo, dash == -1 ? comma : dash);
+                final int last = dash == -1 ? first : Numbers.parseInt(cpuList, dash + 1, comma);
+                if (last < first) {
+                    throw NumericException.INSTANCE;
+                }
+                for (int cpu = first; cpu <= last; cpu++) {
+                    while (cpuNodes.size() <= cpu) {
+                        cpuNodes.add(-1);
+                    }
+                    cpuNodes.setQuick(cpu, node);
+                }
+                lo = comma + 1;
+            }
+        }
+        return new NumaTopology(cpuNodes, cpuLists.size());
+    }
+
+    /**
+     * @param cpu CPU index, a negative value stands for a thread without affinity
+     * @return NUMA node of the CPU or -1 when the CPU is unknown
+     */
+    public int getNode(int cpu) {
+        if (cpu < 0 || cpu >= cpuNodes.size()) {
+            return -1;
+        }
+        return cpuNodes.getQuick(cpu);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
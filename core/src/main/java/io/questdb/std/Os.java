@@ -50,6 +50,8 @@ public final class Os {
     public static final String archName;
     public static final String name;
     public static final int type;
+    // cleared when the native library has been built without page fault counters
+    private static volatile boolean pageFaultCountersSupported = true;
 
     private Os() {
     }
@@ -139,6 +141,40 @@ public final class Os {
         return bean.getTotalPhysicalMemorySize();
     }
 
+    /**
+     * Returns number of major (hard) page faults incurred by this process, i.e. faults that required I/O.
+     * The value is cumulative since process start.
+     *
+     * @return major page fault count or -1 when the native library does not provide the counter
+     */
+    public static long getMajorPageFaults() {
+        if (pageFaultCountersSupported) {
+            try {
+                return getMajorPageFaults0();
+            } catch (UnsatisfiedLinkError e) {
+                pageFaultCountersSupported = false;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns number of minor (soft) page faults incurred by this process, i.e. faults served
+     * from the page cache without I/O. The value is cumulative since process start.
+     *
+     * @return minor page fault count or -1 when the native library does not provide the counter
+     */
+    public static long getMinorPageFaults() {
+        if (pageFaultCountersSupported) {
+            try {
+                return getMinorPageFaults0();
+            } catch (UnsatisfiedLinkError e) {
+                pageFaultCountersSupported = false;
+            }
+        }
+        return -1;
+    }
+
     public static native int getPid();
 
     /**
@@ -247,6 +283,10 @@ public final class Os {
 
     private static native long generateKrbToken(long spn);
 
+    private static native long getMajorPageFaults0();
+
+    private static native long getMinorPageFaults0();
+
     private static native void initRust();
 
     private static void loadLib(String lib) {
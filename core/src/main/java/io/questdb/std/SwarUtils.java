@@ -47,6 +47,14 @@ public final class SwarUtils {
         return Long.numberOfTrailingZeros(w) >>> 3;
     }
 
+    /**
+     * Marks zero bytes in the input by setting their high bit. Unlike {@link #markZeroBytes(long)},
+     * this method has no false positives, so every marked byte can be used as an exact match.
+     */
+    public static long markZeroBytesExact(long w) {
+        return ~(((w & 0x7f7f7f7f7f7f7f7fL) + 0x7f7f7f7f7f7f7f7fL) | w | 0x7f7f7f7f7f7f7f7fL);
+    }
+
     /**
      * Returns non-zero result in case if the input contains a zero byte.
      * <p>
@@ -64,4 +72,12 @@ public final class SwarUtils {
     public static long markZeroBytes(long w) {
         return ((w - 0x0101010101010101L) & (~w) & 0x8080808080808080L);
     }
+
+    /**
+     * Gathers high bits of all bytes into the lowest 8 bits of the result, so that
+     * bit N of the result is the high bit of byte N (LE). Similar to x86's PMOVMSKB.
+     */
+    public static long movemask(long w) {
+        return ((w & 0x8080808080808080L) * 0x02040810204081L) >>> 56;
+    }
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.tasks;
+
+import io.questdb.cairo.TableToken;
+
+public class WalSegmentCompressionTask {
+    private int segmentId;
+    private long segmentTxn;
+    private TableToken tableToken;
+    private int walId;
+
+    public int getSegmentId() {
+        return segmentId;
+    }
+
+    /**
+     * @return sequencer transaction of the last commit to the segment
+     */
+    public long getSegmentTxn() {
+        return segmentTxn;
+    }
+
+    public TableToken getTableToken() {
+        return tableToken;
+    }
+
+    public int getWalId() {
+        return walId;
+    }
+
+    public void of(TableToken tableToken, int walId, int segmentId, long segmentTxn) {
+        this.tableToken = tableToken;
+        this.walId = walId;
+        this.segmentId = segmentId;
+        this.segmentTxn = segmentTxn;
+    }
+}
@@ -2080,5 +2080,6 @@ public abstract class AbstractCairoTest extends AbstractTest {
         FACTORY_TAGS[MemoryTag.NATIVE_REPL] = false;
         FACTORY_TAGS[MemoryTag.NATIVE_INDEX_READER] = false;
         FACTORY_TAGS[MemoryTag.NATIVE_TABLE_WAL_WRITER] = false;
+        FACTORY_TAGS[MemoryTag.NATIVE_COLUMN_BUFFER_CACHE] = false;
     }
 }
@@ -793,6 +793,45 @@ public class FilesTest {
         });
     }
 
+    @Test
+    public void testOpenRODirect() throws Exception {
+        assertMemoryLeak(() -> {
+            File temp = temporaryFolder.newFile();
+            final long size = 2 * Files.PAGE_SIZE;
+            final long allocSize = size + Files.PAGE_SIZE;
+            final long mem = Unsafe.malloc(allocSize, MemoryTag.NATIVE_DEFAULT);
+            try (Path path = new Path().of(temp.getAbsolutePath())) {
+                for (long i = 0; i < size; i += Long.BYTES) {
+                    Unsafe.getUnsafe().putLong(mem + i, i);
+                }
+                long fd = Files.openRW(path.$());
+                try {
+                    Assert.assertEquals(size, Files.write(fd, mem, size, 0));
+                } finally {
+                    Files.close(fd);
+                }
+
+                // the file system may not support direct I/O, or the native library may be built
+                // without it, either way the call must not fail
+                fd = Files.openRODirect(path.$());
+                if (fd != -1) {
+                    try {
+                        final long alignedMem = Files.ceilPageSize(mem);
+                        Unsafe.getUnsafe().setMemory(alignedMem, size, (byte) 0);
+                        Assert.assertEquals(Files.PAGE_SIZE, Files.read(fd, alignedMem, Files.PAGE_SIZE, Files.PAGE_SIZE));
+                        for (long i = 0; i < Files.PAGE_SIZE; i += Long.BYTES) {
+                            Assert.assertEquals(Files.PAGE_SIZE + i, Unsafe.getUnsafe().getLong(alignedMem + i));
+                        }
+                    } finally {
+                        Files.close(fd);
+                    }
+                }
+            } finally {
+                Unsafe.free(mem, allocSize, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
     @Test
     public void testOpenRWFailsWhenCalledOnDir() throws Exception {
         assertMemoryLeak(() -> {
@@ -162,10 +162,18 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.attach.partition.suffix\tQDB_CAIRO_ATTACH_PARTITION_SUFFIX\t.attachable\tdefault\tfalse\tfalse\n" +
                                     "cairo.character.store.capacity\tQDB_CAIRO_CHARACTER_STORE_CAPACITY\t1024\tdefault\tfalse\tfalse\n" +
                                     "cairo.character.store.sequence.pool.capacity\tQDB_CAIRO_CHARACTER_STORE_SEQUENCE_POOL_CAPACITY\t64\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.buffer.cache.ghost.capacity\tQDB_CAIRO_COLUMN_BUFFER_CACHE_GHOST_CAPACITY\t4096\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.buffer.cache.recent.partition.count\tQDB_CAIRO_COLUMN_BUFFER_CACHE_RECENT_PARTITION_COUNT\t1\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.buffer.cache.size\tQDB_CAIRO_COLUMN_BUFFER_CACHE_SIZE\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.column.indexer.queue.capacity\tQDB_CAIRO_COLUMN_INDEXER_QUEUE_CAPACITY\t64\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.mmap.huge.pages.enabled\tQDB_CAIRO_COLUMN_MMAP_HUGE_PAGES_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.mmap.populate.partition.count\tQDB_CAIRO_COLUMN_MMAP_POPULATE_PARTITION_COUNT\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.column.mmap.scan.advice.enabled\tQDB_CAIRO_COLUMN_MMAP_SCAN_ADVICE_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.column.pool.capacity\tQDB_CAIRO_COLUMN_POOL_CAPACITY\t4096\tdefault\tfalse\tfalse\n" +
                                     "cairo.commit.lag\tQDB_CAIRO_COMMIT_LAG\t600000\tdefault\tfalse\tfalse\n" +
                                     "cairo.commit.mode\tQDB_CAIRO_COMMIT_MODE\tnosync\tdefault\tfalse\tfalse\n" +
+                                    "cairo.commit.sync.interval\tQDB_CAIRO_COMMIT_SYNC_INTERVAL\t0\tdefault\tfalse\tfalse\n" +
+                                    "cairo.commit.sync.parallel.enabled\tQDB_CAIRO_COMMIT_SYNC_PARALLEL_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.create.as.select.retry.count\tQDB_CAIRO_CREATE_AS_SELECT_RETRY_COUNT\t5\tdefault\tfalse\tfalse\n" +
                                     "cairo.date.locale\tQDB_CAIRO_DATE_LOCALE\ten\tdefault\tfalse\tfalse\n" +
                                     "cairo.default.sequencer.part.txn.count\tQDB_CAIRO_DEFAULT_SEQUENCER_PART_TXN_COUNT\t0\tdefault\tfalse\tfalse\n" +
@@ -191,6 +199,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.max.uncommitted.rows\tQDB_CAIRO_MAX_UNCOMMITTED_ROWS\t500000\tdefault\tfalse\tfalse\n" +
                                     "cairo.mkdir.mode\tQDB_CAIRO_MKDIR_MODE\t509\tdefault\tfalse\tfalse\n" +
                                     "cairo.model.pool.capacity\tQDB_CAIRO_MODEL_POOL_CAPACITY\t1024\tdefault\tfalse\tfalse\n" +
+                                    "cairo.ngram.index.backfill.row.limit\tQDB_CAIRO_NGRAM_INDEX_BACKFILL_ROW_LIMIT\t1000000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.ngram.index.columns\tQDB_CAIRO_NGRAM_INDEX_COLUMNS\t\tdefault\tfalse\tfalse\n" +
+                                    "cairo.ngram.index.value.block.size\tQDB_CAIRO_NGRAM_INDEX_VALUE_BLOCK_SIZE\t256\tdefault\tfalse\tfalse\n" +
                                     "cairo.o3.callback.queue.capacity\tQDB_CAIRO_O3_CALLBACK_QUEUE_CAPACITY\t128\tdefault\tfalse\tfalse\n" +
                                     "cairo.o3.column.memory.size\tQDB_CAIRO_O3_COLUMN_MEMORY_SIZE\t8388608\tdefault\tfalse\tfalse\n" +
                                     "cairo.o3.copy.queue.capacity\tQDB_CAIRO_O3_COPY_QUEUE_CAPACITY\t128\tdefault\tfalse\tfalse\n" +
@@ -209,7 +220,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.page.frame.reduce.queue.capacity\tQDB_CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY\t4\tdefault\tfalse\tfalse\n" +
                                     "cairo.page.frame.rowid.list.capacity\tQDB_CAIRO_PAGE_FRAME_ROWID_LIST_CAPACITY\t256\tdefault\tfalse\tfalse\n" +
                                     "cairo.page.frame.shard.count\tQDB_CAIRO_PAGE_FRAME_SHARD_COUNT\t2\tdefault\tfalse\tfalse\n" +
+                                    "cairo.page.frame.numa.aware\tQDB_CAIRO_PAGE_FRAME_NUMA_AWARE\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.parallel.index.threshold\tQDB_CAIRO_PARALLEL_INDEX_THRESHOLD\t100000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.partition.change.log.capacity\tQDB_CAIRO_PARTITION_CHANGE_LOG_CAPACITY\t64\tdefault\tfalse\tfalse\n" +
                                     "cairo.parallel.indexing.enabled\tQDB_CAIRO_PARALLEL_INDEXING_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.query.cache.event.queue.capacity\tQDB_CAIRO_QUERY_CACHE_EVENT_QUEUE_CAPACITY\t4\tdefault\tfalse\tfalse\n" +
                                     "cairo.reader.pool.max.segments\tQDB_CAIRO_READER_POOL_MAX_SEGMENTS\t10\tdefault\tfalse\tfalse\n" +
@@ -249,6 +262,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.count.distinct.load.factor\tQDB_CAIRO_SQL_COUNT_DISTINCT_LOAD_FACTOR\t0.75\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.create.table.model.pool.capacity\tQDB_CAIRO_SQL_CREATE_TABLE_MODEL_POOL_CAPACITY\t16\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.create.table.model.batch.size\tQDB_CAIRO_SQL_CREATE_TABLE_MODEL_BATCH_SIZE\t1000000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.direct.io.scan.buffer.limit\tQDB_CAIRO_SQL_DIRECT_IO_SCAN_BUFFER_LIMIT\t268435456\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.direct.io.scan.recent.partition.count\tQDB_CAIRO_SQL_DIRECT_IO_SCAN_RECENT_PARTITION_COUNT\t1\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.direct.io.scan.threshold\tQDB_CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.distinct.timestamp.key.capacity\tQDB_CAIRO_SQL_DISTINCT_TIMESTAMP_KEY_CAPACITY\t512\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.distinct.timestamp.load.factor\tQDB_CAIRO_SQL_DISTINCT_TIMESTAMP_LOAD_FACTOR\t0.5\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.double.cast.scale\tQDB_CAIRO_SQL_DOUBLE_CAST_SCALE\t12\tdefault\tfalse\tfalse\n" +
@@ -294,6 +310,10 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.parallel.groupby.presize.max.size\tQDB_CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_SIZE\t100000000\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.groupby.presize.max.heap.size\tQDB_CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_HEAP_SIZE\t1073741824\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.parallel.work.stealing.threshold\tQDB_CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD\t16\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.parallel.low.priority.query.limit\tQDB_CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUERY_LIMIT\t2\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.parallel.low.priority.queue.share\tQDB_CAIRO_SQL_PARALLEL_LOW_PRIORITY_QUEUE_SHARE\t25\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.low.priority.users\tQDB_CAIRO_SQL_LOW_PRIORITY_USERS\t\tdefault\tfalse\tfalse\n" +
+                                    "cairo.sql.read.your.writes.enabled\tQDB_CAIRO_SQL_READ_YOUR_WRITES_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.rename.table.model.pool.capacity\tQDB_CAIRO_SQL_RENAME_TABLE_MODEL_POOL_CAPACITY\t16\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.sampleby.page.size\tQDB_CAIRO_SQL_SAMPLEBY_PAGE_SIZE\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.sampleby.default.alignment.calendar\tQDB_CAIRO_SQL_SAMPLEBY_DEFAULT_ALIGNMENT_CALENDAR\ttrue\tdefault\tfalse\tfalse\n" +
@@ -318,6 +338,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.sql.with.clause.model.pool.capacity\tQDB_CAIRO_SQL_WITH_CLAUSE_MODEL_POOL_CAPACITY\t128\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.orderby.sort.enabled\tQDB_CAIRO_SQL_ORDERBY_SORT_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.sql.orderby.radix.sort.threshold\tQDB_CAIRO_SQL_ORDERBY_RADIX_SORT_THRESHOLD\t600\tdefault\tfalse\tfalse\n" +
+                                    "cairo.symbol.table.shared.cache.enabled\tQDB_CAIRO_SYMBOL_TABLE_SHARED_CACHE_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.o3.column.memory.size\tQDB_CAIRO_SYSTEM_O3_COLUMN_MEMORY_SIZE\t262144\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.table.prefix\tQDB_CAIRO_SYSTEM_TABLE_PREFIX\tsys.\tdefault\tfalse\tfalse\n" +
                                     "cairo.system.wal.writer.data.append.page.size\tQDB_CAIRO_SYSTEM_WAL_WRITER_DATA_APPEND_PAGE_SIZE\t262144\tdefault\tfalse\tfalse\n" +
@@ -329,6 +350,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.volumes\tQDB_CAIRO_VOLUMES\t\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.apply.enabled\tQDB_CAIRO_WAL_APPLY_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.apply.look.ahead.txn.count\tQDB_CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT\t20\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.apply.partition.parallelism\tQDB_CAIRO_WAL_APPLY_PARTITION_PARALLELISM\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.apply.table.time.quota\tQDB_CAIRO_WAL_APPLY_TABLE_TIME_QUOTA\t1000\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.enabled.default\tQDB_CAIRO_WAL_ENABLED_DEFAULT\tfalse\tconf\tfalse\tfalse\n" +
                                     "cairo.wal.inactive.writer.ttl\tQDB_CAIRO_WAL_INACTIVE_WRITER_TTL\t120000\tdefault\tfalse\tfalse\n" +
@@ -337,6 +359,12 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.wal.max.lag.size\tQDB_CAIRO_WAL_MAX_LAG_SIZE\t78643200\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.purge.interval\tQDB_CAIRO_WAL_PURGE_INTERVAL\t30000\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.recreate.distressed.sequencer.attempts\tQDB_CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS\t3\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.replica.poll.interval\tQDB_CAIRO_WAL_REPLICA_POLL_INTERVAL\t100\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.replica.source.root\tQDB_CAIRO_WAL_REPLICA_SOURCE_ROOT\t\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.segment.compression.enabled\tQDB_CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.segment.compression.min.lag.txn.count\tQDB_CAIRO_WAL_SEGMENT_COMPRESSION_MIN_LAG_TXN_COUNT\t100\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.segment.compression.min.size\tQDB_CAIRO_WAL_SEGMENT_COMPRESSION_MIN_SIZE\t16777216\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.segment.compression.queue.capacity\tQDB_CAIRO_WAL_SEGMENT_COMPRESSION_QUEUE_CAPACITY\t64\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.segment.rollover.row.count\tQDB_CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT\t200000\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.segment.rollover.size\tQDB_CAIRO_WAL_SEGMENT_ROLLOVER_SIZE\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.squash.uncommitted.rows.multiplier\tQDB_CAIRO_WAL_SQUASH_UNCOMMITTED_ROWS_MULTIPLIER\t20.0\tdefault\tfalse\tfalse\n" +
@@ -346,6 +374,8 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "cairo.wal.writer.data.append.page.size\tQDB_CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE\t1048576\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.writer.pool.max.segments\tQDB_CAIRO_WAL_WRITER_POOL_MAX_SEGMENTS\t10\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.sequencer.check.interval\tQDB_CAIRO_WAL_SEQUENCER_CHECK_INTERVAL\t10000\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.sequencer.group.commit.enabled\tQDB_CAIRO_WAL_SEQUENCER_GROUP_COMMIT_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "cairo.wal.sequencer.group.commit.window\tQDB_CAIRO_WAL_SEQUENCER_GROUP_COMMIT_WINDOW\t0\tdefault\tfalse\tfalse\n" +
                                     "cairo.wal.writer.event.append.page.size\tQDB_CAIRO_WAL_WRITER_EVENT_APPEND_PAGE_SIZE\t131072\tdefault\tfalse\tfalse\n" +
                                     "cairo.work.steal.timeout.nanos\tQDB_CAIRO_WORK_STEAL_TIMEOUT_NANOS\t10000\tdefault\tfalse\tfalse\n" +
                                     "cairo.writer.alter.busy.wait.timeout\tQDB_CAIRO_WRITER_ALTER_BUSY_WAIT_TIMEOUT\t500\tdefault\tfalse\tfalse\n" +
@@ -420,6 +450,8 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "http.request.header.buffer.size\tQDB_HTTP_REQUEST_HEADER_BUFFER_SIZE\t64448\tdefault\tfalse\tfalse\n" +
                                     "http.security.interrupt.on.closed.connection\tQDB_HTTP_SECURITY_INTERRUPT_ON_CLOSED_CONNECTION\ttrue\tdefault\tfalse\tfalse\n" +
                                     "http.security.max.response.rows\tQDB_HTTP_SECURITY_MAX_RESPONSE_ROWS\t9223372036854775807\tdefault\tfalse\tfalse\n" +
+                                    "http.export.batch.row.count\tQDB_HTTP_EXPORT_BATCH_ROW_COUNT\t65536\tdefault\tfalse\tfalse\n" +
+                                    "http.import.arrow.max.message.size\tQDB_HTTP_IMPORT_ARROW_MAX_MESSAGE_SIZE\t134217728\tdefault\tfalse\tfalse\n" +
                                     "http.security.readonly\tQDB_HTTP_SECURITY_READONLY\tfalse\tdefault\tfalse\tfalse\n" +
                                     "http.send.buffer.size\tQDB_HTTP_SEND_BUFFER_SIZE\t2097152\tdefault\tfalse\tfalse\n" +
                                     "http.server.keep.alive\tQDB_HTTP_SERVER_KEEP_ALIVE\ttrue\tdefault\tfalse\tfalse\n" +
@@ -479,6 +511,9 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "line.tcp.net.idle.timeout\tQDB_LINE_TCP_NET_IDLE_TIMEOUT\t0\tdefault\tfalse\tfalse\n" +
                                     "line.tcp.net.queued.timeout\tQDB_LINE_TCP_NET_QUEUED_TIMEOUT\t5000\tdefault\tfalse\tfalse\n" +
                                     "line.tcp.net.recv.buf.size\tQDB_LINE_TCP_NET_RECV_BUF_SIZE\t-1\tdefault\tfalse\tfalse\n" +
+                                    "line.tcp.shm.ring.count\tQDB_LINE_TCP_SHM_RING_COUNT\t4\tdefault\tfalse\tfalse\n" +
+                                    "line.tcp.shm.ring.dir\tQDB_LINE_TCP_SHM_RING_DIR\t\tdefault\tfalse\tfalse\n" +
+                                    "line.tcp.shm.ring.size\tQDB_LINE_TCP_SHM_RING_SIZE\t4194304\tdefault\tfalse\tfalse\n" +
                                     "line.tcp.symbol.cache.wait.us.before.reload\tQDB_LINE_TCP_SYMBOL_CACHE_WAIT_US_BEFORE_RELOAD\t500000\tdefault\tfalse\tfalse\n" +
                                     "line.tcp.timestamp\tQDB_LINE_TCP_TIMESTAMP\tn\tdefault\tfalse\tfalse\n" +
                                     "line.tcp.undocumented.string.to.char.cast.allowed\tQDB_LINE_TCP_UNDOCUMENTED_STRING_TO_CHAR_CAST_ALLOWED\tfalse\tdefault\tfalse\tfalse\n" +
@@ -560,6 +595,7 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "shared.worker.sleep.threshold\tQDB_SHARED_WORKER_SLEEP_THRESHOLD\t10000\tdefault\tfalse\tfalse\n" +
                                     "shared.worker.sleep.timeout\tQDB_SHARED_WORKER_SLEEP_TIMEOUT\t10\tdefault\tfalse\tfalse\n" +
                                     "shared.worker.nap.threshold\tQDB_SHARED_WORKER_NAP_THRESHOLD\t7000\tdefault\tfalse\tfalse\n" +
+                                    "shared.worker.wakeup.enabled\tQDB_SHARED_WORKER_WAKEUP_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "shared.worker.yield.threshold\tQDB_SHARED_WORKER_YIELD_THRESHOLD\t10\tdefault\tfalse\tfalse\n" +
                                     "table.type.conversion.enabled\tQDB_TABLE_TYPE_CONVERSION_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "telemetry.disable.completely\tQDB_TELEMETRY_DISABLE_COMPLETELY\ttrue\tconf\tfalse\tfalse\n" +
@@ -571,9 +607,11 @@ public class ServerMainTest extends AbstractBootstrapTest {
                                     "wal.apply.worker.sleep.threshold\tQDB_WAL_APPLY_WORKER_SLEEP_THRESHOLD\t10000\tdefault\tfalse\tfalse\n" +
                                     "wal.apply.worker.sleep.timeout\tQDB_WAL_APPLY_WORKER_SLEEP_TIMEOUT\t10\tdefault\tfalse\tfalse\n" +
                                     "wal.apply.worker.nap.threshold\tQDB_WAL_APPLY_WORKER_NAP_THRESHOLD\t7000\tdefault\tfalse\tfalse\n" +
+                                    "wal.apply.worker.wakeup.enabled\tQDB_WAL_APPLY_WORKER_WAKEUP_ENABLED\tfalse\tdefault\tfalse\tfalse\n" +
                                     "wal.apply.worker.yield.threshold\tQDB_WAL_APPLY_WORKER_YIELD_THRESHOLD\t1000\tdefault\tfalse\tfalse\n" +
                                     "cairo.checkpoint.recovery.enabled\tQDB_CAIRO_CHECKPOINT_RECOVERY_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "log.sql.query.progress.exe\tQDB_LOG_SQL_QUERY_PROGRESS_EXE\ttrue\tdefault\tfalse\tfalse\n" +
+                                    "log.sql.query.page.faults\tQDB_LOG_SQL_QUERY_PAGE_FAULTS\tfalse\tdefault\tfalse\tfalse\n" +
                                     "log.level.verbose\tQDB_LOG_LEVEL_VERBOSE\tfalse\tdefault\tfalse\tfalse\n" +
                                     "cairo.partition.encoder.parquet.statistics.enabled\tQDB_CAIRO_PARTITION_ENCODER_PARQUET_STATISTICS_ENABLED\ttrue\tdefault\tfalse\tfalse\n" +
                                     "cairo.partition.encoder.parquet.version\tQDB_CAIRO_PARTITION_ENCODER_PARQUET_VERSION\t1\tdefault\tfalse\tfalse\n" +
@@ -511,6 +511,57 @@ public class CairoEngineTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testTablePartitionSnapshot() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (v long, ts timestamp) timestamp(ts) partition by DAY");
+            insert("insert into x values (1, '2024-01-01T10:00:00.000000Z'), (2, '2024-01-01T12:00:00.000000Z'), (3, '2024-01-03T00:00:00.000000Z')");
+            ddl("create table y (v long)");
+            insert("insert into y values (1), (2)");
+
+            try (TablePartitionSnapshot snapshot = new TablePartitionSnapshot(configuration)) {
+                final TableToken x = engine.verifyTableName("x");
+                Assert.assertSame(snapshot, engine.getTablePartitionSnapshot(x, snapshot));
+                Assert.assertEquals(x, snapshot.getTableToken());
+                Assert.assertEquals(PartitionBy.DAY, snapshot.getPartitionBy());
+                TestUtils.assertEquals("ts", snapshot.getTimestampColumnName());
+                Assert.assertEquals(3, snapshot.getRowCount());
+                Assert.assertEquals(Timestamps.DAY_MICROS * 19723 + 10 * Timestamps.HOUR_MICROS, snapshot.getMinTimestamp());
+                Assert.assertEquals(Timestamps.DAY_MICROS * 19725, snapshot.getMaxTimestamp());
+                Assert.assertEquals(2, snapshot.getPartitionCount());
+                Assert.assertEquals(Timestamps.DAY_MICROS * 19723, snapshot.getPartitionTimestamp(0));
+                Assert.assertEquals(2, snapshot.getPartitionRowCount(0));
+                Assert.assertEquals(Timestamps.DAY_MICROS * 19725, snapshot.getPartitionTimestamp(1));
+                Assert.assertEquals(1, snapshot.getPartitionRowCount(1));
+                Assert.assertEquals(snapshot.getPartitionTimestamp(1), snapshot.getLastPartitionTimestamp());
+                Assert.assertFalse(snapshot.isPartitionReadOnly(0));
+                Assert.assertFalse(snapshot.isPartitionParquet(0));
+
+                // the snapshot is reusable and does not acquire readers
+                final TableToken y = engine.verifyTableName("y");
+                engine.getTablePartitionSnapshot(y, snapshot);
+                Assert.assertEquals(PartitionBy.NONE, snapshot.getPartitionBy());
+                Assert.assertNull(snapshot.getTimestampColumnName());
+                Assert.assertEquals(2, snapshot.getRowCount());
+                Assert.assertEquals(0, engine.getBusyReaderCount());
+
+                // the snapshot does not follow later commits until it is reloaded
+                insert("insert into y values (3)");
+                Assert.assertEquals(2, snapshot.getRowCount());
+                engine.getTablePartitionSnapshot(y, snapshot);
+                Assert.assertEquals(3, snapshot.getRowCount());
+
+                ddl("drop table y");
+                try {
+                    engine.getTablePartitionSnapshot(y, snapshot);
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "table does not exist");
+                }
+            }
+        });
+    }
+
     @Test
     public void testTheMaintenanceJobDoesNotObstructTableLocking() throws Exception {
         final String tableName = testName.getMethodName();
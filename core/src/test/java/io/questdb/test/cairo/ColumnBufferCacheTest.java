@@ -0,0 +1,204 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnBufferCache;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.std.Vect;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnBufferCacheTest extends AbstractCairoTest {
+
+    @Test
+    public void testAdmission() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (
+                    ColumnBufferCache cache = new ColumnBufferCache(1024 * 1024, 1, 16);
+                    TableReader reader = getReader("x")
+            ) {
+                openPartitions(reader);
+
+                // the most recent partition is admitted on first access
+                ColumnBufferCache.Entry entry = acquire(cache, reader, 2);
+                Assert.assertNotNull(entry);
+                assertEntry(entry, reader, 2);
+                cache.release(entry);
+
+                // older partitions are admitted on second access only
+                Assert.assertNull(acquire(cache, reader, 0));
+                entry = acquire(cache, reader, 0);
+                Assert.assertNotNull(entry);
+                assertEntry(entry, reader, 0);
+                cache.release(entry);
+
+                entry = acquire(cache, reader, 0);
+                Assert.assertNotNull(entry);
+                cache.release(entry);
+
+                Assert.assertEquals(2, cache.getEntryCount());
+                Assert.assertEquals(1, cache.getHitCount());
+                Assert.assertEquals(3, cache.getMissCount());
+
+                cache.clear();
+                Assert.assertEquals(0, cache.getEntryCount());
+                Assert.assertEquals(0, cache.getMemUsed());
+            }
+        });
+    }
+
+    @Test
+    public void testExtendOnAppend() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (
+                    ColumnBufferCache cache = new ColumnBufferCache(1024 * 1024, 1, 16);
+                    TableReader reader = getReader("x")
+            ) {
+                openPartitions(reader);
+                ColumnBufferCache.Entry entry = acquire(cache, reader, 2);
+                Assert.assertNotNull(entry);
+                final long size = entry.getSize();
+                cache.release(entry);
+
+                insert("insert into x select x, (61 * 3_600_000_000L + x * 60_000_000L)::timestamp from long_sequence(10)");
+                Assert.assertTrue(reader.reload());
+                openPartitions(reader);
+
+                entry = acquire(cache, reader, 2);
+                Assert.assertNotNull(entry);
+                Assert.assertTrue(entry.getSize() > size);
+                assertEntry(entry, reader, 2);
+                cache.release(entry);
+                Assert.assertEquals(1, cache.getEntryCount());
+                Assert.assertEquals(1, cache.getHitCount());
+            }
+        });
+    }
+
+    @Test
+    public void testQueryReadsCachedColumns() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            final String expected = "s\tc\n" +
+                    "1830\t60\n";
+            try (
+                    CairoEngine engine2 = new CairoEngine(new DefaultTestCairoConfiguration(root) {
+                        @Override
+                        public int getColumnBufferCacheRecentPartitionCount() {
+                            return 3;
+                        }
+
+                        @Override
+                        public long getColumnBufferCacheSize() {
+                            return 1024 * 1024;
+                        }
+                    });
+                    SqlCompiler compiler2 = engine2.getSqlCompiler();
+                    SqlExecutionContextImpl executionContext2 = new SqlExecutionContextImpl(engine2, 1)
+            ) {
+                final ColumnBufferCache cache = engine2.getColumnBufferCache();
+                Assert.assertNotNull(cache);
+                TestUtils.assertSql(compiler2, executionContext2, "select sum(i) s, count() c from (x where ts > 0)", sink, expected);
+                Assert.assertTrue(cache.getEntryCount() > 0);
+                final long hitCount = cache.getHitCount();
+                TestUtils.assertSql(compiler2, executionContext2, "select sum(i) s, count() c from (x where ts > 0)", sink, expected);
+                Assert.assertTrue(cache.getHitCount() > hitCount);
+                engine2.clear();
+                Assert.assertEquals(0, cache.getMemUsed());
+            }
+        });
+    }
+
+    @Test
+    public void testScanResistance() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable();
+            try (TableReader reader = getReader("x")) {
+                openPartitions(reader);
+                final long columnSize = getColumn(reader, 0).size();
+                // room for two column files of the older partitions
+                try (ColumnBufferCache cache = new ColumnBufferCache(2 * columnSize, 1, 16)) {
+                    ColumnBufferCache.Entry entry = acquire(cache, reader, 2);
+                    Assert.assertNotNull(entry);
+                    cache.release(entry);
+
+                    // historical scan, twice to pass admission
+                    for (int i = 0; i < 2; i++) {
+                        for (int partitionIndex = 0; partitionIndex < 2; partitionIndex++) {
+                            entry = acquire(cache, reader, partitionIndex);
+                            if (entry != null) {
+                                cache.release(entry);
+                            }
+                        }
+                    }
+                    Assert.assertEquals(2, cache.getEntryCount());
+                    Assert.assertEquals(1, cache.getEvictionCount());
+
+                    // recent partition survived the scan
+                    final long hitCount = cache.getHitCount();
+                    entry = acquire(cache, reader, 2);
+                    Assert.assertNotNull(entry);
+                    Assert.assertEquals(hitCount + 1, cache.getHitCount());
+                    cache.release(entry);
+                }
+            }
+        });
+    }
+
+    private static ColumnBufferCache.Entry acquire(ColumnBufferCache cache, TableReader reader, int partitionIndex) {
+        final MemoryR mem = getColumn(reader, partitionIndex);
+        return cache.acquire(reader, partitionIndex, 0, false, mem.getPageAddress(0), mem.size());
+    }
+
+    private static void assertEntry(ColumnBufferCache.Entry entry, TableReader reader, int partitionIndex) {
+        final MemoryR mem = getColumn(reader, partitionIndex);
+        Assert.assertEquals(mem.size(), entry.getSize());
+        Assert.assertTrue(Vect.memeq(mem.getPageAddress(0), entry.getAddress(), mem.size()));
+    }
+
+    private static void createTable() throws Exception {
+        ddl("create table x (i long, ts timestamp) timestamp(ts) partition by day");
+        // 3 partitions, 23, 24 and 13 rows
+        insert("insert into x select x, (x * 3_600_000_000L)::timestamp from long_sequence(60)");
+    }
+
+    private static MemoryR getColumn(TableReader reader, int partitionIndex) {
+        return reader.getColumn(TableReader.getPrimaryColumnIndex(reader.getColumnBase(partitionIndex), 0));
+    }
+
+    private static void openPartitions(TableReader reader) {
+        for (int i = 0, n = reader.getPartitionCount(); i < n; i++) {
+            reader.openPartition(i);
+        }
+    }
+}
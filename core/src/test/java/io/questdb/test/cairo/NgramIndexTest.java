@@ -0,0 +1,172 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.NgramIndexUtils;
+import io.questdb.std.IntList;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NgramIndexTest extends AbstractCairoTest {
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        setProperty(PropertyKey.CAIRO_NGRAM_INDEX_COLUMNS, "x.msg, x.s");
+    }
+
+    @Test
+    public void testBackfillAcrossCommits() throws Exception {
+        setProperty(PropertyKey.CAIRO_NGRAM_INDEX_BACKFILL_ROW_LIMIT, 100);
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, msg varchar) timestamp(ts) partition by hour");
+            insert("insert into x select (x * 60_000_000)::timestamp, rnd_varchar('foo bar', 'bar baz', 'Foo Qux', null) from long_sequence(600)");
+            // partitions other than the last one are indexed a hundred rows per commit
+            insert("insert into x values ('1970-01-01T10:00:00.000000Z', 'foo')");
+            assertMatchesScan("x where msg like '%foo%'");
+            insert("insert into x values ('1970-01-01T10:00:01.000000Z', 'foo')");
+            assertMatchesScan("x where msg ilike '%foo%'");
+        });
+    }
+
+    @Test
+    public void testCollectNeedleKeys() {
+        final IntList keys = new IntList();
+        NgramIndexUtils.collectNeedleKeys("abab", true, false, keys);
+        // "aba" and "bab"
+        Assert.assertEquals(2, keys.size());
+
+        keys.clear();
+        NgramIndexUtils.collectNeedleKeys("ABC", true, false, keys);
+        Assert.assertEquals(NgramIndexUtils.key('a', 'b', 'c'), keys.getQuick(0));
+
+        keys.clear();
+        NgramIndexUtils.collectNeedleKeys("жжж", true, true, keys);
+        Assert.assertEquals(0, keys.size());
+
+        keys.clear();
+        NgramIndexUtils.collectNeedleKeys("abcdefghijklmnopqrstuvwxyz", false, false, keys);
+        Assert.assertEquals(NgramIndexUtils.MAX_NEEDLE_KEYS, keys.size());
+        Assert.assertEquals(NgramIndexUtils.key('a', 'b', 'c'), keys.getQuick(0));
+        Assert.assertEquals(NgramIndexUtils.key('x', 'y', 'z'), keys.getQuick(NgramIndexUtils.MAX_NEEDLE_KEYS - 1));
+    }
+
+    @Test
+    public void testLikeString() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, s string) timestamp(ts) partition by day");
+            insert("insert into x select (x * 1_000_000_000)::timestamp, rnd_str('hello world', 'Hello there', 'привет мир', 'world', null) from long_sequence(1000)");
+            assertMatchesScan("x where s like '%world%'");
+            assertMatchesScan("x where s ilike '%HELLO%'");
+            assertMatchesScan("x where s like '%мир'");
+            assertMatchesScan("x where s ~ 'wor.d'");
+        });
+    }
+
+    @Test
+    public void testLikeVarchar() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, msg varchar, v long) timestamp(ts) partition by day");
+            insert("insert into x select (x * 1_000_000_000)::timestamp, rnd_varchar('connection reset', 'Connection refused', 'timeout', 'réseau coupé', null), x from long_sequence(1000)");
+
+            assertPlanNoLeakCheck(
+                    "x where msg like '%reset%'",
+                    "PageFrame\n" +
+                            "    Ngram index scan on: msg\n" +
+                            "      literal: reset\n" +
+                            "      filter: msg like %reset%\n" +
+                            "    Frame forward scan on: x\n"
+            );
+
+            assertMatchesScan("x where msg like '%reset%' and v > 10");
+            assertMatchesScan("x where msg like '%connection%'");
+            assertMatchesScan("x where msg ilike '%connection%'");
+            assertMatchesScan("x where msg like '%coupé'");
+            assertMatchesScan("x where msg like 'conn_ction re%'");
+            assertMatchesScan("x where msg ~ 'refus(ed)?$'");
+            assertMatchesScan("x where msg like '%nothing like this%'");
+        });
+    }
+
+    @Test
+    public void testNewColumnAndColumnTop() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, v long) timestamp(ts) partition by day");
+            insert("insert into x select (x * 100_000_000)::timestamp, x from long_sequence(1000)");
+            ddl("alter table x add column msg varchar");
+            insert("insert into x select (100_000_000_000 + x * 100_000_000)::timestamp, x, rnd_varchar('abcdef', 'bcdefg', null) from long_sequence(1000)");
+            assertMatchesScan("x where msg like '%cde%'");
+        });
+    }
+
+    @Test
+    public void testO3AndUpdate() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, msg varchar) timestamp(ts) partition by day");
+            insert("insert into x select (x * 1_000_000_000)::timestamp, rnd_varchar('apple pie', 'pineapple', 'grape', null) from long_sequence(1000)");
+            insert("insert into x select (x * 1_000_000_000 + 1)::timestamp, rnd_varchar('apple tart', 'crab apple', null) from long_sequence(500)");
+            assertMatchesScan("x where msg like '%apple%'");
+            ddl("update x set msg = 'banana' where msg = 'pineapple'");
+            assertMatchesScan("x where msg like '%apple%'");
+            assertMatchesScan("x where msg like '%banana%'");
+        });
+    }
+
+    @Test
+    public void testTruncateNonPartitioned() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (msg varchar)");
+            insert("insert into x select rnd_varchar('needle in haystack', 'haystack', null) from long_sequence(200)");
+            assertMatchesScan("x where msg like '%needle%'");
+            ddl("truncate table x");
+            insert("insert into x select rnd_varchar('haystack', 'needles', null) from long_sequence(500)");
+            assertMatchesScan("x where msg like '%needle%'");
+        });
+    }
+
+    @Test
+    public void testWal() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, msg varchar) timestamp(ts) partition by day wal");
+            insert("insert into x select (x * 1_000_000_000)::timestamp, rnd_varchar('error: disk full', 'warning: disk almost full', 'ok', null) from long_sequence(1000)");
+            insert("insert into x select (x * 1_000_000_000 - 1)::timestamp, rnd_varchar('error: out of memory', 'ok', null) from long_sequence(1000)");
+            drainWalQueue();
+            assertMatchesScan("x where msg like 'error:%'");
+            assertMatchesScan("x where msg like '%full'");
+        });
+    }
+
+    private void assertMatchesScan(String query) throws Exception {
+        // the same filter over a column expression is not eligible for the index
+        final String scanQuery = query.replace("where msg ", "where msg::varchar ").replace("where s ", "where s::string ");
+        Assert.assertNotEquals(query, scanQuery);
+        assertSqlCursors(scanQuery, query);
+    }
+}
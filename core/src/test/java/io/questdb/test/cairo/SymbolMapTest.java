@@ -818,6 +818,48 @@ public class SymbolMapTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSharedReaderCache() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (sym symbol cache, ts timestamp) timestamp(ts) partition by day");
+            insert("insert into x select rnd_symbol('a', 'b', 'c'), x::timestamp from long_sequence(10)");
+
+            final SymbolTableCache cache = engine.getSymbolTableCache();
+            Assert.assertNotNull(cache);
+            try (
+                    TableReader reader1 = getReader("x");
+                    TableReader reader2 = getReader("x")
+            ) {
+                Assert.assertNotSame(reader1, reader2);
+                Assert.assertEquals(1, cache.getEntryCount());
+
+                final CharSequence value = reader1.getSymbolMapReader(0).valueOf(1);
+                Assert.assertNotNull(value);
+                // the second reader finds the value resolved by the first one
+                Assert.assertSame(value, reader2.getSymbolMapReader(0).valueOf(1));
+
+                // values appended by the writer become visible to refreshed readers
+                insert("insert into x values ('d', '1970-01-02')");
+                Assert.assertTrue(reader1.reload());
+                Assert.assertTrue(reader2.reload());
+                TestUtils.assertEquals("d", reader1.getSymbolMapReader(0).valueOf(3));
+                Assert.assertSame(reader1.getSymbolMapReader(0).valueOf(3), reader2.getSymbolMapReader(0).valueOf(3));
+
+                // truncate starts new version of the symbol table
+                ddl("truncate table x");
+                insert("insert into x values ('e', '1970-01-02')");
+                Assert.assertTrue(reader1.reload());
+                TestUtils.assertEquals("e", reader1.getSymbolMapReader(0).valueOf(0));
+                Assert.assertEquals(2, cache.getEntryCount());
+                Assert.assertTrue(reader2.reload());
+                Assert.assertEquals(1, cache.getEntryCount());
+                TestUtils.assertEquals("e", reader2.getSymbolMapReader(0).valueOf(0));
+            }
+            engine.releaseAllReaders();
+            Assert.assertEquals(0, cache.getEntryCount());
+        });
+    }
+
     @Test
     public void testShortHeader() throws Exception {
         TestUtils.assertMemoryLeak(() -> {
@@ -44,6 +44,7 @@ import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -1988,6 +1989,54 @@ public class TableReaderTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testMmapAdvice() throws Exception {
+        Assume.assumeTrue(Os.isLinux());
+        node1.setProperty(PropertyKey.CAIRO_COLUMN_MMAP_HUGE_PAGES_ENABLED, true);
+        node1.setProperty(PropertyKey.CAIRO_COLUMN_MMAP_POPULATE_PARTITION_COUNT, 1);
+        node1.setProperty(PropertyKey.CAIRO_COLUMN_MMAP_SCAN_ADVICE_ENABLED, true);
+        final AtomicInteger hugePageCount = new AtomicInteger();
+        final AtomicInteger randomCount = new AtomicInteger();
+        final AtomicInteger sequentialCount = new AtomicInteger();
+        final AtomicInteger willNeedCount = new AtomicInteger();
+
+        assertMemoryLeak(() -> {
+            ff = new TestFilesFacadeImpl() {
+                @Override
+                public void madvise(long address, long len, int advise) {
+                    if (advise == Files.MADV_HUGEPAGE) {
+                        hugePageCount.incrementAndGet();
+                    } else if (advise == Files.POSIX_MADV_WILLNEED) {
+                        willNeedCount.incrementAndGet();
+                    } else if (advise == Files.POSIX_MADV_SEQUENTIAL) {
+                        sequentialCount.incrementAndGet();
+                    } else if (advise == Files.POSIX_MADV_RANDOM) {
+                        randomCount.incrementAndGet();
+                    }
+                    super.madvise(address, len, advise);
+                }
+            };
+
+            ddl("create table x (i int, sym symbol index, ts timestamp) timestamp(ts) partition by day");
+            insert("insert into x select x::int, 'a' || (x % 3), (x * 3_600_000_000L)::timestamp from long_sequence(60)");
+            engine.releaseAllWriters();
+            hugePageCount.set(0);
+            willNeedCount.set(0);
+            sequentialCount.set(0);
+            randomCount.set(0);
+
+            assertSql("s\n1830\n", "select sum(i) s from x");
+            // 3 partitions, 3 column files each; only the most recent partition is pre-faulted
+            Assert.assertEquals(9, hugePageCount.get());
+            Assert.assertEquals(3, willNeedCount.get());
+            Assert.assertTrue(sequentialCount.get() > 0);
+
+            randomCount.set(0);
+            assertSql("count\n20\n", "select count(*) from (select * from x where sym = 'a1')");
+            Assert.assertTrue(randomCount.get() > 0);
+        });
+    }
+
     @Test
     public void testNullValueRecovery() throws Exception {
         final String expected = "int\tshort\tbyte\tdouble\tfloat\tlong\tstr\tsym\tbool\tbin\tdate\tvarchar\n" +
@@ -2520,6 +2569,52 @@ public class TableReaderTest extends AbstractCairoTest {
         testReload(PartitionBy.YEAR, 200, 60 * 60000 * 24L, MUST_SWITCH);
     }
 
+    @Test
+    public void testReloadChangedPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, v long, ts timestamp) timestamp(ts) partition by day");
+            insert("insert into x select x::int, x, (x * 3_600_000_000L)::timestamp from long_sequence(240)");
+
+            final TableToken tableToken = engine.verifyTableName("x");
+            final PartitionChangeLog partitionChangeLog = engine.getPartitionChangeLog(tableToken);
+            Assert.assertNotNull(partitionChangeLog);
+            try (TableReader reader = getReader(tableToken)) {
+                assertReaderMatchesOffPoolReader(reader);
+
+                // O3 insert into a partition in the middle
+                final long txn = reader.getTxn();
+                insert("insert into x values (-1, -1, '1970-01-04T10:30:00.000000Z')");
+                final LongList changedPartitions = new LongList();
+                Assert.assertTrue(partitionChangeLog.collect(txn, txn + 1, changedPartitions));
+                Assert.assertTrue(changedPartitions.size() > 0);
+                Assert.assertTrue(reader.reload());
+                assertReaderMatchesOffPoolReader(reader);
+
+                // column versions change in some partitions
+                ddl("update x set v = 42 where ts in '1970-01-06'");
+                Assert.assertTrue(reader.reload());
+                assertReaderMatchesOffPoolReader(reader);
+
+                // O3 insert and append in the same transaction
+                insert("insert into x values (-2, -2, '1970-01-02T10:30:00.000000Z'), (-3, -3, '1970-01-13T10:30:00.000000Z')");
+                Assert.assertTrue(reader.reload());
+                assertReaderMatchesOffPoolReader(reader);
+
+                // partition removal falls back to full reconciliation
+                ddl("alter table x drop partition list '1970-01-03'");
+                Assert.assertTrue(reader.reload());
+                assertReaderMatchesOffPoolReader(reader);
+
+                // several transactions between reloads
+                insert("insert into x values (-4, -4, '1970-01-05T10:30:00.000000Z')");
+                insert("insert into x values (-5, -5, '1970-01-07T10:30:00.000000Z')");
+                insert("insert into x values (-6, -6, '1970-01-13T11:30:00.000000Z')");
+                Assert.assertTrue(reader.reload());
+                assertReaderMatchesOffPoolReader(reader);
+            }
+        });
+    }
+
     @Test
     public void testReloadDaySamePartition() throws Exception {
         testReload(PartitionBy.DAY, 10, 60L * 60000, MUST_NOT_SWITCH);
@@ -3436,6 +3531,17 @@ public class TableReaderTest extends AbstractCairoTest {
         }
     }
 
+    private static void assertReaderMatchesOffPoolReader(TableReader reader) {
+        try (
+                TableReader expectedReader = newOffPoolReader(configuration, reader.getTableToken().getTableName());
+                TestTableReaderRecordCursor cursor = new TestTableReaderRecordCursor().of(expectedReader)
+        ) {
+            sink.clear();
+            CursorPrinter.println(cursor, expectedReader.getMetadata(), sink);
+            TestUtils.assertReader(sink, reader, new StringSink());
+        }
+    }
+
     private static void assertNullStr(Record r, int index) {
         Assert.assertNull(r.getStrA(index));
         Assert.assertNull(r.getStrB(index));
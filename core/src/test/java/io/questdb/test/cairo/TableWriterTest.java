@@ -40,6 +40,8 @@ import io.questdb.griffin.engine.ops.AlterOperationBuilder;
 import io.questdb.griffin.model.IntervalUtils;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolUtils;
 import io.questdb.std.*;
 import io.questdb.std.datetime.DateFormat;
 import io.questdb.std.datetime.DateLocale;
@@ -50,6 +52,7 @@ import io.questdb.std.datetime.microtime.Timestamps;
 import io.questdb.std.str.*;
 import io.questdb.test.AbstractCairoTest;
 import io.questdb.test.CreateTableTestUtils;
+import io.questdb.test.mp.TestWorkerPool;
 import io.questdb.test.std.TestFilesFacadeImpl;
 import io.questdb.test.tools.TestUtils;
 import org.jetbrains.annotations.NotNull;
@@ -57,8 +60,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class TableWriterTest extends AbstractCairoTest {
@@ -1583,6 +1589,107 @@ public class TableWriterTest extends AbstractCairoTest {
         }
     }
 
+    @Test
+    public void testCommitSyncInterval() throws Exception {
+        setProperty(PropertyKey.CAIRO_COMMIT_MODE, "sync");
+        setProperty(PropertyKey.CAIRO_COMMIT_SYNC_INTERVAL, 1000);
+        assertMemoryLeak(() -> {
+            ddl("create table x (a int, s symbol, v varchar, ts timestamp) timestamp(ts) partition by day bypass wal");
+            setCurrentMicros(10 * Timestamps.SECOND_MICROS);
+            try (TableWriter writer = getWriter("x")) {
+                appendCommitSyncRow(writer, 1);
+                Assert.assertFalse(writer.isCommitSyncPending());
+
+                // within the interval the flush is only scheduled
+                appendCommitSyncRow(writer, 2);
+                Assert.assertTrue(writer.isCommitSyncPending());
+
+                setCurrentMicros(12 * Timestamps.SECOND_MICROS);
+                appendCommitSyncRow(writer, 3);
+                Assert.assertFalse(writer.isCommitSyncPending());
+
+                appendCommitSyncRow(writer, 4);
+                Assert.assertTrue(writer.isCommitSyncPending());
+
+                // tick flushes pending commits once the interval elapses
+                writer.tick();
+                Assert.assertTrue(writer.isCommitSyncPending());
+                setCurrentMicros(14 * Timestamps.SECOND_MICROS);
+                writer.tick();
+                Assert.assertFalse(writer.isCommitSyncPending());
+
+                appendCommitSyncRow(writer, 5);
+                Assert.assertTrue(writer.isCommitSyncPending());
+            } finally {
+                setCurrentMicros(-1);
+            }
+
+            assertSql(
+                    "a\ts\tv\tts\n" +
+                            "1\ts1\tv1\t1970-01-01T00:00:00.000001Z\n" +
+                            "2\ts2\tv2\t1970-01-01T00:00:00.000002Z\n" +
+                            "3\ts3\tv3\t1970-01-01T00:00:00.000003Z\n" +
+                            "4\ts4\tv4\t1970-01-01T00:00:00.000004Z\n" +
+                            "5\ts5\tv5\t1970-01-01T00:00:00.000005Z\n",
+                    "x"
+            );
+        });
+    }
+
+    @Test
+    public void testCommitSyncParallel() throws Exception {
+        setProperty(PropertyKey.CAIRO_COMMIT_MODE, "sync");
+        final AtomicInteger syncCount = new AtomicInteger();
+        final Set<Thread> syncThreads = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean holdFirstSync = new AtomicBoolean();
+        final FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public void msync(long addr, long len, boolean async) {
+                if (!async) {
+                    syncCount.incrementAndGet();
+                    syncThreads.add(Thread.currentThread());
+                    if (holdFirstSync.compareAndSet(true, false)) {
+                        // keep the first flush busy until another thread flushes concurrently
+                        final long deadline = System.currentTimeMillis() + 30_000;
+                        while (syncThreads.size() < 2 && System.currentTimeMillis() < deadline) {
+                            Os.pause();
+                        }
+                    }
+                }
+                super.msync(addr, len, async);
+            }
+        };
+        final WorkerPool pool = new TestWorkerPool(2);
+        assertMemoryLeak(ff, () -> {
+            ddl("create table x (a int, b long, s symbol index, str string, v varchar, ts timestamp) timestamp(ts) partition by day bypass wal");
+            ddl("create table y (a int, b long, s symbol index, str string, v varchar, ts timestamp) timestamp(ts) partition by day bypass wal");
+            final String values = " select x::int, x, rnd_symbol('a', 'b', 'c'), rnd_str(), rnd_varchar(), timestamp_sequence(0, 3600000000) from long_sequence(100)";
+            WorkerPoolUtils.setupWriterJobs(pool, engine);
+            pool.start(LOG);
+            try {
+                syncCount.set(0);
+                syncThreads.clear();
+                holdFirstSync.set(true);
+                insert("insert into x" + values);
+                final int parallelSyncCount = syncCount.get();
+                Assert.assertTrue(parallelSyncCount > 0);
+                Assert.assertTrue(syncThreads.size() > 1);
+
+                setProperty(PropertyKey.CAIRO_COMMIT_SYNC_PARALLEL_ENABLED, "false");
+                syncCount.set(0);
+                syncThreads.clear();
+                insert("insert into y" + values);
+                Assert.assertEquals(parallelSyncCount, syncCount.get());
+                Assert.assertEquals(1, syncThreads.size());
+            } finally {
+                pool.halt();
+            }
+
+            // parallel and serial flush leave the same data behind
+            TestUtils.assertSqlCursors(engine, sqlExecutionContext, "x", "y", LOG);
+        });
+    }
+
     @Test
     public void testConstructorTruncatedTodo() throws Exception {
         FilesFacade ff = new TestFilesFacadeImpl() {
@@ -3177,6 +3284,15 @@ public class TableWriterTest extends AbstractCairoTest {
         }
     }
 
+    private static void appendCommitSyncRow(TableWriter writer, int i) {
+        TableWriter.Row row = writer.newRow(i);
+        row.putInt(0, i);
+        row.putSym(1, "s" + i);
+        row.putVarchar(2, new Utf8String("v" + i));
+        row.append();
+        writer.commit();
+    }
+
     private static void danglingO3TransactionModifier(TableWriter w, Rnd rnd, long timestamp, long increment) {
         TableWriter.Row r = w.newRow(timestamp - increment * 4);
         r.putSym(0, rnd.nextString(5));
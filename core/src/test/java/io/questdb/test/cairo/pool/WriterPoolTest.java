@@ -32,6 +32,8 @@ import io.questdb.cairo.pool.ex.PoolClosedException;
 import io.questdb.mp.SOCountDownLatch;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.Os;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.LPSZ;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.Utf8s;
@@ -640,6 +642,63 @@ public class WriterPoolTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testReleaseInactiveSyncsPendingCommits() throws Exception {
+        final long[] millis = {10_000};
+        DefaultCairoConfiguration configuration = new DefaultTestCairoConfiguration(root) {
+            @Override
+            public int getCommitMode() {
+                return CommitMode.SYNC;
+            }
+
+            @Override
+            public long getCommitSyncInterval() {
+                return 1000;
+            }
+
+            @Override
+            public long getInactiveWriterTTL() {
+                return 60_000;
+            }
+
+            @Override
+            public @NotNull MicrosecondClock getMicrosecondClock() {
+                return () -> millis[0] * 1000;
+            }
+
+            @Override
+            public @NotNull MillisecondClock getMillisecondClock() {
+                return () -> millis[0];
+            }
+        };
+
+        assertWithPool(pool -> {
+            final TableWriter writer1;
+            try (TableWriter writer = pool.get(zTableToken, "testing")) {
+                writer1 = writer;
+                for (int i = 0; i < 2; i++) {
+                    TableWriter.Row row = writer.newRow();
+                    row.putDate(0, i);
+                    row.append();
+                    writer.commit();
+                }
+                Assert.assertTrue(writer.isCommitSyncPending());
+            }
+
+            // sync interval has not elapsed yet
+            pool.releaseInactive();
+            Assert.assertTrue(writer1.isCommitSyncPending());
+
+            millis[0] += 1000;
+            Assert.assertFalse(pool.releaseInactive());
+            try (TableWriter writer = pool.get(zTableToken, "testing")) {
+                // idle writer stays in the pool and its commits are flushed
+                Assert.assertSame(writer1, writer);
+                Assert.assertFalse(writer.isCommitSyncPending());
+            }
+        }, configuration);
+    }
+
     @Test
     public void testReplaceWriterAfterUnlock() throws Exception {
         assertWithPool(pool -> {
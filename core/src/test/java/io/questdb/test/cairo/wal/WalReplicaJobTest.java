@@ -0,0 +1,180 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.wal;
+
+import io.questdb.Metrics;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.wal.ApplyWal2TableJob;
+import io.questdb.cairo.wal.WalMetrics;
+import io.questdb.cairo.wal.WalReplicaJob;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.cairo.DefaultTestCairoConfiguration;
+import io.questdb.test.tools.TestUtils;
+import org.jetbrains.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WalReplicaJobTest extends AbstractCairoTest {
+
+    @Test
+    public void testReplicaFollowsAppendsToActiveSegment() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, v int, s symbol, vc varchar, str string) timestamp(ts) partition by DAY WAL");
+            insert("insert into x values ('2024-01-01T00:00:00.000000Z', 1, 'a', 'v1', 's1')");
+            drainWalQueue();
+
+            engine.releaseAllWriters();
+            engine.releaseAllReaders();
+            engine.releaseInactiveTableSequencers();
+            final String primaryRoot = configuration.getRoot();
+            final String replicaRoot = temp.newFolder("replica").getAbsolutePath();
+            try (Path src = new Path(); Path dst = new Path()) {
+                Assert.assertEquals(0, ff.copyRecursive(src.of(primaryRoot), dst.of(replicaRoot), configuration.getMkDirMode()));
+            }
+
+            insert("insert into x values ('2024-01-01T01:00:00.000000Z', 2, 'b', 'v2', 's2')");
+
+            final Metrics metrics = Metrics.enabled();
+            try (
+                    CairoEngine replica = new CairoEngine(new DefaultTestCairoConfiguration(replicaRoot) {
+                        @Override
+                        public long getWalReplicaPollInterval() {
+                            return 0;
+                        }
+
+                        @Override
+                        public @Nullable CharSequence getWalReplicaSourceRoot() {
+                            return primaryRoot;
+                        }
+                    }, metrics);
+                    WalReplicaJob replicaJob = new WalReplicaJob(replica, null);
+                    ApplyWal2TableJob applyJob = new ApplyWal2TableJob(replica, 1, 1);
+                    SqlExecutionContext replicaContext = TestUtils.createSqlExecutionCtx(replica)
+            ) {
+                Assert.assertTrue(replicaJob.poll());
+                drainWalQueue(applyJob, replica);
+                final StringSink sink = new StringSink();
+                TestUtils.assertSql(
+                        replica,
+                        replicaContext,
+                        "x",
+                        sink,
+                        "ts\tv\ts\tvc\tstr\n" +
+                                "2024-01-01T00:00:00.000000Z\t1\ta\tv1\ts1\n" +
+                                "2024-01-01T01:00:00.000000Z\t2\tb\tv2\ts2\n"
+                );
+
+                // the same WAL segment grows within the pages it has already mapped,
+                // file sizes on the primary do not change
+                insert("insert into x values ('2024-01-01T02:00:00.000000Z', 3, 'a', 'v3', 's3')");
+                insert("insert into x values ('2024-01-01T03:00:00.000000Z', 4, 'c', 'v4', 's4')");
+
+                Assert.assertTrue(replicaJob.poll());
+                Assert.assertEquals(3, metrics.walMetrics().getReplicaShippedTransactions());
+                drainWalQueue(applyJob, replica);
+                TestUtils.assertSql(
+                        replica,
+                        replicaContext,
+                        "x",
+                        sink,
+                        "ts\tv\ts\tvc\tstr\n" +
+                                "2024-01-01T00:00:00.000000Z\t1\ta\tv1\ts1\n" +
+                                "2024-01-01T01:00:00.000000Z\t2\tb\tv2\ts2\n" +
+                                "2024-01-01T02:00:00.000000Z\t3\ta\tv3\ts3\n" +
+                                "2024-01-01T03:00:00.000000Z\t4\tc\tv4\ts4\n"
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testReplicaFollowsPrimaryDataAndStructureChanges() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, v int) timestamp(ts) partition by DAY WAL");
+            insert("insert into x values ('2024-01-01T00:00:00.000000Z', 1)");
+            drainWalQueue();
+
+            // seed the replica from a consistent copy of the primary
+            engine.releaseAllWriters();
+            engine.releaseAllReaders();
+            engine.releaseInactiveTableSequencers();
+            final String primaryRoot = configuration.getRoot();
+            final String replicaRoot = temp.newFolder("replica").getAbsolutePath();
+            try (Path src = new Path(); Path dst = new Path()) {
+                Assert.assertEquals(0, ff.copyRecursive(src.of(primaryRoot), dst.of(replicaRoot), configuration.getMkDirMode()));
+            }
+
+            insert("insert into x values ('2024-01-01T01:00:00.000000Z', 2)");
+            ddl("alter table x add column s symbol");
+            insert("insert into x values ('2024-01-02T00:00:00.000000Z', 3, 'abc')");
+
+            final Metrics metrics = Metrics.enabled();
+            try (
+                    CairoEngine replica = new CairoEngine(new DefaultTestCairoConfiguration(replicaRoot) {
+                        @Override
+                        public long getWalReplicaPollInterval() {
+                            return 0;
+                        }
+
+                        @Override
+                        public @Nullable CharSequence getWalReplicaSourceRoot() {
+                            return primaryRoot;
+                        }
+                    }, metrics);
+                    WalReplicaJob replicaJob = new WalReplicaJob(replica, null);
+                    ApplyWal2TableJob applyJob = new ApplyWal2TableJob(replica, 1, 1);
+                    SqlExecutionContext replicaContext = TestUtils.createSqlExecutionCtx(replica)
+            ) {
+                Assert.assertTrue(replicaJob.poll());
+                final WalMetrics walMetrics = metrics.walMetrics();
+                Assert.assertEquals(3, walMetrics.getReplicaShippedTransactions());
+                Assert.assertEquals(3, walMetrics.getReplicaLagTransactions());
+
+                drainWalQueue(applyJob, replica);
+                final StringSink sink = new StringSink();
+                TestUtils.assertSql(
+                        replica,
+                        replicaContext,
+                        "x",
+                        sink,
+                        "ts\tv\ts\n" +
+                                "2024-01-01T00:00:00.000000Z\t1\t\n" +
+                                "2024-01-01T01:00:00.000000Z\t2\t\n" +
+                                "2024-01-02T00:00:00.000000Z\t3\tabc\n"
+                );
+
+                // nothing new on the primary, the replica has caught up
+                Assert.assertFalse(replicaJob.poll());
+                Assert.assertEquals(3, walMetrics.getReplicaShippedTransactions());
+                Assert.assertEquals(0, walMetrics.getReplicaLagTransactions());
+                Assert.assertEquals(0, walMetrics.getReplicaLagMicros());
+            }
+        });
+    }
+}
@@ -48,6 +48,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -1074,6 +1075,58 @@ public class WalWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testConcurrentCommitsShareSequencerFlush() throws Exception {
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+
+            final int numOfThreads = 8;
+            final int numOfCommits = 50;
+            final int numOfTxn = numOfThreads * numOfCommits;
+            final WalMetrics walMetrics = engine.getMetrics().walMetrics();
+            final long commitsBefore = walMetrics.getCommitCount();
+            final long flushesBefore = walMetrics.getSequencerGroupCommits();
+            final long flushedTxnsBefore = walMetrics.getSequencerGroupCommitTransactions();
+
+            final CyclicBarrier start = new CyclicBarrier(numOfThreads);
+            final SOCountDownLatch writeFinished = new SOCountDownLatch(numOfThreads);
+            final AtomicInteger errors = new AtomicInteger();
+            for (int i = 0; i < numOfThreads; i++) {
+                new Thread(() -> {
+                    try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                        start.await();
+                        for (int n = 0; n < numOfCommits; n++) {
+                            TableWriter.Row row = walWriter.newRow(n);
+                            row.putByte(0, (byte) n);
+                            row.putStr(1, "test" + n);
+                            row.append();
+                            walWriter.commit();
+                        }
+                    } catch (Throwable th) {
+                        th.printStackTrace();
+                        errors.incrementAndGet();
+                    } finally {
+                        Path.clearThreadLocals();
+                        writeFinished.countDown();
+                    }
+                }).start();
+            }
+            writeFinished.await();
+            assertEquals(0, errors.get());
+
+            // every transaction is made durable exactly once, by a flush shared with its batch
+            assertEquals(numOfTxn, engine.getTableSequencerAPI().lastTxn(tableToken));
+            assertEquals(numOfTxn, walMetrics.getCommitCount() - commitsBefore);
+            assertEquals(numOfTxn, walMetrics.getSequencerGroupCommitTransactions() - flushedTxnsBefore);
+            final long flushes = walMetrics.getSequencerGroupCommits() - flushesBefore;
+            assertTrue(flushes > 0 && flushes <= numOfTxn);
+
+            drainWalQueue();
+            assertSql("count\n" + numOfTxn + "\n", "select count() from " + tableName);
+        });
+    }
+
     @Test
     public void testConcurrentInsert() throws Exception {
         assertMemoryLeak(() -> {
@@ -2489,6 +2542,115 @@ public class WalWriterTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testRollToNextSegmentCompressedWhileApplyLags() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED, true);
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_LAG_TXN_COUNT, 1);
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_SIZE, 0);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+            final WalMetrics walMetrics = engine.getMetrics().walMetrics();
+            final long compressedSegmentsBefore = walMetrics.getCompressedSegments();
+
+            final String walName;
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                walName = walWriter.getWalName();
+                for (int i = 0; i < 1000; i++) {
+                    TableWriter.Row row = walWriter.newRow(i);
+                    row.putByte(0, (byte) (i % 10));
+                    row.putStr(1, "test" + (i % 10));
+                    row.append();
+                }
+                walWriter.commit();
+                walWriter.rollSegment();
+
+                TableWriter.Row row = walWriter.newRow(1000);
+                row.putByte(0, (byte) 42);
+                row.putStr(1, "last");
+                row.append();
+                walWriter.commit();
+            }
+
+            // segment roll only hands the segment over to the compression job
+            assertEquals(compressedSegmentsBefore, walMetrics.getCompressedSegments());
+            try (Path path = new Path().of(configuration.getRoot())) {
+                assertWalFileExist(path, tableToken, walName, 0, "a.d");
+            }
+            try (WalSegmentCompressionJob job = new WalSegmentCompressionJob(engine)) {
+                job.drain(0);
+            }
+
+            // nothing is applied yet, the rolled segment is compressed
+            assertEquals(compressedSegmentsBefore + 1, walMetrics.getCompressedSegments());
+            assertTrue(walMetrics.getCompressionSavedBytes() > 0);
+            try (Path path = new Path().of(configuration.getRoot())) {
+                assertWalFileExist(path, tableToken, walName, 0, "a.d" + WalSegmentCompressionUtils.COMPRESSED_FILE_SUFFIX);
+                assertWalFileExist(path, tableToken, walName, 0, "b.i" + WalSegmentCompressionUtils.COMPRESSED_FILE_SUFFIX);
+                assertFalse(Files.exists(constructPath(path, tableToken, walName, 0, "a.d").$()));
+                assertWalFileExist(path, tableToken, walName, 1, "a.d");
+            }
+
+            drainWalQueue();
+            assertSql(
+                    "a\tb\tcount\n" +
+                            "0\ttest0\t100\n" +
+                            "9\ttest9\t100\n" +
+                            "42\tlast\t1\n",
+                    "select a, b, count() from " + tableName + " where a in (0, 9, 42) order by a"
+            );
+            try (Path path = new Path().of(configuration.getRoot())) {
+                assertWalFileExist(path, tableToken, walName, 0, "a.d");
+                assertWalFileExist(path, tableToken, walName, 0, "b.i");
+            }
+        });
+    }
+
+    @Test
+    public void testRollToNextSegmentNotCompressedOnceApplied() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_ENABLED, true);
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_LAG_TXN_COUNT, 1);
+        node1.setProperty(PropertyKey.CAIRO_WAL_SEGMENT_COMPRESSION_MIN_SIZE, 0);
+        assertMemoryLeak(() -> {
+            final String tableName = testName.getMethodName();
+            TableToken tableToken = createTable(tableName);
+            final WalMetrics walMetrics = engine.getMetrics().walMetrics();
+            final long compressedSegmentsBefore = walMetrics.getCompressedSegments();
+
+            final String walName;
+            try (WalWriter walWriter = engine.getWalWriter(tableToken)) {
+                walName = walWriter.getWalName();
+                for (int i = 0; i < 100; i++) {
+                    TableWriter.Row row = walWriter.newRow(i);
+                    row.putByte(0, (byte) i);
+                    row.putStr(1, "test" + i);
+                    row.append();
+                }
+                walWriter.commit();
+                walWriter.rollSegment();
+
+                TableWriter.Row row = walWriter.newRow(100);
+                row.putByte(0, (byte) 42);
+                row.putStr(1, "last");
+                row.append();
+                walWriter.commit();
+            }
+
+            // apply job catches up before the compression job runs
+            drainWalQueue();
+            try (WalSegmentCompressionJob job = new WalSegmentCompressionJob(engine)) {
+                job.drain(0);
+            }
+
+            assertEquals(compressedSegmentsBefore, walMetrics.getCompressedSegments());
+            try (Path path = new Path().of(configuration.getRoot())) {
+                assertWalFileExist(path, tableToken, walName, 0, "a.d");
+                assertFalse(Files.exists(constructPath(path, tableToken, walName, 0, "a.d" + WalSegmentCompressionUtils.COMPRESSED_FILE_SUFFIX).$()));
+            }
+            assertSql("count\n101\n", "select count() from " + tableName);
+        });
+    }
+
     public void testRolloverSegmentSize(int colType, boolean colNeedsIndex, long bytesPerRow, long additionalBytesPerTxn, Consumer<TableWriter.Row> valueInserter) throws Exception {
         try {
             assertMemoryLeak(() -> {
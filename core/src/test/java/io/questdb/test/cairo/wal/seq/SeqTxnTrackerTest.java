@@ -165,6 +165,25 @@ public class SeqTxnTrackerTest {
         });
     }
 
+    @Test
+    public void testMaxO3MergeParallelismCappedByConfiguration() {
+        final Rnd rnd = TestUtils.generateRandom(LOG);
+        final String tableName = "table1";
+        final SeqTxnTracker tracker = new SeqTxnTracker(4);
+        assertEquals(4, tracker.getMaxO3MergeParallelism());
+
+        // memory pressure regulation can only reduce the configured parallelism
+        tracker.updateInflightPartitions(4);
+        tracker.onOutOfMemory(0, tableName, rnd);
+        assertEquals(2, tracker.getMaxO3MergeParallelism());
+        for (int i = 0; i < 100; i++) {
+            tracker.hadEnoughMemory(tableName, rnd);
+        }
+        assertEquals(4, tracker.getMaxO3MergeParallelism());
+
+        assertEquals(Integer.MAX_VALUE, new SeqTxnTracker(0).getMaxO3MergeParallelism());
+    }
+
     @Test
     public void testMemoryPressureLevels() {
         final Rnd rnd = TestUtils.generateRandom(LOG);
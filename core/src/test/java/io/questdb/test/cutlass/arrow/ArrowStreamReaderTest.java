@@ -0,0 +1,330 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.wal.WalWriter;
+import io.questdb.cutlass.arrow.ArrowStreamReader;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
+import io.questdb.cutlass.arrow.FlatBufferBuilder;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class ArrowStreamReaderTest extends AbstractCairoTest {
+    private static final byte HEADER_DICTIONARY_BATCH = 2;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte KIND_TIMESTAMP = 10;
+    private static final byte KIND_UTF8 = 5;
+
+    @Test
+    public void testDictionaryEncodedStrings() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (sym symbol, s string, ts timestamp) timestamp(ts) partition by day wal");
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (FlatBufferBuilder builder = new FlatBufferBuilder()) {
+                writeSchema(out, builder);
+
+                // dictionary 0: "a", "b", "c"
+                final ByteBuffer dictionaryBody = body(32);
+                dictionaryBody.putInt(0, 0).putInt(4, 1).putInt(8, 2).putInt(12, 3);
+                dictionaryBody.put(16, (byte) 'a').put(17, (byte) 'b').put(18, (byte) 'c');
+                final int dictionaryBatch = recordBatch(builder, 3, new long[]{3, 0}, new long[]{0, 0, 0, 16, 16, 3});
+                builder.startTable(3);
+                builder.addFieldLong(0, 0);
+                builder.addFieldOffset(1, dictionaryBatch);
+                final int header = builder.endTable();
+                writeMessage(out, builder, HEADER_DICTIONARY_BATCH, header, dictionaryBody);
+
+                // sym: c, null, a, c; s: a, b, null, b
+                final ByteBuffer body = body(88);
+                body.put(0, (byte) 0b1101);
+                body.putInt(8, 2).putInt(12, 0).putInt(16, 0).putInt(20, 2);
+                body.put(24, (byte) 0b1011);
+                body.putInt(32, 0).putInt(36, 1).putInt(40, 0).putInt(44, 1);
+                for (int i = 0; i < 4; i++) {
+                    body.putLong(56 + 8 * i, (i + 1) * 1_000_000L);
+                }
+                final int batch = recordBatch(
+                        builder,
+                        4,
+                        new long[]{4, 1, 4, 1, 4, 0},
+                        new long[]{0, 1, 8, 16, 24, 1, 32, 16, 48, 0, 56, 32}
+                );
+                writeMessage(out, builder, HEADER_RECORD_BATCH, batch, body);
+            }
+            writeEndOfStream(out);
+
+            ingest("x", out.toByteArray(), 5);
+            drainWalQueue();
+            assertSql(
+                    "sym\ts\tts\n" +
+                            "c\ta\t1970-01-01T00:00:01.000000Z\n" +
+                            "\tb\t1970-01-01T00:00:02.000000Z\n" +
+                            "a\t\t1970-01-01T00:00:03.000000Z\n" +
+                            "c\tb\t1970-01-01T00:00:04.000000Z\n",
+                    "x"
+            );
+        });
+    }
+
+    @Test
+    public void testMalformedMessage() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, ts timestamp) timestamp(ts) partition by day wal");
+            final ByteBuffer buf = body(16);
+            buf.putInt(0, -1).putInt(4, 8).putInt(8, 0x7fffffff).putInt(12, 0);
+            assertIngestFails("x", buf.array(), "malformed flatbuffer");
+        });
+    }
+
+    @Test
+    public void testMessageTooLarge() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, ts timestamp) timestamp(ts) partition by day wal");
+            final ByteBuffer buf = body(8);
+            buf.putInt(0, -1).putInt(4, 1 << 30);
+            assertIngestFails("x", buf.array(), "arrow message is too large");
+        });
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table src as (select" +
+                    " rnd_boolean() b," +
+                    " rnd_byte() bt," +
+                    " rnd_short() sh," +
+                    " rnd_int(0, 1000, 2) i," +
+                    " rnd_long(0, 1000, 2) l," +
+                    " rnd_float(2) f," +
+                    " rnd_double(2) d," +
+                    " rnd_date(to_date('2020', 'yyyy'), to_date('2021', 'yyyy'), 2) dt," +
+                    " rnd_symbol('a', 'bb', null) sym," +
+                    " rnd_str(3, 5, 2) str," +
+                    " rnd_varchar(1, 5, 2) v," +
+                    " rnd_uuid4(2) u," +
+                    " rnd_bin(1, 8, 2) bin," +
+                    " timestamp_sequence(0, 1000000) ts" +
+                    " from long_sequence(100))");
+            // i and f are widened, extra column is not in the stream
+            ddl("create table dst (b boolean, bt byte, sh short, i long, l long, f double, d double, dt date," +
+                    " sym symbol, str string, v varchar, u uuid, bin binary, extra int, ts timestamp)" +
+                    " timestamp(ts) partition by day wal");
+
+            ingest("dst", encode("src", 16), 13);
+            drainWalQueue();
+            assertSqlCursors(
+                    "select b, bt, sh, cast(i as long) i, l, cast(f as double) f, d, dt, sym, str, v, u, bin, null::int extra, ts from src",
+                    "dst"
+            );
+        });
+    }
+
+    @Test
+    public void testTruncatedStream() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, ts timestamp) timestamp(ts) partition by day wal");
+            insert("insert into x values (1, 0)");
+            final byte[] stream = encode("x", 16);
+            final byte[] truncated = new byte[stream.length - 12];
+            System.arraycopy(stream, 0, truncated, 0, truncated.length);
+            assertIngestFails("x", truncated, "truncated arrow stream");
+        });
+    }
+
+    @Test
+    public void testUnknownColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table src (i int, j int, ts timestamp)");
+            ddl("create table x (i int, ts timestamp) timestamp(ts) partition by day wal");
+            assertIngestFails("x", encode("src", 16), "column does not exist [column=j]");
+        });
+    }
+
+    private static void assertIngestFails(String tableName, byte[] stream, String expectedError) {
+        try {
+            ingest(tableName, stream, stream.length);
+            Assert.fail();
+        } catch (CairoException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), expectedError);
+        }
+    }
+
+    private static ByteBuffer body(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int createField(FlatBufferBuilder builder, String name, byte kind, int type, int dictionary) {
+        final int nameOffset = builder.createString(name);
+        builder.startVector(Integer.BYTES, 0, Integer.BYTES);
+        final int children = builder.endVector(0);
+        builder.startTable(7);
+        builder.addFieldOffset(0, nameOffset);
+        builder.addFieldBool(1, true);
+        builder.addFieldByte(2, kind);
+        builder.addFieldOffset(3, type);
+        if (dictionary != 0) {
+            builder.addFieldOffset(4, dictionary);
+        }
+        builder.addFieldOffset(5, children);
+        return builder.endTable();
+    }
+
+    private static int createUtf8DictionaryField(FlatBufferBuilder builder, String name) {
+        builder.startTable(2);
+        builder.addFieldInt(0, 32);
+        builder.addFieldBool(1, true);
+        final int indexType = builder.endTable();
+        builder.startTable(4);
+        builder.addFieldLong(0, 0);
+        builder.addFieldOffset(1, indexType);
+        final int dictionary = builder.endTable();
+        builder.startTable(0);
+        final int type = builder.endTable();
+        return createField(builder, name, KIND_UTF8, type, dictionary);
+    }
+
+    private static byte[] encode(String query, int batchRowCount) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (
+                ArrowStreamWriter writer = new ArrowStreamWriter(batchRowCount, MemoryTag.NATIVE_DEFAULT);
+                RecordCursorFactory factory = select(query);
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            writer.of(factory.getMetadata());
+            while (cursor.hasNext()) {
+                writer.appendRecord(cursor.getRecord());
+                if (writer.isBatchFull()) {
+                    writer.flushBatch();
+                }
+            }
+            writer.flushBatch();
+            writer.finish();
+            for (long p = writer.getPendingLo(), hi = writer.getPendingHi(); p < hi; p++) {
+                out.write(Unsafe.getUnsafe().getByte(p));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void ingest(String tableName, byte[] stream, int chunkSize) {
+        final long buf = Unsafe.malloc(stream.length, MemoryTag.NATIVE_DEFAULT);
+        try (
+                ArrowStreamReader reader = new ArrowStreamReader(1024 * 1024, MemoryTag.NATIVE_DEFAULT);
+                WalWriter writer = getWalWriter(tableName)
+        ) {
+            for (int i = 0; i < stream.length; i++) {
+                Unsafe.getUnsafe().putByte(buf + i, stream[i]);
+            }
+            reader.of(writer);
+            for (int lo = 0; lo < stream.length; lo += chunkSize) {
+                reader.onChunk(buf + lo, buf + Math.min(lo + chunkSize, stream.length));
+            }
+            reader.onStreamEnd();
+            writer.commit();
+        } finally {
+            Unsafe.free(buf, stream.length, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
+    private static int recordBatch(FlatBufferBuilder builder, long length, long[] nodes, long[] buffers) {
+        builder.startVector(16, buffers.length / 2, 8);
+        for (int i = buffers.length - 2; i > -1; i -= 2) {
+            builder.addStructOfLongs(buffers[i], buffers[i + 1]);
+        }
+        final int buffersOffset = builder.endVector(buffers.length / 2);
+        builder.startVector(16, nodes.length / 2, 8);
+        for (int i = nodes.length - 2; i > -1; i -= 2) {
+            builder.addStructOfLongs(nodes[i], nodes[i + 1]);
+        }
+        final int nodesOffset = builder.endVector(nodes.length / 2);
+        builder.startTable(4);
+        builder.addFieldLong(0, length);
+        builder.addFieldOffset(1, nodesOffset);
+        builder.addFieldOffset(2, buffersOffset);
+        return builder.endTable();
+    }
+
+    private static void writeEndOfStream(ByteArrayOutputStream out) {
+        final ByteBuffer eos = body(8);
+        eos.putInt(0, -1).putInt(4, 0);
+        out.write(eos.array(), 0, 8);
+    }
+
+    private static void writeMessage(ByteArrayOutputStream out, FlatBufferBuilder builder, byte headerType, int header, ByteBuffer body) {
+        final int bodyLength = body != null ? body.capacity() : 0;
+        builder.startTable(5);
+        builder.addFieldShort(0, (short) 4);
+        builder.addFieldByte(1, headerType);
+        builder.addFieldOffset(2, header);
+        builder.addFieldLong(3, bodyLength);
+        builder.finish(builder.endTable());
+
+        final int size = builder.getBufferSize();
+        final int paddedSize = ((size + 8 + 7) & ~7) - 8;
+        final ByteBuffer prefix = body(8);
+        prefix.putInt(0, -1).putInt(4, paddedSize);
+        out.write(prefix.array(), 0, 8);
+        for (int i = 0; i < paddedSize; i++) {
+            out.write(i < size ? Unsafe.getUnsafe().getByte(builder.getBufferAddress() + i) : 0);
+        }
+        if (body != null) {
+            out.write(body.array(), 0, bodyLength);
+        }
+        builder.clear();
+    }
+
+    private static void writeSchema(ByteArrayOutputStream out, FlatBufferBuilder builder) {
+        final int sym = createUtf8DictionaryField(builder, "sym");
+        final int s = createUtf8DictionaryField(builder, "s");
+        builder.startTable(2);
+        builder.addFieldShort(0, (short) 2);
+        final int timestampType = builder.endTable();
+        final int ts = createField(builder, "ts", KIND_TIMESTAMP, timestampType, 0);
+
+        builder.startVector(Integer.BYTES, 3, Integer.BYTES);
+        builder.addOffset(ts);
+        builder.addOffset(s);
+        builder.addOffset(sym);
+        final int fields = builder.endVector(3);
+        builder.startTable(4);
+        builder.addFieldShort(0, (short) 0);
+        builder.addFieldOffset(1, fields);
+        writeMessage(out, builder, HEADER_SCHEMA, builder.endTable(), null);
+    }
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.arrow;
+
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class ArrowStreamWriterTest extends AbstractCairoTest {
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte HEADER_SCHEMA = 1;
+
+    @Test
+    public void testEmptyResultSet() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, s string)");
+            final ByteBuffer buf = encode("x", 16);
+
+            int pos = 0;
+            Assert.assertEquals(HEADER_SCHEMA, headerType(buf, pos));
+            pos = nextMessage(buf, pos);
+            // no record batches, only end-of-stream marker
+            Assert.assertEquals(-1, buf.getInt(pos));
+            Assert.assertEquals(0, buf.getInt(pos + 4));
+            Assert.assertEquals(pos + 8, buf.limit());
+        });
+    }
+
+    @Test
+    public void testSchemaAndBatches() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, l long, d double, s symbol, v varchar, ts timestamp, b boolean)");
+            insert("insert into x values " +
+                    "(1, 10, 1.5, 'a', 'foo', 0, true), " +
+                    "(null, null, null, null, null, null, false), " +
+                    "(3, 30, 3.5, 'c', 'bar', 2000000, true)"
+            );
+            final ByteBuffer buf = encode("x", 2);
+
+            // schema
+            int pos = 0;
+            Assert.assertEquals(HEADER_SCHEMA, headerType(buf, pos));
+            final int schema = header(buf, pos);
+            final int fields = vector(buf, field(buf, schema, 1));
+            final String[] names = {"i", "l", "d", "s", "v", "ts", "b"};
+            // Int, Int, FloatingPoint, Utf8, Utf8, Timestamp, Bool
+            final byte[] types = {2, 2, 3, 5, 5, 10, 6};
+            Assert.assertEquals(names.length, buf.getInt(fields - 4));
+            for (int i = 0; i < names.length; i++) {
+                final int f = indirect(buf, fields + 4 * i);
+                Assert.assertEquals(names[i], string(buf, field(buf, f, 0)));
+                Assert.assertEquals(types[i], buf.get(field(buf, f, 2)));
+            }
+
+            // first batch: two rows, the second row is null except for boolean column
+            pos = nextMessage(buf, pos);
+            Assert.assertEquals(HEADER_RECORD_BATCH, headerType(buf, pos));
+            int batch = header(buf, pos);
+            Assert.assertEquals(2, buf.getLong(field(buf, batch, 0)));
+            final int nodes = vector(buf, field(buf, batch, 1));
+            for (int i = 0; i < names.length; i++) {
+                Assert.assertEquals(2, buf.getLong(nodes + 16 * i));
+                Assert.assertEquals(i == names.length - 1 ? 0 : 1, buf.getLong(nodes + 16 * i + 8));
+            }
+            int body = body(buf, pos);
+            int buffers = vector(buf, field(buf, batch, 2));
+            Assert.assertEquals(16, buf.getInt(buffers - 4));
+            // i: validity and values
+            Assert.assertEquals(1, buf.get(body + bufferOffset(buf, buffers, 0)));
+            Assert.assertEquals(1, buf.getInt(body + bufferOffset(buf, buffers, 1)));
+            // s: validity, offsets and data
+            assertUtf8(buf, body, buffers, 6, "a", "");
+            // v
+            assertUtf8(buf, body, buffers, 9, "foo", "");
+            // b: value bitmap
+            Assert.assertEquals(1, buf.get(body + bufferOffset(buf, buffers, 15)));
+
+            // second batch
+            pos = nextMessage(buf, pos);
+            Assert.assertEquals(HEADER_RECORD_BATCH, headerType(buf, pos));
+            batch = header(buf, pos);
+            Assert.assertEquals(1, buf.getLong(field(buf, batch, 0)));
+            body = body(buf, pos);
+            buffers = vector(buf, field(buf, batch, 2));
+            Assert.assertEquals(3, buf.getInt(body + bufferOffset(buf, buffers, 1)));
+            Assert.assertEquals(30, buf.getLong(body + bufferOffset(buf, buffers, 3)));
+            Assert.assertEquals(3.5, buf.getDouble(body + bufferOffset(buf, buffers, 5)), 0.0);
+            assertUtf8(buf, body, buffers, 9, "bar");
+            Assert.assertEquals(2000000, buf.getLong(body + bufferOffset(buf, buffers, 13)));
+
+            // end of stream
+            pos = nextMessage(buf, pos);
+            Assert.assertEquals(-1, buf.getInt(pos));
+            Assert.assertEquals(0, buf.getInt(pos + 4));
+            Assert.assertEquals(pos + 8, buf.limit());
+        });
+    }
+
+    private static void assertUtf8(ByteBuffer buf, int body, int buffers, int firstBuffer, String... expected) {
+        final int offsets = body + bufferOffset(buf, buffers, firstBuffer + 1);
+        final int data = body + bufferOffset(buf, buffers, firstBuffer + 2);
+        for (int i = 0; i < expected.length; i++) {
+            final int lo = buf.getInt(offsets + 4 * i);
+            final int hi = buf.getInt(offsets + 4 * (i + 1));
+            final byte[] bytes = new byte[hi - lo];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = buf.get(data + lo + j);
+            }
+            Assert.assertEquals(expected[i], new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int body(ByteBuffer buf, int pos) {
+        return pos + 8 + buf.getInt(pos + 4);
+    }
+
+    private static int bufferOffset(ByteBuffer buf, int buffers, int index) {
+        final long offset = buf.getLong(buffers + 16 * index);
+        // buffers must be 8-byte aligned within the body
+        Assert.assertEquals(0, offset & 7);
+        return (int) offset;
+    }
+
+    private static ByteBuffer encode(String query, int batchRowCount) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (
+                ArrowStreamWriter writer = new ArrowStreamWriter(batchRowCount, MemoryTag.NATIVE_DEFAULT);
+                RecordCursorFactory factory = select(query);
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            writer.of(factory.getMetadata());
+            drain(writer, out);
+            while (cursor.hasNext()) {
+                writer.appendRecord(cursor.getRecord());
+                if (writer.isBatchFull()) {
+                    writer.flushBatch();
+                    drain(writer, out);
+                }
+            }
+            writer.flushBatch();
+            writer.finish();
+            drain(writer, out);
+        }
+        final byte[] bytes = out.toByteArray();
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void drain(ArrowStreamWriter writer, ByteArrayOutputStream out) {
+        while (writer.hasPendingBytes()) {
+            final long lo = writer.getPendingLo();
+            final long hi = writer.getPendingHi();
+            for (long p = lo; p < hi; p++) {
+                out.write(Unsafe.getUnsafe().getByte(p));
+            }
+            writer.skipPendingBytes(hi - lo);
+        }
+    }
+
+    // returns absolute position of the given table field or 0 when the field is absent
+    private static int field(ByteBuffer buf, int table, int slot) {
+        final int vtable = table - buf.getInt(table);
+        final int vtableSize = buf.getShort(vtable);
+        if (4 + 2 * slot >= vtableSize) {
+            return 0;
+        }
+        final int offset = buf.getShort(vtable + 4 + 2 * slot);
+        return offset == 0 ? 0 : table + offset;
+    }
+
+    private static int header(ByteBuffer buf, int pos) {
+        return indirect(buf, field(buf, message(buf, pos), 2));
+    }
+
+    private static byte headerType(ByteBuffer buf, int pos) {
+        return buf.get(field(buf, message(buf, pos), 1));
+    }
+
+    private static int indirect(ByteBuffer buf, int pos) {
+        return pos + buf.getInt(pos);
+    }
+
+    private static int message(ByteBuffer buf, int pos) {
+        Assert.assertEquals(-1, buf.getInt(pos));
+        // message body has to be 8-byte aligned
+        Assert.assertEquals(0, (8 + buf.getInt(pos + 4)) & 7);
+        final int root = pos + 8;
+        final int message = indirect(buf, root);
+        // metadata version V5
+        Assert.assertEquals(4, buf.getShort(field(buf, message, 0)));
+        return message;
+    }
+
+    private static int nextMessage(ByteBuffer buf, int pos) {
+        final int bodyLength = field(buf, message(buf, pos), 3);
+        return body(buf, pos) + (bodyLength == 0 ? 0 : (int) buf.getLong(bodyLength));
+    }
+
+    private static String string(ByteBuffer buf, int pos) {
+        final int str = indirect(buf, pos);
+        final byte[] bytes = new byte[buf.getInt(str)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buf.get(str + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int vector(ByteBuffer buf, int pos) {
+        return indirect(buf, pos) + 4;
+    }
+}
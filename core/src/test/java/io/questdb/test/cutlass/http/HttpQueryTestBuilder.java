@@ -205,6 +205,22 @@ public class HttpQueryTestBuilder {
                     }
                 });
 
+                httpServer.bind(new HttpRequestProcessorFactory() {
+                    @Override
+                    public String getUrl() {
+                        return "/imp/arrow";
+                    }
+
+                    @Override
+                    public HttpRequestProcessor newInstance() {
+                        return new ArrowIngestProcessor(
+                                engine,
+                                httpConfiguration.getHttpContextConfiguration().getSendBufferSize(),
+                                httpConfiguration.getJsonQueryProcessorConfiguration()
+                        );
+                    }
+                });
+
                 this.sqlExecutionContexts = new ObjList<>();
 
                 httpServer.bind(new HttpRequestProcessorFactory() {
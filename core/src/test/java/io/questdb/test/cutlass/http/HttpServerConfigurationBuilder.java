@@ -94,6 +94,16 @@ public class HttpServerConfigurationBuilder {
                     return DefaultFactoryProvider.INSTANCE;
                 }
 
+                @Override
+                public int getExportBatchRowCount() {
+                    return 65536;
+                }
+
+                @Override
+                public long getImportArrowMaxMessageSize() {
+                    return 128 * Numbers.SIZE_1MB;
+                }
+
                 @Override
                 public FilesFacade getFilesFacade() {
                     return TestFilesFacadeImpl.INSTANCE;
@@ -1530,6 +1530,51 @@ public class IODispatcherTest extends AbstractTest {
                 );
     }
 
+    @Test
+    public void testImportArrowNonWalTable() throws Exception {
+        new HttpQueryTestBuilder()
+                .withTempFolder(root)
+                .withWorkerCount(1)
+                .withHttpServerConfigBuilder(
+                        new HttpServerConfigurationBuilder()
+                                .withNetwork(NetworkFacadeImpl.INSTANCE)
+                                .withDumpingTraffic(false)
+                                .withAllowDeflateBeforeSend(false)
+                                .withHttpProtocolVersion("HTTP/1.1 ")
+                                .withServerKeepAlive(true)
+                )
+                .run((engine) -> {
+                            try (SqlExecutionContext executionContext = TestUtils.createSqlExecutionCtx(engine)) {
+                                engine.ddl("create table test (col_a int, ts timestamp) timestamp(ts) partition by day bypass wal", executionContext);
+                                sendAndReceive(
+                                        NetworkFacadeImpl.INSTANCE,
+                                        "POST /imp/arrow?name=test HTTP/1.1\r\n" +
+                                                "Host: localhost:9000\r\n" +
+                                                "User-Agent: curl/7.71.1\r\n" +
+                                                "Accept: */*\r\n" +
+                                                "Content-Length: 8\r\n" +
+                                                "\r\n" +
+                                                "abcdefgh",
+                                        "HTTP/1.1 400 Bad request\r\n" +
+                                                "Server: questDB/1.0\r\n" +
+                                                "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                                                "Transfer-Encoding: chunked\r\n" +
+                                                "Content-Type: application/json; charset=utf-8\r\n" +
+                                                "\r\n" +
+                                                "47\r\n" +
+                                                "{\"code\":\"invalid\",\"message\":\"arrow ingest requires WAL table\",\"rows\":0}\r\n" +
+                                                "00\r\n" +
+                                                "\r\n",
+                                        1,
+                                        0,
+                                        false,
+                                        false
+                                );
+                            }
+                        }
+                );
+    }
+
     @Test
     public void testImportBadJson() throws Exception {
         testImport(
@@ -7861,6 +7906,29 @@ public class IODispatcherTest extends AbstractTest {
                 });
     }
 
+    @Test
+    public void testTextQueryUnsupportedFormat() throws Exception {
+        testJsonQuery(
+                0,
+                "GET /exp?query=select+1+from+long_sequence(1)&fmt=xlsx HTTP/1.1\r\n" +
+                        "Host: localhost:9000\r\n" +
+                        "Connection: keep-alive\r\n" +
+                        "Accept: */*\r\n" +
+                        "\r\n",
+                "HTTP/1.1 400 Bad request\r\n" +
+                        "Server: questDB/1.0\r\n" +
+                        "Date: Thu, 1 Jan 1970 00:00:00 GMT\r\n" +
+                        "Transfer-Encoding: chunked\r\n" +
+                        "Content-Type: application/json; charset=utf-8\r\n" +
+                        "Keep-Alive: timeout=5, max=10000\r\n" +
+                        "\r\n" +
+                        "81\r\n" +
+                        "{\"query\":\"select 1 from long_sequence(1)\",\"error\":\"unsupported export format, expected one of: csv, parquet, arrow\",\"position\":0}\r\n" +
+                        "00\r\n" +
+                        "\r\n"
+        );
+    }
+
     @Test
     public void testTextQueryUuid() throws Exception {
         testJsonQuery(
@@ -0,0 +1,260 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.cutlass.line.shm;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.client.Sender;
+import io.questdb.cutlass.line.LineSenderException;
+import io.questdb.cutlass.line.shm.ShmLineChannel;
+import io.questdb.cutlass.line.shm.ShmLineRing;
+import io.questdb.cutlass.line.tcp.LineTcpReceiver;
+import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.test.cutlass.line.tcp.AbstractLineTcpReceiverTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.ChronoUnit;
+
+import static io.questdb.test.tools.TestUtils.assertContains;
+
+public class ShmLineSenderTest extends AbstractLineTcpReceiverTest {
+    private static final long PRODUCER_POSITION_OFFSET = 64;
+
+    @Test
+    public void testAllRingsInUse() throws Exception {
+        shmRingCount = 1;
+        shmRingDir = temp.newFolder("shm").getAbsolutePath();
+        runInContext(r -> {
+            try (Sender ignore = Sender.builder(Sender.Transport.SHM).address(shmRingDir).build()) {
+                try (Sender ignore2 = Sender.builder(Sender.Transport.SHM).address(shmRingDir).build()) {
+                    Assert.fail();
+                } catch (LineSenderException e) {
+                    assertContains(e.getMessage(), "all shared memory rings are in use");
+                }
+            }
+            // ring is released on close
+            Sender.builder(Sender.Transport.SHM).address(shmRingDir).build().close();
+        });
+    }
+
+    @Test
+    public void testAuthenticationRefusesRings() throws Exception {
+        authKeyId = "testUser1";
+        shmRingDir = temp.newFolder("shm").getAbsolutePath();
+        assertMemoryLeak(() -> {
+            try (LineTcpReceiver ignore = createLineTcpReceiver(lineConfiguration, engine, sharedWorkerPool)) {
+                Assert.fail();
+            } catch (CairoException e) {
+                assertContains(e.getFlyweightMessage(), "line protocol shared memory rings cannot be used with line protocol authentication");
+            }
+        });
+    }
+
+    @Test
+    public void testConfString() throws Exception {
+        shmRingDir = temp.newFolder("shm").getAbsolutePath();
+        runInContext(r -> {
+            try (Sender sender = Sender.fromConfig("shm::addr=" + shmRingDir + ";auto_flush_bytes=1024;")) {
+                for (int i = 0; i < 100; i++) {
+                    sender.table("mytable").longColumn("x", i).at(i * 1000L, ChronoUnit.MICROS);
+                }
+            }
+            assertTableSizeEventually(engine, "mytable", 100);
+        });
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        try {
+            Sender.builder(Sender.Transport.SHM).address("/tmp").enableTls().build();
+            Assert.fail();
+        } catch (LineSenderException e) {
+            assertContains(e.getMessage(), "TLS is not supported for shared memory transport");
+        }
+        try {
+            Sender.fromConfig("shm::addr=/tmp;username=foo;");
+            Assert.fail();
+        } catch (LineSenderException e) {
+            assertContains(e.getMessage(), "authentication is not supported for shared memory transport");
+        }
+    }
+
+    @Test
+    public void testInvalidProducerPosition() throws Exception {
+        final String dir = temp.newFolder("ring").getAbsolutePath();
+        assertMemoryLeak(() -> {
+            final int capacity = 64;
+            final long buf = Unsafe.malloc(capacity, MemoryTag.NATIVE_DEFAULT);
+            long fd = -1;
+            try (
+                    Path path = new Path();
+                    ShmLineRing consumer = ShmLineRing.create(FilesFacadeImpl.INSTANCE, ShmLineRing.ringPath(path, dir, 0).$(), capacity);
+                    ShmLineRing producer = ShmLineRing.open(FilesFacadeImpl.INSTANCE, ShmLineRing.ringPath(path, dir, 0).$())
+            ) {
+                Assert.assertNotNull(producer);
+                fd = FilesFacadeImpl.INSTANCE.openRW(ShmLineRing.ringPath(path, dir, 0).$(), CairoConfiguration.O_NONE);
+                Assert.assertTrue(fd > -1);
+
+                Assert.assertEquals(10, producer.write(buf, 10));
+                Assert.assertEquals(10, consumer.read(buf, capacity));
+
+                // producer position ahead of the consumer by more than the capacity
+                putProducerPosition(fd, buf, 10 + capacity + 1);
+                Assert.assertEquals(-1, consumer.read(buf, capacity));
+                Assert.assertEquals(0, consumer.getPending());
+                Assert.assertEquals(5, producer.write(buf, 5));
+                Assert.assertEquals(5, consumer.read(buf, capacity));
+
+                // producer position behind the consumer
+                putProducerPosition(fd, buf, 0);
+                Assert.assertEquals(-1, consumer.read(buf, capacity));
+                Assert.assertEquals(0, consumer.getPending());
+                Assert.assertEquals(capacity, producer.write(buf, capacity));
+                Assert.assertEquals(capacity, consumer.read(buf, capacity));
+            } finally {
+                FilesFacadeImpl.INSTANCE.close(fd);
+                Unsafe.free(buf, capacity, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    @Test
+    public void testMalformedLineIsSkipped() throws Exception {
+        shmRingDir = temp.newFolder("shm").getAbsolutePath();
+        runInContext(r -> {
+            try (ShmLineChannel channel = new ShmLineChannel(FilesFacadeImpl.INSTANCE, shmRingDir, 10_000)) {
+                send(channel, "mytable x=1i 1000\nmytable x=\"unterminated 2000\nmytable x=3i 3000\n");
+            }
+            assertTableSizeEventually(engine, "mytable", 2);
+            assertTable(
+                    "x\ttimestamp\n" +
+                            "1\t1970-01-01T00:00:00.000001Z\n" +
+                            "3\t1970-01-01T00:00:00.000003Z\n",
+                    "mytable"
+            );
+        });
+    }
+
+    @Test
+    public void testNoRings() throws Exception {
+        final String dir = temp.newFolder("empty").getAbsolutePath();
+        assertMemoryLeak(() -> {
+            try {
+                Sender.builder(Sender.Transport.SHM).address(dir).build();
+                Assert.fail();
+            } catch (LineSenderException e) {
+                assertContains(e.getMessage(), "could not find shared memory rings");
+            }
+        });
+    }
+
+    @Test
+    public void testRingWrapAround() throws Exception {
+        final String dir = temp.newFolder("ring").getAbsolutePath();
+        assertMemoryLeak(() -> {
+            final int capacity = 64;
+            final long buf = Unsafe.malloc(capacity, MemoryTag.NATIVE_DEFAULT);
+            try (
+                    Path path = new Path();
+                    ShmLineRing consumer = ShmLineRing.create(FilesFacadeImpl.INSTANCE, ShmLineRing.ringPath(path, dir, 0).$(), capacity);
+                    ShmLineRing producer = ShmLineRing.open(FilesFacadeImpl.INSTANCE, ShmLineRing.ringPath(path, dir, 0).$())
+            ) {
+                Assert.assertNotNull(producer);
+                Assert.assertTrue(producer.tryLock());
+                Assert.assertEquals(capacity, producer.getCapacity());
+
+                byte next = 0;
+                byte expected = 0;
+                for (int round = 0; round < 10; round++) {
+                    // 40 bytes do not divide the capacity, so every other write wraps around
+                    for (int i = 0; i < 40; i++) {
+                        Unsafe.getUnsafe().putByte(buf + i, next++);
+                    }
+                    Assert.assertEquals(40, producer.write(buf, 40));
+                    Assert.assertEquals(40, consumer.getPending());
+
+                    Assert.assertEquals(40, consumer.read(buf, capacity));
+                    for (int i = 0; i < 40; i++) {
+                        Assert.assertEquals(expected++, Unsafe.getUnsafe().getByte(buf + i));
+                    }
+                    Assert.assertEquals(0, consumer.read(buf, capacity));
+                }
+
+                // full ring does not accept any more data
+                Assert.assertEquals(capacity, producer.write(buf, capacity));
+                Assert.assertEquals(0, producer.write(buf, 1));
+                Assert.assertEquals(capacity, consumer.read(buf, capacity));
+                Assert.assertEquals(1, producer.write(buf, 1));
+            } finally {
+                Unsafe.free(buf, capacity, MemoryTag.NATIVE_DEFAULT);
+            }
+        });
+    }
+
+    @Test
+    public void testSender() throws Exception {
+        shmRingDir = temp.newFolder("shm").getAbsolutePath();
+        runInContext(r -> {
+            try (
+                    Sender sender1 = Sender.builder(Sender.Transport.SHM).address(shmRingDir).build();
+                    Sender sender2 = Sender.builder(Sender.Transport.SHM).address(shmRingDir).build()
+            ) {
+                for (int i = 0; i < 1000; i++) {
+                    sender1.table("t1").symbol("s", "a" + (i % 3)).longColumn("x", i).atNow();
+                    sender2.table("t2").doubleColumn("y", i).stringColumn("z", "v" + i).atNow();
+                }
+                sender1.flush();
+                sender2.flush();
+            }
+            assertTableSizeEventually(engine, "t1", 1000);
+            assertTableSizeEventually(engine, "t2", 1000);
+            assertSql("count\tsum\n1000\t499500\n", "select count(), sum(x) from t1");
+            assertSql("count\n334\n", "select count() from t1 where s = 'a0'");
+        });
+    }
+
+    private static void putProducerPosition(long fd, long buf, long position) {
+        Unsafe.getUnsafe().putLong(buf, position);
+        Assert.assertEquals(Long.BYTES, FilesFacadeImpl.INSTANCE.write(fd, buf, Long.BYTES, PRODUCER_POSITION_OFFSET));
+    }
+
+    private static void send(ShmLineChannel channel, String lines) {
+        final byte[] bytes = lines.getBytes(StandardCharsets.UTF_8);
+        final long buf = Unsafe.malloc(bytes.length, MemoryTag.NATIVE_DEFAULT);
+        try {
+            for (int i = 0; i < bytes.length; i++) {
+                Unsafe.getUnsafe().putByte(buf + i, bytes[i]);
+            }
+            channel.send(buf, bytes.length);
+        } finally {
+            Unsafe.free(buf, bytes.length, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+}
@@ -119,6 +119,8 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
         }
     };
     protected int partitionByDefault = PartitionBy.DAY;
+    protected int shmRingCount = 2;
+    protected String shmRingDir = null;
     protected boolean useLegacyStringDefault = true;
 
     protected final LineTcpReceiverConfiguration lineConfiguration = new DefaultLineTcpReceiverConfiguration() {
@@ -191,6 +193,16 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return nf;
         }
 
+        @Override
+        public int getShmRingCount() {
+            return shmRingCount;
+        }
+
+        @Override
+        public String getShmRingDir() {
+            return shmRingDir;
+        }
+
         @Override
         public long getWriterIdleTimeout() {
             return minIdleMsBeforeWriterRelease;
@@ -253,6 +265,8 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
         commitIntervalDefault = 2000;
         partitionByDefault = PartitionBy.DAY;
         disconnectOnError = false;
+        shmRingCount = 2;
+        shmRingDir = null;
         nf = NetworkFacadeImpl.INSTANCE;
     }
 
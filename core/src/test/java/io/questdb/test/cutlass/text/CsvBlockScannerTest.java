@@ -0,0 +1,161 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.text;
+
+import io.questdb.cutlass.text.CsvBlockScanner;
+import io.questdb.cutlass.text.CsvTextLexer;
+import io.questdb.cutlass.text.DefaultTextConfiguration;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Rnd;
+import io.questdb.std.SwarUtils;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class CsvBlockScannerTest {
+    private static final byte[] ALPHABET = {'a', 'b', ',', '"', '\n', '\r', ' ', 0, (byte) 0xc3, (byte) 0xa9, '|'};
+    private static final Log LOG = LogFactory.getLog(CsvBlockScannerTest.class);
+
+    @Test
+    public void testLexer() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            final Rnd rnd = TestUtils.generateRandom(LOG);
+            final StringSink csv = new StringSink();
+            final StringSink expected = new StringSink();
+            final StringSink actual = new StringSink();
+            try (CsvTextLexer lexer = new CsvTextLexer(new DefaultTextConfiguration())) {
+                for (int iteration = 0; iteration < 10; iteration++) {
+                    csv.clear();
+                    expected.clear();
+                    final int columns = 1 + rnd.nextInt(12);
+                    for (int line = 0, n = 100 + rnd.nextInt(400); line < n; line++) {
+                        expected.put(line).put(':');
+                        for (int column = 0; column < columns; column++) {
+                            if (column > 0) {
+                                csv.put(',');
+                            }
+                            final boolean quoted = rnd.nextInt(4) == 0;
+                            if (quoted) {
+                                csv.put('"');
+                            }
+                            final int valueLo = csv.length();
+                            boolean ascii = true;
+                            for (int i = 0, len = 1 + rnd.nextInt(100); i < len; i++) {
+                                switch (rnd.nextInt(8)) {
+                                    case 0:
+                                        csv.put('é');
+                                        ascii = false;
+                                        break;
+                                    case 1:
+                                        csv.put(quoted && i > 0 ? "\"\"" : "|");
+                                        break;
+                                    case 2:
+                                        csv.put(quoted ? ',' : ' ');
+                                        break;
+                                    default:
+                                        csv.put((char) ('a' + rnd.nextInt(26)));
+                                        break;
+                                }
+                            }
+                            expected.put('[').put(csv, valueLo, csv.length()).put(ascii ? "]a" : "]u");
+                            if (quoted) {
+                                csv.put('"');
+                            }
+                        }
+                        csv.put(rnd.nextBoolean() ? "\n" : "\r\n");
+                        expected.put('\n');
+                    }
+
+                    final byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+                    final long buf = Unsafe.malloc(bytes.length, MemoryTag.NATIVE_DEFAULT);
+                    try {
+                        for (int i = 0; i < bytes.length; i++) {
+                            Unsafe.getUnsafe().putByte(buf + i, bytes[i]);
+                        }
+                        actual.clear();
+                        lex(lexer, buf, bytes.length, bytes.length, actual);
+                        TestUtils.assertEquals(expected, actual);
+
+                        actual.clear();
+                        lex(lexer, buf, bytes.length, CsvBlockScanner.BLOCK_SIZE + rnd.nextInt(1024), actual);
+                        TestUtils.assertEquals(expected, actual);
+                    } finally {
+                        Unsafe.free(buf, bytes.length, MemoryTag.NATIVE_DEFAULT);
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testMasks() {
+        final Rnd rnd = new Rnd();
+        final long buf = Unsafe.malloc(CsvBlockScanner.BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+        try {
+            final long delimiterMask = SwarUtils.broadcast((byte) '|');
+            for (int iteration = 0; iteration < 1000; iteration++) {
+                long expectedStructural = 0;
+                long expectedNonAscii = 0;
+                for (int i = 0; i < CsvBlockScanner.BLOCK_SIZE; i++) {
+                    final byte b = ALPHABET[rnd.nextInt(ALPHABET.length)];
+                    Unsafe.getUnsafe().putByte(buf + i, b);
+                    if (b == '|' || b == '"' || b == '\n' || b == '\r') {
+                        expectedStructural |= 1L << i;
+                    }
+                    if (b <= 0) {
+                        expectedNonAscii |= 1L << i;
+                    }
+                }
+                Assert.assertEquals(expectedStructural, CsvBlockScanner.structuralMask(buf, delimiterMask));
+                Assert.assertEquals(expectedNonAscii, CsvBlockScanner.nonAsciiMask(buf));
+            }
+        } finally {
+            Unsafe.free(buf, CsvBlockScanner.BLOCK_SIZE, MemoryTag.NATIVE_DEFAULT);
+        }
+    }
+
+    private static void lex(CsvTextLexer lexer, long buf, int size, int chunkSize, StringSink sink) {
+        lexer.clear();
+        lexer.setupLimits(Integer.MAX_VALUE, (line, fields, hi) -> {
+            sink.put(line).put(':');
+            for (int i = 0; i < hi; i++) {
+                sink.put('[').put(fields.getQuick(i)).put(fields.getQuick(i).isAscii() ? "]a" : "]u");
+            }
+            sink.put('\n');
+        });
+        for (long p = buf, hi = buf + size; p < hi; p += chunkSize) {
+            lexer.parse(p, Math.min(hi, p + chunkSize));
+        }
+        lexer.parseLast();
+        Assert.assertEquals(0, lexer.getErrorCount());
+    }
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.text;
+
+import io.questdb.cutlass.text.GzipFileReader;
+import io.questdb.cutlass.text.TextException;
+import io.questdb.cutlass.text.TextInputCompression;
+import io.questdb.std.*;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public class GzipFileReaderTest extends AbstractTest {
+
+    @Test
+    public void testChecksumMismatch() throws Exception {
+        final byte[] gz = gzip(content(100));
+        gz[gz.length - 8] ^= 1;
+        assertFailure(gz, "gzip checksum mismatch");
+    }
+
+    @Test
+    public void testDetectCompression() throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            assertCompression(TextInputCompression.GZIP, gzip(content(10)));
+            assertCompression(TextInputCompression.ZSTD, new byte[]{0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0x20, 0});
+            assertCompression(TextInputCompression.NONE, content(10));
+            assertCompression(TextInputCompression.NONE, new byte[]{0x1f});
+            assertCompression(TextInputCompression.NONE, new byte[0]);
+        });
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        assertContent(new byte[0], new byte[0], 1024, 1024);
+    }
+
+    @Test
+    public void testHeaderWithOptionalFields() throws Exception {
+        final byte[] content = content(1000);
+        assertContent(content, gzipWithOptionalFields(content), 100, 16);
+        assertContent(content, gzipWithOptionalFields(content), 64 * 1024, 1024);
+    }
+
+    @Test
+    public void testMultipleMembers() throws Exception {
+        final byte[] content = content(10_000);
+        final ByteArrayOutputStream gz = new ByteArrayOutputStream();
+        final int split = content.length / 3;
+        gz.write(gzip(copyOfRange(content, 0, split)));
+        gz.write(gzipWithOptionalFields(copyOfRange(content, split, 2 * split)));
+        gz.write(gzip(copyOfRange(content, 2 * split, content.length)));
+        // empty member
+        gz.write(gzip(new byte[0]));
+
+        assertContent(content, gz.toByteArray(), 64 * 1024, 64 * 1024);
+        assertContent(content, gz.toByteArray(), 1000, 333);
+        assertContent(content, gz.toByteArray(), 100, 7);
+    }
+
+    @Test
+    public void testNotGzip() throws Exception {
+        assertFailure(content(10), "not a gzip file");
+    }
+
+    @Test
+    public void testTrailingGarbageIsIgnored() throws Exception {
+        final byte[] content = content(100);
+        final byte[] gz = gzip(content);
+        final byte[] withGarbage = new byte[gz.length + 16];
+        System.arraycopy(gz, 0, withGarbage, 0, gz.length);
+        assertContent(content, withGarbage, 1024, 1024);
+    }
+
+    @Test
+    public void testTruncated() throws Exception {
+        final byte[] gz = gzip(content(10_000));
+        assertFailure(copyOfRange(gz, 0, 5), "truncated gzip header");
+        assertFailure(copyOfRange(gz, 0, gz.length / 2), "truncated gzip stream");
+        assertFailure(copyOfRange(gz, 0, gz.length - 3), "truncated gzip trailer");
+    }
+
+    private static byte[] content(int lines) {
+        final StringBuilder sb = new StringBuilder();
+        final Rnd rnd = new Rnd();
+        for (int i = 0; i < lines; i++) {
+            sb.append(i).append(',').append(rnd.nextString(rnd.nextInt(20))).append(",\"é").append(rnd.nextDouble()).append("\"\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] copyOfRange(byte[] bytes, int lo, int hi) {
+        final byte[] result = new byte[hi - lo];
+        System.arraycopy(bytes, lo, result, 0, hi - lo);
+        return result;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    // GZIPOutputStream does not write any of the optional header fields
+    private static byte[] gzipWithOptionalFields(byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // FHCRC | FEXTRA | FNAME | FCOMMENT
+        out.write(new byte[]{0x1f, (byte) 0x8b, 8, 2 | 4 | 8 | 16, 0, 0, 0, 0, 0, 3});
+        out.write(new byte[]{5, 0, 'x', 'y', 'z', 'z', 'y'});
+        out.write("data.csv\0".getBytes(StandardCharsets.US_ASCII));
+        out.write("a rather long comment to make sure it straddles small read buffers\0".getBytes(StandardCharsets.US_ASCII));
+        out.write(new byte[]{0, 0});
+
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(content);
+        deflater.finish();
+        final byte[] buf = new byte[1024];
+        while (!deflater.finished()) {
+            out.write(buf, 0, deflater.deflate(buf));
+        }
+        deflater.end();
+
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, content.length);
+        return out.toByteArray();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private void assertCompression(int expected, byte[] bytes) throws IOException {
+        try (Path path = new Path()) {
+            path.of(writeFile(bytes));
+            Assert.assertEquals(expected, TextInputCompression.detect(FilesFacadeImpl.INSTANCE, path.$()));
+        }
+    }
+
+    private void assertContent(byte[] expected, byte[] gz, int inBufSize, int outBufSize) throws Exception {
+        final String fileName = writeFile(gz);
+        TestUtils.assertMemoryLeak(() -> {
+            final long out = Unsafe.malloc(outBufSize, MemoryTag.NATIVE_DEFAULT);
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            try (
+                    Path path = new Path().of(fileName);
+                    GzipFileReader reader = new GzipFileReader(FilesFacadeImpl.INSTANCE, inBufSize)
+            ) {
+                final long fd = Files.openRO(path.$());
+                Assert.assertTrue(fd > -1);
+                try {
+                    reader.of(fd);
+                    int n;
+                    do {
+                        n = reader.read(out, outBufSize);
+                        for (int i = 0; i < n; i++) {
+                            actual.write(Unsafe.getUnsafe().getByte(out + i));
+                        }
+                    } while (n == outBufSize);
+                } finally {
+                    Files.close(fd);
+                }
+            } finally {
+                Unsafe.free(out, outBufSize, MemoryTag.NATIVE_DEFAULT);
+            }
+            Assert.assertArrayEquals(expected, actual.toByteArray());
+        });
+    }
+
+    private void assertFailure(byte[] gz, String expectedMessage) throws Exception {
+        try {
+            assertContent(new byte[0], gz, 1024, 1024);
+            Assert.fail();
+        } catch (TextException e) {
+            TestUtils.assertContains(e.getFlyweightMessage(), expectedMessage);
+        }
+    }
+
+    private String writeFile(byte[] bytes) throws IOException {
+        final File file = temp.newFile();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            fos.write(bytes);
+        }
+        return file.getAbsolutePath();
+    }
+}
@@ -37,6 +37,7 @@ import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.model.CopyModel;
 import io.questdb.mp.SynchronizedJob;
 import io.questdb.std.Os;
+import io.questdb.std.Zip;
 import io.questdb.std.str.Path;
 import io.questdb.test.AbstractCairoTest;
 import io.questdb.test.tools.TestUtils;
@@ -74,6 +75,8 @@ public class CopyTest extends AbstractCairoTest {
         inputRoot = TestUtils.getCsvRoot();
         inputWorkRoot = TestUtils.unchecked(() -> temp.newFolder("imports" + System.nanoTime()).getAbsolutePath());
         AbstractCairoTest.setUpStatic();
+        // allocates gzip header buffer ahead of leak checks
+        Zip.init();
     }
 
     @Before
@@ -132,6 +135,17 @@ public class CopyTest extends AbstractCairoTest {
         testCopy(insert, assertion);
     }
 
+    @Test
+    public void testCopyZstdIsNotSupported() throws Exception {
+        CopyRunnable insert = () -> runAndFetchCopyID("copy x from 'test-quotes-small.csv.zst' with header true", sqlExecutionContext);
+
+        CopyRunnable assertion = () -> {
+            String query = "select status, message from " + configuration.getSystemTableNamePrefix() + "text_import_log limit -1";
+            assertSql("status\tmessage\nfailed\tzstd compressed input is not supported by COPY, decompress the file or use gzip\n", query);
+        };
+        testCopy(insert, assertion);
+    }
+
     @Test
     public void testCopyThrowsExceptionOnEmptyDelimiter() throws Exception {
         assertMemoryLeak(() -> {
@@ -480,6 +494,22 @@ public class CopyTest extends AbstractCairoTest {
         testCopy(stmt, test);
     }
 
+    @Test
+    public void testParallelCopyGzipFallsBackToSerial() throws Exception {
+        CopyRunnable stmt = () -> runAndFetchCopyID(
+                "copy x from 'test-quotes-big.csv.gz' with header true timestamp 'ts' delimiter ',' " +
+                        "format 'yyyy-MM-ddTHH:mm:ss.SSSUUUZ' partition by MONTH on error ABORT;",
+                sqlExecutionContext
+        );
+
+        CopyRunnable test = () -> {
+            assertQuotesTableContent();
+            assertSql("partitionBy\nMONTH\n", "select partitionBy from tables() where table_name = 'x'");
+        };
+
+        testCopy(stmt, test);
+    }
+
     @Test
     public void testParallelCopyIntoNewTableNoTsFormat() throws Exception {
         CopyRunnable stmt = () -> runAndFetchCopyID(
@@ -836,6 +866,16 @@ public class CopyTest extends AbstractCairoTest {
         testCopy(stmt, test);
     }
 
+    @Test
+    public void testSerialCopyGzip() throws Exception {
+        CopyRunnable stmt = () -> runAndFetchCopyID("copy x from 'test-quotes-big.csv.gz' with header true timestamp 'ts' delimiter ',' " +
+                "format 'yyyy-MM-ddTHH:mm:ss.SSSUUUZ' on error ABORT;", sqlExecutionContext);
+
+        CopyRunnable test = this::assertQuotesTableContent;
+
+        testCopy(stmt, test);
+    }
+
     @Test
     public void testSerialCopyIntoNewNonPartitionedTable() throws Exception {
         CopyRunnable stmt = () -> runAndFetchCopyID("copy x from 'test-quotes-big.csv' with header true timestamp 'ts' delimiter ',' " +
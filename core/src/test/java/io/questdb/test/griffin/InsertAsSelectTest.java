@@ -29,9 +29,76 @@ import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.test.AbstractCairoTest;
 import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class InsertAsSelectTest extends AbstractCairoTest {
+
+    @Test
+    public void testInsertAsSelectOutOfOrderPageFrames() throws Exception {
+        assertMemoryLeak(() -> {
+            createSourceTable();
+            ddl("create table dst as (select * from src) timestamp(ts) partition by day bypass wal");
+
+            // all frames are out of order now, so rows go through the O3 path
+            insert("insert into dst select * from src");
+
+            try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                TestUtils.assertEquals(
+                        compiler,
+                        sqlExecutionContext,
+                        "(select * from src union all select * from src) order by ts",
+                        "dst"
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testInsertAsSelectPageFrames() throws Exception {
+        assertMemoryLeak(() -> {
+            createSourceTable();
+            ddl("create table dst as (select * from src where ts < '1970-01-02T12') timestamp(ts) partition by day bypass wal");
+            Assert.assertEquals(0, engine.getBusyReaderCount());
+            // appends to the middle of the last partition, so var-size columns are rebased
+            insert("insert into dst select * from src where ts >= '1970-01-02T12'");
+            Assert.assertEquals(0, engine.getBusyReaderCount());
+
+            try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                TestUtils.assertEquals(compiler, sqlExecutionContext, "src", "dst");
+            }
+            assertSql(
+                    "count\tcount_distinct\n" +
+                            "2000\t4\n",
+                    "select count(), count_distinct(s) from dst"
+            );
+        });
+    }
+
+    @Test
+    public void testInsertAsSelectPageFramesBackwardScan() throws Exception {
+        assertMemoryLeak(() -> {
+            createSourceTable();
+            // tables without designated timestamp keep the row order of the query
+            ddl("create table dst as (select * from src order by ts desc)");
+            Assert.assertEquals(0, engine.getBusyReaderCount());
+            ddl("create table dst2 as (select * from src where l < 0)");
+            insert("insert into dst2 select * from src order by ts desc");
+            Assert.assertEquals(0, engine.getBusyReaderCount());
+
+            try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                TestUtils.assertEquals(compiler, sqlExecutionContext, "src order by ts desc", "dst");
+                TestUtils.assertEquals(compiler, sqlExecutionContext, "src order by ts desc", "dst2");
+            }
+            assertSql(
+                    "l\tts\n" +
+                            "2000\t1970-01-03T18:38:00.000000Z\n" +
+                            "1999\t1970-01-03T18:36:00.000000Z\n",
+                    "select l, ts from dst limit 2"
+            );
+        });
+    }
+
     @Test
     public void testInsertAsSelectStringToVarChar() throws SqlException {
         try {
@@ -75,4 +142,34 @@ public class InsertAsSelectTest extends AbstractCairoTest {
             ColumnType.resetStringToDefault();
         }
     }
+
+    private void createSourceTable() throws SqlException {
+        ddl("create table src as (" +
+                "select" +
+                " x l," +
+                " rnd_double(2) d," +
+                " rnd_symbol('a', 'b', 'c', null) s," +
+                " rnd_varchar(1, 40, 1) v," +
+                " rnd_str(1, 20, 1) str," +
+                " rnd_bin(1, 20, 1) b," +
+                " rnd_geohash(20) g," +
+                " timestamp_sequence(0, 120000000) ts" +
+                " from long_sequence(1000)" +
+                ") timestamp(ts) partition by day bypass wal"
+        );
+        // the new column has a column top in the existing partitions
+        ddl("alter table src add column i int");
+        insert("insert into src select" +
+                " x + 1000," +
+                " rnd_double(2)," +
+                " rnd_symbol('a', 'b', 'd', null)," +
+                " rnd_varchar(1, 40, 1)," +
+                " rnd_str(1, 20, 1)," +
+                " rnd_bin(1, 20, 1)," +
+                " rnd_geohash(20)," +
+                " timestamp_sequence(120000000000, 120000000)," +
+                " rnd_int()" +
+                " from long_sequence(1000)"
+        );
+    }
 }
@@ -2584,6 +2584,23 @@ public class ParallelGroupByFuzzTest extends AbstractCairoTest {
         );
     }
 
+    @Test
+    public void testParallelSymbolKeyGroupByNumaAware() throws Exception {
+        // This query doesn't use filter, so we don't care about JIT.
+        Assume.assumeTrue(enableJitCompiler);
+        // per-worker maps are allocated lazily by the worker threads
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_NUMA_AWARE, "true");
+        testParallelSymbolKeyGroupBy(
+                "SELECT key, vwap(price, quantity), sum(colTop) FROM tab ORDER BY key",
+                "key\tvwap\tsum\n" +
+                        "k0\t2685.431565967941\t1642000.0\n" +
+                        "k1\t2682.7321472695826\t1638800.0\n" +
+                        "k2\t2683.4065201284266\t1639600.0\n" +
+                        "k3\t2684.081214514935\t1640400.0\n" +
+                        "k4\t2684.756229953121\t1641200.0\n"
+        );
+    }
+
     @Test
     public void testParallelSymbolKeyGroupBySubQuery() throws Exception {
         // This query doesn't use filter, so we don't care about JIT.
@@ -261,6 +261,40 @@ public class ShowPartitionsTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testShowPartitionsDoesNotOpenReader() throws Exception {
+        String tableName = testTableName(testName.getMethodName());
+        assertMemoryLeak(() -> {
+            createTable(tableName);
+            final AtomicInteger readerGets = new AtomicInteger();
+            engine.setPoolListener((factoryType, thread, tableToken, event, segment, position) -> {
+                if (factoryType == PoolListener.SRC_READER && event == PoolListener.EV_GET) {
+                    readerGets.incrementAndGet();
+                }
+            });
+            try {
+                assertSql(
+                        "name\tnumRows\n" +
+                                "2023-01\t123\n" +
+                                "2023-02\t112\n" +
+                                "2023-03\t124\n" +
+                                "2023-04\t120\n" +
+                                "2023-05\t124\n" +
+                                "2023-06\t97\n",
+                        "select name, numRows from table_partitions('" + tableName + "')"
+                );
+                assertSql(
+                        "tableName\tpartitionCount\trowCount\n" +
+                                tableName + "\t6\t700\n",
+                        "select tableName, partitionCount, rowCount from table_storage() where tableName = '" + tableName + "'"
+                );
+                Assert.assertEquals(0, readerGets.get());
+            } finally {
+                engine.setPoolListener(null);
+            }
+        });
+    }
+
     @Test
     public void testShowPartitionsOnlyDetachedPartitionMissingMeta() throws Exception {
         String tableName = testTableName(testName.getMethodName());
@@ -26,6 +26,7 @@ package io.questdb.test.griffin;
 
 import io.questdb.PropertyKey;
 import io.questdb.cairo.*;
+import io.questdb.cairo.sql.QueryPriority;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.TableMetadata;
 import io.questdb.griffin.SqlCompiler;
@@ -6223,6 +6224,100 @@ public class SqlCompilerImplTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSetDirectIoScan() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                Assert.assertEquals(0, sqlExecutionContext.getDirectIoScanThreshold());
+
+                compile("set direct_io_scan = on");
+                Assert.assertEquals(1, sqlExecutionContext.getDirectIoScanThreshold());
+
+                compile("SET DIRECT_IO_SCAN TO 'off'");
+                Assert.assertEquals(0, sqlExecutionContext.getDirectIoScanThreshold());
+
+                compile("set direct_io_scan = on");
+                compile("set direct_io_scan to default");
+                Assert.assertEquals(0, sqlExecutionContext.getDirectIoScanThreshold());
+
+                assertExceptionNoLeakCheck(
+                        "set direct_io_scan = always",
+                        21,
+                        "invalid direct I/O scan mode, expected 'on', 'off' or 'default'"
+                );
+                assertExceptionNoLeakCheck(
+                        "set direct_io_scan on",
+                        19,
+                        "'=' or 'to' expected"
+                );
+            } finally {
+                sqlExecutionContext.setDirectIoScanThreshold(-1);
+            }
+        });
+    }
+
+    @Test
+    public void testSetQueryPriority() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                Assert.assertEquals(QueryPriority.NORMAL, sqlExecutionContext.getQueryPriority());
+
+                compile("set query_priority = low");
+                Assert.assertEquals(QueryPriority.LOW, sqlExecutionContext.getQueryPriority());
+
+                compile("SET QUERY_PRIORITY TO 'high'");
+                Assert.assertEquals(QueryPriority.HIGH, sqlExecutionContext.getQueryPriority());
+
+                compile("set query_priority to default");
+                Assert.assertEquals(QueryPriority.NORMAL, sqlExecutionContext.getQueryPriority());
+
+                // other session settings are still ignored
+                compile("set datestyle to iso");
+                Assert.assertEquals(QueryPriority.NORMAL, sqlExecutionContext.getQueryPriority());
+
+                assertExceptionNoLeakCheck(
+                        "set query_priority = urgent",
+                        21,
+                        "invalid query priority, expected 'low', 'normal', 'high' or 'default'"
+                );
+                assertExceptionNoLeakCheck(
+                        "set query_priority low",
+                        19,
+                        "'=' or 'to' expected"
+                );
+            } finally {
+                sqlExecutionContext.setQueryPriority(QueryPriority.UNSET);
+            }
+        });
+    }
+
+    @Test
+    public void testSetReadYourWrites() throws Exception {
+        assertMemoryLeak(() -> {
+            try {
+                Assert.assertFalse(sqlExecutionContext.isReadYourWritesEnabled());
+
+                compile("set read_your_writes = on");
+                Assert.assertTrue(sqlExecutionContext.isReadYourWritesEnabled());
+
+                compile("SET READ_YOUR_WRITES TO 'off'");
+                Assert.assertFalse(sqlExecutionContext.isReadYourWritesEnabled());
+
+                compile("set read_your_writes = on");
+                compile("set read_your_writes to default");
+                Assert.assertFalse(sqlExecutionContext.isReadYourWritesEnabled());
+
+                assertExceptionNoLeakCheck(
+                        "set read_your_writes = always",
+                        23,
+                        "invalid read-your-writes mode, expected 'on', 'off' or 'default'"
+                );
+            } finally {
+                sqlExecutionContext.setReadYourWrites(-1);
+            }
+        });
+    }
+
     @Test
     public void testSymbolToStringAutoCast() throws Exception {
         final String expected = "cc\tk\n" +
@@ -233,6 +233,22 @@ public class LikeVarcharFunctionFactoryTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testLikeNonAsciiMatchesStr() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select rnd_varchar('фу_бар','фубар','ФУ-БАР','Fu_Bar','fu\nbar','😀фу','фу😀бар',null) name from long_sequence(200))");
+            final String[] patterns = {"фу_бар", "%у_б%", "_у%", "fu_bar", "%😀%", "фу\\_%", "%\\_bar"};
+            for (String pattern : patterns) {
+                // byte-level matching must agree with the regex over the decoded string
+                assertSql(
+                        "count\n0\n",
+                        "select count() from x where (name like '" + pattern + "') != (name::string like '" + pattern + "')" +
+                                " or (name ilike '" + pattern + "') != (name::string ilike '" + pattern + "')"
+                );
+            }
+        });
+    }
+
     @Test
     public void testLikePercentageAtEndNonAscii() throws Exception {
         assertMemoryLeak(() -> {
@@ -32,6 +32,51 @@ import org.junit.Test;
 
 public class NotMatchVarcharFunctionFactoryTest extends AbstractCairoTest {
 
+    @Test
+    public void testAnchoredAlternation() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table y (name varchar)");
+            insert("insert into y values ('xb'), ('ax'), ('ab'), ('xy')");
+            // ^ applies to the first branch only, $ to the last one only
+            assertSql(
+                    "name\nxb\nax\nab\n",
+                    "select * from y where name ~ '^a|b'"
+            );
+            assertSql(
+                    "name\nxy\n",
+                    "select * from y where name !~ '^a|b'"
+            );
+            assertSql(
+                    "name\nxb\nax\nab\n",
+                    "select * from y where name ~ 'a|b$'"
+            );
+            assertSql(
+                    "name\nxy\n",
+                    "select * from y where name !~ 'a|b$'"
+            );
+            assertSql(
+                    "name\nxb\nab\n",
+                    "select * from y where name ~ '^(a|x)b$'"
+            );
+        });
+    }
+
+    @Test
+    public void testMatchesStr() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select rnd_varchar(1, 40, 1) name from long_sequence(1000))");
+            final String[] patterns = {"[a-z]+\\d", "^[^A-Z]", "^.{3}$", "\\s", "ж|ё", "[\\u4e00-\\u9fff]{2}", "(?i)abc", "^a|b", "a|b$", "^(a|b)$"};
+            for (String pattern : patterns) {
+                // byte-level matching must agree with the regex over the decoded string
+                assertSql(
+                        "count\n0\n",
+                        "select count() from x where (name ~ '" + pattern + "') != (name::string ~ '" + pattern + "')" +
+                                " or (name !~ '" + pattern + "') != (name::string !~ '" + pattern + "')"
+                );
+            }
+        });
+    }
+
     @Test
     public void testNullRegex() throws Exception {
         assertMemoryLeak(() -> {
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine.functions.regex;
+
+import io.questdb.griffin.engine.functions.regex.Utf8Regex;
+import io.questdb.std.Rnd;
+import io.questdb.std.str.DirectUtf8Sink;
+import io.questdb.std.str.Utf8String;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class Utf8RegexTest {
+    private static final String[] ALPHABET = {"a", "b", "c", "A", "z", "0", "7", " ", "_", "-", ".", "\n", "\r", "\t", "é", "ж", "€", "😀", " "};
+    private static final String[] INPUTS = {
+            "", "a", "abc", "ABC", "xabcx", "aaa", "ab\n", "ab\r\n", "ab\n\n", "foo bar", "foo_bar-42",
+            "https://www.questdb.io/docs", "http://example.com/", "привет мир", "€100", "😀😀", "a😀b", "日本語テキスト", " ",
+    };
+
+    @Test
+    public void testLikeAgreesWithPattern() {
+        final String[] likes = {
+                "a", "abc", "a%", "%a", "%b%", "a_c", "_", "__", "%_%", "a%c", "%a%b%c%", "a\\%", "a\\_c",
+                "ж%", "%€%", "_😀", "😀%", "%ТЕКСТ%", "%テ%", "a%%b", "%\\\\%", "%.%", "[a]%", "%(x)?",
+        };
+        for (String like : likes) {
+            for (boolean ci : new boolean[]{false, true}) {
+                final Utf8Regex regex = Utf8Regex.compileLike(like, ci);
+                Assert.assertNotNull(like, regex);
+                final Pattern pattern = likePattern(like, ci);
+                assertAgrees(regex, pattern, false);
+            }
+        }
+    }
+
+    @Test
+    public void testLikeTrailingEscapeIsNotSupported() {
+        Assert.assertNull(Utf8Regex.compileLike("abc\\", false));
+    }
+
+    @Test
+    public void testRandomInputs() throws Exception {
+        final String[] regexes = {
+                "a", "ab|c", "^a", "c$", "^$", "a*", "a+b", "(ab)+", "a{2}", "a{1,2}b", "[a-c]+", "[^a-c]",
+                "[é€😀]", "[^\\s]+", "\\d\\w", ".", "^.$", "^..$", "a.c", "(?:a|é)+?", "ж|€|😀", "\\x{1F600}",
+                "[\\u0400-\\u04ff]+", "\\W", "^[a-z0-9_-]+$", "b\\.", "[\\-.]", "(a|b)*c{0,3}$", "\\S\\s\\S",
+        };
+        final Rnd rnd = TestUtils.generateRandom(null);
+        final StringBuilder sb = new StringBuilder();
+        for (String r : regexes) {
+            final Utf8Regex regex = Utf8Regex.compile(r);
+            Assert.assertNotNull(r, regex);
+            final Pattern pattern = Pattern.compile(r);
+            for (int i = 0; i < 200; i++) {
+                sb.setLength(0);
+                for (int j = 0, n = rnd.nextInt(20); j < n; j++) {
+                    sb.append(ALPHABET[rnd.nextInt(ALPHABET.length)]);
+                }
+                assertAgrees(regex, pattern, sb.toString(), true);
+            }
+        }
+    }
+
+    @Test
+    public void testRegexAgreesWithPattern() {
+        final String[] regexes = {
+                "abc", "b", "^abc", "abc$", "^abc$", "a|b|c", "^(http|https)://", "[0-9]+", "\\d{3}", "^\\s*$",
+                "o b", "[a-z]+_[a-z]+", "мир$", "€\\d+", "😀{2}", ".😀.", "(?:www\\.)?questdb\\.io", "^.*$",
+                "^.+$", "\\.", "a.*c", "a.*?c", "[^\\w\\s]", "\\t", "[\\x41-\\x43]", "\\u00e9", "x?", "",
+                "\\$", "a\\$$", "[$]", "語.キ", "^[^/]+//", "docs$", "com/$", "^(a|x)", "(c|bc)$", "^(?:a|b)$",
+        };
+        for (String r : regexes) {
+            final Utf8Regex regex = Utf8Regex.compile(r);
+            Assert.assertNotNull(r, regex);
+            assertAgrees(regex, Pattern.compile(r), true);
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        final String[] regexes = {
+                "(?i)abc", "a(?=b)", "(a)\\1", "\\bword\\b", "\\p{L}", "a*+", "[a&&[b]]", "a^b", "a$b", "\\Qa\\E",
+                "(?<name>a)", "a{1000}", "\\R",
+                // anchors next to a top-level alternation bind to the first or last branch only
+                "^a|b", "a|b$", "^a|b$", "^ab|c|d",
+        };
+        for (String r : regexes) {
+            Assert.assertNull(r, Utf8Regex.compile(r));
+        }
+    }
+
+    private static void assertAgrees(Utf8Regex regex, Pattern pattern, boolean find) {
+        for (String input : INPUTS) {
+            assertAgrees(regex, pattern, input, find);
+        }
+    }
+
+    private static void assertAgrees(Utf8Regex regex, Pattern pattern, String input, boolean find) {
+        final boolean expected = find ? pattern.matcher(input).find() : pattern.matcher(input).matches();
+        final String message = "pattern: " + regex.getPattern() + ", input: " + input;
+        Assert.assertEquals(message, expected, regex.matches(new Utf8String(input)));
+        try (DirectUtf8Sink sink = new DirectUtf8Sink(16)) {
+            sink.put(input);
+            Assert.assertEquals(message, expected, regex.matches(sink));
+        }
+    }
+
+    private static void appendLiteral(StringBuilder sb, char c) {
+        if (c < 128 && !Character.isLetterOrDigit(c)) {
+            sb.append('\\');
+        }
+        sb.append(c);
+    }
+
+    private static Pattern likePattern(String like, boolean caseInsensitive) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0, n = like.length(); i < n; i++) {
+            final char c = like.charAt(i);
+            if (c == '%') {
+                sb.append(".*?");
+            } else if (c == '_') {
+                sb.append('.');
+            } else {
+                appendLiteral(sb, c == '\\' ? like.charAt(++i) : c);
+            }
+        }
+        return caseInsensitive
+                ? Pattern.compile(sb.toString().toLowerCase(), Pattern.DOTALL | Pattern.CASE_INSENSITIVE)
+                : Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+}
@@ -31,6 +31,7 @@ import io.questdb.cairo.sql.*;
 import io.questdb.cairo.sql.async.PageFrameReduceJob;
 import io.questdb.cairo.sql.async.PageFrameReduceTask;
 import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.sql.async.QueryAdmissionControl;
 import io.questdb.griffin.QueryFutureUpdateListener;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
@@ -426,6 +427,72 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
         }, new AtomicBooleanCircuitBreaker());
     }
 
+    @Test
+    public void testLowPriorityQueries() throws Exception {
+        withPool((engine, compiler, sqlExecutionContext) -> {
+            sqlExecutionContext.setJitMode(SqlJitMode.JIT_MODE_DISABLED);
+            compiler.compile("create table x as (" +
+                    "  select rnd_double() a," +
+                    "  timestamp_sequence(0, 100000) t from long_sequence(100000)" +
+                    ") timestamp(t) partition by hour", sqlExecutionContext);
+
+            final String query = "x where a > 0.42";
+            final StringSink expected = new StringSink();
+            sqlExecutionContext.setParallelFilterEnabled(false);
+            try {
+                TestUtils.printSql(compiler, sqlExecutionContext, query, expected);
+            } finally {
+                sqlExecutionContext.setParallelFilterEnabled(true);
+            }
+
+            final QueryAdmissionControl admissionControl = engine.getMessageBus().getQueryAdmissionControl();
+            final int queryCount = admissionControl.getLimit() + 1;
+            final long deferredCount = admissionControl.getDeferredCount();
+
+            sqlExecutionContext.setQueryPriority(QueryPriority.LOW);
+            try {
+                final ObjList<RecordCursorFactory> factories = new ObjList<>();
+                final ObjList<RecordCursor> cursors = new ObjList<>();
+                final ObjList<StringSink> sinks = new ObjList<>();
+                try {
+                    for (int i = 0; i < queryCount; i++) {
+                        factories.add(compiler.compile(query, sqlExecutionContext).getRecordCursorFactory());
+                        Assert.assertEquals(AsyncFilteredRecordCursorFactory.class, factories.getQuick(i).getBaseFactory().getClass());
+                        cursors.add(factories.getQuick(i).getCursor(sqlExecutionContext));
+                        final StringSink sink = new StringSink();
+                        CursorPrinter.println(factories.getQuick(i).getMetadata(), sink);
+                        sinks.add(sink);
+                    }
+
+                    // Only some of the cursors get admitted to the worker pool, the rest
+                    // are expected to make progress by reducing frames on their own.
+                    boolean hasNext = true;
+                    while (hasNext) {
+                        hasNext = false;
+                        for (int i = 0; i < queryCount; i++) {
+                            final RecordCursor cursor = cursors.getQuick(i);
+                            if (cursor.hasNext()) {
+                                TestUtils.println(cursor.getRecord(), factories.getQuick(i).getMetadata(), sinks.getQuick(i));
+                                hasNext = true;
+                            }
+                        }
+                    }
+                } finally {
+                    Misc.freeObjList(cursors);
+                    Misc.freeObjList(factories);
+                }
+
+                for (int i = 0; i < queryCount; i++) {
+                    TestUtils.assertEquals(expected, sinks.getQuick(i));
+                }
+                Assert.assertTrue(admissionControl.getDeferredCount() > deferredCount);
+                Assert.assertEquals(0, admissionControl.getAdmittedCount());
+            } finally {
+                sqlExecutionContext.setQueryPriority(QueryPriority.UNSET);
+            }
+        });
+    }
+
     @Test
     public void testNegativeLimit() throws Exception {
         withPool((engine, compiler, sqlExecutionContext) -> {
@@ -1029,6 +1096,11 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             return sqlExecutionContext.getQueryFutureUpdateListener();
         }
 
+        @Override
+        public int getQueryPriority() {
+            return sqlExecutionContext.getQueryPriority();
+        }
+
         @Override
         public Rnd getRandom() {
             return sqlExecutionContext.getRandom();
@@ -1134,6 +1206,11 @@ public class AsyncFilteredRecordCursorFactoryTest extends AbstractCairoTest {
             sqlExecutionContext.setParallelFilterEnabled(parallelFilterEnabled);
         }
 
+        @Override
+        public void setQueryPriority(int priority) {
+            sqlExecutionContext.setQueryPriority(priority);
+        }
+
         @Override
         public void setRandom(Rnd rnd) {
             sqlExecutionContext.setRandom(rnd);
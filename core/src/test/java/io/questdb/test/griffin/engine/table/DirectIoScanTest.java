@@ -0,0 +1,189 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.PropertyKey;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Utf8s;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DirectIoScanTest extends AbstractCairoTest {
+
+    @Test
+    public void testBufferLimit() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1);
+        // only a few column files fit, the rest is read through mappings
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_BUFFER_LIMIT, 8 * Files.PAGE_SIZE);
+        final AtomicInteger openCount = new AtomicInteger();
+        assertMemoryLeak(newFacade(openCount, new AtomicInteger(), false), () -> {
+            createTable();
+            assertScans();
+            Assert.assertTrue(openCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testFallbackToMappings() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1);
+        final AtomicInteger openCount = new AtomicInteger();
+        assertMemoryLeak(newFacade(openCount, new AtomicInteger(), true), () -> {
+            createTable();
+            assertScans();
+            Assert.assertTrue(openCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testRecentPartitionsAreMapped() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1);
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_RECENT_PARTITION_COUNT, 2);
+        final AtomicInteger openCount = new AtomicInteger();
+        final AtomicInteger recentOpenCount = new AtomicInteger();
+        assertMemoryLeak(newFacade(openCount, recentOpenCount, false), () -> {
+            createTable();
+            assertScans();
+            Assert.assertTrue(openCount.get() > 0);
+            Assert.assertEquals(0, recentOpenCount.get());
+        });
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1);
+        final AtomicInteger openCount = new AtomicInteger();
+        assertMemoryLeak(newFacade(openCount, new AtomicInteger(), false), () -> {
+            createTable();
+            assertScans();
+            Assert.assertTrue(openCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testScanNativeDirectIo() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1);
+        final AtomicInteger openCount = new AtomicInteger();
+        // real direct I/O opens, the scan falls back to mappings where direct I/O is not available
+        final FilesFacade ff = new TestFilesFacadeImpl() {
+            @Override
+            public long openRODirect(LPSZ name) {
+                openCount.incrementAndGet();
+                return super.openRODirect(name);
+            }
+        };
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            assertScans();
+            Assert.assertTrue(openCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testThreshold() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_DIRECT_IO_SCAN_THRESHOLD, 1024 * 1024);
+        final AtomicInteger openCount = new AtomicInteger();
+        assertMemoryLeak(newFacade(openCount, new AtomicInteger(), false), () -> {
+            createTable();
+            // the table is way smaller than the threshold
+            printSql("select * from x");
+            Assert.assertEquals(0, openCount.get());
+
+            try {
+                compile("set direct_io_scan = on");
+                printSql("select * from x");
+                Assert.assertTrue(openCount.get() > 0);
+            } finally {
+                sqlExecutionContext.setDirectIoScanThreshold(-1);
+            }
+        });
+    }
+
+    private static FilesFacade newFacade(AtomicInteger openCount, AtomicInteger recentOpenCount, boolean fail) {
+        return new TestFilesFacadeImpl() {
+            @Override
+            public long openRODirect(LPSZ name) {
+                openCount.incrementAndGet();
+                if (Utf8s.containsAscii(name, "1970-01-06") || Utf8s.containsAscii(name, "1970-01-07")) {
+                    recentOpenCount.incrementAndGet();
+                }
+                // reads through OS page cache are just as good to verify buffer handling
+                return fail ? -1 : openRO(name);
+            }
+        };
+    }
+
+    private void assertScan(String query) throws SqlException {
+        try {
+            sqlExecutionContext.setDirectIoScanThreshold(0);
+            printSql(query);
+            final String expected = sink.toString();
+            sqlExecutionContext.setDirectIoScanThreshold(-1);
+            assertSql(expected, query);
+        } finally {
+            sqlExecutionContext.setDirectIoScanThreshold(-1);
+        }
+    }
+
+    private void assertScans() throws SqlException {
+        assertScan("select * from x");
+        assertScan("select * from x where l % 3 = 0");
+        assertScan("select sum(l), sum(d), sum(length(s)), sum(length(v)), sum(i) from x");
+        assertScan("select * from x where ts in '1970-01-02T06;12h'");
+    }
+
+    private void createTable() throws SqlException {
+        ddl(
+                "create table x as (" +
+                        "select" +
+                        " x l," +
+                        " rnd_double() d," +
+                        " rnd_str(1, 40, 1) s," +
+                        " rnd_varchar(1, 40, 1) v," +
+                        " timestamp_sequence(0, 3_600_000_000L) ts" +
+                        " from long_sequence(100)" +
+                        ") timestamp(ts) partition by day"
+        );
+        // new column has a column top in the last partition and is missing in older ones
+        ddl("alter table x add column i int");
+        insert(
+                "insert into x select" +
+                        " x + 100," +
+                        " rnd_double()," +
+                        " rnd_str(1, 40, 1)," +
+                        " rnd_varchar(1, 40, 1)," +
+                        " (5 * 86_400_000_000L + x * 3_600_000_000L)::timestamp," +
+                        " x::int" +
+                        " from long_sequence(40)"
+        );
+    }
+}
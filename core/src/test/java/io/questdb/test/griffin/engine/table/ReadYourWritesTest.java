@@ -0,0 +1,200 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table;
+
+import io.questdb.PropertyKey;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.After;
+import org.junit.Test;
+
+public class ReadYourWritesTest extends AbstractCairoTest {
+
+    @After
+    public void tearDown() throws Exception {
+        sqlExecutionContext.setReadYourWrites(-1);
+        super.tearDown();
+    }
+
+    @Test
+    public void testConfiguredMode() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_READ_YOUR_WRITES_ENABLED, true);
+        assertMemoryLeak(() -> {
+            createTable("");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\n",
+                    "x"
+            );
+
+            compile("set read_your_writes = off");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\n",
+                    "x"
+            );
+        });
+    }
+
+    @Test
+    public void testDedup() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable(" dedup upsert keys(ts, sym)");
+            insert("insert into x values ('2024-01-01T00:00:00', 'a', 10)");
+            insert("insert into x values ('2024-01-01T00:00:02', 'b', 20)");
+
+            compile("set read_your_writes = on");
+            final String expected = "ts\tsym\tv\n" +
+                    "2024-01-01T00:00:00.000000Z\ta\t10\n" +
+                    "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                    "2024-01-01T00:00:02.000000Z\tb\t20\n";
+            assertSql(expected, "x");
+            // replaced rows are not visible even if their new values don't match the filter
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\n",
+                    "x where v < 5"
+            );
+
+            drainWalQueue();
+            assertSql(expected, "x");
+        });
+    }
+
+    @Test
+    public void testFilter() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("");
+            compile("set read_your_writes = on");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\n",
+                    "x where v > 1"
+            );
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\n",
+                    "x where ts > '2024-01-01T00:00:01' and sym <> 'a'"
+            );
+            assertSql(
+                    "sym\n" +
+                            "c\n",
+                    "select sym from x where v = 3"
+            );
+        });
+    }
+
+    @Test
+    public void testPendingRowsAreVisible() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\n",
+                    "x"
+            );
+
+            compile("set read_your_writes = on");
+            final String expected = "ts\tsym\tv\n" +
+                    "2024-01-01T00:00:00.000000Z\ta\t1\n" +
+                    "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                    "2024-01-01T00:00:02.000000Z\tb\t2\n";
+            assertSql(expected, "x");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\n",
+                    "x order by ts desc"
+            );
+            assertSql(
+                    "count\n" +
+                            "3\n",
+                    "select count() from x"
+            );
+
+            // applied rows are not returned twice
+            drainWalQueue();
+            assertSql(expected, "x");
+        });
+    }
+
+    @Test
+    public void testStructureChange() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("");
+            ddl("alter table x add column y int");
+            insert("insert into x values ('2024-01-01T00:00:03', 'd', 4, 42)");
+
+            compile("set read_your_writes = on");
+            // rows following the pending structure change are visible once it's applied
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\n",
+                    "x"
+            );
+
+            drainWalQueue();
+            assertSql(
+                    "ts\tsym\tv\ty\n" +
+                            "2024-01-01T00:00:00.000000Z\ta\t1\tnull\n" +
+                            "2024-01-01T00:00:01.000000Z\tc\t3\tnull\n" +
+                            "2024-01-01T00:00:02.000000Z\tb\t2\tnull\n" +
+                            "2024-01-01T00:00:03.000000Z\td\t4\t42\n",
+                    "x"
+            );
+        });
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("");
+            ddl("truncate table x");
+            insert("insert into x values ('2024-01-01T00:00:05', 'e', 5)");
+
+            compile("set read_your_writes = on");
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "2024-01-01T00:00:05.000000Z\te\t5\n",
+                    "x"
+            );
+        });
+    }
+
+    private static void createTable(String dedup) throws Exception {
+        ddl("create table x (ts timestamp, sym symbol, v long) timestamp(ts) partition by day wal" + dedup);
+        insert("insert into x values ('2024-01-01T00:00:00', 'a', 1)");
+        drainWalQueue();
+        // pending transactions
+        insert("insert into x values ('2024-01-01T00:00:02', 'b', 2)");
+        insert("insert into x values ('2024-01-01T00:00:01', 'c', 3)");
+    }
+}
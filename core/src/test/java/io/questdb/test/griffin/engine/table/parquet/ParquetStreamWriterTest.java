@@ -0,0 +1,155 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin.engine.table.parquet;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.table.parquet.ParquetStreamWriter;
+import io.questdb.griffin.engine.table.parquet.PartitionDecoder;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.str.Path;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParquetStreamWriterTest extends AbstractCairoTest {
+
+    @BeforeClass
+    public static void setUpStatic() throws Exception {
+        inputWorkRoot = TestUtils.unchecked(() -> temp.newFolder("export" + System.nanoTime()).getAbsolutePath());
+        AbstractCairoTest.setUpStatic();
+    }
+
+    @Test
+    public void testEmptyResultSet() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (id long, s symbol)");
+            try (Path path = new Path()) {
+                path.of(root).concat("x.parquet").$();
+                Assert.assertEquals(0, export("x", 10, path));
+                try (PartitionDecoder decoder = new PartitionDecoder(engine.getConfiguration().getFilesFacade())) {
+                    decoder.of(path.$());
+                    Assert.assertEquals(2, decoder.getMetadata().columnCount());
+                    Assert.assertEquals(0, decoder.getMetadata().rowCount());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testRowGroupPerBatch() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " x id," +
+                    " rnd_symbol('a','b','c') sym," +
+                    " rnd_str(5,10,2) str," +
+                    " rnd_varchar(5,10,2) vch," +
+                    " rnd_double(2) dbl," +
+                    " timestamp_sequence(0, 1000) ts" +
+                    " from long_sequence(25))");
+            try (Path path = new Path()) {
+                path.of(root).concat("x.parquet").$();
+                Assert.assertEquals(3, export("select id, sym, str, vch, dbl, ts from x", 10, path));
+                try (PartitionDecoder decoder = new PartitionDecoder(engine.getConfiguration().getFilesFacade())) {
+                    decoder.of(path.$());
+                    Assert.assertEquals(6, decoder.getMetadata().columnCount());
+                    Assert.assertEquals(25, decoder.getMetadata().rowCount());
+                    Assert.assertEquals(3, decoder.getMetadata().rowGroupCount());
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testWorkRootNotConfigured() throws Exception {
+        final String workRoot = inputWorkRoot;
+        inputWorkRoot = null;
+        try {
+            assertMemoryLeak(() -> {
+                ddl("create table x (id long)");
+                try (
+                        ParquetStreamWriter writer = new ParquetStreamWriter(configuration, 10, MemoryTag.NATIVE_DEFAULT);
+                        RecordCursorFactory factory = select("x")
+                ) {
+                    writer.of(factory.getMetadata());
+                    Assert.fail();
+                } catch (CairoException e) {
+                    TestUtils.assertContains(e.getFlyweightMessage(), "parquet export requires SQL copy work root");
+                }
+            });
+        } finally {
+            inputWorkRoot = workRoot;
+        }
+    }
+
+    // returns number of flushed batches
+    private static int export(String query, int batchRowCount, Path dest) throws Exception {
+        final FilesFacade ff = configuration.getFilesFacade();
+        int batchCount = 0;
+        final long fd = ff.openRW(dest.$(), configuration.getWriterFileOpenOpts());
+        Assert.assertTrue(fd > -1);
+        long fileOffset = 0;
+        try (
+                ParquetStreamWriter writer = new ParquetStreamWriter(configuration, batchRowCount, MemoryTag.NATIVE_DEFAULT);
+                RecordCursorFactory factory = select(query);
+                RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+        ) {
+            writer.of(factory.getMetadata());
+            while (cursor.hasNext()) {
+                writer.appendRecord(cursor.getRecord());
+                if (writer.isBatchFull()) {
+                    writer.flushBatch();
+                    batchCount++;
+                    fileOffset = drain(ff, fd, fileOffset, writer);
+                }
+            }
+            if (writer.getBatchRowCount() > 0) {
+                writer.flushBatch();
+                batchCount++;
+            }
+            writer.finish();
+            drain(ff, fd, fileOffset, writer);
+        } finally {
+            ff.close(fd);
+        }
+        return batchCount;
+    }
+
+    private static long drain(FilesFacade ff, long fd, long fileOffset, ParquetStreamWriter writer) {
+        while (writer.hasPendingBytes()) {
+            final long lo = writer.getPendingLo();
+            final long len = writer.getPendingHi() - lo;
+            Assert.assertEquals(len, ff.write(fd, lo, len, fileOffset));
+            fileOffset += len;
+            writer.skipPendingBytes(len);
+        }
+        return fileOffset;
+    }
+}
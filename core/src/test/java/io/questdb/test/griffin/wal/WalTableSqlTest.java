@@ -774,6 +774,53 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testDedupResentRowsSkipPartitionRewrite() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (x long, s symbol, v varchar, ts timestamp) timestamp(ts) partition by DAY WAL DEDUP UPSERT KEYS(ts, s)");
+            insert("insert into " + tableName + " values (1, 'a', 'foo', '2022-02-24T01'), (2, 'b', 'bar', '2022-02-24T02'), (3, 'a', null, '2022-02-24T03'), (4, 'c', 'baz', '2022-02-25T01')");
+            drainWalQueue();
+
+            final TableToken tableToken = engine.verifyTableName(tableName);
+            final long partitionTimestamp = IntervalUtils.parseFloorPartialTimestamp("2022-02-24");
+            final long nameTxnBefore = getPartitionNameTxn(tableToken, partitionTimestamp);
+            TableWriterMetrics writerMetrics = engine.getMetrics().tableWriter();
+            final long skippedBefore = writerMetrics.getDedupSkippedMerges();
+            final long duplicatesBefore = writerMetrics.getDedupDuplicateRows();
+
+            // resend an already applied batch, the partition stays as it is
+            insert("insert into " + tableName + " values (2, 'b', 'bar', '2022-02-24T02'), (3, 'a', null, '2022-02-24T03')");
+            drainWalQueue();
+
+            final String expected = "x\ts\tv\tts\n" +
+                    "1\ta\tfoo\t2022-02-24T01:00:00.000000Z\n" +
+                    "2\tb\tbar\t2022-02-24T02:00:00.000000Z\n" +
+                    "3\ta\t\t2022-02-24T03:00:00.000000Z\n" +
+                    "4\tc\tbaz\t2022-02-25T01:00:00.000000Z\n";
+            assertSql(expected, tableName);
+            Assert.assertEquals(1, writerMetrics.getDedupSkippedMerges() - skippedBefore);
+            Assert.assertEquals(2, writerMetrics.getDedupDuplicateRows() - duplicatesBefore);
+            Assert.assertEquals(nameTxnBefore, getPartitionNameTxn(tableToken, partitionTimestamp));
+
+            // a changed non-key value has to be merged
+            insert("insert into " + tableName + " values (20, 'b', 'bar', '2022-02-24T02'), (3, 'a', null, '2022-02-24T03')");
+            drainWalQueue();
+
+            assertSql(
+                    "x\ts\tv\tts\n" +
+                            "1\ta\tfoo\t2022-02-24T01:00:00.000000Z\n" +
+                            "20\tb\tbar\t2022-02-24T02:00:00.000000Z\n" +
+                            "3\ta\t\t2022-02-24T03:00:00.000000Z\n" +
+                            "4\tc\tbaz\t2022-02-25T01:00:00.000000Z\n",
+                    tableName
+            );
+            Assert.assertEquals(1, writerMetrics.getDedupSkippedMerges() - skippedBefore);
+            Assert.assertEquals(4, writerMetrics.getDedupDuplicateRows() - duplicatesBefore);
+            Assert.assertNotEquals(nameTxnBefore, getPartitionNameTxn(tableToken, partitionTimestamp));
+        });
+    }
+
     @Test
     public void testDropFailedWhileDataFileLocked() throws Exception {
         testDropFailedWhileDataFileLocked("x.d");
@@ -1323,6 +1370,17 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testO3TransactionsAcrossPartitionsMergedInSingleCommit() throws Exception {
+        assertO3TransactionsAcrossPartitionsMerged(1);
+    }
+
+    @Test
+    public void testO3TransactionsAcrossPartitionsMergedSequentially() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_APPLY_PARTITION_PARALLELISM, 1);
+        assertO3TransactionsAcrossPartitionsMerged(0);
+    }
+
     @Test
     public void testQueryNullSymbols() throws Exception {
         assertMemoryLeak(() -> {
@@ -1689,6 +1747,52 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    @Test
+    public void testSmallO3TransactionsFromManyWalsSquashed() throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            insert("insert into " + tableName + " values (1, '2022-02-24T00'), (2, '2022-02-24T02'), (3, '2022-02-24T04'), (4, '2022-02-25T00')");
+            drainWalQueue();
+
+            WalMetrics walMetrics = engine.getMetrics().walMetrics();
+            final long squashedBefore = walMetrics.getApplySquashedTransactions();
+            final long rewrittenBefore = walMetrics.getApplyO3RewrittenBytes();
+
+            TableToken tableToken = engine.verifyTableName(tableName);
+            try (
+                    WalWriter walWriter1 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter2 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter3 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter4 = engine.getWalWriter(tableToken)
+            ) {
+                // each writer owns its own WAL, all rows are out of order and land in the same partition
+                appendRow(walWriter1, 10, "2022-02-24T03:30");
+                appendRow(walWriter2, 11, "2022-02-24T01:30");
+                appendRow(walWriter3, 12, "2022-02-24T02:30");
+                appendRow(walWriter4, 13, "2022-02-24T00:30");
+            }
+            drainWalQueue();
+
+            assertSql(
+                    "x\tts\n" +
+                            "1\t2022-02-24T00:00:00.000000Z\n" +
+                            "13\t2022-02-24T00:30:00.000000Z\n" +
+                            "11\t2022-02-24T01:30:00.000000Z\n" +
+                            "2\t2022-02-24T02:00:00.000000Z\n" +
+                            "12\t2022-02-24T02:30:00.000000Z\n" +
+                            "10\t2022-02-24T03:30:00.000000Z\n" +
+                            "3\t2022-02-24T04:00:00.000000Z\n" +
+                            "4\t2022-02-25T00:00:00.000000Z\n",
+                    tableName
+            );
+
+            // all 4 transactions are accumulated in LAG and merged into the partition by a single commit
+            Assert.assertEquals(4, walMetrics.getApplySquashedTransactions() - squashedBefore);
+            Assert.assertTrue(walMetrics.getApplyO3RewrittenBytes() > rewrittenBefore);
+        });
+    }
+
     @Test
     public void testSuspendedTablesTriedOnceOnStart() throws Exception {
         FilesFacade ff = new TestFilesFacadeImpl() {
@@ -1820,6 +1924,57 @@ public class WalTableSqlTest extends AbstractCairoTest {
         });
     }
 
+    private static void appendRow(WalWriter walWriter, long x, String timestamp) throws NumericException {
+        TableWriter.Row row = walWriter.newRow(IntervalUtils.parseFloorPartialTimestamp(timestamp));
+        row.putLong(0, x);
+        row.append();
+        walWriter.commit();
+    }
+
+    private void assertO3TransactionsAcrossPartitionsMerged(int expectedParallelMerges) throws Exception {
+        assertMemoryLeak(() -> {
+            String tableName = testName.getMethodName();
+            ddl("create table " + tableName + " (x long, ts timestamp) timestamp(ts) partition by DAY WAL");
+            insert("insert into " + tableName + " values (1, '2022-02-24'), (2, '2022-02-25'), (3, '2022-02-26'), (4, '2022-02-27')");
+            drainWalQueue();
+
+            WalMetrics walMetrics = engine.getMetrics().walMetrics();
+            final long mergedPartitionsBefore = walMetrics.getApplyMergedPartitions();
+            final long parallelMergesBefore = walMetrics.getApplyParallelPartitionMerges();
+            final long squashedBefore = walMetrics.getApplySquashedTransactions();
+
+            TableToken tableToken = engine.verifyTableName(tableName);
+            try (
+                    WalWriter walWriter1 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter2 = engine.getWalWriter(tableToken);
+                    WalWriter walWriter3 = engine.getWalWriter(tableToken)
+            ) {
+                // each transaction is out of order and targets its own partition
+                appendRow(walWriter1, 10, "2022-02-24T12");
+                appendRow(walWriter2, 11, "2022-02-25T12");
+                appendRow(walWriter3, 12, "2022-02-26T12");
+            }
+            drainWalQueue();
+
+            assertSql(
+                    "x\tts\n" +
+                            "1\t2022-02-24T00:00:00.000000Z\n" +
+                            "10\t2022-02-24T12:00:00.000000Z\n" +
+                            "2\t2022-02-25T00:00:00.000000Z\n" +
+                            "11\t2022-02-25T12:00:00.000000Z\n" +
+                            "3\t2022-02-26T00:00:00.000000Z\n" +
+                            "12\t2022-02-26T12:00:00.000000Z\n" +
+                            "4\t2022-02-27T00:00:00.000000Z\n",
+                    tableName
+            );
+
+            // the transactions are squashed and their partitions are merged by a single table commit
+            Assert.assertEquals(3, walMetrics.getApplySquashedTransactions() - squashedBefore);
+            Assert.assertEquals(3, walMetrics.getApplyMergedPartitions() - mergedPartitionsBefore);
+            Assert.assertEquals(expectedParallelMerges, walMetrics.getApplyParallelPartitionMerges() - parallelMergesBefore);
+        });
+    }
+
     private void checkTableFilesExist(TableToken sysTableName, String partition, String fileName, boolean value) {
         Path sysPath = Path.PATH.get().of(configuration.getRoot()).concat(sysTableName).concat(TXN_FILE_NAME);
         Assert.assertEquals(Utf8s.toString(sysPath), value, Files.exists(sysPath.$()));
@@ -1850,6 +2005,14 @@ public class WalTableSqlTest extends AbstractCairoTest {
         Assert.assertFalse(Utf8s.toString(sysPath), Files.exists(sysPath.$()));
     }
 
+    private long getPartitionNameTxn(TableToken tableToken, long partitionTimestamp) {
+        try (TxReader txReader = new TxReader(engine.getConfiguration().getFilesFacade())) {
+            txReader.ofRO(Path.getThreadLocal(root).concat(tableToken).concat(TXN_FILE_NAME).$(), PartitionBy.DAY);
+            txReader.unsafeLoadAll();
+            return txReader.getPartitionNameTxnByPartitionTimestamp(partitionTimestamp);
+        }
+    }
+
     private void runApplyOnce() {
         try (ApplyWal2TableJob walApplyJob = new ApplyWal2TableJob(engine, 1, 1)) {
             walApplyJob.run(0);
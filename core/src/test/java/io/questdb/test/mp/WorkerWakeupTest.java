@@ -0,0 +1,210 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.mp;
+
+import io.questdb.mp.*;
+import io.questdb.std.Os;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WorkerWakeupTest {
+    private static final int CAPACITY = 64;
+    // long enough for the tests to time out should a wake-up get lost
+    private static final long SLEEP_TIMEOUT_MS = 60_000;
+
+    @Test
+    public void testNoLostWakeups() {
+        final WorkerWakeup wakeup = new WorkerWakeup();
+        final RingQueue<Event> queue = new RingQueue<>(Event.FACTORY, CAPACITY);
+        final MPSequence pubSeq = new MPSequence(CAPACITY);
+        final MCSequence subSeq = new MCSequence(CAPACITY, wakeup);
+        pubSeq.then(subSeq).then(pubSeq);
+
+        final int count = 2_000;
+        final SOCountDownLatch latch = new SOCountDownLatch(count);
+        final AtomicLong sum = new AtomicLong();
+        final WorkerPool pool = new WorkerPool(new TestConfiguration(4));
+        pool.assign(consumer(queue, subSeq, sum, latch));
+        pool.subscribe(wakeup);
+        pool.start();
+        try {
+            long expected = 0;
+            for (int i = 0; i < count; i++) {
+                publish(queue, pubSeq, i);
+                expected += i;
+                if (i % 100 == 0) {
+                    // let the workers go idle and park
+                    awaitParked(pool.getParkingLot(), 1);
+                }
+            }
+            Assert.assertTrue(latch.await(TimeUnit.SECONDS.toNanos(30)));
+            Assert.assertEquals(expected, sum.get());
+        } finally {
+            pool.halt();
+        }
+    }
+
+    @Test
+    public void testParkedWorkerIsWokenUp() {
+        final WorkerWakeup wakeup = new WorkerWakeup();
+        final RingQueue<Event> queue = new RingQueue<>(Event.FACTORY, CAPACITY);
+        final MPSequence pubSeq = new MPSequence(CAPACITY);
+        final MCSequence subSeq = new MCSequence(CAPACITY, wakeup);
+        pubSeq.then(subSeq).then(pubSeq);
+
+        final SOCountDownLatch latch = new SOCountDownLatch(1);
+        final AtomicLong sum = new AtomicLong();
+        final WorkerPool pool = new WorkerPool(new TestConfiguration(2));
+        pool.assign(consumer(queue, subSeq, sum, latch));
+        pool.subscribe(wakeup);
+        pool.start();
+        try {
+            final WorkerParkingLot lot = pool.getParkingLot();
+            Assert.assertNotNull(lot);
+            Assert.assertTrue(wakeup.isSubscribed(lot));
+            awaitParked(lot, 2);
+
+            publish(queue, pubSeq, 42);
+            Assert.assertTrue(latch.await(TimeUnit.SECONDS.toNanos(30)));
+            Assert.assertEquals(42, sum.get());
+            Assert.assertTrue(lot.getWakeupCount() > 0);
+        } finally {
+            pool.halt();
+        }
+        Assert.assertFalse(wakeup.isSubscribed(pool.getParkingLot()));
+    }
+
+    @Test
+    public void testSignalWithoutParkedWorkers() {
+        final WorkerWakeup wakeup = new WorkerWakeup();
+        // no subscribers
+        wakeup.signal();
+
+        final WorkerParkingLot lot = new WorkerParkingLot(2);
+        wakeup.subscribe(lot);
+        wakeup.subscribe(lot);
+        final long epoch = lot.getEpoch();
+        wakeup.signal();
+        Assert.assertEquals(epoch + 1, lot.getEpoch());
+        Assert.assertEquals(0, lot.getWakeupCount());
+
+        // signal after epoch was read prevents parking
+        final long t = System.nanoTime();
+        lot.park(0, epoch, TimeUnit.MILLISECONDS.toNanos(SLEEP_TIMEOUT_MS));
+        Assert.assertTrue(System.nanoTime() - t < TimeUnit.MILLISECONDS.toNanos(SLEEP_TIMEOUT_MS));
+        Assert.assertEquals(0, lot.getParkedCount());
+
+        wakeup.unsubscribe(lot);
+        Assert.assertFalse(wakeup.isSubscribed(lot));
+        wakeup.signal();
+        Assert.assertEquals(epoch + 1, lot.getEpoch());
+    }
+
+    @Test
+    public void testWakeupDisabled() {
+        final WorkerPool pool = new WorkerPool(() -> 1);
+        Assert.assertNull(pool.getParkingLot());
+        final WorkerWakeup wakeup = new WorkerWakeup();
+        pool.subscribe(wakeup);
+        pool.start();
+        try {
+            Os.sleep(10);
+        } finally {
+            pool.halt();
+        }
+    }
+
+    private static void awaitParked(WorkerParkingLot lot, int count) {
+        while (lot.getParkedCount() < count) {
+            Os.pause();
+        }
+    }
+
+    private static Job consumer(RingQueue<Event> queue, MCSequence subSeq, AtomicLong sum, SOCountDownLatch latch) {
+        return (workerId, runStatus) -> {
+            long cursor;
+            do {
+                cursor = subSeq.next();
+            } while (cursor == -2);
+            if (cursor > -1) {
+                sum.addAndGet(queue.get(cursor).value);
+                subSeq.done(cursor);
+                latch.countDown();
+                return true;
+            }
+            return false;
+        };
+    }
+
+    private static void publish(RingQueue<Event> queue, MPSequence pubSeq, int value) {
+        long cursor;
+        while ((cursor = pubSeq.next()) < 0) {
+            Os.pause();
+        }
+        queue.get(cursor).value = value;
+        pubSeq.done(cursor);
+    }
+
+    private static class TestConfiguration implements WorkerPoolConfiguration {
+        private final int workerCount;
+
+        private TestConfiguration(int workerCount) {
+            this.workerCount = workerCount;
+        }
+
+        @Override
+        public long getNapThreshold() {
+            return 2;
+        }
+
+        @Override
+        public long getSleepThreshold() {
+            return 3;
+        }
+
+        @Override
+        public long getSleepTimeout() {
+            return SLEEP_TIMEOUT_MS;
+        }
+
+        @Override
+        public int getWorkerCount() {
+            return workerCount;
+        }
+
+        @Override
+        public long getYieldThreshold() {
+            return 1;
+        }
+
+        @Override
+        public boolean isWakeupEnabled() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.std;
+
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.std.NumaTopology;
+import io.questdb.std.NumericException;
+import io.questdb.std.ObjList;
+import io.questdb.std.Rnd;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NumaTopologyTest {
+
+    @Test
+    public void testDetect() {
+        final NumaTopology topology = NumaTopology.detect();
+        Assert.assertTrue(topology.getNodeCount() > 0);
+        Assert.assertEquals(-1, topology.getNode(-1));
+    }
+
+    @Test
+    public void testInvalidCpuList() {
+        assertInvalid("0-3", "4-x");
+        assertInvalid("0-3", "7-4");
+        assertInvalid("0-3", "4,,5");
+    }
+
+    @Test
+    public void testNodeShard() {
+        final Rnd rnd = new Rnd();
+        for (int i = 0; i < 1000; i++) {
+            // 2 nodes, 4 shards: node 0 owns shards 0 and 2, node 1 owns shards 1 and 3
+            Assert.assertEquals(0, PageFrameSequence.nodeShard(0, 4, 2, rnd) % 2);
+            Assert.assertEquals(1, PageFrameSequence.nodeShard(1, 4, 2, rnd) % 2);
+            // 3 nodes, 4 shards: node 0 owns shards 0 and 3
+            final int shard = PageFrameSequence.nodeShard(0, 4, 3, rnd);
+            Assert.assertTrue(shard == 0 || shard == 3);
+            Assert.assertEquals(2, PageFrameSequence.nodeShard(2, 4, 3, rnd));
+            // node without shards falls back to any shard
+            final int anyShard = PageFrameSequence.nodeShard(3, 2, 4, rnd);
+            Assert.assertTrue(anyShard >= 0 && anyShard < 2);
+        }
+    }
+
+    @Test
+    public void testSingleNode() throws NumericException {
+        final ObjList<CharSequence> cpuLists = new ObjList<>();
+        cpuLists.add("0-15");
+        final NumaTopology topology = NumaTopology.of(cpuLists);
+        Assert.assertSame(NumaTopology.SINGLE_NODE, topology);
+        Assert.assertEquals(1, topology.getNodeCount());
+    }
+
+    @Test
+    public void testTwoNodes() throws NumericException {
+        final ObjList<CharSequence> cpuLists = new ObjList<>();
+        cpuLists.add("0-3,8-11");
+        cpuLists.add("4-7,12-13,15");
+        final NumaTopology topology = NumaTopology.of(cpuLists);
+        Assert.assertEquals(2, topology.getNodeCount());
+        for (int cpu = 0; cpu < 4; cpu++) {
+            Assert.assertEquals(0, topology.getNode(cpu));
+            Assert.assertEquals(1, topology.getNode(cpu + 4));
+            Assert.assertEquals(0, topology.getNode(cpu + 8));
+        }
+        Assert.assertEquals(1, topology.getNode(12));
+        Assert.assertEquals(1, topology.getNode(13));
+        // offline cpu
+        Assert.assertEquals(-1, topology.getNode(14));
+        Assert.assertEquals(1, topology.getNode(15));
+        Assert.assertEquals(-1, topology.getNode(16));
+        Assert.assertEquals(-1, topology.getNode(-1));
+    }
+
+    private static void assertInvalid(CharSequence... nodeCpuLists) {
+        final ObjList<CharSequence> cpuLists = new ObjList<>();
+        for (CharSequence cpuList : nodeCpuLists) {
+            cpuLists.add(cpuList);
+        }
+        try {
+            NumaTopology.of(cpuLists);
+            Assert.fail();
+        } catch (NumericException ignore) {
+        }
+    }
+}
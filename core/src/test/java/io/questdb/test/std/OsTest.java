@@ -76,6 +76,13 @@ public class OsTest {
         assertTrue(delta < 200);
     }
 
+    @Test
+    public void testGetPageFaults() {
+        // -1 when the native library has been built without page fault counters
+        Assert.assertTrue(Os.getMinorPageFaults() >= -1);
+        Assert.assertTrue(Os.getMajorPageFaults() >= -1);
+    }
+
     @Test
     public void testGetRss() {
         Assert.assertNotEquals(0, Os.getRss());
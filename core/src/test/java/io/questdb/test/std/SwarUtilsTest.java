@@ -56,6 +56,18 @@ public class SwarUtilsTest {
         Assert.assertEquals(7, SwarUtils.indexOfFirstMarkedByte(0x8000000000000000L));
     }
 
+    @Test
+    public void testMarkZeroBytesExact() {
+        Assert.assertEquals(0x0L, SwarUtils.markZeroBytesExact(-1L));
+        Assert.assertEquals(0x8080808080808080L, SwarUtils.markZeroBytesExact(0L));
+        Assert.assertEquals(0x8080808080808000L, SwarUtils.markZeroBytesExact(1L));
+        Assert.assertEquals(0x0080808080808080L, SwarUtils.markZeroBytesExact(Long.MIN_VALUE));
+        Assert.assertEquals(0x0000000000000000L, SwarUtils.markZeroBytesExact(0x8001800180018001L));
+        // no false positive:
+        Assert.assertEquals(0x8080808080800080L, SwarUtils.markZeroBytesExact(0x0100));
+        Assert.assertEquals(0x8080808080008000L, SwarUtils.markZeroBytesExact(0x010001));
+    }
+
     @Test
     public void testMarkZeroBytes() {
         Assert.assertEquals(0x0L, SwarUtils.markZeroBytes(-1L));
@@ -74,4 +86,15 @@ public class SwarUtilsTest {
         // false positive:
         Assert.assertEquals(0x8080808080808080L, SwarUtils.markZeroBytes(0x0100));
     }
+
+    @Test
+    public void testMovemask() {
+        Assert.assertEquals(0, SwarUtils.movemask(0L));
+        Assert.assertEquals(0, SwarUtils.movemask(0x7f7f7f7f7f7f7f7fL));
+        Assert.assertEquals(0xff, SwarUtils.movemask(-1L));
+        Assert.assertEquals(0x01, SwarUtils.movemask(0x0000000000000080L));
+        Assert.assertEquals(0x02, SwarUtils.movemask(0x000000000000ff00L));
+        Assert.assertEquals(0x80, SwarUtils.movemask(Long.MIN_VALUE));
+        Assert.assertEquals(0xa5, SwarUtils.movemask(0x8000800000800080L));
+    }
 }
@@ -78,6 +78,13 @@ public class TestFilesFacadeImpl extends FilesFacadeImpl {
         return fd;
     }
 
+    @Override
+    public long openRODirect(LPSZ name) {
+        long fd = super.openRODirect(name);
+        track(name, fd);
+        return fd;
+    }
+
     @Override
     public long openRW(LPSZ name, long opts) {
         long fd = super.openRW(name, opts);